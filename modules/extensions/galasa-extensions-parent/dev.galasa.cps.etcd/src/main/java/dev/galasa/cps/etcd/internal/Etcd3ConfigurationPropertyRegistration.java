@@ -10,12 +10,17 @@ import java.net.URISyntaxException;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.osgi.service.component.annotations.Component;
 
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.Environment;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreRegistration;
 import dev.galasa.framework.spi.IFrameworkInitialisation;
+import dev.galasa.framework.spi.SystemEnvironment;
 
 /**
  * This Class is a small OSGI bean that registers the CPS store as a ETCD
@@ -26,6 +31,26 @@ import dev.galasa.framework.spi.IFrameworkInitialisation;
 @Component(service = { IConfigurationPropertyStoreRegistration.class })
 public class Etcd3ConfigurationPropertyRegistration implements IConfigurationPropertyStoreRegistration {
 
+    public static final String CPS_CACHE_ENABLED_ENV_VAR = "CPS_CACHE_ENABLED";
+    public static final String CPS_CACHE_MAX_NAMESPACES_ENV_VAR = "CPS_CACHE_MAX_NAMESPACES";
+    public static final int DEFAULT_CPS_CACHE_MAX_NAMESPACES = 0;
+
+    private final Log logger = LogFactory.getLog(Etcd3ConfigurationPropertyRegistration.class);
+
+    private Environment env;
+
+    // Off unless asked for, as cached properties are only as current as the etcd watches keeping them up to date
+    private boolean isCacheEnabled = false;
+    private int maxCacheNamespaces = DEFAULT_CPS_CACHE_MAX_NAMESPACES;
+
+    public Etcd3ConfigurationPropertyRegistration() {
+        this(new SystemEnvironment());
+    }
+
+    public Etcd3ConfigurationPropertyRegistration(Environment env) {
+        this.env = env;
+    }
+
     /**
      * This intialise method is a overide that registers the correct store to the
      * framework.
@@ -44,6 +69,7 @@ public class Etcd3ConfigurationPropertyRegistration implements IConfigurationPro
         if (isEtcdUri(cps)) {
             try {
                 URI uri = new URI(cps.toString().substring(5));
+                setCacheOptionsFromEnvironmentOrDefault();
                 Etcd3ConfigurationPropertyStore store = createStore(uri);
                 store.checkEtcdConnectivity(uri);
                 frameworkInitialisation.registerConfigurationPropertyStore(store);
@@ -56,6 +82,9 @@ public class Etcd3ConfigurationPropertyRegistration implements IConfigurationPro
     }
 
     protected Etcd3ConfigurationPropertyStore createStore(URI uri) {
+        if (this.isCacheEnabled) {
+            return new Etcd3ConfigurationPropertyStore(uri, this.maxCacheNamespaces);
+        }
         return new Etcd3ConfigurationPropertyStore(uri);
     }
 
@@ -68,4 +97,38 @@ public class Etcd3ConfigurationPropertyRegistration implements IConfigurationPro
     public static boolean isEtcdUri(URI uri) {
         return "etcd".equals(uri.getScheme());
     }
+
+    private void setCacheOptionsFromEnvironmentOrDefault() {
+        String enabled = this.env.getenv(CPS_CACHE_ENABLED_ENV_VAR);
+        if (enabled != null && !enabled.isBlank()) {
+            this.isCacheEnabled = "true".equalsIgnoreCase(enabled.trim());
+        }
+
+        String maxNamespaces = this.env.getenv(CPS_CACHE_MAX_NAMESPACES_ENV_VAR);
+        if (maxNamespaces != null && !maxNamespaces.isBlank()) {
+            try {
+                int parsed = Integer.parseInt(maxNamespaces.trim());
+                if (parsed >= 0) {
+                    this.maxCacheNamespaces = parsed;
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid value was set in the environment for the maximum number of CPS namespaces to cache," +
+                " setting to default value " + DEFAULT_CPS_CACHE_MAX_NAMESPACES);
+            }
+        }
+    }
+
+    /*
+     * This method exists for unit testing purposes.
+     */
+    public boolean isCacheEnabled() {
+        return this.isCacheEnabled;
+    }
+
+    /*
+     * This method exists for unit testing purposes.
+     */
+    public int getMaxCacheNamespaces() {
+        return this.maxCacheNamespaces;
+    }
 }
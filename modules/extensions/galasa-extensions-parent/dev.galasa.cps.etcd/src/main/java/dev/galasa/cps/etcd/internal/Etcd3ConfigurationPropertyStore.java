@@ -35,7 +35,9 @@ import io.etcd.jetcd.options.OptionsUtil;
  * @author Matthew Chivers
  */
 public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConfigurationPropertyStore {
-    
+
+    // Null if properties are always read from etcd
+    private final Etcd3CpsCache cache;
 
     /**
      * This constructor create a priate KVClient from JETCD for store interactions.
@@ -44,10 +46,30 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
      */
     public Etcd3ConfigurationPropertyStore(URI cpsUri) {
         super(cpsUri);
+        this.cache = null;
     }
 
     public Etcd3ConfigurationPropertyStore(Client etcdClient) {
         super(etcdClient);
+        this.cache = null;
+    }
+
+    /**
+     * Creates a store that caches the properties it reads, a namespace at a
+     * time, and keeps them up to date by watching etcd.
+     *
+     * @param cpsUri             - location of the etcd
+     * @param maxCacheNamespaces - the most namespaces to cache at once, or 0 for
+     *                           no limit
+     */
+    public Etcd3ConfigurationPropertyStore(URI cpsUri, int maxCacheNamespaces) {
+        super(cpsUri);
+        this.cache = new Etcd3CpsCache(kvClient, client.getWatchClient(), maxCacheNamespaces);
+    }
+
+    public Etcd3ConfigurationPropertyStore(Client etcdClient, int maxCacheNamespaces) {
+        super(etcdClient);
+        this.cache = new Etcd3CpsCache(kvClient, client.getWatchClient(), maxCacheNamespaces);
     }
 
     /**
@@ -58,6 +80,17 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
      */
     @Override
     public @Null String getProperty(@NotNull String key) throws ConfigurationPropertyStoreException {
+        if (cache != null && Etcd3CpsCache.namespaceOf(key) != null) {
+            try {
+                return cache.getProperty(key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConfigurationPropertyStoreException("Could not retrieve key, interrupted", e);
+            } catch (ExecutionException e) {
+                throw new ConfigurationPropertyStoreException("Could not retrieve key", e);
+            }
+        }
+
         ByteSequence bsKey = ByteSequence.from(key, UTF_8);
         CompletableFuture<GetResponse> getFuture = kvClient.get(bsKey);
         try {
@@ -79,6 +112,17 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
     @Override
     public @NotNull Map<String, String> getPrefixedProperties(@NotNull String prefix)
             throws ConfigurationPropertyStoreException {
+
+        if (cache != null && Etcd3CpsCache.namespaceOf(prefix) != null) {
+            try {
+                return cache.getPrefixedProperties(prefix);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConfigurationPropertyStoreException("Could not retrieve key, interrupted", e);
+            } catch (ExecutionException e) {
+                throw new ConfigurationPropertyStoreException("Could not retrieve key", e);
+            }
+        }
         
         HashMap<String, String> returnValues = new HashMap<>();
         
@@ -105,6 +149,9 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
 
     @Override
     public void shutdown() throws ConfigurationPropertyStoreException {
+        if (cache != null) {
+            cache.shutdown();
+        }
         kvClient.close();
         client.close();
     }
@@ -118,6 +165,8 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Could not set key and value.", e);
+        } finally {
+            invalidateCache(key);
         }
     }
     
@@ -129,6 +178,8 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Could not delete key.", e);
+        } finally {
+            invalidateCache(key);
         }
     }
 
@@ -140,6 +191,8 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Failed to delete properties", e);
+        } finally {
+            invalidateCache(prefix);
         }
 
     }
@@ -207,6 +260,27 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Failed to set properties", e);
+        } finally {
+            for (String key : propertiesToSet.keySet()) {
+                invalidateCache(key);
+            }
         }
     }
+
+    /**
+     * Drop what is cached of the namespace being changed, so the change is seen
+     * by the next get rather than when etcd's watch event arrives.
+     */
+    private void invalidateCache(String keyOrPrefix) {
+        if (cache != null) {
+            cache.invalidate(keyOrPrefix);
+        }
+    }
+
+    /*
+     * This method exists for unit testing purposes.
+     */
+    public Etcd3CpsCache getCache() {
+        return cache;
+    }
 }
@@ -0,0 +1,347 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.cps.etcd.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.KV;
+import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.Watch;
+import io.etcd.jetcd.Watch.Listener;
+import io.etcd.jetcd.Watch.Watcher;
+import io.etcd.jetcd.common.exception.CompactedException;
+import io.etcd.jetcd.kv.GetResponse;
+import io.etcd.jetcd.options.GetOption;
+import io.etcd.jetcd.options.OptionsUtil;
+import io.etcd.jetcd.options.WatchOption;
+import io.etcd.jetcd.watch.WatchEvent;
+import io.etcd.jetcd.watch.WatchResponse;
+
+/**
+ * A near cache of the CPS properties held in etcd, so that the many properties
+ * a test run or server looks up are read from memory rather than with a round
+ * trip to etcd each.
+ *
+ * Properties are cached a namespace at a time. The first time a property of a
+ * namespace is asked for, the whole namespace is read from etcd, and as the
+ * namespace is then held in full, a property that is not in it is known not to
+ * be set without asking etcd again.
+ *
+ * Each cached namespace is kept up to date by an etcd watch, started from the
+ * revision the namespace was read at. The latest revision seen is tracked, so
+ * that if the watch fails it is started again from where it left off and no
+ * changes are missed. If etcd has compacted away the revisions needed, or the
+ * watch is ended, the namespace is dropped and read again when next needed.
+ *
+ * If a maximum number of namespaces is given, the least recently used
+ * namespace is dropped when another is read, along with its watch.
+ *
+ * Namespaces are read from etcd outside the cache's lock, so a slow read only
+ * holds up the callers waiting for that same namespace, not the lookups of
+ * namespaces that are already cached.
+ */
+public class Etcd3CpsCache {
+
+    private static final int MAX_WATCH_RESTARTS = 3;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final KV    kvClient;
+    private final Watch watchClient;
+    private final int   maxNamespaces;
+
+    // In least recently used order, so the eldest is the one to evict
+    private final LinkedHashMap<String, CachedNamespace> namespaces = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits         = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses       = new AtomicLong();
+    private final AtomicLong evictions    = new AtomicLong();
+
+    /**
+     * @param kvClient      - the client the namespaces are read with
+     * @param watchClient   - the client the namespaces are watched with
+     * @param maxNamespaces - the most namespaces to hold at once, or 0 for no limit
+     */
+    public Etcd3CpsCache(KV kvClient, Watch watchClient, int maxNamespaces) {
+        this.kvClient = kvClient;
+        this.watchClient = watchClient;
+        this.maxNamespaces = maxNamespaces;
+    }
+
+    /**
+     * @param key - a property key, which must contain a '.' after the namespace
+     * @return the value of the property, or null if it is not set
+     */
+    public String getProperty(String key) throws InterruptedException, ExecutionException {
+        CachedNamespace namespace = getNamespace(namespaceOf(key));
+        String value = namespace.properties.get(key);
+        if (value == null) {
+            negativeHits.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * @param prefix - a key prefix, which must contain a '.' after the namespace
+     * @return the properties whose keys start with the prefix
+     */
+    public Map<String, String> getPrefixedProperties(String prefix) throws InterruptedException, ExecutionException {
+        CachedNamespace namespace = getNamespace(namespaceOf(prefix));
+        Map<String, String> results = new HashMap<>();
+        for (Map.Entry<String, String> entry : namespace.properties.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                results.put(entry.getKey(), entry.getValue());
+            }
+        }
+        hits.incrementAndGet();
+        return results;
+    }
+
+    /**
+     * @return the namespace of a key or prefix, or null if it has no '.', in
+     *         which case it may span namespaces and cannot be served from the
+     *         cache
+     */
+    public static String namespaceOf(String keyOrPrefix) {
+        int indexOfFirstDot = keyOrPrefix.indexOf('.');
+        if (indexOfFirstDot < 0) {
+            return null;
+        }
+        return keyOrPrefix.substring(0, indexOfFirstDot);
+    }
+
+    /**
+     * Drop the namespaces that keys starting with the given prefix could belong
+     * to, so that a change made through this process is seen straight away
+     * rather than when its watch event arrives.
+     */
+    public synchronized void invalidate(String keyOrPrefix) {
+        String namespace = namespaceOf(keyOrPrefix);
+        if (namespace != null) {
+            drop(namespace);
+            return;
+        }
+
+        for (String cachedNamespace : new ArrayList<>(namespaces.keySet())) {
+            if (cachedNamespace.startsWith(keyOrPrefix)) {
+                drop(cachedNamespace);
+            }
+        }
+    }
+
+    /**
+     * Stop watching and drop all the cached namespaces
+     */
+    public synchronized void shutdown() {
+        for (String namespace : new ArrayList<>(namespaces.keySet())) {
+            drop(namespace);
+        }
+        logger.debug("CPS cache shutdown, hits=" + getHits() + ", negative hits=" + getNegativeHits() + ", misses="
+                + getMisses() + ", evictions=" + getEvictions());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.get();
+    }
+
+    /**
+     * @return the number of times a namespace has been read from etcd
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int getNamespaceCount() {
+        return namespaces.size();
+    }
+
+    private CachedNamespace getNamespace(String namespace) throws InterruptedException, ExecutionException {
+        CachedNamespace cached;
+        boolean isLoadedByThisThread = false;
+        synchronized (this) {
+            cached = namespaces.get(namespace);
+            if (cached == null) {
+                misses.incrementAndGet();
+                cached = new CachedNamespace(namespace);
+                namespaces.put(namespace, cached);
+                isLoadedByThisThread = true;
+                evictIfOverMaximum();
+            }
+        }
+
+        if (isLoadedByThisThread) {
+            try {
+                cached.load();
+            } catch (InterruptedException | ExecutionException | RuntimeException e) {
+                cached.loaded.completeExceptionally(e);
+                dropIfCurrent(cached);
+                throw e;
+            }
+        } else {
+            cached.loaded.get();
+        }
+        return cached;
+    }
+
+    private void evictIfOverMaximum() {
+        if (maxNamespaces > 0 && namespaces.size() > maxNamespaces) {
+            Iterator<Map.Entry<String, CachedNamespace>> eldest = namespaces.entrySet().iterator();
+            CachedNamespace evicted = eldest.next().getValue();
+            eldest.remove();
+            evicted.close();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void drop(String namespace) {
+        CachedNamespace cached = namespaces.remove(namespace);
+        if (cached != null) {
+            cached.close();
+        }
+    }
+
+    private synchronized void dropIfCurrent(CachedNamespace cached) {
+        if (namespaces.get(cached.namespace) == cached) {
+            drop(cached.namespace);
+        }
+    }
+
+    private class CachedNamespace implements Listener {
+
+        private final String                  namespace;
+        private final Map<String, String>     properties = new ConcurrentHashMap<>();
+
+        // Completed once the namespace has been read, for the callers that did not read it themselves
+        private final CompletableFuture<Void> loaded     = new CompletableFuture<>();
+
+        private volatile long                 revision;
+        private Watcher                       watcher;
+        private int                           restarts;
+        private boolean                       closed;
+
+        public CachedNamespace(String namespace) {
+            this.namespace = namespace;
+        }
+
+        /**
+         * Reads the namespace from etcd and starts watching it. If the namespace
+         * is dropped from the cache while it is being read, it is still given to
+         * the callers waiting for it, but is not watched.
+         */
+        private void load() throws InterruptedException, ExecutionException {
+            String keyPrefix = namespace + ".";
+            ByteSequence bsPrefix = ByteSequence.from(keyPrefix, UTF_8);
+            GetOption options = GetOption.builder().isPrefix(true).build();
+            GetResponse response = kvClient.get(bsPrefix, options).get();
+
+            for (KeyValue kv : response.getKvs()) {
+                // jetcd's getKey() method strips off the given prefix from matching keys, so add them back in
+                String key = kv.getKey().toString(UTF_8);
+                if (!key.startsWith(keyPrefix)) {
+                    key = keyPrefix + key;
+                }
+                properties.put(key, kv.getValue().toString(UTF_8));
+            }
+            revision = response.getHeader().getRevision();
+
+            watch();
+            loaded.complete(null);
+        }
+
+        private synchronized void watch() {
+            if (closed) {
+                return;
+            }
+            ByteSequence bsPrefix = ByteSequence.from(namespace + ".", UTF_8);
+            WatchOption option = WatchOption.builder()
+                    .withRange(OptionsUtil.prefixEndOf(bsPrefix))
+                    .withRevision(revision + 1)
+                    .build();
+            watcher = watchClient.watch(bsPrefix, option, this);
+        }
+
+        private synchronized void close() {
+            closed = true;
+            if (watcher != null) {
+                watcher.close();
+                watcher = null;
+            }
+        }
+
+        @Override
+        public void onNext(WatchResponse response) {
+            synchronized (this) {
+                restarts = 0;
+            }
+            for (WatchEvent event : response.getEvents()) {
+                KeyValue kv = event.getKeyValue();
+                String key = kv.getKey().toString(UTF_8);
+                switch (event.getEventType()) {
+                    case PUT:
+                        properties.put(key, kv.getValue().toString(UTF_8));
+                        break;
+                    case DELETE:
+                        properties.remove(key);
+                        break;
+                    default:
+                        break;
+                }
+                revision = Math.max(revision, kv.getModRevision());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            boolean restart;
+            synchronized (this) {
+                restart = !closed && !(throwable instanceof CompactedException) && ++restarts <= MAX_WATCH_RESTARTS;
+                if (restart && watcher != null) {
+                    watcher.close();
+                }
+            }
+
+            if (restart) {
+                logger.debug("Restarting the CPS cache watch of namespace " + namespace + " from revision "
+                        + (revision + 1), throwable);
+                watch();
+            } else {
+                logger.debug("Dropping namespace " + namespace + " from the CPS cache after its watch failed",
+                        throwable);
+                dropIfCurrent(this);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            dropIfCurrent(this);
+        }
+    }
+}
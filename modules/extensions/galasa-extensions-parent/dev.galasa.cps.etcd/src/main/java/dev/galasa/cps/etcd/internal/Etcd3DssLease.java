@@ -0,0 +1,70 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.cps.etcd.internal;
+
+import java.util.concurrent.ExecutionException;
+
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDssLease;
+import io.etcd.jetcd.Lease;
+import io.etcd.jetcd.common.exception.ErrorCode;
+import io.etcd.jetcd.common.exception.EtcdException;
+import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
+
+/**
+ * A lease granted by etcd, which is kept alive one request at a time by whoever holds it.
+ * 
+ * jetcd can also keep a lease alive over a stream, but the stream observer it needs is
+ * not exported by the jetcd bundle, so a single keep-alive request is sent each time
+ * {@link #keepAlive()} is called instead. Keep-alive requests do not write to etcd's
+ * key-value store, so they do not create new revisions.
+ */
+public class Etcd3DssLease implements IDssLease {
+
+    private final Lease leaseClient;
+    private final long  leaseId;
+
+    public Etcd3DssLease(Lease leaseClient, long leaseId) {
+        this.leaseClient = leaseClient;
+        this.leaseId = leaseId;
+    }
+
+    @Override
+    public boolean keepAlive() throws DynamicStatusStoreException {
+        try {
+            LeaseKeepAliveResponse response = leaseClient.keepAliveOnce(leaseId).get();
+            return response.getTTL() > 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamicStatusStoreException("Interrupted keeping lease " + leaseId + " alive", e);
+        } catch (ExecutionException e) {
+            // jetcd fails the keep-alive with "requested lease not found" once the lease has expired
+            if (isLeaseNotFound(e.getCause())) {
+                return false;
+            }
+            throw new DynamicStatusStoreException("Could not keep lease " + leaseId + " alive", e);
+        }
+    }
+
+    @Override
+    public void close() throws DynamicStatusStoreException {
+        try {
+            leaseClient.revoke(leaseId).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamicStatusStoreException("Interrupted revoking lease " + leaseId, e);
+        } catch (ExecutionException e) {
+            // A lease which has already expired has nothing left to revoke
+            if (!isLeaseNotFound(e.getCause())) {
+                throw new DynamicStatusStoreException("Could not revoke lease " + leaseId, e);
+            }
+        }
+    }
+
+    static boolean isLeaseNotFound(Throwable error) {
+        return (error instanceof EtcdException) && ((EtcdException) error).getErrorCode() == ErrorCode.NOT_FOUND;
+    }
+}
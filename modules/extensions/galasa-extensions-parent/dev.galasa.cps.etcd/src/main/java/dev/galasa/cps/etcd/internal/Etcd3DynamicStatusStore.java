@@ -18,6 +18,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 
 import javax.validation.constraints.NotNull;
@@ -33,9 +34,11 @@ import dev.galasa.framework.spi.DssUpdate;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.IDssAction;
+import dev.galasa.framework.spi.IDssLease;
 import dev.galasa.framework.spi.IDynamicStatusStore;
 import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
 import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
+import dev.galasa.framework.spi.utils.DssUtils;
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.KeyValue;
@@ -65,6 +68,9 @@ import io.etcd.jetcd.watch.WatchResponse;
  * This class implements the DSS store for the use of etcd3 as the k-v store. It
  * is interacting with the Jetcd Client offered from coreOs.
  * 
+ * The jetcd client is asynchronous, so the asynchronous DSS methods pass its futures
+ * straight through, and the synchronous methods wait for the asynchronous ones.
+ * 
  * @author James Davies
  */
 public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatusStore {
@@ -76,6 +82,9 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
 
     private final static boolean GET_KEYS_ONLY = true;
 
+    // Process 10,000 keys at a time to avoid hitting the gRPC maximum message size.
+    private final static int PREFIX_GET_PAGE_SIZE = 10000;
+
     /**
      * The constructure sets up a private KVClient that can be used by this class to
      * interact with the etcd3 cluster.
@@ -106,16 +115,16 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
      */
     @Override
     public void put(@NotNull String key, @NotNull String value) throws DynamicStatusStoreException {
+        DssUtils.waitFor(putAsync(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(@NotNull String key, @NotNull String value) {
         ByteSequence bsKey = ByteSequence.from(key, UTF_8);
         ByteSequence bsValue = ByteSequence.from(value, UTF_8);
 
         CompletableFuture<PutResponse> response = kvClient.put(bsKey, bsValue);
-        try {
-            response.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new DynamicStatusStoreException("Could not put key-value", e);
-        }
+        return toDssFuture(response, "Could not put key-value").thenApply(putResponse -> null);
     }
 
     /**
@@ -126,8 +135,13 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
      */
     @Override
     public void put(@NotNull Map<String, String> keyValues) throws DynamicStatusStoreException {
+        DssUtils.waitFor(putAsync(keyValues));
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(@NotNull Map<String, String> keyValues) {
         PutOption options = PutOption.DEFAULT;
-        setPropertiesIntoDSS(keyValues, options);
+        return setPropertiesIntoDSSAsync(keyValues, options);
     }
 
     /**
@@ -157,6 +171,10 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
     }
 
     private void setPropertiesIntoDSS(@NotNull Map<String, String> keyValues, @NotNull PutOption putOption) throws DynamicStatusStoreException {
+        DssUtils.waitFor(setPropertiesIntoDSSAsync(keyValues, putOption));
+    }
+
+    private CompletableFuture<Void> setPropertiesIntoDSSAsync(@NotNull Map<String, String> keyValues, @NotNull PutOption putOption) {
         Txn txn = kvClient.txn();
 
         ArrayList<Op> ops = new ArrayList<>();
@@ -167,12 +185,7 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
         }
         Txn request = txn.Then(ops.toArray(new Op[ops.size()]));
         CompletableFuture<TxnResponse> response = request.commit();
-        try {
-            response.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new DynamicStatusStoreException("Could not put key-value pairs into the DSS", e);
-        }
+        return toDssFuture(response, "Could not put key-value pairs into the DSS").thenApply(txnResponse -> null);
     }
 
     /**
@@ -205,6 +218,37 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
         }
     }
 
+    /**
+     * Put a key-value pair into the DSS, attached to a new lease which the caller must keep alive
+     * for the key to remain in the DSS.
+     * 
+     * @param key the key to be stored
+     * @param value the value to be associated with the given key
+     * @param timeToLiveSecs the amount of time in seconds the lease lasts for each time it is kept alive
+     * @return the lease the key is attached to
+     * @throws DynamicStatusStoreException if there was an error accessing etcd
+     */
+    @Override
+    public IDssLease putWithLease(@NotNull String key, @NotNull String value, long timeToLiveSecs) throws DynamicStatusStoreException {
+        try {
+            LeaseGrantResponse lease = leaseClient.grant(timeToLiveSecs).get();
+            PutOption putOption = PutOption.builder()
+                .withLeaseId(lease.getID())
+                .build();
+
+            ByteSequence bsKey = ByteSequence.from(key, UTF_8);
+            ByteSequence bsValue = ByteSequence.from(value, UTF_8);
+            kvClient.put(bsKey, bsValue, putOption).get();
+
+            return new Etcd3DssLease(leaseClient, lease.getID());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamicStatusStoreException("Interrupted setting key-value pair with a lease", e);
+        } catch (ExecutionException e) {
+            throw new DynamicStatusStoreException("Could not set key-value pair with a lease", e);
+        }
+    }
+
     /**
      * A put swap method does a check before setting the key-value.
      * 
@@ -220,6 +264,11 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
     @Override
     public boolean putSwap(@NotNull String key, String oldValue, @NotNull String newValue)
             throws DynamicStatusStoreException {
+        return DssUtils.waitFor(putSwapAsync(key, oldValue, newValue));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> putSwapAsync(@NotNull String key, String oldValue, @NotNull String newValue) {
         ByteSequence bsKey = ByteSequence.from(key, UTF_8);
         ByteSequence bsNewValue = ByteSequence.from(newValue, UTF_8);
 
@@ -239,12 +288,7 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
         Txn request = check.Then(Op.put(bsKey, bsNewValue, option));
         CompletableFuture<TxnResponse> response = request.commit();
 
-        try {
-            return response.get().isSucceeded();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new DynamicStatusStoreException("Put Swap failed", e);
-        }
+        return toDssFuture(response, "Put Swap failed").thenApply(TxnResponse::isSucceeded);
     }
 
     /**
@@ -309,20 +353,21 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
      */
     @Override
     public String get(@NotNull String key) throws DynamicStatusStoreException {
+        return DssUtils.waitFor(getAsync(key));
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(@NotNull String key) {
         ByteSequence bsKey = ByteSequence.from(key, UTF_8);
         CompletableFuture<GetResponse> getFuture = kvClient.get(bsKey);
 
-        try {
-            GetResponse response = getFuture.get();
+        return toDssFuture(getFuture, "Could not retrieve key.").thenApply(response -> {
             List<KeyValue> kvs = response.getKvs();
             if (kvs.isEmpty()) {
                 return null;
             }
             return kvs.get(0).getValue().toString(UTF_8);
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new DynamicStatusStoreException("Could not retrieve key.", e);
-        }
+        });
     }
 
     /**
@@ -335,17 +380,18 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
      */
     @Override
     public @NotNull Map<String, String> getPrefix(@NotNull String keyPrefix) throws DynamicStatusStoreException {
+        return DssUtils.waitFor(getPrefixAsync(keyPrefix));
+    }
 
-        Map<String, String> keyValues = new HashMap<>();
-
-        List<KeyValue> kvs = getPropertiesFromETCDWithPrefix(keyPrefix, !GET_KEYS_ONLY);
-
-        if (!kvs.isEmpty()) {
+    @Override
+    public CompletableFuture<Map<String, String>> getPrefixAsync(@NotNull String keyPrefix) {
+        return getPropertiesFromETCDWithPrefixAsync(keyPrefix, !GET_KEYS_ONLY).thenApply(kvs -> {
+            Map<String, String> keyValues = new HashMap<>();
             for (KeyValue kv : kvs) {
                 keyValues.put(kv.getKey().toString(UTF_8), kv.getValue().toString(UTF_8));
             }
-        }
-        return keyValues;
+            return keyValues;
+        });
     }
 
     /**
@@ -360,7 +406,7 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
 
         Collection<String> keysWithPrefix = new ArrayList<String>();
 
-        List<KeyValue> keyValues = getPropertiesFromETCDWithPrefix(keyPrefix, GET_KEYS_ONLY);
+        List<KeyValue> keyValues = DssUtils.waitFor(getPropertiesFromETCDWithPrefixAsync(keyPrefix, GET_KEYS_ONLY));
 
         if (!keyValues.isEmpty()) {
             for (KeyValue kv : keyValues) {
@@ -371,41 +417,35 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
         return keysWithPrefix;
     }
 
-    private List<KeyValue> getPropertiesFromETCDWithPrefix(String keyPrefix, boolean keysOnly) throws DynamicStatusStoreException {
+    private CompletableFuture<List<KeyValue>> getPropertiesFromETCDWithPrefixAsync(String keyPrefix, boolean keysOnly) {
 
         logger.debug("Etcd extension getting all keys with a prefix of " + keyPrefix);
 
-        List<KeyValue> allKvs = new ArrayList<>();
-        
         ByteSequence bsPrefix = ByteSequence.from(keyPrefix, UTF_8);
         ByteSequence prefixEnd = OptionsUtil.prefixEndOf(bsPrefix);
 
-        // Process 10,000 keys at a time to avoid hitting the gRPC maximum message size.
-        int pageSize = 10000;
-
         GetOption options = GetOption.builder()
             .withRange(prefixEnd)
             .withKeysOnly(keysOnly)
-            .withLimit(pageSize)
+            .withLimit(PREFIX_GET_PAGE_SIZE)
             .build();
 
-        ByteSequence startKey = bsPrefix;
-        while (true) {
-            CompletableFuture<GetResponse> getFuture = kvClient.get(startKey, options);
-
-            List<KeyValue> kvs = new ArrayList<>();
-            try {
-                GetResponse response = getFuture.get();
-                kvs = response.getKvs();
-            } catch (InterruptedException | ExecutionException e) {
-                Thread.currentThread().interrupt();
-                throw new DynamicStatusStoreException("Could not retrieve keys.", e);
-            }
+        return getPagesFromETCDAsync(bsPrefix, options, new ArrayList<>());
+    }
+
+    /**
+     * Gets a page of keys starting at the given key, then chains on the request for the
+     * next page until a page comes back which is not full.
+     */
+    private CompletableFuture<List<KeyValue>> getPagesFromETCDAsync(ByteSequence startKey, GetOption options, List<KeyValue> allKvs) {
+        CompletableFuture<GetResponse> getFuture = kvClient.get(startKey, options);
 
+        return toDssFuture(getFuture, "Could not retrieve keys.").thenCompose(response -> {
+            List<KeyValue> kvs = response.getKvs();
             allKvs.addAll(kvs);
 
-            if (kvs.size() < pageSize) {
-                break;
+            if (kvs.size() < PREFIX_GET_PAGE_SIZE) {
+                return CompletableFuture.completedFuture(allKvs);
             }
 
             ByteSequence lastKeyProcessed = kvs.get(kvs.size() - 1).getKey();
@@ -414,11 +454,8 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
             // Append 0x00 to get the next lexographical key after the last processed key
             nextKeyBytes[nextKeyBytes.length - 1] = 0x00;
 
-            // Update start key for next page
-            startKey = ByteSequence.from(nextKeyBytes);
-        }
-
-        return allKvs;
+            return getPagesFromETCDAsync(ByteSequence.from(nextKeyBytes), options, allKvs);
+        });
     }
 
     /**
@@ -429,15 +466,15 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
      */
     @Override
     public void delete(@NotNull String key) throws DynamicStatusStoreException {
+        DssUtils.waitFor(deleteAsync(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(@NotNull String key) {
         ByteSequence bsKey = ByteSequence.from(key, UTF_8);
         CompletableFuture<DeleteResponse> deleteFuture = kvClient.delete(bsKey);
 
-        try {
-            deleteFuture.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new DynamicStatusStoreException("Could not delete key.", e);
-        }
+        return toDssFuture(deleteFuture, "Could not delete key.").thenApply(deleteResponse -> null);
     }
 
     /**
@@ -449,6 +486,11 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
      */
     @Override
     public void delete(@NotNull Set<String> keys) throws DynamicStatusStoreException {
+        DssUtils.waitFor(deleteAsync(keys));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(@NotNull Set<String> keys) {
         Txn txn = kvClient.txn();
         DeleteOption options = DeleteOption.DEFAULT;
 
@@ -459,12 +501,7 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
         }
 
         CompletableFuture<TxnResponse> response = txn.Then(ops.toArray(new Op[ops.size()])).commit();
-        try {
-            response.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new DynamicStatusStoreException("Could not delete key(s).", e);
-        }
+        return toDssFuture(response, "Could not delete key(s).").thenApply(txnResponse -> null);
     }
 
     /**
@@ -605,7 +642,29 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
 
     @Override
     public void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
-        
+        DssUtils.waitFor(performActionsAsync(actions));
+    }
+
+    @Override
+    public CompletableFuture<Void> performActionsAsync(IDssAction... actions) {
+        Txn txn;
+        try {
+            txn = createActionsTxn(actions);
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<TxnResponse> response = txn.commit();
+
+        return toDssFuture(response, "DSS transaction failed").thenApply(txnResponse -> {
+            if (!txnResponse.isSucceeded()) {
+                throw new CompletionException(new DynamicStatusStoreMatchException("DSS transaction failed - matches failed"));
+            }
+            return null;
+        });
+    }
+
+    private Txn createActionsTxn(IDssAction... actions) throws DynamicStatusStoreException {
         Txn txn = kvClient.txn();
         
         // Go through the actions and collect all the IFs
@@ -643,18 +702,24 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
             }
         }
 
-        
-        CompletableFuture<TxnResponse> response = txn.commit();
+        return txn;
+    }
 
-        try {
-            if (!response.get().isSucceeded()) {
-                throw new DynamicStatusStoreMatchException("DSS transaction failed - matches failed");
+    /**
+     * Converts a failure from the jetcd client into a DynamicStatusStoreException, so that
+     * callers of the asynchronous methods get the same exceptions as the synchronous ones.
+     */
+    private <T> CompletableFuture<T> toDssFuture(CompletableFuture<T> etcdFuture, String errorMessage) {
+        return etcdFuture.handle((result, error) -> {
+            if (error != null) {
+                Throwable cause = error;
+                if (error instanceof CompletionException && error.getCause() != null) {
+                    cause = error.getCause();
+                }
+                throw new CompletionException(new DynamicStatusStoreException(errorMessage, cause));
             }
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new DynamicStatusStoreException("DSS transaction failed", e);
-        }
-        
+            return result;
+        });
     }
 
     private Txn performActionsAddIf(Txn txn, DssAdd action) {
@@ -8,6 +8,10 @@ package dev.galasa.etcd.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import static dev.galasa.cps.etcd.internal.Etcd3ConfigurationPropertyRegistration.CPS_CACHE_ENABLED_ENV_VAR;
+import static dev.galasa.cps.etcd.internal.Etcd3ConfigurationPropertyRegistration.CPS_CACHE_MAX_NAMESPACES_ENV_VAR;
+import static dev.galasa.cps.etcd.internal.Etcd3ConfigurationPropertyRegistration.DEFAULT_CPS_CACHE_MAX_NAMESPACES;
+
 import java.net.URI;
 import java.util.HashMap;
 import java.util.concurrent.CompletableFuture;
@@ -17,6 +21,8 @@ import org.junit.Test;
 import dev.galasa.cps.etcd.internal.Etcd3ConfigurationPropertyRegistration;
 import dev.galasa.cps.etcd.internal.Etcd3ConfigurationPropertyStore;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.Environment;
+import dev.galasa.extensions.common.mocks.MockEnvironment;
 import dev.galasa.extensions.common.mocks.MockFrameworkInitialisation;
 import dev.galasa.etcd.internal.mocks.MockEtcdClient;
 import dev.galasa.etcd.internal.mocks.MockEtcdKvClient;
@@ -31,6 +37,9 @@ public class Etcd3ConfigurationPropertyRegistrationTest {
      * any real network connection while still exercising the probe path.
      */
     private static class RegistrationWithMockedStore extends Etcd3ConfigurationPropertyRegistration {
+        public RegistrationWithMockedStore() { super(); }
+        public RegistrationWithMockedStore(Environment env) { super(env); }
+
         @Override
         protected Etcd3ConfigurationPropertyStore createStore(URI uri) {
             return new Etcd3ConfigurationPropertyStore(new MockEtcdClient(new HashMap<>()));
@@ -79,6 +88,45 @@ public class Etcd3ConfigurationPropertyRegistrationTest {
         assertThat(mockFrameworkInit.getBootstrapConfigurationPropertyStore()).isEqualTo(cps);
     }
 
+    @Test
+    public void testCanInitialiseARegistrationWithTheCacheSetFromEnvironmentOK() throws Exception {
+        // Given...
+        MockEnvironment mockEnvironment = new MockEnvironment();
+        mockEnvironment.setenv(CPS_CACHE_ENABLED_ENV_VAR, "true");
+        mockEnvironment.setenv(CPS_CACHE_MAX_NAMESPACES_ENV_VAR, "50");
+
+        Etcd3ConfigurationPropertyRegistration registration = new RegistrationWithMockedStore(mockEnvironment);
+
+        URI cps = new URI("etcd://my.server/api");
+        MockFrameworkInitialisation mockFrameworkInit = new MockFrameworkInitialisation(cps);
+
+        // When...
+        registration.initialise(mockFrameworkInit);
+
+        // Then...
+        assertThat(registration.isCacheEnabled()).isTrue();
+        assertThat(registration.getMaxCacheNamespaces()).isEqualTo(50);
+    }
+
+    @Test
+    public void testCanInitialiseARegistrationWithInvalidCacheSizeFromEnvironmentOK() throws Exception {
+        // Given...
+        MockEnvironment mockEnvironment = new MockEnvironment();
+        mockEnvironment.setenv(CPS_CACHE_MAX_NAMESPACES_ENV_VAR, "lots");
+
+        Etcd3ConfigurationPropertyRegistration registration = new RegistrationWithMockedStore(mockEnvironment);
+
+        URI cps = new URI("etcd://my.server/api");
+        MockFrameworkInitialisation mockFrameworkInit = new MockFrameworkInitialisation(cps);
+
+        // When...
+        registration.initialise(mockFrameworkInit);
+
+        // Then...
+        assertThat(registration.isCacheEnabled()).isFalse();
+        assertThat(registration.getMaxCacheNamespaces()).isEqualTo(DEFAULT_CPS_CACHE_MAX_NAMESPACES);
+    }
+
     @Test
     public void testWhenEtcdUnreachableInitialisationThrowsConfigurationPropertyStoreException() throws Exception {
         // Given...
@@ -8,15 +8,33 @@ package dev.galasa.etcd.internal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import com.google.protobuf.ByteString;
+
 import dev.galasa.cps.etcd.internal.Etcd3ConfigurationPropertyStore;
+import dev.galasa.cps.etcd.internal.Etcd3CpsCache;
 import dev.galasa.etcd.internal.mocks.MockEtcdClient;
 import dev.galasa.etcd.internal.mocks.MockEtcdKvClient;
+import dev.galasa.etcd.internal.mocks.MockEtcdWatchClient;
+import dev.galasa.etcd.internal.mocks.MockEtcdWatchClient.MockWatcher;
 import dev.galasa.etcd.internal.mocks.MockTransaction;
+import io.etcd.jetcd.api.Event;
+import io.etcd.jetcd.api.Event.EventType;
+import io.etcd.jetcd.api.KeyValue;
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.common.exception.EtcdExceptionFactory;
+import io.etcd.jetcd.kv.GetResponse;
 import io.etcd.jetcd.op.Op;
 import io.etcd.jetcd.op.Op.PutOp;
+import io.etcd.jetcd.options.GetOption;
+import io.etcd.jetcd.watch.WatchResponse;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -46,4 +64,211 @@ public class Etcd3ConfigurationPropertyStoreTest {
         assertThat(thenOperations).hasSize(3);
         assertThat(thenOperations).hasOnlyElementsOfType(PutOp.class);
     }
+
+    @Test
+    public void testCachedStoreReadsANamespaceOnceAndRemembersMissingProperties() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("zos.image.IMG1.ipv4.hostname", "img1.host");
+        kvClientContents.put("zos.image.IMG2.ipv4.hostname", "img2.host");
+        kvClientContents.put("zosmf.server.port", "443");
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, 0);
+
+        // When...
+        String img1 = store.getProperty("zos.image.IMG1.ipv4.hostname");
+        String img2 = store.getProperty("zos.image.IMG2.ipv4.hostname");
+        String missing = store.getProperty("zos.image.IMG3.ipv4.hostname");
+        Map<String, String> images = store.getPrefixedProperties("zos.image.");
+
+        // Then...
+        assertThat(img1).isEqualTo("img1.host");
+        assertThat(img2).isEqualTo("img2.host");
+        assertThat(missing).isNull();
+        assertThat(images).containsOnlyKeys("zos.image.IMG1.ipv4.hostname", "zos.image.IMG2.ipv4.hostname");
+
+        MockEtcdKvClient mockKvClient = (MockEtcdKvClient) mockClient.getKVClient();
+        assertThat(mockKvClient.getPrefixGetCount()).isEqualTo(1);
+
+        Etcd3CpsCache cache = store.getCache();
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(3);
+        assertThat(cache.getNegativeHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCachedStoreIsUpdatedByWatchEvents() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("framework.resultarchive.store", "couchdb:http://ras");
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        ((MockEtcdKvClient) mockClient.getKVClient()).setRevision(10);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, 0);
+        store.getProperty("framework.resultarchive.store");
+
+        MockWatcher watcher = getWatchers(mockClient).get(0);
+
+        // When...
+        watcher.getListener().onNext(watchResponse(EventType.PUT, "framework.new.property", "new", 11));
+        watcher.getListener().onNext(watchResponse(EventType.DELETE, "framework.resultarchive.store", "", 12));
+
+        // Then...
+        assertThat(watcher.getKey()).isEqualTo("framework.");
+        assertThat(watcher.getRevision()).isEqualTo(11);
+        assertThat(store.getProperty("framework.new.property")).isEqualTo("new");
+        assertThat(store.getProperty("framework.resultarchive.store")).isNull();
+        assertThat(store.getCache().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCachedStoreRestartsAFailedWatchFromTheLastRevisionSeen() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("framework.test.property", "value");
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        ((MockEtcdKvClient) mockClient.getKVClient()).setRevision(10);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, 0);
+        store.getProperty("framework.test.property");
+
+        MockWatcher firstWatcher = getWatchers(mockClient).get(0);
+        firstWatcher.getListener().onNext(watchResponse(EventType.PUT, "framework.test.property", "changed", 15));
+
+        // When...
+        firstWatcher.getListener().onError(new RuntimeException("simulating a lost connection"));
+
+        // Then...
+        assertThat(firstWatcher.isClosed()).isTrue();
+        assertThat(getWatchers(mockClient)).hasSize(2);
+        assertThat(getWatchers(mockClient).get(1).getRevision()).isEqualTo(16);
+        assertThat(store.getProperty("framework.test.property")).isEqualTo("changed");
+        assertThat(store.getCache().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCachedStoreDropsANamespaceWhenItsRevisionsHaveBeenCompacted() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("framework.test.property", "value");
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, 0);
+        store.getProperty("framework.test.property");
+
+        MockWatcher watcher = getWatchers(mockClient).get(0);
+        kvClientContents.put("framework.test.property", "changed while disconnected");
+
+        // When...
+        watcher.getListener().onError(EtcdExceptionFactory.newCompactedException(5));
+
+        // Then...
+        assertThat(watcher.isClosed()).isTrue();
+        assertThat(store.getProperty("framework.test.property")).isEqualTo("changed while disconnected");
+        assertThat(store.getCache().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCachedStoreSeesItsOwnChangesStraightAway() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, 0);
+        assertThat(store.getProperty("framework.test.property")).isNull();
+
+        // When...
+        store.setProperty("framework.test.property", "value");
+
+        // Then...
+        assertThat(store.getProperty("framework.test.property")).isEqualTo("value");
+
+        store.deleteProperty("framework.test.property");
+        assertThat(store.getProperty("framework.test.property")).isNull();
+    }
+
+    @Test
+    public void testCachedStoreWithAMaximumEvictsTheLeastRecentlyUsedNamespace() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("first.test.property", "1");
+        kvClientContents.put("second.test.property", "2");
+        kvClientContents.put("third.test.property", "3");
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, 2);
+
+        // When...
+        store.getProperty("first.test.property");
+        store.getProperty("second.test.property");
+        store.getProperty("first.test.property");
+        store.getProperty("third.test.property");
+
+        // Then...
+        Etcd3CpsCache cache = store.getCache();
+        assertThat(cache.getNamespaceCount()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+
+        List<MockWatcher> watchers = getWatchers(mockClient);
+        assertThat(watchers.get(0).isClosed()).isFalse();
+        assertThat(watchers.get(1).getKey()).isEqualTo("second.");
+        assertThat(watchers.get(1).isClosed()).isTrue();
+
+        store.shutdown();
+        assertThat(watchers.get(0).isClosed()).isTrue();
+        assertThat(watchers.get(2).isClosed()).isTrue();
+    }
+
+    @Test
+    public void testCachedStoreReadsOfOtherNamespacesAreNotHeldUpByASlowRead() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("fast.test.property", "fast");
+        kvClientContents.put("slow.test.property", "slow");
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+
+        CompletableFuture<Void> slowReadReleased = new CompletableFuture<>();
+        mockClient.setKvClient(new MockEtcdKvClient(kvClientContents) {
+            @Override
+            public CompletableFuture<GetResponse> get(ByteSequence key, GetOption options) {
+                CompletableFuture<GetResponse> response = super.get(key, options);
+                if (key.toString().startsWith("slow.")) {
+                    return slowReadReleased.thenCompose(released -> response);
+                }
+                return response;
+            }
+        });
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, 0);
+        store.getProperty("fast.test.property");
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<String> slowGet = executor.submit(() -> store.getProperty("slow.test.property"));
+            Future<String> secondSlowGet = executor.submit(() -> store.getProperty("slow.test.property"));
+
+            // When...
+            String fast = executor.submit(() -> store.getProperty("fast.test.property")).get(10, TimeUnit.SECONDS);
+
+            // Then...
+            assertThat(fast).isEqualTo("fast");
+            assertThat(slowGet.isDone()).isFalse();
+
+            slowReadReleased.complete(null);
+            assertThat(slowGet.get(10, TimeUnit.SECONDS)).isEqualTo("slow");
+            assertThat(secondSlowGet.get(10, TimeUnit.SECONDS)).isEqualTo("slow");
+            assertThat(store.getCache().getMisses()).isEqualTo(2);
+        } finally {
+            slowReadReleased.complete(null);
+            executor.shutdownNow();
+        }
+    }
+
+    private List<MockWatcher> getWatchers(MockEtcdClient mockClient) {
+        return ((MockEtcdWatchClient) mockClient.getWatchClient()).getWatchers();
+    }
+
+    private WatchResponse watchResponse(EventType type, String key, String value, long modRevision) {
+        KeyValue kv = KeyValue.newBuilder()
+            .setKey(ByteString.copyFromUtf8(key))
+            .setValue(ByteString.copyFromUtf8(value))
+            .setModRevision(modRevision)
+            .build();
+        Event event = Event.newBuilder().setType(type).setKv(kv).build();
+        return new WatchResponse(io.etcd.jetcd.api.WatchResponse.newBuilder().addEvents(event).build());
+    }
 }
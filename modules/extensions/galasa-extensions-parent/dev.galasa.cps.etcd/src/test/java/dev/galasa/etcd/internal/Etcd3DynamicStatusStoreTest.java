@@ -9,6 +9,7 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Test;
 
@@ -17,6 +18,9 @@ import dev.galasa.etcd.internal.mocks.MockEtcdClient;
 import dev.galasa.etcd.internal.mocks.MockEtcdKvClient;
 import dev.galasa.etcd.internal.mocks.MockEtcdLeaseClient;
 import dev.galasa.etcd.internal.mocks.MockTransaction;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDssLease;
+import dev.galasa.framework.spi.utils.DssUtils;
 import io.etcd.jetcd.op.Op;
 import io.etcd.jetcd.op.Op.PutOp;
 
@@ -49,6 +53,80 @@ public class Etcd3DynamicStatusStoreTest {
         assertThat(mockLeaseClient.getLeases().get(0).getTTL()).isEqualTo(timeToLiveSecs);
     }
 
+    @Test
+    public void testPutPropertyWithLeaseCanKeepTheLeaseAliveAndRevokeItOk() throws Exception {
+        // Given...
+        Map<String, String> mockProps = new HashMap<>();
+
+        MockEtcdLeaseClient mockLeaseClient = new MockEtcdLeaseClient();
+        MockEtcdClient mockClient = new MockEtcdClient(mockProps);
+        mockClient.setLeaseClient(mockLeaseClient);
+
+        Etcd3DynamicStatusStore store = new Etcd3DynamicStatusStore(mockClient);
+
+        String keyToAdd = "key1";
+        String valueToAdd = "value1";
+        long timeToLiveSecs = 30;
+
+        // When...
+        IDssLease lease = store.putWithLease(keyToAdd, valueToAdd, timeToLiveSecs);
+        boolean isKeptAlive = lease.keepAlive();
+        lease.close();
+
+        // Then...
+        assertThat(mockProps.get(keyToAdd)).isEqualTo(valueToAdd);
+        assertThat(mockLeaseClient.getLeases()).hasSize(1);
+
+        long leaseId = mockLeaseClient.getLeases().get(0).getID();
+        assertThat(mockLeaseClient.getLeases().get(0).getTTL()).isEqualTo(timeToLiveSecs);
+        assertThat(isKeptAlive).isTrue();
+        assertThat(mockLeaseClient.getKeptAliveLeaseIds()).containsExactly(leaseId);
+        assertThat(mockLeaseClient.getRevokedLeaseIds()).containsExactly(leaseId);
+    }
+
+    @Test
+    public void testKeepingAnExpiredLeaseAliveReturnsFalse() throws Exception {
+        // Given...
+        Map<String, String> mockProps = new HashMap<>();
+
+        MockEtcdLeaseClient mockLeaseClient = new MockEtcdLeaseClient();
+        MockEtcdClient mockClient = new MockEtcdClient(mockProps);
+        mockClient.setLeaseClient(mockLeaseClient);
+
+        Etcd3DynamicStatusStore store = new Etcd3DynamicStatusStore(mockClient);
+        IDssLease lease = store.putWithLease("key1", "value1", 30);
+
+        mockLeaseClient.setLeaseExpired(true);
+
+        // When...
+        boolean isKeptAlive = lease.keepAlive();
+
+        // Then...
+        assertThat(isKeptAlive).isFalse();
+        // The heartbeat thread must not be interrupted, or it would stop and the run be taken for dead
+        assertThat(Thread.interrupted()).isFalse();
+    }
+
+    @Test
+    public void testClosingAnExpiredLeaseIsOk() throws Exception {
+        // Given...
+        MockEtcdLeaseClient mockLeaseClient = new MockEtcdLeaseClient();
+        MockEtcdClient mockClient = new MockEtcdClient(new HashMap<>());
+        mockClient.setLeaseClient(mockLeaseClient);
+
+        Etcd3DynamicStatusStore store = new Etcd3DynamicStatusStore(mockClient);
+        IDssLease lease = store.putWithLease("key1", "value1", 30);
+
+        mockLeaseClient.setLeaseExpired(true);
+
+        // When...
+        lease.close();
+
+        // Then...
+        assertThat(mockLeaseClient.getRevokedLeaseIds()).hasSize(1);
+        assertThat(Thread.interrupted()).isFalse();
+    }
+
     @Test
     public void testPutMultiplePropertiesWithTimeToLiveCreatesExpectedLeaseOk() throws Exception {
         // Given...
@@ -88,6 +166,54 @@ public class Etcd3DynamicStatusStoreTest {
         assertThat(thenOperations).hasOnlyElementsOfType(PutOp.class);
     }
 
+    @Test
+    public void testPipelinedAsyncPutsGetsAndDeletesOk() throws Exception {
+        // Given...
+        Map<String, String> mockProps = new HashMap<>();
+        mockProps.put("key3", "value3");
+
+        MockEtcdClient mockClient = new MockEtcdClient(mockProps);
+        Etcd3DynamicStatusStore store = new Etcd3DynamicStatusStore(mockClient);
+
+        // When...
+        DssUtils.waitForAll(List.of(
+            store.putAsync("key1", "value1"),
+            store.putAsync("key2", "value2"),
+            store.deleteAsync("key3")
+        ));
+
+        CompletableFuture<String> get1 = store.getAsync("key1");
+        CompletableFuture<String> get2 = store.getAsync("key2");
+        CompletableFuture<String> get3 = store.getAsync("key3");
+
+        // Then...
+        assertThat(DssUtils.waitFor(get1)).isEqualTo("value1");
+        assertThat(DssUtils.waitFor(get2)).isEqualTo("value2");
+        assertThat(DssUtils.waitFor(get3)).isNull();
+        assertThat(mockProps).containsOnlyKeys("key1", "key2");
+    }
+
+    @Test
+    public void testAsyncGetWhichFailsCompletesWithADssException() throws Exception {
+        // Given...
+        MockEtcdClient mockClient = new MockEtcdClient(new HashMap<>());
+        MockEtcdKvClient mockKvClient = (MockEtcdKvClient) mockClient.getKVClient();
+        mockKvClient.setGetFailure(new RuntimeException("simulating an etcd failure"));
+
+        Etcd3DynamicStatusStore store = new Etcd3DynamicStatusStore(mockClient);
+
+        // When...
+        DynamicStatusStoreException thrown = catchThrowableOfType(
+            () -> store.get("key1"),
+            DynamicStatusStoreException.class
+        );
+
+        // Then...
+        assertThat(thrown).isNotNull();
+        assertThat(thrown.getMessage()).contains("Could not retrieve key");
+        assertThat(thrown.getCause()).hasMessageContaining("simulating an etcd failure");
+    }
+
     @Test
     public void testCreateAnEtcd3DynamicStatusStoreWithDefaultgRPCMessageSizeIsOK() throws Exception {
         // Given...
@@ -52,6 +52,10 @@ public class MockEtcdClient implements Client {
         return isClientShutDown;
     }
 
+    public void setKvClient(KV kvClient) {
+        this.kvClient = kvClient;
+    }
+
     public void setLeaseClient(Lease leaseClient) {
         this.leaseClient = leaseClient;
     }
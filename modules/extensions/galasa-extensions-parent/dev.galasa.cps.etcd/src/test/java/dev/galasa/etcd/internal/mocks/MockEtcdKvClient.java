@@ -23,6 +23,7 @@ import io.etcd.jetcd.Txn;
 import io.etcd.jetcd.api.KeyValue;
 import io.etcd.jetcd.api.KeyValue.Builder;
 import io.etcd.jetcd.api.RangeResponse;
+import io.etcd.jetcd.api.ResponseHeader;
 import io.etcd.jetcd.kv.CompactResponse;
 import io.etcd.jetcd.kv.DeleteResponse;
 import io.etcd.jetcd.kv.GetResponse;
@@ -37,6 +38,9 @@ public class MockEtcdKvClient implements KV {
 
     private Map<String, String> kvContents = new HashMap<>();
     private MockTransaction mockTransaction;
+    private long revision = 0;
+    private int prefixGetCount = 0;
+    private Throwable getFailure;
 
     public MockEtcdKvClient(Map<String, String> kvContents) {
         this.kvContents = kvContents;
@@ -44,6 +48,10 @@ public class MockEtcdKvClient implements KV {
 
     @Override
     public CompletableFuture<GetResponse> get(ByteSequence key) {
+        if (getFailure != null) {
+            return CompletableFuture.failedFuture(getFailure);
+        }
+
         String keyStr = key.toString();
         String value = kvContents.get(keyStr);
 
@@ -64,21 +72,23 @@ public class MockEtcdKvClient implements KV {
         CompletableFuture<GetResponse> response = null;
         String keyStr = key.toString();
         if (options.isPrefix()) {
+            prefixGetCount++;
             Map<String, String> matchingKeyValues = kvContents.entrySet()
                 .stream()
                 .filter(entry -> entry.getKey().startsWith(keyStr))
                 .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
             
             RangeResponse rangeResponse;
+            ResponseHeader header = ResponseHeader.newBuilder().setRevision(revision).build();
             if (matchingKeyValues.isEmpty()) {
-                rangeResponse = RangeResponse.newBuilder().build();
+                rangeResponse = RangeResponse.newBuilder().setHeader(header).build();
             } else {
                 List<KeyValue> keyValues = new ArrayList<>();
                 for (Entry<String, String> matchingEntry : matchingKeyValues.entrySet()) {
                     KeyValue kv = createKeyValue(matchingEntry.getKey(), matchingEntry.getValue());
                     keyValues.add(kv);
                 }
-                rangeResponse = RangeResponse.newBuilder().addAllKvs(keyValues).build();
+                rangeResponse = RangeResponse.newBuilder().setHeader(header).addAllKvs(keyValues).build();
 
             }
             GetResponse mockResponse = new GetResponse(rangeResponse, key);
@@ -133,6 +143,18 @@ public class MockEtcdKvClient implements KV {
         return this.mockTransaction;
     }
 
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public void setGetFailure(Throwable getFailure) {
+        this.getFailure = getFailure;
+    }
+
+    public int getPrefixGetCount() {
+        return this.prefixGetCount;
+    }
+
     private KeyValue createKeyValue(String key, String value) {
         ByteString keyByteStr = ByteString.copyFromUtf8(key);
         Builder builder = KeyValue.newBuilder().setKey(keyByteStr);
@@ -153,7 +175,8 @@ public class MockEtcdKvClient implements KV {
 
     @Override
     public CompletableFuture<DeleteResponse> delete(ByteSequence key) {
-        throw new UnsupportedOperationException("Unimplemented method 'delete'");
+        kvContents.remove(key.toString());
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
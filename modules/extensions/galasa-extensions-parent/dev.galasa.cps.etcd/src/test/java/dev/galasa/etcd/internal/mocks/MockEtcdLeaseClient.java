@@ -11,6 +11,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import io.etcd.jetcd.Lease;
+import io.etcd.jetcd.common.exception.ErrorCode;
+import io.etcd.jetcd.common.exception.EtcdExceptionFactory;
 import io.etcd.jetcd.lease.LeaseGrantResponse;
 import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
 import io.etcd.jetcd.lease.LeaseRevokeResponse;
@@ -22,6 +24,9 @@ import io.grpc.stub.StreamObserver;
 public class MockEtcdLeaseClient implements Lease {
 
     private List<LeaseGrantResponse> leases = new ArrayList<>();
+    private List<Long> revokedLeaseIds = new ArrayList<>();
+    private List<Long> keptAliveLeaseIds = new ArrayList<>();
+    private boolean isLeaseExpired = false;
 
     @Override
     public CompletableFuture<LeaseGrantResponse> grant(long ttl) {
@@ -39,6 +44,18 @@ public class MockEtcdLeaseClient implements Lease {
         return leases;
     }
 
+    public List<Long> getRevokedLeaseIds() {
+        return revokedLeaseIds;
+    }
+
+    public List<Long> getKeptAliveLeaseIds() {
+        return keptAliveLeaseIds;
+    }
+
+    public void setLeaseExpired(boolean isLeaseExpired) {
+        this.isLeaseExpired = isLeaseExpired;
+    }
+
     @Override
     public CompletableFuture<LeaseGrantResponse> grant(long ttl, long timeout, TimeUnit unit) {
         throw new UnsupportedOperationException("Unimplemented method 'grant'");
@@ -46,12 +63,45 @@ public class MockEtcdLeaseClient implements Lease {
 
     @Override
     public CompletableFuture<LeaseRevokeResponse> revoke(long leaseId) {
-        throw new UnsupportedOperationException("Unimplemented method 'revoke'");
+        revokedLeaseIds.add(leaseId);
+        if (isLeaseExpired) {
+            return leaseNotFound();
+        }
+
+        LeaseRevokeResponse mockRevokeResponse = new LeaseRevokeResponse(
+            io.etcd.jetcd.api.LeaseRevokeResponse.newBuilder().build()
+        );
+        return CompletableFuture.completedFuture(mockRevokeResponse);
     }
 
     @Override
     public CompletableFuture<LeaseKeepAliveResponse> keepAliveOnce(long leaseId) {
-        throw new UnsupportedOperationException("Unimplemented method 'keepAliveOnce'");
+        keptAliveLeaseIds.add(leaseId);
+
+        // jetcd fails the request when the lease has expired, as etcd no longer knows about it
+        if (isLeaseExpired) {
+            return leaseNotFound();
+        }
+
+        long ttl = 0;
+        for (LeaseGrantResponse lease : leases) {
+            if (lease.getID() == leaseId) {
+                ttl = lease.getTTL();
+            }
+        }
+
+        LeaseKeepAliveResponse mockKeepAliveResponse = new LeaseKeepAliveResponse(
+            io.etcd.jetcd.api.LeaseKeepAliveResponse.newBuilder()
+            .setID(leaseId)
+            .setTTL(ttl)
+            .build()
+        );
+        return CompletableFuture.completedFuture(mockKeepAliveResponse);
+    }
+
+    private <T> CompletableFuture<T> leaseNotFound() {
+        return CompletableFuture.failedFuture(
+            EtcdExceptionFactory.newEtcdException(ErrorCode.NOT_FOUND, "etcdserver: requested lease not found"));
     }
 
     @Override
@@ -5,19 +5,71 @@
  */
 package dev.galasa.etcd.internal.mocks;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.options.WatchOption;
 
 public class MockEtcdWatchClient implements Watch {
 
+    private List<MockWatcher> watchers = new ArrayList<>();
+
     @Override
     public Watcher watch(ByteSequence key, WatchOption option, Listener listener) {
-        throw new UnsupportedOperationException("Unimplemented method 'watch'");
+        MockWatcher watcher = new MockWatcher(key.toString(), option.getRevision(), listener);
+        watchers.add(watcher);
+        return watcher;
     }
 
     @Override
     public void requestProgress() {
         throw new UnsupportedOperationException("Unimplemented method 'requestProgress'");
     }
+
+    public List<MockWatcher> getWatchers() {
+        return watchers;
+    }
+
+    public static class MockWatcher implements Watcher {
+
+        private String key;
+        private long revision;
+        private Listener listener;
+        private boolean isClosed = false;
+
+        public MockWatcher(String key, long revision, Listener listener) {
+            this.key = key;
+            this.revision = revision;
+            this.listener = listener;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        public Listener getListener() {
+            return listener;
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return isClosed;
+        }
+
+        @Override
+        public void requestProgress() {
+            throw new UnsupportedOperationException("Unimplemented method 'requestProgress'");
+        }
+    }
 }
@@ -11,9 +11,6 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.CopyOption;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -57,6 +54,9 @@ public abstract class CouchdbStore {
     protected CloseableHttpClient httpClient;
     protected GalasaGson gson = new GalasaGson();
 
+    private HttpClientFactory httpClientFactory;
+    private CloseableHttpClient streamingHttpClient;
+
     public CouchdbStore(URI storeUri, HttpRequestFactory httpRequestFactory, HttpClientFactory httpClientFactory)
             throws CouchdbException {
         // Strip off the 'couchdb:' prefix from the auth store URI
@@ -70,9 +70,38 @@ public abstract class CouchdbStore {
         }
 
         this.httpRequestFactory = httpRequestFactory;
+        this.httpClientFactory = httpClientFactory;
         this.httpClient = httpClientFactory.createClient();
     }
 
+    /**
+     * Gets the client used for streamed requests, creating it the first time it is needed.
+     * Streamed responses keep their connection until the caller closes them, so they use
+     * a separate connection pool and do not starve the other requests made to CouchDB.
+     *
+     * @return the client to send streamed requests with
+     */
+    protected synchronized CloseableHttpClient getStreamingHttpClient() {
+        if (streamingHttpClient == null) {
+            streamingHttpClient = httpClientFactory.createStreamingClient();
+        }
+        return streamingHttpClient;
+    }
+
+    /**
+     * Closes the client used for streamed requests, if one was ever created.
+     */
+    protected synchronized void closeStreamingHttpClient() {
+        if (streamingHttpClient != null && streamingHttpClient != httpClient) {
+            try {
+                streamingHttpClient.close();
+            } catch (IOException e) {
+                // The store is shutting down, so there is nothing more to do
+            }
+        }
+        streamingHttpClient = null;
+    }
+
     /**
      * Creates a new document in the given database with the given JSON content.
      *
@@ -210,22 +239,47 @@ public abstract class CouchdbStore {
         return viewResponse;
     }
 
-    protected void retrieveArtifactFromDatabase(String URI, Path cachePath, CopyOption copyOption)
+    /**
+     * Sends a request to CouchDB and returns the response without reading its body,
+     * so that large bodies such as attachments can be streamed to the caller rather
+     * than being held in memory or copied to disk first. The caller must close the
+     * response once it has finished with the body. These requests are sent with the
+     * streaming client, whose pool and timeouts bound how long they can hold a connection.
+     *
+     * @param httpRequest             the request to send
+     * @param expectedHttpStatusCodes the status codes which the caller can handle
+     * @return the response, with its body not yet read
+     * @throws CouchdbException if CouchDB could not be contacted or responded with an
+     *                          unexpected status code
+     */
+    protected CloseableHttpResponse sendStreamingHttpRequest(HttpUriRequest httpRequest, int... expectedHttpStatusCodes)
             throws CouchdbException {
-        HttpGet httpGet = httpRequestFactory.getHttpGetRequest(URI);
-        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-            StatusLine statusLine = response.getStatusLine();
-            if (statusLine.getStatusCode() != HttpStatus.SC_OK) {
-                String errorMessage = ERROR_URI_IS_INVALID.getMessage(URI);
-                throw new CouchdbException(errorMessage);
+        CloseableHttpResponse response;
+        try {
+            response = getStreamingHttpClient().execute(httpRequest);
+        } catch (IOException e) {
+            String errorMessage = ERROR_FAILURE_OCCURRED_WHEN_CONTACTING_COUCHDB
+                    .getMessage(httpRequest.getURI().toString(), e.getMessage());
+            throw new CouchdbException(errorMessage, e);
+        }
+
+        int actualStatusCode = response.getStatusLine().getStatusCode();
+        if (!isStatusCodeExpected(actualStatusCode, expectedHttpStatusCodes)) {
+            try {
+                response.close();
+            } catch (IOException e) {
+                // The response is being discarded, so there is nothing more to do
             }
-            HttpEntity entity = response.getEntity();
-            Files.copy(entity.getContent(), cachePath, copyOption);
-        } catch (CouchdbException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new CouchdbException("Unable to retrieve artifact", e);
+
+            String expectedStatusCodesStr = IntStream.of(expectedHttpStatusCodes)
+                    .mapToObj(Integer::toString)
+                    .collect(Collectors.joining(", "));
+
+            String errorMessage = ERROR_UNEXPECTED_COUCHDB_HTTP_RESPONSE.getMessage(httpRequest.getURI().toString(),
+                    expectedStatusCodesStr, actualStatusCode);
+            throw new CouchdbException(errorMessage);
         }
+        return response;
     }
 
     /**
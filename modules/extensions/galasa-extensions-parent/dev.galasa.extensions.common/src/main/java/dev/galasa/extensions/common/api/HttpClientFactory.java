@@ -9,4 +9,16 @@ import org.apache.http.impl.client.CloseableHttpClient;
 
 public interface HttpClientFactory {
     CloseableHttpClient createClient();
+
+    /**
+     * Creates a client for requests whose response bodies are streamed back to a caller.
+     * Each of those responses keeps hold of its connection until the caller closes it,
+     * so a client from here should have enough connections for several callers at once
+     * and should give up, rather than wait forever, when none are free.
+     *
+     * @return a client for streamed requests, which defaults to the same as {@link #createClient()}
+     */
+    default CloseableHttpClient createStreamingClient() {
+        return createClient();
+    }
 }
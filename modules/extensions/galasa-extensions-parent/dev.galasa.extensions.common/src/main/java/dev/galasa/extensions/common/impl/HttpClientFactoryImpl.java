@@ -5,16 +5,44 @@
  */
 package dev.galasa.extensions.common.impl;
 
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
 import dev.galasa.extensions.common.api.HttpClientFactory;
 
 public class HttpClientFactoryImpl implements HttpClientFactory {
 
+    // Streamed responses hold their connection while the caller reads them, so
+    // the pool is sized for several concurrent downloads and a caller waiting for
+    // a connection, or for the next bytes of a stalled response, is not left waiting forever
+    public static final int STREAMING_MAX_CONNECTIONS = 50;
+    public static final int STREAMING_CONNECTION_REQUEST_TIMEOUT_MILLIS = 30 * 1000;
+    public static final int STREAMING_CONNECT_TIMEOUT_MILLIS = 30 * 1000;
+    public static final int STREAMING_SOCKET_TIMEOUT_MILLIS = 60 * 1000;
+
     @Override
     public CloseableHttpClient createClient() {
         return HttpClients.createDefault();
     }
 
+    @Override
+    public CloseableHttpClient createStreamingClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(STREAMING_MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(STREAMING_MAX_CONNECTIONS);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectionRequestTimeout(STREAMING_CONNECTION_REQUEST_TIMEOUT_MILLIS)
+            .setConnectTimeout(STREAMING_CONNECT_TIMEOUT_MILLIS)
+            .setSocketTimeout(STREAMING_SOCKET_TIMEOUT_MILLIS)
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .build();
+    }
+
 }
@@ -6,6 +6,8 @@
 package dev.galasa.extensions.common.mocks;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import org.apache.http.Header;
@@ -21,6 +23,7 @@ public class MockCloseableHttpResponse implements CloseableHttpResponse {
     boolean isClosed = false ;
     StatusLine statusLine ;
     HttpEntity entity ;
+    List<Header> headers = new ArrayList<>();
 
 
 
@@ -75,33 +78,36 @@ public class MockCloseableHttpResponse implements CloseableHttpResponse {
     }
 
     @Override
-    public void addHeader(Header arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'addHeader'");
+    public void addHeader(Header header) {
+        headers.add(header);
     }
 
     @Override
-    public void addHeader(String arg0, String arg1) {
-        throw new UnsupportedOperationException("Unimplemented method 'addHeader'");
+    public void addHeader(String name, String value) {
+        headers.add(new MockHttpHeader(name, value));
     }
 
     @Override
-    public boolean containsHeader(String arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'containsHeader'");
+    public boolean containsHeader(String name) {
+        return getFirstHeader(name) != null;
     }
 
     @Override
     public Header[] getAllHeaders() {
-        throw new UnsupportedOperationException("Unimplemented method 'getAllHeaders'");
+        return headers.toArray(new Header[0]);
     }
 
     @Override
-    public Header getFirstHeader(String arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'getFirstHeader'");
+    public Header getFirstHeader(String name) {
+        Header[] matchingHeaders = getHeaders(name);
+        return matchingHeaders.length == 0 ? null : matchingHeaders[0];
     }
 
     @Override
-    public Header[] getHeaders(String arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'getHeaders'");
+    public Header[] getHeaders(String name) {
+        return headers.stream()
+            .filter(header -> header.getName().equalsIgnoreCase(name))
+            .toArray(Header[]::new);
     }
 
     @Override
@@ -146,8 +152,9 @@ public class MockCloseableHttpResponse implements CloseableHttpResponse {
     }
 
     @Override
-    public void setHeader(String arg0, String arg1) {
-        throw new UnsupportedOperationException("Unimplemented method 'setHeader'");
+    public void setHeader(String name, String value) {
+        headers.removeIf(header -> header.getName().equalsIgnoreCase(name));
+        addHeader(name, value);
     }
 
     @Override
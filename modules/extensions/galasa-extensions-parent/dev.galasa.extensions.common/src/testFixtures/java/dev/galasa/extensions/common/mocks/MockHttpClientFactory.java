@@ -11,13 +11,24 @@ import dev.galasa.extensions.common.api.HttpClientFactory;
 
 public class MockHttpClientFactory implements HttpClientFactory {
     private CloseableHttpClient clientToReturn ;
+    private CloseableHttpClient streamingClientToReturn ;
 
     public MockHttpClientFactory(CloseableHttpClient clientToReturn) {
+        this(clientToReturn, clientToReturn);
+    }
+
+    public MockHttpClientFactory(CloseableHttpClient clientToReturn, CloseableHttpClient streamingClientToReturn) {
         this.clientToReturn = clientToReturn;
+        this.streamingClientToReturn = streamingClientToReturn;
     }
 
     @Override
     public CloseableHttpClient createClient() {
         return this.clientToReturn;
     }
+
+    @Override
+    public CloseableHttpClient createStreamingClient() {
+        return this.streamingClientToReturn;
+    }
 }
\ No newline at end of file
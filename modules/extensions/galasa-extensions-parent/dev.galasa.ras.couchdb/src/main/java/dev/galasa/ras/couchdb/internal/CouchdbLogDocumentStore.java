@@ -0,0 +1,45 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.util.List;
+
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocsResult;
+import dev.galasa.ras.couchdb.internal.pojos.LogLines;
+
+/**
+ * The operations that the {@link CouchdbLogShipper} needs in order to store run log documents
+ * and to record them against the run's test structure.
+ */
+public interface CouchdbLogDocumentStore {
+
+    /**
+     * Stores a batch of log documents in a single request.
+     *
+     * @param logDocuments the log documents to store
+     * @return one result for each document, in the same order as the given documents
+     * @throws CouchdbException if the request could not be sent or was rejected
+     */
+    List<BulkDocsResult> storeLogDocuments(List<LogLines> logDocuments) throws CouchdbException;
+
+    /**
+     * Records that the given log documents have been stored, so that their IDs are
+     * included the next time the test structure is written.
+     *
+     * @param logDocumentIds the IDs of the stored log documents, in log order
+     */
+    void logDocumentsStored(List<String> logDocumentIds);
+
+    /**
+     * Writes the test structure if any log documents have been stored since it was last written.
+     *
+     * @return true if the test structure was written, false if there was nothing new to write
+     * @throws ResultArchiveStoreException if the test structure could not be written
+     */
+    boolean saveLogDocumentIds() throws ResultArchiveStoreException;
+}
@@ -0,0 +1,550 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+
+import com.google.gson.Gson;
+
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.utils.GalasaGsonBuilder;
+import dev.galasa.framework.spi.utils.ITimeService;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocsResult;
+import dev.galasa.ras.couchdb.internal.pojos.LogLines;
+
+/**
+ * Sends run log lines to CouchDB on a background thread, so that a test writing to its
+ * run log is not held up waiting for CouchDB.
+ *
+ * Log lines are put onto a bounded queue. The shipper thread takes lines off the queue and
+ * stores them as log documents using _bulk_docs requests, either when a batch has filled up
+ * or when the oldest line in the batch has waited for the batch interval. The run document is
+ * updated with the new log record IDs at most once per test structure update interval.
+ *
+ * If the queue is full, the writing thread waits for a limited time for space, after which
+ * log lines are dropped rather than stalling the test.
+ *
+ * If CouchDB cannot store a batch, the batch is appended to a local spill file and retried,
+ * with a backoff, before any newer log lines are sent so that the log stays in order.
+ *
+ * Log documents are given IDs on the client side, so a batch which CouchDB partly stored
+ * before failing can be sent again without creating duplicate documents.
+ */
+public class CouchdbLogShipper implements Runnable {
+
+    public static final int LINES_PER_DOCUMENT = 100;
+
+    private static final long POLL_MILLIS = 100;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 30000;
+    private static final long FLUSH_TIMEOUT_MILLIS = 60000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 120000;
+
+    private static final String CONFLICT_ERROR = "conflict";
+
+    private final Log logger;
+    private final CouchdbLogDocumentStore documentStore;
+    private final CouchdbLogShipperSettings settings;
+    private final ITimeService timeService;
+    private final CouchdbLogShipperMetrics metrics = new CouchdbLogShipperMetrics();
+
+    private final String runName;
+    private final String runId;
+    private final String documentIdPrefix = UUID.randomUUID().toString();
+
+    // Spilled documents are written one per line, so pretty-printing must be turned off
+    private final Gson spillGson = new GalasaGsonBuilder(false).getGson();
+
+    private final BlockingQueue<String> queue;
+
+    private Thread shipperThread;
+    private volatile boolean isShutdownRequested = false;
+
+    // Set once a log line has been dropped, so that later lines do not each wait for space in a full queue
+    private volatile boolean isDroppingLines = false;
+
+    private final Object flushLock = new Object();
+    private long flushesRequested = 0;
+    private long flushesCompleted = 0;
+
+    // The remaining fields are only used on the shipper thread
+    private long nextLogOrder = 1;
+    private volatile Path spillFile;
+    private int consecutiveFailures = 0;
+    private Instant nextRetryTime;
+    private Instant lastTestStructureUpdateTime;
+
+    public CouchdbLogShipper(
+        CouchdbLogDocumentStore documentStore,
+        CouchdbLogShipperSettings settings,
+        ITimeService timeService,
+        Log logger,
+        String runName,
+        String runId
+    ) {
+        this.documentStore = documentStore;
+        this.settings = settings;
+        this.timeService = timeService;
+        this.logger = logger;
+        this.runName = runName;
+        this.runId = runId;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueMaxLines());
+    }
+
+    public CouchdbLogShipperMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Queues log lines to be sent to CouchDB. This does not wait for the lines to be sent.
+     *
+     * @param lines the log lines to send, in order
+     */
+    public void writeLines(List<String> lines) {
+        if (isShutdownRequested) {
+            metrics.addLinesDropped(lines.size());
+        } else {
+            startIfNeeded();
+            for (String line : lines) {
+                queueLine(line);
+            }
+        }
+    }
+
+    private void queueLine(String line) {
+        boolean isQueued = queue.offer(line);
+        if (!isQueued) {
+            metrics.incrementQueueFullEvents();
+
+            int blockMillis = settings.getQueueFullBlockMillis();
+            if (!isDroppingLines && blockMillis > 0) {
+                try {
+                    isQueued = queue.offer(line, blockMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        if (isQueued) {
+            isDroppingLines = false;
+            metrics.addLinesQueued(1);
+        } else {
+            if (!isDroppingLines) {
+                logger.warn("The run log queue is full, run log lines are being dropped until CouchDB catches up");
+                isDroppingLines = true;
+            }
+            metrics.addLinesDropped(1);
+        }
+    }
+
+    private synchronized void startIfNeeded() {
+        if (shipperThread == null) {
+            shipperThread = new Thread(this, "couchdb-ras-log-shipper-" + runName);
+            shipperThread.setDaemon(true);
+            shipperThread.start();
+        }
+    }
+
+    private synchronized Thread getShipperThread() {
+        return shipperThread;
+    }
+
+    /**
+     * Waits for all the log lines queued so far to be sent to CouchDB (or to the spill
+     * file if CouchDB is unavailable), and for the run document to be updated.
+     */
+    public void flush() {
+        Thread thread = getShipperThread();
+        if (thread != null) {
+            long flushNumber;
+            synchronized (flushLock) {
+                flushesRequested++;
+                flushNumber = flushesRequested;
+            }
+            waitForFlush(thread, flushNumber);
+        }
+    }
+
+    private void waitForFlush(Thread thread, long flushNumber) {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        synchronized (flushLock) {
+            try {
+                while (flushesCompleted < flushNumber && thread.isAlive()) {
+                    long remainingMillis = deadline - System.currentTimeMillis();
+                    if (remainingMillis <= 0) {
+                        logger.warn("Timed out waiting for the run log to be sent to CouchDB");
+                        break;
+                    }
+                    flushLock.wait(Math.min(remainingMillis, POLL_MILLIS));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long getFlushesRequested() {
+        synchronized (flushLock) {
+            return flushesRequested;
+        }
+    }
+
+    private void completeFlush(long flushNumber) {
+        synchronized (flushLock) {
+            flushesCompleted = Math.max(flushesCompleted, flushNumber);
+            flushLock.notifyAll();
+        }
+    }
+
+    /**
+     * Sends everything that has been queued, then stops the shipper thread.
+     */
+    public void shutdown() {
+        isShutdownRequested = true;
+
+        Thread thread = getShipperThread();
+        if (thread != null) {
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (thread.isAlive()) {
+                logger.warn("Timed out waiting for the run log to be sent to CouchDB, some run log lines may be missing");
+            }
+
+            Path remainingSpillFile = this.spillFile;
+            if (remainingSpillFile != null) {
+                logger.error("Some run log lines could not be stored in CouchDB, they have been left in " + remainingSpillFile);
+            }
+
+            if (metrics.getLinesDropped() > 0 || metrics.getLinesSpilled() > 0) {
+                logger.warn("Run log shipping metrics: " + metrics);
+            } else {
+                logger.debug("Run log shipping metrics: " + metrics);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        List<String> pendingLines = new ArrayList<>();
+        Instant batchStartTime = null;
+
+        boolean isFinished = false;
+        while (!isFinished) {
+            // Read these before taking lines off the queue, so that every line queued
+            // before a flush or shutdown was requested gets sent by it
+            boolean isShuttingDown = isShutdownRequested;
+            long flushNumber = getFlushesRequested();
+
+            try {
+                String line = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (line != null) {
+                    if (pendingLines.isEmpty()) {
+                        batchStartTime = timeService.now();
+                    }
+                    pendingLines.add(line);
+                    queue.drainTo(pendingLines, Math.max(0, settings.getBatchMaxLines() - pendingLines.size()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                isShuttingDown = true;
+            }
+
+            try {
+                if (isShuttingDown || flushNumber > flushesCompleted) {
+                    queue.drainTo(pendingLines);
+                    shipLines(pendingLines, true);
+                    pendingLines.clear();
+
+                    saveLogDocumentIds(true);
+                    completeFlush(flushNumber);
+
+                    isFinished = isShuttingDown;
+                } else if (isBatchDue(pendingLines, batchStartTime) || isSpillRetryDue()) {
+                    shipLines(pendingLines, false);
+                    pendingLines.clear();
+                } else {
+                    saveLogDocumentIds(false);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Unexpected failure sending the run log to CouchDB", e);
+                metrics.addLinesDropped(pendingLines.size());
+                pendingLines.clear();
+            }
+        }
+    }
+
+    private boolean isBatchDue(List<String> pendingLines, Instant batchStartTime) {
+        boolean isDue = false;
+        if (pendingLines.size() >= settings.getBatchMaxLines()) {
+            isDue = true;
+        } else if (!pendingLines.isEmpty()) {
+            long waitedMillis = Duration.between(batchStartTime, timeService.now()).toMillis();
+            isDue = waitedMillis >= settings.getBatchIntervalMillis();
+        }
+        return isDue;
+    }
+
+    private boolean isSpillRetryDue() {
+        return spillFile != null && isRetryDue();
+    }
+
+    private boolean isRetryDue() {
+        return nextRetryTime == null || !timeService.now().isBefore(nextRetryTime);
+    }
+
+    /**
+     * Sends log lines to CouchDB, after anything that was previously spilled. Whatever
+     * can't be sent is added to the spill file.
+     *
+     * @param lines the log lines to send
+     * @param isForced true to contact CouchDB even if we are backing off after a failure
+     */
+    private void shipLines(List<String> lines, boolean isForced) {
+        List<LogLines> documents = createLogDocuments(lines);
+
+        boolean isCouchdbAvailable = isForced || isRetryDue();
+        if (isCouchdbAvailable && spillFile != null) {
+            isCouchdbAvailable = replaySpillFile();
+        }
+
+        List<LogLines> unstoredDocuments = documents;
+        if (isCouchdbAvailable) {
+            unstoredDocuments = storeLogDocuments(documents);
+        }
+
+        if (!unstoredDocuments.isEmpty()) {
+            appendToSpillFile(unstoredDocuments);
+        }
+
+        saveLogDocumentIds(isForced);
+    }
+
+    private List<LogLines> createLogDocuments(List<String> lines) {
+        List<LogLines> documents = new ArrayList<>();
+        for (int start = 0; start < lines.size(); start += LINES_PER_DOCUMENT) {
+            int end = Math.min(start + LINES_PER_DOCUMENT, lines.size());
+
+            LogLines document = new LogLines();
+            document._id = documentIdPrefix + "-" + nextLogOrder;
+            document.order = nextLogOrder;
+            document.runName = runName;
+            document.runId = runId;
+            document.lines = new ArrayList<>(lines.subList(start, end));
+
+            nextLogOrder++;
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    /**
+     * Stores log documents in as few requests as the batch size allows.
+     *
+     * @return the documents which could not be stored. If a document could not be stored,
+     * none of the documents after it are considered stored either, so the log stays in order.
+     */
+    private List<LogLines> storeLogDocuments(List<LogLines> documents) {
+        int documentsPerRequest = Math.max(1, settings.getBatchMaxLines() / LINES_PER_DOCUMENT);
+
+        int storedCount = 0;
+        while (storedCount < documents.size()) {
+            int end = Math.min(storedCount + documentsPerRequest, documents.size());
+            List<LogLines> requestDocuments = documents.subList(storedCount, end);
+
+            int storedInRequest = sendBulkRequest(requestDocuments);
+            storedCount += storedInRequest;
+
+            if (storedInRequest < requestDocuments.size()) {
+                break;
+            }
+        }
+        return new ArrayList<>(documents.subList(storedCount, documents.size()));
+    }
+
+    private int sendBulkRequest(List<LogLines> documents) {
+        metrics.incrementBulkRequests();
+
+        List<String> storedDocumentIds = new ArrayList<>();
+        long storedLineCount = 0;
+        try {
+            List<BulkDocsResult> results = documentStore.storeLogDocuments(documents);
+            for (int index = 0; index < documents.size() && index < results.size(); index++) {
+                BulkDocsResult result = results.get(index);
+                LogLines document = documents.get(index);
+
+                // A conflict means an earlier attempt already stored this document
+                if (!result.ok && !CONFLICT_ERROR.equals(result.error)) {
+                    logger.warn("CouchDB did not store run log document " + document._id + ": " + result.error + " " + result.reason);
+                    break;
+                }
+                storedDocumentIds.add(document._id);
+                storedLineCount += document.lines.size();
+            }
+        } catch (CouchdbException e) {
+            if (consecutiveFailures == 0) {
+                logger.warn("Unable to send the run log to CouchDB, it will be retried", e);
+            } else {
+                logger.debug("Unable to send the run log to CouchDB", e);
+            }
+        }
+
+        if (!storedDocumentIds.isEmpty()) {
+            documentStore.logDocumentsStored(storedDocumentIds);
+            metrics.addLinesShipped(storedLineCount);
+        }
+
+        if (storedDocumentIds.size() < documents.size()) {
+            recordFailure();
+        } else {
+            recordSuccess();
+        }
+        return storedDocumentIds.size();
+    }
+
+    private void recordFailure() {
+        metrics.incrementFailedBulkRequests();
+        consecutiveFailures++;
+
+        long backoffMillis = settings.getBatchIntervalMillis();
+        for (int i = 1; i < consecutiveFailures && backoffMillis < MAX_RETRY_BACKOFF_MILLIS; i++) {
+            backoffMillis *= 2;
+        }
+        nextRetryTime = timeService.now().plusMillis(Math.min(backoffMillis, MAX_RETRY_BACKOFF_MILLIS));
+    }
+
+    private void recordSuccess() {
+        if (consecutiveFailures > 0) {
+            logger.info("Sending the run log to CouchDB has recovered after " + consecutiveFailures + " failed attempts");
+        }
+        consecutiveFailures = 0;
+        nextRetryTime = null;
+    }
+
+    /**
+     * Tries to send everything in the spill file to CouchDB.
+     *
+     * @return true if the spill file has been emptied, false if some of it is still waiting to be sent
+     */
+    private boolean replaySpillFile() {
+        boolean isEmptied = false;
+
+        Path file = this.spillFile;
+        try {
+            List<LogLines> spilledDocuments = readSpillFile(file);
+            List<LogLines> unstoredDocuments = storeLogDocuments(spilledDocuments);
+
+            if (unstoredDocuments.isEmpty()) {
+                Files.deleteIfExists(file);
+                this.spillFile = null;
+                isEmptied = true;
+                logger.info("All the run log lines in " + file + " have now been stored in CouchDB");
+            } else if (unstoredDocuments.size() < spilledDocuments.size()) {
+                rewriteSpillFile(file, unstoredDocuments);
+            }
+        } catch (IOException e) {
+            logger.error("Unable to replay the run log spill file " + file + ", the lines left in it have not been stored in CouchDB", e);
+            this.spillFile = null;
+            isEmptied = true;
+        }
+        return isEmptied;
+    }
+
+    private List<LogLines> readSpillFile(Path file) throws IOException {
+        List<LogLines> documents = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    documents.add(spillGson.fromJson(line, LogLines.class));
+                }
+            }
+        }
+        return documents;
+    }
+
+    private void appendToSpillFile(List<LogLines> documents) {
+        long lineCount = countLines(documents);
+        try {
+            if (spillFile == null) {
+                spillFile = Files.createTempFile("galasa-ras-log-" + runName + "-", ".spill");
+                logger.warn("Run log lines are being saved to " + spillFile + " until CouchDB can store them");
+            }
+            writeDocuments(spillFile, documents, StandardOpenOption.APPEND);
+            metrics.addLinesSpilled(lineCount);
+        } catch (IOException e) {
+            logger.error("Unable to save run log lines to the spill file, " + lineCount + " lines have been lost", e);
+            metrics.addLinesDropped(lineCount);
+        }
+    }
+
+    private void rewriteSpillFile(Path file, List<LogLines> documents) throws IOException {
+        Path newFile = file.resolveSibling(file.getFileName() + ".tmp");
+        writeDocuments(newFile, documents, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeDocuments(Path file, List<LogLines> documents, StandardOpenOption... options) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, options)) {
+            for (LogLines document : documents) {
+                writer.write(spillGson.toJson(document));
+                writer.newLine();
+            }
+        }
+    }
+
+    private long countLines(List<LogLines> documents) {
+        long lineCount = 0;
+        for (LogLines document : documents) {
+            lineCount += document.lines.size();
+        }
+        return lineCount;
+    }
+
+    /**
+     * Updates the run document with the IDs of newly stored log documents, at most
+     * once per test structure update interval unless forced.
+     */
+    private void saveLogDocumentIds(boolean isForced) {
+        Instant now = timeService.now();
+        boolean isDue = isForced
+            || lastTestStructureUpdateTime == null
+            || Duration.between(lastTestStructureUpdateTime, now).toMillis() >= settings.getTestStructureUpdateIntervalMillis();
+
+        if (isDue) {
+            try {
+                if (documentStore.saveLogDocumentIds()) {
+                    metrics.incrementTestStructureUpdates();
+                    lastTestStructureUpdateTime = now;
+                }
+            } catch (ResultArchiveStoreException e) {
+                logger.warn("Unable to update the run document with the latest run log record IDs", e);
+                lastTestStructureUpdateTime = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing how well the run log is keeping up with the test that is writing it.
+ */
+public class CouchdbLogShipperMetrics {
+
+    private final AtomicLong linesQueued = new AtomicLong();
+    private final AtomicLong linesShipped = new AtomicLong();
+    private final AtomicLong linesDropped = new AtomicLong();
+    private final AtomicLong linesSpilled = new AtomicLong();
+    private final AtomicLong queueFullEvents = new AtomicLong();
+    private final AtomicLong bulkRequests = new AtomicLong();
+    private final AtomicLong failedBulkRequests = new AtomicLong();
+    private final AtomicLong testStructureUpdates = new AtomicLong();
+
+    void addLinesQueued(long count) {
+        linesQueued.addAndGet(count);
+    }
+
+    void addLinesShipped(long count) {
+        linesShipped.addAndGet(count);
+    }
+
+    void addLinesDropped(long count) {
+        linesDropped.addAndGet(count);
+    }
+
+    void addLinesSpilled(long count) {
+        linesSpilled.addAndGet(count);
+    }
+
+    void incrementQueueFullEvents() {
+        queueFullEvents.incrementAndGet();
+    }
+
+    void incrementBulkRequests() {
+        bulkRequests.incrementAndGet();
+    }
+
+    void incrementFailedBulkRequests() {
+        failedBulkRequests.incrementAndGet();
+    }
+
+    void incrementTestStructureUpdates() {
+        testStructureUpdates.incrementAndGet();
+    }
+
+    // The number of log lines accepted onto the queue
+    public long getLinesQueued() {
+        return linesQueued.get();
+    }
+
+    // The number of log lines stored in couchdb, including any that were replayed from the spill file
+    public long getLinesShipped() {
+        return linesShipped.get();
+    }
+
+    // The number of log lines lost, either because the queue was full or because they could not be spilled to disk
+    public long getLinesDropped() {
+        return linesDropped.get();
+    }
+
+    // The number of log lines written to the local spill file because couchdb could not store them
+    public long getLinesSpilled() {
+        return linesSpilled.get();
+    }
+
+    // The number of log lines which found the log queue full when they were written
+    public long getQueueFullEvents() {
+        return queueFullEvents.get();
+    }
+
+    public long getBulkRequests() {
+        return bulkRequests.get();
+    }
+
+    public long getFailedBulkRequests() {
+        return failedBulkRequests.get();
+    }
+
+    public long getTestStructureUpdates() {
+        return testStructureUpdates.get();
+    }
+
+    @Override
+    public String toString() {
+        return "linesQueued=" + getLinesQueued()
+            + " linesShipped=" + getLinesShipped()
+            + " linesDropped=" + getLinesDropped()
+            + " linesSpilled=" + getLinesSpilled()
+            + " queueFullEvents=" + getQueueFullEvents()
+            + " bulkRequests=" + getBulkRequests()
+            + " failedBulkRequests=" + getFailedBulkRequests()
+            + " testStructureUpdates=" + getTestStructureUpdates();
+    }
+}
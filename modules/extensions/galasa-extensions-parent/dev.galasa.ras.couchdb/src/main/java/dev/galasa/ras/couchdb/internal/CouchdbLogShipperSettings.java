@@ -0,0 +1,89 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import org.apache.commons.logging.Log;
+
+import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
+
+/**
+ * The tuning values used by the {@link CouchdbLogShipper}, which can be overridden with
+ * properties in the "couchdb" CPS namespace.
+ */
+public class CouchdbLogShipperSettings {
+
+    public static final int DEFAULT_QUEUE_MAX_LINES = 10000;
+    public static final int DEFAULT_QUEUE_FULL_BLOCK_MILLIS = 5000;
+    public static final int DEFAULT_BATCH_MAX_LINES = 1000;
+    public static final int DEFAULT_BATCH_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_TEST_STRUCTURE_UPDATE_INTERVAL_MILLIS = 5000;
+
+    private final int queueMaxLines;
+    private final int queueFullBlockMillis;
+    private final int batchMaxLines;
+    private final int batchIntervalMillis;
+    private final int testStructureUpdateIntervalMillis;
+
+    public CouchdbLogShipperSettings() {
+        this(
+            DEFAULT_QUEUE_MAX_LINES,
+            DEFAULT_QUEUE_FULL_BLOCK_MILLIS,
+            DEFAULT_BATCH_MAX_LINES,
+            DEFAULT_BATCH_INTERVAL_MILLIS,
+            DEFAULT_TEST_STRUCTURE_UPDATE_INTERVAL_MILLIS
+        );
+    }
+
+    public CouchdbLogShipperSettings(
+        int queueMaxLines,
+        int queueFullBlockMillis,
+        int batchMaxLines,
+        int batchIntervalMillis,
+        int testStructureUpdateIntervalMillis
+    ) {
+        this.queueMaxLines = Math.max(1, queueMaxLines);
+        this.queueFullBlockMillis = Math.max(0, queueFullBlockMillis);
+        this.batchMaxLines = Math.max(1, batchMaxLines);
+        this.batchIntervalMillis = Math.max(1, batchIntervalMillis);
+        this.testStructureUpdateIntervalMillis = Math.max(0, testStructureUpdateIntervalMillis);
+    }
+
+    public static CouchdbLogShipperSettings load(Log logger, IConfigurationPropertyStoreService cps) throws CouchdbRasException {
+        CouchdbLogShipperSettings settings;
+        if (cps == null) {
+            settings = new CouchdbLogShipperSettings();
+        } else {
+            settings = new CouchdbLogShipperSettings(
+                CpsPropertyDef.LOG_QUEUE_MAX_LINES.getCpsIntValue(logger, cps, DEFAULT_QUEUE_MAX_LINES),
+                CpsPropertyDef.LOG_QUEUE_FULL_BLOCK_MILLIS.getCpsIntValue(logger, cps, DEFAULT_QUEUE_FULL_BLOCK_MILLIS),
+                CpsPropertyDef.LOG_BATCH_MAX_LINES.getCpsIntValue(logger, cps, DEFAULT_BATCH_MAX_LINES),
+                CpsPropertyDef.LOG_BATCH_INTERVAL_MILLIS.getCpsIntValue(logger, cps, DEFAULT_BATCH_INTERVAL_MILLIS),
+                CpsPropertyDef.LOG_TEST_STRUCTURE_UPDATE_INTERVAL_MILLIS.getCpsIntValue(logger, cps, DEFAULT_TEST_STRUCTURE_UPDATE_INTERVAL_MILLIS)
+            );
+        }
+        return settings;
+    }
+
+    public int getQueueMaxLines() {
+        return queueMaxLines;
+    }
+
+    public int getQueueFullBlockMillis() {
+        return queueFullBlockMillis;
+    }
+
+    public int getBatchMaxLines() {
+        return batchMaxLines;
+    }
+
+    public int getBatchIntervalMillis() {
+        return batchIntervalMillis;
+    }
+
+    public int getTestStructureUpdateIntervalMillis() {
+        return testStructureUpdateIntervalMillis;
+    }
+}
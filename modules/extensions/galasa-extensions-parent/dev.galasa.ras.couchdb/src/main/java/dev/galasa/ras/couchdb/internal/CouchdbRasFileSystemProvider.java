@@ -12,7 +12,6 @@ import java.nio.file.AccessMode;
 import java.nio.file.DirectoryStream;
 import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.FileStore;
-import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
@@ -30,6 +29,8 @@ import java.util.Set;
 import dev.galasa.ResultArchiveStoreContentType;
 import dev.galasa.SetContentType;
 import dev.galasa.framework.SupportedFileAttributeName;
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
 import dev.galasa.framework.spi.ras.ResultArchiveStoreFileSystemProvider;
 import dev.galasa.extensions.common.api.LogFactory;
 import dev.galasa.extensions.common.couchdb.CouchdbException;
@@ -38,7 +39,8 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
 
     private final HashMap<Path, ResultArchiveStoreContentType> contentTypes     = new HashMap<>();
 
-    private final HashSet<CouchdbArtifactPath>                 paths            = new HashSet<>();
+    // The known artifact paths, keyed by their absolute path names
+    private final HashMap<String, CouchdbArtifactPath>         paths            = new HashMap<>();
 
     private final CouchdbRasStore                              couchdbRasStore;
 
@@ -49,22 +51,18 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
         this.logFactory = logFactory;
         fileSystem = new CouchdbFileSystem(this);
         this.couchdbRasStore = couchdbRasStore;
-        paths.add(new CouchdbArtifactPath(fileSystem, "/"));
+        CouchdbArtifactPath rootPath = new CouchdbArtifactPath(fileSystem, "/");
+        paths.put(rootPath.toString(), rootPath);
     }
 
     protected void addPath(CouchdbArtifactPath path) {
         path = path.toAbsolutePath();
-        if (paths.contains(path)) {
+        if (paths.putIfAbsent(path.toString(), path) != null) {
             return;
         }
-        paths.add(path);
 
-        CouchdbArtifactPath parentPath = (CouchdbArtifactPath) path.getParent();
-        while (parentPath != null && !paths.contains(parentPath)) {
-            if (paths.contains(parentPath)) {
-                return;
-            }
-            paths.add(parentPath);
+        CouchdbArtifactPath parentPath = path.getParent();
+        while (parentPath != null && paths.putIfAbsent(parentPath.toString(), parentPath) == null) {
             parentPath = parentPath.getParent();
         }
 
@@ -104,21 +102,24 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
             return new CouchdbRasWriteByteChannel(this, this.couchdbRasStore, absolute, contentType, passThroughOptions,
                     attrs, this.logFactory );
         } else {
-            CouchdbArtifactPath cdbPath = (CouchdbArtifactPath) path;
+            // Use the known path if there is one, as it holds the artifact's document ID
+            CouchdbArtifactPath cdbPath = paths.getOrDefault(path.toString(), (CouchdbArtifactPath) path);
 
-            for (CouchdbArtifactPath artifactPath : paths) {
-                if (artifactPath.toString().equals(path.toString())) {
-                    cdbPath = artifactPath;
+            ArtifactByteRange range = null;
+            ArtifactIfNoneMatch ifNoneMatch = null;
+            for (OpenOption option : options) {
+                if (option instanceof ArtifactByteRange) {
+                    range = (ArtifactByteRange) option;
+                } else if (option instanceof ArtifactIfNoneMatch) {
+                    ifNoneMatch = (ArtifactIfNoneMatch) option;
                 }
             }
 
-            Path cachePath = Files.createTempFile("galasa_couchdb", "temp");
             try {
-                couchdbRasStore.retrieveArtifact(cdbPath, cachePath);
+                return couchdbRasStore.openArtifact(cdbPath, range, ifNoneMatch);
             } catch (CouchdbException e) {
                 throw new IOException("Unable to retrieve artifact", e);
             }
-            return new CouchdbRasReadByteChannel(cachePath);
         }
     }
 
@@ -133,12 +134,7 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
         if (uri != null) {
             String uriString = uri.toString();
 
-            for (CouchdbArtifactPath path : this.paths) {
-                if (path.toString().equals(uriString)) {
-                    pathToReturn = path;
-                    break;
-                }
-            }
+            pathToReturn = this.paths.get(uriString);
 
             if (pathToReturn == null) {
                 pathToReturn = new CouchdbArtifactPath(this.getActualFileSystem(), uriString);
@@ -149,7 +145,7 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
 
     @Override
     public DirectoryStream<Path> newDirectoryStream(Path dir, Filter<? super Path> filter) throws IOException {
-        return new CouchdbDirectoryStream(dir, filter, paths);
+        return new CouchdbDirectoryStream(dir, filter, paths.values());
     }
 
     @Override
@@ -224,12 +220,10 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
     @Override
     public void checkAccess(Path path, AccessMode... modes) throws IOException {
         if (modes.length == 0) { // Check the file exists
-            for(CouchdbArtifactPath p : this.paths) {
-                if (p.compareTo(path) == 0) {
-                    return;
-                }
+            if (!this.paths.containsKey(path.toAbsolutePath().toString())) {
+                throw new IOException("Path " + path.toString() + " is missing");
             }
-            throw new IOException("Path " + path.toString() + " is missing");
+            return;
         }
         
         for (final AccessMode mode : modes) {
@@ -6,25 +6,94 @@
 package dev.galasa.ras.couchdb.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SeekableByteChannel;
-import java.nio.file.Files;
-import java.nio.file.Path;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+
+import dev.galasa.framework.spi.ras.IArtifactReadChannel;
 
 /**
- * Dummy Byte Channel for a null Result Archive Store
- *
- * @author Michael Baylis
+ * Byte Channel to read an artifact straight from the body of the CouchDB response
+ * for its attachment. The response is held open until the channel is closed.
  *
+ * The channel only reads forwards. It can be positioned further on in the artifact,
+ * which skips the content in between, but cannot go back.
  */
-public class CouchdbRasReadByteChannel implements SeekableByteChannel {
+public class CouchdbRasReadByteChannel implements SeekableByteChannel, IArtifactReadChannel {
+
+    private final CloseableHttpResponse response;
+    private final ReadableByteChannel   contentChannel;
+
+    private final boolean               isNotModified;
+    private final String                contentRange;
+    private final long                  contentLength;
+    private final long                  artifactLength;
+    private final String                eTag;
+
+    private long                        position = 0;
+    private boolean                     isOpen   = true;
 
-    private final Path                cachePath;
-    private final SeekableByteChannel cacheByteChannel;
+    /**
+     * @param response       the response to the request for the artifact's attachment
+     * @param artifactLength the length of the artifact as recorded in its artifact document,
+     *                       used for the size of the channel if CouchDB does not give one
+     */
+    public CouchdbRasReadByteChannel(CloseableHttpResponse response, long artifactLength) throws IOException {
+        this.response = response;
+        this.artifactLength = artifactLength;
+
+        int statusCode = response.getStatusLine().getStatusCode();
+        this.isNotModified = (statusCode == HttpStatus.SC_NOT_MODIFIED);
+        this.contentRange = (statusCode == HttpStatus.SC_PARTIAL_CONTENT) ? getHeaderValue(HttpHeaders.CONTENT_RANGE) : null;
+        this.eTag = getHeaderValue(HttpHeaders.ETAG);
+
+        HttpEntity entity = response.getEntity();
+        if (isNotModified || entity == null) {
+            this.contentLength = 0;
+            this.contentChannel = null;
+        } else {
+            this.contentLength = entity.getContentLength();
+            InputStream content = entity.getContent();
+            this.contentChannel = Channels.newChannel(content);
+        }
+    }
 
-    public CouchdbRasReadByteChannel(Path cachePath) throws IOException {
-        this.cachePath = cachePath;
-        this.cacheByteChannel = Files.newByteChannel(cachePath);
+    private String getHeaderValue(String headerName) {
+        Header header = response.getFirstHeader(headerName);
+        String value = null;
+        if (header != null) {
+            value = header.getValue();
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isNotModified() {
+        return isNotModified;
+    }
+
+    @Override
+    public String getContentRange() {
+        return contentRange;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String getETag() {
+        return eTag;
     }
 
     /*
@@ -34,7 +103,7 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public boolean isOpen() {
-        return cacheByteChannel.isOpen();
+        return isOpen;
     }
 
     /*
@@ -44,11 +113,12 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public void close() throws IOException {
-        cacheByteChannel.close();
-        try {
-            Files.delete(cachePath);
-        } catch (Exception e) {
-        } // *** Hide any delete problems
+        if (isOpen) {
+            isOpen = false;
+            // Closing the response without reading the rest of its body drops the connection,
+            // rather than reading the rest of a large attachment nobody wants
+            response.close();
+        }
     }
 
     /*
@@ -58,7 +128,14 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public int read(ByteBuffer dst) throws IOException {
-        return cacheByteChannel.read(dst);
+        int bytesRead = -1;
+        if (contentChannel != null) {
+            bytesRead = contentChannel.read(dst);
+            if (bytesRead > 0) {
+                position += bytesRead;
+            }
+        }
+        return bytesRead;
     }
 
     /*
@@ -68,7 +145,7 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public int write(ByteBuffer src) throws IOException {
-        return cacheByteChannel.write(src);
+        throw new NonWritableChannelException();
     }
 
     /*
@@ -78,7 +155,7 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public long position() throws IOException {
-        return cacheByteChannel.position();
+        return position;
     }
 
     /*
@@ -88,7 +165,19 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public SeekableByteChannel position(long newPosition) throws IOException {
-        return cacheByteChannel.position(newPosition);
+        if (newPosition < position) {
+            throw new IOException("Unable to move back to position " + newPosition + " of a CouchDB artifact, it is read forwards only");
+        }
+
+        ByteBuffer skipBuffer = ByteBuffer.allocate((int) Math.min(8192, Math.max(1, newPosition - position)));
+        while (position < newPosition) {
+            skipBuffer.clear();
+            skipBuffer.limit((int) Math.min(skipBuffer.capacity(), newPosition - position));
+            if (read(skipBuffer) < 0) {
+                break;
+            }
+        }
+        return this;
     }
 
     /*
@@ -98,7 +187,12 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public long size() throws IOException {
-        return cacheByteChannel.size();
+        long size = contentLength;
+        if (size < 0) {
+            // CouchDB did not say, for example because the attachment is being decompressed
+            size = (contentRange == null) ? artifactLength : 0;
+        }
+        return size;
     }
 
     /*
@@ -108,7 +202,7 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public SeekableByteChannel truncate(long size) throws IOException {
-        return cacheByteChannel.truncate(size);
+        throw new NonWritableChannelException();
     }
 
 }
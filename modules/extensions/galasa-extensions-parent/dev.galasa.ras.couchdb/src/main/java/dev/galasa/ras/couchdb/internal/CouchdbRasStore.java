@@ -12,24 +12,28 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import javax.validation.constraints.NotNull;
 import org.apache.commons.logging.Log;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
 import dev.galasa.framework.spi.IResultArchiveStoreService;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.framework.spi.SystemEnvironment;
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
 import dev.galasa.framework.spi.ras.ResultArchiveStoreFileStore;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.spi.utils.GalasaGson;
@@ -48,10 +52,12 @@ import dev.galasa.extensions.common.impl.HttpRequestFactoryImpl;
 import dev.galasa.extensions.common.api.HttpRequestFactory;
 import dev.galasa.extensions.common.impl.LogFactoryImpl;
 import dev.galasa.ras.couchdb.internal.pojos.Artifacts;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocs;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocsResult;
 import dev.galasa.ras.couchdb.internal.pojos.LogLines;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
-public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStoreService {
+public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStoreService, CouchdbLogDocumentStore {
 
     private static final String COUCHDB_AUTH_ENV_VAR = "GALASA_RAS_TOKEN";
     private static final String COUCHDB_AUTH_TYPE    = "Basic";
@@ -83,11 +89,10 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
     private String                             runDocumentId;
     private String                             runDocumentRevision;
 
-    private long                               logOrder           = 0;
-
-    private final ArrayList<String>            logCache           = new ArrayList<>(100);
+    private CouchdbLogShipper                  logShipper;
 
     private ArrayList<String>                  logIds             = new ArrayList<>();
+    private boolean                            isLogIdsChanged    = false;
     private ArrayList<String>                  artifactDocumentId = new ArrayList<>();;
     private String                             artifactDocumentRev;
 
@@ -129,6 +134,7 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         // *** If this is a run, ensure we can create/update the run document
         if (this.run != null) {
             initialiseRunDocument();
+            initialiseLogShipper();
         }
 
         ResultArchiveStoreFileStore fileStore = new ResultArchiveStoreFileStore();
@@ -157,6 +163,18 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         createArtifactDocument();
     }
 
+    private void initialiseLogShipper() throws CouchdbException {
+        CouchdbLogShipperSettings settings;
+        try {
+            settings = CouchdbLogShipperSettings.load(logger, framework.getConfigurationPropertyService("couchdb"));
+        } catch (ConfigurationPropertyStoreException | CouchdbRasException e) {
+            throw new CouchdbException("Unable to read the run log settings from the CPS", e);
+        }
+
+        Log shipperLogger = logFactory.getLog(CouchdbLogShipper.class);
+        this.logShipper = new CouchdbLogShipper(this, settings, timeService, shipperLogger, this.run.getName(), this.runDocumentId);
+    }
+
     // Protected so that we can create artifact documents from elsewhere.
     protected void createArtifactDocument() throws CouchdbException {
         Artifacts artifacts = new Artifacts();
@@ -182,52 +200,54 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
         String[] lines = message.split("\r\n?|\n");
 
-        synchronized (logCache) {
-            logCache.addAll(Arrays.asList(lines));
-            if (logCache.size() >= 100) {
-                flushLogCache();
-            }
-        }
+        // The log lines are sent to couchdb in the background, so we don't wait for couchdb here
+        logShipper.writeLines(Arrays.asList(lines));
 
         updateRunLogLineCountSoFar(lines.length);
         updateRunLogSizeSoFar(message.getBytes(StandardCharsets.UTF_8).length);
 
     }
 
-    private void flushLogCache() throws ResultArchiveStoreException {
-        LogLines logLines = new LogLines();
-        synchronized (logCache) {
-            if (logCache.isEmpty()) {
-                return;
-            }
-            logLines.lines = new ArrayList<>(logCache);
-            logOrder++;
-            logLines.order = logOrder;
+    @Override
+    public List<BulkDocsResult> storeLogDocuments(List<LogLines> logDocuments) throws CouchdbException {
+        BulkDocs<LogLines> bulkDocs = new BulkDocs<>();
+        bulkDocs.docs = logDocuments;
 
-            logCache.clear();
-        }
-        logLines.runName = this.run.getName();
-        logLines.runId = this.runDocumentId;
+        String jsonDocuments = gson.toJson(bulkDocs);
 
-        String jsonStructure = gson.toJson(logLines);
+        HttpPost request = httpRequestFactory.getHttpPostRequest(this.storeUri + "/" + LOG_DB + "/_bulk_docs");
+        request.setEntity(new StringEntity(jsonDocuments, StandardCharsets.UTF_8));
 
-        HttpPost request = httpRequestFactory.getHttpPostRequest(this.storeUri + "/"+LOG_DB);
-        request.setEntity(new StringEntity(jsonStructure, StandardCharsets.UTF_8));
+        String entity = sendHttpRequest(request, HttpStatus.SC_CREATED, HttpStatus.SC_ACCEPTED);
+        BulkDocsResult[] results = gson.fromJson(entity, BulkDocsResult[].class);
+        if (results == null) {
+            throw new CouchdbException("Unable to store the test log - Invalid JSON response");
+        }
+        return Arrays.asList(results);
+    }
 
-        try{
-            String entity = sendHttpRequest(request, HttpStatus.SC_CREATED);
-            PutPostResponse putPostResponse = gson.fromJson(entity, PutPostResponse.class);
-            if (putPostResponse.id == null || putPostResponse.rev == null) {
-                throw new CouchdbException("Unable to store the test structure - Invalid JSON response");
-            }
+    @Override
+    public synchronized void logDocumentsStored(List<String> logDocumentIds) {
+        this.logIds.addAll(logDocumentIds);
+        this.isLogIdsChanged = true;
+    }
 
-            this.logIds.add(putPostResponse.id);
-            this.updateTestStructure(lastTestStructure);
-        } catch (CouchdbException e) {
-            throw new ResultArchiveStoreException(e);
-        } catch (Exception e) {
-            throw new ResultArchiveStoreException("Unable to store the test log", e);
+    @Override
+    public synchronized boolean saveLogDocumentIds() throws ResultArchiveStoreException {
+        boolean isSaved = false;
+        if (this.isLogIdsChanged) {
+            updateTestStructure(lastTestStructure);
+            isSaved = true;
         }
+        return isSaved;
+    }
+
+    public CouchdbLogShipperMetrics getLogShipperMetrics() {
+        CouchdbLogShipperMetrics metrics = null;
+        if (this.logShipper != null) {
+            metrics = this.logShipper.getMetrics();
+        }
+        return metrics;
     }
 
     @Override
@@ -337,8 +357,9 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         }
 
         this.lastTestStructure = testStructure;
-        this.lastTestStructure.setLogRecordIds(this.logIds);
-        this.lastTestStructure.setArtifactRecordIds(this.artifactDocumentId);
+        // Copies, as the log shipper thread adds to the store's lists while the structure is in use elsewhere
+        this.lastTestStructure.setLogRecordIds(List.copyOf(this.logIds));
+        this.lastTestStructure.setArtifactRecordIds(List.copyOf(this.artifactDocumentId));
         this.lastTestStructure.setLogSize(Long.valueOf(this.runLogSizeBytes));
         this.lastTestStructure.normalise();
 
@@ -361,12 +382,23 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
                 }
                 this.runDocumentId = putPostResponse.id;
                 this.runDocumentRevision = putPostResponse.rev;
+                this.isLogIdsChanged = false;
         } catch (CouchdbException e){
             throw new ResultArchiveStoreException(e);
         }
     }
 
-    public void retrieveArtifact(CouchdbArtifactPath path, Path cachePath) throws CouchdbException {
+    /**
+     * Opens a stored artifact for reading, streaming its content straight from the
+     * CouchDB attachment rather than copying it anywhere first.
+     *
+     * @param path        the artifact to read
+     * @param range       the part of the artifact to read, or null for all of it
+     * @param ifNoneMatch the entity tags the client already holds, or null
+     * @return a channel to read the artifact's content from
+     * @throws CouchdbException if the artifact could not be read
+     */
+    public CouchdbRasReadByteChannel openArtifact(CouchdbArtifactPath path, ArtifactByteRange range, ArtifactIfNoneMatch ifNoneMatch) throws CouchdbException {
         String artifactRecordId = path.getArtifactRecordId();
         String encodedPath;
         try {
@@ -376,7 +408,41 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         }
 
         String artifactURI= this.storeUri + "/"+ARTIFACTS_DB+"/" + artifactRecordId + "/" + encodedPath;
-        retrieveArtifactFromDatabase(artifactURI, cachePath,StandardCopyOption.REPLACE_EXISTING);
+
+        CloseableHttpResponse response = sendArtifactRequest(artifactURI, range, ifNoneMatch);
+        if (response.getStatusLine().getStatusCode() == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+            // A range outside the artifact can be ignored, so the whole artifact is read instead
+            closeResponse(response);
+            response = sendArtifactRequest(artifactURI, null, ifNoneMatch);
+        }
+
+        try {
+            return new CouchdbRasReadByteChannel(response, path.getLength());
+        } catch (IOException e) {
+            closeResponse(response);
+            throw new CouchdbException("Unable to read the content of artifact " + path.toString(), e);
+        }
+    }
+
+    private CloseableHttpResponse sendArtifactRequest(String artifactURI, ArtifactByteRange range, ArtifactIfNoneMatch ifNoneMatch) throws CouchdbException {
+        HttpGet httpGet = httpRequestFactory.getHttpGetRequest(artifactURI);
+        if (range != null) {
+            httpGet.addHeader(HttpHeaders.RANGE, range.toHeaderValue());
+        }
+        if (ifNoneMatch != null) {
+            httpGet.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch.getEntityTags());
+        }
+
+        return sendStreamingHttpRequest(httpGet,
+            HttpStatus.SC_OK, HttpStatus.SC_PARTIAL_CONTENT, HttpStatus.SC_NOT_MODIFIED, HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    private void closeResponse(CloseableHttpResponse response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            logger.warn("Unable to close the response for an artifact", e);
+        }
     }
 
     /**
@@ -471,22 +537,20 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
     @Override
     public void flush() {
-        try {
-            flushLogCache();
-        } catch (ResultArchiveStoreException e) {
-            logger.error("Error with heartbeat flush", e);
+        if (this.logShipper != null) {
+            this.logShipper.flush();
         }
     }
 
     @Override
     public void shutdown() {
         this.shutdown = true;
-        try {
-            flushLogCache();
-        } catch (ResultArchiveStoreException e) {
-            logger.error("Error with shutdown flush", e);
+        if (this.logShipper != null) {
+            this.logShipper.shutdown();
         }
 
+        closeStreamingHttpClient();
+
         try {
             this.httpClient.close();
         } catch (IOException e) {
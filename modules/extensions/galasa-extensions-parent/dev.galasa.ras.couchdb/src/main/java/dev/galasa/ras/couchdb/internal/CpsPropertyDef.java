@@ -19,7 +19,23 @@ public enum CpsPropertyDef {
     // If true, then couchdb puts the data inline. ie: Within a json property inside the json document.
     // Default value is 0, ie: No in-lining of attachments.
     // Only applicable when ONE_ARTIFACT_PER_DOCUMENT feature flag is enabled.
-    INLINE_ARTIFACT_MAX_SIZE("couchdb","inline.artifact.max.size")
+    INLINE_ARTIFACT_MAX_SIZE("couchdb","inline.artifact.max.size"),
+
+    // The maximum number of run log lines which can be waiting to be sent to couchdb.
+    LOG_QUEUE_MAX_LINES("couchdb","log.queue.max.lines"),
+
+    // How long a test may be blocked waiting for space in a full log queue before its log lines are dropped.
+    // A value of 0 means log lines are dropped straight away if the queue is full.
+    LOG_QUEUE_FULL_BLOCK_MILLIS("couchdb","log.queue.full.block.millis"),
+
+    // The maximum number of run log lines sent to couchdb in one _bulk_docs request.
+    LOG_BATCH_MAX_LINES("couchdb","log.batch.max.lines"),
+
+    // How long log lines can wait to be sent to couchdb if a batch has not filled up.
+    LOG_BATCH_INTERVAL_MILLIS("couchdb","log.batch.interval.millis"),
+
+    // The minimum time between the run document being updated with new log record IDs.
+    LOG_TEST_STRUCTURE_UPDATE_INTERVAL_MILLIS("couchdb","log.test.structure.update.interval.millis")
     ;
 
     private String namespace;
@@ -39,6 +55,10 @@ public enum CpsPropertyDef {
     }
 
     public int getCpsIntValue(org.apache.commons.logging.Log logger, IConfigurationPropertyStoreService cps) throws CouchdbRasException {
+        return getCpsIntValue(logger, cps, 0);
+    }
+
+    public int getCpsIntValue(org.apache.commons.logging.Log logger, IConfigurationPropertyStoreService cps, int defaultValue) throws CouchdbRasException {
         String featurePropertyName = this.getPropertyName();
         int firstDotIndex = featurePropertyName.indexOf('.');
         String prefix = featurePropertyName.substring(0, firstDotIndex);
@@ -56,9 +76,16 @@ public enum CpsPropertyDef {
         int value ;
         if (valueStr == null) {
             logger.trace(MessageFormat.format("Couchdb setting %s is not set. Defaulting.",this.getPropertyName()));
-            value = 0;
+            value = defaultValue;
         } else {
-            value = Integer.parseInt(valueStr);
+            try {
+                value = Integer.parseInt(valueStr);
+            } catch (NumberFormatException ex) {
+                throw new CouchdbRasException(
+                    MessageFormat.format("Invalid value ''{0}'' for property {1}. An integer is expected.", valueStr, featurePropertyName),
+                    ex
+                );
+            }
         }
         
         return value;
@@ -0,0 +1,15 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal.pojos;
+
+import java.util.List;
+
+// The request body of a POST /{db}/_bulk_docs request
+public class BulkDocs<T> {
+
+    public List<T> docs; // NOSONAR
+
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal.pojos;
+
+// One entry in the response to a POST /{db}/_bulk_docs request.
+// The entries are returned in the same order as the documents in the request.
+public class BulkDocsResult {
+
+    public String  id;     // NOSONAR
+    public String  rev;    // NOSONAR
+    public boolean ok;     // NOSONAR
+    public String  error;  // NOSONAR
+    public String  reason; // NOSONAR
+
+}
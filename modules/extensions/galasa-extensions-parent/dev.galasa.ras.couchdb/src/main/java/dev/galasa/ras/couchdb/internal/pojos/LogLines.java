@@ -9,6 +9,7 @@ import java.util.List;
 
 public class LogLines {
 
+    public String       _id;     // NOSONAR
     public String       runId;   // NOSONAR
     public String       runName; // NOSONAR
     public long         order;   // NOSONAR
@@ -0,0 +1,245 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import dev.galasa.extensions.common.mocks.MockTimeService;
+import dev.galasa.ras.couchdb.internal.mocks.MockCouchdbLogDocumentStore;
+import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
+import dev.galasa.ras.couchdb.internal.pojos.LogLines;
+
+public class CouchdbLogShipperTest {
+
+    private MockTimeService mockTimeService = new MockTimeService(Instant.EPOCH);
+
+    private CouchdbLogShipper createShipper(MockCouchdbLogDocumentStore documentStore, CouchdbLogShipperSettings settings) {
+        MockLogFactory logFactory = new MockLogFactory();
+        return new CouchdbLogShipper(documentStore, settings, mockTimeService, logFactory.getLog(CouchdbLogShipper.class), "L10", "run-doc-1");
+    }
+
+    private List<String> createLines(int firstLineNumber, int lineCount) {
+        List<String> lines = new ArrayList<>();
+        for (int i = firstLineNumber; i < firstLineNumber + lineCount; i++) {
+            lines.add("This is run log line number " + i);
+        }
+        return lines;
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for the log shipper");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testFlushSendsQueuedLinesInOneBulkRequestAndUpdatesTestStructure() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+        CouchdbLogShipper shipper = createShipper(documentStore, new CouchdbLogShipperSettings());
+
+        List<String> lines = createLines(1, 250);
+
+        // When...
+        shipper.writeLines(lines);
+        shipper.flush();
+
+        // Then...
+        assertThat(documentStore.getRequestCount()).isEqualTo(1);
+        assertThat(documentStore.getStoredLines()).containsExactlyElementsOf(lines);
+
+        List<LogLines> documents = documentStore.getStoredDocuments();
+        assertThat(documents).extracting("order").containsExactly(1L, 2L, 3L);
+        assertThat(documents.get(0).lines).hasSize(CouchdbLogShipper.LINES_PER_DOCUMENT);
+        assertThat(documents.get(0).runName).isEqualTo("L10");
+        assertThat(documents.get(0).runId).isEqualTo("run-doc-1");
+        assertThat(documentStore.getStoredDocumentIds()).containsExactly(documents.get(0)._id, documents.get(1)._id, documents.get(2)._id);
+
+        assertThat(documentStore.getTestStructureSaveCount()).isEqualTo(1);
+        assertThat(shipper.getMetrics().getLinesShipped()).isEqualTo(250);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testFullBatchIsSentWithoutWaitingForAFlush() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+        CouchdbLogShipperSettings settings = new CouchdbLogShipperSettings(1000, 0, 100, 60000, 60000);
+        CouchdbLogShipper shipper = createShipper(documentStore, settings);
+
+        // When...
+        shipper.writeLines(createLines(1, 100));
+
+        // Then...
+        waitFor(() -> documentStore.getStoredLines().size() == 100);
+        assertThat(documentStore.getStoredDocuments()).hasSize(1);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testTestStructureUpdatesAreCoalescedWithinTheUpdateInterval() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+        CouchdbLogShipperSettings settings = new CouchdbLogShipperSettings(1000, 0, 100, 60000, 5000);
+        CouchdbLogShipper shipper = createShipper(documentStore, settings);
+
+        // When...
+        // The time never moves on, so only the first batch can update the test structure
+        for (int batch = 0; batch < 5; batch++) {
+            shipper.writeLines(createLines(batch * 100, 100));
+        }
+        waitFor(() -> documentStore.getStoredLines().size() == 500);
+
+        // Then...
+        assertThat(documentStore.getTestStructureSaveCount()).isEqualTo(1);
+
+        // A flush always updates the test structure with the log documents that are still to be saved
+        shipper.flush();
+        assertThat(documentStore.getTestStructureSaveCount()).isEqualTo(2);
+        assertThat(documentStore.getStoredDocumentIds()).hasSize(5);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testLinesAreSpilledWhenCouchdbFailsAndReplayedInOrderWhenItRecovers() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+        documentStore.addRequestOutcome(MockCouchdbLogDocumentStore.FAIL_REQUEST);
+
+        CouchdbLogShipper shipper = createShipper(documentStore, new CouchdbLogShipperSettings());
+
+        List<String> firstLines = createLines(1, 150);
+        List<String> secondLines = createLines(151, 10);
+
+        shipper.writeLines(firstLines);
+        shipper.flush();
+
+        assertThat(documentStore.getStoredDocuments()).isEmpty();
+        assertThat(shipper.getMetrics().getLinesSpilled()).isEqualTo(150);
+        assertThat(shipper.getMetrics().getFailedBulkRequests()).isEqualTo(1);
+
+        // When...
+        shipper.writeLines(secondLines);
+        shipper.flush();
+
+        // Then...
+        List<String> expectedLines = new ArrayList<>(firstLines);
+        expectedLines.addAll(secondLines);
+        assertThat(documentStore.getStoredLines()).containsExactlyElementsOf(expectedLines);
+        assertThat(documentStore.getStoredDocuments()).extracting("order").containsExactly(1L, 2L, 3L);
+        assertThat(shipper.getMetrics().getLinesShipped()).isEqualTo(160);
+        assertThat(shipper.getMetrics().getLinesDropped()).isZero();
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testUnstoredDocumentsInAPartlyStoredBatchAreRetried() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+
+        // Store the first document, then fail the rest
+        documentStore.addRequestOutcome(documents -> 1);
+
+        CouchdbLogShipper shipper = createShipper(documentStore, new CouchdbLogShipperSettings());
+        List<String> lines = createLines(1, 300);
+
+        // When...
+        shipper.writeLines(lines);
+        shipper.flush();
+
+        assertThat(documentStore.getStoredDocumentIds()).hasSize(1);
+        shipper.flush();
+
+        // Then...
+        assertThat(documentStore.getStoredLines()).containsExactlyElementsOf(lines);
+        List<LogLines> documents = documentStore.getStoredDocuments();
+        assertThat(documentStore.getStoredDocumentIds()).containsExactly(documents.get(0)._id, documents.get(1)._id, documents.get(2)._id);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testBatchIsRetriedWithoutDuplicatingDocumentsIfTheResponseIsLost() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+        documentStore.addRequestOutcome(MockCouchdbLogDocumentStore.STORE_ALL_THEN_FAIL);
+
+        CouchdbLogShipper shipper = createShipper(documentStore, new CouchdbLogShipperSettings());
+        List<String> lines = createLines(1, 200);
+
+        shipper.writeLines(lines);
+        shipper.flush();
+        assertThat(documentStore.getStoredDocumentIds()).isEmpty();
+
+        // When...
+        shipper.flush();
+
+        // Then...
+        // The retried documents conflict with the ones which were already stored, so they are not stored twice
+        assertThat(documentStore.getStoredLines()).containsExactlyElementsOf(lines);
+        assertThat(documentStore.getStoredDocumentIds()).hasSize(2);
+        assertThat(documentStore.getTestStructureSaveCount()).isEqualTo(1);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testLinesAreDroppedAndCountedWhenTheQueueIsFull() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+        CouchdbLogShipperSettings settings = new CouchdbLogShipperSettings(2, 0, 1, 60000, 0);
+        CouchdbLogShipper shipper = createShipper(documentStore, settings);
+
+        // Hold up the first request so that the queue fills up behind it
+        documentStore.holdNextRequest();
+        shipper.writeLines(List.of("line 1"));
+        documentStore.waitForHeldRequest();
+
+        // When...
+        shipper.writeLines(List.of("line 2", "line 3", "line 4", "line 5"));
+        documentStore.releaseRequest();
+        shipper.flush();
+
+        // Then...
+        assertThat(documentStore.getStoredLines()).containsExactly("line 1", "line 2", "line 3");
+        assertThat(shipper.getMetrics().getLinesDropped()).isEqualTo(2);
+        assertThat(shipper.getMetrics().getQueueFullEvents()).isEqualTo(2);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testShutdownSendsRemainingLinesAndStopsAcceptingMore() throws Exception {
+        // Given...
+        MockCouchdbLogDocumentStore documentStore = new MockCouchdbLogDocumentStore();
+        CouchdbLogShipper shipper = createShipper(documentStore, new CouchdbLogShipperSettings());
+        shipper.writeLines(createLines(1, 10));
+
+        // When...
+        shipper.shutdown();
+        shipper.writeLines(createLines(11, 5));
+
+        // Then...
+        assertThat(documentStore.getStoredLines()).hasSize(10);
+        assertThat(documentStore.getTestStructureSaveCount()).isEqualTo(1);
+        assertThat(shipper.getMetrics().getLinesDropped()).isEqualTo(5);
+    }
+}
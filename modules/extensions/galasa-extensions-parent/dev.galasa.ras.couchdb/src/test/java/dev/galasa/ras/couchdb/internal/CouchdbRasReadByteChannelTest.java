@@ -0,0 +1,242 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+import dev.galasa.extensions.common.mocks.HttpInteraction;
+import dev.galasa.extensions.common.mocks.MockCloseableHttpClient;
+import dev.galasa.extensions.common.mocks.MockCloseableHttpResponse;
+import dev.galasa.extensions.common.mocks.MockHttpClientFactory;
+import dev.galasa.extensions.common.mocks.MockHttpEntity;
+import dev.galasa.extensions.common.mocks.MockStatusLine;
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
+import dev.galasa.framework.spi.ras.IArtifactReadChannel;
+import dev.galasa.framework.spi.ras.ResultArchiveStoreFileStore;
+import dev.galasa.ras.couchdb.internal.mocks.CouchdbTestFixtures;
+import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
+
+public class CouchdbRasReadByteChannelTest {
+
+    private static final String ARTIFACT_CONTENT = "dummy content";
+    private static final String ARTIFACT_ETAG = "\"attachment-digest\"";
+    private static final String ARTIFACT_URI = CouchdbTestFixtures.rasUriStr + "/galasa_artifacts/"
+        + CouchdbTestFixtures.ARTIFACT_DOCUMENT_ID_1 + "/%2Fterm001.txt";
+
+    class GetArtifactInteraction implements HttpInteraction {
+
+        private String expectedRange;
+        private String expectedIfNoneMatch;
+        private int statusCode;
+        private String content;
+        private String contentRange;
+
+        public GetArtifactInteraction(String expectedRange, String expectedIfNoneMatch, int statusCode, String content, String contentRange) {
+            this.expectedRange = expectedRange;
+            this.expectedIfNoneMatch = expectedIfNoneMatch;
+            this.statusCode = statusCode;
+            this.content = content;
+            this.contentRange = contentRange;
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            assertThat(request.getRequestLine().getMethod()).isEqualTo("GET");
+            assertThat(request.getRequestLine().getUri()).isEqualTo(ARTIFACT_URI);
+            assertThat(getHeaderValue(request, "Range")).isEqualTo(expectedRange);
+            assertThat(getHeaderValue(request, "If-None-Match")).isEqualTo(expectedIfNoneMatch);
+        }
+
+        private String getHeaderValue(HttpRequest request, String headerName) {
+            Header header = request.getFirstHeader(headerName);
+            return (header == null) ? null : header.getValue();
+        }
+
+        @Override
+        public MockCloseableHttpResponse getResponse() {
+            MockCloseableHttpResponse response = new MockCloseableHttpResponse();
+
+            MockStatusLine statusLine = new MockStatusLine();
+            statusLine.setStatusCode(statusCode);
+            response.setStatusLine(statusLine);
+            response.setEntity(new MockHttpEntity(content));
+
+            response.addHeader("ETag", ARTIFACT_ETAG);
+            if (contentRange != null) {
+                response.addHeader("Content-Range", contentRange);
+            }
+            return response;
+        }
+    }
+
+    private CouchdbRasFileSystemProvider createProviderWithArtifact(List<HttpInteraction> interactions) throws Exception {
+        CouchdbRasStore store = new CouchdbTestFixtures().createCouchdbRasStore(interactions, new MockLogFactory());
+        return createProviderWithArtifact(store);
+    }
+
+    private CouchdbRasFileSystemProvider createProviderWithArtifact(CouchdbRasStore store) throws Exception {
+        CouchdbRasFileSystemProvider provider = new CouchdbRasFileSystemProvider(new ResultArchiveStoreFileStore(), store, new MockLogFactory());
+
+        JsonObject artifactDetails = new JsonObject();
+        artifactDetails.addProperty("content_type", "text/plain");
+        artifactDetails.addProperty("length", ARTIFACT_CONTENT.length());
+        provider.addPath(new CouchdbArtifactPath(provider.getActualFileSystem(), "/term001.txt", artifactDetails, CouchdbTestFixtures.ARTIFACT_DOCUMENT_ID_1));
+
+        return provider;
+    }
+
+    private SeekableByteChannel openArtifact(CouchdbRasFileSystemProvider provider, OpenOption... extraOptions) throws IOException {
+        Set<OpenOption> options = new HashSet<>();
+        options.add(StandardOpenOption.READ);
+        for (OpenOption option : extraOptions) {
+            options.add(option);
+        }
+        return provider.newByteChannel(provider.getActualFileSystem().getPath("/term001.txt"), options);
+    }
+
+    private String readAll(SeekableByteChannel channel) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        while (channel.read(buffer) >= 0) {
+            content.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        return content.toString();
+    }
+
+    @Test
+    public void testWholeArtifactIsStreamedFromTheAttachment() throws Exception {
+        // Given...
+        List<HttpInteraction> interactions = new ArrayList<>();
+        interactions.add(new GetArtifactInteraction(null, null, HttpStatus.SC_OK, ARTIFACT_CONTENT, null));
+        CouchdbRasFileSystemProvider provider = createProviderWithArtifact(interactions);
+
+        // When...
+        try (SeekableByteChannel channel = openArtifact(provider)) {
+
+            // Then...
+            IArtifactReadChannel artifactChannel = (IArtifactReadChannel) channel;
+            assertThat(artifactChannel.isNotModified()).isFalse();
+            assertThat(artifactChannel.getContentRange()).isNull();
+            assertThat(artifactChannel.getETag()).isEqualTo(ARTIFACT_ETAG);
+            assertThat(channel.size()).isEqualTo(ARTIFACT_CONTENT.length());
+            assertThat(readAll(channel)).isEqualTo(ARTIFACT_CONTENT);
+            assertThat(channel.position()).isEqualTo(ARTIFACT_CONTENT.length());
+        }
+    }
+
+    @Test
+    public void testArtifactIsStreamedUsingTheStreamingClient() throws Exception {
+        // Given...
+        List<HttpInteraction> streamingInteractions = new ArrayList<>();
+        streamingInteractions.add(new GetArtifactInteraction(null, null, HttpStatus.SC_OK, ARTIFACT_CONTENT, null));
+
+        // Any request sent with the normal client would fail, as it has no interactions
+        MockHttpClientFactory httpClientFactory = new MockHttpClientFactory(
+            new MockCloseableHttpClient(new ArrayList<>()),
+            new MockCloseableHttpClient(streamingInteractions)
+        );
+        CouchdbRasStore store = new CouchdbTestFixtures().createCouchdbRasStore(null, null, new MockLogFactory(), httpClientFactory);
+        CouchdbRasFileSystemProvider provider = createProviderWithArtifact(store);
+
+        // When...
+        try (SeekableByteChannel channel = openArtifact(provider)) {
+
+            // Then...
+            assertThat(readAll(channel)).isEqualTo(ARTIFACT_CONTENT);
+        }
+    }
+
+    @Test
+    public void testRangeIsPassedToCouchdbAndPartialContentReturned() throws Exception {
+        // Given...
+        List<HttpInteraction> interactions = new ArrayList<>();
+        interactions.add(new GetArtifactInteraction("bytes=6-12", null, HttpStatus.SC_PARTIAL_CONTENT, "content", "bytes 6-12/13"));
+        CouchdbRasFileSystemProvider provider = createProviderWithArtifact(interactions);
+
+        // When...
+        try (SeekableByteChannel channel = openArtifact(provider, ArtifactByteRange.parse("bytes=6-12"))) {
+
+            // Then...
+            IArtifactReadChannel artifactChannel = (IArtifactReadChannel) channel;
+            assertThat(artifactChannel.getContentRange()).isEqualTo("bytes 6-12/13");
+            assertThat(artifactChannel.getContentLength()).isEqualTo(7);
+            assertThat(readAll(channel)).isEqualTo("content");
+        }
+    }
+
+    @Test
+    public void testArtifactMatchingIfNoneMatchIsNotModified() throws Exception {
+        // Given...
+        List<HttpInteraction> interactions = new ArrayList<>();
+        interactions.add(new GetArtifactInteraction(null, ARTIFACT_ETAG, HttpStatus.SC_NOT_MODIFIED, "", null));
+        CouchdbRasFileSystemProvider provider = createProviderWithArtifact(interactions);
+
+        // When...
+        try (SeekableByteChannel channel = openArtifact(provider, new ArtifactIfNoneMatch(ARTIFACT_ETAG))) {
+
+            // Then...
+            IArtifactReadChannel artifactChannel = (IArtifactReadChannel) channel;
+            assertThat(artifactChannel.isNotModified()).isTrue();
+            assertThat(channel.read(ByteBuffer.allocate(4))).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testUnsatisfiableRangeIsRetriedForTheWholeArtifact() throws Exception {
+        // Given...
+        List<HttpInteraction> interactions = new ArrayList<>();
+        interactions.add(new GetArtifactInteraction("bytes=100-", null, HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE, "", null));
+        interactions.add(new GetArtifactInteraction(null, null, HttpStatus.SC_OK, ARTIFACT_CONTENT, null));
+        CouchdbRasFileSystemProvider provider = createProviderWithArtifact(interactions);
+
+        // When...
+        try (SeekableByteChannel channel = openArtifact(provider, ArtifactByteRange.parse("bytes=100-"))) {
+
+            // Then...
+            assertThat(((IArtifactReadChannel) channel).getContentRange()).isNull();
+            assertThat(readAll(channel)).isEqualTo(ARTIFACT_CONTENT);
+        }
+    }
+
+    @Test
+    public void testChannelCanSkipForwardsButNotBackwards() throws Exception {
+        // Given...
+        List<HttpInteraction> interactions = new ArrayList<>();
+        interactions.add(new GetArtifactInteraction(null, null, HttpStatus.SC_OK, ARTIFACT_CONTENT, null));
+        CouchdbRasFileSystemProvider provider = createProviderWithArtifact(interactions);
+
+        try (SeekableByteChannel channel = openArtifact(provider)) {
+
+            // When...
+            channel.position(6);
+
+            // Then...
+            assertThat(readAll(channel)).isEqualTo("content");
+            assertThatThrownBy(() -> channel.position(0)).isInstanceOf(IOException.class);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.ras.couchdb.internal.mocks.CouchdbTestFixtures;
 import dev.galasa.ras.couchdb.internal.mocks.MockIRun;
 import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocsResult;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
 public class CouchdbRasStoreTest {
@@ -80,6 +81,29 @@ public class CouchdbRasStoreTest {
         }
     }
 
+    class BulkDocsInteraction extends BaseHttpInteraction {
+
+        private String[] expectedRequestBodyParts;
+
+        public BulkDocsInteraction(String expectedUri, int statusCode, List<BulkDocsResult> response, String... expectedRequestBodyParts) {
+            super(expectedUri, statusCode);
+            setResponsePayload(response);
+            this.expectedRequestBodyParts = expectedRequestBodyParts;
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            super.validateRequest(host,request);
+            assertThat(request.getRequestLine().getMethod()).isEqualTo("POST");
+            try {
+                String requestBody = EntityUtils.toString(((HttpPost) request).getEntity());
+                assertThat(requestBody).contains(expectedRequestBodyParts);
+            } catch (IOException ex) {
+                fail("Failed to parse POST request body");
+            }
+        }
+    }
+
     class UpdateCouchdbDocumentInteraction extends BaseHttpInteraction {
 
         private String[] expectedRequestBodyParts;
@@ -284,11 +308,30 @@ public class CouchdbRasStoreTest {
     }
 
     @Test
-    public void testWriteLogUpdatesRunLogLineCountOver100FlushesLogCache() throws Exception {
+    public void testWriteLogUpdatesRunLogLineCountOver100DoesNotWaitForCouchdb() throws Exception {
         // Given...
 
-        // Once the number of lines written to the run log in writeLog exceeds 100,
-        // the logCache is flushed (log is actually written to the CouchDB RAS store)
+        // Writing to the run log only queues the lines, so no interactions with
+        // CouchDB are expected until the log is flushed
+        List<String> runLogLines = new ArrayList<String>();
+        int desiredRunLogLineCount = 101;
+        for (int i = 1; i <= desiredRunLogLineCount; i++) {
+            runLogLines.add("This is run log line number " + i);
+        }
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(null);
+
+        // When...
+        rasStore.writeLog(runLogLines);
+
+        // Then...
+        assertThat(rasStore.retrieveRunLogLineCount()).isEqualTo(desiredRunLogLineCount);
+        assertThat(rasStore.getLogShipperMetrics().getBulkRequests()).isZero();
+    }
+
+    @Test
+    public void testFlushSendsRunLogInBulkAndUpdatesRunDocument() throws Exception {
+        // Given...
         List<String> runLogLines = new ArrayList<String>();
         int desiredRunLogLineCount = 101;
         for (int i = 1; i <= desiredRunLogLineCount; i++) {
@@ -303,6 +346,16 @@ public class CouchdbRasStoreTest {
         mockPutResponse.rev = revision;
         mockPutResponse.ok = true;
 
+        // The 101 lines are stored as two log documents
+        List<BulkDocsResult> mockBulkDocsResponse = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            BulkDocsResult result = new BulkDocsResult();
+            result.id = "log-doc-" + i;
+            result.rev = revision;
+            result.ok = true;
+            mockBulkDocsResponse.add(result);
+        }
+
         String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
@@ -310,10 +363,11 @@ public class CouchdbRasStoreTest {
             new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB, HttpStatus.SC_CREATED, mockPutResponse),
             // Create the artifacts document
             new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.ARTIFACTS_DB, HttpStatus.SC_CREATED, mockPutResponse),
-            // Create the run log document
-            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB, HttpStatus.SC_CREATED, mockPutResponse),
-            // Update the run document
-            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB + "/" + docId, HttpStatus.SC_CREATED, mockPutResponse)
+            // Create the run log documents
+            new BulkDocsInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/_bulk_docs", HttpStatus.SC_CREATED, mockBulkDocsResponse,
+                "This is run log line number 1\"", "This is run log line number 101\""),
+            // Update the run document with the new log record IDs
+            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB + "/" + docId, HttpStatus.SC_CREATED, mockPutResponse, "logRecordIds")
         );
 
         Map<String,String> inputProps = new HashMap<String,String>();
@@ -322,9 +376,49 @@ public class CouchdbRasStoreTest {
 
         // When...
         rasStore.writeLog(runLogLines);
+        rasStore.flush();
 
         // Then...
         assertThat(rasStore.retrieveRunLogLineCount()).isEqualTo(desiredRunLogLineCount);
+
+        CouchdbLogShipperMetrics metrics = rasStore.getLogShipperMetrics();
+        assertThat(metrics.getBulkRequests()).isEqualTo(1);
+        assertThat(metrics.getLinesShipped()).isEqualTo(desiredRunLogLineCount);
+        assertThat(metrics.getTestStructureUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    public void testUpdatedTestStructureIsNotChangedByLogDocumentsStoredLater() throws Exception {
+        // Given...
+        String docId = "run1";
+        String revision = "my-revision";
+        TestStructure testStructure = createTestStructure("BOB1", "finished", docId, revision);
+
+        PutPostResponse mockPutResponse = new PutPostResponse();
+        mockPutResponse.id = docId;
+        mockPutResponse.rev = revision;
+        mockPutResponse.ok = true;
+
+        String baseUri = "http://my.uri";
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            // Create the run document
+            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB, HttpStatus.SC_CREATED, mockPutResponse),
+            // Create the artifacts document
+            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.ARTIFACTS_DB, HttpStatus.SC_CREATED, mockPutResponse),
+            // Update the run document
+            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB + "/" + docId, HttpStatus.SC_CREATED, mockPutResponse, "logRecordIds")
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(new HashMap<String,String>(), interactions, mockLogFactory);
+        rasStore.logDocumentsStored(List.of("log-doc-1"));
+        rasStore.updateTestStructure(testStructure);
+
+        // When...
+        rasStore.logDocumentsStored(List.of("log-doc-2"));
+
+        // Then...
+        assertThat(testStructure.getLogRecordIds()).containsExactly("log-doc-1");
     }
 
     @Test
@@ -239,6 +239,15 @@ public class CouchdbTestFixtures {
         IRun mockRun,
         MockLogFactory logFactory,
         CloseableHttpClient httpClient
+    ) throws Exception {
+        return createCouchdbRasStore(mockCps, mockRun, logFactory, new MockHttpClientFactory(httpClient));
+    }
+
+    public CouchdbRasStore createCouchdbRasStore(
+        MockConfigurationPropertyStoreService mockCps,
+        IRun mockRun,
+        MockLogFactory logFactory,
+        MockHttpClientFactory mockHttpClientFactory
     ) throws Exception {
         IFramework mockFramework = new MockFramework() {
             @Override
@@ -255,8 +264,6 @@ public class CouchdbTestFixtures {
 
         MockCouchdbValidator mockValidator = new MockCouchdbValidator();
 
-        MockHttpClientFactory mockHttpClientFactory = new MockHttpClientFactory(httpClient);
-
         HttpRequestFactory requestFactory = new HttpRequestFactoryImpl("Basic", "myrastoken");
 
         MockTimeService mockTimeService = new MockTimeService(Instant.now());
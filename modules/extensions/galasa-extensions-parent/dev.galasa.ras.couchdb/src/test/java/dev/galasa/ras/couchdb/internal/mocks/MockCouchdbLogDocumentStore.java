@@ -0,0 +1,175 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal.mocks;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+import dev.galasa.ras.couchdb.internal.CouchdbLogDocumentStore;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocsResult;
+import dev.galasa.ras.couchdb.internal.pojos.LogLines;
+
+// An in-memory log document store, which can be told to fail some of the requests it gets.
+public class MockCouchdbLogDocumentStore implements CouchdbLogDocumentStore {
+
+    // Sets the outcome of a _bulk_docs request, by returning the number of documents
+    // to store before failing, or one of the special values below.
+    public interface RequestOutcome {
+        int getDocumentsToStore(List<LogLines> documents);
+    }
+
+    public static final RequestOutcome STORE_ALL = documents -> documents.size();
+
+    // Fails the request without storing anything
+    public static final RequestOutcome FAIL_REQUEST = documents -> -1;
+
+    // Stores every document, then fails the request as if the response had been lost
+    public static final RequestOutcome STORE_ALL_THEN_FAIL = documents -> -2;
+
+    private final List<LogLines> storedDocuments = new ArrayList<>();
+    private final List<String> storedDocumentIds = new ArrayList<>();
+    private final Queue<RequestOutcome> requestOutcomes = new LinkedList<>();
+
+    private int requestCount = 0;
+    private int testStructureSaveCount = 0;
+    private boolean isLogIdsChanged = false;
+
+    private volatile boolean isHoldingNextRequest = false;
+    private CountDownLatch requestReceivedLatch;
+    private CountDownLatch requestReleaseLatch;
+
+    public synchronized void addRequestOutcome(RequestOutcome outcome) {
+        requestOutcomes.add(outcome);
+    }
+
+    // Makes the next request wait until releaseRequest() is called
+    public void holdNextRequest() {
+        requestReceivedLatch = new CountDownLatch(1);
+        requestReleaseLatch = new CountDownLatch(1);
+        isHoldingNextRequest = true;
+    }
+
+    public void waitForHeldRequest() throws InterruptedException {
+        requestReceivedLatch.await();
+    }
+
+    public void releaseRequest() {
+        requestReleaseLatch.countDown();
+    }
+
+    @Override
+    public List<BulkDocsResult> storeLogDocuments(List<LogLines> logDocuments) throws CouchdbException {
+        if (isHoldingNextRequest) {
+            isHoldingNextRequest = false;
+            requestReceivedLatch.countDown();
+            try {
+                requestReleaseLatch.await();
+            } catch (InterruptedException e) {
+                throw new CouchdbException(e);
+            }
+        }
+        return store(logDocuments);
+    }
+
+    private synchronized List<BulkDocsResult> store(List<LogLines> logDocuments) throws CouchdbException {
+        requestCount++;
+
+        RequestOutcome outcome = requestOutcomes.poll();
+        if (outcome == null) {
+            outcome = STORE_ALL;
+        }
+
+        int documentsToStore = outcome.getDocumentsToStore(logDocuments);
+        if (documentsToStore == -1) {
+            throw new CouchdbException("Simulated CouchDB failure");
+        }
+
+        boolean isResponseLost = (documentsToStore == -2);
+        if (isResponseLost) {
+            documentsToStore = logDocuments.size();
+        }
+
+        List<BulkDocsResult> results = new ArrayList<>();
+        for (int index = 0; index < logDocuments.size(); index++) {
+            LogLines document = logDocuments.get(index);
+            BulkDocsResult result = new BulkDocsResult();
+            result.id = document._id;
+
+            if (isStored(document._id)) {
+                result.error = "conflict";
+                result.reason = "Document update conflict.";
+            } else if (index < documentsToStore) {
+                storedDocuments.add(document);
+                result.ok = true;
+                result.rev = "1-abc";
+            } else {
+                result.error = "unknown_error";
+                result.reason = "Simulated document failure";
+            }
+            results.add(result);
+        }
+
+        if (isResponseLost) {
+            throw new CouchdbException("Simulated lost CouchDB response");
+        }
+        return results;
+    }
+
+    private boolean isStored(String documentId) {
+        boolean isStored = false;
+        for (LogLines document : storedDocuments) {
+            if (document._id.equals(documentId)) {
+                isStored = true;
+                break;
+            }
+        }
+        return isStored;
+    }
+
+    @Override
+    public synchronized void logDocumentsStored(List<String> logDocumentIds) {
+        storedDocumentIds.addAll(logDocumentIds);
+        isLogIdsChanged = true;
+    }
+
+    @Override
+    public synchronized boolean saveLogDocumentIds() {
+        boolean isSaved = isLogIdsChanged;
+        if (isSaved) {
+            testStructureSaveCount++;
+            isLogIdsChanged = false;
+        }
+        return isSaved;
+    }
+
+    public synchronized List<LogLines> getStoredDocuments() {
+        return new ArrayList<>(storedDocuments);
+    }
+
+    public synchronized List<String> getStoredDocumentIds() {
+        return new ArrayList<>(storedDocumentIds);
+    }
+
+    public synchronized List<String> getStoredLines() {
+        List<String> lines = new ArrayList<>();
+        for (LogLines document : storedDocuments) {
+            lines.addAll(document.lines);
+        }
+        return lines;
+    }
+
+    public synchronized int getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized int getTestStructureSaveCount() {
+        return testStructureSaveCount;
+    }
+}
@@ -5,6 +5,7 @@
  */
 package dev.galasa.framework.api.common.mocks;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -13,6 +14,7 @@ import java.util.Set;
 import javax.validation.constraints.NotNull;
 
 import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFrameworkRuns;
@@ -45,6 +47,11 @@ public class MockIFrameworkRuns implements IFrameworkRuns{
         throw new UnsupportedOperationException("Unimplemented method 'getQueuedRuns'");
     }
 
+    @Override
+    public @NotNull List<IRun> getRunsWithStatus(@NotNull TestRunLifecycleStatus status) throws FrameworkException {
+        throw new UnsupportedOperationException("Unimplemented method 'getRunsWithStatus'");
+    }
+
     @Override
     public @NotNull List<IRun> getAllRuns() throws FrameworkException {
         throw new UnsupportedOperationException("Unimplemented method 'getAllRuns'");
@@ -77,6 +84,34 @@ public class MockIFrameworkRuns implements IFrameworkRuns{
         return new MockIRun("runname", type, requestor, user, bundleName + "/" + testName, null, bundleName, testName, groupName, this.mockSubmissionId, tags);
     }
 
+    @Override
+    public @NotNull List<IRun> submitRuns(@NotNull List<SubmitRunRequest> runRequests) throws FrameworkException {
+        List<IRun> submittedRuns = new ArrayList<>();
+        for (SubmitRunRequest runRequest : runRequests) {
+            submittedRuns.add(submitRun(
+                runRequest.getRunType(),
+                runRequest.getRequestor(),
+                runRequest.getUser(),
+                runRequest.getBundleName(),
+                runRequest.getTestName(),
+                runRequest.getGroupName(),
+                runRequest.getMavenRepository(),
+                runRequest.getObr(),
+                runRequest.getStream(),
+                runRequest.isLocalRun(),
+                runRequest.isTraceEnabled(),
+                runRequest.getTags(),
+                runRequest.getOverrides(),
+                runRequest.getSharedEnvironmentPhase(),
+                runRequest.getSharedEnvironmentRunName(),
+                runRequest.getLanguage(),
+                runRequest.getSubmissionId(),
+                runRequest.getRequestedTestMethods()
+            ));
+        }
+        return submittedRuns;
+    }
+
     @Override
     public boolean delete(String runname) throws DynamicStatusStoreException {
         return true;
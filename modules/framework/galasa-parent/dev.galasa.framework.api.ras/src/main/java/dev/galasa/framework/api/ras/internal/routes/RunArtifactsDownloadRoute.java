@@ -27,6 +27,7 @@ import java.util.Set;
 import java.util.regex.Matcher;
 
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.logging.Log;
@@ -46,6 +47,9 @@ import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
+import dev.galasa.framework.spi.ras.IArtifactReadChannel;
 import dev.galasa.framework.spi.rbac.RBACException;
 import dev.galasa.framework.spi.utils.GalasaGson;
 
@@ -55,7 +59,10 @@ import dev.galasa.framework.spi.utils.GalasaGson;
  */
 public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
 
-    private static final int DOWNLOAD_BUFFER_SIZE_BYTES = 8 * 1024;
+    private static final int DOWNLOAD_BUFFER_SIZE_BYTES = 64 * 1024;
+
+    private static final String RANGE_HEADER = "Range";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
 
     private static final Log logger = LogFactory.getLog(RunArtifactsDownloadRoute.class);
 
@@ -96,10 +103,10 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
         String artifactPath = matcher.group(2);
 
         artifactPath = stripLeadingSlashesFromArtifactPath(artifactPath);
-        return downloadArtifact(runId, artifactPath, response);
+        return downloadArtifact(runId, artifactPath, requestContext.getRequest(), response);
     }
 
-    private HttpServletResponse downloadArtifact(String runId, String artifactPath, HttpServletResponse res) throws InternalServletException, IOException {
+    private HttpServletResponse downloadArtifact(String runId, String artifactPath, HttpServletRequest req, HttpServletResponse res) throws InternalServletException, IOException {
         IRunResult run = null;
         String runName = "";
         String artifactsPrefix = "artifacts/";
@@ -119,7 +126,7 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
             if (artifact != null) {
                 res = setDownloadResponse(res, run, artifact);
             } else if (artifactPath.startsWith(artifactsPrefix)) {
-                res = downloadStoredArtifact(res, run, artifactPath.substring(artifactsPrefix.length() - 1));
+                res = downloadStoredArtifact(req, res, run, artifactPath.substring(artifactsPrefix.length() - 1));
             } else {
                 ServletError error = new ServletError(GAL5008_ERROR_LOCATING_ARTIFACT, artifactPath, runName);
                 throw new InternalServletException(error, HttpServletResponse.SC_NOT_FOUND);
@@ -131,7 +138,7 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
         return res;
     }
 
-    private HttpServletResponse downloadStoredArtifact(HttpServletResponse res, IRunResult run, String artifactPath) throws ResultArchiveStoreException, IOException, InternalServletException {
+    private HttpServletResponse downloadStoredArtifact(HttpServletRequest req, HttpServletResponse res, IRunResult run, String artifactPath) throws ResultArchiveStoreException, IOException, InternalServletException {
         URI artifactUri = null;
         try {
             run.loadArtifact(artifactPath);
@@ -146,42 +153,87 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
         FileSystemProvider artifactFileSystemProvider = artifactFileSystem.provider();
         Path artifactLocation = artifactFileSystemProvider.getPath(artifactUri);
 
-        // Open the artifact for reading
+        // Open the artifact for reading, passing on the client's range and cache validation
+        // headers so that stores which support them only send what is needed
         Set<OpenOption> options = new HashSet<>();
         options.add(StandardOpenOption.READ);
-        try (ByteChannel channel = artifactFileSystemProvider.newByteChannel(artifactLocation, options, new FileAttribute<?>[]{});
-            OutputStream outStream = res.getOutputStream()) {
 
-            // Create a buffer to read small amounts of data into to avoid out-of-memory issues
-            int bufferCapacity = DOWNLOAD_BUFFER_SIZE_BYTES;
-            ByteBuffer buffer = ByteBuffer.allocate(bufferCapacity);
+        ArtifactByteRange range = ArtifactByteRange.parse(req.getHeader(RANGE_HEADER));
+        if (range != null) {
+            options.add(range);
+        }
+
+        String ifNoneMatch = req.getHeader(IF_NONE_MATCH_HEADER);
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            options.add(new ArtifactIfNoneMatch(ifNoneMatch));
+        }
 
-            // Read the artifact and write it to the response's output stream
-            int bytesRead = channel.read(buffer);
-            while (bytesRead > 0) {
-                buffer.flip();
-                byte[] bytes = new byte[bytesRead];
-                buffer.get(bytes);
+        try (ByteChannel channel = artifactFileSystemProvider.newByteChannel(artifactLocation, options, new FileAttribute<?>[]{})) {
 
-                outStream.write(bytes);
+            logAttributesOfFileBeingDownloaded(artifactFileSystem, artifactLocation);
 
-                buffer.clear();
-                bytesRead = channel.read(buffer);
+            // The headers must be set before any content is written, as the response is
+            // committed as soon as its buffer first fills
+            int status = HttpServletResponse.SC_OK;
+            if (channel instanceof IArtifactReadChannel) {
+                status = setArtifactReadHeaders(res, (IArtifactReadChannel) channel);
             }
-            res.setStatus(HttpServletResponse.SC_OK);
+            res.setStatus(status);
 
+            if (status != HttpServletResponse.SC_NOT_MODIFIED) {
+                // Get content type from the artifact file system's attributes
+                String contentType = getFileSystem().getContentType(run,artifactLocation);
 
-            logAttributesOfFileBeingDownloaded(artifactFileSystem, artifactLocation);
-            
-            // Get content type from the artifact file system's attributes
-            String contentType = getFileSystem().getContentType(run,artifactLocation);
+                res.setContentType(contentType);
+                res.setHeader("Content-Disposition", "attachment");
 
-            res.setContentType(contentType);
-            res.setHeader("Content-Disposition", "attachment");
+                try (OutputStream outStream = res.getOutputStream()) {
+                    writeArtifactContent(channel, outStream);
+                }
+            }
         }
         return res;
     }
 
+    private int setArtifactReadHeaders(HttpServletResponse res, IArtifactReadChannel channel) {
+        int status = HttpServletResponse.SC_OK;
+        res.setHeader("Accept-Ranges", "bytes");
+
+        String eTag = channel.getETag();
+        if (eTag != null) {
+            res.setHeader("ETag", eTag);
+        }
+
+        if (channel.isNotModified()) {
+            status = HttpServletResponse.SC_NOT_MODIFIED;
+        } else {
+            String contentRange = channel.getContentRange();
+            if (contentRange != null) {
+                status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                res.setHeader("Content-Range", contentRange);
+            }
+
+            long contentLength = channel.getContentLength();
+            if (contentLength >= 0) {
+                res.setContentLengthLong(contentLength);
+            }
+        }
+        return status;
+    }
+
+    private void writeArtifactContent(ByteChannel channel, OutputStream outStream) throws IOException {
+        // Read small amounts of data at a time to avoid out-of-memory issues, reusing
+        // the same buffer for every chunk
+        ByteBuffer buffer = ByteBuffer.allocate(DOWNLOAD_BUFFER_SIZE_BYTES);
+
+        int bytesRead = channel.read(buffer);
+        while (bytesRead >= 0) {
+            outStream.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+            bytesRead = channel.read(buffer);
+        }
+    }
+
     private void logAttributesOfFileBeingDownloaded(FileSystem artifactFileSystem, Path artifactLocation) {
         try {
             Map<String,Object> attributes = artifactFileSystem.provider().readAttributes(artifactLocation, "*");
@@ -12,6 +12,7 @@ import dev.galasa.framework.api.ras.internal.RasServletTest;
 import dev.galasa.framework.api.ras.internal.mocks.MockRasServletEnvironment;
 import dev.galasa.framework.api.common.mocks.MockFramework;
 import dev.galasa.framework.api.common.mocks.MockHttpServletRequest;
+import dev.galasa.framework.mocks.MockArtifactReadChannel;
 import dev.galasa.framework.mocks.MockFileSystem;
 import dev.galasa.framework.mocks.MockPath;
 import dev.galasa.framework.spi.IRunResult;
@@ -517,6 +518,106 @@ public class TestRunArtifactsDownloadServlet extends RasServletTest {
 		assertThat(resp.getHeader("Content-Disposition")).isEqualTo("attachment");
 	}
 
+    @Test
+    public void testRangeRequestForArtifactReturnsPartialContent() throws Exception {
+		//Given..
+		String runId = "12345";
+		String runName = "testA";
+        MockPath artifactPath = new MockPath("/term002.gz", mockFileSystem);
+		String fileContent = "dummy content";
+        List<IRunResult> mockInputRunResults = generateTestData(runId, runName, null);
+		mockFileSystem.createFile(artifactPath);
+		mockFileSystem.setFileContents(artifactPath, fileContent);
+
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Range", "bytes=6-12");
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parameterMap, "/runs/" + runId + "/files/artifacts" + artifactPath.toString(), headerMap);
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req,resp);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(206);
+        assertThat(outStream.toString()).isEqualTo("content");
+		assertThat(resp.getHeader("Content-Range")).isEqualTo("bytes 6-12/13");
+		assertThat(resp.getHeader("Content-Length")).isEqualTo("7");
+		assertThat(resp.getHeader("Accept-Ranges")).isEqualTo("bytes");
+		assertThat(resp.getContentType()).isEqualTo("application/x-gzip");
+	}
+
+    @Test
+    public void testArtifactMatchingIfNoneMatchReturnsNotModified() throws Exception {
+		//Given..
+		String runId = "12345";
+		String runName = "testA";
+        MockPath artifactPath = new MockPath("/term002.gz", mockFileSystem);
+		String fileContent = "dummy content";
+        List<IRunResult> mockInputRunResults = generateTestData(runId, runName, null);
+		mockFileSystem.createFile(artifactPath);
+		mockFileSystem.setFileContents(artifactPath, fileContent);
+
+		String eTag = MockArtifactReadChannel.getETag(fileContent.getBytes());
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("If-None-Match", eTag);
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parameterMap, "/runs/" + runId + "/files/artifacts" + artifactPath.toString(), headerMap);
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req,resp);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(304);
+        assertThat(outStream.toString()).isEmpty();
+		assertThat(resp.getHeader("ETag")).isEqualTo(eTag);
+	}
+
+    @Test
+    public void testUnsupportedRangeIsIgnoredAndWholeArtifactReturned() throws Exception {
+		//Given..
+		String runId = "12345";
+		String runName = "testA";
+        MockPath artifactPath = new MockPath("/term002.gz", mockFileSystem);
+		String fileContent = "dummy content";
+        List<IRunResult> mockInputRunResults = generateTestData(runId, runName, null);
+		mockFileSystem.createFile(artifactPath);
+		mockFileSystem.setFileContents(artifactPath, fileContent);
+
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Range", "bytes=0-1,4-5");
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parameterMap, "/runs/" + runId + "/files/artifacts" + artifactPath.toString(), headerMap);
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req,resp);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(outStream.toString()).isEqualTo(fileContent);
+		assertThat(resp.getHeader("Content-Range")).isNull();
+	}
+
     @Test
     public void testGoodRunIdAndArtifactsJsonReturnsOKAndFile() throws Exception {
 		//Given..
@@ -23,6 +23,7 @@ import dev.galasa.api.run.Run;
 import dev.galasa.api.runs.ScheduleRequest;
 import dev.galasa.api.runs.ScheduleStatus;
 import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.api.common.Environment;
 import dev.galasa.framework.api.common.EnvironmentVariables;
 import dev.galasa.framework.api.common.InternalServletException;
@@ -118,68 +119,76 @@ public class GroupRuns extends ProtectedRoute {
         ScheduleStatus status = new ScheduleStatus();
         status.setComplete(false);
 
-        for (String className : request.getClassNames()) {
-            // className is in format bundle/testClass
-            String[] classNameSplit = className.split("/");
-
-            SharedEnvironmentPhase senvPhase = null;
-            String sharedEnvironmentPhase = request.getSharedEnvironmentPhase();
-            if (sharedEnvironmentPhase != null) {
-                try {
-                    senvPhase = SharedEnvironmentPhase.valueOf(request.getSharedEnvironmentPhase());
-                } catch (Throwable t) {
-                    ServletError error = new ServletError(GAL5022_UNABLE_TO_PARSE_SHARED_ENVIRONMENT_PHASE,
-                            sharedEnvironmentPhase);
-                    throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, t);
-                }
+        SharedEnvironmentPhase senvPhase = null;
+        String sharedEnvironmentPhase = request.getSharedEnvironmentPhase();
+        if (sharedEnvironmentPhase != null) {
+            try {
+                senvPhase = SharedEnvironmentPhase.valueOf(request.getSharedEnvironmentPhase());
+            } catch (Throwable t) {
+                ServletError error = new ServletError(GAL5022_UNABLE_TO_PARSE_SHARED_ENVIRONMENT_PHASE,
+                        sharedEnvironmentPhase);
+                throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, t);
             }
+        }
 
-            if (jwtRequestor == null) {
-                jwtRequestor = request.getRequestor();
-            }
+        if (jwtRequestor == null) {
+            jwtRequestor = request.getRequestor();
+        }
 
-            String user = request.getUser();
-            if (user == null || user.isEmpty()) {
-                user = jwtRequestor;
-            } 
+        String user = request.getUser();
+        if (user == null || user.isEmpty()) {
+            user = jwtRequestor;
+        }
 
-            try {
+        // Submit all the tests together, so that the framework can reserve their run names
+        // and store them in the DSS in bulk rather than contending for each run in turn
+        List<String> classNames = request.getClassNames();
+        List<IRun> newRuns;
+        try {
+            List<SubmitRunRequest> runRequests = new ArrayList<>();
+            for (String className : classNames) {
+                // className is in format bundle/testClass
+                String[] classNameSplit = className.split("/");
 
                 String submissionId = UUID.randomUUID().toString();
                 List<String> requestedTestMethods = new ArrayList<>();
 
-                IRun newRun = framework.getFrameworkRuns().submitRun(
-                        request.getRequestorType(),
-                        jwtRequestor,
-                        user,
-                        classNameSplit[0],
-                        classNameSplit[1],
-                        groupName,
-                        request.getMavenRepository(),
-                        request.getObr(),
-                        request.getTestStream(),
-                        false,
-                        request.isTrace(),
-                        request.getTags(),
-                        request.getOverrides(),
-                        senvPhase,
-                        request.getSharedEnvironmentRunName(),
-                        "java",
-                        submissionId,
-                        requestedTestMethods
-                    );
-                        
-                Run serializedRun = setwebUiAndRestApiUrls(newRun, env);
-
-                status.getRuns().add(serializedRun);
-
-                // Create an empty RAS record for the submitted run
-                createRunRasRecord(newRun, rasStore, timeService, env);
-
-            } catch (FrameworkException fe) {
-                ServletError error = new ServletError(GAL5021_UNABLE_TO_SUBMIT_RUNS, className);
-                throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, fe);
+                runRequests.add(new SubmitRunRequest(
+                    request.getRequestorType(),
+                    jwtRequestor,
+                    user,
+                    classNameSplit[0],
+                    classNameSplit[1],
+                    groupName,
+                    submissionId,
+                    request.getMavenRepository(),
+                    request.getObr(),
+                    request.getTestStream(),
+                    false,
+                    request.isTrace(),
+                    request.getTags(),
+                    request.getOverrides(),
+                    senvPhase,
+                    request.getSharedEnvironmentRunName(),
+                    "java",
+                    requestedTestMethods
+                ));
             }
+
+            newRuns = framework.getFrameworkRuns().submitRuns(runRequests);
+
+        } catch (FrameworkException fe) {
+            ServletError error = new ServletError(GAL5021_UNABLE_TO_SUBMIT_RUNS, String.join(", ", classNames));
+            throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, fe);
+        }
+
+        for (IRun newRun : newRuns) {
+            Run serializedRun = setwebUiAndRestApiUrls(newRun, env);
+
+            status.getRuns().add(serializedRun);
+
+            // Create an empty RAS record for the submitted run
+            createRunRasRecord(newRun, rasStore, timeService, env);
         }
         return status;
     }
@@ -49,6 +49,10 @@ public interface ISettings {
 
     public long getKubeLaunchIntervalMillisecs();
 
+    public int getMaxConcurrentPodLaunches();
+
+    public String getEngineTopologySpreadKey();
+
     public int getMaxTestPodRetryLimit();
 
     public long getInterruptedTestRunCleanupGracePeriodSeconds();
@@ -56,5 +60,9 @@ public interface ISettings {
     public long getAllocatedTestRunTimeoutMinutes();
 
     public boolean isIstioEnabled();
+
+    public int getWarmEnginePoolSize();
+
+    public long getWarmEngineIdleTimeoutSeconds();
 }
 
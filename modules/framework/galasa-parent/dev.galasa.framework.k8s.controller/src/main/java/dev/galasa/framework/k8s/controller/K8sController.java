@@ -11,19 +11,25 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.annotations.Component;
 
 import dev.galasa.framework.FrameworkInitialisation;
+import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.k8s.controller.api.IKubernetesApiClient;
 import dev.galasa.framework.k8s.controller.api.KubernetesApiClient;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import dev.galasa.framework.k8s.controller.interruptedruns.DeferredInterruptHandling;
 import dev.galasa.framework.k8s.controller.interruptedruns.RunInterruptHandler;
-import dev.galasa.framework.k8s.controller.scheduling.IPrioritySchedulingService;
+import dev.galasa.framework.k8s.controller.scheduling.IQueuedRunsProvider;
+import dev.galasa.framework.k8s.controller.scheduling.IRunIndexListener;
 import dev.galasa.framework.k8s.controller.scheduling.PrioritySchedulingService;
+import dev.galasa.framework.k8s.controller.scheduling.RunIndex;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.Environment;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
@@ -48,6 +54,11 @@ public class K8sController {
 
     private static final int ENGINE_CONTROLLER_NUMBER_OF_THREADS = 5;
     private static final int INTERRUPTED_RUN_WATCH_POLL_INTERVAL_SECONDS = 5;
+    private static final int RUN_INDEX_RESYNC_INTERVAL_SECONDS = 60;
+
+    // When the DSS and test pods are being watched, interrupted runs and finished pods are handled
+    // as soon as they are seen, so the periodic scans are only a safety net and can run less often
+    private static final int WATCHED_RECONCILE_INTERVAL_SECONDS = 60;
 
     private static final String GALASA_INSTALL_NAME_ENV_VAR = "GALASA_INSTALL_NAME";
     private static final String NAMESPACE_ENV_VAR = "NAMESPACE";
@@ -71,8 +82,23 @@ public class K8sController {
     private TestPodScheduler podScheduler;
     private ScheduledFuture<?> pollFuture;
 
+    private RunIndex runIndex;
+    private PrioritySchedulingService prioritySchedulingService;
+
+    // Set when a scheduling pass has been requested because a run was queued, but has not started yet.
+    private final AtomicBoolean isImmediatePollPending = new AtomicBoolean(false);
+
+    private RunInterruptHandler interruptedRunHandler;
+
+    // Set when interrupted runs are to be handled because a run was interrupted, but handling has not started yet.
+    private final AtomicBoolean isImmediateInterruptHandlingPending = new AtomicBoolean(false);
+
+    private DeferredInterruptHandling deferredInterruptHandling;
+
     private RunPodCleanup runCleanup;
 
+    private TestPodWatcher testPodWatcher;
+
     private ScheduledFuture<?> cleanupFuture;
 
     private ITimeService timeService;
@@ -117,8 +143,10 @@ public class K8sController {
             // *** Create the API to k8s
 
             ApiClient client;
+            ApiClient watchClient;
             try {
                 client = Config.defaultClient();
+                watchClient = Config.defaultClient();
             } catch (IOException e) {
                 throw new FrameworkException("Unable to load Kubernetes API", e);
             }
@@ -126,13 +154,17 @@ public class K8sController {
             ProtoClient protoClient = new ProtoClient(client);
             CoreV1Api api = new CoreV1Api();
 
+            // A watch waits on its connection until there is a change, so it must not time out reading
+            watchClient.setReadTimeout(0);
+            CoreV1Api watchApi = new CoreV1Api(watchClient);
+
             // *** Fetch the settings
             String galasaServiceInstallName = getEnvironmentVariableOrDefault(GALASA_INSTALL_NAME_ENV_VAR, "");
             logger.info("Setting Galasa installation name to '" + galasaServiceInstallName + "'");
             String namespace = getEnvironmentVariableOrDefault(NAMESPACE_ENV_VAR, "default");
             logger.info("Setting Namespace to '" + namespace + "'");
 
-            IKubernetesApiClient apiClient = new KubernetesApiClient(api, protoClient);
+            IKubernetesApiClient apiClient = new KubernetesApiClient(api, protoClient, watchApi);
             KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(apiClient, namespace, galasaServiceInstallName);
 
             String podName = getEnvironmentVariableOrDefault(PODNAME_ENV_VAR, "k8s-controller");
@@ -183,6 +215,10 @@ public class K8sController {
                 }
             }
             
+            // *** Stop watching the DSS and test pods
+            stopDssWatches();
+            stopWatchingTestPods();
+
             // *** shutdown the scheduler
             shutdownExecutorService();
 
@@ -222,18 +258,159 @@ public class K8sController {
         RBACService rbacService = framework.getRBACService();
         ITagsService tagsService = framework.getTagsService();
 
-        runCleanup = new RunPodCleanup(kubeEngineFacade, frameworkRuns);
+        IQueuedRunsProvider queuedRunsProvider = startRunIndex(dss, frameworkRuns);
+
+        runCleanup = new RunPodCleanup(kubeEngineFacade, frameworkRuns, runIndex);
         schedulePodCleanup();
+        startWatchingTestPods(kubeEngineFacade);
 
-        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(frameworkRuns, cps, rbacService, timeService, tagsService);
+        PrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(queuedRunsProvider, cps, rbacService, timeService, tagsService);
+        startWatchingUserPriorities(framework, prioritySchedulingService);
 
         podScheduler = new TestPodScheduler(env, dss, settings, kubeEngineFacade, timeService, prioritySchedulingService);
         schedulePoll();
      
-        RunInterruptHandler interruptedRunHandler = new RunInterruptHandler(kubeEngineFacade, frameworkRuns, settings, timeService, ras);
-        scheduledExecutorService.scheduleWithFixedDelay(interruptedRunHandler, 0, INTERRUPTED_RUN_WATCH_POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        RunInterruptHandler newInterruptedRunHandler = new RunInterruptHandler(kubeEngineFacade, frameworkRuns, settings, timeService, ras, runIndex);
+        deferredInterruptHandling = new DeferredInterruptHandling(newInterruptedRunHandler, scheduledExecutorService, timeService);
+        interruptedRunHandler = newInterruptedRunHandler;
+        long interruptPollIntervalSeconds = INTERRUPTED_RUN_WATCH_POLL_INTERVAL_SECONDS;
+        if (runIndex != null) {
+            interruptPollIntervalSeconds = WATCHED_RECONCILE_INTERVAL_SECONDS;
+        }
+        scheduledExecutorService.scheduleWithFixedDelay(interruptedRunHandler, 0, interruptPollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts the in-memory index of runs, so that queued runs can be found without reading
+     * every run from the DSS on each poll, and so that interrupted and finished runs can be
+     * acted on as soon as they change. If the DSS can't be watched, then the runs are read
+     * from the DSS on each poll instead.
+     */
+    private IQueuedRunsProvider startRunIndex(IDynamicStatusStoreService dss, IFrameworkRuns frameworkRuns) {
+        IQueuedRunsProvider queuedRunsProvider = frameworkRuns::getQueuedRuns;
+
+        RunIndex newRunIndex = new RunIndex(dss);
+        newRunIndex.addListener(new IRunIndexListener() {
+            @Override
+            public void runStatusChanged(String runName, String newStatus) {
+                if (TestRunLifecycleStatus.QUEUED.toString().equals(newStatus)) {
+                    requestImmediatePoll();
+                } else if (TestRunLifecycleStatus.FINISHED.toString().equals(newStatus)) {
+                    requestRunPodCleanup(runName);
+                }
+            }
+
+            @Override
+            public void runInterrupted(String runName, String interruptReason) {
+                requestInterruptHandling();
+            }
+        });
+
+        try {
+            newRunIndex.startWatching();
+            scheduledExecutorService.scheduleWithFixedDelay(newRunIndex, RUN_INDEX_RESYNC_INTERVAL_SECONDS, RUN_INDEX_RESYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            this.runIndex = newRunIndex;
+            queuedRunsProvider = newRunIndex;
+            logger.info("Queued runs will be read from the in-memory run index");
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to watch the DSS for run changes, queued runs will be read from the DSS on each poll", e);
+        }
+        return queuedRunsProvider;
+    }
 
+    /**
+     * Lets the priority scheduling service know when user priorities change, so that it doesn't
+     * have to look up the priority of every requestor on each poll.
+     */
+    private void startWatchingUserPriorities(IFramework framework, PrioritySchedulingService prioritySchedulingService) {
+        try {
+            IDynamicStatusStoreService rbacDss = framework.getDynamicStatusStoreService("rbac");
+            prioritySchedulingService.startWatchingUserPriorities(rbacDss);
+            this.prioritySchedulingService = prioritySchedulingService;
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to watch the DSS for user priority changes, user priorities will be read on each poll", e);
+        }
+    }
 
+    /**
+     * Runs the pod scheduler as soon as possible, rather than waiting for the next poll.
+     * Requests made while one is already pending are merged into the pending one.
+     */
+    private void requestImmediatePoll() {
+        if (podScheduler != null && isImmediatePollPending.compareAndSet(false, true)) {
+            scheduledExecutorService.execute(() -> {
+                isImmediatePollPending.set(false);
+                podScheduler.run();
+            });
+        }
+    }
+
+    /**
+     * Deletes the pod of a run which has just finished, if the pod has already terminated.
+     */
+    private void requestRunPodCleanup(String runName) {
+        if (runCleanup != null) {
+            scheduledExecutorService.execute(() -> runCleanup.cleanupPodForRun(runName));
+        }
+    }
+
+    /**
+     * Handles interrupted runs as soon as possible, rather than waiting for the next scan.
+     * The pods of interrupted runs are only deleted once the cleanup grace period has passed,
+     * so they are handled again once the grace period is over. Requests made while immediate
+     * handling is already pending are merged into the pending one, and any run that this misses
+     * is picked up by the periodic scan.
+     */
+    private void requestInterruptHandling() {
+        if (interruptedRunHandler != null) {
+            if (isImmediateInterruptHandlingPending.compareAndSet(false, true)) {
+                scheduledExecutorService.execute(() -> {
+                    isImmediateInterruptHandlingPending.set(false);
+                    interruptedRunHandler.run();
+                });
+            }
+
+            long delaySeconds = settings.getInterruptedTestRunCleanupGracePeriodSeconds() + 1;
+            deferredInterruptHandling.request(TimeUnit.SECONDS.toMillis(delaySeconds));
+        }
+    }
+
+    /**
+     * Watches test pods on a thread of its own, so that pods are cleaned up as soon as they
+     * terminate. The periodic cleanup scan still runs in case the watch misses anything.
+     */
+    private void startWatchingTestPods(KubernetesEngineFacade kubeEngineFacade) {
+        testPodWatcher = new TestPodWatcher(kubeEngineFacade,
+            terminatedPod -> scheduledExecutorService.execute(() -> runCleanup.cleanupTerminatedPod(terminatedPod)));
+
+        Thread podWatcherThread = new Thread(testPodWatcher, "test-pod-watcher");
+        podWatcherThread.setDaemon(true);
+        podWatcherThread.start();
+    }
+
+    private void stopWatchingTestPods() {
+        if (this.testPodWatcher != null) {
+            this.testPodWatcher.stop();
+        }
+    }
+
+    private void stopDssWatches() {
+        if (this.runIndex != null) {
+            try {
+                this.runIndex.stopWatching();
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to stop watching the DSS for run changes", e);
+            }
+        }
+
+        if (this.prioritySchedulingService != null) {
+            try {
+                this.prioritySchedulingService.stopWatchingUserPriorities();
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to stop watching the DSS for user priority changes", e);
+            }
+        }
     }
 
     private void shutdownExecutorService() {
@@ -243,6 +420,10 @@ public class K8sController {
         } catch (Exception e) {
             logger.error("Unable to shutdown the scheduler");
         }
+
+        if (this.podScheduler != null) {
+            this.podScheduler.shutdown();
+        }
     }
 
     private void stopHealthServer(int healthPort) {
@@ -314,7 +495,11 @@ public class K8sController {
             this.cleanupFuture.cancel(false);
         }
         
-        cleanupFuture = scheduledExecutorService.scheduleWithFixedDelay(runCleanup, 0, settings.getPollSeconds(), TimeUnit.SECONDS);
+        long cleanupIntervalSeconds = settings.getPollSeconds();
+        if (runIndex != null) {
+            cleanupIntervalSeconds = Math.max(cleanupIntervalSeconds, WATCHED_RECONCILE_INTERVAL_SECONDS);
+        }
+        cleanupFuture = scheduledExecutorService.scheduleWithFixedDelay(runCleanup, 0, cleanupIntervalSeconds, TimeUnit.SECONDS);
     }
 
     private class ShutdownHook extends Thread {
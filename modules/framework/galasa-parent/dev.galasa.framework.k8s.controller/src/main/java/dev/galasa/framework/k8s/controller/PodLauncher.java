@@ -0,0 +1,120 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Launches test pods, allowing up to a maximum number of launches to be in flight at the same time.
+ *
+ * The start of each launch can be rate limited, so that launches begin at least a given interval
+ * apart however long each one takes. Only the time still remaining since the previous launch started
+ * is waited for, so a launch long after the previous one starts straight away.
+ *
+ * If only one launch is allowed at a time, then pods are launched on the calling thread.
+ *
+ * A launcher is intended to be kept for the lifetime of its scheduler, and shut down with it.
+ */
+public class PodLauncher {
+
+    private final int maxConcurrentLaunches;
+    private final Semaphore inFlightLaunches;
+    private final ExecutorService launchExecutor;
+    private final ITimeService timeService;
+
+    private Instant lastLaunchStartTime;
+
+    public PodLauncher(int maxConcurrentLaunches, ITimeService timeService) {
+        this.maxConcurrentLaunches = maxConcurrentLaunches;
+        this.inFlightLaunches = new Semaphore(maxConcurrentLaunches);
+        this.timeService = timeService;
+
+        if (maxConcurrentLaunches > 1) {
+            this.launchExecutor = Executors.newFixedThreadPool(maxConcurrentLaunches);
+        } else {
+            this.launchExecutor = null;
+        }
+    }
+
+    public int getMaxConcurrentLaunches() {
+        return maxConcurrentLaunches;
+    }
+
+    /**
+     * Starts a launch, waiting for an earlier launch to finish first if the maximum
+     * number of launches are already in flight, and waiting until at least the given
+     * interval has passed since the previous launch started.
+     *
+     * @param podLaunch the launch to perform
+     * @param launchIntervalMillis the minimum time between the starts of two launches, or 0 for no limit
+     * @throws InterruptedException if interrupted while waiting for the launch to be allowed to start
+     */
+    public void launch(Runnable podLaunch, long launchIntervalMillis) throws InterruptedException {
+        if (launchExecutor == null) {
+            waitForLaunchInterval(launchIntervalMillis);
+            podLaunch.run();
+        } else {
+            inFlightLaunches.acquire();
+            try {
+                waitForLaunchInterval(launchIntervalMillis);
+                launchExecutor.execute(() -> {
+                    try {
+                        podLaunch.run();
+                    } finally {
+                        inFlightLaunches.release();
+                    }
+                });
+            } catch (RuntimeException | InterruptedException e) {
+                inFlightLaunches.release();
+                throw e;
+            }
+        }
+    }
+
+    private synchronized void waitForLaunchInterval(long launchIntervalMillis) throws InterruptedException {
+        if (lastLaunchStartTime != null && launchIntervalMillis > 0) {
+            long millisSinceLastLaunch = timeService.now().toEpochMilli() - lastLaunchStartTime.toEpochMilli();
+            long millisToWait = launchIntervalMillis - millisSinceLastLaunch;
+            if (millisToWait > 0) {
+                timeService.sleepMillis(millisToWait);
+            }
+        }
+        lastLaunchStartTime = timeService.now();
+    }
+
+    /**
+     * Waits for all the launches that are in flight to finish. The launcher can still
+     * be used afterwards.
+     *
+     * @throws InterruptedException if interrupted while waiting for the launches to finish
+     */
+    public void awaitInFlightLaunches() throws InterruptedException {
+        if (launchExecutor != null) {
+            inFlightLaunches.acquire(maxConcurrentLaunches);
+            inFlightLaunches.release(maxConcurrentLaunches);
+        }
+    }
+
+    /**
+     * Waits for all the launches that are in flight to finish, then stops the launcher.
+     *
+     * @throws InterruptedException if interrupted while waiting for the launches to finish
+     */
+    public void close() throws InterruptedException {
+        if (launchExecutor != null) {
+            try {
+                awaitInFlightLaunches();
+            } finally {
+                launchExecutor.shutdown();
+            }
+        }
+    }
+}
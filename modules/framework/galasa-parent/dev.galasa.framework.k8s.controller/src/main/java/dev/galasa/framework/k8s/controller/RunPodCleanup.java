@@ -13,6 +13,7 @@ import org.apache.commons.logging.LogFactory;
 
 import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import dev.galasa.framework.k8s.controller.scheduling.RunIndex;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.IFrameworkRuns;
 import dev.galasa.framework.spi.IRun;
@@ -25,9 +26,17 @@ public class RunPodCleanup implements Runnable {
     private final IFrameworkRuns runs;
     private final KubernetesEngineFacade kubeApi;
 
+    // Used to look runs up without going to the DSS, null if the DSS is not being watched
+    private final RunIndex runIndex;
+
     public RunPodCleanup(KubernetesEngineFacade kubeApi, IFrameworkRuns runs) {
+        this(kubeApi, runs, null);
+    }
+
+    public RunPodCleanup(KubernetesEngineFacade kubeApi, IFrameworkRuns runs, RunIndex runIndex) {
         this.runs = runs;
         this.kubeApi = kubeApi;
+        this.runIndex = runIndex;
     }
 
     @Override
@@ -50,13 +59,39 @@ public class RunPodCleanup implements Runnable {
         }
     }
 
+    /**
+     * Called when a pod watch sees a test pod terminate, so that it can be deleted straight away
+     * if its run has finished.
+     */
+    public void cleanupTerminatedPod(V1Pod terminatedPod) {
+        try {
+            deletePodsForCompletedRuns(List.of(terminatedPod));
+        } catch (Exception e) {
+            logger.error("Problem cleaning up pod " + terminatedPod.getMetadata().getName(), e);
+        }
+    }
+
+    /**
+     * Called when a run finishes, to delete its pod if the pod has already terminated.
+     */
+    public void cleanupPodForRun(String runName) {
+        try {
+            V1Pod pod = kubeApi.getTestPod(runName);
+            if (pod != null) {
+                deletePodsForCompletedRuns(kubeApi.getTerminatedPods(List.of(pod)));
+            }
+        } catch (Exception e) {
+            logger.error("Problem cleaning up the pod for run " + runName, e);
+        }
+    }
+
     void deletePodsForCompletedRuns(List<V1Pod> terminatedPods) throws DynamicStatusStoreException {
         for (V1Pod pod : terminatedPods) {
             Map<String, String> labels = pod.getMetadata().getLabels();
             String runName = labels.get(TestPodKubeLabels.GALASA_RUN.toString());
 
             if (runName != null) {
-                IRun run = runs.getRun(runName);
+                IRun run = getRun(runName);
                 if (run != null) {
 
                     // There is a completed pod for a run in the DSS, delete the pod if the run has finished
@@ -74,4 +109,18 @@ public class RunPodCleanup implements Runnable {
             }
         }
     }
+
+    private IRun getRun(String runName) throws DynamicStatusStoreException {
+        IRun run = null;
+        if (runIndex != null) {
+            run = runIndex.getRun(runName);
+        }
+
+        if (run == null) {
+            // The index may not have caught up with the DSS yet, so check the DSS
+            // before deciding that the run has been deleted
+            run = runs.getRun(runName);
+        }
+        return run;
+    }
 }
@@ -37,6 +37,17 @@ public class Settings implements Runnable, ISettings {
 
     public static final String IS_ISTIO_ENABLED_PROPERTY_NAME = "is_istio_enabled";
 
+    public static final int MAX_CONCURRENT_POD_LAUNCHES_DEFAULT = 1;
+    public static final String MAX_CONCURRENT_POD_LAUNCHES_PROPERTY_NAME = "max_concurrent_pod_launches";
+
+    public static final String ENGINE_TOPOLOGY_SPREAD_KEY_PROPERTY_NAME = "engine_topology_spread_key";
+
+    public static final int WARM_ENGINE_POOL_SIZE_DEFAULT = 0;
+    public static final String WARM_ENGINE_POOL_SIZE_PROPERTY_NAME = "warm_engine_pool_size";
+
+    public static final long WARM_ENGINE_IDLE_TIMEOUT_SECS_DEFAULT = 600;
+    public static final String WARM_ENGINE_IDLE_TIMEOUT_SECS_PROPERTY_NAME = "warm_engine_idle_timeout_seconds";
+
     private final Log         logger                      = LogFactory.getLog(getClass());
 
     private final K8sController controller;
@@ -60,6 +71,7 @@ public class Settings implements Runnable, ISettings {
     private String            nodeRequiredAffinity        = "";
     private String            nodeTolerations             = "";
     private boolean           isIstioEnabled              = false;
+    private String            engineTopologySpreadKey     = "";
 
     // A fail-safe to make sure we never try to re-launch/re-create a pod for a testcase more than 
     // this number  of times.
@@ -72,9 +84,14 @@ public class Settings implements Runnable, ISettings {
     private String            reportCapabilties           = null;
 
     private long              kubeLaunchIntervalMillisecs = 1000L;
+    private int               maxConcurrentPodLaunches    = MAX_CONCURRENT_POD_LAUNCHES_DEFAULT;
     private long              interruptedTestRunCleanupGracePeriodSeconds = INTERRUPTED_RUN_CLEANUP_GRACE_PERIOD_SECS_DEFAULT;
     private long              allocatedTestRunTimeoutMinutes = ALLOCATED_TEST_RUN_TIMEOUT_MINUTES_DEFAULT;
 
+    // How many idle engine pods to keep booted and waiting for a run, and for how long
+    private int               warmEnginePoolSize          = WARM_ENGINE_POOL_SIZE_DEFAULT;
+    private long              warmEngineIdleTimeoutSeconds = WARM_ENGINE_IDLE_TIMEOUT_SECS_DEFAULT;
+
     // Poll loop interval which is looking for queued test runs, so they can be launched in a pod.
     private int               runPollSeconds              = 60;
     private int               maxEngines                  = 0;
@@ -215,6 +232,7 @@ public class Settings implements Runnable, ISettings {
         this.engineLabel = updateProperty(configMapData, "engine_label", "k8s-standard-engine", this.engineLabel);
         this.engineImage = updateProperty(configMapData, "engine_image", "ghcr.io/galasa-dev/galasa-boot-embedded-amd64", this.engineImage);
         this.kubeLaunchIntervalMillisecs = updateProperty(configMapData, "kube_launch_interval_milliseconds", kubeLaunchIntervalMillisecs, this.kubeLaunchIntervalMillisecs);
+        this.maxConcurrentPodLaunches = updateProperty(configMapData, MAX_CONCURRENT_POD_LAUNCHES_PROPERTY_NAME, MAX_CONCURRENT_POD_LAUNCHES_DEFAULT, this.maxConcurrentPodLaunches);
         this.interruptedTestRunCleanupGracePeriodSeconds = updateProperty(configMapData, INTERRUPTED_RUN_CLEANUP_GRACE_PERIOD_SECS_PROPERTY_NAME, INTERRUPTED_RUN_CLEANUP_GRACE_PERIOD_SECS_DEFAULT, this.interruptedTestRunCleanupGracePeriodSeconds);
         this.allocatedTestRunTimeoutMinutes = updateProperty(configMapData, ALLOCATED_TEST_RUN_TIMEOUT_MINUTES_PROPERTY_NAME, ALLOCATED_TEST_RUN_TIMEOUT_MINUTES_DEFAULT, this.allocatedTestRunTimeoutMinutes);
 
@@ -229,11 +247,15 @@ public class Settings implements Runnable, ISettings {
         this.nodePreferredAffinity = updateProperty(configMapData, "galasa_node_preferred_affinity", "", this.nodePreferredAffinity);
         this.nodeRequiredAffinity = updateProperty(configMapData, "galasa_node_required_affinity", "", this.nodeRequiredAffinity);
         this.nodeTolerations = updateProperty(configMapData, "galasa_node_tolerations", "", this.nodeTolerations);
+        this.engineTopologySpreadKey = updateProperty(configMapData, ENGINE_TOPOLOGY_SPREAD_KEY_PROPERTY_NAME, "", this.engineTopologySpreadKey);
 
         this.encryptionKeysSecretName = updateProperty(configMapData, "encryption_keys_secret_name", "", this.encryptionKeysSecretName);
 
         this.maxTestPodRetryLimit = updateProperty(configMapData, MAX_TEST_POD_RETRY_LIMIT_CONFIG_MAP_PROPERTY_NAME, MAX_TEST_POD_RETRY_LIMIT_DEFAULT, this.maxTestPodRetryLimit);
         this.isIstioEnabled = updateProperty(configMapData, IS_ISTIO_ENABLED_PROPERTY_NAME, false, this.isIstioEnabled);
+
+        this.warmEnginePoolSize = updateProperty(configMapData, WARM_ENGINE_POOL_SIZE_PROPERTY_NAME, WARM_ENGINE_POOL_SIZE_DEFAULT, this.warmEnginePoolSize);
+        this.warmEngineIdleTimeoutSeconds = updateProperty(configMapData, WARM_ENGINE_IDLE_TIMEOUT_SECS_PROPERTY_NAME, WARM_ENGINE_IDLE_TIMEOUT_SECS_DEFAULT, this.warmEngineIdleTimeoutSeconds);
     }
 
     private void setRunPoll(Map<String,String> configMapData) throws K8sControllerException {
@@ -408,6 +430,14 @@ public class Settings implements Runnable, ISettings {
         return this.kubeLaunchIntervalMillisecs;
     }
 
+    public int getMaxConcurrentPodLaunches() {
+        return this.maxConcurrentPodLaunches;
+    }
+
+    public String getEngineTopologySpreadKey() {
+        return this.engineTopologySpreadKey;
+    }
+
     public int getMaxTestPodRetryLimit() {
         return this.maxTestPodRetryLimit;
     }
@@ -423,4 +453,12 @@ public class Settings implements Runnable, ISettings {
     public boolean isIstioEnabled() {
         return this.isIstioEnabled;
     }
+
+    public int getWarmEnginePoolSize() {
+        return this.warmEnginePoolSize;
+    }
+
+    public long getWarmEngineIdleTimeoutSeconds() {
+        return this.warmEngineIdleTimeoutSeconds;
+    }
 }
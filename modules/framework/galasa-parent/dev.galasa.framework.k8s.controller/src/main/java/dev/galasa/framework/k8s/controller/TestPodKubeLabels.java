@@ -26,6 +26,12 @@ public enum TestPodKubeLabels {
      */
     ENGINE_CONTROLLER("galasa-engine-controller"),
 
+    /**
+     * Engine pods started ahead of time, to wait for a run to be handed to them, have this
+     * kube label set to "true". The GALASA_RUN label is added once a run has been handed over.
+     */
+    WARM_ENGINE("galasa-warm-engine"),
+
     /**
      * If secure internal pod communication is enabled, then test pods will be injected with
      * an Istio sidecar and will have this kube label set to "true"
@@ -10,16 +10,24 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.framework.WarmEngine;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
 import dev.galasa.framework.k8s.controller.scheduling.IPrioritySchedulingService;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DssSwap;
+import dev.galasa.framework.spi.DssUpdate;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.Environment;
+import dev.galasa.framework.spi.IDssAction;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.SystemEnvironment;
@@ -30,10 +38,13 @@ import io.kubernetes.client.openapi.models.V1Affinity;
 import io.kubernetes.client.openapi.models.V1ConfigMapVolumeSource;
 import io.kubernetes.client.openapi.models.V1Container;
 import io.kubernetes.client.openapi.models.V1EnvVar;
+import io.kubernetes.client.openapi.models.V1EnvVarSource;
+import io.kubernetes.client.openapi.models.V1LabelSelector;
 import io.kubernetes.client.openapi.models.V1NodeAffinity;
 import io.kubernetes.client.openapi.models.V1NodeSelector;
 import io.kubernetes.client.openapi.models.V1NodeSelectorRequirement;
 import io.kubernetes.client.openapi.models.V1NodeSelectorTerm;
+import io.kubernetes.client.openapi.models.V1ObjectFieldSelector;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1PodSpec;
@@ -41,6 +52,7 @@ import io.kubernetes.client.openapi.models.V1PreferredSchedulingTerm;
 import io.kubernetes.client.openapi.models.V1ResourceRequirements;
 import io.kubernetes.client.openapi.models.V1SecretVolumeSource;
 import io.kubernetes.client.openapi.models.V1Toleration;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
 import io.kubernetes.client.openapi.models.V1Volume;
 import io.kubernetes.client.openapi.models.V1VolumeMount;
 import io.prometheus.client.Counter;
@@ -82,6 +94,11 @@ public class TestPodScheduler implements Runnable {
 
     private IPrioritySchedulingService prioritySchedulingService;
 
+    private WarmEnginePool warmEnginePool;
+
+    // Kept for the lifetime of the scheduler, and only replaced if max_concurrent_pod_launches changes
+    private PodLauncher podLauncher;
+
     public TestPodScheduler( 
         Environment env, 
         IDynamicStatusStoreService dss, 
@@ -97,6 +114,7 @@ public class TestPodScheduler implements Runnable {
         this.dss = dss;
         this.timeService = timeService;
         this.prioritySchedulingService = prioritySchedulingService;
+        this.warmEnginePool = new WarmEnginePool(dss, settings, kubeEngineFacade, timeService);
 
         String cacertsFilePathString = env.getenv(CACERTS_FILE_PATH_ENV_VAR);
         if (cacertsFilePathString != null && !cacertsFilePathString.isBlank()) {
@@ -111,67 +129,254 @@ public class TestPodScheduler implements Runnable {
                 .help("The number of runs submitted by the Kubernetes controller").register();
     }
 
+    /**
+     * Looks for queued runs and starts pods for them.
+     * 
+     * This is synchronized because as well as the regular poll, the controller can ask for
+     * an extra scheduling pass as soon as a run is queued, and the two must not overlap.
+     */
     @Override
-    public void run() {
+    public synchronized void run() {
         if (!kubeEngineFacade.isEtcdAndRasReady()) {
             logger.warn("etcd or RAS pods are not ready, waiting for them to be ready before scheduling new runs");
         } else {
             
             try {
-                // Check we are not at max engines
-                if (isMaximumEngineLimitReached()) {
+                List<V1Pod> testPods = warmEnginePool.refresh(this.kubeEngineFacade.getTestPods());
+
+                // Check we are not at max engines. Idle warm engines already hold a slot, which
+                // the runs handed to them will use.
+                int availableEngines = getAvailableEngineCount(testPods);
+                if (availableEngines + warmEnginePool.getIdleEngineCount() <= 0) {
                     logger.info("Not looking for runs, currently at maximum engines (" + settings.getMaxEngines() + ")");
                 } else {
                     logger.info("Looking for new runs");
                     List<IRun> prioritisedQueuedRuns = prioritySchedulingService.getPrioritisedTestRunsToSchedule();
-        
-                    while (!prioritisedQueuedRuns.isEmpty()) {    
-                        IRun selectedRun = prioritisedQueuedRuns.remove(0);
-        
-                        startPod(selectedRun);
-        
-                        if (!prioritisedQueuedRuns.isEmpty()) {
-                            // Slight delay to allow Kubernetes to catch up....
-                            //
-                            // Why do this ? 
-                            //
-                            // If we don't do this, then all the tests get scheduled on the same node, and the 
-                            // node will run out of memory.
-                            //
-                            // We assume that's because the usage statistics on a pod are not synchronized totally at
-                            // real-time, but have a lag in which they catch up. Hopefully this delay is greater
-                            // than the lag and when we actually schedule the next pod it gets evenly distributed over
-                            // the nodes which are available.
-                            //
-                            // This may or may not be necessary if the scheduling policies in the cluster are changed. Not sure.
-                            long launchIntervalMilliseconds = settings.getKubeLaunchIntervalMillisecs();
-                            timeService.sleepMillis(launchIntervalMilliseconds); 
-                        }
-
-                        if (isMaximumEngineLimitReached()) {
-                            logger.info("Not scheduling any more runs, currently at maximum engines (" + settings.getMaxEngines() + ")");
-                            break;
-                        }
-                    }
+                    availableEngines = startPods(prioritisedQueuedRuns, availableEngines);
                 }
+
+                startWarmEngines(availableEngines);
             } catch (Exception e) {
                 logger.error("Unable to poll for new runs", e);
             }
         }
     }
 
-    private boolean isMaximumEngineLimitReached() throws K8sControllerException {
-        List<V1Pod> pods = this.kubeEngineFacade.getTestPods();
-        pods = kubeEngineFacade.getActivePods(pods);
+    /**
+     * Waits for any pod launches in flight to finish, then stops the threads used to launch pods.
+     */
+    public synchronized void shutdown() {
+        if (podLauncher != null) {
+            try {
+                podLauncher.close();
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted while waiting for pod launches to finish");
+                Thread.currentThread().interrupt();
+            }
+            podLauncher = null;
+        }
+    }
+
+    private PodLauncher getPodLauncher(int maxConcurrentLaunches) throws InterruptedException {
+        if (podLauncher != null && podLauncher.getMaxConcurrentLaunches() != maxConcurrentLaunches) {
+            podLauncher.close();
+            podLauncher = null;
+        }
+
+        if (podLauncher == null) {
+            podLauncher = new PodLauncher(maxConcurrentLaunches, timeService);
+        }
+        return podLauncher;
+    }
+
+    /**
+     * Gets the number of engines which can be started before the maximum is reached.
+     * 
+     * The test pods are only listed once per scheduling pass. After that, the number of available
+     * engines is tracked locally as runs are allocated to this controller.
+     */
+    private int getAvailableEngineCount(List<V1Pod> testPods) {
+        List<V1Pod> pods = kubeEngineFacade.getActivePods(testPods);
 
         logger.info("Active runs=" + pods.size() + ",max=" + settings.getMaxEngines());
 
         int currentActive = pods.size();
-        return currentActive >= settings.getMaxEngines();
+        return settings.getMaxEngines() - currentActive;
     }
 
+    /**
+     * Allocates the given runs to this controller and launches their pods, in priority order,
+     * until the available engines and idle warm engines have been used up.
+     * 
+     * Runs are allocated in batches, one DSS transaction per batch, and up to
+     * max_concurrent_pod_launches pods are created at the same time. Runs are handed to
+     * idle warm engines where possible, except for runs with trace enabled, as trace
+     * logging has to be set up as the engine starts.
+     * 
+     * @return the number of engines still available
+     */
+    private int startPods(List<IRun> prioritisedQueuedRuns, int availableEngines) throws InterruptedException {
+        int maxConcurrentLaunches = Math.max(1, settings.getMaxConcurrentPodLaunches());
+        boolean isSpreadByTopology = !settings.getEngineTopologySpreadKey().isEmpty();
+
+        // Slight delay between launches to allow Kubernetes to catch up....
+        //
+        // Why do this ?
+        //
+        // If we don't do this, then all the tests get scheduled on the same node, and the
+        // node will run out of memory.
+        //
+        // We assume that's because the usage statistics on a pod are not synchronized totally at
+        // real-time, but have a lag in which they catch up. Hopefully this delay is greater
+        // than the lag and when we actually schedule the next pod it gets evenly distributed over
+        // the nodes which are available.
+        //
+        // The delay is a limit on how often launches can start, so launches which take longer
+        // than the delay still overlap. It isn't needed when a topology spread key has been
+        // configured, as Kubernetes then spreads the test pods over the nodes itself.
+        long launchIntervalMilliseconds = isSpreadByTopology ? 0 : settings.getKubeLaunchIntervalMillisecs();
+
+        PodLauncher podLauncher = getPodLauncher(maxConcurrentLaunches);
+        try {
+            Iterator<IRun> runsIterator = prioritisedQueuedRuns.iterator();
+            while (runsIterator.hasNext() && availableEngines + warmEnginePool.getIdleEngineCount() > 0) {
+
+                int capacity = availableEngines + warmEnginePool.getIdleEngineCount();
+                List<IRun> batch = new ArrayList<>();
+                while (runsIterator.hasNext() && batch.size() < Math.min(maxConcurrentLaunches, capacity)) {
+                    IRun run = runsIterator.next();
+                    logger.info("Received run " + run.getName());
+                    batch.add(run);
+                }
+
+                List<IRun> allocatedRuns = allocateRuns(batch);
+
+                for (IRun allocatedRun : allocatedRuns) {
+                    if (!allocatedRun.isTrace() && warmEnginePool.handOff(allocatedRun)) {
+                        submittedRuns.inc();
+                        continue;
+                    }
+
+                    if (availableEngines > 0) {
+                        availableEngines--;
+                    } else if (!warmEnginePool.freeSlot()) {
+                        // Only happens if an idle engine went away while the run was being handed to it,
+                        // in which case its slot is freed once Kubernetes notices it has ended
+                        logger.warn("No engine slot is free for run " + allocatedRun.getName() + ", starting its pod anyway");
+                    }
+
+                    podLauncher.launch(() -> launchPod(allocatedRun), launchIntervalMilliseconds);
+                }
+            }
 
-    protected void startPod(IRun run) {
+            if (availableEngines + warmEnginePool.getIdleEngineCount() <= 0) {
+                logger.info("Not scheduling any more runs, currently at maximum engines (" + settings.getMaxEngines() + ")");
+            }
+        } finally {
+            // Wait for all the pods in this pass to be launched, so the next pass sees them
+            // when it counts the active engines
+            podLauncher.awaitInFlightLaunches();
+        }
+        return availableEngines;
+    }
+
+    /**
+     * Tops up the pool of warm engines, using only the engine slots left over once the
+     * queued runs have been scheduled.
+     */
+    private void startWarmEngines(int availableEngines) {
+        int enginesToStart = Math.min(settings.getWarmEnginePoolSize() - warmEnginePool.getWarmEngineCount(), availableEngines);
+        for (int i = 0; i < enginesToStart; i++) {
+            String engineName = this.settings.getEngineLabel() + "-warm-" + UUID.randomUUID().toString().substring(0, 8);
+            V1Pod newPodDefinition = createWarmPodDefinition(engineName);
+            try {
+                kubeEngineFacade.createNamespacedPod(newPodDefinition);
+                warmEnginePool.addStartingEngine();
+                logger.info("Warm engine pod " + engineName + " started");
+            } catch (ApiException e) {
+                logger.error("Failed to create warm engine pod :-\n" + e.getResponseBody(), e);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Attempts to allocate the given runs to this controller.
+     * 
+     * All the runs are allocated in a single DSS transaction. If any of them has already been
+     * allocated by another controller, then the transaction fails and the runs are allocated
+     * one at a time instead.
+     * 
+     * @return the runs which have been allocated to this controller
+     */
+    private List<IRun> allocateRuns(List<IRun> runs) {
+        List<IRun> allocatedRuns = new ArrayList<>();
+        if (runs.size() == 1) {
+            IRun run = runs.get(0);
+            if (allocateRun(run)) {
+                allocatedRuns.add(run);
+            }
+        } else if (!runs.isEmpty()) {
+            List<IDssAction> actions = new ArrayList<>();
+            for (IRun run : runs) {
+                String runName = run.getName();
+                actions.add(new DssSwap(getRunPropertyKey(runName, DssPropertyKeyRunNameSuffix.STATUS), "queued", "allocated"));
+                for (Map.Entry<String, String> entry : getAllocationProperties(runName).entrySet()) {
+                    actions.add(new DssUpdate(entry.getKey(), entry.getValue()));
+                }
+            }
+
+            try {
+                this.dss.performActions(actions.toArray(new IDssAction[0]));
+                allocatedRuns.addAll(runs);
+            } catch (DynamicStatusStoreMatchException e) {
+                logger.info("One or more of a batch of " + runs.size() + " runs has been allocated by another controller, allocating the runs one at a time");
+                for (IRun run : runs) {
+                    if (allocateRun(run)) {
+                        allocatedRuns.add(run);
+                    }
+                }
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Failed to allocate a batch of " + runs.size() + " runs", e);
+            }
+        }
+        return allocatedRuns;
+    }
+
+    private boolean allocateRun(IRun run) {
+        boolean isAllocated = false;
+        String runName = run.getName();
+        try {
+            // *** Attempt to allocate the run to this controller
+            if (this.dss.putSwap(getRunPropertyKey(runName, DssPropertyKeyRunNameSuffix.STATUS), "queued", "allocated", getAllocationProperties(runName))) {
+                isAllocated = true;
+            } else {
+                logger.info("run " + runName + " allocated by another controller");
+            }
+        } catch (Exception e) {
+            logger.error("Failed to allocate run " + runName, e);
+        }
+        return isAllocated;
+    }
+
+    private Map<String, String> getAllocationProperties(String runName) {
+        Instant now = timeService.now();
+        Instant allocatedTimeoutTimestamp = now.plus(settings.getAllocatedTestRunTimeoutMinutes(), ChronoUnit.MINUTES);
+        HashMap<String, String> props = new HashMap<>();
+        props.put(getRunPropertyKey(runName, DssPropertyKeyRunNameSuffix.CONTROLLER), settings.getPodName());
+        props.put(getRunPropertyKey(runName, DssPropertyKeyRunNameSuffix.ALLOCATED), now.toString());
+        props.put(getRunPropertyKey(runName, DssPropertyKeyRunNameSuffix.ALLOCATE_TIMEOUT), allocatedTimeoutTimestamp.toString());
+        return props;
+    }
+
+    private String getRunPropertyKey(String runName, DssPropertyKeyRunNameSuffix suffix) {
+        return "run." + runName + "." + suffix;
+    }
+
+    /**
+     * Creates the pod for a run which has already been allocated to this controller.
+     */
+    private void launchPod(IRun run) {
         String runName = run.getName();
         String engineName = this.settings.getEngineLabel() + "-" + runName.toLowerCase();
 
@@ -180,21 +385,7 @@ public class TestPodScheduler implements Runnable {
         // It should never be allowed to create a pod with this suffix, preferring to give up scheduling this test run.
         final int maxLaunchAttempts = this.settings.getMaxTestPodRetryLimit();
 
-        logger.info("Received run " + runName);
-
         try {
-            // *** First attempt to allocate the run to this controller
-            Instant now = timeService.now();
-            Instant allocatedTimeoutTimestamp = now.plus(settings.getAllocatedTestRunTimeoutMinutes(), ChronoUnit.MINUTES);
-            HashMap<String, String> props = new HashMap<>();
-            props.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.CONTROLLER, settings.getPodName());
-            props.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.ALLOCATED, now.toString());
-            props.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.ALLOCATE_TIMEOUT, allocatedTimeoutTimestamp.toString());
-            if (!this.dss.putSwap("run." + runName + "."+DssPropertyKeyRunNameSuffix.STATUS, "queued", "allocated", props)) {
-                logger.info("run allocated by another controller");
-                return;
-            }
-
             V1Pod newPodDefinition = createTestPodDefinition(runName, engineName, run.isTrace());
 
             boolean isDone = false;
@@ -250,6 +441,17 @@ public class TestPodScheduler implements Runnable {
         }
     }
 
+    /**
+     * Creates the definition of a pod for a warm engine, which starts without a run and
+     * waits for one to be handed to it.
+     */
+    V1Pod createWarmPodDefinition(String engineName) {
+        return createTestPodDefinition(null, engineName, false);
+    }
+
+    /**
+     * @param runName the run to be run in the pod, or null for a warm engine pod
+     */
     V1Pod createTestPodDefinition(String runName, String engineName, boolean isTraceEnabled) {
         V1Pod newPod = new V1Pod();
         newPod.setApiVersion("v1");
@@ -259,7 +461,11 @@ public class TestPodScheduler implements Runnable {
         newPod.setMetadata(metadata);
         metadata.setName(engineName);
         metadata.putLabelsItem(TestPodKubeLabels.ENGINE_CONTROLLER.toString(), this.settings.getEngineLabel());
-        metadata.putLabelsItem(TestPodKubeLabels.GALASA_RUN.toString(), runName);
+        if (runName != null) {
+            metadata.putLabelsItem(TestPodKubeLabels.GALASA_RUN.toString(), runName);
+        } else {
+            metadata.putLabelsItem(TestPodKubeLabels.WARM_ENGINE.toString(), "true");
+        }
         metadata.putLabelsItem(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), kubeEngineFacade.getGalasaServiceInstallName());
 
         if (settings.isIstioEnabled()) {
@@ -281,6 +487,7 @@ public class TestPodScheduler implements Runnable {
         }
 
         addNodeAffinityIfRequested(podSpec);
+        addTopologySpreadConstraintIfRequested(podSpec);
 
         String nodeTolerations = this.settings.getNodeTolerations();
         if(!nodeTolerations.isEmpty()) {
@@ -318,6 +525,28 @@ public class TestPodScheduler implements Runnable {
         }
     }
 
+    /**
+     * Asks Kubernetes to spread the test pods evenly over the values of the configured
+     * node label (for example, kubernetes.io/hostname), rather than relying on a delay
+     * between pod launches to stop them all landing on the same node.
+     */
+    private void addTopologySpreadConstraintIfRequested(V1PodSpec podSpec) {
+        String topologySpreadKey = this.settings.getEngineTopologySpreadKey();
+        if (topologySpreadKey != null && !topologySpreadKey.isEmpty()) {
+            V1LabelSelector testPodSelector = new V1LabelSelector();
+            testPodSelector.putMatchLabelsItem(TestPodKubeLabels.ENGINE_CONTROLLER.toString(), this.settings.getEngineLabel());
+            testPodSelector.putMatchLabelsItem(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), kubeEngineFacade.getGalasaServiceInstallName());
+
+            V1TopologySpreadConstraint spreadConstraint = new V1TopologySpreadConstraint();
+            spreadConstraint.setMaxSkew(1);
+            spreadConstraint.setTopologyKey(topologySpreadKey);
+            spreadConstraint.setWhenUnsatisfiable("ScheduleAnyway");
+            spreadConstraint.setLabelSelector(testPodSelector);
+
+            podSpec.addTopologySpreadConstraintsItem(spreadConstraint);
+        }
+    }
+
     private void addNodePreferredAffinity(String nodePreferredAffinity, V1NodeAffinity nodeAffinity) {
 
         // Node preferred affinity is provided in the form <label key>=<label value>
@@ -436,7 +665,7 @@ public class TestPodScheduler implements Runnable {
         }
 
         container.setVolumeMounts(createTestContainerVolumeMounts());
-        container.setEnv(createTestContainerEnvVariables());
+        container.setEnv(createTestContainerEnvVariables(runName == null));
         return container;
     }
 
@@ -454,8 +683,12 @@ public class TestPodScheduler implements Runnable {
         args.add("boot.jar");
         args.add("--obr");
         args.add("file:galasa.obr");
-        args.add("--run");
-        args.add(runName);
+        if (runName != null) {
+            args.add("--run");
+            args.add(runName);
+        } else {
+            args.add("--warm");
+        }
         if (isTraceEnabled) {
             args.add("--trace");
         }
@@ -514,7 +747,7 @@ public class TestPodScheduler implements Runnable {
         return volumeMounts;
     }
 
-    private List<V1EnvVar> createTestContainerEnvVariables() {
+    private List<V1EnvVar> createTestContainerEnvVariables(boolean isWarmEngine) {
         ArrayList<V1EnvVar> envs = new ArrayList<>();
         // envs.add(createConfigMapEnv("GALASA_URL", configMapName, "galasa_url"));
         // envs.add(createConfigMapEnv("GALASA_INFRA_OBR", configMapName,
@@ -539,6 +772,11 @@ public class TestPodScheduler implements Runnable {
 
         addEnvVarToContainerIfPresent(JAVA_OPTIONS_ENV_VAR, envs);
 
+        if (isWarmEngine) {
+            // A warm engine identifies itself in the DSS by its pod name
+            envs.add(createFieldEnv(WarmEngine.ENGINE_ID_ENV_VAR, "metadata.name"));
+        }
+
         //
         // envs.add(createSecretEnv("GALASA_SERVER_USER", "galasa-secret",
         // "galasa-server-username"));
@@ -562,6 +800,14 @@ public class TestPodScheduler implements Runnable {
         }
     }
 
+    private V1EnvVar createFieldEnv(String name, String fieldPath) {
+        V1EnvVar env = new V1EnvVar();
+        env.setName(name);
+        env.setValueFrom(new V1EnvVarSource().fieldRef(new V1ObjectFieldSelector().fieldPath(fieldPath)));
+
+        return env;
+    }
+
     private V1EnvVar createValueEnv(String name, String value) {
         V1EnvVar env = new V1EnvVar();
         env.setName(name);
@@ -0,0 +1,109 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+
+/**
+ * Watches the Kubernetes API for changes to test pods, and passes each test pod that
+ * has terminated to a handler, so that finished pods can be cleaned up as soon as they
+ * terminate rather than on the next cleanup scan.
+ *
+ * A watch is closed by Kubernetes every so often, so this is intended to be run on its
+ * own thread and re-opens the watch each time it ends, until it is stopped.
+ */
+public class TestPodWatcher implements Runnable {
+
+    private static final long REOPEN_DELAY_AFTER_FAILURE_MILLISECS = 5000;
+
+    private static final String DELETED_EVENT_TYPE = "DELETED";
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final KubernetesEngineFacade kubeApi;
+    private final Consumer<V1Pod> terminatedPodHandler;
+
+    // Note: Shared between the watching thread and the thread stopping the watcher, so must be volatile.
+    private volatile boolean isStopped = false;
+    private volatile Watchable<V1Pod> currentWatch;
+
+    public TestPodWatcher(KubernetesEngineFacade kubeApi, Consumer<V1Pod> terminatedPodHandler) {
+        this.kubeApi = kubeApi;
+        this.terminatedPodHandler = terminatedPodHandler;
+    }
+
+    @Override
+    public void run() {
+        logger.info("Started watching test pods");
+        while (!isStopped) {
+            try {
+                watchOnce();
+            } catch (Exception e) {
+                if (!isStopped) {
+                    logger.warn("Problem watching test pods, the watch will be re-opened", e);
+                    sleepBeforeReopening();
+                }
+            }
+        }
+        logger.info("Stopped watching test pods");
+    }
+
+    /**
+     * Opens a watch on the test pods and processes its events until the watch ends.
+     */
+    void watchOnce() throws K8sControllerException, IOException {
+        try (Watchable<V1Pod> watch = kubeApi.watchTestPods()) {
+            this.currentWatch = watch;
+            for (Watch.Response<V1Pod> event : watch) {
+                if (isStopped) {
+                    break;
+                }
+
+                V1Pod pod = event.object;
+                if (pod != null && !DELETED_EVENT_TYPE.equals(event.type) && kubeApi.isPodTerminated(pod)) {
+                    terminatedPodHandler.accept(pod);
+                }
+            }
+        } finally {
+            this.currentWatch = null;
+        }
+    }
+
+    /**
+     * Stops watching test pods. Closing the current watch wakes up the watching thread
+     * if it is waiting for the next event.
+     */
+    public void stop() {
+        this.isStopped = true;
+
+        Watchable<V1Pod> watch = this.currentWatch;
+        if (watch != null) {
+            try {
+                watch.close();
+            } catch (IOException e) {
+                logger.warn("Unable to close the watch on test pods", e);
+            }
+        }
+    }
+
+    private void sleepBeforeReopening() {
+        try {
+            Thread.sleep(REOPEN_DELAY_AFTER_FAILURE_MILLISECS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isStopped = true;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.WarmEngine;
+import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import dev.galasa.framework.spi.DssSwap;
+import dev.galasa.framework.spi.DssUpdate;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.utils.ITimeService;
+import io.kubernetes.client.openapi.models.V1Pod;
+
+/**
+ * Keeps track of the warm engine pods of this controller. These are engine pods
+ * started without a run, which have started the JVM and loaded the framework, and
+ * are waiting in the DSS for a run to be handed to them (see {@link WarmEngine}).
+ *
+ * Warm engine pods are test pods, so they count towards the maximum number of engines.
+ * A run handed to an idle engine uses the slot the engine already holds. When a run
+ * needs a new pod and there is no free slot, an idle engine is retired to make room.
+ *
+ * The pool is only used from the scheduling thread, and is refreshed from the test
+ * pods at the start of each scheduling pass.
+ */
+public class WarmEnginePool {
+
+    private final Log                        logger      = LogFactory.getLog(getClass());
+
+    private final IDynamicStatusStoreService dss;
+    private final ISettings                  settings;
+    private final KubernetesEngineFacade     kubeEngineFacade;
+    private final ITimeService               timeService;
+
+    // The idle engines, oldest first, as of the last refresh
+    private final LinkedList<V1Pod>          idleEngines = new LinkedList<>();
+    private int                              startingEngineCount;
+
+    // Slots given up by engines retired since the last refresh, which have not been used yet
+    private int                              freedSlots;
+
+    public WarmEnginePool(IDynamicStatusStoreService dss, ISettings settings, KubernetesEngineFacade kubeEngineFacade, ITimeService timeService) {
+        this.dss = dss;
+        this.settings = settings;
+        this.kubeEngineFacade = kubeEngineFacade;
+        this.timeService = timeService;
+    }
+
+    /**
+     * Works out which warm engines are idle, and retires those which have ended, have
+     * been waiting longer than the idle timeout or are no longer needed because the
+     * pool has been made smaller.
+     *
+     * @param testPods all the test pods
+     * @return the test pods, without those which have been retired
+     */
+    public List<V1Pod> refresh(List<V1Pod> testPods) throws DynamicStatusStoreException {
+        idleEngines.clear();
+        startingEngineCount = 0;
+        freedSlots = 0;
+
+        List<V1Pod> remainingPods = new ArrayList<>(testPods);
+        List<V1Pod> warmPods = getUnclaimedWarmPods(testPods);
+        if (warmPods.isEmpty() && settings.getWarmEnginePoolSize() <= 0) {
+            return remainingPods;
+        }
+
+        Map<String, String> engineProperties = dss.getPrefix(WarmEngine.DSS_PREFIX);
+        Instant idleDeadline = timeService.now().minusSeconds(settings.getWarmEngineIdleTimeoutSeconds());
+        List<V1Pod> terminatedPods = kubeEngineFacade.getTerminatedPods(warmPods);
+
+        warmPods.sort(Comparator.comparing(this::getCreationTime));
+        for (V1Pod pod : warmPods) {
+            String engineName = pod.getMetadata().getName();
+            String state = engineProperties.get(WarmEngine.getPropertyKey(engineName, WarmEngine.STATE_SUFFIX));
+
+            if (WarmEngine.CLAIMED_STATE.equals(state)) {
+                // The run was handed over, but labelling the pod with the run failed
+                String runName = engineProperties.get(WarmEngine.getPropertyKey(engineName, WarmEngine.RUN_SUFFIX));
+                labelPodWithRun(engineName, runName);
+            } else if (terminatedPods.contains(pod)) {
+                logger.info("Deleting warm engine pod " + engineName + " as it has ended without a run");
+                kubeEngineFacade.deletePod(pod);
+                remainingPods.remove(pod);
+            } else if (getCreationTime(pod).isBefore(idleDeadline)) {
+                logger.info("Retiring warm engine pod " + engineName + " as it has not been handed a run within "
+                    + settings.getWarmEngineIdleTimeoutSeconds() + " seconds");
+                if (retire(pod, state)) {
+                    remainingPods.remove(pod);
+                }
+            } else if (WarmEngine.IDLE_STATE.equals(state)) {
+                idleEngines.add(pod);
+            } else if (state == null) {
+                startingEngineCount++;
+            }
+        }
+
+        // Retire the oldest idle engines if the pool has been made smaller. The slots these
+        // free are already accounted for, as the retired pods are not returned.
+        while (!idleEngines.isEmpty() && getWarmEngineCount() > settings.getWarmEnginePoolSize()) {
+            V1Pod pod = idleEngines.removeFirst();
+            logger.info("Retiring warm engine pod " + pod.getMetadata().getName() + " as the pool is larger than "
+                + settings.getWarmEnginePoolSize());
+            if (retire(pod, WarmEngine.IDLE_STATE)) {
+                remainingPods.remove(pod);
+            }
+        }
+        freedSlots = 0;
+
+        deletePropertiesOfMissingEngines(engineProperties, testPods);
+        return remainingPods;
+    }
+
+    /**
+     * @return the number of idle engines which runs can be handed to
+     */
+    public int getIdleEngineCount() {
+        return idleEngines.size();
+    }
+
+    /**
+     * @return the number of warm engines, whether they are idle yet or still starting
+     */
+    public int getWarmEngineCount() {
+        return idleEngines.size() + startingEngineCount;
+    }
+
+    /**
+     * Records that a new warm engine pod has been created
+     */
+    public void addStartingEngine() {
+        startingEngineCount++;
+    }
+
+    /**
+     * Hands a run which has been allocated to this controller to an idle engine
+     *
+     * @return true if an engine has taken the run, false if there is no idle engine to take it
+     */
+    public boolean handOff(IRun run) {
+        boolean isHandedOff = false;
+        String runName = run.getName();
+        while (!isHandedOff && !idleEngines.isEmpty()) {
+            String engineName = idleEngines.removeFirst().getMetadata().getName();
+            try {
+                dss.performActions(
+                    new DssSwap(WarmEngine.getPropertyKey(engineName, WarmEngine.STATE_SUFFIX), WarmEngine.IDLE_STATE, WarmEngine.CLAIMED_STATE),
+                    new DssUpdate(WarmEngine.getPropertyKey(engineName, WarmEngine.RUN_SUFFIX), runName));
+                isHandedOff = true;
+                logger.info("Run " + runName + " handed to warm engine pod " + engineName);
+
+                labelPodWithRun(engineName, runName);
+            } catch (DynamicStatusStoreMatchException e) {
+                logger.info("Warm engine pod " + engineName + " is no longer idle");
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Failed to hand run " + runName + " to warm engine pod " + engineName, e);
+            }
+        }
+        return isHandedOff;
+    }
+
+    /**
+     * Frees an engine slot for a run which needs a new pod, by retiring an idle engine if need be
+     *
+     * @return true if a slot has been freed
+     */
+    public boolean freeSlot() {
+        while (freedSlots == 0 && !idleEngines.isEmpty()) {
+            V1Pod pod = idleEngines.removeLast();
+            logger.info("Retiring warm engine pod " + pod.getMetadata().getName() + " to make room for a new engine pod");
+            retire(pod, WarmEngine.IDLE_STATE);
+        }
+
+        boolean isFreed = false;
+        if (freedSlots > 0) {
+            freedSlots--;
+            isFreed = true;
+        }
+        return isFreed;
+    }
+
+    private List<V1Pod> getUnclaimedWarmPods(List<V1Pod> testPods) {
+        List<V1Pod> warmPods = new ArrayList<>();
+        for (V1Pod pod : testPods) {
+            Map<String, String> labels = pod.getMetadata().getLabels();
+            if (labels != null
+                    && "true".equals(labels.get(TestPodKubeLabels.WARM_ENGINE.toString()))
+                    && settings.getEngineLabel().equals(labels.get(TestPodKubeLabels.ENGINE_CONTROLLER.toString()))
+                    && labels.get(TestPodKubeLabels.GALASA_RUN.toString()) == null) {
+                warmPods.add(pod);
+            }
+        }
+        return warmPods;
+    }
+
+    private Instant getCreationTime(V1Pod pod) {
+        OffsetDateTime creationTimestamp = pod.getMetadata().getCreationTimestamp();
+        Instant creationTime;
+        if (creationTimestamp == null) {
+            // Not reported by Kubernetes yet, so the pod has only just been created
+            creationTime = timeService.now();
+        } else {
+            creationTime = creationTimestamp.toInstant();
+        }
+        return creationTime;
+    }
+
+    /**
+     * Tells the engine it will not be handed a run and deletes its pod. The state is swapped
+     * first, so an engine being retired can never also be handed a run.
+     */
+    private boolean retire(V1Pod pod, String state) {
+        boolean isRetired = false;
+        String engineName = pod.getMetadata().getName();
+        String stateKey = WarmEngine.getPropertyKey(engineName, WarmEngine.STATE_SUFFIX);
+        try {
+            isRetired = dss.putSwap(stateKey, state, WarmEngine.RETIRED_STATE);
+            if (!isRetired && state == null) {
+                // The engine became idle after the states were read
+                isRetired = dss.putSwap(stateKey, WarmEngine.IDLE_STATE, WarmEngine.RETIRED_STATE);
+            }
+        } catch (DynamicStatusStoreException e) {
+            logger.error("Failed to retire warm engine pod " + engineName, e);
+        }
+
+        if (isRetired) {
+            kubeEngineFacade.deletePod(pod);
+            freedSlots++;
+        }
+        return isRetired;
+    }
+
+    private void labelPodWithRun(String engineName, String runName) {
+        if (runName != null) {
+            Map<String, String> labels = new HashMap<>();
+            labels.put(TestPodKubeLabels.GALASA_RUN.toString(), runName);
+            try {
+                kubeEngineFacade.addPodLabels(engineName, labels);
+            } catch (Exception e) {
+                logger.error("Failed to label warm engine pod " + engineName + " with run " + runName + ", will retry later", e);
+            }
+        }
+    }
+
+    private void deletePropertiesOfMissingEngines(Map<String, String> engineProperties, List<V1Pod> testPods) throws DynamicStatusStoreException {
+        Set<String> podNames = new HashSet<>();
+        for (V1Pod pod : testPods) {
+            podNames.add(pod.getMetadata().getName());
+        }
+
+        Set<String> missingEngines = new HashSet<>();
+        for (String key : engineProperties.keySet()) {
+            String engineAndSuffix = key.substring(WarmEngine.DSS_PREFIX.length());
+            int lastDot = engineAndSuffix.lastIndexOf('.');
+            if (lastDot > 0) {
+                String engineName = engineAndSuffix.substring(0, lastDot);
+                if (!podNames.contains(engineName)) {
+                    missingEngines.add(engineName);
+                }
+            }
+        }
+
+        for (String engineName : missingEngines) {
+            dss.deletePrefix(WarmEngine.DSS_PREFIX + engineName + ".");
+        }
+    }
+}
@@ -7,10 +7,12 @@ package dev.galasa.framework.k8s.controller.api;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.util.Watchable;
 
 public interface IKubernetesApiClient {
     List<V1Pod> getPods(String namespace, String labelSelector) throws ApiException;
@@ -20,4 +22,8 @@ public interface IKubernetesApiClient {
     V1Pod createNamespacedPod(String namespace, V1Pod newPodDefinition) throws ApiException;
 
     V1ConfigMap readNamespacedConfigMap(String configMapName, String namespace) throws ApiException;
+
+    V1Pod addPodLabels(String namespace, String podName, Map<String, String> labels) throws ApiException;
+
+    Watchable<V1Pod> watchPods(String namespace, String labelSelector) throws ApiException;
 }
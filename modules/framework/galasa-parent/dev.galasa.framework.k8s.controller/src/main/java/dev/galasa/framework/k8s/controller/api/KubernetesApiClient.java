@@ -7,23 +7,44 @@ package dev.galasa.framework.k8s.controller.api;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
 
 import io.kubernetes.client.ProtoClient;
+import io.kubernetes.client.custom.V1Patch;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1PodList;
 import io.kubernetes.client.proto.V1.Namespace;
+import io.kubernetes.client.util.PatchUtils;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
 
 public class KubernetesApiClient implements IKubernetesApiClient {
 
+    // Kubernetes ends each watch after this long, and it is then opened again
+    private static final int POD_WATCH_TIMEOUT_SECONDS = 300;
+
     private CoreV1Api api;
+    private CoreV1Api watchApi;
     private ProtoClient protoClient;
 
     public KubernetesApiClient(CoreV1Api api, ProtoClient protoClient) {
+        this(api, protoClient, api);
+    }
+
+    /**
+     * @param watchApi the API to open watches with. Watches wait a long time between events,
+     *                 so this should use a client without a read timeout.
+     */
+    public KubernetesApiClient(CoreV1Api api, ProtoClient protoClient, CoreV1Api watchApi) {
         this.api = api;
         this.protoClient = protoClient;
+        this.watchApi = watchApi;
     }
 
     @Override
@@ -50,4 +71,34 @@ public class KubernetesApiClient implements IKubernetesApiClient {
     public V1ConfigMap readNamespacedConfigMap(String configMapName, String namespace) throws ApiException {
         return api.readNamespacedConfigMap(configMapName, namespace).pretty("true").execute();
     }
+
+    @Override
+    public V1Pod addPodLabels(String namespace, String podName, Map<String, String> labels) throws ApiException {
+        JsonObject labelsJson = new JsonObject();
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            labelsJson.addProperty(label.getKey(), label.getValue());
+        }
+        JsonObject metadataJson = new JsonObject();
+        metadataJson.add("labels", labelsJson);
+        JsonObject patchJson = new JsonObject();
+        patchJson.add("metadata", metadataJson);
+
+        V1Patch patch = new V1Patch(patchJson.toString());
+        return PatchUtils.patch(V1Pod.class,
+            () -> api.patchNamespacedPod(podName, namespace, patch).buildCall(null),
+            V1Patch.PATCH_FORMAT_JSON_MERGE_PATCH,
+            api.getApiClient());
+    }
+
+    @Override
+    public Watchable<V1Pod> watchPods(String namespace, String labelSelector) throws ApiException {
+        return Watch.createWatch(
+            watchApi.getApiClient(),
+            watchApi.listNamespacedPod(namespace)
+                .labelSelector(labelSelector)
+                .timeoutSeconds(POD_WATCH_TIMEOUT_SECONDS)
+                .watch(true)
+                .buildCall(null),
+            new TypeToken<Watch.Response<V1Pod>>(){}.getType());
+    }
 }
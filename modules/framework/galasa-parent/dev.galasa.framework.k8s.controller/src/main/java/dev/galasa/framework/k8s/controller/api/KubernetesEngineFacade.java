@@ -8,6 +8,7 @@ package dev.galasa.framework.k8s.controller.api;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.validation.constraints.NotNull;
 
@@ -21,6 +22,7 @@ import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1ContainerStatus;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1PodStatus;
+import io.kubernetes.client.util.Watchable;
 
 public class KubernetesEngineFacade {
 
@@ -56,6 +58,17 @@ public class KubernetesEngineFacade {
         return pods;
     }
 
+    /**
+     * Watches the test pods of this Galasa service for changes. The caller must close the watch.
+     */
+    public Watchable<V1Pod> watchTestPods() throws K8sControllerException {
+        try {
+            return apiClient.watchPods(namespace, TestPodKubeLabels.GALASA_SERVICE_NAME.toString() + "=" + this.galasaServiceInstallName);
+        } catch (Exception e) {
+            throw new K8sControllerException("Failed to watch pods", e);
+        }
+    }
+
     public V1Pod getTestPod(String runName) throws K8sControllerException {
         List<V1Pod> pods = new LinkedList<>();
         try {
@@ -116,6 +129,10 @@ public class KubernetesEngineFacade {
         return terminatedPods;
     }
 
+    public boolean isPodTerminated(V1Pod pod) {
+        return !isPodActive(pod);
+    }
+
     private boolean isPodActive(V1Pod pod) {
         boolean isActive = false;
         V1PodStatus status = pod.getStatus();
@@ -136,6 +153,10 @@ public class KubernetesEngineFacade {
         return pod;
     }
 
+    public V1Pod addPodLabels(String podName, Map<String, String> labels) throws ApiException {
+        return apiClient.addPodLabels(namespace, podName, labels);
+    }
+
     public V1ConfigMap getConfigMap(String configMapName) throws K8sControllerException {
         V1ConfigMap map ;
         try {
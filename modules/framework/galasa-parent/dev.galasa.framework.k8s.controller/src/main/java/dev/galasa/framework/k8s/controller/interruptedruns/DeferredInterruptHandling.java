@@ -0,0 +1,77 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.interruptedruns;
+
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Handles interrupted runs again once a delay has passed, such as the cleanup grace period
+ * after which the pods of interrupted runs can be deleted.
+ *
+ * Only one deferred pass is pending at a time. Requests made while a pass is pending are
+ * merged into it, but if a request is due later than the pending pass, then the pass is
+ * re-armed for the later time once it has run. This means a run interrupted just after
+ * another one is still handled when its own delay has passed.
+ */
+public class DeferredInterruptHandling {
+
+    private final Runnable interruptHandler;
+    private final ScheduledExecutorService scheduler;
+    private final ITimeService timeService;
+
+    // The time the pending pass is due to run, or null if no pass is pending
+    private Instant scheduledDueTime;
+
+    // The latest time at which a requested pass is due
+    private Instant latestDueTime;
+
+    public DeferredInterruptHandling(Runnable interruptHandler, ScheduledExecutorService scheduler, ITimeService timeService) {
+        this.interruptHandler = interruptHandler;
+        this.scheduler = scheduler;
+        this.timeService = timeService;
+    }
+
+    /**
+     * Requests that interrupted runs are handled once the given delay has passed.
+     *
+     * @param delayMillis how long to wait before handling interrupted runs
+     */
+    public synchronized void request(long delayMillis) {
+        Instant dueTime = timeService.now().plusMillis(delayMillis);
+        if (latestDueTime == null || dueTime.isAfter(latestDueTime)) {
+            latestDueTime = dueTime;
+        }
+
+        if (scheduledDueTime == null) {
+            schedulePass(dueTime);
+        }
+    }
+
+    private void schedulePass(Instant dueTime) {
+        scheduledDueTime = dueTime;
+        long delayMillis = Math.max(0, dueTime.toEpochMilli() - timeService.now().toEpochMilli());
+        scheduler.schedule(this::runPass, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runPass() {
+        try {
+            interruptHandler.run();
+        } finally {
+            synchronized (this) {
+                if (latestDueTime.isAfter(scheduledDueTime)) {
+                    schedulePass(latestDueTime);
+                } else {
+                    scheduledDueTime = null;
+                    latestDueTime = null;
+                }
+            }
+        }
+    }
+}
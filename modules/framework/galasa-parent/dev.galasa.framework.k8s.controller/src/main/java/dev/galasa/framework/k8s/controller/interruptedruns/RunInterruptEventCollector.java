@@ -16,6 +16,7 @@ import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.k8s.controller.ISettings;
 
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import dev.galasa.framework.k8s.controller.scheduling.RunIndex;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFrameworkRuns;
 import dev.galasa.framework.spi.IRun;
@@ -38,18 +39,31 @@ public class RunInterruptEventCollector {
     private final KubernetesEngineFacade kubeApi;
     private final ISettings settings ;
     private final ITimeService timeService;
-    
+
+    // Used to find interrupted runs without reading every run from the DSS, null if the DSS is not being watched
+    private final RunIndex runIndex;
 
     public RunInterruptEventCollector(
         KubernetesEngineFacade kubeApi,
         IFrameworkRuns runs,
         ISettings settings,
         ITimeService timeService
+    ) {
+        this(kubeApi, runs, settings, timeService, null);
+    }
+
+    public RunInterruptEventCollector(
+        KubernetesEngineFacade kubeApi,
+        IFrameworkRuns runs,
+        ISettings settings,
+        ITimeService timeService,
+        RunIndex runIndex
     ) {
         this.runs = runs;
         this.kubeApi = kubeApi;
         this.settings = settings;
         this.timeService = timeService;
+        this.runIndex = runIndex;
     }
 
 
@@ -138,8 +152,7 @@ public class RunInterruptEventCollector {
 
     private List<RunInterruptEvent> getInterruptedRunEvents() throws FrameworkException {
         List<RunInterruptEvent> interruptedRunEvents = new ArrayList<>();
-        List<IRun> allRuns = runs.getAllRuns();
-        for (IRun run : allRuns) {
+        for (IRun run : getInterruptedRuns()) {
             String runName = run.getName();
             String runInterruptReason = run.getInterruptReason();
             Instant runInterruptedAt = run.getInterruptedAt();
@@ -155,6 +168,26 @@ public class RunInterruptEventCollector {
         return interruptedRunEvents;
     }
 
+    private List<IRun> getInterruptedRuns() throws FrameworkException {
+        List<IRun> interruptedRuns;
+        if (runIndex == null) {
+            interruptedRuns = runs.getAllRuns();
+        } else {
+            interruptedRuns = new ArrayList<>();
+            for (IRun indexedRun : runIndex.getAllRuns()) {
+                if (indexedRun.getInterruptReason() != null) {
+                    // The index may be a moment behind the DSS, for example just after this run was
+                    // cleaned up, so read the run from the DSS before acting on it
+                    IRun run = runs.getRun(indexedRun.getName());
+                    if (run != null) {
+                        interruptedRuns.add(run);
+                    }
+                }
+            }
+        }
+        return interruptedRuns;
+    }
+
 
 
 
@@ -9,6 +9,7 @@ import java.util.List;
 import dev.galasa.framework.RunRasActionProcessor;
 import dev.galasa.framework.k8s.controller.Settings;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import dev.galasa.framework.k8s.controller.scheduling.RunIndex;
 import dev.galasa.framework.spi.IFrameworkRuns;
 import dev.galasa.framework.spi.IResultArchiveStore;
 import dev.galasa.framework.spi.IRunRasActionProcessor;
@@ -33,17 +34,18 @@ public class RunInterruptHandler implements Runnable {
     RunInterruptEventCollector runInterruptWatcher;
 
     public RunInterruptHandler(KubernetesEngineFacade kubeEngineFacade, IFrameworkRuns frameworkRuns, Settings settings,
-            ITimeService timeService, IResultArchiveStore ras) {
+            ITimeService timeService, IResultArchiveStore ras, RunIndex runIndex) {
 
-        runInterruptWatcher = new RunInterruptEventCollector(kubeEngineFacade, frameworkRuns, settings, timeService);
+        runInterruptWatcher = new RunInterruptEventCollector(kubeEngineFacade, frameworkRuns, settings, timeService, runIndex);
 
         IRunRasActionProcessor rasActionProcessor = new RunRasActionProcessor(ras);
         PodDeleter deleter = new PodDeleter(kubeEngineFacade);
         interruptEventProcessor = new RunInterruptEventProcessor(frameworkRuns, rasActionProcessor, kubeEngineFacade, ras, deleter);
     }
 
+    // Synchronized as interrupts can be handled as soon as they are seen, as well as periodically
     @Override
-    public void run() {
+    public synchronized void run() {
         // Build up records in the queue.
         List<RunInterruptEvent> interruptedRunEvents = runInterruptWatcher.collectInterruptRunEvents();
 
@@ -0,0 +1,25 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+import java.util.List;
+
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IRun;
+
+/**
+ * Something which can supply the test runs that are currently queued, waiting to be scheduled.
+ */
+public interface IQueuedRunsProvider {
+
+    /**
+     * Get the test runs that are currently queued.
+     * 
+     * @return                    a modifiable list of queued test runs, in no particular order
+     * @throws FrameworkException if there was an issue getting the queued runs
+     */
+    List<IRun> getQueuedRuns() throws FrameworkException;
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+/**
+ * Something which wants to be told when the status of a run held in a {@link RunIndex} changes,
+ * or when a run is interrupted.
+ * 
+ * Listeners are called on the DSS watch thread, so they must not block for long.
+ */
+public interface IRunIndexListener {
+
+    /**
+     * Called when a run's status changes in the DSS.
+     * 
+     * @param runName   the name of the run whose status has changed
+     * @param newStatus the new status of the run, or null if the run's status has been deleted
+     */
+    void runStatusChanged(String runName, String newStatus);
+
+    /**
+     * Called when an interrupt reason is set on a run in the DSS.
+     * 
+     * @param runName         the name of the run which has been interrupted
+     * @param interruptReason the reason the run was interrupted
+     */
+    default void runInterrupted(String runName, String interruptReason) {
+    }
+}
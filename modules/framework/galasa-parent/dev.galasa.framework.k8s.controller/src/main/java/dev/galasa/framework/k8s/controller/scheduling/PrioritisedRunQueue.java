@@ -0,0 +1,201 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * An ordered collection of queued runs which is kept in priority order as runs are
+ * added, re-scored and removed, so that the whole queue does not need to be sorted
+ * every time the scheduler polls.
+ *
+ * A run's total priority at time t is:
+ *   staticPoints + (growthRatePerMin * minutes between the run being queued and t)
+ *
+ * Every run's priority grows at the same rate, so the order of two runs never changes
+ * as time passes. That means each run can be ordered by a rank which does not depend
+ * on the current time at all:
+ *   staticPoints - (growthRatePerMin * minutes between the epoch and the run being queued)
+ *
+ * A run without a queued time is treated as if it was queued when it was first added
+ * to the queue.
+ *
+ * Adding, re-scoring or removing a run is O(log n). Only a change to the growth rate
+ * requires every run to be re-ranked.
+ *
+ * This class is not thread-safe.
+ */
+public class PrioritisedRunQueue {
+
+    private static final double MILLIS_PER_MINUTE = 60 * 1000.0;
+
+    private static class QueuedRunEntry {
+        private IRun run;
+        private final Instant queuedTime;
+        private final double staticPoints;
+
+        // The queued time, or the time the run was first added to the queue if it has no queued time
+        private final Instant rankedTime;
+
+        // Used to keep runs with the same rank in the order they were added to the queue
+        private final long sequenceNumber;
+        private double rank;
+
+        QueuedRunEntry(IRun run, double staticPoints, long sequenceNumber, Instant timeAdded) {
+            this.run = run;
+            this.queuedTime = run.getQueued();
+            this.staticPoints = staticPoints;
+            this.sequenceNumber = sequenceNumber;
+            this.rankedTime = queuedTime != null ? queuedTime : timeAdded;
+        }
+    }
+
+    // Highest rank first, then oldest entry first
+    private static final Comparator<QueuedRunEntry> RANK_COMPARATOR = Comparator
+        .comparingDouble((QueuedRunEntry entry) -> entry.rank).reversed()
+        .thenComparingLong(entry -> entry.sequenceNumber);
+
+    private final Map<String, QueuedRunEntry> entriesByRunName = new HashMap<>();
+    private TreeSet<QueuedRunEntry> orderedEntries = new TreeSet<>(RANK_COMPARATOR);
+
+    private final ITimeService timeService;
+
+    private double growthRatePerMin;
+    private long nextSequenceNumber = 0;
+
+    public PrioritisedRunQueue(double growthRatePerMin, ITimeService timeService) {
+        this.growthRatePerMin = growthRatePerMin;
+        this.timeService = timeService;
+    }
+
+    public double getGrowthRatePerMin() {
+        return growthRatePerMin;
+    }
+
+    /**
+     * Changes the rate at which the priority of queued runs grows over time. All the
+     * runs in the queue are re-ranked if the rate has changed.
+     *
+     * @param newGrowthRatePerMin the new growth rate, in priority points per minute
+     */
+    public void setGrowthRatePerMin(double newGrowthRatePerMin) {
+        if (Double.compare(newGrowthRatePerMin, growthRatePerMin) != 0) {
+            this.growthRatePerMin = newGrowthRatePerMin;
+
+            TreeSet<QueuedRunEntry> reorderedEntries = new TreeSet<>(RANK_COMPARATOR);
+            for (QueuedRunEntry entry : entriesByRunName.values()) {
+                entry.rank = calculateRank(entry);
+                reorderedEntries.add(entry);
+            }
+            this.orderedEntries = reorderedEntries;
+        }
+    }
+
+    public boolean contains(String runName) {
+        return entriesByRunName.containsKey(runName);
+    }
+
+    /**
+     * @param runName the name of the run
+     * @return the static priority points that the run was last added with, or null if the run is not queued
+     */
+    public Double getStaticPoints(String runName) {
+        Double staticPoints = null;
+        QueuedRunEntry entry = entriesByRunName.get(runName);
+        if (entry != null) {
+            staticPoints = entry.staticPoints;
+        }
+        return staticPoints;
+    }
+
+    /**
+     * Adds a run to the queue, or re-positions it if it is already in the queue and its
+     * queued time or static priority points have changed.
+     *
+     * @param run the run to add
+     * @param staticPoints the priority points given to the run that do not change over time
+     */
+    public void put(IRun run, double staticPoints) {
+        QueuedRunEntry existingEntry = entriesByRunName.get(run.getName());
+        if (existingEntry != null
+            && Objects.equals(existingEntry.queuedTime, run.getQueued())
+            && Double.compare(existingEntry.staticPoints, staticPoints) == 0
+        ) {
+            // The run is already in the right place, so just hold on to the latest copy of it
+            existingEntry.run = run;
+        } else {
+            long sequenceNumber;
+            Instant timeAdded;
+            if (existingEntry != null) {
+                orderedEntries.remove(existingEntry);
+                sequenceNumber = existingEntry.sequenceNumber;
+                timeAdded = existingEntry.rankedTime;
+            } else {
+                sequenceNumber = nextSequenceNumber++;
+                timeAdded = timeService.now();
+            }
+
+            QueuedRunEntry newEntry = new QueuedRunEntry(run, staticPoints, sequenceNumber, timeAdded);
+            newEntry.rank = calculateRank(newEntry);
+
+            entriesByRunName.put(run.getName(), newEntry);
+            orderedEntries.add(newEntry);
+        }
+    }
+
+    public void remove(String runName) {
+        QueuedRunEntry entry = entriesByRunName.remove(runName);
+        if (entry != null) {
+            orderedEntries.remove(entry);
+        }
+    }
+
+    /**
+     * Removes every run from the queue apart from the given ones.
+     *
+     * @param runNamesToKeep the names of the runs to keep in the queue
+     */
+    public void retainAll(Set<String> runNamesToKeep) {
+        Set<String> runNamesToRemove = new HashSet<>(entriesByRunName.keySet());
+        runNamesToRemove.removeAll(runNamesToKeep);
+
+        for (String runName : runNamesToRemove) {
+            remove(runName);
+        }
+    }
+
+    public int size() {
+        return entriesByRunName.size();
+    }
+
+    /**
+     * @return the queued runs, with the run that has the most priority points first
+     */
+    public List<IRun> getRunsInPriorityOrder() {
+        List<IRun> runs = new ArrayList<>(orderedEntries.size());
+        for (QueuedRunEntry entry : orderedEntries) {
+            runs.add(entry.run);
+        }
+        return runs;
+    }
+
+    private double calculateRank(QueuedRunEntry entry) {
+        double minutesSinceEpochWhenQueued = entry.rankedTime.toEpochMilli() / MILLIS_PER_MINUTE;
+        return entry.staticPoints - (growthRatePerMin * minutesSinceEpochWhenQueued);
+    }
+}
@@ -5,21 +5,24 @@
  */
 package dev.galasa.framework.k8s.controller.scheduling;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
 import dev.galasa.framework.spi.IFrameworkRuns;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.rbac.RBACException;
@@ -35,11 +38,17 @@ import dev.galasa.framework.spi.utils.ITimeService;
  * which is calculated using a set of criteria, including:
  * 
  * - The number of minutes that have passed since the test run was queued
+ * - The priority of the user who submitted the test run
+ * - The priority of the tags that the test run has
  * 
  * The queued test runs are then ordered so that the test run with the most priority 
  * points comes first and the one with the fewest points comes last.
+ * 
+ * The queued test runs are held in a {@link PrioritisedRunQueue} between calls, so a
+ * run is only scored when it is first queued or when something that its score depends
+ * on has changed.
  */
-public class PrioritySchedulingService implements IPrioritySchedulingService {
+public class PrioritySchedulingService implements IPrioritySchedulingService, IDynamicStatusStoreWatcher {
 
     public static final double DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN = 1;
 
@@ -48,13 +57,27 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
     private static final String RUNS_PRIORITY_GROWTH_RATE_CPS_PROPERTY_KEY =
         "framework." + RUNS_PRIORITY_GROWTH_RATE_CPS_PROPERTY_PREFIX + "." + RUNS_PRIORITY_GROWTH_RATE_CPS_PROPERTY_SUFFIX;
 
+    // The RBAC service caches user priorities in the DSS using keys of the form:
+    // user.<loginId>.priority
+    private static final String USER_PROPERTY_PREFIX = "user.";
+    private static final String USER_PRIORITY_PROPERTY_SUFFIX = ".priority";
+
     private final Log logger = LogFactory.getLog(getClass());
 
-    private IFrameworkRuns frameworkRuns;
+    private IQueuedRunsProvider queuedRunsProvider;
     private IConfigurationPropertyStoreService cps;
-    private ITimeService timeService;
     private RBACService rbacService;
     private ITagsService tagsService;
+
+    private final PrioritisedRunQueue runQueue;
+    private Map<String, Tag> tagsByName = new HashMap<>();
+
+    // Requestors whose cached priority has changed since runs were last prioritised
+    private final Set<String> changedRequestors = ConcurrentHashMap.newKeySet();
+    private volatile boolean isRescoreAllRequired = false;
+
+    private IDynamicStatusStoreService rbacDss;
+    private volatile UUID userPrioritiesWatchId;
     
     public PrioritySchedulingService(
         IFrameworkRuns frameworkRuns,
@@ -63,59 +86,156 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
         ITimeService timeService,
         ITagsService tagsService
     ) {
-        this.frameworkRuns = frameworkRuns;
+        this(frameworkRuns::getQueuedRuns, cps, rbacService, timeService, tagsService);
+    }
+
+    public PrioritySchedulingService(
+        IQueuedRunsProvider queuedRunsProvider,
+        IConfigurationPropertyStoreService cps,
+        RBACService rbacService,
+        ITimeService timeService,
+        ITagsService tagsService
+    ) {
+        this.queuedRunsProvider = queuedRunsProvider;
         this.rbacService = rbacService;
         this.cps = cps;
-        this.timeService = timeService;
         this.tagsService = tagsService;
+        this.runQueue = new PrioritisedRunQueue(DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN, timeService);
     }
 
+    /**
+     * Starts watching the cached user priorities in the RBAC DSS namespace, so that runs are only
+     * re-scored when their requestor's priority may have changed. Until this is called, the
+     * priority of every requestor is looked up again each time runs are prioritised.
+     *
+     * @param rbacDss the DSS namespace that the RBAC service caches user details in
+     * @throws DynamicStatusStoreException if the DSS could not be watched
+     */
+    public void startWatchingUserPriorities(IDynamicStatusStoreService rbacDss) throws DynamicStatusStoreException {
+        this.userPrioritiesWatchId = rbacDss.watchPrefix(this, USER_PROPERTY_PREFIX);
+        this.rbacDss = rbacDss;
+
+        // Anything cached before the watch started may be out of date
+        this.isRescoreAllRequired = true;
+    }
+
+    public void stopWatchingUserPriorities() throws DynamicStatusStoreException {
+        if (this.userPrioritiesWatchId != null) {
+            rbacDss.unwatch(this.userPrioritiesWatchId);
+            this.userPrioritiesWatchId = null;
+        }
+    }
+
+    /**
+     * The RBAC service caches each user's priority in the DSS and removes it when the user's
+     * details change, so any event on a user's priority key means that runs submitted by
+     * that user need to be re-scored. This is called on the DSS watch thread.
+     */
     @Override
-    public List<IRun> getPrioritisedTestRunsToSchedule() throws FrameworkException {
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        if (key != null && key.startsWith(USER_PROPERTY_PREFIX) && key.endsWith(USER_PRIORITY_PROPERTY_SUFFIX)) {
+            String loginId = key.substring(USER_PROPERTY_PREFIX.length(), key.length() - USER_PRIORITY_PROPERTY_SUFFIX.length());
+            changedRequestors.add(loginId);
+        }
+    }
+
+    @Override
+    public synchronized List<IRun> getPrioritisedTestRunsToSchedule() throws FrameworkException {
         List<IRun> queuedRuns = getQueuedRemoteRuns();
 
-        // Collect all tags for queued runs from the CPS now so that we don't need to
-        // repeatedly query the CPS when sorting the queued runs.
-        Map<String, Tag> queuedRunTags = getAllQueuedRunTagsFromCps(queuedRuns);
+        // Anything that can change a run's score is only looked up once per call
+        runQueue.setGrowthRatePerMin(getPriorityGrowthRatePerMin());
+
+        Set<String> changedTagNames = refreshTagPriorities();
+        Set<String> changedRequestorNames = getChangedRequestors();
+        boolean isRescoreAll = isRescoreAllRequired || userPrioritiesWatchId == null;
+        isRescoreAllRequired = false;
+
+        // Each requestor's priority is only looked up once per call
+        Map<String, Integer> requestorPriorities = new HashMap<>();
 
-        // Pre-compute each run's total priority score once, before sorting begins.
-        Map<String, Double> queuedRunScores = new HashMap<>();
+        Set<String> queuedRunNames = new HashSet<>();
         for (IRun run : queuedRuns) {
-            double score = getQueuedRunTotalPriorityPoints(run, queuedRunTags);
-            queuedRunScores.put(run.getName(), score);
-            logger.trace("Scheduling: run '" + run.getName() + "' pre-computed priority score: " + score);
+            String runName = run.getName();
+            queuedRunNames.add(runName);
+
+            Double staticPoints = runQueue.getStaticPoints(runName);
+            if (staticPoints == null
+                || isRescoreAll
+                || changedRequestorNames.contains(run.getRequestor())
+                || !Collections.disjoint(run.getTags(), changedTagNames)
+            ) {
+                staticPoints = getStaticPriorityPoints(run, requestorPriorities);
+                logger.trace("Scheduling: run '" + runName + "' static priority points: " + staticPoints);
+            }
+            runQueue.put(run, staticPoints);
         }
 
-        queuedRuns.sort(getPriorityComparator(queuedRunScores));
-        return queuedRuns;
+        // Runs that are no longer queued don't need to be scheduled
+        runQueue.retainAll(queuedRunNames);
+
+        return runQueue.getRunsInPriorityOrder();
     }
 
-    private Map<String, Tag> getAllQueuedRunTagsFromCps(List<IRun> queuedRuns) {
-        Set<String> tagNamesSet = new HashSet<>();
-        for (IRun run : queuedRuns) {
-            tagNamesSet.addAll(run.getTags());
+    private double getStaticPriorityPoints(IRun run, Map<String, Integer> requestorPriorities) {
+        String requestor = run.getRequestor();
+        Integer requestorPoints = requestorPriorities.get(requestor);
+        if (requestorPoints == null) {
+            requestorPoints = getRequestorPriorityPoints(requestor);
+            requestorPriorities.put(requestor, requestorPoints);
         }
+        return requestorPoints + getPriorityPointsFromTags(run.getTags(), tagsByName);
+    }
+
+    private Set<String> getChangedRequestors() {
+        Set<String> changedRequestorNames = new HashSet<>();
+
+        Iterator<String> changedRequestorsIterator = changedRequestors.iterator();
+        while (changedRequestorsIterator.hasNext()) {
+            changedRequestorNames.add(changedRequestorsIterator.next());
+            changedRequestorsIterator.remove();
+        }
+        return changedRequestorNames;
+    }
+
+    /**
+     * Reads all the tags from the CPS in one go and compares them with the tags read last time.
+     *
+     * @return the names of the tags whose priority has changed since the last time this was called
+     */
+    private Set<String> refreshTagPriorities() {
+        Set<String> changedTagNames = new HashSet<>();
+        try {
+            Map<String, Tag> latestTagsByName = new HashMap<>();
+            for (Tag tag : tagsService.getTags()) {
+                latestTagsByName.put(tag.getName(), tag);
+            }
 
-        Map<String, Tag> tagsFromCps = new HashMap<>();
-        for (String tagName : tagNamesSet) {
-            try {
-                Tag tag = tagsService.getTagByName(tagName);
-                if (tag != null) {
-                    tagsFromCps.put(tagName, tag);
+            Set<String> allTagNames = new HashSet<>(tagsByName.keySet());
+            allTagNames.addAll(latestTagsByName.keySet());
+            for (String tagName : allTagNames) {
+                if (getTagPriority(tagsByName.get(tagName)) != getTagPriority(latestTagsByName.get(tagName))) {
+                    changedTagNames.add(tagName);
                 }
-            } catch (Exception e) {
-                logger.warn("Could not get tag " + tagName + ", ignoring tag priority");
             }
+
+            tagsByName = latestTagsByName;
+        } catch (Exception e) {
+            logger.warn("Could not get tags, using the tag priorities from the last time they were read");
         }
-        return tagsFromCps;
+        return changedTagNames;
     }
 
-    private Comparator<IRun> getPriorityComparator(Map<String, Double> queuedRunScores) {
-        return (a, b) -> Double.compare(queuedRunScores.get(b.getName()), queuedRunScores.get(a.getName()));
+    private int getTagPriority(Tag tag) {
+        int priority = 0;
+        if (tag != null) {
+            priority = tag.getPriority();
+        }
+        return priority;
     }
 
     private List<IRun> getQueuedRemoteRuns() throws FrameworkException {
-        List<IRun> queuedRuns = this.frameworkRuns.getQueuedRuns();
+        List<IRun> queuedRuns = this.queuedRunsProvider.getQueuedRuns();
 
         Iterator<IRun> queuedRunsIterator = queuedRuns.iterator();
         while (queuedRunsIterator.hasNext()) {
@@ -127,29 +247,6 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
         return queuedRuns;
     }
 
-    double getQueuedRunTotalPriorityPoints(IRun run, Map<String, Tag> queuedRunTags) {
-        double timePoints = getPriorityPointsFromQueuedTime(run.getQueued());
-        double requestorPoints = getRequestorPriorityPoints(run.getRequestor());
-        double tagPoints = getPriorityPointsFromTags(run.getTags(), queuedRunTags);
-        double totalPriorityPoints = timePoints + requestorPoints + tagPoints;
-
-        logger.trace("Scheduling: run '" + run.getName() + "' score breakdown:"
-            + " time=" + timePoints
-            + " requestor=" + requestorPoints
-            + " tags=" + tagPoints
-            + " total=" + totalPriorityPoints);
-
-        return totalPriorityPoints;
-    }
-
-    private double getPriorityPointsFromQueuedTime(Instant queuedTime) {
-        double priorityGrowthRatePerMin = getPriorityGrowthRatePerMin();
-        Instant currentTime = timeService.now();
-
-        double minutesElapsedSinceQueued = getMinutesBetween(queuedTime, currentTime);
-        return minutesElapsedSinceQueued * priorityGrowthRatePerMin;
-    }
-
     private double getPriorityPointsFromTags(Set<String> runTags, Map<String, Tag> collectedQueuedRunTags) {
         double priorityPointsFromTags = 0;
 
@@ -163,10 +260,6 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
         return priorityPointsFromTags;
     }
 
-    private double getMinutesBetween(Instant startTime, Instant endTime) {
-        return Duration.between(startTime, endTime).toMillis() / (60 * 1000.0);
-    }
-
     private int getRequestorPriorityPoints(String requestor) {
         int requestorPriority = 0;
         try {
@@ -0,0 +1,271 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.RunImpl;
+import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IRun;
+
+/**
+ * An in-memory copy of the run properties held in the DSS.
+ *
+ * The index is loaded in full from the DSS when it starts watching, and is then kept up to date
+ * from DSS watch events on the "run." prefix, so that the scheduler can find queued runs without
+ * going to the DSS on every poll.
+ *
+ * Watch events can be missed (for example, if the connection to etcd is lost for a while), so
+ * this class is also a Runnable which re-loads the whole index from the DSS each time it is run.
+ * It should be scheduled to run every so often as a safety net. Watch events which arrive while
+ * the index is being re-loaded are replayed onto the re-loaded index before it is used, so
+ * changes made during the re-load are not lost.
+ */
+public class RunIndex implements IQueuedRunsProvider, IDynamicStatusStoreWatcher, Runnable {
+
+    private static final String RUN_PREFIX = "run.";
+
+    // The keys we get from the DSS look something like this:
+    // run.U4657.status
+    private final Pattern runPropertyPattern = Pattern.compile("^run[.](\\w+)[.](.+)$");
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final IDynamicStatusStoreService dss;
+
+    // Run names mapped to the DSS properties of each run, keyed by their full DSS keys
+    private volatile Map<String, Map<String, String>> runPropertiesByRunName = new ConcurrentHashMap<>();
+
+    private final List<IRunIndexListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guards updates to the index, so that a re-load can swap in its new index without
+    // missing any watch events
+    private final Object indexUpdateLock = new Object();
+
+    // The watch events received while a re-load is in progress, or null if no re-load is in progress
+    private List<BufferedEvent> eventsDuringResync;
+
+    private static class BufferedEvent {
+        private final String runName;
+        private final String key;
+        private final String newValue;
+
+        BufferedEvent(String runName, String key, String newValue) {
+            this.runName = runName;
+            this.key = key;
+            this.newValue = newValue;
+        }
+    }
+
+    private UUID watchId;
+
+    public RunIndex(IDynamicStatusStoreService dss) {
+        this.dss = dss;
+    }
+
+    public void addListener(IRunIndexListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Starts watching the DSS for changes to runs, then loads the whole index.
+     * The watch is started first so that no changes are missed between the load and the watch starting.
+     *
+     * @throws DynamicStatusStoreException if the DSS could not be watched or read
+     */
+    public void startWatching() throws DynamicStatusStoreException {
+        this.watchId = dss.watchPrefix(this, RUN_PREFIX);
+        resync();
+    }
+
+    public void stopWatching() throws DynamicStatusStoreException {
+        if (this.watchId != null) {
+            dss.unwatch(this.watchId);
+            this.watchId = null;
+        }
+    }
+
+    /**
+     * Periodic full re-load of the index, in case any watch events were missed.
+     */
+    @Override
+    public void run() {
+        try {
+            resync();
+        } catch (Exception e) {
+            logger.error("Unable to re-load the run index from the DSS", e);
+        }
+    }
+
+    synchronized void resync() throws DynamicStatusStoreException {
+        logger.trace("Re-loading the run index from the DSS");
+
+        synchronized (indexUpdateLock) {
+            eventsDuringResync = new ArrayList<>();
+        }
+
+        try {
+            Map<String, Map<String, String>> newRunPropertiesByRunName = new ConcurrentHashMap<>();
+
+            Map<String, String> allRunProperties = dss.getPrefix(RUN_PREFIX);
+            for (Map.Entry<String, String> entry : allRunProperties.entrySet()) {
+                String key = entry.getKey();
+                Matcher matcher = runPropertyPattern.matcher(key);
+                if (matcher.find()) {
+                    String runName = matcher.group(1);
+                    putRunProperty(newRunPropertiesByRunName, runName, key, entry.getValue());
+                }
+            }
+
+            synchronized (indexUpdateLock) {
+                // The events are replayed in the order they arrived, so each property ends up with
+                // its latest value even if the read above had already seen some of the changes
+                for (BufferedEvent event : eventsDuringResync) {
+                    updateRunProperty(newRunPropertiesByRunName, event.runName, event.key, event.newValue);
+                }
+                this.runPropertiesByRunName = newRunPropertiesByRunName;
+            }
+            logger.trace("Re-loaded the run index from the DSS, " + newRunPropertiesByRunName.size() + " runs found");
+        } finally {
+            synchronized (indexUpdateLock) {
+                eventsDuringResync = null;
+            }
+        }
+    }
+
+    /**
+     * The DSS is telling us that a run property has changed. This is called on the
+     * DSS watch thread, so it only updates the in-memory index and returns quickly.
+     */
+    @Override
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        if (event != null && key != null) {
+            Matcher matcher = runPropertyPattern.matcher(key);
+            if (matcher.find()) {
+                String runName = matcher.group(1);
+                String suffix = matcher.group(2);
+
+                if (event == Event.DELETE) {
+                    newValue = null;
+                }
+
+                if (event == Event.DELETE || newValue != null) {
+                    synchronized (indexUpdateLock) {
+                        updateRunProperty(runPropertiesByRunName, runName, key, newValue);
+                        if (eventsDuringResync != null) {
+                            eventsDuringResync.add(new BufferedEvent(runName, key, newValue));
+                        }
+                    }
+                }
+
+                if (DssPropertyKeyRunNameSuffix.STATUS.toString().equals(suffix)) {
+                    notifyRunStatusChanged(runName, newValue);
+                } else if (DssPropertyKeyRunNameSuffix.INTERRUPT_REASON.toString().equals(suffix) && newValue != null) {
+                    notifyRunInterrupted(runName, newValue);
+                }
+            }
+        }
+    }
+
+    private void updateRunProperty(Map<String, Map<String, String>> index, String runName, String key, String newValue) {
+        if (newValue == null) {
+            removeRunProperty(index, runName, key);
+        } else {
+            putRunProperty(index, runName, key, newValue);
+        }
+    }
+
+    private void putRunProperty(Map<String, Map<String, String>> index, String runName, String key, String value) {
+        index.computeIfAbsent(runName, name -> new ConcurrentHashMap<>()).put(key, value);
+    }
+
+    private void removeRunProperty(Map<String, Map<String, String>> index, String runName, String key) {
+        index.computeIfPresent(runName, (name, runProperties) -> {
+            runProperties.remove(key);
+
+            // Returning null removes the run from the index
+            return runProperties.isEmpty() ? null : runProperties;
+        });
+    }
+
+    private void notifyRunStatusChanged(String runName, String newStatus) {
+        for (IRunIndexListener listener : listeners) {
+            try {
+                listener.runStatusChanged(runName, newStatus);
+            } catch (Exception e) {
+                logger.error("Run index listener failed to process a status change for run " + runName, e);
+            }
+        }
+    }
+
+    private void notifyRunInterrupted(String runName, String interruptReason) {
+        for (IRunIndexListener listener : listeners) {
+            try {
+                listener.runInterrupted(runName, interruptReason);
+            } catch (Exception e) {
+                logger.error("Run index listener failed to process an interrupt of run " + runName, e);
+            }
+        }
+    }
+
+    /**
+     * Gets a run from the index.
+     *
+     * @param runName the name of the run to get
+     * @return the run, or null if the index does not contain a run with the given name
+     */
+    public IRun getRun(String runName) {
+        IRun run = null;
+        Map<String, String> runProperties = runPropertiesByRunName.get(runName);
+        if (runProperties != null) {
+            run = new RunImpl(runName, new HashMap<>(runProperties));
+        }
+        return run;
+    }
+
+    /**
+     * @return all of the runs in the index
+     */
+    public List<IRun> getAllRuns() {
+        List<IRun> allRuns = new ArrayList<>();
+        for (Map.Entry<String, Map<String, String>> entry : runPropertiesByRunName.entrySet()) {
+            allRuns.add(new RunImpl(entry.getKey(), new HashMap<>(entry.getValue())));
+        }
+        return allRuns;
+    }
+
+    @Override
+    public List<IRun> getQueuedRuns() {
+        List<IRun> queuedRuns = new ArrayList<>();
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+
+        for (Map.Entry<String, Map<String, String>> entry : runPropertiesByRunName.entrySet()) {
+            String runName = entry.getKey();
+            Map<String, String> runProperties = entry.getValue();
+
+            String statusKey = RUN_PREFIX + runName + "." + DssPropertyKeyRunNameSuffix.STATUS;
+            if (queuedStatus.equals(runProperties.get(statusKey))) {
+                queuedRuns.add(new RunImpl(runName, new HashMap<>(runProperties)));
+            }
+        }
+        return queuedRuns;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockTimeService;
+
+public class PodLauncherTest {
+
+    @Test
+    public void testLaunchesAreStartedAtLeastTheIntervalApart() throws Exception {
+        // Given...
+        Instant startTime = Instant.now();
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        PodLauncher podLauncher = new PodLauncher(1, mockTimeService);
+
+        List<Instant> launchTimes = new ArrayList<>();
+
+        // When...
+        podLauncher.launch(() -> launchTimes.add(mockTimeService.now()), 200);
+        podLauncher.launch(() -> launchTimes.add(mockTimeService.now()), 200);
+        podLauncher.launch(() -> launchTimes.add(mockTimeService.now()), 200);
+        podLauncher.close();
+
+        // Then...
+        assertThat(launchTimes).containsExactly(startTime, startTime.plusMillis(200), startTime.plusMillis(400));
+    }
+
+    @Test
+    public void testOnlyTheRemainingIntervalIsWaitedFor() throws Exception {
+        // Given...
+        Instant startTime = Instant.now();
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        PodLauncher podLauncher = new PodLauncher(1, mockTimeService);
+
+        List<Instant> launchTimes = new ArrayList<>();
+        podLauncher.launch(() -> launchTimes.add(mockTimeService.now()), 200);
+
+        // When...
+        // A launch which takes longer than the interval means the next launch doesn't wait
+        mockTimeService.sleepMillis(150);
+        podLauncher.launch(() -> launchTimes.add(mockTimeService.now()), 200);
+        mockTimeService.sleepMillis(500);
+        podLauncher.launch(() -> launchTimes.add(mockTimeService.now()), 200);
+        podLauncher.close();
+
+        // Then...
+        assertThat(launchTimes).containsExactly(startTime, startTime.plusMillis(200), startTime.plusMillis(700));
+    }
+
+    @Test
+    public void testLauncherCanBeReusedAfterWaitingForInFlightLaunches() throws Exception {
+        // Given...
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        PodLauncher podLauncher = new PodLauncher(3, mockTimeService);
+
+        List<String> launchedPods = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            // When...
+            for (int i = 0; i < 5; i++) {
+                String podName = "pod" + i;
+                podLauncher.launch(() -> launchedPods.add(podName), 0);
+            }
+            podLauncher.awaitInFlightLaunches();
+            assertThat(launchedPods).hasSize(5);
+
+            podLauncher.launch(() -> launchedPods.add("pod5"), 0);
+            podLauncher.awaitInFlightLaunches();
+
+            // Then...
+            assertThat(launchedPods).containsExactlyInAnyOrder("pod0", "pod1", "pod2", "pod3", "pod4", "pod5");
+        } finally {
+            podLauncher.close();
+        }
+    }
+}
@@ -8,7 +8,9 @@ package dev.galasa.framework.k8s.controller;
 import static org.assertj.core.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -16,6 +18,8 @@ import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesApiClient;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesPodTestUtils;
+import dev.galasa.framework.k8s.controller.scheduling.RunIndex;
+import dev.galasa.framework.mocks.MockDSSStore;
 import dev.galasa.framework.mocks.MockFrameworkRuns;
 import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.spi.IRun;
@@ -196,4 +200,64 @@ public class RunPodCleanupTest {
         // The test pods should still exist
         assertThat(kubeEngineFacade.getTestPods()).hasSize(2);
     }
+
+    @Test
+    public void testTerminatedPodIsDeletedWhenTheRunIndexShowsItsRunHasFinished() throws Exception {
+        // Given...
+        String galasaServiceInstallName = "myGalasaService";
+        String runName1 = "run1";
+        V1Pod terminatedPod = mockKubeTestUtils.createMockTestPod(runName1, galasaServiceInstallName, "succeeded");
+
+        List<V1Pod> mockPods = new ArrayList<>();
+        mockPods.add(terminatedPod);
+
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.run1.status", TestRunLifecycleStatus.FINISHED.toString());
+        RunIndex runIndex = new RunIndex(new MockDSSStore(dssProps));
+        runIndex.run();
+
+        MockKubernetesApiClient mockApiClient = new MockKubernetesApiClient(mockPods);
+
+        // The run is not in the DSS mock, so the pod can only be deleted because of the run index
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(new ArrayList<>());
+
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(mockApiClient, "myNamespace", galasaServiceInstallName);
+        RunPodCleanup runPodCleanup = new RunPodCleanup(kubeEngineFacade, mockFrameworkRuns, runIndex);
+
+        // When...
+        runPodCleanup.cleanupTerminatedPod(terminatedPod);
+
+        // Then...
+        assertThat(kubeEngineFacade.getTestPods()).isEmpty();
+    }
+
+    @Test
+    public void testTerminatedPodIsNotDeletedIfItsRunIsMissingFromTheRunIndexButStillRunning() throws Exception {
+        // Given...
+        String galasaServiceInstallName = "myGalasaService";
+        String runName1 = "run1";
+        V1Pod terminatedPod = mockKubeTestUtils.createMockTestPod(runName1, galasaServiceInstallName, "failed");
+
+        List<V1Pod> mockPods = new ArrayList<>();
+        mockPods.add(terminatedPod);
+
+        // Simulate the run index not having caught up with a new run in the DSS yet
+        RunIndex runIndex = new RunIndex(new MockDSSStore(new HashMap<>()));
+        runIndex.run();
+
+        List<IRun> mockRuns = new ArrayList<>();
+        mockRuns.add(createMockRun(runName1, TestRunLifecycleStatus.RUNNING.toString()));
+
+        MockKubernetesApiClient mockApiClient = new MockKubernetesApiClient(mockPods);
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(mockRuns);
+
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(mockApiClient, "myNamespace", galasaServiceInstallName);
+        RunPodCleanup runPodCleanup = new RunPodCleanup(kubeEngineFacade, mockFrameworkRuns, runIndex);
+
+        // When...
+        runPodCleanup.cleanupTerminatedPod(terminatedPod);
+
+        // Then...
+        assertThat(kubeEngineFacade.getTestPods()).hasSize(1);
+    }
 }
@@ -192,4 +192,32 @@ public class SettingsTest {
 
         assertThat(gotBack).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCanReadDefaultPodLaunchSettingsIfMissingFromConfigMap() throws Exception {
+        K8sController controller = new K8sController();
+        KubernetesEngineFacade kube = null;
+        Settings settings = new Settings(controller, kube, "myPod", "myConfigMapName");
+        Map<String, String> configMap = new HashMap<String, String>();
+
+        settings.updateConfigMapProperties(configMap);
+
+        assertThat(settings.getMaxConcurrentPodLaunches()).isEqualTo(Settings.MAX_CONCURRENT_POD_LAUNCHES_DEFAULT);
+        assertThat(settings.getEngineTopologySpreadKey()).isEmpty();
+    }
+
+    @Test
+    public void testCanReadPodLaunchSettingsIfPresentInConfigMap() throws Exception {
+        K8sController controller = new K8sController();
+        KubernetesEngineFacade kube = null;
+        Settings settings = new Settings(controller, kube, "myPod", "myConfigMapName");
+        Map<String, String> configMap = new HashMap<String, String>();
+        configMap.put(Settings.MAX_CONCURRENT_POD_LAUNCHES_PROPERTY_NAME, "10");
+        configMap.put(Settings.ENGINE_TOPOLOGY_SPREAD_KEY_PROPERTY_NAME, "kubernetes.io/hostname");
+
+        settings.updateConfigMapProperties(configMap);
+
+        assertThat(settings.getMaxConcurrentPodLaunches()).isEqualTo(10);
+        assertThat(settings.getEngineTopologySpreadKey()).isEqualTo("kubernetes.io/hostname");
+    }
+}
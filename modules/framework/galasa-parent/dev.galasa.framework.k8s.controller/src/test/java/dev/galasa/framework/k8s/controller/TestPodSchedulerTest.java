@@ -19,6 +19,7 @@ import org.junit.Test;
 import org.junit.After;
 
 import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.WarmEngine;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
 import dev.galasa.framework.k8s.controller.mocks.MockISettings;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesApiClient;
@@ -47,6 +48,7 @@ import io.kubernetes.client.openapi.models.V1PodSpec;
 import io.kubernetes.client.openapi.models.V1PodStatus;
 import io.kubernetes.client.openapi.models.V1PreferredSchedulingTerm;
 import io.kubernetes.client.openapi.models.V1Toleration;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
 import io.kubernetes.client.openapi.models.V1Volume;
 import io.kubernetes.client.openapi.models.V1VolumeMount;
 import io.prometheus.client.CollectorRegistry;
@@ -682,68 +684,39 @@ public class TestPodSchedulerTest {
         return run;
     }
 
-    @Test
-    public void testThatPodGetsScheduled() throws Exception {
-        // Given...
-        String testRunName = "U12345";
-        MockRun run = createMockRun(testRunName);
-
-        MockEnvironment mockEnvironment = new MockEnvironment();
-
-        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
-        mockDss.put("run."+testRunName+"."+DssPropertyKeyRunNameSuffix.STATUS,"queued");
-
-        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(new ArrayList<>());
-
-        List<V1Pod> mockPods = new ArrayList<V1Pod>();
-        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
-        String galasaServiceInstallName = "myGalasaService";
-        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
-
-        MockISettings settings = new MockISettings();
-        MockCPSStore mockCPS = new MockCPSStore(null);
-    
-        MockTimeService mockTimeService = new MockTimeService(Instant.now());
-
-        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
-        MockTagsService mockTagsService = new MockTagsService();
-        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
-
-        TestPodScheduler podScheduler = new TestPodScheduler(mockEnvironment, mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
-        
-        // When...
-        podScheduler.startPod(run);
-
-        // Then...
-        assertThat(api.podsLaunched).hasSize(1);
-        assertThat(mockDss.get("run."+testRunName+"."+DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo("allocated");
-    }
-
     @Test
     public void testThatPodGetsScheduledEvenIfPodWithSameNameExistsAlready() throws Exception {
         // Given...
         String testRunName = "U12345";
         MockRun run = createMockRun(testRunName);
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        run.setStatus(queuedStatus);
 
         MockEnvironment mockEnvironment = new MockEnvironment();
 
         MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
-        mockDss.put("run."+testRunName+"."+DssPropertyKeyRunNameSuffix.STATUS,"queued");
+        mockDss.put("run."+testRunName+"."+DssPropertyKeyRunNameSuffix.STATUS,queuedStatus);
 
-        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(new ArrayList<>());
+        List<IRun> runs = new ArrayList<>();
+        runs.add(run);
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
 
         // Simulating a pod which is already running...
         V1Pod alreadyRunningPod = new V1Pod();
+        alreadyRunningPod.setMetadata(new V1ObjectMeta().name("myEngineLabel-u12345"));
 
+        String galasaServiceInstallName = "myGalasaService";
+        boolean isPodReady = true;
         List<V1Pod> mockPods = new ArrayList<V1Pod>();
         mockPods.add(alreadyRunningPod);
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", isPodReady));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", isPodReady));
         MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
         api.failToLaunchPodCount = 1; // Fail the first pod create with already exists!
-        String galasaServiceInstallName = "myGalasaService";
         KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
 
         MockISettings settings = new MockISettings();
-        MockCPSStore mockCPS = new MockCPSStore(null);
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
 
         MockTimeService mockTimeService = new MockTimeService(Instant.now());
 
@@ -754,7 +727,7 @@ public class TestPodSchedulerTest {
         TestPodScheduler podScheduler = new TestPodScheduler(mockEnvironment, mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
         
         // When...
-        podScheduler.startPod(run);
+        podScheduler.run();
 
         // Then...
         assertThat(api.podsLaunched).hasSize(1);
@@ -771,27 +744,35 @@ public class TestPodSchedulerTest {
         // Given...
         String testRunName = "U12345";
         MockRun run = createMockRun(testRunName);
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        run.setStatus(queuedStatus);
 
         MockEnvironment mockEnvironment = new MockEnvironment();
 
         MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
-        mockDss.put("run."+testRunName+"."+DssPropertyKeyRunNameSuffix.STATUS,"queued");
+        mockDss.put("run."+testRunName+"."+DssPropertyKeyRunNameSuffix.STATUS,queuedStatus);
 
-        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(new ArrayList<>());
+        List<IRun> runs = new ArrayList<>();
+        runs.add(run);
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
 
         // Simulating a pod which is already running...
         V1Pod alreadyRunningPod = new V1Pod();
+        alreadyRunningPod.setMetadata(new V1ObjectMeta().name("myEngineLabel-u12345"));
 
+        String galasaServiceInstallName = "myGalasaService";
+        boolean isPodReady = true;
         List<V1Pod> mockPods = new ArrayList<V1Pod>();
         mockPods.add(alreadyRunningPod);
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", isPodReady));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", isPodReady));
         MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
         api.failToLaunchPodCount = 50; // Always fail the pod create with already exists error!
-        String galasaServiceInstallName = "myGalasaService";
         KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
 
         MockISettings settings = new MockISettings();
         settings.maxTestPodRetriesLimit = 5;
-        MockCPSStore mockCPS = new MockCPSStore(null);
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
 
         MockTimeService mockTimeService = new MockTimeService(Instant.now());
 
@@ -802,7 +783,7 @@ public class TestPodSchedulerTest {
         TestPodScheduler podScheduler = new TestPodScheduler(mockEnvironment, mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
         
         // When...
-        podScheduler.startPod(run);
+        podScheduler.run();
 
         // Then...
         assertThat(api.podsLaunched).hasSize(0);
@@ -1144,4 +1125,332 @@ public class TestPodSchedulerTest {
         // Then...
         assertThat(api.podsLaunched).hasSize(1);
     }
+
+    @Test
+    public void testQueuedRunsAreAllocatedInABatchAndLaunchedConcurrently() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        List<IRun> runs = new ArrayList<>();
+        for (String testRunName : List.of("U1", "U2", "U3")) {
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxConcurrentPodLaunches(3);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        assertThat(api.podsLaunched).hasSize(3);
+        for (String testRunName : List.of("U1", "U2", "U3")) {
+            assertThat(mockDss.get("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo("allocated");
+            assertThat(mockDss.get("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.CONTROLLER)).isEqualTo(settings.getPodName());
+        }
+    }
+
+    @Test
+    public void testBatchAllocationFallsBackToSingleRunsWhenARunIsAllocatedElsewhere() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        List<IRun> runs = new ArrayList<>();
+        for (String testRunName : List.of("U1", "U2", "U3")) {
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+
+        // Another controller has allocated U2 since the queued runs were read
+        mockDss.put("run.U2." + DssPropertyKeyRunNameSuffix.STATUS, "allocated");
+
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxConcurrentPodLaunches(3);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        assertThat(api.podsLaunched).extracting(pod -> pod.getMetadata().getName())
+            .containsExactlyInAnyOrder("myEngineLabel-u1", "myEngineLabel-u3");
+    }
+
+    @Test
+    public void testConcurrentLaunchesDoNotGoOverTheEngineLimit() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        List<IRun> runs = new ArrayList<>();
+        for (String testRunName : List.of("U1", "U2", "U3", "U4")) {
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxEngines(3);
+        settings.setMaxConcurrentPodLaunches(2);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        assertThat(api.podsLaunched).hasSize(3);
+        assertThat(mockDss.get("run.U4." + DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo(queuedStatus);
+    }
+
+    @Test
+    public void testPodsAreLaunchedWithoutADelayWhenTopologySpreadKeyIsSet() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        List<IRun> runs = new ArrayList<>();
+        for (String testRunName : List.of("U1", "U2")) {
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setEngineTopologySpreadKey("kubernetes.io/hostname");
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        Instant startTime = Instant.now();
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        assertThat(api.podsLaunched).hasSize(2);
+
+        // The mock time service moves time on whenever it is asked to sleep
+        assertThat(mockTimeService.now()).isEqualTo(startTime);
+
+        V1TopologySpreadConstraint spreadConstraint = api.podsLaunched.get(0).getSpec().getTopologySpreadConstraints().get(0);
+        assertThat(spreadConstraint.getTopologyKey()).isEqualTo("kubernetes.io/hostname");
+        assertThat(spreadConstraint.getMaxSkew()).isEqualTo(1);
+        assertThat(spreadConstraint.getLabelSelector().getMatchLabels())
+            .containsEntry(TestPodKubeLabels.ENGINE_CONTROLLER.toString(), settings.getEngineLabel())
+            .containsEntry(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), galasaServiceInstallName);
+    }
+
+    private V1Pod createIdleWarmPod(String podName, String galasaServiceInstallName, MockIDynamicStatusStoreService mockDss) throws Exception {
+        V1ObjectMeta podMetadata = new V1ObjectMeta().name(podName);
+        podMetadata.putLabelsItem(TestPodKubeLabels.ENGINE_CONTROLLER.toString(), MockISettings.ENGINE_LABEL);
+        podMetadata.putLabelsItem(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), galasaServiceInstallName);
+        podMetadata.putLabelsItem(TestPodKubeLabels.WARM_ENGINE.toString(), "true");
+
+        V1Pod pod = new V1Pod();
+        pod.setMetadata(podMetadata);
+        pod.setStatus(new V1PodStatus().phase("running"));
+
+        mockDss.put(WarmEngine.getPropertyKey(podName, WarmEngine.STATE_SUFFIX), WarmEngine.IDLE_STATE);
+        return pod;
+    }
+
+    @Test
+    public void testWarmEnginesAreStartedToFillThePool() throws Exception {
+        // Given...
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(new ArrayList<>());
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setWarmEnginePoolSize(2);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        assertThat(api.podsLaunched).hasSize(2);
+        for (V1Pod pod : api.podsLaunched) {
+            assertThat(pod.getMetadata().getName()).startsWith(settings.getEngineLabel() + "-warm-");
+            assertThat(pod.getMetadata().getLabels())
+                .containsEntry(TestPodKubeLabels.WARM_ENGINE.toString(), "true")
+                .doesNotContainKey(TestPodKubeLabels.GALASA_RUN.toString());
+
+            V1Container container = pod.getSpec().getContainers().get(0);
+            assertThat(container.getArgs()).contains("--warm").doesNotContain("--run");
+            assertThat(container.getEnv()).extracting(V1EnvVar::getName).contains(WarmEngine.ENGINE_ID_ENV_VAR);
+        }
+    }
+
+    @Test
+    public void testRunIsHandedToAnIdleWarmEngineWhenAtMaxEngines() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        MockRun run = createMockRun("U1");
+        run.setStatus(queuedStatus);
+        run.setTrace(false);
+        mockDss.put("run.U1." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+
+        List<IRun> runs = new ArrayList<>();
+        runs.add(run);
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+        V1Pod warmPod = createIdleWarmPod("myEngineLabel-warm-1", galasaServiceInstallName, mockDss);
+        mockPods.add(warmPod);
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxEngines(1);
+        settings.setWarmEnginePoolSize(1);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        assertThat(api.podsLaunched).isEmpty();
+        assertThat(mockDss.get("run.U1." + DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo("allocated");
+        assertThat(mockDss.get(WarmEngine.getPropertyKey("myEngineLabel-warm-1", WarmEngine.STATE_SUFFIX))).isEqualTo(WarmEngine.CLAIMED_STATE);
+        assertThat(mockDss.get(WarmEngine.getPropertyKey("myEngineLabel-warm-1", WarmEngine.RUN_SUFFIX))).isEqualTo("U1");
+        assertThat(warmPod.getMetadata().getLabels()).containsEntry(TestPodKubeLabels.GALASA_RUN.toString(), "U1");
+    }
+
+    @Test
+    public void testTracedRunRetiresAnIdleWarmEngineToGetANewPod() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        MockRun run = createMockRun("U1");
+        run.setStatus(queuedStatus);
+        mockDss.put("run.U1." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+
+        List<IRun> runs = new ArrayList<>();
+        runs.add(run);
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+        mockPods.add(createIdleWarmPod("myEngineLabel-warm-1", galasaServiceInstallName, mockDss));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxEngines(1);
+        settings.setWarmEnginePoolSize(1);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        assertThat(api.podsLaunched).extracting(pod -> pod.getMetadata().getName()).containsExactly("myEngineLabel-u1");
+        assertThat(api.getMockPods()).extracting(pod -> pod.getMetadata().getName()).doesNotContain("myEngineLabel-warm-1");
+        assertThat(mockDss.get(WarmEngine.getPropertyKey("myEngineLabel-warm-1", WarmEngine.STATE_SUFFIX))).isEqualTo(WarmEngine.RETIRED_STATE);
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import dev.galasa.framework.k8s.controller.mocks.MockKubernetesApiClient;
+import dev.galasa.framework.k8s.controller.mocks.MockKubernetesPodTestUtils;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.util.Watch;
+
+public class TestPodWatcherTest {
+
+    private MockKubernetesPodTestUtils mockKubeTestUtils = new MockKubernetesPodTestUtils();
+
+    @Test
+    public void testOnlyTerminatedPodsArePassedToTheHandler() throws Exception {
+        // Given...
+        String galasaServiceInstallName = "myGalasaService";
+        V1Pod runningPod = mockKubeTestUtils.createMockTestPod("run1", galasaServiceInstallName, "running");
+        V1Pod succeededPod = mockKubeTestUtils.createMockTestPod("run2", galasaServiceInstallName, "succeeded");
+        V1Pod deletedPod = mockKubeTestUtils.createMockTestPod("run3", galasaServiceInstallName, "failed");
+
+        MockKubernetesApiClient mockApiClient = new MockKubernetesApiClient(new ArrayList<>());
+        mockApiClient.podWatchEvents.add(new Watch.Response<>("ADDED", runningPod));
+        mockApiClient.podWatchEvents.add(new Watch.Response<>("MODIFIED", succeededPod));
+        mockApiClient.podWatchEvents.add(new Watch.Response<>("DELETED", deletedPod));
+
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(mockApiClient, "myNamespace", galasaServiceInstallName);
+
+        List<V1Pod> handledPods = new ArrayList<>();
+        TestPodWatcher podWatcher = new TestPodWatcher(kubeEngineFacade, handledPods::add);
+
+        // When...
+        podWatcher.watchOnce();
+
+        // Then...
+        assertThat(handledPods).containsExactly(succeededPod);
+    }
+}
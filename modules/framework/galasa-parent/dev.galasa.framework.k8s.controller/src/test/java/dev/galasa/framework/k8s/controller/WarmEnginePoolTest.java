@@ -0,0 +1,191 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.galasa.framework.WarmEngine;
+import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
+import dev.galasa.framework.k8s.controller.mocks.MockISettings;
+import dev.galasa.framework.k8s.controller.mocks.MockKubernetesApiClient;
+import dev.galasa.framework.mocks.MockIDynamicStatusStoreService;
+import dev.galasa.framework.mocks.MockRun;
+import dev.galasa.framework.mocks.MockTimeService;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+
+public class WarmEnginePoolTest {
+
+    private static final String GALASA_SERVICE_NAME = "myGalasaService";
+
+    private final Instant now = Instant.parse("2026-01-01T12:00:00Z");
+
+    private V1Pod createWarmPod(String podName, Instant createdAt, String phase) {
+        V1ObjectMeta metadata = new V1ObjectMeta()
+            .name(podName)
+            .creationTimestamp(OffsetDateTime.ofInstant(createdAt, ZoneOffset.UTC));
+        metadata.putLabelsItem(TestPodKubeLabels.ENGINE_CONTROLLER.toString(), MockISettings.ENGINE_LABEL);
+        metadata.putLabelsItem(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), GALASA_SERVICE_NAME);
+        metadata.putLabelsItem(TestPodKubeLabels.WARM_ENGINE.toString(), "true");
+
+        V1Pod pod = new V1Pod();
+        pod.setMetadata(metadata);
+        pod.setStatus(new V1PodStatus().phase(phase));
+        return pod;
+    }
+
+    private MockRun createMockRun(String testRunName) {
+        MockRun run = new MockRun("my.bundleName", "my.className", testRunName, "myTestStream", "myTestStreamOBR",
+            "http://myTestStreamRepoUrl", "myRequestorName", false);
+        run.setTrace(false);
+        return run;
+    }
+
+    private String stateKey(String engineName) {
+        return WarmEngine.getPropertyKey(engineName, WarmEngine.STATE_SUFFIX);
+    }
+
+    @Test
+    public void testRunIsHandedToAnIdleEngine() throws Exception {
+        // Given...
+        List<V1Pod> pods = new ArrayList<>();
+        pods.add(createWarmPod("engine-warm-1", now.minusSeconds(30), "running"));
+        MockKubernetesApiClient api = new MockKubernetesApiClient(pods);
+        KubernetesEngineFacade kube = new KubernetesEngineFacade(api, "myNamespace", GALASA_SERVICE_NAME);
+
+        MockIDynamicStatusStoreService dss = new MockIDynamicStatusStoreService();
+        dss.put(stateKey("engine-warm-1"), WarmEngine.IDLE_STATE);
+
+        MockISettings settings = new MockISettings();
+        settings.setWarmEnginePoolSize(1);
+        WarmEnginePool pool = new WarmEnginePool(dss, settings, kube, new MockTimeService(now));
+
+        // When...
+        pool.refresh(kube.getTestPods());
+        boolean isHandedOff = pool.handOff(createMockRun("U1"));
+
+        // Then...
+        assertThat(isHandedOff).isTrue();
+        assertThat(pool.getIdleEngineCount()).isZero();
+        assertThat(dss.get(stateKey("engine-warm-1"))).isEqualTo(WarmEngine.CLAIMED_STATE);
+        assertThat(dss.get(WarmEngine.getPropertyKey("engine-warm-1", WarmEngine.RUN_SUFFIX))).isEqualTo("U1");
+        assertThat(pods.get(0).getMetadata().getLabels()).containsEntry(TestPodKubeLabels.GALASA_RUN.toString(), "U1");
+    }
+
+    @Test
+    public void testEngineIdleForLongerThanTheTimeoutIsRetired() throws Exception {
+        // Given...
+        List<V1Pod> pods = new ArrayList<>();
+        pods.add(createWarmPod("engine-warm-old", now.minusSeconds(700), "running"));
+        pods.add(createWarmPod("engine-warm-new", now.minusSeconds(30), "running"));
+        MockKubernetesApiClient api = new MockKubernetesApiClient(pods);
+        KubernetesEngineFacade kube = new KubernetesEngineFacade(api, "myNamespace", GALASA_SERVICE_NAME);
+
+        MockIDynamicStatusStoreService dss = new MockIDynamicStatusStoreService();
+        dss.put(stateKey("engine-warm-old"), WarmEngine.IDLE_STATE);
+        dss.put(stateKey("engine-warm-new"), WarmEngine.IDLE_STATE);
+
+        MockISettings settings = new MockISettings();
+        settings.setWarmEnginePoolSize(2);
+        settings.setWarmEngineIdleTimeoutSeconds(600);
+        WarmEnginePool pool = new WarmEnginePool(dss, settings, kube, new MockTimeService(now));
+
+        // When...
+        List<V1Pod> remainingPods = pool.refresh(kube.getTestPods());
+
+        // Then...
+        assertThat(remainingPods).extracting(pod -> pod.getMetadata().getName()).containsExactly("engine-warm-new");
+        assertThat(api.getMockPods()).extracting(pod -> pod.getMetadata().getName()).containsExactly("engine-warm-new");
+        assertThat(dss.get(stateKey("engine-warm-old"))).isEqualTo(WarmEngine.RETIRED_STATE);
+        assertThat(pool.getIdleEngineCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOldestIdleEnginesAreRetiredWhenThePoolIsMadeSmaller() throws Exception {
+        // Given...
+        List<V1Pod> pods = new ArrayList<>();
+        pods.add(createWarmPod("engine-warm-2", now.minusSeconds(20), "running"));
+        pods.add(createWarmPod("engine-warm-1", now.minusSeconds(40), "running"));
+        pods.add(createWarmPod("engine-warm-starting", now.minusSeconds(5), "pending"));
+        MockKubernetesApiClient api = new MockKubernetesApiClient(pods);
+        KubernetesEngineFacade kube = new KubernetesEngineFacade(api, "myNamespace", GALASA_SERVICE_NAME);
+
+        MockIDynamicStatusStoreService dss = new MockIDynamicStatusStoreService();
+        dss.put(stateKey("engine-warm-1"), WarmEngine.IDLE_STATE);
+        dss.put(stateKey("engine-warm-2"), WarmEngine.IDLE_STATE);
+
+        MockISettings settings = new MockISettings();
+        settings.setWarmEnginePoolSize(2);
+        WarmEnginePool pool = new WarmEnginePool(dss, settings, kube, new MockTimeService(now));
+
+        // When...
+        pool.refresh(kube.getTestPods());
+
+        // Then...
+        assertThat(api.getMockPods()).extracting(pod -> pod.getMetadata().getName())
+            .containsExactlyInAnyOrder("engine-warm-2", "engine-warm-starting");
+        assertThat(pool.getIdleEngineCount()).isEqualTo(1);
+        assertThat(pool.getWarmEngineCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFreeingASlotRetiresAnIdleEngine() throws Exception {
+        // Given...
+        List<V1Pod> pods = new ArrayList<>();
+        pods.add(createWarmPod("engine-warm-1", now.minusSeconds(30), "running"));
+        MockKubernetesApiClient api = new MockKubernetesApiClient(pods);
+        KubernetesEngineFacade kube = new KubernetesEngineFacade(api, "myNamespace", GALASA_SERVICE_NAME);
+
+        MockIDynamicStatusStoreService dss = new MockIDynamicStatusStoreService();
+        dss.put(stateKey("engine-warm-1"), WarmEngine.IDLE_STATE);
+
+        MockISettings settings = new MockISettings();
+        settings.setWarmEnginePoolSize(1);
+        WarmEnginePool pool = new WarmEnginePool(dss, settings, kube, new MockTimeService(now));
+        pool.refresh(kube.getTestPods());
+
+        // When...
+        boolean isFirstSlotFreed = pool.freeSlot();
+        boolean isSecondSlotFreed = pool.freeSlot();
+
+        // Then...
+        assertThat(isFirstSlotFreed).isTrue();
+        assertThat(isSecondSlotFreed).isFalse();
+        assertThat(api.getMockPods()).isEmpty();
+        assertThat(dss.get(stateKey("engine-warm-1"))).isEqualTo(WarmEngine.RETIRED_STATE);
+    }
+
+    @Test
+    public void testPropertiesOfEnginesWithoutPodsAreDeleted() throws Exception {
+        // Given...
+        List<V1Pod> pods = new ArrayList<>();
+        MockKubernetesApiClient api = new MockKubernetesApiClient(pods);
+        KubernetesEngineFacade kube = new KubernetesEngineFacade(api, "myNamespace", GALASA_SERVICE_NAME);
+
+        MockIDynamicStatusStoreService dss = new MockIDynamicStatusStoreService();
+        dss.put(stateKey("engine-warm-gone"), WarmEngine.CLAIMED_STATE);
+        dss.put(WarmEngine.getPropertyKey("engine-warm-gone", WarmEngine.RUN_SUFFIX), "U1");
+
+        MockISettings settings = new MockISettings();
+        settings.setWarmEnginePoolSize(1);
+        WarmEnginePool pool = new WarmEnginePool(dss, settings, kube, new MockTimeService(now));
+
+        // When...
+        pool.refresh(kube.getTestPods());
+
+        // Then...
+        assertThat(dss.data).isEmpty();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.interruptedruns;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockTimeService;
+
+public class DeferredInterruptHandlingTest {
+
+    private void waitForPasses(AtomicInteger passCount, int expectedPasses) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (passCount.get() < expectedPasses && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testRequestsDueAtTheSameTimeAreHandledInOnePass() throws Exception {
+        // Given...
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+        AtomicInteger passCount = new AtomicInteger();
+
+        DeferredInterruptHandling deferredHandling = new DeferredInterruptHandling(passCount::incrementAndGet, scheduler, mockTimeService);
+
+        try {
+            // When...
+            deferredHandling.request(100);
+            deferredHandling.request(100);
+            waitForPasses(passCount, 1);
+            Thread.sleep(300);
+
+            // Then...
+            assertThat(passCount.get()).isEqualTo(1);
+        } finally {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testRequestDueAfterThePendingPassIsHandledInAnotherPass() throws Exception {
+        // Given...
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+        AtomicInteger passCount = new AtomicInteger();
+
+        DeferredInterruptHandling deferredHandling = new DeferredInterruptHandling(passCount::incrementAndGet, scheduler, mockTimeService);
+
+        try {
+            // When...
+            // The second request arrives while the first pass is pending, but is due later than it
+            deferredHandling.request(100);
+            mockTimeService.sleepMillis(50);
+            deferredHandling.request(100);
+            waitForPasses(passCount, 2);
+
+            // Then...
+            assertThat(passCount.get()).isEqualTo(2);
+        } finally {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testRequestAfterAPassHasFinishedSchedulesANewPass() throws Exception {
+        // Given...
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+        AtomicInteger passCount = new AtomicInteger();
+
+        DeferredInterruptHandling deferredHandling = new DeferredInterruptHandling(passCount::incrementAndGet, scheduler, mockTimeService);
+
+        try {
+            deferredHandling.request(10);
+            waitForPasses(passCount, 1);
+
+            // When...
+            deferredHandling.request(10);
+            waitForPasses(passCount, 2);
+
+            // Then...
+            assertThat(passCount.get()).isEqualTo(2);
+        } finally {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
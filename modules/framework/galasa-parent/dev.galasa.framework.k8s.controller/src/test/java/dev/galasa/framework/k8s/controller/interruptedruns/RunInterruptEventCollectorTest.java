@@ -9,7 +9,9 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -18,6 +20,8 @@ import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
 import dev.galasa.framework.k8s.controller.mocks.MockISettings;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesApiClient;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesPodTestUtils;
+import dev.galasa.framework.k8s.controller.scheduling.RunIndex;
+import dev.galasa.framework.mocks.MockDSSStore;
 import dev.galasa.framework.mocks.MockFrameworkRuns;
 import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.mocks.MockTimeService;
@@ -245,4 +249,49 @@ public class RunInterruptEventCollectorTest {
         assertThat(events).hasSize(1);
         assertThat(events.get(0).getRunName()).isEqualTo(runNameBeingCancelled);
     }
+
+    @Test
+    public void testInterruptedRunsFoundInTheRunIndexAreCheckedAgainstTheDss() throws Exception {
+        // Given...
+        String runNameBeingCancelled = "run3";
+        String runIdToMarkFinished = "run3-id";
+        String interruptReason = "cancelled";
+
+        Instant interruptedAt = Instant.EPOCH;
+        ITimeService timeService = new MockTimeService(Instant.EPOCH);
+
+        List<V1Pod> mockPods = new ArrayList<>();
+        String galasaServiceInstallName = "myGalasaService";
+        boolean isReady = true;
+        mockPods.addAll(mockKubeTestUtils.createEtcdAndRasPods(galasaServiceInstallName, isReady));
+
+        // The run index shows two interrupted runs, but one of them has since been deleted from the DSS
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.run3.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.run3.interruptReason", interruptReason);
+        dssProps.put("run.run4.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.run4.interruptReason", interruptReason);
+        dssProps.put("run.run5.status", TestRunLifecycleStatus.QUEUED.toString());
+        RunIndex runIndex = new RunIndex(new MockDSSStore(dssProps));
+        runIndex.run();
+
+        List<IRun> mockRuns = new ArrayList<>();
+        mockRuns.add(createMockRun(runIdToMarkFinished, runNameBeingCancelled, TestRunLifecycleStatus.QUEUED.toString(), interruptReason, interruptedAt));
+        mockRuns.add(createMockRun(null, "run5", TestRunLifecycleStatus.QUEUED.toString(), null, null));
+
+        MockKubernetesApiClient mockApiClient = new MockKubernetesApiClient(mockPods);
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(mockRuns);
+
+        KubernetesEngineFacade kube = new KubernetesEngineFacade(mockApiClient, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        RunInterruptEventCollector runPodInterrupt = new RunInterruptEventCollector(kube, mockFrameworkRuns, settings, timeService, runIndex);
+
+        // When...
+        List<RunInterruptEvent> events = runPodInterrupt.collectInterruptRunEvents();
+
+        // Then...
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getRunName()).isEqualTo(runNameBeingCancelled);
+    }
 }
@@ -14,6 +14,10 @@ public class MockISettings implements ISettings {
     private String nodeRequiredAffinity = "MyNodeRequiredAffinity=MyNodeRequiredAffinityValue:23";
     private String nodePreferredAffinity = "MyNodePreferredAffinity=MyNodePreferredAffinityValue:23";
     private boolean isIstioEnabled = true;
+    private int maxConcurrentPodLaunches = 1;
+    private String engineTopologySpreadKey = "";
+    private int warmEnginePoolSize = 0;
+    private long warmEngineIdleTimeoutSeconds = 600;
 
     @Override
     public String getEngineLabel() {
@@ -112,6 +116,24 @@ public class MockISettings implements ISettings {
         return 200;
     }
 
+    @Override
+    public int getMaxConcurrentPodLaunches() {
+        return maxConcurrentPodLaunches;
+    }
+
+    public void setMaxConcurrentPodLaunches(int maxConcurrentPodLaunches) {
+        this.maxConcurrentPodLaunches = maxConcurrentPodLaunches;
+    }
+
+    @Override
+    public String getEngineTopologySpreadKey() {
+        return engineTopologySpreadKey;
+    }
+
+    public void setEngineTopologySpreadKey(String engineTopologySpreadKey) {
+        this.engineTopologySpreadKey = engineTopologySpreadKey;
+    }
+
     @Override
     public int getMaxTestPodRetryLimit() {
         return maxTestPodRetriesLimit;
@@ -136,6 +158,24 @@ public class MockISettings implements ISettings {
         this.isIstioEnabled = isIstioEnabled;
     }
 
+    @Override
+    public int getWarmEnginePoolSize() {
+        return warmEnginePoolSize;
+    }
+
+    public void setWarmEnginePoolSize(int warmEnginePoolSize) {
+        this.warmEnginePoolSize = warmEnginePoolSize;
+    }
+
+    @Override
+    public long getWarmEngineIdleTimeoutSeconds() {
+        return warmEngineIdleTimeoutSeconds;
+    }
+
+    public void setWarmEngineIdleTimeoutSeconds(long warmEngineIdleTimeoutSeconds) {
+        this.warmEngineIdleTimeoutSeconds = warmEngineIdleTimeoutSeconds;
+    }
+
     @Override
     public List<String> getRequestorsByGroup() {
         throw new UnsupportedOperationException("Unimplemented method 'getRequestorsByGroup'");
@@ -8,6 +8,7 @@ package dev.galasa.framework.k8s.controller.mocks;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -17,6 +18,8 @@ import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1PodStatus;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
 
 public class MockKubernetesApiClient implements IKubernetesApiClient {
 
@@ -30,6 +33,9 @@ public class MockKubernetesApiClient implements IKubernetesApiClient {
 
     private V1ConfigMap configMap = null ;
 
+    // The events returned by a watch on pods, before the watch ends
+    public List<Watch.Response<V1Pod>> podWatchEvents = new ArrayList<>();
+
     public MockKubernetesApiClient(List<V1Pod> mockPods) {
         this.mockPods = mockPods;
     }
@@ -52,7 +58,7 @@ public class MockKubernetesApiClient implements IKubernetesApiClient {
     }
 
     @Override
-    public List<V1Pod> getPods(String namespace, String labelSelector) throws ApiException {
+    public synchronized List<V1Pod> getPods(String namespace, String labelSelector) throws ApiException {
         List<V1Pod> matchingPods = new ArrayList<>();
 
         // Label selectors can be in the form <key>=<value>
@@ -102,8 +108,9 @@ public class MockKubernetesApiClient implements IKubernetesApiClient {
 
 
 
+    // Synchronized as pods can be launched on several threads at once
     @Override
-    public V1Pod createNamespacedPod(String namespace, V1Pod newPodDefinition) throws ApiException {
+    public synchronized V1Pod createNamespacedPod(String namespace, V1Pod newPodDefinition) throws ApiException {
         if (failToLaunchPodCount>0) {
             failToLaunchPodCount-=1;
 
@@ -125,6 +132,31 @@ public class MockKubernetesApiClient implements IKubernetesApiClient {
         return newPodDefinition;
     }
 
+    @Override
+    public Watchable<V1Pod> watchPods(String namespace, String labelSelector) throws ApiException {
+        Iterator<Watch.Response<V1Pod>> events = new ArrayList<>(podWatchEvents).iterator();
+        return new Watchable<V1Pod>() {
+            @Override
+            public Iterator<Watch.Response<V1Pod>> iterator() {
+                return this;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return events.hasNext();
+            }
+
+            @Override
+            public Watch.Response<V1Pod> next() {
+                return events.next();
+            }
+
+            @Override
+            public void close() throws IOException {
+            }
+        };
+    }
+
     @Override
     public V1ConfigMap readNamespacedConfigMap(String configMapName, String namespace) throws ApiException {
 
@@ -134,5 +166,22 @@ public class MockKubernetesApiClient implements IKubernetesApiClient {
     public void setConfigMap(V1ConfigMap newConfigMap) {
         this.configMap = newConfigMap;
     }
+
+    @Override
+    public synchronized V1Pod addPodLabels(String namespace, String podName, Map<String, String> labels) throws ApiException {
+        V1Pod patchedPod = null;
+        List<V1Pod> allPods = new ArrayList<>(mockPods);
+        allPods.addAll(podsLaunched);
+        for (V1Pod pod : allPods) {
+            if (podName.equals(pod.getMetadata().getName())) {
+                pod.getMetadata().getLabels().putAll(labels);
+                patchedPod = pod;
+            }
+        }
+        if (patchedPod == null) {
+            throw new ApiException(404, new HashMap<String, List<String>>(), "NotFound");
+        }
+        return patchedPod;
+    }
     
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Set;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockRun;
+import dev.galasa.framework.mocks.MockTimeService;
+
+public class PrioritisedRunQueueTest {
+
+    private MockRun createQueuedRun(String runName, Instant queuedTime) {
+        MockRun run = new MockRun(null, null, runName, null, null, null, null, false);
+        run.setQueued(queuedTime);
+        return run;
+    }
+
+    @Test
+    public void testRunsAreOrderedByStaticPointsAndTimeQueued() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        PrioritisedRunQueue queue = new PrioritisedRunQueue(1, new MockTimeService(now));
+
+        MockRun oldRun = createQueuedRun("run1", now.minusSeconds(10 * 60));
+        MockRun newRun = createQueuedRun("run2", now);
+        MockRun newPriorityRun = createQueuedRun("run3", now);
+
+        // When...
+        queue.put(newRun, 0);
+        queue.put(oldRun, 0);
+
+        // 11 points is more than the 10 minutes that oldRun has been waiting
+        queue.put(newPriorityRun, 11);
+
+        // Then...
+        assertThat(queue.getRunsInPriorityOrder()).containsExactly(newPriorityRun, oldRun, newRun);
+    }
+
+    @Test
+    public void testRunsWithTheSameRankKeepTheOrderTheyWereAddedIn() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        PrioritisedRunQueue queue = new PrioritisedRunQueue(1, new MockTimeService(now));
+
+        MockRun run1 = createQueuedRun("run1", now);
+        MockRun run2 = createQueuedRun("run2", now);
+        MockRun run3 = createQueuedRun("run3", now);
+
+        // When...
+        queue.put(run2, 0);
+        queue.put(run3, 0);
+        queue.put(run1, 0);
+
+        // Re-scoring a run with the same points should not move it
+        queue.put(run3, 0);
+
+        // Then...
+        assertThat(queue.getRunsInPriorityOrder()).containsExactly(run2, run3, run1);
+    }
+
+    @Test
+    public void testRescoredRunIsMovedToItsNewPosition() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        PrioritisedRunQueue queue = new PrioritisedRunQueue(1, new MockTimeService(now));
+
+        MockRun run1 = createQueuedRun("run1", now.minusSeconds(60));
+        MockRun run2 = createQueuedRun("run2", now);
+        queue.put(run1, 0);
+        queue.put(run2, 0);
+
+        // When...
+        queue.put(run2, 5);
+
+        // Then...
+        assertThat(queue.getRunsInPriorityOrder()).containsExactly(run2, run1);
+        assertThat(queue.getStaticPoints("run2")).isEqualTo(5);
+    }
+
+    @Test
+    public void testChangingTheGrowthRateReordersTheQueue() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        PrioritisedRunQueue queue = new PrioritisedRunQueue(1, new MockTimeService(now));
+
+        // With a growth rate of 1 point per minute, run1's 20 minute wait beats run2's 10 points
+        MockRun run1 = createQueuedRun("run1", now.minusSeconds(20 * 60));
+        MockRun run2 = createQueuedRun("run2", now);
+        queue.put(run1, 0);
+        queue.put(run2, 10);
+        assertThat(queue.getRunsInPriorityOrder()).containsExactly(run1, run2);
+
+        // When...
+        queue.setGrowthRatePerMin(0.1);
+
+        // Then...
+        // run1's wait is now only worth 2 points
+        assertThat(queue.getRunsInPriorityOrder()).containsExactly(run2, run1);
+    }
+
+    @Test
+    public void testRetainAllRemovesRunsThatAreNoLongerQueued() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        PrioritisedRunQueue queue = new PrioritisedRunQueue(1, new MockTimeService(now));
+
+        MockRun run1 = createQueuedRun("run1", now);
+        MockRun run2 = createQueuedRun("run2", now);
+        queue.put(run1, 0);
+        queue.put(run2, 0);
+
+        // When...
+        queue.retainAll(Set.of("run2"));
+
+        // Then...
+        assertThat(queue.getRunsInPriorityOrder()).containsExactly(run2);
+        assertThat(queue.contains("run1")).isFalse();
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRunWithoutAQueuedTimeIsRankedFromWhenItWasAdded() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        PrioritisedRunQueue queue = new PrioritisedRunQueue(1, mockTimeService);
+
+        MockRun oldRun = createQueuedRun("run1", now.minusSeconds(5 * 60));
+        MockRun runWithoutQueuedTime = createQueuedRun("run2", null);
+        MockRun newRun = createQueuedRun("run3", now.plusSeconds(5 * 60));
+
+        // When...
+        queue.put(runWithoutQueuedTime, 0);
+        queue.put(oldRun, 0);
+
+        // The run without a queued time keeps the time it was first added at when it is re-scored later
+        mockTimeService.sleepMillis(10 * 60 * 1000);
+        queue.put(newRun, 0);
+        queue.put(runWithoutQueuedTime, 0.5);
+
+        // Then...
+        assertThat(queue.getRunsInPriorityOrder()).containsExactly(oldRun, runWithoutQueuedTime, newRun);
+    }
+}
@@ -14,12 +14,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
 import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.mocks.FilledMockRBACService;
+import dev.galasa.framework.mocks.MockDSSStore;
 import dev.galasa.framework.mocks.MockFrameworkRuns;
 import dev.galasa.framework.mocks.MockIConfigurationPropertyStoreService;
 import dev.galasa.framework.mocks.MockRBACService;
@@ -27,7 +29,9 @@ import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.mocks.MockTagsService;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.mocks.MockUser;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
 import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
 import dev.galasa.framework.spi.rbac.BuiltInAction;
 import dev.galasa.framework.spi.tags.Tag;
 import dev.galasa.framework.spi.utils.ITimeService;
@@ -118,12 +122,18 @@ public class PrioritySchedulingServiceTest {
         Instant now = Instant.now();
         long priorityGrowthRatePerMin = 10;
 
+        Map<String, Tag> tags = new HashMap<>();
+        Tag tag = new Tag("priority-tag");
+        tag.setPriority(40);
+        tags.put(tag.getName(), tag);
+
         List<IRun> runs = new ArrayList<>();
         MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
 
         // Set the queued time to be 2 minutes before now
         run1.setQueued(now.minus(2, ChronoUnit.MINUTES));
         run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        run1.setTags(Set.of("priority-tag"));
         
         MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
 
@@ -140,17 +150,16 @@ public class PrioritySchedulingServiceTest {
 
         MockTimeService mockTimeService = new MockTimeService(now);
         MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
-        MockTagsService mockTagsService = new MockTagsService();
+        MockTagsService mockTagsService = new MockTagsService(tags);
 
         PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
 
         // When...
-        double run1Priority = schedulingService.getQueuedRunTotalPriorityPoints(run1, new HashMap<>());
-        double run2Priority = schedulingService.getQueuedRunTotalPriorityPoints(run2, new HashMap<>());
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
 
         // Then...
-        assertThat(run1Priority).isEqualTo(2 * priorityGrowthRatePerMin);
-        assertThat(run2Priority).isEqualTo(7 * priorityGrowthRatePerMin);
+        // run1 has 2 * 10 + 40 = 60 points, which is less than the 7 * 10 = 70 points that run2 has
+        assertThat(runsGotBack).containsExactly(run2, run1);
     }
 
     @Test
@@ -158,12 +167,18 @@ public class PrioritySchedulingServiceTest {
         // Given...
         Instant now = Instant.now();
 
+        Map<String, Tag> tags = new HashMap<>();
+        Tag tag = new Tag("priority-tag");
+        tag.setPriority(40);
+        tags.put(tag.getName(), tag);
+
         List<IRun> runs = new ArrayList<>();
         MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
 
         // Set the queued time to be 2 minutes before now
         run1.setQueued(now.minus(2, ChronoUnit.MINUTES));
         run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        run1.setTags(Set.of("priority-tag"));
         
         MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
 
@@ -182,17 +197,16 @@ public class PrioritySchedulingServiceTest {
 
         MockTimeService mockTimeService = new MockTimeService(now);
         MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
-        MockTagsService mockTagsService = new MockTagsService();
+        MockTagsService mockTagsService = new MockTagsService(tags);
 
         PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
 
         // When...
-        double run1Priority = schedulingService.getQueuedRunTotalPriorityPoints(run1, new HashMap<>());
-        double run2Priority = schedulingService.getQueuedRunTotalPriorityPoints(run2, new HashMap<>());
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
 
         // Then...
-        assertThat(run1Priority).isEqualTo(2 * PrioritySchedulingService.DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN);
-        assertThat(run2Priority).isEqualTo(7 * PrioritySchedulingService.DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN);
+        // With the default growth rate of 1 point a minute, run1 has 2 + 40 = 42 points and run2 only has 7
+        assertThat(runsGotBack).containsExactly(run1, run2);
     }
 
     @Test
@@ -370,10 +384,6 @@ public class PrioritySchedulingServiceTest {
         tag2.setPriority(20);
         tags.put(tag2.getName(), tag2);
 
-        Map<String, Tag> tagsMap = new HashMap<>();
-        tagsMap.put(tag1.getName(), tag1);
-        tagsMap.put(tag2.getName(), tag2);
-
         Instant now = Instant.now();
         List<IRun> runs = new ArrayList<>();
         MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
@@ -405,55 +415,62 @@ public class PrioritySchedulingServiceTest {
 
         // When...
         List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
-        double run3Priority = schedulingService.getQueuedRunTotalPriorityPoints(run3, tagsMap);
 
         // Then...
         assertThat(runsGotBack).hasSize(3);
         assertThat(runsGotBack.get(0)).isEqualTo(run3);
         assertThat(runsGotBack.get(1)).isEqualTo(run1);
         assertThat(runsGotBack.get(2)).isEqualTo(run2);
-
-        // Check that both tag priorities have been added to the run's total priority
-        assertThat(run3Priority).isEqualTo(220);
     }
 
     @Test
     public void testTagPriorityIsAddedToRunPriorityCorrectly() throws Exception {
         // Given...
+        Map<String, Tag> tags = new HashMap<>();
         Tag tag1 = new Tag("high-priority-tag");
         tag1.setPriority(200);
+        tags.put(tag1.getName(), tag1);
 
         Tag tag2 = new Tag("another-tag");
         tag2.setPriority(20);
-
-        Map<String, Tag> tagsMap = new HashMap<>();
-        tagsMap.put(tag1.getName(), tag1);
-        tagsMap.put(tag2.getName(), tag2);
+        tags.put(tag2.getName(), tag2);
 
         Instant now = Instant.now();
         List<IRun> runs = new ArrayList<>();
-        MockRun run = new MockRun(null, null, "run3", null, null, null, null, false);
-        run.setQueued(now);
-        run.setStatus(TestRunLifecycleStatus.QUEUED.toString());
-        run.setTags(Set.of("high-priority-tag", "another-tag"));
+        MockRun taggedRun = new MockRun(null, null, "run1", null, null, null, null, false);
+        taggedRun.setQueued(now);
+        taggedRun.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        taggedRun.setTags(Set.of("high-priority-tag", "another-tag"));
+
+        // With the default growth rate of 1 point a minute, these runs have waited for 1 point less
+        // and 1 point more than the 220 points that both of the tagged run's tags give it
+        MockRun run219MinutesOld = new MockRun(null, null, "run2", null, null, null, null, false);
+        run219MinutesOld.setQueued(now.minus(219, ChronoUnit.MINUTES));
+        run219MinutesOld.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        MockRun run221MinutesOld = new MockRun(null, null, "run3", null, null, null, null, false);
+        run221MinutesOld.setQueued(now.minus(221, ChronoUnit.MINUTES));
+        run221MinutesOld.setStatus(TestRunLifecycleStatus.QUEUED.toString());
 
-        runs.add(run);
+        runs.add(run219MinutesOld);
+        runs.add(taggedRun);
+        runs.add(run221MinutesOld);
 
         MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
         MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
         MockTimeService mockTimeService = new MockTimeService(now);
 
         MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
-        MockTagsService mockTagsService = new MockTagsService();
+        MockTagsService mockTagsService = new MockTagsService(tags);
 
         PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
 
         // When...
-        double runPriority = schedulingService.getQueuedRunTotalPriorityPoints(run, tagsMap);
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
 
         // Then...
         // Check that both tag priorities have been added to the run's total priority
-        assertThat(runPriority).isEqualTo(220);
+        assertThat(runsGotBack).containsExactly(run221MinutesOld, taggedRun, run219MinutesOld);
     }
 
     @Test
@@ -499,4 +516,185 @@ public class PrioritySchedulingServiceTest {
         // run9 was queued latest so has the least elapsed time and lowest priority
         assertThat(runsGotBack.get(9).getName()).isEqualTo("run9");
     }
+
+    @Test
+    public void testRunIsRescoredWhenItsRequestorPriorityChanges() throws Exception {
+        // Given...
+        MockUser user1 = new MockUser();
+        user1.setLoginId("user1");
+        user1.setPriority(0);
+
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
+        run1.setQueued(now.minusSeconds(60));
+        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        MockRun run2 = new MockRun(null, null, "run2", null, null, null, user1.getLoginId(), false);
+        run2.setQueued(now);
+        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        runs.add(run1);
+        runs.add(run2);
+
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACServiceWithTestUser(user1, BuiltInAction.getActions());
+        MockTagsService mockTagsService = new MockTagsService();
+
+        MockDSSStore mockRbacDss = new MockDSSStore(new HashMap<>()) {
+            @Override
+            public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) {
+                return UUID.randomUUID();
+            }
+        };
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatchingUserPriorities(mockRbacDss);
+
+        List<IRun> runsBeforePriorityChange = schedulingService.getPrioritisedTestRunsToSchedule();
+        assertThat(runsBeforePriorityChange).containsExactly(run1, run2);
+
+        // When...
+        // The user's priority changes, and the RBAC service removes the user's cached priority
+        user1.setPriority(100);
+        schedulingService.propertyModified("user.user1.priority", Event.DELETE, "0", null);
+
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(runsGotBack).containsExactly(run2, run1);
+    }
+
+    @Test
+    public void testRunIsNotRescoredWhenNoUserPriorityChangesHaveBeenSeen() throws Exception {
+        // Given...
+        MockUser user1 = new MockUser();
+        user1.setLoginId("user1");
+        user1.setPriority(0);
+
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
+        run1.setQueued(now.minusSeconds(60));
+        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        MockRun run2 = new MockRun(null, null, "run2", null, null, null, user1.getLoginId(), false);
+        run2.setQueued(now);
+        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        runs.add(run1);
+        runs.add(run2);
+
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACServiceWithTestUser(user1, BuiltInAction.getActions());
+        MockTagsService mockTagsService = new MockTagsService();
+
+        MockDSSStore mockRbacDss = new MockDSSStore(new HashMap<>()) {
+            @Override
+            public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) {
+                return UUID.randomUUID();
+            }
+        };
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatchingUserPriorities(mockRbacDss);
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // When...
+        // Another user's cached priority changes, so user1's runs don't need to be re-scored
+        user1.setPriority(100);
+        schedulingService.propertyModified("user.user2.priority", Event.DELETE, "0", null);
+
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(runsGotBack).containsExactly(run1, run2);
+    }
+
+    @Test
+    public void testRunIsRescoredWhenATagPriorityChanges() throws Exception {
+        // Given...
+        Map<String, Tag> tags = new HashMap<>();
+        Tag tag1 = new Tag("my-tag");
+        tag1.setPriority(0);
+        tags.put(tag1.getName(), tag1);
+
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
+        run1.setQueued(now.minusSeconds(60));
+        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
+        run2.setQueued(now);
+        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        run2.setTags(Set.of(tag1.getName()));
+
+        runs.add(run1);
+        runs.add(run2);
+
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService(tags);
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+
+        List<IRun> runsBeforePriorityChange = schedulingService.getPrioritisedTestRunsToSchedule();
+        assertThat(runsBeforePriorityChange).containsExactly(run1, run2);
+
+        // When...
+        Tag updatedTag = new Tag(tag1.getName());
+        updatedTag.setPriority(100);
+        mockTagsService.setTag(updatedTag);
+
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(runsGotBack).containsExactly(run2, run1);
+    }
+
+    @Test
+    public void testRunsThatAreNoLongerQueuedAreRemovedFromTheNextSchedule() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
+        run1.setQueued(now.minusSeconds(60));
+        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
+        run2.setQueued(now);
+        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        runs.add(run1);
+        runs.add(run2);
+
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService();
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // When...
+        run1.setStatus(TestRunLifecycleStatus.ALLOCATED.toString());
+
+        MockRun run3 = new MockRun(null, null, "run3", null, null, null, null, false);
+        run3.setQueued(now.minusSeconds(30));
+        run3.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        runs.add(run3);
+
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(runsGotBack).containsExactly(run3, run2);
+    }
 }
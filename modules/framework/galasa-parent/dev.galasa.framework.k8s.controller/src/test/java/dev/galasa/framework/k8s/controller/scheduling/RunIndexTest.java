@@ -0,0 +1,190 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.mocks.MockDSSStore;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
+
+public class RunIndexTest {
+
+    @Test
+    public void testResyncLoadsQueuedRunsFromDss() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U1.requestor", "me");
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.RUNNING.toString());
+        dssProps.put("run.U3.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        RunIndex runIndex = new RunIndex(mockDss);
+
+        // When...
+        runIndex.run();
+
+        // Then...
+        List<IRun> queuedRuns = runIndex.getQueuedRuns();
+        assertThat(queuedRuns).extracting("name").containsExactlyInAnyOrder("U1", "U3");
+        assertThat(runIndex.getRun("U1").getRequestor()).isEqualTo("me");
+    }
+
+    @Test
+    public void testNewQueuedRunIsAddedToTheIndexAndListenersAreNotified() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        RunIndex runIndex = new RunIndex(mockDss);
+        runIndex.run();
+
+        List<String> notifiedRunNames = new ArrayList<>();
+        runIndex.addListener((runName, newStatus) -> notifiedRunNames.add(runName + ":" + newStatus));
+
+        // When...
+        runIndex.propertyModified("run.U1.test", Event.NEW, null, "mybundle/mytest");
+        runIndex.propertyModified("run.U1.status", Event.NEW, null, TestRunLifecycleStatus.QUEUED.toString());
+
+        // Then...
+        List<IRun> queuedRuns = runIndex.getQueuedRuns();
+        assertThat(queuedRuns).hasSize(1);
+        assertThat(queuedRuns.get(0).getName()).isEqualTo("U1");
+        assertThat(queuedRuns.get(0).getTestClassName()).isEqualTo("mytest");
+        assertThat(notifiedRunNames).containsExactly("U1:queued");
+    }
+
+    @Test
+    public void testAllocatedRunIsNoLongerQueued() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        RunIndex runIndex = new RunIndex(mockDss);
+        runIndex.run();
+
+        // When...
+        runIndex.propertyModified("run.U1.status", Event.MODIFIED, TestRunLifecycleStatus.QUEUED.toString(), TestRunLifecycleStatus.ALLOCATED.toString());
+
+        // Then...
+        assertThat(runIndex.getQueuedRuns()).isEmpty();
+        assertThat(runIndex.getRun("U1").getStatus()).isEqualTo(TestRunLifecycleStatus.ALLOCATED.toString());
+    }
+
+    @Test
+    public void testDeletedRunIsRemovedFromTheIndex() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.FINISHED.toString());
+        dssProps.put("run.U1.result", "Passed");
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        RunIndex runIndex = new RunIndex(mockDss);
+        runIndex.run();
+
+        // When...
+        runIndex.propertyModified("run.U1.status", Event.DELETE, null, null);
+        runIndex.propertyModified("run.U1.result", Event.DELETE, null, null);
+
+        // Then...
+        assertThat(runIndex.getRun("U1")).isNull();
+    }
+
+    @Test
+    public void testResyncReplacesStaleEntries() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        RunIndex runIndex = new RunIndex(mockDss);
+        runIndex.run();
+
+        // Simulate a watch event being missed
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.ALLOCATED.toString());
+        assertThat(runIndex.getQueuedRuns()).hasSize(1);
+
+        // When...
+        runIndex.run();
+
+        // Then...
+        assertThat(runIndex.getQueuedRuns()).isEmpty();
+    }
+
+    @Test
+    public void testWatchEventsArrivingDuringAResyncAreNotLost() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        List<RunIndex> runIndexHolder = new ArrayList<>();
+        MockDSSStore mockDss = new MockDSSStore(dssProps) {
+            @Override
+            public Map<String, String> getPrefix(String keyPrefix) throws DynamicStatusStoreException {
+                Map<String, String> snapshot = super.getPrefix(keyPrefix);
+
+                // Simulate changes being made after the DSS has been read but before the re-load finishes
+                RunIndex runIndex = runIndexHolder.get(0);
+                runIndex.propertyModified("run.U1.status", Event.MODIFIED, TestRunLifecycleStatus.QUEUED.toString(), TestRunLifecycleStatus.ALLOCATED.toString());
+                runIndex.propertyModified("run.U2.status", Event.DELETE, TestRunLifecycleStatus.QUEUED.toString(), null);
+                runIndex.propertyModified("run.U3.status", Event.NEW, null, TestRunLifecycleStatus.QUEUED.toString());
+                return snapshot;
+            }
+        };
+        RunIndex runIndex = new RunIndex(mockDss);
+        runIndexHolder.add(runIndex);
+
+        // When...
+        runIndex.run();
+
+        // Then...
+        assertThat(runIndex.getRun("U1").getStatus()).isEqualTo(TestRunLifecycleStatus.ALLOCATED.toString());
+        assertThat(runIndex.getRun("U2")).isNull();
+        assertThat(runIndex.getQueuedRuns()).extracting("name").containsExactly("U3");
+    }
+
+    @Test
+    public void testListenersAreNotifiedWhenARunIsInterrupted() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.RUNNING.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        RunIndex runIndex = new RunIndex(mockDss);
+        runIndex.run();
+
+        List<String> interruptedRuns = new ArrayList<>();
+        runIndex.addListener(new IRunIndexListener() {
+            @Override
+            public void runStatusChanged(String runName, String newStatus) {
+            }
+
+            @Override
+            public void runInterrupted(String runName, String interruptReason) {
+                interruptedRuns.add(runName + ":" + interruptReason);
+            }
+        });
+
+        // When...
+        runIndex.propertyModified("run.U1.interruptReason", Event.NEW, null, "cancelled");
+        runIndex.propertyModified("run.U1.interruptReason", Event.DELETE, "cancelled", null);
+
+        // Then...
+        assertThat(interruptedRuns).containsExactly("U1:cancelled");
+        assertThat(runIndex.getAllRuns()).hasSize(1);
+        assertThat(runIndex.getRun("U1").getInterruptReason()).isNull();
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.spi.AbstractManager;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
@@ -58,15 +59,10 @@ public class RunFinishedRuns implements Runnable {
 
         logger.info("Starting search for finished runs");
         try {
-            List<IRun> runs = frameworkRuns.getAllRuns();
+            List<IRun> runs = frameworkRuns.getRunsWithStatus(TestRunLifecycleStatus.FINISHED);
             for (IRun run : runs) {
                 String runName = run.getName();
 
-                String status = run.getStatus();
-                if (!"finished".equals(status)) {
-                    continue;
-                }
-
                 Instant finished = run.getFinished();
                 Instant expires = null;
                 if (finished != null) {
@@ -0,0 +1,121 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.TestRunHeartbeat;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IFrameworkRuns;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.Result;
+
+/**
+ * Watches the liveness keys which engines keep alive with leases, when the
+ * framework.heartbeat.lease.enabled CPS property is set.
+ *
+ * If an engine dies, its lease expires and its liveness key is deleted from the DSS,
+ * so the run can be interrupted straight away rather than when its heartbeat goes stale.
+ *
+ * The watcher only queues the names of the runs whose liveness keys have gone, as it must
+ * not block the DSS watch thread. The queued runs are checked each time this is run.
+ * An engine which stops cleanly deletes its heartbeat before its liveness key, so runs
+ * without a heartbeat are left alone.
+ */
+public class RunLivenessMonitor implements IDynamicStatusStoreWatcher, Runnable {
+
+    // The keys we get from the DSS look something like this:
+    // liveness.U4657
+    private final Pattern livenessKeyPattern = Pattern.compile("^" + Pattern.quote(TestRunHeartbeat.LIVENESS_KEY_PREFIX) + "(\\w+)$");
+
+    private final Queue<String> runNamesWithExpiredLiveness = new LinkedBlockingQueue<>();
+
+    private final IFrameworkRuns             frameworkRuns;
+    private final IDynamicStatusStoreService dss;
+    private final Log                        logger;
+
+    private UUID watchId;
+
+    public RunLivenessMonitor(IFrameworkRuns frameworkRuns, IDynamicStatusStoreService dss) {
+        this(frameworkRuns, dss, LogFactory.getLog(RunLivenessMonitor.class));
+    }
+
+    public RunLivenessMonitor(IFrameworkRuns frameworkRuns, IDynamicStatusStoreService dss, Log logger) {
+        this.frameworkRuns = frameworkRuns;
+        this.dss = dss;
+        this.logger = logger;
+    }
+
+    public void startWatching() throws DynamicStatusStoreException {
+        this.watchId = dss.watchPrefix(this, TestRunHeartbeat.LIVENESS_KEY_PREFIX);
+    }
+
+    public void stopWatching() throws DynamicStatusStoreException {
+        if (this.watchId != null) {
+            dss.unwatch(this.watchId);
+            this.watchId = null;
+        }
+    }
+
+    /**
+     * The DSS is telling us that a liveness key has changed. We only queue the run
+     * for later processing, so that this thread is not blocked.
+     */
+    @Override
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        if (event == Event.DELETE && key != null) {
+            Matcher matcher = livenessKeyPattern.matcher(key);
+            if (matcher.find()) {
+                runNamesWithExpiredLiveness.add(matcher.group(1));
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        String runName = runNamesWithExpiredLiveness.poll();
+        while (runName != null) {
+            try {
+                processExpiredLiveness(runName);
+            } catch (Exception e) {
+                logger.error("Problem checking run " + runName + " after its liveness key expired", e);
+            }
+            runName = runNamesWithExpiredLiveness.poll();
+        }
+    }
+
+    private void processExpiredLiveness(String runName) throws DynamicStatusStoreException {
+        if (dss.get(TestRunHeartbeat.getLivenessKey(runName)) != null) {
+            // The engine has taken out a new lease since, so is still alive
+            logger.trace("Run " + runName + " has a new liveness key");
+            return;
+        }
+
+        IRun run = frameworkRuns.getRun(runName);
+        if (run == null || run.isSharedEnvironment() || run.getHeartbeat() == null) {
+            // The run has gone, is handled elsewhere, or its engine stopped cleanly
+            logger.trace("Run " + runName + " liveness key has gone, but the run is not active");
+            return;
+        }
+
+        if (run.isLocal()) {
+            logger.warn("Deleting run " + runName + ", its liveness lease has expired");
+            this.frameworkRuns.markRunInterrupted(runName, Result.HUNG);
+        } else {
+            logger.warn("Resetting run " + runName + ", its liveness lease has expired");
+            this.frameworkRuns.markRunInterrupted(runName, Result.REQUEUED);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.annotations.Component;
 
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
@@ -28,6 +29,7 @@ public class RunResourceManagement implements IResourceManagementProvider {
     private IDynamicStatusStoreService         dss;
     private IConfigurationPropertyStoreService cps;
     private RunDeadHeartbeatMonitor            deadHeartbeatMonitor;
+    private RunLivenessMonitor                 livenessMonitor;
     private RunExpiredSharedEnvironment        runExpiredSharedEnvironment;
     private RunFinishedRuns                    runFinishedRuns;
     private RunInactiveRunCleanup              runInactiveRunCleanup;
@@ -51,6 +53,12 @@ public class RunResourceManagement implements IResourceManagementProvider {
             logger.error("Unable to initialise Run Dead Heartbeat monitor", e);
         }
 
+        try {
+            this.livenessMonitor = new RunLivenessMonitor(this.framework.getFrameworkRuns(), this.dss);
+        } catch (FrameworkException e) {
+            logger.error("Unable to initialise Run Liveness monitor", e);
+        }
+
         try {
             this.runExpiredSharedEnvironment = new RunExpiredSharedEnvironment(this.framework, this.resourceManagement, this.dss, this, cps);
         } catch (FrameworkException e) {
@@ -87,6 +95,16 @@ public class RunResourceManagement implements IResourceManagementProvider {
                     this.framework.getRandom().nextInt(20), 20, TimeUnit.SECONDS);
         }
 
+        if (this.livenessMonitor != null) {
+            try {
+                this.livenessMonitor.startWatching();
+                this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
+                        this.livenessMonitor, 1, 1, TimeUnit.SECONDS);
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to watch the DSS for expired run liveness keys", e);
+            }
+        }
+
         if (this.runExpiredSharedEnvironment != null) {
             this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
                     runExpiredSharedEnvironment,
@@ -143,6 +161,13 @@ public class RunResourceManagement implements IResourceManagementProvider {
 
     @Override
     public void shutdown() {
+        if (this.livenessMonitor != null) {
+            try {
+                this.livenessMonitor.stopWatching();
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to stop watching the DSS for expired run liveness keys", e);
+            }
+        }
     }
 
     @Override
@@ -43,15 +43,10 @@ public class RunWaitingRuns implements Runnable {
     public void run() {
         logger.info("Starting Waiting Run search");
         try {
-            List<IRun> runs = frameworkRuns.getAllRuns();
+            List<IRun> runs = frameworkRuns.getRunsWithStatus(TestRunLifecycleStatus.WAITING);
             for (IRun run : runs) {
                 String runName = run.getName();
 
-                String status = run.getStatus();
-                if (!"waiting".equals(status)) {
-                    continue;
-                }
-
                 Instant finished = run.getWaitUntil();
                 if (finished == null) {
                     continue;
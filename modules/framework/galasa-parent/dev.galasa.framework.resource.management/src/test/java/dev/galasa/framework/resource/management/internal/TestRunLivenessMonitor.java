@@ -0,0 +1,122 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockDSSStore;
+import dev.galasa.framework.mocks.MockFrameworkRuns;
+import dev.galasa.framework.mocks.MockLog;
+import dev.galasa.framework.mocks.MockRun;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.Result;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
+
+public class TestRunLivenessMonitor {
+
+    public static final boolean LOCAL_TEST = true;
+    public static final boolean REMOTE_TEST = false;
+
+    class MockFrameworkRunsExtended extends MockFrameworkRuns {
+
+        public List<String> runsInterrupted = new ArrayList<String>();
+
+        public MockFrameworkRunsExtended(List<IRun> runs) {
+            super(runs);
+        }
+
+        @Override
+        public boolean markRunInterrupted(String runname, String interruptReason) throws DynamicStatusStoreException {
+            runsInterrupted.add(runname + ":" + interruptReason);
+            return true;
+        }
+    }
+
+    private MockRun createMockRun(String runName, boolean isLocal, Instant heartbeat) {
+        MockRun run = new MockRun(
+            "myTestBundle",
+            "myTestClassName",
+            runName,
+            "myTestStreamName",
+            "myTestStreamOBR",
+            "myTestStreamReportUrl",
+            "myTestRequestorName",
+            isLocal);
+        run.setHeartbeat(heartbeat);
+        return run;
+    }
+
+    @Test
+    public void testRemoteRunWhoseLivenessKeyExpiresIsRequeued() throws Exception {
+        // Given...
+        List<IRun> runsList = new ArrayList<IRun>();
+        runsList.add(createMockRun("U1", REMOTE_TEST, Instant.now()));
+        runsList.add(createMockRun("L2", LOCAL_TEST, Instant.now()));
+        MockFrameworkRunsExtended runs = new MockFrameworkRunsExtended(runsList);
+
+        MockDSSStore dss = new MockDSSStore(new HashMap<String,String>());
+        RunLivenessMonitor monitor = new RunLivenessMonitor(runs, dss, new MockLog());
+
+        // When...
+        monitor.propertyModified("liveness.U1", Event.NEW, null, "2025-01-01T00:00:00Z");
+        monitor.propertyModified("liveness.U1", Event.DELETE, null, null);
+        monitor.propertyModified("liveness.L2", Event.DELETE, null, null);
+        monitor.run();
+
+        // Then...
+        assertThat(runs.runsInterrupted).containsExactly("U1:" + Result.REQUEUED, "L2:" + Result.HUNG);
+    }
+
+    @Test
+    public void testRunWhichStoppedCleanlyIsNotInterrupted() throws Exception {
+        // Given...
+        // The engine deletes the heartbeat before it releases its liveness lease
+        List<IRun> runsList = new ArrayList<IRun>();
+        runsList.add(createMockRun("U1", REMOTE_TEST, null));
+        MockFrameworkRunsExtended runs = new MockFrameworkRunsExtended(runsList);
+
+        MockDSSStore dss = new MockDSSStore(new HashMap<String,String>());
+        RunLivenessMonitor monitor = new RunLivenessMonitor(runs, dss, new MockLog());
+
+        // When...
+        monitor.propertyModified("liveness.U1", Event.DELETE, null, null);
+        monitor.propertyModified("liveness.U2", Event.DELETE, null, null);
+        monitor.run();
+
+        // Then...
+        assertThat(runs.runsInterrupted).isEmpty();
+    }
+
+    @Test
+    public void testRunWithANewLivenessKeyIsNotInterrupted() throws Exception {
+        // Given...
+        List<IRun> runsList = new ArrayList<IRun>();
+        runsList.add(createMockRun("U1", REMOTE_TEST, Instant.now()));
+        MockFrameworkRunsExtended runs = new MockFrameworkRunsExtended(runsList);
+
+        // The engine has taken out a new lease since the old one expired
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("liveness.U1", "2025-01-01T00:00:00Z");
+        MockDSSStore dss = new MockDSSStore(dssProps);
+        RunLivenessMonitor monitor = new RunLivenessMonitor(runs, dss, new MockLog());
+
+        // When...
+        monitor.propertyModified("liveness.U1", Event.DELETE, null, null);
+        monitor.run();
+
+        // Then...
+        assertThat(runs.runsInterrupted).isEmpty();
+    }
+}
@@ -269,6 +269,9 @@ public class BaseTestRunner {
             logger.error("Unable to delete heartbeat", e);
         }
 
+        // The heartbeat has gone, so resource management will not take the liveness key going as a dead engine
+        heartbeat.releaseLivenessLease();
+
         try {
             this.eventsProducer.produceTestHeartbeatStoppedEvent(framework.getTestRunName());
         } catch (TestRunException e) {
@@ -29,6 +29,7 @@ import org.osgi.service.component.annotations.ServiceScope;
 
 import dev.galasa.framework.internal.auth.FrameworkAuthStoreService;
 import dev.galasa.framework.internal.cps.FrameworkConfigurationPropertyService;
+import dev.galasa.framework.internal.cps.PropertyResolutionCache;
 import dev.galasa.framework.internal.creds.FrameworkCredentialsService;
 import dev.galasa.framework.internal.dss.FrameworkDynamicStatusStoreService;
 import dev.galasa.framework.internal.ras.FrameworkMultipleResultArchiveStore;
@@ -65,6 +66,9 @@ public class Framework implements IFramework, IShuttableFramework {
     private Properties                         overrideProperties;
     private final Properties                   recordProperties = new Properties();
 
+    // Only used in a test run, where the CPS is not expected to change under it
+    private PropertyResolutionCache            propertyResolutionCache;
+
     private IConfigurationPropertyStore        cpsStore;
     private IDynamicStatusStore                dssStore;
     private IResultArchiveStoreService         rasService;
@@ -156,7 +160,7 @@ public class Framework implements IFramework, IShuttableFramework {
         }
 
         return new FrameworkConfigurationPropertyService(this, this.cpsStore, this.overrideProperties,
-                this.recordProperties, namespace);
+                this.recordProperties, namespace, this.propertyResolutionCache);
     }
 
     /*
@@ -385,6 +389,7 @@ public class Framework implements IFramework, IShuttableFramework {
      */
     public void setTestRunName(String runName) throws FrameworkException {
         this.runName = runName;
+        this.propertyResolutionCache = new PropertyResolutionCache();
 
         this.run = getFrameworkRuns().getRun(runName);
     }
@@ -418,6 +423,16 @@ public class Framework implements IFramework, IShuttableFramework {
 
     }
 
+    @Override
+    public void flushLogCapture() {
+        if (this.testRunLogCapture != null && isInitialised()) {
+            if (!this.testRunLogCapture.flush()) {
+                logger.warn("The run log was not written to the Result Archive Store within "
+                        + TestRunLogCapture.DEFAULT_FLUSH_TIMEOUT_MILLIS + "ms, carrying on without waiting for it");
+            }
+        }
+    }
+
     @Override
     public void shutdown() throws FrameworkException {
         shutdown(null);
@@ -472,6 +487,34 @@ public class Framework implements IFramework, IShuttableFramework {
             }
         }
 
+        // *** Write out the rest of the run log while the Result Archive Store is still available
+        if (this.testRunLogCapture != null) {
+            try {
+                shutdownLogger.trace("Shutting down the run log capture");
+                if (!this.testRunLogCapture.shutdown()) {
+                    shutdownLogger.warn("The run log capture did not finish writing within "
+                            + TestRunLogCapture.DEFAULT_SHUTDOWN_TIMEOUT_MILLIS + "ms, the end of the run log may be missing");
+                }
+                shutdownLogger.info("Run log capture wrote " + this.testRunLogCapture.getWrittenLineCount()
+                        + " lines and dropped " + this.testRunLogCapture.getDroppedLineCount() + " lines");
+            } catch (Throwable t) {
+                error = true;
+                shutdownLogger.error("Failed to shutdown the run log capture", t);
+            }
+        }
+
+        // *** Shutdown the RBAC Service, which watches the DSS
+        if (this.rbacService != null) {
+            try {
+                shutdownLogger.trace("Shutting down the RBAC Service");
+                this.rbacService.shutdown();
+                this.rbacService = null;
+            } catch (Throwable t) {
+                error = true;
+                shutdownLogger.error("Failed to shutdown the RBAC Service", t);
+            }
+        }
+
         // *** Shutdown the Result Archive Store
         if (this.rasService != null) {
             try {
@@ -8,11 +8,12 @@ package dev.galasa.framework;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -33,9 +34,14 @@ import dev.galasa.framework.beans.Property;
 import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.spi.AbstractManager;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.DssAdd;
+import dev.galasa.framework.spi.DssDelete;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DssUpdate;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDssAction;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
 import dev.galasa.framework.spi.IFramework;
@@ -64,6 +70,9 @@ public class FrameworkRuns implements IFrameworkRuns {
 
     private final String                             RUN_PREFIX   = "run.";
 
+    // etcd rejects transactions with more than 128 operations by default, so batches of runs are kept below that
+    private static final int                         MAX_DSS_ACTIONS_PER_TRANSACTION = 120;
+
     private ITimeService timeService;
 
     private final GalasaGson gson = new GalasaGson();
@@ -82,75 +91,100 @@ public class FrameworkRuns implements IFrameworkRuns {
 
     @Override
     public List<IRun> getActiveRuns() throws FrameworkException {
+        List<IRun> activeRuns = new LinkedList<>();
 
-        List<IRun> runs = getAllRuns();
-        Iterator<IRun> iruns = runs.iterator();
-        while (iruns.hasNext()) {
-            IRun run = iruns.next();
+        Map<String, Map<String, String>> allRunProperties = getAllRunPropertiesByRunName();
+        for (Map.Entry<String, Map<String, String>> entry : allRunProperties.entrySet()) {
+            String runName = entry.getKey();
+            Map<String, String> runProperties = entry.getValue();
 
-            if (run.getHeartbeat() != null) {
-                continue;
-            }
+            boolean hasHeartbeat = runProperties.containsKey(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.HEARTBEAT));
+            boolean isSharedEnvironment = Boolean.parseBoolean(runProperties.get(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.SHARED_ENVIRONMENT)));
 
-            if (run.isSharedEnvironment()) {
-                continue;
+            if (hasHeartbeat || isSharedEnvironment) {
+                activeRuns.add(new RunImpl(runName, runProperties));
             }
-
-            iruns.remove();
         }
 
-        return runs;
+        return activeRuns;
     }
 
     @Override
     public @NotNull List<IRun> getQueuedRuns() throws FrameworkException {
-        List<IRun> runs = getAllRuns();
-        Iterator<IRun> iruns = runs.iterator();
-        while (iruns.hasNext()) {
-            IRun run = iruns.next();
-
-            if (!"queued".equals(run.getStatus())) {
-                iruns.remove();
-            }
-        }
+        return getRunsWithStatus(TestRunLifecycleStatus.QUEUED);
+    }
 
-        return runs;
+    @Override
+    public @NotNull List<IRun> getRunsWithStatus(@NotNull TestRunLifecycleStatus status) throws FrameworkException {
+        return getRunsWithPropertyValue(DssPropertyKeyRunNameSuffix.STATUS, status.toString());
     }
 
     @Override
     public List<IRun> getAllRuns() throws FrameworkException {
-        HashMap<String, IRun> runs = new HashMap<>();
+        List<IRun> returnRuns = new LinkedList<>();
 
-        logger.trace("Fetching all run keys from DSS");
-        Collection<String> runPropertiesKeys = dss.getPrefixKeysOnly(RUN_PREFIX);
-        logger.trace("Fetched all run keys from DSS");
-        for (String key : runPropertiesKeys) {
-            Matcher matcher = runPattern.matcher(key);
-            if (matcher.find()) {
-                String runName = matcher.group(1);
-
-                if (!runs.containsKey(runName)) {
-                    runs.put(runName, new RunImpl(runName, this.dss));
-                }
-            }
+        Map<String, Map<String, String>> allRunProperties = getAllRunPropertiesByRunName();
+        for (Map.Entry<String, Map<String, String>> entry : allRunProperties.entrySet()) {
+            returnRuns.add(new RunImpl(entry.getKey(), entry.getValue()));
         }
 
-        LinkedList<IRun> returnRuns = new LinkedList<>(runs.values());
-
         return returnRuns;
     }
 
     @Override
     public List<IRun> getAllGroupedRuns(@NotNull String groupName) throws FrameworkException {
-        List<IRun> allRuns = this.getAllRuns();
-        List<IRun> groupedRuns = new LinkedList<IRun>();
+        return getRunsWithPropertyValue(DssPropertyKeyRunNameSuffix.GROUP, groupName);
+    }
+
+    /**
+     * Gets the runs which have the given run property set to the given value.
+     * The runs are filtered on their raw DSS properties, so runs that don't match are never built.
+     */
+    private List<IRun> getRunsWithPropertyValue(DssPropertyKeyRunNameSuffix suffix, String expectedValue) throws FrameworkException {
+        List<IRun> matchingRuns = new LinkedList<>();
+
+        Map<String, Map<String, String>> allRunProperties = getAllRunPropertiesByRunName();
+        for (Map.Entry<String, Map<String, String>> entry : allRunProperties.entrySet()) {
+            String runName = entry.getKey();
+            Map<String, String> runProperties = entry.getValue();
+
+            if (expectedValue.equals(runProperties.get(getSuffixedRunDssKey(runName, suffix)))) {
+                matchingRuns.add(new RunImpl(runName, runProperties));
+            }
+        }
+
+        return matchingRuns;
+    }
+
+    /**
+     * Reads all of the run properties from the DSS in a single request and groups them by run name,
+     * so that each run can be built without another trip to the DSS.
+     *
+     * @return a map of run names to the DSS properties of that run
+     */
+    private Map<String, Map<String, String>> getAllRunPropertiesByRunName() throws DynamicStatusStoreException {
+        Map<String, Map<String, String>> runPropertiesByRunName = new HashMap<>();
+
+        logger.trace("Fetching all run properties from DSS");
+        Map<String, String> allRunProperties = dss.getPrefix(RUN_PREFIX);
+        logger.trace("Fetched " + allRunProperties.size() + " run properties from DSS");
+
+        for (Map.Entry<String, String> entry : allRunProperties.entrySet()) {
+            String key = entry.getKey();
+            Matcher matcher = runPattern.matcher(key);
+            if (matcher.find()) {
+                String runName = matcher.group(1);
 
-        for (IRun run : allRuns) {
-            if (groupName.equals(run.getGroup())) {
-                groupedRuns.add(run);
+                Map<String, String> runProperties = runPropertiesByRunName.get(runName);
+                if (runProperties == null) {
+                    runProperties = new HashMap<>();
+                    runPropertiesByRunName.put(runName, runProperties);
+                }
+                runProperties.put(key, entry.getValue());
             }
         }
-        return groupedRuns;
+
+        return runPropertiesByRunName;
     }
 
     @Override
@@ -214,10 +248,182 @@ public class FrameworkRuns implements IFrameworkRuns {
         return submitRun(runRequest);
     }
 
+    @Override
+    public @NotNull List<IRun> submitRuns(@NotNull List<SubmitRunRequest> runRequests) throws FrameworkException {
+        IRun[] submittedRuns = new IRun[runRequests.size()];
+
+        // *** The names of the runs this call has created in the DSS, so that they can be
+        // removed again if a later run can't be submitted
+        List<String> createdRunNames = new ArrayList<>();
+
+        try {
+            // *** Group the requests by the prefix of their run names, so that a block of
+            // run numbers can be reserved for each prefix
+            Map<String, List<Integer>> requestIndexesByTypePrefix = new LinkedHashMap<>();
+            for (int index = 0; index < runRequests.size(); index++) {
+                SubmitRunRequest runRequest = runRequests.get(index);
+                setRunRequestDefaultsIfNotSet(runRequest);
+
+                if (runRequest.getSharedEnvironmentPhase() != null) {
+                    submittedRuns[index] = submitSharedEnvironmentRun(runRequest);
+                    if (runRequest.getSharedEnvironmentPhase() == SharedEnvironmentPhase.BUILD) {
+                        createdRunNames.add(submittedRuns[index].getName());
+                    }
+                } else {
+                    String typePrefix = getRunTypePrefix(runRequest.getRunType());
+                    requestIndexesByTypePrefix.computeIfAbsent(typePrefix, prefix -> new ArrayList<>()).add(index);
+                }
+            }
+
+            for (Map.Entry<String, List<Integer>> entry : requestIndexesByTypePrefix.entrySet()) {
+                submitRunsWithTypePrefix(entry.getKey(), entry.getValue(), runRequests, submittedRuns, createdRunNames);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteCreatedRuns(createdRunNames);
+            throw new FrameworkException("Interrupted", e);
+        } catch (FrameworkException e) {
+            deleteCreatedRuns(createdRunNames);
+            throw e;
+        } catch (Exception e) {
+            deleteCreatedRuns(createdRunNames);
+            throw new FrameworkException("Problem submitting jobs", e);
+        }
+
+        return Arrays.asList(submittedRuns);
+    }
+
+    /**
+     * Removes the runs which were created by a call to submitRuns that then failed, so that
+     * the caller isn't left with queued runs it doesn't know about, and which have no RAS records.
+     * Every run is attempted even if some of them can't be removed.
+     */
+    private void deleteCreatedRuns(List<String> createdRunNames) {
+        if (!createdRunNames.isEmpty()) {
+            logger.info("Removing " + createdRunNames.size() + " runs which were submitted before the submission failed");
+        }
+
+        for (String runName : createdRunNames) {
+            try {
+                this.dss.deletePrefix(getRunDssPrefix(runName));
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to remove run " + runName + " after the submission failed", e);
+            }
+        }
+    }
+
+    private void submitRunsWithTypePrefix(String typePrefix, List<Integer> requestIndexes, List<SubmitRunRequest> runRequests, IRun[] submittedRuns,
+            List<String> createdRunNames) throws FrameworkException, InterruptedException {
+        List<String> runNames = reserveRunNames(typePrefix, requestIndexes.size());
+
+        List<PendingRun> batch = new ArrayList<>();
+        int actionsInBatch = 0;
+        for (int i = 0; i < requestIndexes.size(); i++) {
+            int index = requestIndexes.get(i);
+            String runName = runNames.get(i);
+            SubmitRunRequest runRequest = runRequests.get(index);
+
+            PendingRun pendingRun = new PendingRun(index, runName, runRequest, getRunPropertiesToStore(runName, runRequest));
+            int actionsForRun = pendingRun.otherRunProperties.size() + 1;
+
+            if (!batch.isEmpty() && actionsInBatch + actionsForRun > MAX_DSS_ACTIONS_PER_TRANSACTION) {
+                storeRuns(batch, submittedRuns, createdRunNames);
+                batch.clear();
+                actionsInBatch = 0;
+            }
+            batch.add(pendingRun);
+            actionsInBatch += actionsForRun;
+        }
+
+        if (!batch.isEmpty()) {
+            storeRuns(batch, submittedRuns, createdRunNames);
+        }
+    }
+
+    /**
+     * Stores a batch of runs in a single DSS transaction. The transaction only goes ahead if none of the
+     * run names are in use already.
+     */
+    private void storeRuns(List<PendingRun> batch, IRun[] submittedRuns, List<String> createdRunNames) throws FrameworkException, InterruptedException {
+        List<IDssAction> actions = new ArrayList<>();
+        for (PendingRun pendingRun : batch) {
+            actions.add(new DssAdd(pendingRun.getTestKey(), pendingRun.runRequest.getBundleTest()));
+            for (Map.Entry<String, String> property : pendingRun.otherRunProperties.entrySet()) {
+                actions.add(new DssUpdate(property.getKey(), property.getValue()));
+            }
+        }
+
+        try {
+            this.dss.performActions(actions.toArray(new IDssAction[0]));
+
+            for (PendingRun pendingRun : batch) {
+                submittedRuns[pendingRun.index] = new RunImpl(pendingRun.runName, pendingRun.getAllRunProperties());
+                createdRunNames.add(pendingRun.runName);
+            }
+        } catch (DynamicStatusStoreMatchException e) {
+            // *** One of the reserved run names is still in use, for example because the run numbers
+            // have wrapped round, so store these runs one at a time instead
+            logger.info("Unable to store " + batch.size() + " runs together as a run name is in use, storing them one at a time");
+            for (PendingRun pendingRun : batch) {
+                submittedRuns[pendingRun.index] = storeRunOrAssignNewName(pendingRun);
+                createdRunNames.add(submittedRuns[pendingRun.index].getName());
+            }
+        }
+    }
+
+    private IRun storeRunOrAssignNewName(PendingRun pendingRun) throws FrameworkException, InterruptedException {
+        IRun run;
+        if (this.dss.putSwap(pendingRun.getTestKey(), null, pendingRun.runRequest.getBundleTest(), pendingRun.otherRunProperties)) {
+            run = new RunImpl(pendingRun.runName, pendingRun.getAllRunProperties());
+        } else {
+            String runName = assignNewRunName(pendingRun.runRequest);
+            run = new RunImpl(runName, this.dss);
+        }
+        return run;
+    }
+
+    /**
+     * A run which has been given a run name but is not yet stored in the DSS
+     */
+    private class PendingRun {
+        private final int index;
+        private final String runName;
+        private final SubmitRunRequest runRequest;
+        private final Map<String, String> otherRunProperties;
+
+        PendingRun(int index, String runName, SubmitRunRequest runRequest, Map<String, String> otherRunProperties) {
+            this.index = index;
+            this.runName = runName;
+            this.runRequest = runRequest;
+            this.otherRunProperties = otherRunProperties;
+        }
+
+        String getTestKey() throws DynamicStatusStoreException {
+            return getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.TEST);
+        }
+
+        Map<String, String> getAllRunProperties() throws DynamicStatusStoreException {
+            Map<String, String> allRunProperties = new HashMap<>(otherRunProperties);
+            allRunProperties.put(getTestKey(), runRequest.getBundleTest());
+            return allRunProperties;
+        }
+    }
+
     private boolean storeRun(String runName, SubmitRunRequest runRequest) throws DynamicStatusStoreException {
+        Map<String, String> otherRunProperties = getRunPropertiesToStore(runName, runRequest);
+
+        // *** See if we can setup the runnumber properties (clashes possible if low max
+        // number or sharing prefix
+        return this.dss.putSwap(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.TEST), null, runRequest.getBundleTest(), otherRunProperties);
+    }
+
+    /**
+     * Gets the DSS properties of a new run, apart from the "test" property whose absence
+     * shows that the run name is still free
+     */
+    private Map<String, String> getRunPropertiesToStore(String runName, SubmitRunRequest runRequest) throws DynamicStatusStoreException {
         String bundleName = runRequest.getBundleName();
         String testName = runRequest.getTestName();
-        String bundleTest = runRequest.getBundleTest();
         String gherkinTest = runRequest.getGherkinTest();
         String runType = runRequest.getRunType();
         String mavenRepository = runRequest.getMavenRepository();
@@ -299,9 +505,7 @@ public class FrameworkRuns implements IFrameworkRuns {
             otherRunProperties.put(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.OVERRIDES), gson.toJson(overridesArray));
         }
 
-        // *** See if we can setup the runnumber properties (clashes possible if low max
-        // number or sharing prefix
-        return this.dss.putSwap(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.TEST), null, bundleTest, otherRunProperties);
+        return otherRunProperties;
     }
 
     @Override
@@ -327,18 +531,15 @@ public class FrameworkRuns implements IFrameworkRuns {
         IRun run = getRun(runName);
         if (run != null && !run.isLocal()) {
 
-            // Remove the run's heartbeat and interrupt reason
-            Set<String> keysToDelete = new HashSet<>();
-            keysToDelete.add(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.HEARTBEAT));
-            keysToDelete.add(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.INTERRUPT_REASON));
-            keysToDelete.add(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.INTERRUPTED_AT));
-            this.dss.delete(keysToDelete);
-
-            // Set the status of the run back to 'queued' and generate a new run ID
-            Map<String, String> propertiesToSet = new HashMap<>();
-            propertiesToSet.put(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.STATUS), TestRunLifecycleStatus.QUEUED.toString());
-            propertiesToSet.put(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.RAS_RUN_ID), generateRasRunId(runName));
-            this.dss.put(propertiesToSet);
+            // Remove the run's heartbeat and interrupt reason, then set the status of the run
+            // back to 'queued' and generate a new run ID, all in one round trip to the DSS
+            this.dss.performActions(
+                new DssDelete(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.HEARTBEAT), null),
+                new DssDelete(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.INTERRUPT_REASON), null),
+                new DssDelete(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.INTERRUPTED_AT), null),
+                new DssUpdate(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.STATUS), TestRunLifecycleStatus.QUEUED.toString()),
+                new DssUpdate(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.RAS_RUN_ID), generateRasRunId(runName))
+            );
 
             isReset = true;
         }
@@ -453,8 +654,10 @@ public class FrameworkRuns implements IFrameworkRuns {
     public IRun getRun(String runname) throws DynamicStatusStoreException {
         IRun run = null;
 
-        if (isRunInDss(runname)) {
-            run = new RunImpl(runname, this.dss);
+        // Read the run's properties in one go, rather than checking the run exists first
+        Map<String, String> runProperties = this.dss.getPrefix(getRunDssPrefix(runname));
+        if (!runProperties.isEmpty()) {
+            run = new RunImpl(runname, runProperties);
         }
 
         return run;
@@ -560,6 +763,46 @@ public class FrameworkRuns implements IFrameworkRuns {
         return runName;
     }
 
+    /**
+     * Reserves a block of run numbers for the given type prefix with a single swap of the
+     * last used number, so that a batch of runs only contends for it once.
+     *
+     * @return the names of the reserved runs
+     */
+    private List<String> reserveRunNames(String typePrefix, int numberOfRuns) throws FrameworkException, InterruptedException {
+        int maxNumber = getPrefixMaxNumber(typePrefix);
+        if (numberOfRuns > maxNumber) {
+            throw new FrameworkException("Not enough request type numbers available for " + numberOfRuns + " runs");
+        }
+
+        String pLastused = "request.prefix." + typePrefix + ".lastused";
+        List<String> runNames = null;
+        while (runNames == null) {
+            String sLatestNumber = this.dss.get(pLastused);
+            int latestNumber = 0;
+            if (sLatestNumber != null && !sLatestNumber.trim().isEmpty()) {
+                latestNumber = Integer.parseInt(sLatestNumber);
+            }
+
+            List<String> reservedRunNames = new ArrayList<>(numberOfRuns);
+            for (int i = 0; i < numberOfRuns; i++) {
+                latestNumber++;
+                if (latestNumber > maxNumber) {
+                    latestNumber = 1;
+                }
+                reservedRunNames.add(typePrefix + latestNumber);
+            }
+
+            if (this.dss.putSwap(pLastused, sLatestNumber, Integer.toString(latestNumber))) {
+                runNames = reservedRunNames;
+            } else {
+                Thread.sleep(this.framework.getRandom().nextInt(200)); // *** Wait for a bit, to avoid race
+                // conditions
+            }
+        }
+        return runNames;
+    }
+
     private IRun submitSharedEnvironmentRun(SubmitRunRequest runRequest) throws FrameworkException {
         String sharedEnvironmentRunName = runRequest.getSharedEnvironmentRunName();
         SharedEnvironmentPhase sharedEnvironmentPhase = runRequest.getSharedEnvironmentPhase();
@@ -216,6 +216,7 @@ public class GherkinTestRunner extends BaseTestRunner {
                 testStructure.setResult(testObject.getResult().getName());
                 isRunOK = false;
             }
+            testStructure.setManagerTimings(managers.getManagerPhaseTimings());
         }
     }
 
@@ -5,6 +5,7 @@
  */
 package dev.galasa.framework;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.validation.constraints.NotNull;
@@ -13,6 +14,7 @@ import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.language.GalasaMethod;
+import dev.galasa.framework.spi.teststructure.ManagerPhaseTiming;
 
 public interface ITestRunManagers {
     public boolean anyReasonTestClassShouldBeIgnored() throws FrameworkException ;
@@ -58,4 +60,11 @@ public interface ITestRunManagers {
      * @since 0.43.0
      */
     default void addTestMethodResult(ITestMethodResult newTestMethodResult) {}
+
+    /**
+     * @return how long each Manager has taken in each of the provisioning phases run so far
+     */
+    default List<ManagerPhaseTiming> getManagerPhaseTimings() {
+        return new ArrayList<>();
+    }
 }
\ No newline at end of file
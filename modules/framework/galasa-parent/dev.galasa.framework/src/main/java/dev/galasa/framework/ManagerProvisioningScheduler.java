@@ -0,0 +1,258 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IManager;
+import dev.galasa.framework.spi.teststructure.ManagerPhaseTiming;
+
+/**
+ * Runs a provisioning phase across the active Managers, running Managers at
+ * the same time where it is safe to do so.
+ *
+ * The Managers are given already sorted into provisioning order. A Manager
+ * waits for every Manager sorted before it that it is provisionally dependent
+ * on. A Manager that cannot be provisioned in parallel waits for every Manager
+ * sorted before it, and every Manager sorted after it waits for it. The stop
+ * and discard phases run the same graph backwards, so a Manager is only
+ * stopped once every Manager depending on it has been.
+ *
+ * If fewer than two Managers can be provisioned in parallel, or only one
+ * thread is allowed, the phases run one Manager at a time on the calling
+ * thread in the same order as they always have.
+ *
+ * If a Manager fails going forwards, no more Managers are started in that
+ * phase, those already running are waited for, and the first failure is thrown.
+ * Going backwards, every Manager is still stopped or discarded however many
+ * fail, and then the first failure is thrown with the others suppressed in it.
+ */
+class ManagerProvisioningScheduler {
+
+    interface ManagerAction {
+        void run(IManager manager) throws FrameworkException;
+    }
+
+    private final Log                      logger       = LogFactory.getLog(ManagerProvisioningScheduler.class);
+
+    private final List<IManager>           managers;
+
+    // For each Manager, the indexes of the Managers it must wait for, and of those that wait for it
+    private final List<List<Integer>>      dependencies = new ArrayList<>();
+    private final List<List<Integer>>      dependents   = new ArrayList<>();
+
+    private final ExecutorService          executor;
+
+    private final List<ManagerPhaseTiming> timings      = new ArrayList<>();
+
+    /**
+     * @param managers   - the Managers, sorted into provisioning order
+     * @param maxThreads - the most Managers to run at once
+     */
+    ManagerProvisioningScheduler(List<IManager> managers, int maxThreads) {
+        this.managers = new ArrayList<>(managers);
+
+        int parallelManagers = 0;
+        for (int i = 0; i < this.managers.size(); i++) {
+            IManager manager = this.managers.get(i);
+            boolean parallel = manager.canProvisionInParallel();
+            if (parallel) {
+                parallelManagers++;
+            }
+
+            List<Integer> waitsFor = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                IManager earlierManager = this.managers.get(j);
+                if (!parallel || !earlierManager.canProvisionInParallel()
+                        || manager.areYouProvisionalDependentOn(earlierManager)) {
+                    waitsFor.add(j);
+                    dependents.get(j).add(i);
+                }
+            }
+            dependencies.add(waitsFor);
+            dependents.add(new ArrayList<>());
+        }
+
+        int threads = Math.min(parallelManagers, maxThreads);
+        if (threads > 1) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "galasa-provisioning-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            logger.debug("Provisioning " + parallelManagers + " Managers in parallel with up to " + threads + " threads");
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Run a phase in provisioning order, stopping at the first failure
+     */
+    void runForwards(String phase, ManagerAction action) throws FrameworkException {
+        run(phase, action, dependencies, dependents, false);
+    }
+
+    /**
+     * Run a phase in reverse provisioning order, running every Manager even if
+     * some fail
+     */
+    void runBackwards(String phase, ManagerAction action) throws FrameworkException {
+        run(phase, action, dependents, dependencies, true);
+    }
+
+    boolean isParallel() {
+        return executor != null;
+    }
+
+    /**
+     * @return how long each Manager took in each phase run so far
+     */
+    synchronized List<ManagerPhaseTiming> getTimings() {
+        return new ArrayList<>(timings);
+    }
+
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(String phase, ManagerAction action, List<List<Integer>> waitsFor, List<List<Integer>> waitedForBy,
+            boolean backwards) throws FrameworkException {
+        // Going backwards the Managers are tidying up, so one failing must not stop the others
+        boolean continueAfterFailure = backwards;
+
+        if (executor == null) {
+            Throwable failure = null;
+            for (int i = 0; i < managers.size(); i++) {
+                try {
+                    runManager(phase, action, managers.get(backwards ? managers.size() - 1 - i : i));
+                } catch (FrameworkException | RuntimeException e) {
+                    if (!continueAfterFailure) {
+                        throw e;
+                    }
+                    failure = addFailure(failure, e);
+                }
+            }
+            throwFailure(failure);
+            return;
+        }
+
+        int[] outstanding = new int[managers.size()];
+        for (int i = 0; i < outstanding.length; i++) {
+            outstanding[i] = waitsFor.get(i).size();
+        }
+
+        LinkedBlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+        int running = 0;
+        for (int i = 0; i < outstanding.length; i++) {
+            if (outstanding[i] == 0) {
+                submit(phase, action, i, completions);
+                running++;
+            }
+        }
+
+        Throwable failure = null;
+        while (running > 0) {
+            Completion completion;
+            try {
+                completion = completions.take();
+            } catch (InterruptedException e) {
+                // Leave the running Managers to finish on their own, nothing more will be started
+                Thread.currentThread().interrupt();
+                throw new FrameworkException("Interrupted waiting for the Managers to " + phase, e);
+            }
+            running--;
+
+            if (completion.failure != null) {
+                failure = addFailure(failure, completion.failure);
+                if (!continueAfterFailure) {
+                    continue;
+                }
+            }
+
+            if (failure == null || continueAfterFailure) {
+                for (int next : waitedForBy.get(completion.index)) {
+                    if (--outstanding[next] == 0) {
+                        submit(phase, action, next, completions);
+                        running++;
+                    }
+                }
+            }
+        }
+
+        throwFailure(failure);
+    }
+
+    /**
+     * @return the first failure, with any later ones suppressed in it
+     */
+    private Throwable addFailure(Throwable firstFailure, Throwable failure) {
+        if (firstFailure == null) {
+            return failure;
+        }
+        firstFailure.addSuppressed(failure);
+        return firstFailure;
+    }
+
+    private void throwFailure(Throwable failure) throws FrameworkException {
+        if (failure instanceof FrameworkException) {
+            throw (FrameworkException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    private void submit(String phase, ManagerAction action, int index, LinkedBlockingQueue<Completion> completions) {
+        IManager manager = managers.get(index);
+        executor.execute(() -> {
+            Throwable failure = null;
+            try {
+                runManager(phase, action, manager);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            completions.add(new Completion(index, failure));
+        });
+    }
+
+    private void runManager(String phase, ManagerAction action, IManager manager) throws FrameworkException {
+        Instant startTime = Instant.now();
+        try {
+            action.run(manager);
+        } finally {
+            addTiming(new ManagerPhaseTiming(manager.getClass().getName(), phase, startTime, Instant.now()));
+        }
+    }
+
+    private synchronized void addTiming(ManagerPhaseTiming timing) {
+        timings.add(timing);
+    }
+
+    private static class Completion {
+        private final int       index;
+        private final Throwable failure;
+
+        Completion(int index, Throwable failure) {
+            this.index = index;
+            this.failure = failure;
+        }
+    }
+}
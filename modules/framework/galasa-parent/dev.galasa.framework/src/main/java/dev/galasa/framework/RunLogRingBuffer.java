@@ -0,0 +1,145 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue of run log messages which any number of threads can add to,
+ * but only one thread takes from.
+ *
+ * Each slot in the buffer has a sequence number which says whether the slot is free for the
+ * next producer, or holds a message ready for the consumer. A producer claims a slot by
+ * moving the shared tail on with a compare-and-set, fills the slot, then publishes it by
+ * updating the slot's sequence number. The single consumer never needs a compare-and-set.
+ *
+ * Adding a message never blocks and never allocates; if the buffer is full the message
+ * is rejected so the caller can count it as dropped.
+ */
+public class RunLogRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicReferenceArray<String> messages;
+    private final AtomicLongArray sequences;
+
+    // The total number of slots claimed by producers
+    private final AtomicLong tail = new AtomicLong();
+
+    // The total number of messages taken by the consumer. Only the consumer writes to this.
+    private volatile long head = 0;
+
+    /**
+     * @param requestedCapacity the minimum number of messages the buffer can hold. This is rounded up to a power of two.
+     */
+    public RunLogRingBuffer(int requestedCapacity) {
+        int roundedCapacity = 1;
+        while (roundedCapacity < requestedCapacity) {
+            roundedCapacity <<= 1;
+        }
+        this.capacity = roundedCapacity;
+        this.mask = roundedCapacity - 1;
+
+        this.messages = new AtomicReferenceArray<>(roundedCapacity);
+        this.sequences = new AtomicLongArray(roundedCapacity);
+        for (int i = 0; i < roundedCapacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds a message to the buffer. Safe to call from any thread.
+     *
+     * @param message the message to add
+     * @return true if the message was added, false if the buffer was full
+     */
+    public boolean offer(String message) {
+        boolean isAdded = false;
+        boolean isFull = false;
+
+        while (!isAdded && !isFull) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                // The slot is free, so try to claim it
+                if (tail.compareAndSet(position, position + 1)) {
+                    messages.lazySet(index, message);
+                    sequences.set(index, position + 1);
+                    isAdded = true;
+                }
+            } else if (difference < 0) {
+                // The consumer hasn't freed this slot yet since it was last used
+                isFull = true;
+            }
+            // Otherwise another producer claimed the slot first, so try again with the new tail
+        }
+        return isAdded;
+    }
+
+    /**
+     * Takes up to a given number of messages from the buffer, in the order they were added.
+     * Must only be called by the single consumer thread.
+     *
+     * @param target the list to add the messages to
+     * @param maxMessages the maximum number of messages to take
+     * @return the number of messages taken
+     */
+    public int drainTo(List<String> target, int maxMessages) {
+        int drainedCount = 0;
+        long position = head;
+
+        while (drainedCount < maxMessages) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                // Either the buffer is empty, or the next message has been claimed but not yet published
+                break;
+            }
+
+            target.add(messages.get(index));
+            messages.lazySet(index, null);
+
+            // Free the slot for the producer which wraps round to it next
+            sequences.set(index, position + capacity);
+            position++;
+            drainedCount++;
+        }
+
+        head = position;
+        return drainedCount;
+    }
+
+    /**
+     * @return the total number of messages which have been added to the buffer so far
+     */
+    public long getAddedCount() {
+        return tail.get();
+    }
+
+    /**
+     * @return the total number of messages which have been taken from the buffer so far
+     */
+    public long getTakenCount() {
+        return head;
+    }
+
+    /**
+     * @return the number of messages waiting in the buffer. This is only a snapshot if producers are active.
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+}
@@ -35,6 +35,7 @@ import dev.galasa.framework.spi.IResultArchiveStore;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.teststructure.TestMethod;
 import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.DssUtils;
 
 /**
  * Representation of the test class
@@ -73,6 +74,9 @@ public class TestClassWrapper {
     private final IResultArchiveStore ras;
     private final InterruptedMonitor interruptedMonitor;
 
+    // Makes sure everything logged so far is in the RAS before the run log line count is read
+    private final Runnable runLogFlusher;
+
     /**
      * Constructor
      * 
@@ -98,6 +102,19 @@ public class TestClassWrapper {
         IResultArchiveStore ras,
         InterruptedMonitor interruptedMonitor,
         Log logger
+    ) throws ConfigurationPropertyStoreException {
+        this(testBundle, testClass, testStructure, isContinueOnTestFailureFromCPS, ras, interruptedMonitor, logger, () -> {});
+    }
+
+    public TestClassWrapper(    
+        String testBundle, 
+        Class<?> testClass, 
+        TestStructure testStructure,
+        boolean isContinueOnTestFailureFromCPS,
+        IResultArchiveStore ras,
+        InterruptedMonitor interruptedMonitor,
+        Log logger,
+        Runnable runLogFlusher
     ) throws ConfigurationPropertyStoreException {
         this.testClass = testClass;
         this.testStructure = testStructure;
@@ -105,6 +122,7 @@ public class TestClassWrapper {
         this.ras = ras;
         this.logger = logger ;
         this.interruptedMonitor = interruptedMonitor;
+        this.runLogFlusher = runLogFlusher;
 
         // Fill-in as much of the test structure as we can at this point.
         // If any failures occur after this, they will at least have the correct test name/bundle...etc attached.
@@ -418,8 +436,11 @@ public class TestClassWrapper {
                 // Check to see if the test method is in the list of test methods to run
                 if (testMethodsToRun.contains(testMethod)) {
                     actualMethod++;
-                    dss.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_CURRENT, Integer.toString(actualMethod));
-                    dss.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_NAME, testMethod.getName());
+                    // The two updates are independent, so send them together rather than one after the other
+                    DssUtils.waitForAll(List.of(
+                        dss.putAsync("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_CURRENT, Integer.toString(actualMethod)),
+                        dss.putAsync("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_NAME, testMethod.getName())
+                    ));
                     // Run @Test method
                     testMethod.invoke(managers, this.testClassObject, this.continueOnTestFailure, this);
                     // Setting the result so far after every @Test 
@@ -444,9 +465,11 @@ public class TestClassWrapper {
                 }
             }
 
-            dss.delete("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_NAME);
-            dss.delete("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_TOTAL);
-            dss.delete("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_CURRENT);
+            DssUtils.waitForAll(List.of(
+                dss.deleteAsync("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_NAME),
+                dss.deleteAsync("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_TOTAL),
+                dss.deleteAsync("run." + runName + "." + DssPropertyKeyRunNameSuffix.METHOD_CURRENT)
+            ));
         } catch (DynamicStatusStoreException e) {
             throw new TestRunException("Failed to update the run status", e);
         }
@@ -607,6 +630,7 @@ public class TestClassWrapper {
     }
 
     protected long getRunLogLineCount() {
+        this.runLogFlusher.run();
         long runLogLineCount = this.ras.retrieveRunLogLineCount();
         return runLogLineCount;
     }
@@ -6,39 +6,136 @@
 package dev.galasa.framework;
 
 import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.framework.spi.AbstractManager;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
+import dev.galasa.framework.spi.IDssLease;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IResultArchiveStore;
 
+/**
+ * Keeps the heartbeat of a test run going, so that resource management can tell that
+ * the engine running the test is still alive.
+ *
+ * By default, the heartbeat is a timestamp in the DSS which is updated every 20 seconds.
+ *
+ * If the framework.heartbeat.lease.enabled CPS property is true, and the DSS supports
+ * leases, the engine also holds a liveness key attached to a lease, which it keeps alive
+ * every few seconds on a thread of its own, so that nothing else the heartbeat does, such
+ * as flushing the RAS, can hold it up long enough for the lease to expire. If the engine dies, the lease expires and the key is deleted, which
+ * resource management sees straight away through a watch. As the liveness key does the
+ * work of showing the engine is alive, the heartbeat timestamp is then only updated every
+ * couple of minutes, for display purposes.
+ */
 public class TestRunHeartbeat extends Thread {
 
+    /**
+     * The liveness keys of runs in the DSS are this prefix followed by the run name,
+     * for example liveness.U1234
+     */
+    public static final String LIVENESS_KEY_PREFIX = "liveness.";
+
+    private static final long   HEARTBEAT_INTERVAL_MILLIS             = 20000;
+    private static final long   LEASED_HEARTBEAT_INTERVAL_MILLIS      = 120000;
+    private static final long   HEARTBEAT_RETRY_INTERVAL_MILLIS       = 2000;
+
+    private static final long   LIVENESS_LEASE_TIME_TO_LIVE_SECS      = 30;
+    private static final long   LIVENESS_KEEP_ALIVE_INTERVAL_MILLIS   = 10000;
+
     private final Log                        logger        = LogFactory.getLog(this.getClass());
 
     private final IFramework                 framework;
     private final IDynamicStatusStoreService dss;
     private final IResultArchiveStore        ras;
     private final String                     key;
+    private final String                     livenessKey;
 
     private String                           lastHeartbeat = null;
 
-    private boolean                          shutdown      = false;
+    // The lease on this run's liveness key, or null if the liveness key is not in use,
+    // or the lease has been lost and needs to be taken out again
+    private IDssLease                        livenessLease = null;
+    private boolean                          isLivenessLeaseEnabled;
+    private boolean                          isLivenessLeaseReleased = false;
+
+    private ScheduledExecutorService         livenessKeepAliveExecutor;
+
+    private long                             heartbeatIntervalMillis = HEARTBEAT_INTERVAL_MILLIS;
+    private final long                       livenessKeepAliveIntervalMillis;
+
+    private volatile boolean                 shutdown      = false;
 
     protected TestRunHeartbeat(@NotNull IFramework framework) throws DynamicStatusStoreException {
+        this(framework, LIVENESS_KEEP_ALIVE_INTERVAL_MILLIS);
+    }
+
+    TestRunHeartbeat(@NotNull IFramework framework, long livenessKeepAliveIntervalMillis) throws DynamicStatusStoreException {
         this.framework = framework;
+        this.livenessKeepAliveIntervalMillis = livenessKeepAliveIntervalMillis;
         this.dss = this.framework.getDynamicStatusStoreService("framework");
         this.ras = this.framework.getResultArchiveStore();
         this.key = "run." + framework.getTestRunName() + "." + DssPropertyKeyRunNameSuffix.HEARTBEAT;
+        this.livenessKey = getLivenessKey(framework.getTestRunName());
 
         // *** Set the initial
         setHeartbeat();
+
+        startLivenessLeaseIfEnabled();
+    }
+
+    public static String getLivenessKey(String runName) {
+        return LIVENESS_KEY_PREFIX + runName;
+    }
+
+    private void startLivenessLeaseIfEnabled() {
+        IConfigurationPropertyStoreService cps = null;
+        try {
+            cps = this.framework.getConfigurationPropertyService("framework");
+            this.isLivenessLeaseEnabled = Boolean.parseBoolean(AbstractManager.nulled(cps.getProperty("heartbeat", "lease.enabled")));
+        } catch (Exception e) {
+            logger.error("Problem with framework.heartbeat.lease.enabled, the run liveness lease will not be used", e);
+        }
+
+        if (this.isLivenessLeaseEnabled) {
+            try {
+                keepLivenessLeaseAlive();
+                this.heartbeatIntervalMillis = getLeasedHeartbeatIntervalMillis(cps);
+                logger.info("Run liveness is being kept alive with a lease on " + livenessKey);
+            } catch (DynamicStatusStoreException e) {
+                logger.warn("Unable to take out a lease on the run liveness key, only the heartbeat will be used", e);
+                this.isLivenessLeaseEnabled = false;
+            }
+        }
+    }
+
+    /**
+     * The heartbeat is still checked by resource management when the liveness key is in use,
+     * so it must be updated well within the dead heartbeat timeout
+     */
+    private long getLeasedHeartbeatIntervalMillis(IConfigurationPropertyStoreService cps) {
+        long intervalMillis = LEASED_HEARTBEAT_INTERVAL_MILLIS;
+        try {
+            String deadHeartbeatTimeout = AbstractManager.nulled(cps.getProperty("resource.management", "dead.heartbeat.timeout"));
+            if (deadHeartbeatTimeout != null) {
+                long maxIntervalMillis = Long.parseLong(deadHeartbeatTimeout) * 1000 / 3;
+                intervalMillis = Math.max(HEARTBEAT_INTERVAL_MILLIS, Math.min(intervalMillis, maxIntervalMillis));
+            }
+        } catch (Exception e) {
+            intervalMillis = HEARTBEAT_INTERVAL_MILLIS;
+        }
+        return intervalMillis;
     }
 
     private void setHeartbeat() throws DynamicStatusStoreException {
@@ -62,23 +159,110 @@ public class TestRunHeartbeat extends Thread {
         this.ras.flush();
     }
 
+    private synchronized void keepLivenessLeaseAlive() throws DynamicStatusStoreException {
+        if (isLivenessLeaseReleased) {
+            return;
+        }
+
+        if (livenessLease != null) {
+            boolean isKeptAlive = false;
+            try {
+                isKeptAlive = livenessLease.keepAlive();
+            } finally {
+                if (!isKeptAlive) {
+                    // Take out a new lease next time
+                    livenessLease = null;
+                }
+            }
+
+            if (!isKeptAlive) {
+                logger.warn("The run liveness lease has expired, taking out a new lease");
+            }
+        }
+
+        if (livenessLease == null) {
+            livenessLease = dss.putWithLease(livenessKey, Instant.now().toString(), LIVENESS_LEASE_TIME_TO_LIVE_SECS);
+        }
+    }
+
     public void shutdown() {
         this.shutdown = true;
     }
 
+    /**
+     * Revokes the lease on the run's liveness key, deleting the key. This must only be done
+     * once the heartbeat has been deleted, so that resource management does not take the
+     * deleted liveness key to mean that the engine has died.
+     */
+    public synchronized void releaseLivenessLease() {
+        isLivenessLeaseReleased = true;
+        stopLivenessKeepAlive();
+
+        if (livenessLease != null) {
+            try {
+                livenessLease.close();
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to revoke the run liveness lease, it will be left to expire", e);
+            }
+            livenessLease = null;
+        }
+    }
+
+    private synchronized void startLivenessKeepAlive() {
+        if (isLivenessLeaseEnabled && !isLivenessLeaseReleased && livenessKeepAliveExecutor == null) {
+            livenessKeepAliveExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "run-liveness-keep-alive");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduleLivenessKeepAlive(livenessKeepAliveIntervalMillis);
+        }
+    }
+
+    private synchronized void scheduleLivenessKeepAlive(long delayMillis) {
+        if (livenessKeepAliveExecutor != null) {
+            try {
+                livenessKeepAliveExecutor.schedule(this::runLivenessKeepAlive, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // The keep-alive has been stopped
+            }
+        }
+    }
+
+    private void runLivenessKeepAlive() {
+        long nextKeepAliveDelayMillis = livenessKeepAliveIntervalMillis;
+        try {
+            keepLivenessLeaseAlive();
+        } catch (DynamicStatusStoreException e) {
+            logger.error("Run liveness lease keep-alive failed", e);
+            nextKeepAliveDelayMillis = HEARTBEAT_RETRY_INTERVAL_MILLIS;
+        }
+        scheduleLivenessKeepAlive(nextKeepAliveDelayMillis);
+    }
+
+    private synchronized void stopLivenessKeepAlive() {
+        if (livenessKeepAliveExecutor != null) {
+            livenessKeepAliveExecutor.shutdownNow();
+            livenessKeepAliveExecutor = null;
+        }
+    }
+
     @Override
     public void run() {
+        // The liveness lease is kept alive until it is released, even after the heartbeat has stopped,
+        // as resource management must not see the liveness key go while the heartbeat is still there
+        startLivenessKeepAlive();
 
         long nextHeartbeat = 0;
         while (!shutdown) {
             if (System.currentTimeMillis() >= nextHeartbeat) {
-                nextHeartbeat = System.currentTimeMillis() + 20000; // TODO do we been to parameterise this?
+                nextHeartbeat = System.currentTimeMillis() + heartbeatIntervalMillis;
 
                 try {
                     setHeartbeat();
                 } catch (DynamicStatusStoreException e) {
                     logger.error("Heartbeat failed", e);
-                    nextHeartbeat = System.currentTimeMillis() + 2000;
+                    nextHeartbeat = System.currentTimeMillis() + HEARTBEAT_RETRY_INTERVAL_MILLIS;
                 }
             }
 
@@ -92,4 +276,4 @@ public class TestRunHeartbeat extends Thread {
         }
 
     }
-}
\ No newline at end of file
+}
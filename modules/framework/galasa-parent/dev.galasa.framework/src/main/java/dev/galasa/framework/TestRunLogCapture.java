@@ -7,6 +7,11 @@ package dev.galasa.framework;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -20,24 +25,58 @@ import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 
 import dev.galasa.framework.spi.IResultArchiveStore;
-import dev.galasa.framework.spi.ResultArchiveStoreException;
 
+/**
+ * Captures everything logged during a test run and writes it to the run log in the RAS.
+ *
+ * Logging threads only format the message and add it to a lock-free ring buffer, so they
+ * never wait for the RAS. A single writer thread takes the messages from the buffer and
+ * writes them to the RAS in batches. If the writer falls so far behind that the buffer fills
+ * up, new messages are dropped and counted, and a note of how many were dropped is written
+ * into the run log.
+ *
+ * Messages logged before the framework is initialised wait in the buffer until the RAS is available.
+ *
+ * Flushing and shutting down wait for the writer, but only for a bounded time, so a RAS which has
+ * stopped responding can hold up a flush for at most {@link #DEFAULT_FLUSH_TIMEOUT_MILLIS} and a
+ * shutdown for at most {@link #DEFAULT_SHUTDOWN_TIMEOUT_MILLIS}. Both report whether they finished
+ * in time.
+ */
 public class TestRunLogCapture implements Appender {
 
-    private final Framework         framework;
+    public static final int  DEFAULT_BUFFER_CAPACITY = 65536;
+    public static final int  MAX_BATCH_SIZE          = 500;
+
+    private static final long WRITER_IDLE_NANOS      = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long WRITE_RETRY_MILLIS     = 1000;
+    public static final long DEFAULT_FLUSH_TIMEOUT_MILLIS    = 10000;
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    private final Supplier<IResultArchiveStore> rasSupplier;
+
+    private volatile IResultArchiveStore ras;
+
+    private final RunLogRingBuffer  buffer;
+    private final Thread            writerThread;
 
-    private IResultArchiveStore     ras;
+    private final AtomicLong        droppedLineCount = new AtomicLong();
+    private long                    reportedDroppedLineCount = 0;
+
+    // The number of lines taken from the buffer which have been written to the RAS
+    private long                    writtenLineCount = 0;
+    private final Object            writtenLock = new Object();
 
-    private final ArrayList<String> startupCache = new ArrayList<>();
     private PatternLayout           layout       = PatternLayout.newBuilder().withPattern("%d{HH:mm:ss} %p [%t] %c - %m%n").build();
     private Level                   minimumLevel = Level.ALL;
 
-    private boolean                 shutdown     = false;
+    private volatile boolean        shutdown     = false;
+    private volatile boolean        isWriterStopRequested = false;
+    private volatile boolean        isWriterParked = false;
 
     private State                   state        = State.STOPPED;
 
     public TestRunLogCapture(Framework framework) {
-        this.framework = framework;
+        this(() -> framework.isInitialised() ? framework.getResultArchiveStore() : null, DEFAULT_BUFFER_CAPACITY);
 
         LoggerContext ctx = (LoggerContext) LogManager.getContext();
         Configuration config = ctx.getConfiguration();
@@ -47,8 +86,6 @@ public class TestRunLogCapture implements Appender {
             this.layout = (PatternLayout) stdout.getLayout();
         }
 
-        start();
-        
         config.addAppender(this);
         config.getRootLogger().addAppender(this, null, null);
         for (final LoggerConfig loggerConfig : config.getLoggers().values()) {
@@ -56,10 +93,114 @@ public class TestRunLogCapture implements Appender {
         }
     }
 
-    public void shutdown() {
+    /**
+     * Creates a capture which isn't attached to any loggers, so events have to be passed to append() directly.
+     *
+     * @param rasSupplier returns the RAS to write to, or null if it isn't available yet
+     * @param bufferCapacity the number of lines which can wait to be written before lines are dropped
+     */
+    TestRunLogCapture(Supplier<IResultArchiveStore> rasSupplier, int bufferCapacity) {
+        this.rasSupplier = rasSupplier;
+        this.buffer = new RunLogRingBuffer(bufferCapacity);
+
+        start();
+
+        this.writerThread = new Thread(this::writeLogs, "galasa-run-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Waits until every line logged before this call has been written to the RAS,
+     * so the RAS has an up to date view of the run log. Waits for at most
+     * {@link #DEFAULT_FLUSH_TIMEOUT_MILLIS}.
+     *
+     * @return true if the lines were written, false if the RAS isn't available yet,
+     *         or the wait timed out or was interrupted
+     */
+    public boolean flush() {
+        return flush(DEFAULT_FLUSH_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Waits until every line logged before this call has been written to the RAS,
+     * for at most the given time. The lines are still written later if the wait
+     * times out.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return true if the lines were written, false if the RAS isn't available yet,
+     *         or the wait timed out or was interrupted
+     */
+    public boolean flush(long timeoutMillis) {
+        long targetLineCount = buffer.getAddedCount();
+        if (getRas() == null) {
+            // Nowhere to write the lines to yet
+            return false;
+        }
+
+        LockSupport.unpark(writerThread);
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (writtenLock) {
+            long remainingMillis = timeoutMillis;
+            while (writtenLineCount < targetLineCount && remainingMillis > 0 && writerThread.isAlive()) {
+                try {
+                    writtenLock.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                remainingMillis = deadline - System.currentTimeMillis();
+            }
+            return writtenLineCount >= targetLineCount;
+        }
+    }
+
+    /**
+     * Stops capturing log events, then writes out any lines which are still waiting in the buffer.
+     * Waits for at most {@link #DEFAULT_SHUTDOWN_TIMEOUT_MILLIS} for them to be written.
+     *
+     * @return true if the writer finished, false if it was still writing when the wait timed out
+     *         or was interrupted
+     */
+    public boolean shutdown() {
+        return shutdown(DEFAULT_SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Stops capturing log events, then writes out any lines which are still waiting in the buffer,
+     * waiting for at most the given time for them to be written.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return true if the writer finished, false if it was still writing when the wait timed out
+     *         or was interrupted
+     */
+    public boolean shutdown(long timeoutMillis) {
         this.shutdown = true;
+        this.isWriterStopRequested = true;
+        LockSupport.unpark(writerThread);
+
+        try {
+            writerThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !writerThread.isAlive();
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public long getDroppedLineCount() {
+        return droppedLineCount.get();
     }
 
+    public long getWrittenLineCount() {
+        synchronized (writtenLock) {
+            return writtenLineCount;
+        }
+    }
 
     @Override
     public void append(LogEvent event) {
@@ -72,43 +213,97 @@ public class TestRunLogCapture implements Appender {
         }
 
         String message = this.layout.toSerializable(event);
-        String throwable = null;
 
         if (event.getThrownProxy() != null) {
-            throwable = event.getThrownProxy().getExtendedStackTraceAsString();
+            // Keep the stack trace in the same entry so it can't be split from its message by other threads
+            message = message + event.getThrownProxy().getExtendedStackTraceAsString();
         }
 
-        if (ras == null) {
-            if (framework.isInitialised()) {
-                this.ras = framework.getResultArchiveStore();
-            } else {
-                startupCache.add(message);
-                if (throwable != null) {
-                    startupCache.add(throwable);
+        if (!buffer.offer(message)) {
+            droppedLineCount.incrementAndGet();
+        }
+
+        if (isWriterParked && buffer.size() >= MAX_BATCH_SIZE) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private IResultArchiveStore getRas() {
+        if (this.ras == null) {
+            this.ras = rasSupplier.get();
+        }
+        return this.ras;
+    }
+
+    private void writeLogs() {
+        List<String> batch = new ArrayList<>(MAX_BATCH_SIZE + 1);
+        int batchLineCount = 0;
+
+        boolean isFinished = false;
+        while (!isFinished) {
+            IResultArchiveStore currentRas = getRas();
+
+            if (currentRas != null) {
+                if (batch.isEmpty()) {
+                    addDroppedLinesNote(batch);
+                    batchLineCount = buffer.drainTo(batch, MAX_BATCH_SIZE);
+                }
+
+                if (!batch.isEmpty()) {
+                    try {
+                        currentRas.writeLog(batch);
+                        batch.clear();
+                        lineCountWritten(batchLineCount);
+                        batchLineCount = 0;
+                    } catch (Exception e) {
+                        e.printStackTrace(); // *** Do not use logger, will cause a loop //NOSONAR
+                        if (isWriterStopRequested) {
+                            // Don't hold up the shutdown, the lines can't be written
+                            isFinished = true;
+                        } else {
+                            // Keep the batch and try it again
+                            pauseBeforeRetry();
+                        }
+                    }
+                    continue;
                 }
-                return;
             }
-        }
 
-        if (!startupCache.isEmpty()) {
-            try {
-                this.ras.writeLog(startupCache);
-                this.startupCache.clear();
-            } catch (ResultArchiveStoreException e) {
-                e.printStackTrace(); // *** Do not use logger, will cause a loop //NOSONAR
-                startupCache.add(message);
-                return;
+            if (isWriterStopRequested && (currentRas == null || buffer.size() == 0)) {
+                isFinished = true;
+            } else {
+                isWriterParked = true;
+                LockSupport.parkNanos(this, WRITER_IDLE_NANOS);
+                isWriterParked = false;
             }
         }
 
+        synchronized (writtenLock) {
+            writtenLock.notifyAll();
+        }
+    }
+
+    private void addDroppedLinesNote(List<String> batch) {
+        long currentDroppedLineCount = droppedLineCount.get();
+        if (currentDroppedLineCount > reportedDroppedLineCount) {
+            long newlyDroppedLineCount = currentDroppedLineCount - reportedDroppedLineCount;
+            batch.add("*** " + newlyDroppedLineCount + " run log lines were dropped because the run log buffer was full ***");
+            reportedDroppedLineCount = currentDroppedLineCount;
+        }
+    }
+
+    private void lineCountWritten(int lineCount) {
+        synchronized (writtenLock) {
+            writtenLineCount += lineCount;
+            writtenLock.notifyAll();
+        }
+    }
+
+    private void pauseBeforeRetry() {
         try {
-            this.ras.writeLog(message);
-            if (throwable != null) {
-                this.ras.writeLog(throwable);
-            }
-        } catch (ResultArchiveStoreException e) {
-            e.printStackTrace(); // *** Do not use logger, will cause a loop //NOSONAR
-            startupCache.add(message);
+            Thread.sleep(WRITE_RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
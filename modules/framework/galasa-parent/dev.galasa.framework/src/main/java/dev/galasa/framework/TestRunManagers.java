@@ -30,6 +30,8 @@ import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 
 import dev.galasa.ManagerException;
+import dev.galasa.framework.spi.AbstractManager;
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.FrameworkResourceUnavailableException;
 import dev.galasa.framework.spi.IFramework;
@@ -38,9 +40,12 @@ import dev.galasa.framework.spi.ResourceUnavailableException;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.language.GalasaMethod;
 import dev.galasa.framework.spi.language.GalasaTest;
+import dev.galasa.framework.spi.teststructure.ManagerPhaseTiming;
 
 public class TestRunManagers implements ITestRunManagers {
 
+    private static final int      DEFAULT_PROVISIONING_THREADS = 4;
+
     private final List<IManager>  activeManagers         = new ArrayList<>();
     private final List<IManager>  activeManagersReversed = new ArrayList<>();
     private final Log             logger                 = LogFactory.getLog(TestRunManagers.class);
@@ -50,6 +55,8 @@ public class TestRunManagers implements ITestRunManagers {
 
     private final RepositoryAdmin repositoryAdmin;
 
+    private ManagerProvisioningScheduler provisioningScheduler;
+
     public TestRunManagers(IFramework framework, GalasaTest galasaTest) throws FrameworkException {
         this.framework = framework;
         this.bundleContext = FrameworkUtil.getBundle(getClass()).getBundleContext();
@@ -69,6 +76,8 @@ public class TestRunManagers implements ITestRunManagers {
         logger.debug("The following Managers are sorted in provisioning order:-");
         reportManagers(false);
 
+        provisioningScheduler = new ManagerProvisioningScheduler(activeManagers, getProvisioningThreads());
+
     }
 
     /**
@@ -147,6 +156,24 @@ public class TestRunManagers implements ITestRunManagers {
         Collections.reverse(activeManagersReversed);
     }
 
+    /**
+     * @return the most Managers to provision at once, from the CPS property
+     *         framework.provisioning.threads
+     */
+    private int getProvisioningThreads() {
+        int threads = DEFAULT_PROVISIONING_THREADS;
+        try {
+            String value = AbstractManager.nulled(
+                    framework.getConfigurationPropertyService("framework").getProperty("provisioning", "threads"));
+            if (value != null) {
+                threads = Integer.parseInt(value);
+            }
+        } catch (ConfigurationPropertyStoreException | NumberFormatException e) {
+            logger.warn("Invalid CPS property framework.provisioning.threads, using " + threads, e);
+        }
+        return threads;
+    }
+
     private void reportManagers(boolean printVersions) {
         for (IManager manager : activeManagers) {
             logger.debug("   " + manager.getClass().getName());
@@ -474,7 +501,7 @@ public class TestRunManagers implements ITestRunManagers {
 
     @Override
     public void provisionGenerate() throws FrameworkException {
-        for (IManager manager : activeManagers) {
+        provisioningScheduler.runForwards("generate", manager -> {
             try {
                 manager.provisionGenerate();
             } catch (ResourceUnavailableException e) {
@@ -483,48 +510,56 @@ public class TestRunManagers implements ITestRunManagers {
                 throw new FrameworkException(
                         "Problem in provision generate for manager " + manager.getClass().getName(), e);
             }
-        }
+        });
     }
 
     @Override
     public void provisionBuild() throws FrameworkException {
-        for (IManager manager : activeManagers) {
+        provisioningScheduler.runForwards("build", manager -> {
             try {
                 manager.provisionBuild();
             } catch (ManagerException e) {
                 throw new FrameworkException("Problem in provision build for manager " + manager.getClass().getName(),
                         e);
             }
-        }
+        });
     }
 
     @Override
     public void provisionStart() throws FrameworkException {
-        for (IManager manager : activeManagers) {
+        provisioningScheduler.runForwards("start", manager -> {
             try {
                 manager.provisionStart();
             } catch (ManagerException e) {
                 throw new FrameworkException("Problem in provision start for manager " + manager.getClass().getName(),
                         e);
             }
-
-        }
+        });
     }
 
     @Override
     public void provisionStop() {
-        for (IManager manager : activeManagersReversed) {
-            manager.provisionStop();
+        try {
+            provisioningScheduler.runBackwards("stop", IManager::provisionStop);
+        } catch (FrameworkException e) {
+            logger.warn("Interrupted during provision stop", e);
         }
     }
 
     @Override
     public void provisionDiscard() {
-        for (IManager manager : activeManagersReversed) {
-            manager.provisionDiscard();
+        try {
+            provisioningScheduler.runBackwards("discard", IManager::provisionDiscard);
+        } catch (FrameworkException e) {
+            logger.warn("Interrupted during provision discard", e);
         }
     }
 
+    @Override
+    public List<ManagerPhaseTiming> getManagerPhaseTimings() {
+        return provisioningScheduler.getTimings();
+    }
+
     @Override
     public void startOfTestClass() throws FrameworkException {
         for (IManager manager : activeManagers) {
@@ -639,6 +674,7 @@ public class TestRunManagers implements ITestRunManagers {
         for (IManager manager : activeManagersReversed) {
             manager.shutdown();
         }
+        provisioningScheduler.shutdown();
     }
     
     @Override
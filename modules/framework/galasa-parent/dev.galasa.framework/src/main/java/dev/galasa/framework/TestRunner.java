@@ -316,7 +316,8 @@ public class TestRunner extends BaseTestRunner {
         try {
             testClassWrapper = new TestClassWrapper(
                 testBundleName, testClass, testStructure, this.getContinueOnTestFailureFromCPS(), 
-                this.getFramework().getResultArchiveStore(), getInterruptedMonitor()
+                this.getFramework().getResultArchiveStore(), getInterruptedMonitor(),
+                LogFactory.getLog(TestClassWrapper.class), this.framework::flushLogCapture
             );
         } catch (Exception e) {
             String msg = "Problem with the CPS when adding a wrapper";
@@ -410,6 +411,7 @@ public class TestRunner extends BaseTestRunner {
                 testStructure.setResult(testClassWrapper.getResult().getName());
                 isRunOK = false;
             }
+            testStructure.setManagerTimings(managers.getManagerPhaseTimings());
         }
         return isRunOK;
     }
@@ -0,0 +1,165 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.osgi.service.component.annotations.Component;
+
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.Environment;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IShuttableFramework;
+import dev.galasa.framework.spi.SystemEnvironment;
+
+/**
+ * Lets an engine start before there is a run for it, so that it can wait in a pool
+ * of warm engines with the JVM started and the framework bundles already loaded.
+ *
+ * The engine tells the Kubernetes controller that it is ready by setting
+ * warmengine.&lt;engine id&gt;.state to "idle" in the DSS. The controller hands it a
+ * run by swapping the state to "claimed" and setting warmengine.&lt;engine id&gt;.run,
+ * or tells it to end by swapping the state to "retired".
+ *
+ * The engine watches its state key rather than polling it, so idle engines make no
+ * requests of the DSS while nothing is happening. The state is still read every so often
+ * in case a change is missed by the watch.
+ */
+@Component(service = { WarmEngine.class })
+public class WarmEngine {
+
+    public static final String ENGINE_ID_ENV_VAR = "GALASA_ENGINE_ID";
+
+    public static final String DSS_PREFIX    = "warmengine.";
+    public static final String STATE_SUFFIX  = "state";
+    public static final String RUN_SUFFIX    = "run";
+
+    public static final String IDLE_STATE    = "idle";
+    public static final String CLAIMED_STATE = "claimed";
+    public static final String RETIRED_STATE = "retired";
+
+    // How often the state is read if no change has been seen by the watch
+    private static final long  WATCHED_POLL_INTERVAL_MILLIS   = 60000;
+
+    // How often the state is read if it cannot be watched
+    private static final long  UNWATCHED_POLL_INTERVAL_MILLIS = 500;
+
+    private Log                logger = LogFactory.getLog(WarmEngine.class);
+
+    private final Environment  env;
+
+    public WarmEngine() {
+        this(new SystemEnvironment());
+    }
+
+    public WarmEngine(Environment env) {
+        this.env = env;
+    }
+
+    public static String getPropertyKey(String engineId, String suffix) {
+        return DSS_PREFIX + engineId + "." + suffix;
+    }
+
+    /**
+     * Wait for the Kubernetes controller to hand this engine a run
+     *
+     * @param bootstrapProperties
+     * @param overrideProperties
+     * @return the name of the run to be run, or null if the engine was retired without one
+     * @throws FrameworkException
+     */
+    public String waitForRun(Properties bootstrapProperties, Properties overrideProperties) throws FrameworkException {
+        String engineId = env.getenv(ENGINE_ID_ENV_VAR);
+        if (engineId == null || engineId.isBlank()) {
+            throw new FrameworkException("Unable to wait for a run, the " + ENGINE_ID_ENV_VAR + " environment variable has not been set");
+        }
+
+        IShuttableFramework framework;
+        try {
+            framework = new FrameworkInitialisation(bootstrapProperties, overrideProperties).getShutableFramework();
+        } catch (Exception e) {
+            throw new FrameworkException("Unable to initialise the Framework Service", e);
+        }
+
+        // The framework is shut down again so that it can be initialised for the run it is handed
+        try {
+            return waitForRun(framework.getDynamicStatusStoreService("framework"), engineId);
+        } finally {
+            framework.shutdown();
+        }
+    }
+
+    String waitForRun(IDynamicStatusStoreService dss, String engineId) throws FrameworkException {
+        String stateKey = getPropertyKey(engineId, STATE_SUFFIX);
+
+        // Only go idle if the controller has not already retired this engine while it was starting
+        if (!dss.putSwap(stateKey, null, IDLE_STATE)) {
+            logger.info("Warm engine " + engineId + " was retired before it was ready");
+            return null;
+        }
+        logger.info("Warm engine " + engineId + " is waiting for a run");
+
+        Semaphore stateChanged = new Semaphore(0);
+        UUID watchId = null;
+        try {
+            watchId = dss.watch((key, event, oldValue, newValue) -> stateChanged.release(), stateKey);
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to watch the state of warm engine " + engineId + ", the state will be polled instead", e);
+        }
+
+        try {
+            // The state is read after the watch has been registered, so a change made before then is not missed
+            return waitForStateChange(dss, engineId, stateChanged, watchId != null);
+        } finally {
+            if (watchId != null) {
+                try {
+                    dss.unwatch(watchId);
+                } catch (DynamicStatusStoreException e) {
+                    logger.warn("Unable to stop watching the state of warm engine " + engineId, e);
+                }
+            }
+        }
+    }
+
+    private String waitForStateChange(IDynamicStatusStoreService dss, String engineId, Semaphore stateChanged, boolean isWatched) throws DynamicStatusStoreException {
+        String stateKey = getPropertyKey(engineId, STATE_SUFFIX);
+        long pollIntervalMillis = isWatched ? WATCHED_POLL_INTERVAL_MILLIS : UNWATCHED_POLL_INTERVAL_MILLIS;
+
+        String runName = null;
+        boolean isWaiting = true;
+        while (isWaiting) {
+            String state = dss.get(stateKey);
+            if (CLAIMED_STATE.equals(state)) {
+                runName = dss.get(getPropertyKey(engineId, RUN_SUFFIX));
+                logger.info("Warm engine " + engineId + " has been handed run " + runName);
+                isWaiting = false;
+            } else if (!IDLE_STATE.equals(state)) {
+                logger.info("Warm engine " + engineId + " has been retired");
+                isWaiting = false;
+            } else {
+                waitForSignal(stateChanged, pollIntervalMillis);
+            }
+        }
+        return runName;
+    }
+
+    private void waitForSignal(Semaphore stateChanged, long timeoutMillis) throws DynamicStatusStoreException {
+        try {
+            stateChanged.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+            // Several changes may have been signalled, but reading the state once covers them all
+            stateChanged.drainPermits();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamicStatusStoreException("Interrupted waiting for a run", e);
+        }
+    }
+}
@@ -30,6 +30,7 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
     private Properties                  record;
     private Properties                  overrides;
     private IConfigurationPropertyStore cpsStore;
+    private PropertyResolutionCache     resolutionCache;
 
     /**
      * <p>
@@ -48,10 +49,21 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
      */
     public FrameworkConfigurationPropertyService(IFramework framework, IConfigurationPropertyStore cpsStore,
             Properties overrides, Properties record, String namespace) {
+        this(framework, cpsStore, overrides, record, namespace, null);
+    }
+
+    /**
+     * @param resolutionCache - remembers how hierarchical property lookups were
+     *                        resolved, shared by all the services of a test run,
+     *                        or null if every lookup is to be resolved in full
+     */
+    public FrameworkConfigurationPropertyService(IFramework framework, IConfigurationPropertyStore cpsStore,
+            Properties overrides, Properties record, String namespace, PropertyResolutionCache resolutionCache) {
         this.namespace = namespace;
         this.record = record;
         this.overrides = overrides;
         this.cpsStore = cpsStore;
+        this.resolutionCache = resolutionCache;
     }
 
     /**
@@ -79,6 +91,9 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
         if (infixes == null) {
             infixes = new String[0];
         }
+        if (resolutionCache != null) {
+            return getPropertyUsingResolutionCache(prefix, suffix, infixes);
+        }
         String[] keys = createOrderedKeyList(prefix, suffix, infixes);
         String value = null;
         for (String key : keys) {
@@ -90,6 +105,47 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
         return null;
     }
 
+    /**
+     * <p>
+     * Resolves a property in the same way as getProperty(), recording the same
+     * keys accessed, but without asking the CPS store for the candidate keys
+     * that an earlier lookup found it has no value for. The overrides are
+     * checked for every candidate key, as they may have changed since.
+     * </p>
+     */
+    private String getPropertyUsingResolutionCache(String prefix, String suffix, String[] infixes)
+            throws ConfigurationPropertyStoreException {
+        PropertyResolutionCache.Resolution resolution = resolutionCache.getResolution(namespace, prefix, suffix, infixes);
+        if (resolution == null) {
+            resolution = resolutionCache.addResolution(namespace, prefix, suffix, infixes,
+                    createOrderedKeyList(prefix, suffix, infixes));
+        }
+
+        String[] keys = resolution.getKeys();
+        int knownMissingFromCps = resolution.getKnownMissingFromCps();
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+
+            String value = overrides.getProperty(key);
+            if (value != null) {
+                recordPropertyAccessed(key,value,"overrides");
+                return value.trim();
+            }
+
+            if (i >= knownMissingFromCps) {
+                value = cpsStore.getProperty(key);
+                if (value != null) {
+                    recordPropertyAccessed(key,value,"cps");
+                    resolution.setKnownMissingFromCps(i);
+                    return value.trim();
+                }
+            }
+            recordPropertyAccessed(key,"*** MISSING ***","missing");
+        }
+        resolution.setKnownMissingFromCps(keys.length);
+        return null;
+    }
+
     /**
      * <p>
      * This method sets a cps property with a given name and value in the provided namespace
@@ -113,6 +169,7 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
     public void setProperty(@NotNull String name, @NotNull String value)
             throws ConfigurationPropertyStoreException {
     	cpsStore.setProperty(namespace + "." + name, value);
+        clearResolutionCache();
     }
     
     /**
@@ -125,12 +182,13 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
     public void deleteProperty(@NotNull String name) 
             throws ConfigurationPropertyStoreException {
         cpsStore.deleteProperty(namespace + "." + name);
-        
+        clearResolutionCache();
     }
 
     @Override
     public void deletePrefixedProperties(@NotNull String prefix) throws ConfigurationPropertyStoreException {
         cpsStore.deletePrefixedProperties(namespace + "." + prefix);
+        clearResolutionCache();
     }
 
     /**
@@ -319,6 +377,13 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
         }
 
         this.cpsStore.setProperties(propertiesWithNamespacePrefix);
-    }       
+        clearResolutionCache();
+    }
+
+    private void clearResolutionCache() {
+        if (this.resolutionCache != null) {
+            this.resolutionCache.clear();
+        }
+    }
 
 }
\ No newline at end of file
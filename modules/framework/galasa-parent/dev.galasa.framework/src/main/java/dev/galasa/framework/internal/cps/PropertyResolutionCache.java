@@ -0,0 +1,125 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.cps;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, for the duration of a test run, how each hierarchical property
+ * lookup of {@link FrameworkConfigurationPropertyService#getProperty(String, String, String...)}
+ * was resolved, so that the same lookups made again and again for each image,
+ * terminal or batch job do not rebuild their candidate keys or ask the CPS
+ * store for keys that are known to have no value.
+ *
+ * Only what the CPS store returned is remembered. The overrides are checked
+ * for every candidate key on every lookup, so a change to the overrides is
+ * always seen.
+ */
+public class PropertyResolutionCache {
+
+    private final ConcurrentHashMap<ResolutionKey, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * @return the resolution of a lookup, or null if the lookup has not been
+     *         made before
+     */
+    Resolution getResolution(String namespace, String prefix, String suffix, String[] infixes) {
+        return resolutions.get(new ResolutionKey(namespace, prefix, suffix, infixes));
+    }
+
+    /**
+     * @param keys - the candidate keys of the lookup, in the order they are tried
+     * @return the resolution of the lookup, which may have been added by another
+     *         thread first
+     */
+    Resolution addResolution(String namespace, String prefix, String suffix, String[] infixes, String[] keys) {
+        Resolution resolution = new Resolution(keys);
+        Resolution existing = resolutions.putIfAbsent(
+                new ResolutionKey(namespace, prefix, suffix, infixes.clone()), resolution);
+        return existing != null ? existing : resolution;
+    }
+
+    /**
+     * Forget everything, used when a property is changed through the framework
+     * so that the change is seen by the next lookup.
+     */
+    public void clear() {
+        resolutions.clear();
+    }
+
+    public int size() {
+        return resolutions.size();
+    }
+
+    /**
+     * The candidate keys of a lookup, in the order they are tried, and how many
+     * of the leading keys are known to have no value in the CPS store. If the
+     * CPS store has a value for one of the keys, that is the number of keys
+     * before it. If it has none, it is the number of keys.
+     */
+    static class Resolution {
+
+        private final String[] keys;
+        private volatile int   knownMissingFromCps;
+
+        Resolution(String[] keys) {
+            this.keys = keys;
+        }
+
+        String[] getKeys() {
+            return keys;
+        }
+
+        int getKnownMissingFromCps() {
+            return knownMissingFromCps;
+        }
+
+        void setKnownMissingFromCps(int knownMissingFromCps) {
+            this.knownMissingFromCps = knownMissingFromCps;
+        }
+    }
+
+    private static class ResolutionKey {
+
+        private final String   namespace;
+        private final String   prefix;
+        private final String   suffix;
+        private final String[] infixes;
+        private final int      hash;
+
+        ResolutionKey(String namespace, String prefix, String suffix, String[] infixes) {
+            this.namespace = namespace;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.infixes = infixes;
+            int h = Objects.hashCode(namespace);
+            h = h * 31 + Objects.hashCode(prefix);
+            h = h * 31 + Objects.hashCode(suffix);
+            this.hash = h * 31 + Arrays.hashCode(infixes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResolutionKey)) {
+                return false;
+            }
+            ResolutionKey other = (ResolutionKey) obj;
+            return hash == other.hash && Objects.equals(namespace, other.namespace)
+                    && Objects.equals(prefix, other.prefix) && Objects.equals(suffix, other.suffix)
+                    && Arrays.equals(infixes, other.infixes);
+        }
+    }
+}
@@ -14,6 +14,8 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Null;
@@ -21,6 +23,7 @@ import javax.validation.constraints.Null;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.IDssAction;
+import dev.galasa.framework.spi.IDssLease;
 import dev.galasa.framework.spi.IDssResourceAction;
 import dev.galasa.framework.spi.IDynamicStatusStore;
 import dev.galasa.framework.spi.IDynamicStatusStoreKeyAccess;
@@ -105,6 +108,13 @@ public class FrameworkDynamicStoreKeyAccess implements IDynamicStatusStoreKeyAcc
         this.dssStore.put(prefixKey(key), value, timeToLiveSecs);
     }
 
+    @Override
+    public IDssLease putWithLease(@NotNull String key, @NotNull String value, long timeToLiveSecs)
+            throws DynamicStatusStoreException {
+        Objects.requireNonNull(value);
+        return this.dssStore.putWithLease(prefixKey(key), value, timeToLiveSecs);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -165,7 +175,10 @@ public class FrameworkDynamicStoreKeyAccess implements IDynamicStatusStoreKeyAcc
      */
     @Override
     public @NotNull Map<String, String> getPrefix(@NotNull String keyPrefix) throws DynamicStatusStoreException {
-        final Map<String, String> gotSet = this.dssStore.getPrefix(prefixKey(keyPrefix));
+        return removePrefixFromKeys(this.dssStore.getPrefix(prefixKey(keyPrefix)));
+    }
+
+    private Map<String, String> removePrefixFromKeys(Map<String, String> gotSet) throws DynamicStatusStoreException {
         final HashMap<String, String> returnSet = new HashMap<>();
 
         for (Entry<String, String> entry : gotSet.entrySet()) {
@@ -296,7 +309,10 @@ public class FrameworkDynamicStoreKeyAccess implements IDynamicStatusStoreKeyAcc
 
     @Override
     public void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
+        this.dssStore.performActions(prefixActions(actions));
+    }
 
+    private IDssAction[] prefixActions(IDssAction... actions) {
         IDssAction[] dssActions = new IDssAction[actions.length];
         for(int i = 0; i < actions.length; i++) {
             if (actions[i] instanceof IDssResourceAction) {
@@ -305,8 +321,62 @@ public class FrameworkDynamicStoreKeyAccess implements IDynamicStatusStoreKeyAcc
                 dssActions[i] = actions[i].applyPrefix(this.prefix);
             }
         }
+        return dssActions;
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(@NotNull String key, @NotNull String value) {
+        return this.dssStore.putAsync(prefixKey(key), value);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(@NotNull Map<String, String> keyValues) {
+        return this.dssStore.putAsync(getPrefixedKeyValues(keyValues));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> putSwapAsync(@NotNull String key, String oldValue, @NotNull String newValue) {
+        Objects.requireNonNull(newValue);
+        return this.dssStore.putSwapAsync(prefixKey(key), oldValue, newValue);
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(@NotNull String key) {
+        return this.dssStore.getAsync(prefixKey(key));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getPrefixAsync(@NotNull String keyPrefix) {
+        return this.dssStore.getPrefixAsync(prefixKey(keyPrefix)).thenApply(gotSet -> {
+            try {
+                return removePrefixFromKeys(gotSet);
+            } catch (DynamicStatusStoreException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(@NotNull String key) {
+        return this.dssStore.deleteAsync(prefixKey(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(@NotNull Set<String> keys) {
+        Objects.requireNonNull(keys);
+
+        final HashSet<String> newKeys = new HashSet<>();
+        for (final String key : keys) {
+            Objects.requireNonNull(key);
+            newKeys.add(prefixKey(key));
+        }
 
-        this.dssStore.performActions(dssActions);
+        return this.dssStore.deleteAsync(newKeys);
+    }
+
+    @Override
+    public CompletableFuture<Void> performActionsAsync(IDssAction... actions) {
+        return this.dssStore.performActionsAsync(prefixActions(actions));
     }
 
 }
\ No newline at end of file
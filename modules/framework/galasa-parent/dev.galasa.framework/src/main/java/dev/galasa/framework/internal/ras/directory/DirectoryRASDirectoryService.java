@@ -8,20 +8,17 @@ package dev.galasa.framework.internal.ras.directory;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.Base64.Encoder;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.function.Consumer;
-import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import com.google.gson.JsonParseException;
 
 import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
 import dev.galasa.framework.spi.IRunResult;
@@ -39,16 +36,26 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
     private final Path baseDirectory;
     private final GalasaGson gson;
+    private final DirectoryRASRunIndex runIndex;
 
     protected DirectoryRASDirectoryService(@NotNull Path baseDirectory, GalasaGson gson) {
+        this(baseDirectory, gson, (baseDirectory == null) ? null : new DirectoryRASRunIndex(baseDirectory, gson));
+    }
+
+    protected DirectoryRASDirectoryService(@NotNull Path baseDirectory, GalasaGson gson, DirectoryRASRunIndex runIndex) {
         this.baseDirectory = baseDirectory;
         this.gson = gson;
+        this.runIndex = runIndex;
     }
 
     @Override
     public @NotNull List<IRunResult> getRuns(@NotNull IRasSearchCriteria... searchCriteria) throws ResultArchiveStoreException{
+        return new ArrayList<>(getMatchingRuns(searchCriteria));
+    }
+
+    private List<DirectoryRASRunResult> getMatchingRuns(IRasSearchCriteria... searchCriteria) throws ResultArchiveStoreException {
 
-        ArrayList<IRunResult> runs = new ArrayList<>();
+        ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
 
         List<DirectoryRASRunResult> allRuns = getAllRuns();
 
@@ -56,8 +63,9 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for(DirectoryRASRunResult run : allRuns) {
             matched = true;
+            TestStructure summary = run.getSummaryTestStructure();
             for(IRasSearchCriteria criteria : searchCriteria) {
-                if(!criteria.criteriaMatched(run.getTestStructure())) {
+                if(!criteria.criteriaMatched(summary)) {
                     matched = false;
                     break;
                 }
@@ -77,17 +85,169 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         List<IRunResult> matchingRuns = new ArrayList<>();
         for (DirectoryRASRunResult run : allRuns) {
-            if (runName.equals(run.getTestStructure().getRunName())) {
+            if (runName.equals(run.getSummaryTestStructure().getRunName())) {
                 matchingRuns.add(run);
             }
         }
         return matchingRuns;
     }
 
+    /**
+     * Get a page of matching runs, sorted by the given field. The cursor for the next page holds the
+     * sort value and directory of the last run on this page, so runs added or removed between
+     * pages don't cause runs to be skipped or repeated.
+     */
     @Override
     public @NotNull RasRunResultPage getRunsPage(int maxResults, RasSortField primarySort, String pageToken, @NotNull IRasSearchCriteria... searchCriteria)
             throws ResultArchiveStoreException {
-        return new RasRunResultPage(getRuns(searchCriteria));
+
+        List<DirectoryRASRunResult> matchingRuns = getMatchingRuns(searchCriteria);
+
+        String sortFieldName = (primarySort == null) ? null : primarySort.getFieldName();
+        boolean isDescending = (primarySort == null) || "desc".equalsIgnoreCase(primarySort.getSortDirection());
+
+        Comparator<PageCursor> ascendingOrder = Comparator.comparing((PageCursor key) -> key.sortValue)
+            .thenComparing(key -> key.runDirectory);
+        Comparator<PageCursor> runOrder = isDescending ? ascendingOrder.reversed() : ascendingOrder;
+
+        List<SortedRun> sortedRuns = new ArrayList<>(matchingRuns.size());
+        for (DirectoryRASRunResult run : matchingRuns) {
+            PageCursor position = new PageCursor(getSortValue(run.getSummaryTestStructure(), sortFieldName), getRunDirectoryName(run));
+            sortedRuns.add(new SortedRun(run, position));
+        }
+        sortedRuns.sort((first, second) -> runOrder.compare(first.position, second.position));
+
+        // Skip past the runs which came before the cursor
+        PageCursor startAfter = decodePageCursor(pageToken);
+        int index = 0;
+        if (startAfter != null) {
+            while (index < sortedRuns.size() && runOrder.compare(sortedRuns.get(index).position, startAfter) <= 0) {
+                index++;
+            }
+        }
+
+        int pageSize = (maxResults <= 0) ? Integer.MAX_VALUE : maxResults;
+        List<IRunResult> pageRuns = new ArrayList<>();
+        while (index < sortedRuns.size() && pageRuns.size() < pageSize) {
+            pageRuns.add(sortedRuns.get(index).run);
+            index++;
+        }
+
+        String nextCursor = null;
+        if (index < sortedRuns.size() && !pageRuns.isEmpty()) {
+            nextCursor = encodePageCursor(sortedRuns.get(index - 1).position);
+        }
+
+        return new RasRunResultPage(pageRuns, nextCursor);
+    }
+
+    private static class SortedRun {
+        private final DirectoryRASRunResult run;
+        private final PageCursor position;
+
+        SortedRun(DirectoryRASRunResult run, PageCursor position) {
+            this.run = run;
+            this.position = position;
+        }
+    }
+
+    // The position of a run in a sorted list of runs
+    private static class PageCursor {
+        private String sortValue;
+        private String runDirectory;
+
+        PageCursor(String sortValue, String runDirectory) {
+            this.sortValue = sortValue;
+            this.runDirectory = runDirectory;
+        }
+    }
+
+    private String encodePageCursor(PageCursor cursor) {
+        String json = gson.toJson(cursor);
+        return Base64.getUrlEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PageCursor decodePageCursor(String pageToken) throws ResultArchiveStoreException {
+        PageCursor cursor = null;
+        if (pageToken != null && !pageToken.isEmpty()) {
+            try {
+                String json = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+                cursor = gson.fromJson(json, PageCursor.class);
+            } catch (IllegalArgumentException | JsonParseException e) {
+                throw new ResultArchiveStoreException("Invalid page cursor '" + pageToken + "'", e);
+            }
+
+            if (cursor == null || cursor.sortValue == null || cursor.runDirectory == null) {
+                throw new ResultArchiveStoreException("Invalid page cursor '" + pageToken + "'");
+            }
+        }
+        return cursor;
+    }
+
+    private String getRunDirectoryName(DirectoryRASRunResult run) {
+        String runDirectoryName = "";
+        DirectoryRASRunIndexEntry indexEntry = run.getIndexEntry();
+        if (indexEntry != null) {
+            runDirectoryName = indexEntry.getRunDirectory();
+        } else if (run.getRunId() != null) {
+            runDirectoryName = run.getRunId();
+        }
+        return runDirectoryName;
+    }
+
+    /**
+     * @return a value for the given sort field which sorts in the right order as a string
+     */
+    private String getSortValue(TestStructure testStructure, String sortFieldName) {
+        String sortValue;
+        String fieldName = (sortFieldName == null) ? "queued" : sortFieldName.toLowerCase();
+        switch (fieldName) {
+            case "endtime":
+            case "to":
+                sortValue = getTimeSortValue(testStructure.getEndTime());
+                break;
+            case "starttime":
+                sortValue = getTimeSortValue(testStructure.getStartTime());
+                break;
+            case "testname":
+            case "testclass":
+                sortValue = testStructure.getTestName();
+                break;
+            case "runname":
+                sortValue = testStructure.getRunName();
+                break;
+            case "result":
+                sortValue = testStructure.getResult();
+                break;
+            case "status":
+                sortValue = testStructure.getStatus();
+                break;
+            case "requestor":
+                sortValue = testStructure.getRequestor();
+                break;
+            case "bundle":
+                sortValue = testStructure.getBundle();
+                break;
+            case "group":
+                sortValue = testStructure.getGroup();
+                break;
+            default:
+                sortValue = getTimeSortValue(testStructure.getQueued());
+                break;
+        }
+
+        if (sortValue == null) {
+            sortValue = "";
+        }
+        return sortValue;
+    }
+
+    private String getTimeSortValue(Instant time) {
+        String sortValue = "";
+        if (time != null) {
+            sortValue = String.format("%020d", time.toEpochMilli());
+        }
+        return sortValue;
     }
 
     @Override
@@ -107,7 +267,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result!=null) {
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getSummaryTestStructure();
                 if(testStructure != null && testStructure.getTestName()!=null) {
                     requestors.add(testStructure.getRequestor());
                 }
@@ -125,7 +285,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result != null) {
 
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getSummaryTestStructure();
                 if(testStructure != null && testStructure.getTestName()!=null) {
                     key = testStructure.getBundle()+"/"+testStructure.getTestName();
                     if(!tests.containsKey(key)){
@@ -144,7 +304,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result!=null) {
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getSummaryTestStructure();
                 if(testStructure != null  ) {
                     if(testStructure.getResult()==null) {
                         results.add("UNKNOWN");
@@ -159,59 +319,23 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
         return new ArrayList<>(results);
     }
 
+    /**
+     * Get every run in the RAS from the run index. The runs' structure files are only read
+     * when their full test structures are asked for.
+     */
     protected @NotNull List<DirectoryRASRunResult> getAllRuns() throws ResultArchiveStoreException {
 
-        try {
-            ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
-
-            try (Stream<Path> stream = Files.list(Paths.get(baseDirectory.toUri()))) {
-                stream.forEach(new ConsumeRuns(baseDirectory, runs, gson));
-            }
+        ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
+        Base64.Encoder encoder = Base64.getEncoder();
 
-            return runs;
-
-        } catch (Throwable t) {
-            throw new ResultArchiveStoreException("Unable to obtain runs", t);
-        }
-
-    }
-
-    private static class ConsumeRuns implements Consumer<Path> {
-
-        private final Path                        base;
-        private final List<DirectoryRASRunResult> results;
-        private final GalasaGson                        gson;
-        private final Encoder                     encoder;
-
-        private final Log                  logger = LogFactory.getLog(ConsumeRuns.class);
-
-        public ConsumeRuns(Path base, List<DirectoryRASRunResult> results, GalasaGson gson) {
-            this.base    = base;
-            this.results = results;
-            this.gson    = gson;
-            this.encoder = Base64.getEncoder();
-        }
-
-        @Override
-        public void accept(Path path) {
-            if (!Files.isDirectory(path)) {
-                return;
-            }
-
-            Path structureFile = path.resolve("structure.json");
-            if (Files.exists(structureFile)) {
-                try {
-                    Path relativePath = base.relativize(path);
-                    String id = ID_PREFIX + this.encoder.encodeToString(relativePath.toString().getBytes(StandardCharsets.UTF_8));
-
-                    results.add(new DirectoryRASRunResult(path, gson, id));
-                } catch (Throwable t) {
-                    logger.trace("Unable to create a run result from " + structureFile.toString());
-                }
-            }
+        for (DirectoryRASRunIndexEntry entry : runIndex.getEntries()) {
+            String runDirectoryName = entry.getRunDirectory();
+            String id = ID_PREFIX + encoder.encodeToString(runDirectoryName.getBytes(StandardCharsets.UTF_8));
 
+            runs.add(new DirectoryRASRunResult(baseDirectory.resolve(runDirectoryName), gson, id, entry));
         }
 
+        return runs;
     }
 
     @Override
@@ -249,7 +373,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         List<IRunResult> matchingRuns = new ArrayList<>();
         for (DirectoryRASRunResult run : allRuns) {
-            if (groupName.equals(run.getTestStructure().getGroup())) {
+            if (groupName.equals(run.getSummaryTestStructure().getGroup())) {
                 matchingRuns.add(run);
             }
         }
@@ -32,6 +32,8 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
 import dev.galasa.framework.spi.ras.ArtifactMetadata;
 import dev.galasa.framework.SupportedFileAttributeName;
 import dev.galasa.framework.spi.ras.ResultArchiveStoreFileSystem;
@@ -163,11 +165,14 @@ public class DirectoryRASFileSystemProvider extends ResultArchiveStoreFileSystem
             Files.createDirectories(realPath.getParent());
         }
 
-        // *** Remove any SetContentType open options
+        // *** Remove any SetContentType open options, and any range or cache validation
+        // *** options, which are not honoured here, so the whole artifact is always read
         HashSet<OpenOption> newOptions = new HashSet<>();
         for (OpenOption option : options) {
             if (option instanceof SetContentType) {
                 setContentType(path, ((SetContentType) option).getContentType());
+            } else if (option instanceof ArtifactByteRange || option instanceof ArtifactIfNoneMatch) {
+                continue;
             } else {
                 newOptions.add(option);
             }
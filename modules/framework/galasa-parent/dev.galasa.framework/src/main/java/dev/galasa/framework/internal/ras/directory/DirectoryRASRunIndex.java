@@ -0,0 +1,352 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.GalasaGson;
+import dev.galasa.framework.spi.utils.GalasaGsonBuilder;
+import dev.galasa.framework.spi.utils.ITimeService;
+import dev.galasa.framework.spi.utils.SystemTimeService;
+
+/**
+ * An index of the runs in a local directory RAS, so runs can be searched without
+ * reading every run's structure file.
+ *
+ * The index is an append-only file in the RAS base directory with one JSON line for each
+ * time a run's test structure is saved; the last line for a run wins. Each engine appends
+ * to it as its run progresses, and readers only parse the lines added since they last looked.
+ *
+ * The entries are checked against the run directories when the RAS directory has changed
+ * since they were last checked, which is when runs have been added or deleted, and at least
+ * once a minute otherwise. Runs with no entry, or whose structure file has changed since their
+ * entry was written, are re-indexed from their structure files, and entries for deleted runs
+ * are removed. So if the index is lost, damaged or out of date it is rebuilt as needed.
+ *
+ * Appending to the index and rewriting it to drop replaced lines are done holding a lock on
+ * a lock file next to it, so a rewrite by one engine can't lose the lines another engine is
+ * appending.
+ */
+public class DirectoryRASRunIndex {
+
+    public static final String INDEX_FILE_NAME   = "runs.index";
+    public static final String LOCK_FILE_NAME    = "runs.index.lock";
+
+    // Check the entries against the run directories at least this often
+    public static final long   RECONCILE_INTERVAL_MILLIS = 60 * 1000;
+
+    private static final String STRUCTURE_FILE_NAME = "structure.json";
+
+    // Rewrite the index once it has this many lines which have been replaced by later ones
+    private static final int   COMPACT_THRESHOLD = 1000;
+
+    // A directory modified this recently may be modified again without its modified time changing
+    private static final long  MODIFIED_TIME_GRANULARITY_MILLIS = 2000;
+
+    // File locks are held by the whole JVM, so indexes in the same JVM also take turns through these
+    private static final Map<Path, Object> LOCK_FILE_MONITORS = new ConcurrentHashMap<>();
+
+    private final Log          logger = LogFactory.getLog(DirectoryRASRunIndex.class);
+
+    private final Path         baseDirectory;
+    private final Path         indexFile;
+    private final Path         lockFile;
+    private final GalasaGson   structureGson;
+    private final ITimeService timeService;
+    private final Gson         indexGson = new GalasaGsonBuilder(false).getGson();
+
+    private final Map<String, DirectoryRASRunIndexEntry> entries = new LinkedHashMap<>();
+
+    // How far through the index file has been read, and how many lines that was
+    private long               indexFileReadOffset = 0;
+    private int                indexFileLineCount  = 0;
+
+    // Identifies the index file that was read, so a rewritten one is spotted and read from the start
+    private Object             indexFileKey;
+
+    // When the entries were last checked against the run directories, and how the RAS directory looked then
+    private long               lastReconcileMillis = -1;
+    private long               baseDirectoryLastModifiedAtReconcile = -1;
+
+    public DirectoryRASRunIndex(@NotNull Path baseDirectory, GalasaGson structureGson) {
+        this(baseDirectory, structureGson, new SystemTimeService());
+    }
+
+    public DirectoryRASRunIndex(@NotNull Path baseDirectory, GalasaGson structureGson, ITimeService timeService) {
+        this.baseDirectory = baseDirectory;
+        this.indexFile = baseDirectory.resolve(INDEX_FILE_NAME);
+        this.lockFile = baseDirectory.resolve(LOCK_FILE_NAME);
+        this.structureGson = structureGson;
+        this.timeService = timeService;
+    }
+
+    /**
+     * Record the latest test structure of a run, after its structure file has been written
+     *
+     * @param runDirectory  - the run's directory
+     * @param testStructure - the test structure that was written
+     * @throws IOException - if the index can't be written to
+     */
+    public void update(@NotNull Path runDirectory, @NotNull TestStructure testStructure) throws IOException {
+        long structureLastModified = Files.getLastModifiedTime(runDirectory.resolve(STRUCTURE_FILE_NAME)).toMillis();
+        String runDirectoryName = runDirectory.getFileName().toString();
+
+        appendEntry(new DirectoryRASRunIndexEntry(runDirectoryName, structureLastModified, testStructure));
+    }
+
+    /**
+     * @return an entry for every run in the RAS, checked against the run directories if they
+     *         have changed or have not been checked for a while
+     * @throws ResultArchiveStoreException - if the RAS directory can't be read
+     */
+    public synchronized @NotNull List<DirectoryRASRunIndexEntry> getEntries() throws ResultArchiveStoreException {
+        try {
+            readNewIndexLines();
+            if (isReconcileDue()) {
+                reconcileWithRunDirectories();
+            }
+
+            int replacedLineCount = indexFileLineCount - entries.size();
+            if (replacedLineCount >= COMPACT_THRESHOLD) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new ResultArchiveStoreException("Unable to read the run index in " + this.baseDirectory, e);
+        }
+
+        return new ArrayList<>(entries.values());
+    }
+
+    private void readNewIndexLines() throws IOException {
+        if (!Files.exists(indexFile)) {
+            if (indexFileKey != null || indexFileReadOffset > 0) {
+                resetEntries();
+            }
+            return;
+        }
+
+        // Looked up before the file is opened, so if the file is replaced in between it is read again next time
+        Object fileKey = Files.readAttributes(indexFile, BasicFileAttributes.class).fileKey();
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long indexFileSize = channel.size();
+            boolean isRewritten;
+            if (fileKey != null && indexFileKey != null) {
+                isRewritten = !fileKey.equals(indexFileKey);
+            } else {
+                isRewritten = indexFileSize < indexFileReadOffset;
+            }
+            if (isRewritten) {
+                // The index has been rewritten since it was last read, so start again
+                resetEntries();
+            }
+            indexFileKey = fileKey;
+
+            long bytesToRead = indexFileSize - indexFileReadOffset;
+            if (bytesToRead <= 0) {
+                return;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) bytesToRead);
+            channel.position(indexFileReadOffset);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full
+            }
+
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                    addEntryFromIndexLine(line);
+                    lineStart = i + 1;
+                }
+            }
+
+            // Leave any partly written line at the end until it has been finished
+            indexFileReadOffset += lineStart;
+        }
+    }
+
+    private void addEntryFromIndexLine(String line) {
+        indexFileLineCount++;
+        if (line.isBlank()) {
+            return;
+        }
+
+        try {
+            DirectoryRASRunIndexEntry entry = indexGson.fromJson(line, DirectoryRASRunIndexEntry.class);
+            if (entry != null && entry.getRunDirectory() != null) {
+                entries.put(entry.getRunDirectory(), entry);
+            }
+        } catch (JsonParseException e) {
+            // The run will be re-indexed from its structure file when the entries are reconciled
+            logger.trace("Ignoring an unreadable line in the run index " + indexFile);
+        }
+    }
+
+    private boolean isReconcileDue() throws IOException {
+        long now = timeService.now().toEpochMilli();
+        long baseDirectoryLastModified = Files.getLastModifiedTime(baseDirectory).toMillis();
+
+        return lastReconcileMillis < 0
+            || now - lastReconcileMillis >= RECONCILE_INTERVAL_MILLIS
+            || baseDirectoryLastModified != baseDirectoryLastModifiedAtReconcile;
+    }
+
+    private void reconcileWithRunDirectories() throws IOException {
+        // Create the index files first, so that creating them isn't taken for a change to the run directories
+        withIndexLocked(() -> {
+            Files.write(indexFile, new byte[0], StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        });
+
+        long now = timeService.now().toEpochMilli();
+        long baseDirectoryLastModified = Files.getLastModifiedTime(baseDirectory).toMillis();
+
+        Set<String> runDirectoryNames = new HashSet<>();
+
+        List<Path> runDirectories;
+        try (Stream<Path> stream = Files.list(baseDirectory)) {
+            runDirectories = stream.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+
+        for (Path runDirectory : runDirectories) {
+            Path structureFile = runDirectory.resolve(STRUCTURE_FILE_NAME);
+            try {
+                long structureLastModified = Files.getLastModifiedTime(structureFile).toMillis();
+
+                String runDirectoryName = runDirectory.getFileName().toString();
+                runDirectoryNames.add(runDirectoryName);
+
+                DirectoryRASRunIndexEntry entry = entries.get(runDirectoryName);
+                if (entry == null || entry.getStructureLastModified() != structureLastModified) {
+                    reindexRun(runDirectory, runDirectoryName, structureLastModified);
+                }
+            } catch (NoSuchFileException e) {
+                // Not a run, or the run hasn't saved its test structure yet
+            }
+        }
+
+        Iterator<String> indexedRunDirectoryNames = entries.keySet().iterator();
+        while (indexedRunDirectoryNames.hasNext()) {
+            if (!runDirectoryNames.contains(indexedRunDirectoryNames.next())) {
+                indexedRunDirectoryNames.remove();
+            }
+        }
+
+        lastReconcileMillis = now;
+        if (now - baseDirectoryLastModified < MODIFIED_TIME_GRANULARITY_MILLIS) {
+            // Runs added or deleted later within the same tick of the modified time wouldn't be noticed
+            baseDirectoryLastModifiedAtReconcile = -1;
+        } else {
+            baseDirectoryLastModifiedAtReconcile = baseDirectoryLastModified;
+        }
+    }
+
+    private void reindexRun(Path runDirectory, String runDirectoryName, long structureLastModified) {
+        try (InputStreamReader in = new InputStreamReader(Files.newInputStream(runDirectory.resolve(STRUCTURE_FILE_NAME)), StandardCharsets.UTF_8)) {
+            TestStructure testStructure = structureGson.fromJson(in, TestStructure.class);
+            if (testStructure != null) {
+                DirectoryRASRunIndexEntry entry = new DirectoryRASRunIndexEntry(runDirectoryName, structureLastModified, testStructure);
+                entries.put(runDirectoryName, entry);
+                appendEntry(entry);
+            }
+        } catch (Exception e) {
+            logger.trace("Unable to index the run in " + runDirectory.toString());
+        }
+    }
+
+    private void appendEntry(DirectoryRASRunIndexEntry entry) throws IOException {
+        byte[] line = (indexGson.toJson(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        withIndexLocked(() -> {
+            Files.write(indexFile, line, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        });
+    }
+
+    private void compact() throws IOException {
+        withIndexLocked(() -> {
+            // Pick up anything appended since the index was last read, as nothing more can be appended until it is rewritten
+            readNewIndexLines();
+
+            Path tempFile = indexFile.resolveSibling(INDEX_FILE_NAME + ".tmp");
+
+            StringBuilder contents = new StringBuilder();
+            for (DirectoryRASRunIndexEntry entry : entries.values()) {
+                contents.append(indexGson.toJson(entry)).append('\n');
+            }
+            Files.write(tempFile, contents.toString().getBytes(StandardCharsets.UTF_8));
+
+            try {
+                Files.move(tempFile, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            indexFileKey = Files.readAttributes(indexFile, BasicFileAttributes.class).fileKey();
+            indexFileReadOffset = Files.size(indexFile);
+            indexFileLineCount = entries.size();
+        });
+    }
+
+    private interface IndexFileAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs an action holding the lock file's lock, which every engine using this RAS directory
+     * takes before changing the index
+     */
+    private void withIndexLocked(IndexFileAction action) throws IOException {
+        synchronized (LOCK_FILE_MONITORS.computeIfAbsent(lockFile.toAbsolutePath().normalize(), path -> new Object())) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                action.run();
+            }
+        }
+    }
+
+    private void resetEntries() {
+        entries.clear();
+        indexFileReadOffset = 0;
+        indexFileLineCount = 0;
+        indexFileKey = null;
+
+        // Only what is in the index file is known now, so check it against the run directories
+        lastReconcileMillis = -1;
+    }
+}
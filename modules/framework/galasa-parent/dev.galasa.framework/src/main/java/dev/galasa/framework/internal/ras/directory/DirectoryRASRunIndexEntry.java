@@ -0,0 +1,92 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import dev.galasa.framework.spi.teststructure.TestStructure;
+
+/**
+ * One line of the run index, holding the parts of a run's test structure
+ * which are needed to search for runs without reading the structure file
+ */
+public class DirectoryRASRunIndexEntry {
+
+    // The name of the run's directory within the RAS base directory
+    private String      runDirectory;
+
+    // When the run's structure file was last written, so out of date entries can be spotted
+    private long        structureLastModified;
+
+    private String      runName;
+    private String      bundle;
+    private String      testName;
+    private String      testShortName;
+    private String      requestor;
+    private String      user;
+    private String      status;
+    private String      result;
+    private String      group;
+    private String      submissionId;
+    private Instant     queued;
+    private Instant     startTime;
+    private Instant     endTime;
+    private Set<String> tags;
+
+    public DirectoryRASRunIndexEntry(String runDirectory, long structureLastModified, TestStructure testStructure) {
+        this.runDirectory = runDirectory;
+        this.structureLastModified = structureLastModified;
+
+        this.runName = testStructure.getRunName();
+        this.bundle = testStructure.getBundle();
+        this.testName = testStructure.getTestName();
+        this.testShortName = testStructure.getTestShortName();
+        this.requestor = testStructure.getRequestor();
+        this.user = testStructure.getUser();
+        this.status = testStructure.getStatus();
+        this.result = testStructure.getResult();
+        this.group = testStructure.getGroup();
+        this.submissionId = testStructure.getSubmissionId();
+        this.queued = testStructure.getQueued();
+        this.startTime = testStructure.getStartTime();
+        this.endTime = testStructure.getEndTime();
+        this.tags = new HashSet<>(testStructure.getTags());
+    }
+
+    public String getRunDirectory() {
+        return runDirectory;
+    }
+
+    public long getStructureLastModified() {
+        return structureLastModified;
+    }
+
+    /**
+     * @return a test structure holding just the indexed fields, which is enough to match search criteria against
+     */
+    public TestStructure toTestStructure() {
+        TestStructure testStructure = new TestStructure();
+        testStructure.setRunName(runName);
+        testStructure.setBundle(bundle);
+        testStructure.setTestName(testName);
+        testStructure.setTestShortName(testShortName);
+        testStructure.setRequestor(requestor);
+        testStructure.setUser(user);
+        testStructure.setStatus(status);
+        testStructure.setResult(result);
+        testStructure.setGroup(group);
+        testStructure.setSubmissionId(submissionId);
+        testStructure.setQueued(queued);
+        testStructure.setStartTime(startTime);
+        testStructure.setEndTime(endTime);
+        if (tags != null) {
+            testStructure.setTags(new HashSet<>(tags));
+        }
+        return testStructure;
+    }
+}
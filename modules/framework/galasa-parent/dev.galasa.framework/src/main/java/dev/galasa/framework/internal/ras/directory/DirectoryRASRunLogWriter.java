@@ -0,0 +1,111 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Appends to the run log through a single file channel which stays open for the whole run.
+ *
+ * Messages are collected in a buffer and written to the file when the buffer fills up, when
+ * the flush interval has passed since the last write to the file, or when asked to flush.
+ * Nothing is forced to disk until sync() is called, which the RAS does when it saves the
+ * test structure.
+ */
+public class DirectoryRASRunLogWriter {
+
+    private final Path         runLog;
+    private final FileChannel  channel;
+    private final ByteBuffer   buffer;
+
+    private final long         flushIntervalMillis;
+    private final ITimeService timeService;
+    private Instant            lastFlushTime;
+
+    private boolean            isClosed = false;
+
+    public DirectoryRASRunLogWriter(Path runLog, int bufferSize, long flushIntervalMillis, ITimeService timeService) throws IOException {
+        this.runLog = runLog;
+        this.channel = FileChannel.open(runLog, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.timeService = timeService;
+        this.lastFlushTime = timeService.now();
+    }
+
+    public synchronized void write(byte[] bytes) throws IOException {
+        if (isClosed) {
+            // Anything written after the run has been shut down goes straight to the file
+            Files.write(runLog, bytes, StandardOpenOption.APPEND);
+            return;
+        }
+
+        if (bytes.length > buffer.remaining()) {
+            writeBuffer();
+        }
+
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+
+        if (timeService.now().isAfter(lastFlushTime.plusMillis(flushIntervalMillis))) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything in the buffer to the file, without waiting for it to reach the disk.
+     */
+    public synchronized void flush() throws IOException {
+        if (!isClosed) {
+            writeBuffer();
+            lastFlushTime = timeService.now();
+        }
+    }
+
+    /**
+     * Writes everything in the buffer to the file and waits for the file to reach the disk.
+     */
+    public synchronized void sync() throws IOException {
+        if (!isClosed) {
+            flush();
+            channel.force(false);
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (!isClosed) {
+            try {
+                sync();
+            } finally {
+                isClosed = true;
+                channel.close();
+            }
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
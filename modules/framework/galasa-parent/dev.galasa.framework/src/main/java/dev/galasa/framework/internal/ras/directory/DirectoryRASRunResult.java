@@ -27,10 +27,14 @@ public class DirectoryRASRunResult implements IRunResult {
     private static final int LOG_STREAM_BUFFER_BYTES = 8 * 1024;
 
     private final Path                           runDirectory;
-    private final TestStructure                  testStructure;
-    private final DirectoryRASFileSystemProvider fileSystemProvider;
+    private final GalasaGson                     gson;
     private final String                         id;
     private final IFileSystem                    fileSystem;
+    private final DirectoryRASRunIndexEntry      indexEntry;
+
+    // Runs found through the run index only read these when they are needed
+    private TestStructure                        testStructure;
+    private DirectoryRASFileSystemProvider       fileSystemProvider;
 
     protected DirectoryRASRunResult(Path runDirectory, GalasaGson gson, String id)
             throws JsonSyntaxException, JsonIOException, IOException {
@@ -46,17 +50,25 @@ public class DirectoryRASRunResult implements IRunResult {
     )
             throws JsonSyntaxException, JsonIOException, IOException {
         this.runDirectory = runDirectory;
+        this.gson         = gson;
         this.id           = id;
         this.fileSystem   = fileSystem;
+        this.indexEntry   = null;
 
-        Path structureFile = this.runDirectory.resolve("structure.json");
-        
-        try (InputStreamReader in = new InputStreamReader(fileSystem.newInputStream(structureFile))){
-           this.testStructure = gson.fromJson(in, TestStructure.class);
-        }
-
+        this.testStructure = readTestStructure();
         this.fileSystemProvider = fileSystemProvider;
     }
+
+    /**
+     * Create a run result from its run index entry, without reading anything from the run directory yet
+     */
+    protected DirectoryRASRunResult(Path runDirectory, GalasaGson gson, String id, DirectoryRASRunIndexEntry indexEntry) {
+        this.runDirectory = runDirectory;
+        this.gson         = gson;
+        this.id           = id;
+        this.fileSystem   = new FileSystem();
+        this.indexEntry   = indexEntry;
+    }
     
     //for testing purposes
     protected DirectoryRASRunResult() {
@@ -65,15 +77,58 @@ public class DirectoryRASRunResult implements IRunResult {
     	this.fileSystemProvider = null;
     	this.id                 = null;
         this.fileSystem = null;
+        this.gson = null;
+        this.indexEntry = null;
+    }
+
+    private TestStructure readTestStructure() throws JsonSyntaxException, JsonIOException, IOException {
+        Path structureFile = this.runDirectory.resolve("structure.json");
+
+        try (InputStreamReader in = new InputStreamReader(fileSystem.newInputStream(structureFile))){
+           return gson.fromJson(in, TestStructure.class);
+        }
     }
 
     @Override
-    public TestStructure getTestStructure() throws ResultArchiveStoreException {
+    public synchronized TestStructure getTestStructure() throws ResultArchiveStoreException {
+        if (this.testStructure == null && this.indexEntry != null) {
+            try {
+                this.testStructure = readTestStructure();
+            } catch (Exception e) {
+                throw new ResultArchiveStoreException("Unable to read the test structure in " + this.runDirectory.toString(), e);
+            }
+        }
         return this.testStructure;
     }
 
+    /**
+     * @return the indexed parts of the test structure if this run was found through the run index,
+     *         which is enough to match search criteria against, otherwise the full test structure
+     * @throws ResultArchiveStoreException - if the test structure can't be read
+     */
+    protected TestStructure getSummaryTestStructure() throws ResultArchiveStoreException {
+        TestStructure summary;
+        if (this.indexEntry != null) {
+            summary = this.indexEntry.toTestStructure();
+        } else {
+            summary = getTestStructure();
+        }
+        return summary;
+    }
+
+    protected DirectoryRASRunIndexEntry getIndexEntry() {
+        return this.indexEntry;
+    }
+
     @Override
-    public Path getArtifactsRoot() throws ResultArchiveStoreException {
+    public synchronized Path getArtifactsRoot() throws ResultArchiveStoreException {
+        if (this.fileSystemProvider == null) {
+            try {
+                this.fileSystemProvider = new DirectoryRASFileSystemProvider(this.runDirectory);
+            } catch (IOException e) {
+                throw new ResultArchiveStoreException("Unable to read the stored artifacts in " + this.runDirectory.toString(), e);
+            }
+        }
         return this.fileSystemProvider.getActualFileSystem().getPath("/");
     }
 
@@ -114,6 +169,7 @@ public class DirectoryRASRunResult implements IRunResult {
         long size = 0;
         
         // First try to get size from TestStructure metadata
+        TestStructure testStructure = getTestStructure();
         if (testStructure != null) {
             Long logSize = testStructure.getLogSize();
             if (logSize != null) {
@@ -7,11 +7,15 @@ package dev.galasa.framework.internal.ras.directory;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -28,6 +32,7 @@ import dev.galasa.framework.spi.IResultArchiveStoreService;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.spi.utils.GalasaGson;
+import dev.galasa.framework.spi.utils.SystemTimeService;
 
 /**
  * A RAS Service for storing the result archive store
@@ -40,6 +45,9 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
 
     private static final Charset           UTF8     = Charset.forName("utf-8");
 
+    private static final int               RUN_LOG_BUFFER_SIZE            = 64 * 1024;
+    private static final long              RUN_LOG_FLUSH_INTERVAL_MILLIS  = 1000;
+
     private final IFramework               framework;                           // NOSONAR
     private final URI                      rasUri;
     private final Path                     baseDirectory;
@@ -49,11 +57,14 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
     private Path                           runDirectory;
     private Path                           testStructureFile;
     private Path                           runLog;
+    private DirectoryRASRunLogWriter       runLogWriter;
 
     private final GalasaGson               gson     = new GalasaGson();
 
     private DirectoryRASFileSystemProvider provider;
 
+    private final DirectoryRASRunIndex     runIndex;
+
     private long                           runLogLineCount;
 
     public DirectoryResultArchiveStoreService(IFramework framework, URI rasUri) throws ResultArchiveStoreException {
@@ -68,6 +79,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
             throw new ResultArchiveStoreException(
                     "Unable to create the RAS base directory '" + this.baseDirectory + "'", e);
         }
+        this.runIndex = new DirectoryRASRunIndex(this.baseDirectory, this.gson);
 
         // *** Get the runname to create the directory
         final String runName = this.framework.getTestRunName();
@@ -87,6 +99,13 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
             throw new ResultArchiveStoreException("Unable to create Run Log", e);
         }
 
+        // *** Keep the run log open for the whole run, rather than opening it for every message
+        try {
+            this.runLogWriter = new DirectoryRASRunLogWriter(this.runLog, RUN_LOG_BUFFER_SIZE, RUN_LOG_FLUSH_INTERVAL_MILLIS, new SystemTimeService());
+        } catch (final IOException e) {
+            throw new ResultArchiveStoreException("Unable to open Run Log", e);
+        }
+
         // *** Setup the provider to do all the work
         try {
             this.provider = new DirectoryRASFileSystemProvider(this.runDirectory);
@@ -155,7 +174,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
             message = framework.getConfidentialTextService().removeConfidentialText(message);
 
         try {
-            Files.write(this.runLog, message.getBytes(UTF8), StandardOpenOption.APPEND);
+            this.runLogWriter.write(message.getBytes(UTF8));
         } catch (final Exception e) {
             throw new ResultArchiveStoreException("Unable to write message to run log", e);
         }
@@ -200,13 +219,53 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
      */
     @Override
     public void updateTestStructure(@NotNull TestStructure testStructure) throws ResultArchiveStoreException {
+        // *** The test structure is a checkpoint, so make sure the run log it describes is on disk first
+        if (this.runLogWriter != null) {
+            try {
+                this.runLogWriter.sync();
+            } catch (final IOException e) {
+                throw new ResultArchiveStoreException("Unable to write the run log to disk", e);
+            }
+        }
+
         try {
             testStructure.normalise();
             final String json = this.gson.toJson(testStructure);
-            Files.write(this.testStructureFile, json.getBytes(UTF8));
+            writeFileAtomically(this.testStructureFile, json.getBytes(UTF8));
         } catch (final Exception e) {
             throw new ResultArchiveStoreException("Unable to write the test structure", e);
         }
+
+        try {
+            this.runIndex.update(this.runDirectory, testStructure);
+        } catch (final IOException e) {
+            // Not a problem for the run, the index entry will be rebuilt from the structure file when it is next read
+        }
+    }
+
+    /**
+     * Write a file so that readers see either the old contents or the new contents, never a partly written file
+     *
+     * @param file     - the file to replace
+     * @param contents - the new contents of the file
+     * @throws IOException - if the file can't be written
+     */
+    private void writeFileAtomically(Path file, byte[] contents) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName().toString() + ".tmp");
+
+        try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(contents);
+            while (bytes.hasRemaining()) {
+                tempChannel.write(bytes);
+            }
+            tempChannel.force(true);
+        }
+
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     /*
@@ -221,10 +280,24 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
 
     @Override
     public void flush() {
+        if (this.runLogWriter != null) {
+            try {
+                this.runLogWriter.flush();
+            } catch (final IOException e) {
+                e.printStackTrace(); // *** Do not use logger, will cause a loop //NOSONAR
+            }
+        }
     }
 
     @Override
     public void shutdown() {
+        if (this.runLogWriter != null) {
+            try {
+                this.runLogWriter.close();
+            } catch (final IOException e) {
+                e.printStackTrace(); // *** Do not use logger, will cause a loop //NOSONAR
+            }
+        }
         this.shutdown = true;
     }
 
@@ -235,7 +308,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
     @Override
     public @NotNull List<IResultArchiveStoreDirectoryService> getDirectoryServices() {
         ArrayList<IResultArchiveStoreDirectoryService> dirs = new ArrayList<>(1);
-        dirs.add(new DirectoryRASDirectoryService(this.baseDirectory, gson));
+        dirs.add(new DirectoryRASDirectoryService(this.baseDirectory, gson, this.runIndex));
         return dirs;
     }
 
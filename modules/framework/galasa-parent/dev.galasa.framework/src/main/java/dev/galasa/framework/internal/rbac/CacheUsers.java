@@ -17,4 +17,10 @@ public interface CacheUsers {
     int getUserPriority(String loginId) throws RBACException;
 
     void invalidateUser(String loginId) throws RBACException;
+
+    /**
+     * Stops the cache watching for changes made by other pods. The cache must not be
+     * used afterwards.
+     */
+    void shutdown();
 }
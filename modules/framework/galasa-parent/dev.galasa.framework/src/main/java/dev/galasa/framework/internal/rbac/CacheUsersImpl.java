@@ -5,54 +5,120 @@
  */
 package dev.galasa.framework.internal.rbac;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.LogFactory;
 
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
 import dev.galasa.framework.spi.auth.AuthStoreException;
 import dev.galasa.framework.spi.auth.IAuthStoreService;
 import dev.galasa.framework.spi.auth.IUser;
+import dev.galasa.framework.spi.rbac.BuiltInAction;
 import dev.galasa.framework.spi.rbac.RBACException;
 import dev.galasa.framework.spi.rbac.RBACService;
 import dev.galasa.framework.spi.rbac.Role;
+import dev.galasa.framework.spi.utils.ITimeService;
+import dev.galasa.framework.spi.utils.SystemTimeService;
 
 import org.apache.commons.logging.*;
 
+/**
+ * Caches the actions each user is permitted and their priority in two levels.
+ *
+ * The first level is held in memory, so that checking a user's permissions does
+ * not need a round trip to the DSS. Entries are dropped after a few minutes, and
+ * the least recently used users are dropped if too many are held. The memory is
+ * only locked while it is being looked in or changed, never while the DSS or the
+ * auth store is being used.
+ *
+ * The second level is the DSS, shared by all the pods of the ecosystem, which
+ * holds a user's entries for a day unless they are invalidated. When a user is
+ * invalidated by any pod, their DSS entries are deleted, and a watch on the DSS
+ * drops the user from the first level of every pod. The watch is removed when the
+ * cache is shut down.
+ */
 public class CacheUsersImpl implements CacheUsers {
 
     // Only keep users property entries in the cache for 24 hours
     private static final long CACHED_USER_TIME_TO_LIVE_SECS = 24 * 60 * 60;
 
+    // Only keep users in memory for 10 minutes, in case an invalidation is missed
+    private static final long IN_MEMORY_USER_TIME_TO_LIVE_MILLIS = 10 * 60 * 1000;
+    static final int MAX_IN_MEMORY_USERS = 10000;
+
     private static final String USER_PROPERTY_PREFIX = "user.";
     private static final String ACTIONS_PROPERTY_SUFFIX = ".actions";
     private static final String PRIORITY_PROPERTY_SUFFIX = ".priority";
 
+    // Each built-in action is given a bit, so a user's actions can be held as a long
+    private static final Map<String, Long> ACTION_BITS = new HashMap<>();
+    static {
+        for (BuiltInAction action : BuiltInAction.values()) {
+            ACTION_BITS.put(action.getAction().getId(), 1L << action.ordinal());
+        }
+    }
+
     private IDynamicStatusStoreService dssService;
     private IAuthStoreService authStoreService;
     private RBACService rbacService;
+    private ITimeService timeService;
     private final Log logger = LogFactory.getLog(getClass());
 
+    // Ordered from least to most recently used, and guarded by its own lock
+    private final Map<String, CachedUser> usersInMemory = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+            return size() > MAX_IN_MEMORY_USERS;
+        }
+    };
+
+    // Counts invalidations, so that a user read before an invalidation is not put
+    // back in memory after it
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private UUID invalidatedUsersWatchId;
+
     public CacheUsersImpl(
         IDynamicStatusStoreService dssService,
         IAuthStoreService authStoreService,
         RBACService rbacService
+    ) {
+        this(dssService, authStoreService, rbacService, new SystemTimeService());
+    }
+
+    public CacheUsersImpl(
+        IDynamicStatusStoreService dssService,
+        IAuthStoreService authStoreService,
+        RBACService rbacService,
+        ITimeService timeService
     ) {
         this.dssService = dssService;
         this.authStoreService = authStoreService;
         this.rbacService = rbacService;
+        this.timeService = timeService;
+
+        watchForInvalidatedUsers();
     }
 
     @Override
-    public synchronized void addUser(IUser user) throws RBACException {
-        try {
-            String loginId = user.getLoginId();
-            Set<String> actionIds = getUserActionsFromAuthStore(user);
+    public void addUser(IUser user) throws RBACException {
+        long invalidationsBefore = invalidations.get();
+        Set<String> actionIds = getUserActionsFromAuthStore(user);
+        addUserToDss(user.getLoginId(), actionIds, user.getPriority());
+        addUserToMemory(user.getLoginId(), CachedUser.of(actionIds, user.getPriority(), expiry()), invalidationsBefore);
+    }
 
+    private void addUserToDss(String loginId, Set<String> actionIds, long priority) throws RBACException {
+        try {
             // The users-to-actions DSS property is in the form:
             // dss.rbac.user.<loginId>.actions = <comma-separated action IDs>
             String actionsKey = getSuffixedUserPropertyKey(loginId, ACTIONS_PROPERTY_SUFFIX);
@@ -60,7 +126,7 @@ public class CacheUsersImpl implements CacheUsers {
 
             // Add the user's priority value to the cache
             String priorityKey = getSuffixedUserPropertyKey(loginId, PRIORITY_PROPERTY_SUFFIX);
-            String userPriority = Long.toString(user.getPriority());
+            String userPriority = Long.toString(priority);
 
             Map<String, String> propertiesToSet = new HashMap<>();
             propertiesToSet.put(actionsKey, commaSeparatedActionIds);
@@ -73,35 +139,43 @@ public class CacheUsersImpl implements CacheUsers {
     }
 
     @Override
-    public synchronized boolean isActionPermitted(String loginId, String actionId) throws RBACException {
+    public boolean isActionPermitted(String loginId, String actionId) throws RBACException {
+        CachedUser user = getUserFromMemory(loginId);
+        if (user != null && user.hasActions()) {
+            return user.isActionPermitted(actionId);
+        }
 
         boolean isActionPermitted = false;
+        long invalidationsBefore = invalidations.get();
         try {
             String userActionsKey = getSuffixedUserPropertyKey(loginId, ACTIONS_PROPERTY_SUFFIX);
             String commaSeparatedUserActions = dssService.get(userActionsKey);
 
-            Set<String> userActions = new HashSet<>();
             if (commaSeparatedUserActions == null) {
                 // Cache miss, so get the user's actions from the auth store
-                IUser user = getUserFromAuthStore(loginId);
-                if (user==null) {
+                IUser authStoreUser = getUserFromAuthStore(loginId);
+                if (authStoreUser==null) {
                     // The user record doesn't exist.
                     // So we know the user isn't permitted right now.
                     logger.info("User does not have a user record. Permission denied.");
                     isActionPermitted = false;
                 } else {
-
-                    userActions = getUserActionsFromAuthStore(user);
+                    Set<String> userActions = getUserActionsFromAuthStore(authStoreUser);
 
                     // Add this user to the cache
-                    addUser(user);
+                    addUserToDss(loginId, userActions, authStoreUser.getPriority());
+                    user = CachedUser.of(userActions, authStoreUser.getPriority(), expiry());
+                    addUserToMemory(loginId, user, invalidationsBefore);
+
+                    // Check if the user is allowed to perform the given action
+                    isActionPermitted = user.isActionPermitted(actionId);
                 }
             } else {
-                userActions = Set.of(commaSeparatedUserActions.split(","));
+                Set<String> userActions = Set.of(commaSeparatedUserActions.split(","));
+                CachedUser actionsOnly = CachedUser.of(userActions, null, expiry());
+                addUserToMemory(loginId, actionsOnly.mergedWith(user), invalidationsBefore);
+                isActionPermitted = actionsOnly.isActionPermitted(actionId);
             }
-
-            // Check if the user is allowed to perform the given action
-            isActionPermitted = userActions.contains(actionId);
         } catch (DynamicStatusStoreException e) {
             throw new RBACException("Error occurred when accessing the DSS", e);
         }
@@ -109,7 +183,8 @@ public class CacheUsersImpl implements CacheUsers {
     }
 
     @Override
-    public synchronized void invalidateUser(String loginId) throws RBACException {
+    public void invalidateUser(String loginId) throws RBACException {
+        removeUserFromMemory(loginId);
         try {
             // Delete all cached properties related to this user using a property prefix in the form:
             // user.<login ID>.
@@ -120,7 +195,7 @@ public class CacheUsersImpl implements CacheUsers {
         }
     }
 
-    private synchronized IUser getUserFromAuthStore(String loginId) throws RBACException {
+    private IUser getUserFromAuthStore(String loginId) throws RBACException {
         IUser user = null;
         try {
             user = authStoreService.getUserByLoginId(loginId);
@@ -143,22 +218,30 @@ public class CacheUsersImpl implements CacheUsers {
 
     @Override
     public int getUserPriority(String loginId) throws RBACException {
+        CachedUser user = getUserFromMemory(loginId);
+        if (user != null && user.hasPriority()) {
+            return user.getPriority();
+        }
+
         int priority = 0;
+        long invalidationsBefore = invalidations.get();
         try {
             String userPriorityKey = getSuffixedUserPropertyKey(loginId, PRIORITY_PROPERTY_SUFFIX);
             String userPriorityStr = dssService.get(userPriorityKey);
 
             if (userPriorityStr == null || userPriorityStr.isBlank()) {
                 // Cache miss, so get the user's priority points from the auth store
-                IUser user = getUserFromAuthStore(loginId);
-                if (user != null) {
+                IUser authStoreUser = getUserFromAuthStore(loginId);
+                if (authStoreUser != null) {
                     // Add this user to the cache
-                    priority = user.getPriority();
-                    addUser(user);
+                    priority = authStoreUser.getPriority();
+                    addUser(authStoreUser);
                 }
 
             } else {
                 priority = Integer.parseInt(userPriorityStr);
+                CachedUser priorityOnly = CachedUser.of(null, priority, expiry());
+                addUserToMemory(loginId, priorityOnly.mergedWith(user), invalidationsBefore);
             }
         } catch (DynamicStatusStoreException e) {
             logger.warn("Failed to access DSS to get user priority, using priority " + priority);
@@ -167,4 +250,178 @@ public class CacheUsersImpl implements CacheUsers {
         }
         return priority;
     }
+
+    private CachedUser getUserFromMemory(String loginId) {
+        long now = timeService.now().toEpochMilli();
+        synchronized (usersInMemory) {
+            CachedUser user = usersInMemory.get(loginId);
+            if (user != null && now >= user.expiresAtMillis) {
+                usersInMemory.remove(loginId);
+                user = null;
+            }
+            return user;
+        }
+    }
+
+    private void addUserToMemory(String loginId, CachedUser user, long invalidationsBefore) {
+        synchronized (usersInMemory) {
+            // If the user may have changed while they were being read, read them again next time
+            if (invalidations.get() == invalidationsBefore) {
+                // The least recently used user is dropped if there are now too many
+                usersInMemory.put(loginId, user);
+            }
+        }
+    }
+
+    private void removeUserFromMemory(String loginId) {
+        synchronized (usersInMemory) {
+            invalidations.incrementAndGet();
+            usersInMemory.remove(loginId);
+        }
+    }
+
+    int getInMemoryUserCount() {
+        synchronized (usersInMemory) {
+            return usersInMemory.size();
+        }
+    }
+
+    private long expiry() {
+        return timeService.now().toEpochMilli() + IN_MEMORY_USER_TIME_TO_LIVE_MILLIS;
+    }
+
+    /**
+     * A user's DSS entries are deleted when they are invalidated by any pod, or
+     * when they expire, so drop the user from memory whenever that happens.
+     */
+    private void watchForInvalidatedUsers() {
+        IDynamicStatusStoreWatcher watcher = (key, event, oldValue, newValue) -> {
+            if (event == IDynamicStatusStoreWatcher.Event.DELETE) {
+                String loginId = getLoginIdFromKey(key);
+                if (loginId != null) {
+                    removeUserFromMemory(loginId);
+                }
+            }
+        };
+
+        try {
+            invalidatedUsersWatchId = dssService.watchPrefix(watcher, USER_PROPERTY_PREFIX);
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to watch for invalidated users, users will be dropped from memory after "
+                + (IN_MEMORY_USER_TIME_TO_LIVE_MILLIS / 1000) + " seconds", e);
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (invalidatedUsersWatchId != null) {
+            try {
+                dssService.unwatch(invalidatedUsersWatchId);
+            } catch (DynamicStatusStoreException e) {
+                logger.warn("Unable to stop watching for invalidated users", e);
+            }
+            invalidatedUsersWatchId = null;
+        }
+    }
+
+    private String getLoginIdFromKey(String key) {
+        String loginId = null;
+        if (key.startsWith(USER_PROPERTY_PREFIX)) {
+            if (key.endsWith(ACTIONS_PROPERTY_SUFFIX)) {
+                loginId = key.substring(USER_PROPERTY_PREFIX.length(), key.length() - ACTIONS_PROPERTY_SUFFIX.length());
+            } else if (key.endsWith(PRIORITY_PROPERTY_SUFFIX)) {
+                loginId = key.substring(USER_PROPERTY_PREFIX.length(), key.length() - PRIORITY_PROPERTY_SUFFIX.length());
+            }
+        }
+        return loginId;
+    }
+
+    /**
+     * What is known about a user, which is never changed once made. Either the actions or the priority may not be
+     * known, if only one of them has been read from the DSS.
+     */
+    private static class CachedUser {
+
+        private final boolean hasActions;
+        private final long actionBits;
+        // Actions that are not built in, which there are normally none of
+        private final Set<String> otherActionIds;
+
+        private final boolean hasPriority;
+        private final int priority;
+
+        private final long expiresAtMillis;
+
+        private CachedUser(boolean hasActions, long actionBits, Set<String> otherActionIds,
+                boolean hasPriority, int priority, long expiresAtMillis) {
+            this.hasActions = hasActions;
+            this.actionBits = actionBits;
+            this.otherActionIds = otherActionIds;
+            this.hasPriority = hasPriority;
+            this.priority = priority;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        /**
+         * @param actionIds - the user's actions, or null if not known
+         * @param priority  - the user's priority, or null if not known
+         */
+        static CachedUser of(Set<String> actionIds, Integer priority, long expiresAtMillis) {
+            long actionBits = 0;
+            Set<String> otherActionIds = Collections.emptySet();
+            if (actionIds != null) {
+                for (String actionId : actionIds) {
+                    Long bit = ACTION_BITS.get(actionId);
+                    if (bit != null) {
+                        actionBits |= bit;
+                    } else if (!actionId.isBlank()) {
+                        if (otherActionIds.isEmpty()) {
+                            otherActionIds = new HashSet<>();
+                        }
+                        otherActionIds.add(actionId);
+                    }
+                }
+            }
+            return new CachedUser(actionIds != null, actionBits, otherActionIds,
+                priority != null, priority == null ? 0 : priority, expiresAtMillis);
+        }
+
+        /**
+         * @return a user with what is known by this user, and anything else that
+         *         is known by the other user, which may be null
+         */
+        CachedUser mergedWith(CachedUser other) {
+            if (other == null) {
+                return this;
+            }
+            boolean useOtherActions = !hasActions && other.hasActions;
+            boolean useOtherPriority = !hasPriority && other.hasPriority;
+            return new CachedUser(hasActions || other.hasActions,
+                useOtherActions ? other.actionBits : actionBits,
+                useOtherActions ? other.otherActionIds : otherActionIds,
+                hasPriority || other.hasPriority,
+                useOtherPriority ? other.priority : priority,
+                Math.min(expiresAtMillis, other.expiresAtMillis));
+        }
+
+        boolean hasActions() {
+            return hasActions;
+        }
+
+        boolean hasPriority() {
+            return hasPriority;
+        }
+
+        int getPriority() {
+            return priority;
+        }
+
+        boolean isActionPermitted(String actionId) {
+            Long bit = ACTION_BITS.get(actionId);
+            if (bit != null) {
+                return (actionBits & bit) != 0;
+            }
+            return otherActionIds.contains(actionId);
+        }
+    }
 }
@@ -31,7 +31,7 @@ import static dev.galasa.framework.spi.rbac.RBACRoles.*;
 
 public class RBACServiceImpl implements RBACService {
 
-    private static CacheUsers usersCache;
+    private final CacheUsers usersCache;
 
     private static final List<Action> allActionsUnsorted = BuiltInAction.getActions();
 
@@ -232,4 +232,9 @@ public class RBACServiceImpl implements RBACService {
     public int getUserPriority(String loginId) throws RBACException {
         return usersCache.getUserPriority(loginId);
     }
+
+    @Override
+    public void shutdown() {
+        usersCache.shutdown();
+    }
 }
@@ -5,25 +5,32 @@
  */
 package dev.galasa.framework.spi;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
-import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
@@ -48,12 +55,35 @@ import dev.galasa.framework.spi.IFrameworkPropertyFileWatcher.Event;
  * and the watchng of values inside the properties.
  * </p>
  * 
+ * <p>
+ * The properties are held in a sorted map, so the keys with a prefix are found
+ * without looking at every key. Sets are journaled by appending the new values
+ * to the end of the file, which a properties file reader takes in preference to
+ * the earlier values of the same keys. The file is written again in full when a
+ * key is deleted, as that can't be expressed by appending, or when the journal
+ * has grown larger than the rest of the file.
+ * </p>
+ * 
+ * <p>
+ * Every change is made under an exclusive lock on the file, after reading
+ * anything other JVMs have appended to it, so a change made by another JVM is
+ * never lost. If the file has only been appended to since it was last read,
+ * only the new lines are read.
+ * </p>
+ * 
  *  
  *
  */
 
 public class FrameworkPropertyFile implements FileAlterationListener {
-    private Properties             currentProperties = new Properties();
+
+    // *** The minimum size of the journal before the file is compacted
+    private static final long      MIN_JOURNAL_LENGTH_TO_COMPACT = 64 * 1024;
+
+    // *** How many of the last bytes read are kept, to recognise the file has only been appended to
+    private static final int       LOADED_TAIL_LENGTH = 64;
+
+    private ConcurrentSkipListMap<String, String> currentProperties = new ConcurrentSkipListMap<>();
     private HashMap<UUID, Watch>   watches           = new HashMap<>();
     private URI                    file;
     private File                   propertyFile;
@@ -62,6 +92,13 @@ public class FrameworkPropertyFile implements FileAlterationListener {
     private FileAlterationMonitor  monitor;
     private static Log             fpfLog            = LogFactory.getLog(FrameworkPropertyFile.class);
 
+    // *** How much of the file is reflected in the current properties, the last
+    // *** bytes of it, or null if the file must be read in full next time, and how
+    // *** long the file was when it was last written or read in full
+    private long                   loadedLength;
+    private byte[]                 loadedTail;
+    private long                   compactedLength;
+
     /**
      * <p>
      * This constructor loads the properties store in the file into memory. For the
@@ -100,7 +137,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      */
     public synchronized String get(final String key) {
         observer.checkAndNotify();
-        return currentProperties.getProperty(key);
+        return currentProperties.get(key);
 
     }
 
@@ -115,15 +152,8 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return A map of any size or null. The key is a string which starts with the specified prefix.
      */
     public synchronized Map<String, String> getPrefix(String keyPrefix) {
-        Map<String, String> values = new HashMap<>();
         observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(keyPrefix)) {
-                values.put(key, currentProperties.getProperty(key));
-            }
-        }
-        return values;
+        return new HashMap<>(prefixMap(this.currentProperties, keyPrefix));
     }
 
     /**
@@ -135,15 +165,8 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return A collection of any size or null of keys which start with the specified prefix.
      */
     public synchronized Collection<String> getPrefixKeysOnly(String keyPrefix) {
-        Collection<String> keys = new ArrayList<>();
         observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(keyPrefix)) {
-                keys.add(key);
-            }
-        }
-        return keys;
+        return new ArrayList<>(prefixMap(this.currentProperties, keyPrefix).keySet());
     }
 
     /**
@@ -157,10 +180,16 @@ public class FrameworkPropertyFile implements FileAlterationListener {
     public synchronized List<String> getNamespaces() {
         List<String> namespaces = new ArrayList<>();
         observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String name = ((String)k).substring(0,((String)k).indexOf("."));
-            if(!namespaces.contains(name)) {
-                namespaces.add(name);
+
+        // *** The keys of a namespace are together in the sorted map, so skip
+        // *** straight past them to the next namespace
+        String key = currentProperties.isEmpty() ? null : currentProperties.firstKey();
+        while (key != null) {
+            String name = key.substring(0, key.indexOf("."));
+            namespaces.add(name);
+            key = currentProperties.higherKey(name + "." + Character.MAX_VALUE);
+            while (key != null && key.startsWith(name + ".")) {
+                key = currentProperties.higherKey(key);
             }
         }
         return namespaces;
@@ -177,24 +206,14 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws FrameworkPropertyFileException
      */
     public synchronized void delete(String key) throws FrameworkPropertyFileException {
-        // Make the current properties as close to the values in the file as 
-        // we can. So when we write they are up-to-date.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        // There is a small window here when another JVM may write to the file,
-        // which will get lost when we over-write it.
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                this.currentProperties.remove(key);
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to delete the key: " + key, e);
-                throw new FrameworkPropertyFileException("Unable to delete key: " + key, e);
-            }
+        try {
+            update(transaction -> {
+                transaction.remove(key);
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to delete the key: " + key, e);
+            throw new FrameworkPropertyFileException("Unable to delete key: " + key, e);
         }
     }
 
@@ -206,27 +225,16 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws FrameworkPropertyFileException
      */
     public synchronized void delete(Set<String> keys) throws FrameworkPropertyFileException {
-        // Make the current properties as close to the values in the file as 
-        // we can. So when we write they are up-to-date.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-        // There is a small window here when another JVM may write to the file,
-        // which will get lost when we over-write it.
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
+        try {
+            update(transaction -> {
                 for (String key : keys) {
-                    this.currentProperties.remove(key);
+                    transaction.remove(key);
                 }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to delete keys", e);
-                throw new FrameworkPropertyFileException("Unable to delete keys.", e);
-            }
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to delete keys", e);
+            throw new FrameworkPropertyFileException("Unable to delete keys.", e);
         }
     }
 
@@ -237,140 +245,90 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws FrameworkPropertyFileException
      */
     public synchronized void deletePrefix(String prefix) throws FrameworkPropertyFileException {
-        Set<String> deleteKeys = new HashSet<>();
-
-        // refresh our cache of properties from the file contents.
-        // Note that we can't do this while holding a write lock as the check
-        // attempts to get a read lock which fails, as the write lock is held.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-        // There is a small timing window here where another JVM will enter and write a
-        // new set of properties to the file. We have no lock protecting it, so are 
-        // likely to over-write the file with our property cache values...
-        // Meaning this code is not able to protect itself from other JVMs interfering, and 
-        // vice-versa.
-
-        synchronized (FrameworkPropertyFile.class) {
-            try {
-                // Block other JVMs from writing to the property file while we delete things.
-                try (FileChannel fileChannel = getWriteChannel(false)) {
-
-                    // Gather the list of keys to be deleted.
-                    for (Object k : currentProperties.keySet()) {
-                        String key = (String) k;
-                        if (key.startsWith(prefix)) {
-                            deleteKeys.add(key);
-                        }
-                    }
-
-                    // Make a note of the current property values, so we retain a before... and after...
-                    // set to be used later notifying any observers of property changes.
-                    Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                    // Now delete the keys
-                    for (String key : deleteKeys) {
-                        this.currentProperties.remove(key);
-                    }
-
-                    write(fileChannel, this.currentProperties);
-                    fileModified(this.currentProperties, oldProperties);
-                }
-            } catch (IOException e) {
-                fpfLog.error("Failed to update file with DSS actions", e);
-                throw new FrameworkPropertyFileException("Unable to delete key prefix: " + prefix, e);
-            }
+        try {
+            update(transaction -> {
+                transaction.removePrefix(prefix);
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Failed to update file with DSS actions", e);
+            throw new FrameworkPropertyFileException("Unable to delete key prefix: " + prefix, e);
         }
     }
 
     public synchronized void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
+        try {
+            update(transaction -> {
                 for(IDssAction action : actions) {
                     if (action instanceof DssAdd) {
-                        performActionsAdd((DssAdd) action);
+                        performActionsAdd(transaction, (DssAdd) action);
                     } else if (action instanceof DssDelete) {
-                        performActionsDelete((DssDelete) action);
+                        performActionsDelete(transaction, (DssDelete) action);
                     } else if (action instanceof DssDeletePrefix) {
-                        performActionsDeletePrefix((DssDeletePrefix) action);
+                        performActionsDeletePrefix(transaction, (DssDeletePrefix) action);
                     } else if (action instanceof DssUpdate) {
-                        performActionsUpdate((DssUpdate) action);
+                        performActionsUpdate(transaction, (DssUpdate) action);
                     } else if (action instanceof DssSwap) {
-                        performActionsSwap((DssSwap) action);
+                        performActionsSwap(transaction, (DssSwap) action);
                     } else {
                         throw new DynamicStatusStoreException("Unrecognised DSS Action - " + action.getClass().getName());
                     }
                 }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Failed to update file with DSS actions", e);
-                throw new DynamicStatusStoreException("Failed to update file with DSS actions", e);
-            }
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Failed to update file with DSS actions", e);
+            throw new DynamicStatusStoreException("Failed to update file with DSS actions", e);
         }
     }
 
-    private void performActionsAdd(DssAdd dssAdd) throws DynamicStatusStoreMatchException {
+    private void performActionsAdd(Transaction transaction, DssAdd dssAdd) throws DynamicStatusStoreMatchException {
         String key = dssAdd.getKey();
         String value = dssAdd.getValue();
 
-        String currentValue = this.currentProperties.getProperty(key);
+        String currentValue = transaction.get(key);
         if (currentValue != null) {
             throw new DynamicStatusStoreMatchException("Attempt to add new property '" + key + "' but it already exists");
         }
 
-        this.currentProperties.put(key, value);
+        transaction.put(key, value);
     }
 
 
-    private void performActionsDelete(DssDelete dssDelete) throws DynamicStatusStoreMatchException {
+    private void performActionsDelete(Transaction transaction, DssDelete dssDelete) throws DynamicStatusStoreMatchException {
         String key = dssDelete.getKey();
         String oldValue = dssDelete.getOldValue();
 
         if (oldValue != null) {
-            String currentValue = this.currentProperties.getProperty(key);
+            String currentValue = transaction.get(key);
             if (!oldValue.equals(currentValue)) {
                 throw new DynamicStatusStoreMatchException("Attempt to delete property '" + key + "', but current value '" + currentValue + "' does not match required value '" +oldValue + "'");
             }
         }
 
-        this.currentProperties.remove(key);
+        transaction.remove(key);
     }
 
 
-    private void performActionsDeletePrefix(DssDeletePrefix dssDeletePrefix) {
-        ArrayList<String> toBeDeleted = new ArrayList<>();
-        for (Object k : this.currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(dssDeletePrefix.getPrefix())) {
-                toBeDeleted.add(key);
-            }
-        }
-        
-        for(String key : toBeDeleted) {
-            this.currentProperties.remove(key);
-        }
-        
+    private void performActionsDeletePrefix(Transaction transaction, DssDeletePrefix dssDeletePrefix) {
+        transaction.removePrefix(dssDeletePrefix.getPrefix());
     }
 
 
-    private void performActionsUpdate(DssUpdate dssUpdate) {
+    private void performActionsUpdate(Transaction transaction, DssUpdate dssUpdate) {
         String key   = dssUpdate.getKey();
         String value = dssUpdate.getValue();
 
-        this.currentProperties.put(key, value);
+        transaction.put(key, value);
     }
 
 
-    private void performActionsSwap(DssSwap dssSwap) throws DynamicStatusStoreMatchException {
+    private void performActionsSwap(Transaction transaction, DssSwap dssSwap) throws DynamicStatusStoreMatchException {
         String key      = dssSwap.getKey();
         String newValue = dssSwap.getNewValue();
         String oldValue = dssSwap.getOldValue();
         
-        String currentValue = this.currentProperties.getProperty(key);
+        String currentValue = transaction.get(key);
 
         if (oldValue == null) {
             if (currentValue != null) {
@@ -382,7 +340,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
             }
         }
         
-        this.currentProperties.put(key, newValue);
+        transaction.put(key, newValue);
     }
 
 
@@ -415,23 +373,14 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws FrameworkPropertyFileException
      */
     public synchronized void set(String key, String value) throws FrameworkPropertyFileException {
-
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                this.currentProperties.put(key, value);
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to set key value pair: " + key + ":" + value, e);
-                throw new FrameworkPropertyFileException("Failed Setting value: " + key + "=" + value, e);
-            }
+        try {
+            update(transaction -> {
+                transaction.put(key, value);
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to set key value pair: " + key + ":" + value, e);
+            throw new FrameworkPropertyFileException("Failed Setting value: " + key + "=" + value, e);
         }
     }
 
@@ -447,21 +396,14 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws IOException
      */
     public synchronized void set(Map<String, String> values) throws FrameworkPropertyFileException, IOException {
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                this.currentProperties.putAll(values);
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to set values", e);
-                throw new FrameworkPropertyFileException("Unable to set values", e);
-            }
+        try {
+            update(transaction -> {
+                transaction.putAll(values);
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to set values", e);
+            throw new FrameworkPropertyFileException("Unable to set values", e);
         }
     }
 
@@ -579,33 +521,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      */
     public synchronized boolean setAtomic(String key, String oldValue, String newValue)
             throws FrameworkPropertyFileException {
-
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                if (oldValue == null && oldProperties.get(key) == null) {
-                    this.currentProperties.put(key, newValue);
-                } else {
-                    if (oldValue == null) {
-                        return false;
-                    }
-                    if (!this.currentProperties.replace(key, oldValue, newValue)) {
-                        return false;
-                    }
-                }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-                return true;
-            } catch (IOException e) {
-                fpfLog.error("Failed to set Atomically", e);
-                throw new FrameworkPropertyFileException("Failed to set atomically", e);
-            }
-        }
+        return setAtomic(key, oldValue, newValue, Collections.emptyMap());
     }
 
     /**
@@ -634,35 +550,20 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      */
     public synchronized boolean setAtomic(String key, String oldValue, String newValue, Map<String, String> otherValues)
             throws FrameworkPropertyFileException {
-
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                if (oldValue == null && oldProperties.get(key) == null) {
-                    this.currentProperties.put(key, newValue);
-                } else {
-                    if (oldValue == null) {
-                        return false;
-                    }
-                    if (!this.currentProperties.replace(key, oldValue, newValue)) {
-                        return false;
-                    }
+        try {
+            return update(transaction -> {
+                String currentValue = transaction.get(key);
+                if (oldValue == null ? currentValue != null : !oldValue.equals(currentValue)) {
+                    return false;
                 }
 
-                this.currentProperties.putAll(otherValues);
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
+                transaction.put(key, newValue);
+                transaction.putAll(otherValues);
                 return true;
-            } catch (IOException e) {
-                fpfLog.error("Failed to set Atomically", e);
-                throw new FrameworkPropertyFileException("Failed to set atomically", e);
-            }
+            });
+        } catch (IOException e) {
+            fpfLog.error("Failed to set Atomically", e);
+            throw new FrameworkPropertyFileException("Failed to set atomically", e);
         }
     }
 
@@ -687,41 +588,252 @@ public class FrameworkPropertyFile implements FileAlterationListener {
 
     /**
      * <p>
-     * This method is for updating any watchers. All running watches are stored in a
-     * watches Map. Comparing what is loaded in memory to the file version alerts
-     * any watches that a value has changed. This alert is interfaced through the
-     * property modified method
+     * Makes a set of changes to the properties, all or nothing, under an exclusive
+     * lock on the file. Anything other JVMs have written to the file is read first,
+     * so the changes are made to the latest values. Sets are appended to the file,
+     * and the file is written again in full if there are deletes or the journal has
+     * grown too long. Watchers are told about every change, whether made here or by
+     * another JVM.
      * </p>
      * 
-     * @param newProperties - loaded from file
-     * @param oldProperties - in memory currently
+     * @param changes - makes the changes to the transaction, returning false if
+     *                there is to be no change after all
+     * @return the result of the changes
+     * @throws E           if thrown by the changes, when nothing is changed
+     * @throws IOException if the file can't be read or written
      */
-    private synchronized void fileModified(Properties newProperties, Properties oldProperties) {
-        // Checks a list of Strings that are keys to watch. Compares file to loaded.
-        for (Watch watch : this.watches.values()) {
-            for (Object oNewKey : newProperties.keySet()) {
-                String newKey = (String) oNewKey;
-                String newValue = newProperties.getProperty(newKey);
-                if (watch.matchKey(newKey)) {
-                    String oldValue = oldProperties.getProperty(newKey);
-                    if (oldValue == null) {
-                        watch.watcher.propertyModified(newKey, Event.NEW, oldValue, newValue);
-                    } else if (!oldValue.equals(newValue)) {
-                        watch.watcher.propertyModified(newKey, Event.MODIFIED, oldValue, newValue);
-                    }
+    private <E extends Exception> boolean update(PropertyChanges<E> changes) throws E, IOException {
+        synchronized (FrameworkPropertyFile.class) {
+            List<PropertyChange> applied = new ArrayList<>();
+            try (FileChannel fileChannel = getWriteChannel(false)) {
+                applied.addAll(refresh(fileChannel));
+
+                Transaction transaction = new Transaction();
+                if (!changes.apply(transaction) || transaction.updates.isEmpty()) {
+                    return false;
                 }
+
+                applied.addAll(commit(fileChannel, transaction));
+                return true;
+            } finally {
+                notifyWatches(applied);
+            }
+        }
+    }
+
+    private List<PropertyChange> commit(FileChannel fileChannel, Transaction transaction) throws IOException {
+        byte[] journal = null;
+        if (!transaction.updates.containsValue(null)) {
+            journal = toJournal(transaction.updates);
+            long journalLength = this.loadedLength + journal.length - this.compactedLength;
+            if (journalLength > Math.max(MIN_JOURNAL_LENGTH_TO_COMPACT, this.compactedLength)) {
+                journal = null;
             }
+        }
+
+        List<PropertyChange> applied = new ArrayList<>();
+        for (Entry<String, String> update : transaction.updates.entrySet()) {
+            String oldValue = update.getValue() == null ? this.currentProperties.remove(update.getKey())
+                    : this.currentProperties.put(update.getKey(), update.getValue());
+            applied.add(new PropertyChange(update.getKey(), oldValue, update.getValue()));
+        }
+
+        try {
+            if (journal != null) {
+                fileChannel.write(ByteBuffer.wrap(journal), this.loadedLength);
+                loaded(this.loadedTail, journal, this.loadedLength + journal.length);
+            } else {
+                byte[] contents = toPropertiesFile(this.currentProperties);
+                fileChannel.truncate(0);
+                fileChannel.write(ByteBuffer.wrap(contents), 0);
+                loaded(null, contents, contents.length);
+                this.compactedLength = contents.length;
+            }
+        } catch (IOException e) {
+            // *** The properties in memory no longer match the file, so read it all next time
+            this.loadedTail = null;
+            throw e;
+        }
+        return applied;
+    }
+
+    /**
+     * @return the updates as lines to append to the file, starting on a new line
+     */
+    private byte[] toJournal(Map<String, String> updates) throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(updates);
+        byte[] lines = toPropertiesFile(properties);
+
+        // *** Drop the date comment that starts the lines
+        int start = 0;
+        while (start < lines.length && lines[start] != '\n') {
+            start++;
+        }
+        start++;
 
-            // Check for deleted properties
-            for (Object oOldKey : oldProperties.keySet()) {
-                String oldKey = (String) oOldKey;
-                String oldValue = oldProperties.getProperty(oldKey);
+        boolean newLine = this.loadedTail == null || this.loadedTail.length == 0
+                || this.loadedTail[this.loadedTail.length - 1] == '\n'
+                || this.loadedTail[this.loadedTail.length - 1] == '\r';
 
-                if (watch.matchKey(oldKey)) {
-                    String newValue = newProperties.getProperty(oldKey);
-                    if (newValue == null) {
-                        watch.watcher.propertyModified(oldKey, Event.DELETE, oldValue, newValue);
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        if (!newLine) {
+            journal.write('\n');
+        }
+        journal.write(lines, start, lines.length - start);
+        return journal.toByteArray();
+    }
+
+    private static byte[] toPropertiesFile(Map<?, ?> values) throws IOException {
+        Properties properties;
+        if (values instanceof Properties) {
+            properties = (Properties) values;
+        } else {
+            properties = new Properties();
+            properties.putAll(values);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        properties.store(out, null);
+        return out.toByteArray();
+    }
+
+    /**
+     * <p>
+     * Brings the properties in memory up to date with the file. If the file has only
+     * been appended to since it was last read, only the new lines are read,
+     * otherwise it is read in full.
+     * </p>
+     * 
+     * @param fileChannel - a channel with a lock on the file
+     * @return the changes made to the properties in memory
+     * @throws IOException
+     */
+    private List<PropertyChange> refresh(FileChannel fileChannel) throws IOException {
+        long length = fileChannel.size();
+
+        if (this.loadedTail != null && length >= this.loadedLength) {
+            long tailStart = this.loadedLength - this.loadedTail.length;
+            if (Arrays.equals(this.loadedTail, read(fileChannel, tailStart, this.loadedTail.length))) {
+                if (length == this.loadedLength) {
+                    return Collections.emptyList();
+                }
+
+                byte[] journal = read(fileChannel, this.loadedLength, (int) (length - this.loadedLength));
+                Properties appended = new Properties();
+                appended.load(new ByteArrayInputStream(journal));
+
+                List<PropertyChange> changes = new ArrayList<>();
+                for (String key : appended.stringPropertyNames()) {
+                    String newValue = appended.getProperty(key);
+                    String oldValue = this.currentProperties.put(key, newValue);
+                    changes.add(new PropertyChange(key, oldValue, newValue));
+                }
+                loaded(this.loadedTail, journal, length);
+                return changes;
+            }
+        }
+
+        // *** Written again by another JVM, so read it all
+        byte[] contents = read(fileChannel, 0, (int) length);
+        Properties newProperties = new Properties();
+        newProperties.load(new ByteArrayInputStream(contents));
+
+        ConcurrentSkipListMap<String, String> oldProperties = this.currentProperties;
+        this.currentProperties = new ConcurrentSkipListMap<>();
+        for (String key : newProperties.stringPropertyNames()) {
+            this.currentProperties.put(key, newProperties.getProperty(key));
+        }
+        loaded(null, contents, length);
+        this.compactedLength = length;
+
+        List<PropertyChange> changes = new ArrayList<>();
+        if (oldProperties == null) {
+            return changes;
+        }
+        for (Entry<String, String> newProperty : this.currentProperties.entrySet()) {
+            String oldValue = oldProperties.get(newProperty.getKey());
+            changes.add(new PropertyChange(newProperty.getKey(), oldValue, newProperty.getValue()));
+        }
+        for (Entry<String, String> oldProperty : oldProperties.entrySet()) {
+            if (!this.currentProperties.containsKey(oldProperty.getKey())) {
+                changes.add(new PropertyChange(oldProperty.getKey(), oldProperty.getValue(), null));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Remember how much of the file has been read, and the last bytes of it
+     */
+    private void loaded(byte[] previousTail, byte[] newBytes, long length) {
+        int tailLength = (int) Math.min(LOADED_TAIL_LENGTH, length);
+        byte[] tail = new byte[tailLength];
+        int fromNew = Math.min(tailLength, newBytes.length);
+        int fromPrevious = tailLength - fromNew;
+        if (fromPrevious > 0) {
+            System.arraycopy(previousTail, previousTail.length - fromPrevious, tail, 0, fromPrevious);
+        }
+        System.arraycopy(newBytes, newBytes.length - fromNew, tail, fromPrevious, fromNew);
+
+        this.loadedTail = tail;
+        this.loadedLength = length;
+    }
+
+    private static byte[] read(FileChannel fileChannel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("The properties file was shorter than expected");
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @return a view of the properties whose keys start with the prefix
+     */
+    private static Map<String, String> prefixMap(ConcurrentSkipListMap<String, String> properties, String prefix) {
+        // *** Every key that starts with the prefix sorts before the prefix with its
+        // *** last character incremented
+        int last = prefix.length() - 1;
+        while (last >= 0 && prefix.charAt(last) == Character.MAX_VALUE) {
+            last--;
+        }
+        if (last < 0) {
+            return properties.tailMap(prefix);
+        }
+        return properties.subMap(prefix, prefix.substring(0, last) + (char) (prefix.charAt(last) + 1));
+    }
+
+    /**
+     * <p>
+     * This method is for updating any watchers. All running watches are stored in a
+     * watches Map. Each change to the properties, whether made by this JVM or read
+     * from the file, alerts any watches on its key. This alert is interfaced through
+     * the property modified method
+     * </p>
+     * 
+     * @param changes - the changes made to the properties in memory
+     */
+    private synchronized void notifyWatches(List<PropertyChange> changes) {
+        if (this.watches.isEmpty()) {
+            return;
+        }
+
+        for (Watch watch : this.watches.values()) {
+            for (PropertyChange change : changes) {
+                if (!watch.matchKey(change.key)) {
+                    continue;
+                }
+                if (change.oldValue == null) {
+                    if (change.newValue != null) {
+                        watch.watcher.propertyModified(change.key, Event.NEW, change.oldValue, change.newValue);
                     }
+                } else if (change.newValue == null) {
+                    watch.watcher.propertyModified(change.key, Event.DELETE, change.oldValue, change.newValue);
+                } else if (!change.oldValue.equals(change.newValue)) {
+                    watch.watcher.propertyModified(change.key, Event.MODIFIED, change.oldValue, change.newValue);
                 }
             }
         }
@@ -752,16 +864,17 @@ public class FrameworkPropertyFile implements FileAlterationListener {
     /**
      * <p>
      * This method is used to return a file channel that can be used for writing to
-     * the properties file. It is expected to be an exlusive lock
+     * the properties file, and reading what other JVMs have written to it. It is
+     * expected to be an exlusive lock
      * </p>
      * 
      * @param shared - expected to be false for a write to the file
-     * @return - a write file channel
+     * @return - a read and write file channel
      * @throws IOException
      */
     private synchronized FileChannel getWriteChannel(boolean shared) throws IOException {
         Path path = Paths.get(file);
-        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.WRITE);
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
         try {
             fileChannel.lock(0, Long.MAX_VALUE, shared);
             return fileChannel;
@@ -786,19 +899,16 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws FrameworkPropertyFileException
      */
     public synchronized void load() throws FrameworkPropertyFileException {
-        Properties newProperties = new Properties();
         synchronized (FrameworkPropertyFile.class) {
             try (FileChannel fileChannel = getReadChannel(true)) {
-                InputStream in = Channels.newInputStream(fileChannel);
-                newProperties.load(in);
-                in.close();
+                this.loadedTail = null;
+                refresh(fileChannel);
             } catch (IOException e) {
                 fpfLog.error("Unable to Load Property from file", e);
                 throw new FrameworkPropertyFileException(
                         "Unable to Load Property from file: " + propertyFile.toString(), e);
             }
         }
-        this.currentProperties = newProperties;
     }
 
     /**
@@ -822,7 +932,8 @@ public class FrameworkPropertyFile implements FileAlterationListener {
     /**
      * <p>
      * This method invoked when the montior thread detects a change to the file
-     * being observed
+     * being observed. Only what has been appended to the file since it was last
+     * read is read, unless it has been written again in full.
      * </p>
      * 
      * <p>
@@ -832,13 +943,13 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      */
     public synchronized void onFileChange(File file) {
         synchronized (FrameworkPropertyFile.class) {
-            try {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                load();
-                fileModified(this.currentProperties, oldProperties);
-            } catch (FrameworkPropertyFileException e) {
+            List<PropertyChange> changes = Collections.emptyList();
+            try (FileChannel fileChannel = getReadChannel(true)) {
+                changes = refresh(fileChannel);
+            } catch (IOException e) {
                 fpfLog.error("Error encounted loading file changes", e);
             }
+            notifyWatches(changes);
         }
     }
 
@@ -887,6 +998,76 @@ public class FrameworkPropertyFile implements FileAlterationListener {
         // Method not used for fpf
     }
 
+    /**
+     * <p>
+     * Changes to the properties, made all or nothing by
+     * {@link FrameworkPropertyFile#update(PropertyChanges)}
+     * </p>
+     */
+    @FunctionalInterface
+    private interface PropertyChanges<E extends Exception> {
+        boolean apply(Transaction transaction) throws E;
+    }
+
+    /**
+     * <p>
+     * The changes being made in a single update. Values read through the
+     * transaction include the changes already made to it. A null value is a
+     * delete.
+     * </p>
+     */
+    private class Transaction {
+
+        private final LinkedHashMap<String, String> updates = new LinkedHashMap<>();
+
+        private String get(String key) {
+            if (updates.containsKey(key)) {
+                return updates.get(key);
+            }
+            return currentProperties.get(key);
+        }
+
+        private void put(String key, String value) {
+            updates.put(key, Objects.requireNonNull(value));
+        }
+
+        private void putAll(Map<String, String> values) {
+            for (Entry<String, String> value : values.entrySet()) {
+                put(value.getKey(), value.getValue());
+            }
+        }
+
+        private void remove(String key) {
+            if (get(key) != null) {
+                updates.put(key, null);
+            }
+        }
+
+        private void removePrefix(String prefix) {
+            for (String key : prefixMap(currentProperties, prefix).keySet()) {
+                updates.put(key, null);
+            }
+            for (Entry<String, String> update : updates.entrySet()) {
+                if (update.getKey().startsWith(prefix)) {
+                    update.setValue(null);
+                }
+            }
+        }
+    }
+
+    private static class PropertyChange {
+
+        private final String key;
+        private final String oldValue;
+        private final String newValue;
+
+        private PropertyChange(String key, String oldValue, String newValue) {
+            this.key = key;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+
     /**
      * <p>
      * This class defines a watch, and the variables required to detect changes to
@@ -0,0 +1,38 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi;
+
+/**
+ * <p>
+ * A lease on a key in the Dynamic Status Store, obtained from
+ * {@link IDynamicStatusStoreKeyAccess#putWithLease(String, String, long)}.
+ * </p>
+ * 
+ * <p>
+ * The key exists for as long as the lease is kept alive. If the holder of the lease stops
+ * keeping it alive, for example because its process has died, the lease expires and the DSS
+ * deletes the key, which anything watching the key sees as a delete event.
+ * </p>
+ */
+public interface IDssLease extends AutoCloseable {
+
+    /**
+     * Keeps the lease alive for another time-to-live period. Keeping a lease alive does not
+     * write to the key, so it does not cause any watch events.
+     * 
+     * @return true if the lease was kept alive, false if the lease had already expired and its key has gone
+     * @throws DynamicStatusStoreException if there was a problem accessing the DSS
+     */
+    boolean keepAlive() throws DynamicStatusStoreException;
+
+    /**
+     * Revokes the lease, so its key is deleted straight away.
+     * 
+     * @throws DynamicStatusStoreException if there was a problem accessing the DSS
+     */
+    @Override
+    void close() throws DynamicStatusStoreException;
+}
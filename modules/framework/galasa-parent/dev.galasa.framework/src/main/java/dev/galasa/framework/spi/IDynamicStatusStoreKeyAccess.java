@@ -9,6 +9,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Null;
@@ -73,6 +74,23 @@ public interface IDynamicStatusStoreKeyAccess {
      */
     void put(@NotNull String key, @NotNull String value, @NotNull long timeToLiveSecs) throws DynamicStatusStoreException;
 
+    /**
+     * Store a new key-value pair which is attached to a lease. The key is deleted when the lease
+     * expires, which happens if the lease is not kept alive within the time-to-live, or when the
+     * lease is closed.
+     * 
+     * Not all Dynamic Status Stores support leases.
+     * 
+     * @param key            - the key to store
+     * @param value          - the value to associate with the given key
+     * @param timeToLiveSecs - the amount of time in seconds the lease lasts for each time it is kept alive
+     * @return the lease, which must be kept alive for the key to remain available
+     * @throws DynamicStatusStoreException if there was an issue accessing the DSS, or the DSS does not support leases
+     */
+    default IDssLease putWithLease(@NotNull String key, @NotNull String value, long timeToLiveSecs) throws DynamicStatusStoreException {
+        throw new DynamicStatusStoreException("This Dynamic Status Store does not support leases");
+    }
+
     /**
      * Put a key/value pair in the server if the key is set to the oldValue.
      * 
@@ -214,4 +232,138 @@ public interface IDynamicStatusStoreKeyAccess {
      */
     void unwatch(UUID watchId) throws DynamicStatusStoreException;
 
+    /*
+     * The asynchronous methods below return as soon as the request has been sent to the DSS,
+     * so several independent requests can be pipelined and then waited for together, for
+     * example with DssUtils.waitForAll(..). If a request fails, the future completes
+     * exceptionally with a DynamicStatusStoreException.
+     *
+     * The default implementations perform the request synchronously and return a completed
+     * future, for Dynamic Status Stores which have no asynchronous client of their own.
+     */
+
+    /**
+     * Store a new key value pair in the server, without waiting for it to be stored
+     * 
+     * @param key   - the key to use
+     * @param value - the value to use
+     * @return a future which completes when the key value pair has been stored
+     */
+    default CompletableFuture<Void> putAsync(@NotNull String key, @NotNull String value) {
+        try {
+            put(key, value);
+            return CompletableFuture.completedFuture(null);
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Store multiple key value pairs in the server, without waiting for them to be stored
+     * 
+     * @param keyValues - the key value pairs to store
+     * @return a future which completes when the key value pairs have been stored
+     */
+    default CompletableFuture<Void> putAsync(@NotNull Map<String, String> keyValues) {
+        try {
+            put(keyValues);
+            return CompletableFuture.completedFuture(null);
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Put a key/value pair in the server if the key is set to the oldValue, without waiting
+     * for the result
+     * 
+     * @param key      - the key to use
+     * @param oldValue - the value to compare with and must be equal to before the
+     *                 put is actioned. Null means does not exist
+     * @param newValue - The new value to set the key to
+     * @return a future which completes with true if the put was actioned, false if not.
+     */
+    default CompletableFuture<Boolean> putSwapAsync(@NotNull String key, String oldValue, @NotNull String newValue) {
+        try {
+            return CompletableFuture.completedFuture(putSwap(key, oldValue, newValue));
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Retrieves a string property from the Dynamic Status Store, without waiting for it
+     * 
+     * @param key The name of the property.
+     * @return a future which completes with the value of the property, which can be null if it does not exist
+     */
+    default CompletableFuture<String> getAsync(@NotNull String key) {
+        try {
+            return CompletableFuture.completedFuture(get(key));
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Retrieve all values with this key prefix, without waiting for them
+     * 
+     * @param keyPrefix - the prefix of all the keys to use.
+     * @return a future which completes with a map of the keys that start with the specified prefix and their values
+     */
+    default CompletableFuture<Map<String, String>> getPrefixAsync(@NotNull String keyPrefix) {
+        try {
+            return CompletableFuture.completedFuture(getPrefix(keyPrefix));
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Delete the key, without waiting for it to be deleted
+     * 
+     * @param key - the key to use
+     * @return a future which completes when the key has been deleted
+     */
+    default CompletableFuture<Void> deleteAsync(@NotNull String key) {
+        try {
+            delete(key);
+            return CompletableFuture.completedFuture(null);
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Delete a set of keys from the server, without waiting for them to be deleted
+     * 
+     * @param keys - all the keys that need to be deleted
+     * @return a future which completes when the keys have been deleted
+     */
+    default CompletableFuture<Void> deleteAsync(@NotNull Set<String> keys) {
+        try {
+            delete(keys);
+            return CompletableFuture.completedFuture(null);
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Perform multiple actions on the DSS in an atomic fashion, without waiting for them.
+     * If any of the actions fail, they all fail and the future completes exceptionally
+     * with a DynamicStatusStoreMatchException.
+     * 
+     * @param actions a list of actions to perform on the DSS.
+     * @return a future which completes when the actions have been performed
+     */
+    default CompletableFuture<Void> performActionsAsync(IDssAction... actions) {
+        try {
+            performActions(actions);
+            return CompletableFuture.completedFuture(null);
+        } catch (DynamicStatusStoreException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
 }
@@ -13,6 +13,7 @@ import java.util.Set;
 import javax.validation.constraints.NotNull;
 
 import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.beans.SubmitRunRequest;
 
 public interface IFrameworkRuns {
     
@@ -28,6 +29,19 @@ public interface IFrameworkRuns {
     @NotNull
     List<IRun> getQueuedRuns() throws FrameworkException;;
 
+    /**
+     * Gets the runs which are currently in the given lifecycle status.
+     * 
+     * Runs in any other status are filtered out before they are built, so this is cheaper
+     * than filtering the results of {@link #getAllRuns()}.
+     * 
+     * @param status the lifecycle status of the runs to return
+     * @return a list of runs in the given status, empty if there are none
+     * @throws FrameworkException if there was an issue accessing the DSS
+     */
+    @NotNull
+    List<IRun> getRunsWithStatus(@NotNull TestRunLifecycleStatus status) throws FrameworkException;
+
     @NotNull
     List<IRun> getAllRuns() throws FrameworkException;
 
@@ -43,6 +57,21 @@ public interface IFrameworkRuns {
             SharedEnvironmentPhase sharedEnvironmentPhase, String sharedEnvironmentRunName, String language, String submissionId,
             List<String> requestedTestMethods) throws FrameworkException;
 
+    /**
+     * Submits a batch of runs together, for example all of the tests in a portfolio.
+     * 
+     * Run numbers are reserved for all the runs of the same type at once, and the runs are
+     * written to the DSS in as few transactions as possible, so this is much cheaper than
+     * calling {@link #submitRun} for each test.
+     * 
+     * @param runRequests the details of each run to submit
+     * @return the submitted runs, in the same order as the requests
+     * @throws FrameworkException if any of the runs could not be submitted, in which case
+     *                            the runs already created by this call are removed again
+     */
+    @NotNull
+    List<IRun> submitRuns(@NotNull List<SubmitRunRequest> runRequests) throws FrameworkException;
+
     boolean delete(String runname) throws DynamicStatusStoreException;
 
     IRun getRun(String runname) throws DynamicStatusStoreException;
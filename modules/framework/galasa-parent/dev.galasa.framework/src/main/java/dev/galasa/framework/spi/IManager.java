@@ -128,6 +128,22 @@ public interface IManager {
      */
     boolean areYouProvisionalDependentOn(@NotNull IManager otherManager);
 
+    /**
+     * Can the provision* lifecycle methods of this Manager be run at the same time
+     * as those of other Managers it is not provisionally dependent on. A Manager
+     * that returns true must only use the Managers it has declared a dependency on
+     * through {@link #areYouProvisionalDependentOn(IManager)} during those methods,
+     * and must not share unsynchronised state with any other Manager.
+     *
+     * Managers that return false are provisioned on their own, after all the
+     * Managers sorted before them and before any sorted after them.
+     *
+     * @return true if this Manager can be provisioned in parallel with others
+     */
+    default boolean canProvisionInParallel() {
+        return false;
+    }
+
     /**
      * <p>
      * Should the test class be run at all? Used to set the Test Class to Ignored.
@@ -7,4 +7,13 @@ package dev.galasa.framework.spi;
 
 public interface IShuttableFramework extends IFramework {
     public void shutdown() throws FrameworkException ;
+
+    /**
+     * Waits until everything logged so far has been written to the run log in the RAS.
+     * The wait is bounded, so a RAS which has stopped responding holds up the caller for
+     * a few seconds at most, after which the caller carries on and the lines are written
+     * later. Frameworks which don't capture the run log have nothing to do.
+     */
+    default void flushLogCapture() {
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.ras;
+
+import java.nio.file.OpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An option to open a stored artifact for reading part of its content only, as
+ * asked for by the Range header of an HTTP request. Only a single range of bytes
+ * is supported.
+ *
+ * Result archive stores which cannot read part of an artifact ignore this option
+ * and read the whole artifact, so callers should check what is being read through
+ * {@link IArtifactReadChannel#getContentRange()}.
+ */
+public class ArtifactByteRange implements OpenOption {
+
+    private static final Pattern BYTE_RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    // Null if the range is the last so many bytes of the artifact
+    private final Long firstBytePosition;
+
+    // Null if the range runs to the end of the artifact
+    private final Long lastBytePosition;
+
+    private ArtifactByteRange(Long firstBytePosition, Long lastBytePosition) {
+        this.firstBytePosition = firstBytePosition;
+        this.lastBytePosition = lastBytePosition;
+    }
+
+    /**
+     * @param rangeHeader the value of an HTTP Range header, for example "bytes=0-1023"
+     * @return the range asked for, or null if there is no header or it is not a single range of bytes
+     */
+    public static ArtifactByteRange parse(String rangeHeader) {
+        ArtifactByteRange range = null;
+        if (rangeHeader != null) {
+            Matcher matcher = BYTE_RANGE_PATTERN.matcher(rangeHeader.trim());
+            if (matcher.matches()) {
+                try {
+                    Long first = matcher.group(1).isEmpty() ? null : Long.valueOf(matcher.group(1));
+                    Long last = matcher.group(2).isEmpty() ? null : Long.valueOf(matcher.group(2));
+
+                    boolean isValid = (first != null || last != null)
+                        && (first == null || last == null || first <= last);
+                    if (isValid) {
+                        range = new ArtifactByteRange(first, last);
+                    }
+                } catch (NumberFormatException e) {
+                    // The positions are too large to be a real range, so the header is ignored
+                }
+            }
+        }
+        return range;
+    }
+
+    public Long getFirstBytePosition() {
+        return firstBytePosition;
+    }
+
+    public Long getLastBytePosition() {
+        return lastBytePosition;
+    }
+
+    /**
+     * @return the range in the form used by an HTTP Range header
+     */
+    public String toHeaderValue() {
+        StringBuilder headerValue = new StringBuilder("bytes=");
+        if (firstBytePosition != null) {
+            headerValue.append(firstBytePosition);
+        }
+        headerValue.append('-');
+        if (lastBytePosition != null) {
+            headerValue.append(lastBytePosition);
+        }
+        return headerValue.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toHeaderValue();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.ras;
+
+import java.nio.file.OpenOption;
+
+/**
+ * An option to open a stored artifact for reading only if it does not match the
+ * entity tags a client already holds, as asked for by the If-None-Match header of
+ * an HTTP request. If it matches, nothing is read and the channel reports
+ * {@link IArtifactReadChannel#isNotModified()}.
+ */
+public class ArtifactIfNoneMatch implements OpenOption {
+
+    private final String entityTags;
+
+    public ArtifactIfNoneMatch(String entityTags) {
+        this.entityTags = entityTags;
+    }
+
+    /**
+     * @return the entity tags, in the form used by an HTTP If-None-Match header
+     */
+    public String getEntityTags() {
+        return entityTags;
+    }
+}
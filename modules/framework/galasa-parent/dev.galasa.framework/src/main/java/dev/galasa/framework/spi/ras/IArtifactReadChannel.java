@@ -0,0 +1,38 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.ras;
+
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Implemented by the channels a result archive store opens to read an artifact when
+ * it can honour {@link ArtifactByteRange} and {@link ArtifactIfNoneMatch}, so that the
+ * caller can tell what is actually being read.
+ */
+public interface IArtifactReadChannel extends ReadableByteChannel {
+
+    /**
+     * @return true if the artifact matches the entity tags given with {@link ArtifactIfNoneMatch},
+     *         in which case there is nothing to read
+     */
+    boolean isNotModified();
+
+    /**
+     * @return the bytes being read in the form used by an HTTP Content-Range header,
+     *         or null if the whole artifact is being read
+     */
+    String getContentRange();
+
+    /**
+     * @return the number of bytes which will be read, or -1 if this is not known in advance
+     */
+    long getContentLength();
+
+    /**
+     * @return the entity tag of the artifact, or null if the store does not provide one
+     */
+    String getETag();
+}
@@ -78,4 +78,10 @@ public interface RBACService {
     void invalidateUser(String loginId) throws RBACException;
 
     int getUserPriority(String loginId) throws RBACException;
+
+    /**
+     * Stops the service watching the DSS for users invalidated by other pods.
+     * The service must not be used afterwards.
+     */
+    void shutdown();
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.teststructure;
+
+import java.time.Instant;
+
+/**
+ * How long a Manager took in one of the provisioning phases of a test run
+ */
+public class ManagerPhaseTiming {
+
+    private String  manager;
+    private String  phase;
+
+    private Instant startTime;
+    private Instant endTime;
+
+    public ManagerPhaseTiming() {
+    }
+
+    public ManagerPhaseTiming(String manager, String phase, Instant startTime, Instant endTime) {
+        this.manager = manager;
+        this.phase = phase;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public String getManager() {
+        return manager;
+    }
+
+    public void setManager(String manager) {
+        this.manager = manager;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Instant endTime) {
+        this.endTime = endTime;
+    }
+}
@@ -41,6 +41,8 @@ public class TestStructure {
     private List<TestMethod> methods;
     private List<TestGherkinMethod> gherkinMethods;
 
+    private List<ManagerPhaseTiming> managerTimings;
+
     private List<String>     logRecordIds;
 
     private List<String>     artifactRecordIds;
@@ -78,6 +80,10 @@ public class TestStructure {
                 this.gherkinMethods = new ArrayList<TestGherkinMethod>();
                 this.gherkinMethods.addAll(source.gherkinMethods);
             }
+            if (source.managerTimings != null) {
+                this.managerTimings = new ArrayList<ManagerPhaseTiming>();
+                this.managerTimings.addAll(source.managerTimings);
+            }
             if (source.logRecordIds != null) {
                 this.logRecordIds = new ArrayList<String>();
                 this.logRecordIds.addAll(source.logRecordIds);
@@ -309,6 +315,14 @@ public class TestStructure {
         this.artifactRecordIds = artifactRecordIds;
     }
 
+    public List<ManagerPhaseTiming> getManagerTimings() {
+        return managerTimings;
+    }
+
+    public void setManagerTimings(List<ManagerPhaseTiming> managerTimings) {
+        this.managerTimings = managerTimings;
+    }
+
     public Long getLogSize() {
         return logSize;
     }
@@ -5,6 +5,10 @@
  */
 package dev.galasa.framework.spi.utils;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -50,4 +54,53 @@ public class DssUtils {
 
     }
 
+    /**
+     * Waits for an asynchronous DSS request to complete.
+     * 
+     * @param future the future returned by one of the asynchronous DSS methods
+     * @return the result of the request
+     * @throws DynamicStatusStoreException if the request failed, or the wait was interrupted
+     */
+    public static <T> T waitFor(CompletableFuture<T> future) throws DynamicStatusStoreException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamicStatusStoreException("Interrupted while waiting for the DSS", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DynamicStatusStoreException) {
+                throw (DynamicStatusStoreException) cause;
+            }
+            throw new DynamicStatusStoreException("DSS request failed", cause);
+        }
+    }
+
+    /**
+     * Waits for all of a set of pipelined DSS requests to complete. All the requests are
+     * waited for even if one of them fails, then the first failure is reported.
+     * 
+     * @param futures the futures returned by the asynchronous DSS methods
+     * @throws DynamicStatusStoreException if any of the requests failed, or the wait was interrupted
+     */
+    public static void waitForAll(Collection<? extends CompletableFuture<?>> futures) throws DynamicStatusStoreException {
+        DynamicStatusStoreException firstFailure = null;
+        for (CompletableFuture<?> future : futures) {
+            try {
+                waitFor(future);
+            } catch (DynamicStatusStoreException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+    }
+
 }
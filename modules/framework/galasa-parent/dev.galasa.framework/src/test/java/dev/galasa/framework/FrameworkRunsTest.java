@@ -25,13 +25,17 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import dev.galasa.framework.beans.Property;
+import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.mocks.MockCPSStore;
 import dev.galasa.framework.mocks.MockDSSStore;
 import dev.galasa.framework.mocks.MockFramework;
 import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDssAction;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.RunRasAction;
@@ -1419,4 +1423,246 @@ public class FrameworkRunsTest {
         assertThat(dssProps).hasSize(1);
         assertThat(dssProps.get("run." + runName + ".status")).isEqualTo(TestRunLifecycleStatus.RUNNING.toString());
     }
+
+    @Test
+    public void testGetAllRunsGroupsPropertiesOfEachRunCorrectly() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+
+        // Use run names which share a common prefix, so we can check their properties are not mixed up
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U1.group", "group1");
+        dssProps.put("run.U1.test", "mybundle/mytest1");
+        dssProps.put("run.U10.status", TestRunLifecycleStatus.FINISHED.toString());
+        dssProps.put("run.U10.group", "group2");
+        dssProps.put("run.U10.test", "mybundle/mytest10");
+        dssProps.put("request.prefix.U.lastused", "10");
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getAllRuns();
+
+        // Then...
+        assertThat(runs).hasSize(2);
+        assertThat(runs).extracting("name", "status", "group", "testClassName")
+            .containsExactlyInAnyOrder(
+                tuple("U1", TestRunLifecycleStatus.QUEUED.toString(), "group1", "mytest1"),
+                tuple("U10", TestRunLifecycleStatus.FINISHED.toString(), "group2", "mytest10")
+            );
+    }
+
+    @Test
+    public void testGetQueuedRunsOnlyReturnsQueuedRuns() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.RUNNING.toString());
+        dssProps.put("run.U3.status", TestRunLifecycleStatus.FINISHED.toString());
+        dssProps.put("run.U4.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getQueuedRuns();
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactlyInAnyOrder("U1", "U4");
+    }
+
+    @Test
+    public void testGetRunsWithStatusReturnsEmptyListWhenNoRunsMatch() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getRunsWithStatus(TestRunLifecycleStatus.WAITING);
+
+        // Then...
+        assertThat(runs).isEmpty();
+    }
+
+    @Test
+    public void testGetAllGroupedRunsOnlyReturnsRunsInTheGroup() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.group", "my.group");
+        dssProps.put("run.U2.group", "another.group");
+        dssProps.put("run.U3.group", "my.group");
+        dssProps.put("run.U4.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getAllGroupedRuns("my.group");
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactlyInAnyOrder("U1", "U3");
+    }
+
+    @Test
+    public void testGetActiveRunsReturnsRunsWithHeartbeatsAndSharedEnvironments() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.heartbeat", Instant.now().toString());
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U3.shared.environment", "true");
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getActiveRuns();
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactlyInAnyOrder("U1", "U3");
+    }
+
+    private List<SubmitRunRequest> createRunRequests(int numberOfRuns) throws Exception {
+        List<SubmitRunRequest> runRequests = new ArrayList<>();
+        for (int i = 1; i <= numberOfRuns; i++) {
+            runRequests.add(new SubmitRunRequest(
+                "unknown", "me", "me", "mybundle", "mytest" + i, "my.group", "submission" + i,
+                null, null, "a-test-stream", false, false, null, new Properties(), null, null, "java", null));
+        }
+        return runRequests;
+    }
+
+    @Test
+    public void testSubmitRunsReservesRunNamesTogetherAndStoresThemInOneTransaction() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(3));
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactly("U1", "U2", "U3");
+        assertThat(runs).extracting("test").containsExactly("mybundle/mytest1", "mybundle/mytest2", "mybundle/mytest3");
+        assertThat(runs).extracting("status").containsOnly(TestRunLifecycleStatus.QUEUED.toString());
+
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("3");
+        assertThat(mockDss.getPerformActionsCallCount()).isEqualTo(1);
+        assertThat(mockDss.get("run.U2."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("mybundle/mytest2");
+        assertThat(mockDss.get("run.U2."+DssPropertyKeyRunNameSuffix.TEST_CLASS)).isEqualTo("mytest2");
+        assertThat(mockDss.get("run.U2."+DssPropertyKeyRunNameSuffix.SUBMISSION_ID)).isEqualTo("submission2");
+        assertThat(mockDss.get("run.U2."+DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo(TestRunLifecycleStatus.QUEUED.toString());
+    }
+
+    @Test
+    public void testSubmitRunsSplitsLargeBatchesAcrossTransactions() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(50));
+
+        // Then...
+        assertThat(runs).hasSize(50);
+        assertThat(runs.get(49).getName()).isEqualTo("U50");
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("50");
+        assertThat(mockDss.getPerformActionsCallCount()).isGreaterThan(1).isLessThan(50);
+        assertThat(mockDss.get("run.U50."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("mybundle/mytest50");
+    }
+
+    @Test
+    public void testSubmitRunsWrapsRunNumbersAtTheMaximum() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("request.prefix.U.lastused", "9");
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+
+        Map<String, String> cpsProps = new HashMap<>();
+        cpsProps.put("request.prefix.U.maximum", "10");
+        MockCPSStore mockCps = new MockCPSStore(cpsProps);
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(3));
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactly("U10", "U1", "U2");
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("2");
+    }
+
+    @Test
+    public void testSubmitRunsStoresRunsOneAtATimeWhenAReservedRunNameIsInUse() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("request.prefix.U.lastused", "10");
+        dssProps.put("run.U12."+DssPropertyKeyRunNameSuffix.TEST, "otherbundle/othertest");
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(3));
+
+        // Then...
+        assertThat(runs).hasSize(3);
+        assertThat(runs.get(0).getName()).isEqualTo("U11");
+        assertThat(mockDss.get("run.U11."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("mybundle/mytest1");
+        assertThat(mockDss.get("run.U13."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("mybundle/mytest3");
+    }
+
+    @Test
+    public void testSubmitRunsRemovesEarlierBatchesWhenALaterBatchFails() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        MockDSSStore mockDss = new MockDSSStore(dssProps) {
+            @Override
+            public void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
+                if (getPerformActionsCallCount() >= 1) {
+                    throw new DynamicStatusStoreException("Simulating a failure to contact the DSS");
+                }
+                super.performActions(actions);
+            }
+        };
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> frameworkRuns.submitRuns(createRunRequests(50)));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(FrameworkException.class);
+        assertThat(mockDss.getPerformActionsCallCount()).isEqualTo(1);
+        assertThat(dssProps.keySet()).noneMatch(key -> key.startsWith("run."));
+    }
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.Test;
+
+import dev.galasa.ManagerException;
+import dev.galasa.framework.spi.AbstractManager;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IManager;
+import dev.galasa.framework.spi.teststructure.ManagerPhaseTiming;
+
+public class ManagerProvisioningSchedulerTest {
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    private class FakeManager extends AbstractManager {
+
+        private final String         name;
+        private final boolean        parallel;
+        private final List<IManager> dependsOn = new ArrayList<>();
+
+        private CountDownLatch       rendezvous;
+        private boolean              failGenerate;
+        private boolean              failDiscard;
+
+        FakeManager(String name, boolean parallel, IManager... dependsOn) {
+            this.name = name;
+            this.parallel = parallel;
+            this.dependsOn.addAll(Arrays.asList(dependsOn));
+        }
+
+        @Override
+        public boolean canProvisionInParallel() {
+            return parallel;
+        }
+
+        @Override
+        public boolean areYouProvisionalDependentOn(@NotNull IManager otherManager) {
+            return dependsOn.contains(otherManager);
+        }
+
+        @Override
+        public void provisionGenerate() throws ManagerException {
+            events.add(name + " generate started");
+            if (rendezvous != null) {
+                rendezvous.countDown();
+                try {
+                    if (!rendezvous.await(10, TimeUnit.SECONDS)) {
+                        events.add(name + " ran alone");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failGenerate) {
+                throw new ManagerException("Generate failed for " + name);
+            }
+            events.add(name + " generate ended");
+        }
+
+        @Override
+        public void provisionDiscard() {
+            events.add(name + " discard");
+            if (failDiscard) {
+                throw new IllegalStateException("Discard failed for " + name);
+            }
+        }
+    }
+
+    private void generate(ManagerProvisioningScheduler scheduler) throws FrameworkException {
+        scheduler.runForwards("generate", manager -> {
+            try {
+                manager.provisionGenerate();
+            } catch (ManagerException e) {
+                throw new FrameworkException("Problem in provision generate", e);
+            }
+        });
+    }
+
+    @Test
+    public void testManagersThatCannotRunInParallelRunOneAtATimeInOrder() throws Exception {
+        // Given...
+        FakeManager first = new FakeManager("first", false);
+        FakeManager second = new FakeManager("second", false, first);
+        ManagerProvisioningScheduler scheduler = new ManagerProvisioningScheduler(List.of(first, second), 4);
+
+        // When...
+        generate(scheduler);
+        scheduler.runBackwards("discard", IManager::provisionDiscard);
+
+        // Then...
+        assertThat(scheduler.isParallel()).isFalse();
+        assertThat(events).containsExactly(
+            "first generate started", "first generate ended",
+            "second generate started", "second generate ended",
+            "second discard", "first discard");
+    }
+
+    @Test
+    public void testIndependentManagersRunAtTheSameTime() throws Exception {
+        // Given...
+        CountDownLatch rendezvous = new CountDownLatch(2);
+        FakeManager first = new FakeManager("first", true);
+        FakeManager second = new FakeManager("second", true);
+        first.rendezvous = rendezvous;
+        second.rendezvous = rendezvous;
+        ManagerProvisioningScheduler scheduler = new ManagerProvisioningScheduler(List.of(first, second), 4);
+
+        try {
+            // When...
+            generate(scheduler);
+
+            // Then...
+            assertThat(scheduler.isParallel()).isTrue();
+            assertThat(events).containsExactlyInAnyOrder(
+                "first generate started", "first generate ended",
+                "second generate started", "second generate ended");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testDependentManagerWaitsAndIsDiscardedFirst() throws Exception {
+        // Given...
+        FakeManager base = new FakeManager("base", true);
+        FakeManager other = new FakeManager("other", true);
+        FakeManager dependent = new FakeManager("dependent", true, base);
+        ManagerProvisioningScheduler scheduler = new ManagerProvisioningScheduler(List.of(base, other, dependent), 4);
+
+        try {
+            // When...
+            generate(scheduler);
+            scheduler.runBackwards("discard", IManager::provisionDiscard);
+
+            // Then...
+            assertThat(events.indexOf("dependent generate started")).isGreaterThan(events.indexOf("base generate ended"));
+            assertThat(events.indexOf("base discard")).isGreaterThan(events.indexOf("dependent discard"));
+            assertThat(scheduler.getTimings()).hasSize(6);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testManagerThatCannotRunInParallelIsABarrier() throws Exception {
+        // Given...
+        FakeManager before = new FakeManager("before", true);
+        FakeManager barrier = new FakeManager("barrier", false);
+        FakeManager after = new FakeManager("after", true);
+        FakeManager alsoAfter = new FakeManager("alsoAfter", true);
+        ManagerProvisioningScheduler scheduler = new ManagerProvisioningScheduler(
+            List.of(before, barrier, after, alsoAfter), 4);
+
+        try {
+            // When...
+            generate(scheduler);
+
+            // Then...
+            assertThat(events.indexOf("barrier generate started")).isGreaterThan(events.indexOf("before generate ended"));
+            assertThat(events.indexOf("after generate started")).isGreaterThan(events.indexOf("barrier generate ended"));
+            assertThat(events.indexOf("alsoAfter generate started")).isGreaterThan(events.indexOf("barrier generate ended"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureStopsLaterManagersAndIsThrown() throws Exception {
+        // Given...
+        FakeManager failing = new FakeManager("failing", true);
+        FakeManager other = new FakeManager("other", true);
+        FakeManager dependent = new FakeManager("dependent", true, failing);
+        failing.failGenerate = true;
+        ManagerProvisioningScheduler scheduler = new ManagerProvisioningScheduler(List.of(failing, other, dependent), 4);
+
+        try {
+            // When...
+            Throwable thrown = catchThrowable(() -> generate(scheduler));
+
+            // Then...
+            assertThat(thrown).isInstanceOf(FrameworkException.class).hasRootCauseMessage("Generate failed for failing");
+            assertThat(events).doesNotContain("dependent generate started");
+            assertThat(events).contains("other generate ended");
+
+            List<ManagerPhaseTiming> timings = scheduler.getTimings();
+            assertThat(timings).extracting(ManagerPhaseTiming::getManager)
+                .allMatch(manager -> manager.equals(FakeManager.class.getName()));
+            assertThat(timings).extracting(ManagerPhaseTiming::getPhase).containsOnly("generate");
+            assertThat(timings).hasSize(2);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testEveryManagerIsDiscardedWhenSomeFailOneAtATime() throws Exception {
+        // Given...
+        FakeManager first = new FakeManager("first", false);
+        FakeManager second = new FakeManager("second", false, first);
+        FakeManager third = new FakeManager("third", false, second);
+        second.failDiscard = true;
+        third.failDiscard = true;
+        ManagerProvisioningScheduler scheduler = new ManagerProvisioningScheduler(List.of(first, second, third), 4);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> scheduler.runBackwards("discard", IManager::provisionDiscard));
+
+        // Then...
+        assertThat(events).containsExactly("third discard", "second discard", "first discard");
+        assertThat(thrown).isInstanceOf(IllegalStateException.class).hasMessage("Discard failed for third");
+        assertThat(thrown.getSuppressed()).extracting(Throwable::getMessage).containsExactly("Discard failed for second");
+    }
+
+    @Test
+    public void testEveryManagerIsDiscardedWhenSomeFailInParallel() throws Exception {
+        // Given...
+        FakeManager base = new FakeManager("base", true);
+        FakeManager other = new FakeManager("other", true);
+        FakeManager dependent = new FakeManager("dependent", true, base);
+        dependent.failDiscard = true;
+        other.failDiscard = true;
+        ManagerProvisioningScheduler scheduler = new ManagerProvisioningScheduler(List.of(base, other, dependent), 4);
+
+        try {
+            // When...
+            Throwable thrown = catchThrowable(() -> scheduler.runBackwards("discard", IManager::provisionDiscard));
+
+            // Then...
+            assertThat(events).containsExactlyInAnyOrder("base discard", "other discard", "dependent discard");
+            assertThat(events.indexOf("base discard")).isGreaterThan(events.indexOf("dependent discard"));
+            assertThat(thrown).isInstanceOf(IllegalStateException.class);
+            assertThat(thrown.getSuppressed()).hasSize(1);
+            assertThat(scheduler.getTimings()).hasSize(3);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
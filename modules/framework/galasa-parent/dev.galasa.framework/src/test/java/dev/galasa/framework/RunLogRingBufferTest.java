@@ -0,0 +1,132 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RunLogRingBufferTest {
+
+    @Test
+    public void testCapacityIsRoundedUpToAPowerOfTwo() {
+        // When...
+        RunLogRingBuffer buffer = new RunLogRingBuffer(1000);
+
+        // Then...
+        assertThat(buffer.getCapacity()).isEqualTo(1024);
+    }
+
+    @Test
+    public void testMessagesAreTakenInTheOrderTheyWereAdded() {
+        // Given...
+        RunLogRingBuffer buffer = new RunLogRingBuffer(8);
+        buffer.offer("line 1");
+        buffer.offer("line 2");
+        buffer.offer("line 3");
+
+        // When...
+        List<String> drained = new ArrayList<>();
+        int drainedCount = buffer.drainTo(drained, 10);
+
+        // Then...
+        assertThat(drainedCount).isEqualTo(3);
+        assertThat(drained).containsExactly("line 1", "line 2", "line 3");
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void testDrainTakesNoMoreThanTheMaximumAsked() {
+        // Given...
+        RunLogRingBuffer buffer = new RunLogRingBuffer(8);
+        for (int i = 1; i <= 5; i++) {
+            buffer.offer("line " + i);
+        }
+
+        // When...
+        List<String> drained = new ArrayList<>();
+        buffer.drainTo(drained, 2);
+
+        // Then...
+        assertThat(drained).containsExactly("line 1", "line 2");
+        assertThat(buffer.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testOfferIsRejectedWhenTheBufferIsFullUntilMessagesAreTaken() {
+        // Given...
+        RunLogRingBuffer buffer = new RunLogRingBuffer(2);
+        assertThat(buffer.offer("line 1")).isTrue();
+        assertThat(buffer.offer("line 2")).isTrue();
+
+        // When...
+        boolean isFullBufferAdded = buffer.offer("line 3");
+        buffer.drainTo(new ArrayList<>(), 1);
+        boolean isFreedSlotAdded = buffer.offer("line 4");
+
+        // Then...
+        assertThat(isFullBufferAdded).isFalse();
+        assertThat(isFreedSlotAdded).isTrue();
+
+        List<String> drained = new ArrayList<>();
+        buffer.drainTo(drained, 10);
+        assertThat(drained).containsExactly("line 2", "line 4");
+        assertThat(buffer.getAddedCount()).isEqualTo(3);
+        assertThat(buffer.getTakenCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testMessagesFromManyThreadsAreAllTakenInEachThreadsOrder() throws Exception {
+        // Given...
+        RunLogRingBuffer buffer = new RunLogRingBuffer(64);
+        int threadCount = 4;
+        int messagesPerThread = 5000;
+
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int threadNumber = t;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < messagesPerThread; i++) {
+                    while (!buffer.offer(threadNumber + ":" + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers.add(producer);
+        }
+
+        // When...
+        for (Thread producer : producers) {
+            producer.start();
+        }
+
+        List<String> drained = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 30000;
+        while (drained.size() < threadCount * messagesPerThread && System.currentTimeMillis() < deadline) {
+            if (buffer.drainTo(drained, 100) == 0) {
+                Thread.yield();
+            }
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // Then...
+        assertThat(drained).hasSize(threadCount * messagesPerThread);
+
+        int[] nextExpected = new int[threadCount];
+        for (String message : drained) {
+            String[] parts = message.split(":");
+            int threadNumber = Integer.parseInt(parts[0]);
+            assertThat(Integer.parseInt(parts[1])).isEqualTo(nextExpected[threadNumber]);
+            nextExpected[threadNumber]++;
+        }
+    }
+}
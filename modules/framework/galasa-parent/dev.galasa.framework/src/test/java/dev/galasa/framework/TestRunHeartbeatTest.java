@@ -0,0 +1,174 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockCPSStore;
+import dev.galasa.framework.mocks.MockDSSStore;
+import dev.galasa.framework.mocks.MockFramework;
+import dev.galasa.framework.mocks.MockRASStoreService;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDssLease;
+
+public class TestRunHeartbeatTest {
+
+    class MockDssLease implements IDssLease {
+        private boolean isExpired = false;
+        private boolean isClosed = false;
+        private AtomicInteger keepAliveCount = new AtomicInteger();
+
+        @Override
+        public boolean keepAlive() throws DynamicStatusStoreException {
+            keepAliveCount.incrementAndGet();
+            return !isExpired;
+        }
+
+        @Override
+        public void close() throws DynamicStatusStoreException {
+            isClosed = true;
+        }
+    }
+
+    class MockLeasingDSSStore extends MockDSSStore {
+
+        public List<MockDssLease> leases = new ArrayList<>();
+
+        public MockLeasingDSSStore(Map<String, String> valueMap) {
+            super(valueMap);
+        }
+
+        @Override
+        public synchronized IDssLease putWithLease(@NotNull String key, @NotNull String value, long timeToLiveSecs) throws DynamicStatusStoreException {
+            put(key, value);
+            MockDssLease lease = new MockDssLease();
+            leases.add(lease);
+            return lease;
+        }
+
+        public synchronized List<MockDssLease> getLeases() {
+            return new ArrayList<>(leases);
+        }
+    }
+
+    @Test
+    public void testHeartbeatThreadSurvivesAnExpiredLeaseAndTakesOutANewOne() throws Exception {
+        // Given...
+        Map<String, String> cpsProps = new HashMap<>();
+        cpsProps.put("heartbeat.lease.enabled", "true");
+        MockCPSStore mockCps = new MockCPSStore(cpsProps);
+
+        Map<String, String> dssProps = new ConcurrentHashMap<>();
+        MockLeasingDSSStore mockDss = new MockLeasingDSSStore(dssProps);
+
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+        mockFramework.setMockRas(new MockRASStoreService(new HashMap<>()) {
+            @Override
+            public void flush() {
+                // Nothing is buffered
+            }
+        });
+        mockFramework.setTestRunName("U123");
+
+        TestRunHeartbeat heartbeat = new TestRunHeartbeat(mockFramework, 100);
+        assertThat(mockDss.getLeases()).hasSize(1);
+
+        // When...
+        mockDss.getLeases().get(0).isExpired = true;
+        heartbeat.start();
+
+        long timeout = System.currentTimeMillis() + 10000;
+        while (mockDss.getLeases().size() < 2 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(100);
+        }
+
+        // Then...
+        try {
+            assertThat(mockDss.getLeases()).hasSizeGreaterThanOrEqualTo(2);
+            assertThat(heartbeat.isAlive()).isTrue();
+            assertThat(dssProps).containsKey(TestRunHeartbeat.getLivenessKey("U123"));
+        } finally {
+            heartbeat.shutdown();
+            heartbeat.join(5000);
+        }
+
+        heartbeat.releaseLivenessLease();
+        List<MockDssLease> leases = mockDss.getLeases();
+        assertThat(leases.get(leases.size() - 1).isClosed).isTrue();
+    }
+
+    @Test
+    public void testLivenessLeaseIsKeptAliveWhileTheRasFlushIsBlocked() throws Exception {
+        // Given...
+        Map<String, String> cpsProps = new HashMap<>();
+        cpsProps.put("heartbeat.lease.enabled", "true");
+        MockCPSStore mockCps = new MockCPSStore(cpsProps);
+
+        Map<String, String> dssProps = new ConcurrentHashMap<>();
+        MockLeasingDSSStore mockDss = new MockLeasingDSSStore(dssProps);
+
+        CountDownLatch flushBlocked = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+        mockFramework.setMockRas(new MockRASStoreService(new HashMap<>()) {
+            private int flushCount = 0;
+
+            @Override
+            public void flush() {
+                // The first flush is made while the heartbeat is being created, later ones get stuck,
+                // as they would if the RAS was taking longer to flush than the lease lasts
+                flushCount++;
+                if (flushCount > 1) {
+                    flushBlocked.countDown();
+                    try {
+                        releaseFlush.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        mockFramework.setTestRunName("U123");
+
+        TestRunHeartbeat heartbeat = new TestRunHeartbeat(mockFramework, 100);
+        MockDssLease lease = mockDss.getLeases().get(0);
+
+        try {
+            // When...
+            heartbeat.start();
+            assertThat(flushBlocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            long timeout = System.currentTimeMillis() + 10000;
+            while (lease.keepAliveCount.get() < 3 && System.currentTimeMillis() < timeout) {
+                Thread.sleep(100);
+            }
+
+            // Then...
+            assertThat(lease.keepAliveCount.get()).isGreaterThanOrEqualTo(3);
+        } finally {
+            heartbeat.shutdown();
+            releaseFlush.countDown();
+            heartbeat.join(5000);
+            heartbeat.releaseLivenessLease();
+        }
+
+        assertThat(lease.isClosed).isTrue();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockIResultArchiveStore;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+public class TestRunLogCaptureTest {
+
+    // Records each batch of lines written, and can hold up the next write until told to carry on
+    class MockBatchRecordingResultArchiveStore extends MockIResultArchiveStore {
+        private final List<List<String>> batches = new ArrayList<>();
+
+        private volatile boolean isHoldingNextWrite = false;
+        private CountDownLatch writeReceivedLatch;
+        private CountDownLatch writeReleaseLatch;
+
+        public void holdNextWrite() {
+            writeReceivedLatch = new CountDownLatch(1);
+            writeReleaseLatch = new CountDownLatch(1);
+            isHoldingNextWrite = true;
+        }
+
+        public void waitForHeldWrite() throws InterruptedException {
+            writeReceivedLatch.await();
+        }
+
+        public void releaseWrite() {
+            writeReleaseLatch.countDown();
+        }
+
+        @Override
+        public void writeLog(@NotNull List<String> messages) throws ResultArchiveStoreException {
+            if (isHoldingNextWrite) {
+                isHoldingNextWrite = false;
+                writeReceivedLatch.countDown();
+                try {
+                    writeReleaseLatch.await();
+                } catch (InterruptedException e) {
+                    throw new ResultArchiveStoreException(e);
+                }
+            }
+            synchronized (batches) {
+                batches.add(new ArrayList<>(messages));
+            }
+        }
+
+        public List<List<String>> getBatches() {
+            synchronized (batches) {
+                return new ArrayList<>(batches);
+            }
+        }
+
+        public List<String> getLines() {
+            List<String> lines = new ArrayList<>();
+            for (List<String> batch : getBatches()) {
+                lines.addAll(batch);
+            }
+            return lines;
+        }
+    }
+
+    private LogEvent createLogEvent(String message) {
+        return Log4jLogEvent.newBuilder()
+            .setLoggerName("my.test.Logger")
+            .setLevel(Level.INFO)
+            .setMessage(new SimpleMessage(message))
+            .build();
+    }
+
+    @Test
+    public void testLinesLoggedBeforeTheRasIsAvailableAreWrittenInOrderWhenItIs() throws Exception {
+        // Given...
+        MockBatchRecordingResultArchiveStore mockRas = new MockBatchRecordingResultArchiveStore();
+        List<MockBatchRecordingResultArchiveStore> availableRas = new ArrayList<>();
+        TestRunLogCapture capture = new TestRunLogCapture(() -> availableRas.isEmpty() ? null : availableRas.get(0), 16);
+
+        capture.append(createLogEvent("first message"));
+        capture.append(createLogEvent("second message"));
+        capture.flush();
+        assertThat(mockRas.getLines()).isEmpty();
+
+        // When...
+        availableRas.add(mockRas);
+        capture.append(createLogEvent("third message"));
+        capture.flush();
+
+        // Then...
+        List<String> lines = mockRas.getLines();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("INFO").contains("my.test.Logger").endsWith("first message" + System.lineSeparator());
+        assertThat(lines.get(1)).contains("second message");
+        assertThat(lines.get(2)).contains("third message");
+        assertThat(capture.getWrittenLineCount()).isEqualTo(3);
+        assertThat(capture.getQueueDepth()).isZero();
+
+        capture.shutdown();
+    }
+
+    @Test
+    public void testLinesFromManyThreadsAreAllWrittenInBatches() throws Exception {
+        // Given...
+        MockBatchRecordingResultArchiveStore mockRas = new MockBatchRecordingResultArchiveStore();
+        TestRunLogCapture capture = new TestRunLogCapture(() -> mockRas, TestRunLogCapture.DEFAULT_BUFFER_CAPACITY);
+
+        int threadCount = 4;
+        int linesPerThread = 1000;
+        List<Thread> loggingThreads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            loggingThreads.add(new Thread(() -> {
+                for (int i = 0; i < linesPerThread; i++) {
+                    capture.append(createLogEvent("message " + i));
+                }
+            }));
+        }
+
+        // When...
+        for (Thread loggingThread : loggingThreads) {
+            loggingThread.start();
+        }
+        for (Thread loggingThread : loggingThreads) {
+            loggingThread.join();
+        }
+        capture.flush();
+
+        // Then...
+        assertThat(mockRas.getLines()).hasSize(threadCount * linesPerThread);
+        assertThat(mockRas.getBatches()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(TestRunLogCapture.MAX_BATCH_SIZE));
+        assertThat(capture.getDroppedLineCount()).isZero();
+
+        capture.shutdown();
+    }
+
+    @Test
+    public void testLinesAreDroppedAndNotedInTheRunLogWhenTheBufferIsFull() throws Exception {
+        // Given...
+        MockBatchRecordingResultArchiveStore mockRas = new MockBatchRecordingResultArchiveStore();
+        TestRunLogCapture capture = new TestRunLogCapture(() -> mockRas, 4);
+
+        // Hold up the first write so the buffer fills up behind it
+        mockRas.holdNextWrite();
+        capture.append(createLogEvent("message 1"));
+        mockRas.waitForHeldWrite();
+
+        // When...
+        for (int i = 2; i <= 7; i++) {
+            capture.append(createLogEvent("message " + i));
+        }
+        mockRas.releaseWrite();
+        capture.flush();
+
+        // Then...
+        List<String> lines = mockRas.getLines();
+        assertThat(capture.getDroppedLineCount()).isEqualTo(2);
+        assertThat(lines).hasSize(6);
+        assertThat(lines.get(0)).contains("message 1");
+        assertThat(lines.get(1)).isEqualTo("*** 2 run log lines were dropped because the run log buffer was full ***");
+        assertThat(lines.get(2)).contains("message 2");
+        assertThat(lines.get(5)).contains("message 5");
+        assertThat(capture.getWrittenLineCount()).isEqualTo(5);
+
+        capture.shutdown();
+    }
+
+    @Test
+    public void testShutdownWritesRemainingLinesAndIgnoresLaterOnes() throws Exception {
+        // Given...
+        MockBatchRecordingResultArchiveStore mockRas = new MockBatchRecordingResultArchiveStore();
+        TestRunLogCapture capture = new TestRunLogCapture(() -> mockRas, 16);
+        capture.append(createLogEvent("before shutdown"));
+
+        // When...
+        capture.shutdown();
+        capture.append(createLogEvent("after shutdown"));
+
+        // Then...
+        List<String> lines = mockRas.getLines();
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).contains("before shutdown");
+        assertThat(capture.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void testFlushGivesUpAfterItsTimeoutWhenTheRasIsStuck() throws Exception {
+        // Given...
+        MockBatchRecordingResultArchiveStore mockRas = new MockBatchRecordingResultArchiveStore();
+        TestRunLogCapture capture = new TestRunLogCapture(() -> mockRas, 16);
+
+        mockRas.holdNextWrite();
+        capture.append(createLogEvent("stuck message"));
+        mockRas.waitForHeldWrite();
+
+        // When...
+        long startMillis = System.currentTimeMillis();
+        boolean isFlushedWhileStuck = capture.flush(200);
+        long waitedMillis = System.currentTimeMillis() - startMillis;
+
+        mockRas.releaseWrite();
+        boolean isFlushedAfterRelease = capture.flush();
+
+        // Then...
+        assertThat(isFlushedWhileStuck).isFalse();
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(200).isLessThan(TestRunLogCapture.DEFAULT_FLUSH_TIMEOUT_MILLIS);
+        assertThat(isFlushedAfterRelease).isTrue();
+        assertThat(mockRas.getLines()).hasSize(1);
+        assertThat(capture.shutdown()).isTrue();
+    }
+}
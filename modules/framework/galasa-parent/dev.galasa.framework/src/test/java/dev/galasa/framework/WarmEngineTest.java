@@ -0,0 +1,131 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockEnvironment;
+import dev.galasa.framework.mocks.MockIDynamicStatusStoreService;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+
+public class WarmEngineTest {
+
+    private static final String ENGINE_ID = "myEngineLabel-warm-1234abcd";
+
+    private static final String STATE_KEY = WarmEngine.getPropertyKey(ENGINE_ID, WarmEngine.STATE_SUFFIX);
+    private static final String RUN_KEY = WarmEngine.getPropertyKey(ENGINE_ID, WarmEngine.RUN_SUFFIX);
+
+    class MockWatchedDss extends MockIDynamicStatusStoreService {
+        CountDownLatch watchRegistered = new CountDownLatch(1);
+
+        MockWatchedDss() {
+            // The Kubernetes controller changes the engine's state from another thread
+            data = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public UUID watch(IDynamicStatusStoreWatcher watcher, String key) throws DynamicStatusStoreException {
+            UUID watchId = super.watch(watcher, key);
+            watchRegistered.countDown();
+            return watchId;
+        }
+    }
+
+    // Plays the part of the Kubernetes controller, changing the engine's state once the engine is watching it
+    private Thread startController(MockWatchedDss dss, String newState, String runName) {
+        Thread controller = new Thread(() -> {
+            try {
+                dss.watchRegistered.await(10, TimeUnit.SECONDS);
+                if (runName != null) {
+                    dss.put(RUN_KEY, runName);
+                }
+                dss.put(STATE_KEY, newState);
+                dss.notifyKeyWatcher(STATE_KEY, IDynamicStatusStoreWatcher.Event.MODIFIED, WarmEngine.IDLE_STATE, newState);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        controller.start();
+        return controller;
+    }
+
+    @Test
+    public void testEngineGoesIdleAndReturnsTheRunItIsHanded() throws Exception {
+        // Given...
+        MockWatchedDss dss = new MockWatchedDss();
+        WarmEngine warmEngine = new WarmEngine(new MockEnvironment());
+        Thread controller = startController(dss, WarmEngine.CLAIMED_STATE, "U123");
+
+        // When...
+        String runName = warmEngine.waitForRun(dss, ENGINE_ID);
+        controller.join(5000);
+
+        // Then...
+        assertThat(runName).isEqualTo("U123");
+        assertThat(dss.history).extracting(record -> record.value).containsExactly(WarmEngine.IDLE_STATE);
+        assertThat(dss.keyWatchers).isEmpty();
+    }
+
+    @Test
+    public void testRetiredEngineReturnsNoRun() throws Exception {
+        // Given...
+        MockWatchedDss dss = new MockWatchedDss();
+        WarmEngine warmEngine = new WarmEngine(new MockEnvironment());
+        Thread controller = startController(dss, WarmEngine.RETIRED_STATE, null);
+
+        // When...
+        String runName = warmEngine.waitForRun(dss, ENGINE_ID);
+        controller.join(5000);
+
+        // Then...
+        assertThat(runName).isNull();
+        assertThat(dss.keyWatchers).isEmpty();
+    }
+
+    @Test
+    public void testRunHandedOverBeforeTheWatchIsRegisteredIsNotMissed() throws Exception {
+        // Given...
+        MockWatchedDss dss = new MockWatchedDss() {
+            @Override
+            public UUID watch(IDynamicStatusStoreWatcher watcher, String key) throws DynamicStatusStoreException {
+                // The controller claims the engine between it going idle and the watch starting
+                put(RUN_KEY, "U123");
+                put(STATE_KEY, WarmEngine.CLAIMED_STATE);
+                return super.watch(watcher, key);
+            }
+        };
+        WarmEngine warmEngine = new WarmEngine(new MockEnvironment());
+
+        // When...
+        String runName = warmEngine.waitForRun(dss, ENGINE_ID);
+
+        // Then...
+        assertThat(runName).isEqualTo("U123");
+        assertThat(dss.keyWatchers).isEmpty();
+    }
+
+    @Test
+    public void testEngineWithoutAnIdCannotWait() throws Exception {
+        // Given...
+        WarmEngine warmEngine = new WarmEngine(new MockEnvironment());
+
+        // When...
+        Throwable thrown = catchThrowable(() -> warmEngine.waitForRun(new Properties(), new Properties()));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(FrameworkException.class).hasMessageContaining(WarmEngine.ENGINE_ID_ENV_VAR);
+    }
+}
@@ -9,9 +9,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -20,6 +22,7 @@ import org.junit.Test;
 
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkPropertyFileException;
+import dev.galasa.framework.spi.utils.DssUtils;
 
 /**
  * Test the Framework DSS Stub. Most of the functionality will exist in the
@@ -92,6 +95,30 @@ public class FpfDynamicStatusStoreTest {
         Assert.assertNull("Should have gone", getKey(key2));
     }
 
+    @Test
+    public void testAsyncMethods() throws DynamicStatusStoreException, IOException {
+        final String key1 = "a_little_key";
+        final String value1 = UUID.randomUUID().toString();
+        final String key2 = "a_tiny_key";
+        final String value2 = UUID.randomUUID().toString();
+
+        DssUtils.waitForAll(List.of(this.dss.putAsync(key1, value1), this.dss.putAsync(key2, value2)));
+        Assert.assertEquals("Key values differ", value1, getKey(key1));
+        Assert.assertEquals("Key values differ", value2, getKey(key2));
+
+        CompletableFuture<String> get1 = this.dss.getAsync(key1);
+        CompletableFuture<Map<String, String>> getPrefix = this.dss.getPrefixAsync("a_");
+        Assert.assertEquals("Key values differ", value1, DssUtils.waitFor(get1));
+        Assert.assertEquals("Key values differ", value2, DssUtils.waitFor(getPrefix).get(key2));
+
+        Assert.assertTrue("Swap should have worked", DssUtils.waitFor(this.dss.putSwapAsync(key1, value1, value2)));
+        Assert.assertFalse("Swap should have failed", DssUtils.waitFor(this.dss.putSwapAsync(key1, value1, value2)));
+
+        DssUtils.waitForAll(List.of(this.dss.deleteAsync(key1), this.dss.deleteAsync(key2)));
+        Assert.assertNull("Should have gone", getKey(key1));
+        Assert.assertNull("Should have gone", getKey(key2));
+    }
+
     @Test
     public void testPrefixMethods() throws DynamicStatusStoreException, IOException {
         final String key1 = "a_little_key";
@@ -9,12 +9,16 @@ import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.AccessMode;
 import java.nio.file.ClosedDirectoryStreamException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.spi.FileSystemProvider;
@@ -30,6 +34,8 @@ import org.junit.Test;
 import dev.galasa.ResultArchiveStoreContentType;
 import dev.galasa.ResultArchiveStoreFileAttributeView;
 import dev.galasa.framework.SupportedFileAttributeName;
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
 
 public class DirectoryFileSystemTest {
 
@@ -100,6 +106,29 @@ public class DirectoryFileSystemTest {
         Assert.assertArrayEquals("data different", testData, readData);
     }
 
+    @Test
+    public void testReadIgnoresRangeAndIfNoneMatchOptions() throws IOException {
+        final FileSystemProvider fsp = new DirectoryRASFileSystemProvider(this.runDirectory);
+        final FileSystem fs = fsp.getFileSystem(this.runDirectory.toUri());
+
+        final Path rasTestArtifact = fs.getPath("arty1");
+        final Path realTestArtifact = this.artifactDirectory.resolve("arty1");
+        Files.write(realTestArtifact, testData);
+
+        HashSet<OpenOption> options = new HashSet<>();
+        options.add(StandardOpenOption.READ);
+        options.add(ArtifactByteRange.parse("bytes=2-4"));
+        options.add(new ArtifactIfNoneMatch("\"some-etag\""));
+
+        final ByteBuffer readData = ByteBuffer.allocate(testData.length);
+        try (SeekableByteChannel channel = fsp.newByteChannel(rasTestArtifact, options)) {
+            while (readData.hasRemaining() && channel.read(readData) >= 0) {
+            }
+        }
+
+        Assert.assertArrayEquals("The whole artifact should have been read", testData, readData.array());
+    }
+
     @Test
     public void testDirectory() throws IOException {
         final FileSystemProvider fsp = new DirectoryRASFileSystemProvider(this.runDirectory);
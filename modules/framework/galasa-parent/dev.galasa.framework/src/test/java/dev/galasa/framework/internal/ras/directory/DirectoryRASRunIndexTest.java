@@ -0,0 +1,266 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockTimeService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSearchCriteriaRequestor;
+import dev.galasa.framework.spi.ras.RasSortField;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+public class DirectoryRASRunIndexTest {
+
+    private Path rasDirectory;
+    private GalasaGson gson = new GalasaGson();
+
+    @Before
+    public void before() throws IOException {
+        this.rasDirectory = Files.createTempDirectory("galasa_junit_ras_index_");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteDirectory(this.rasDirectory.toFile());
+    }
+
+    private Path createRun(String runName, String requestor, String result, Instant queued) throws IOException {
+        TestStructure testStructure = new TestStructure();
+        testStructure.setRunName(runName);
+        testStructure.setRequestor(requestor);
+        testStructure.setResult(result);
+        testStructure.setTestName("dev.galasa.example.MyTest");
+        testStructure.setBundle("dev.galasa.example");
+        testStructure.setQueued(queued);
+
+        Path runDirectory = rasDirectory.resolve(runName);
+        Files.createDirectories(runDirectory);
+        Files.write(runDirectory.resolve("structure.json"), gson.toJson(testStructure).getBytes(StandardCharsets.UTF_8));
+        return runDirectory;
+    }
+
+    private List<String> getIndexedRequestors(DirectoryRASRunIndex index) throws ResultArchiveStoreException {
+        List<String> requestors = new ArrayList<>();
+        for (DirectoryRASRunIndexEntry entry : index.getEntries()) {
+            requestors.add(entry.toTestStructure().getRunName() + ":" + entry.toTestStructure().getRequestor());
+        }
+        return requestors;
+    }
+
+    private List<String> getRunNames(List<IRunResult> runs) throws ResultArchiveStoreException {
+        List<String> runNames = new ArrayList<>();
+        for (IRunResult run : runs) {
+            runNames.add(run.getTestStructure().getRunName());
+        }
+        return runNames;
+    }
+
+    @Test
+    public void testRunsAreFoundAndIndexedWhenThereIsNoIndex() throws Exception {
+        // Given...
+        createRun("U1", "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z"));
+        createRun("U2", "jim", "Failed", Instant.parse("2025-01-01T11:00:00Z"));
+        createRun("U3", "bob", "Passed", Instant.parse("2025-01-01T12:00:00Z"));
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+
+        // When...
+        List<IRunResult> runs = directoryService.getRuns(new RasSearchCriteriaRequestor("bob"));
+
+        // Then...
+        assertThat(getRunNames(runs)).containsExactlyInAnyOrder("U1", "U3");
+        assertThat(Files.readAllLines(rasDirectory.resolve(DirectoryRASRunIndex.INDEX_FILE_NAME))).hasSize(3);
+    }
+
+    @Test
+    public void testSearchesAreAnsweredFromTheIndexWithoutReadingStructureFiles() throws Exception {
+        // Given...
+        Path runDirectory = createRun("U1", "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z"));
+        new DirectoryRASDirectoryService(rasDirectory, gson).getRuns();
+
+        // Make the structure file unreadable, but keep its modified time so the index entry is still trusted
+        Path structureFile = runDirectory.resolve("structure.json");
+        FileTime lastModified = Files.getLastModifiedTime(structureFile);
+        Files.write(structureFile, "not json".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(structureFile, lastModified);
+
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+
+        // When...
+        List<String> requestors = directoryService.getRequestors();
+        List<String> results = directoryService.getResultNames();
+
+        // Then...
+        assertThat(requestors).containsExactly("bob");
+        assertThat(results).containsExactly("Passed");
+    }
+
+    @Test
+    public void testRunsWhichChangedOrWereDeletedSinceTheyWereIndexedAreRefreshed() throws Exception {
+        // Given...
+        createRun("U1", "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z"));
+        Path runDirectory = createRun("U2", "jim", "Failed", Instant.parse("2025-01-01T11:00:00Z"));
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+        directoryService.getRuns();
+
+        // When...
+        FileUtils.deleteDirectory(rasDirectory.resolve("U1").toFile());
+
+        createRun("U2", "jim", "Passed", Instant.parse("2025-01-01T11:00:00Z"));
+        Path structureFile = runDirectory.resolve("structure.json");
+        Files.setLastModifiedTime(structureFile, FileTime.fromMillis(Files.getLastModifiedTime(structureFile).toMillis() + 5000));
+
+        // Then...
+        List<IRunResult> runs = directoryService.getRuns();
+        assertThat(getRunNames(runs)).containsExactly("U2");
+        assertThat(directoryService.getResultNames()).containsExactly("Passed");
+    }
+
+    @Test
+    public void testRunDirectoriesAreOnlyCheckedWhenTheRasDirectoryChangesOrTheIntervalPasses() throws Exception {
+        // Given...
+        Path runDirectory = createRun("U1", "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z"));
+
+        // Well after the RAS directory was last modified, so its modified time can be trusted
+        MockTimeService mockTimeService = new MockTimeService(Instant.now().plusSeconds(3600));
+        DirectoryRASRunIndex index = new DirectoryRASRunIndex(rasDirectory, gson, mockTimeService);
+        assertThat(getIndexedRequestors(index)).containsExactly("U1:bob");
+
+        // Change the structure file without telling the index
+        createRun("U1", "jim", "Passed", Instant.parse("2025-01-01T10:00:00Z"));
+        Path structureFile = runDirectory.resolve("structure.json");
+        Files.setLastModifiedTime(structureFile, FileTime.fromMillis(Files.getLastModifiedTime(structureFile).toMillis() + 5000));
+
+        // When...
+        List<String> beforeTheInterval = getIndexedRequestors(index);
+
+        mockTimeService.setCurrentTime(mockTimeService.now().plusMillis(DirectoryRASRunIndex.RECONCILE_INTERVAL_MILLIS));
+        List<String> afterTheInterval = getIndexedRequestors(index);
+
+        createRun("U2", "bob", "Passed", Instant.parse("2025-01-01T11:00:00Z"));
+        List<String> afterANewRun = getIndexedRequestors(index);
+
+        // Then...
+        assertThat(beforeTheInterval).containsExactly("U1:bob");
+        assertThat(afterTheInterval).containsExactly("U1:jim");
+        assertThat(afterANewRun).containsExactlyInAnyOrder("U1:jim", "U2:bob");
+    }
+
+    @Test
+    public void testCompactingTheIndexKeepsRunsAppendedByAnotherEngine() throws Exception {
+        // Given...
+        Path run1Directory = createRun("U1", "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z"));
+        DirectoryRASRunIndex index = new DirectoryRASRunIndex(rasDirectory, gson);
+        DirectoryRASRunIndex otherEngineIndex = new DirectoryRASRunIndex(rasDirectory, gson);
+        index.getEntries();
+        otherEngineIndex.getEntries();
+
+        TestStructure run1Structure = gson.fromJson(Files.readString(run1Directory.resolve("structure.json")), TestStructure.class);
+        for (int i = 0; i < 1000; i++) {
+            index.update(run1Directory, run1Structure);
+        }
+
+        Path run2Directory = createRun("U2", "jim", "Passed", Instant.parse("2025-01-01T11:00:00Z"));
+        TestStructure run2Structure = gson.fromJson(Files.readString(run2Directory.resolve("structure.json")), TestStructure.class);
+        otherEngineIndex.update(run2Directory, run2Structure);
+
+        // When...
+        List<String> requestors = getIndexedRequestors(index);
+
+        // Then...
+        assertThat(requestors).containsExactlyInAnyOrder("U1:bob", "U2:jim");
+        assertThat(Files.readAllLines(rasDirectory.resolve(DirectoryRASRunIndex.INDEX_FILE_NAME))).hasSize(2);
+        assertThat(rasDirectory.resolve(DirectoryRASRunIndex.LOCK_FILE_NAME)).exists();
+
+        // The other engine notices the index has been rewritten and reads it again
+        assertThat(getIndexedRequestors(otherEngineIndex)).containsExactlyInAnyOrder("U1:bob", "U2:jim");
+    }
+
+    @Test
+    public void testDamagedIndexLinesAreIgnoredAndTheRunsReindexed() throws Exception {
+        // Given...
+        createRun("U1", "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z"));
+        Files.write(rasDirectory.resolve(DirectoryRASRunIndex.INDEX_FILE_NAME), "{\"runDirectory\":\"U1\", broken\n".getBytes(StandardCharsets.UTF_8));
+
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+
+        // When...
+        List<IRunResult> runs = directoryService.getRuns();
+
+        // Then...
+        assertThat(getRunNames(runs)).containsExactly("U1");
+    }
+
+    @Test
+    public void testRunsPageUsesCursorsToWorkThroughAllMatchingRuns() throws Exception {
+        // Given...
+        for (int i = 1; i <= 5; i++) {
+            createRun("U" + i, "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z").plusSeconds(i * 60));
+        }
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+        RasSortField newestFirst = new RasSortField("queued", "desc");
+
+        // When...
+        RasRunResultPage page1 = directoryService.getRunsPage(2, newestFirst, null);
+
+        // A new run arriving between pages doesn't move the runs on the later pages
+        createRun("U6", "bob", "Passed", Instant.parse("2025-01-01T11:00:00Z"));
+
+        RasRunResultPage page2 = directoryService.getRunsPage(2, newestFirst, page1.getNextCursor());
+        RasRunResultPage page3 = directoryService.getRunsPage(2, newestFirst, page2.getNextCursor());
+
+        // Then...
+        assertThat(getRunNames(page1.getRuns())).containsExactly("U5", "U4");
+        assertThat(getRunNames(page2.getRuns())).containsExactly("U3", "U2");
+        assertThat(getRunNames(page3.getRuns())).containsExactly("U1");
+        assertThat(page3.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testRunsPageWithNoMaximumReturnsAllRunsInOnePage() throws Exception {
+        // Given...
+        for (int i = 1; i <= 3; i++) {
+            createRun("U" + i, "bob", "Passed", Instant.parse("2025-01-01T10:00:00Z").plusSeconds(i * 60));
+        }
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+
+        // When...
+        RasRunResultPage page = directoryService.getRunsPage(0, new RasSortField("runname", "asc"), null);
+
+        // Then...
+        assertThat(getRunNames(page.getRuns())).containsExactly("U1", "U2", "U3");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testRunsPageWithAnInvalidCursorFails() throws Exception {
+        // Given...
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> directoryService.getRunsPage(2, null, "not-a-cursor!"));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ResultArchiveStoreException.class).hasMessageContaining("Invalid page cursor");
+    }
+}
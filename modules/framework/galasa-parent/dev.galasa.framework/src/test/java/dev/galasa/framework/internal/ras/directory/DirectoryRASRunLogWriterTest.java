@@ -0,0 +1,112 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockTimeService;
+
+public class DirectoryRASRunLogWriterTest {
+
+    private Path runDirectory;
+    private Path runLog;
+
+    private MockTimeService mockTimeService = new MockTimeService(Instant.EPOCH);
+
+    @Before
+    public void before() throws IOException {
+        this.runDirectory = Files.createTempDirectory("galasa_junit_ras_log_");
+        this.runLog = runDirectory.resolve("run.log");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteDirectory(this.runDirectory.toFile());
+    }
+
+    private String readRunLog() throws IOException {
+        return new String(Files.readAllBytes(runLog), StandardCharsets.UTF_8);
+    }
+
+    private byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testMessagesAreBufferedUntilFlushed() throws Exception {
+        // Given...
+        DirectoryRASRunLogWriter writer = new DirectoryRASRunLogWriter(runLog, 1024, 1000, mockTimeService);
+
+        // When...
+        writer.write(bytes("line 1\n"));
+        writer.write(bytes("line 2\n"));
+        String contentsBeforeFlush = readRunLog();
+        writer.flush();
+
+        // Then...
+        assertThat(contentsBeforeFlush).isEmpty();
+        assertThat(readRunLog()).isEqualTo("line 1\nline 2\n");
+
+        writer.close();
+    }
+
+    @Test
+    public void testBufferIsWrittenOnceTheFlushIntervalHasPassed() throws Exception {
+        // Given...
+        DirectoryRASRunLogWriter writer = new DirectoryRASRunLogWriter(runLog, 1024, 1000, mockTimeService);
+        writer.write(bytes("line 1\n"));
+
+        // When...
+        mockTimeService.setCurrentTime(Instant.EPOCH.plusMillis(1001));
+        writer.write(bytes("line 2\n"));
+
+        // Then...
+        assertThat(readRunLog()).isEqualTo("line 1\nline 2\n");
+
+        writer.close();
+    }
+
+    @Test
+    public void testMessagesLargerThanTheBufferAreWrittenInOrder() throws Exception {
+        // Given...
+        DirectoryRASRunLogWriter writer = new DirectoryRASRunLogWriter(runLog, 16, 1000, mockTimeService);
+        String largeMessage = "This message is much longer than the buffer\n";
+
+        // When...
+        writer.write(bytes("short\n"));
+        writer.write(bytes(largeMessage));
+        writer.write(bytes("end\n"));
+        writer.close();
+
+        // Then...
+        assertThat(readRunLog()).isEqualTo("short\n" + largeMessage + "end\n");
+    }
+
+    @Test
+    public void testMessagesWrittenAfterCloseAreStillAppended() throws Exception {
+        // Given...
+        DirectoryRASRunLogWriter writer = new DirectoryRASRunLogWriter(runLog, 1024, 1000, mockTimeService);
+        writer.write(bytes("before close\n"));
+        writer.close();
+
+        // When...
+        writer.write(bytes("after close\n"));
+
+        // Then...
+        assertThat(readRunLog()).isEqualTo("before close\nafter close\n");
+    }
+}
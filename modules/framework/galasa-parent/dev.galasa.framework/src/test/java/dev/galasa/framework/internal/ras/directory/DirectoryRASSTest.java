@@ -154,6 +154,7 @@ public class DirectoryRASSTest {
         drass.writeLog(message1);
         drass.writeLog(message2);
         drass.writeLog(messages);
+        drass.flush();
 
         final List<String> readMessages = Files.readAllLines(this.rasDirectory.resolve(runname).resolve("run.log"));
 
@@ -163,4 +164,51 @@ public class DirectoryRASSTest {
         Assert.assertEquals("message 1 wrong", messages.get(1), readMessages.get(3));
     }
 
+    @Test
+    public void testUpdateTestStructureWritesOutTheRunLog() throws ResultArchiveStoreException, IOException {
+        DirectoryResultArchiveStoreService drass = new DirectoryResultArchiveStoreService(framework,
+                this.rasDirectory.toUri());
+
+        drass.writeLog("Logged before the checkpoint");
+
+        final Path pathRunLog = this.rasDirectory.resolve(runname).resolve("run.log");
+        Assert.assertEquals("run log should be buffered", 0, Files.size(pathRunLog));
+
+        drass.updateTestStructure(new TestStructure());
+
+        final List<String> readMessages = Files.readAllLines(pathRunLog);
+        Assert.assertEquals("run log should have been written at the checkpoint", "Logged before the checkpoint", readMessages.get(0));
+        Assert.assertFalse("temporary test structure file should have been renamed",
+                Files.exists(this.rasDirectory.resolve(runname).resolve("structure.json.tmp")));
+    }
+
+    @Test
+    public void testUpdateTestStructureAddsTheRunToTheRunIndex() throws ResultArchiveStoreException, IOException {
+        DirectoryResultArchiveStoreService drass = new DirectoryResultArchiveStoreService(framework,
+                this.rasDirectory.toUri());
+
+        final TestStructure writeStructure = new TestStructure();
+        writeStructure.setRunName(runname);
+        writeStructure.setResult("Passed");
+        drass.updateTestStructure(writeStructure);
+
+        final List<String> indexLines = Files.readAllLines(this.rasDirectory.resolve(DirectoryRASRunIndex.INDEX_FILE_NAME));
+        Assert.assertEquals("run index should have one entry", 1, indexLines.size());
+
+        final List<String> resultNames = drass.getDirectoryServices().get(0).getResultNames();
+        Assert.assertEquals("result should come from the run index", "Passed", resultNames.get(0));
+    }
+
+    @Test
+    public void testShutdownWritesOutTheRunLog() throws ResultArchiveStoreException, IOException {
+        DirectoryResultArchiveStoreService drass = new DirectoryResultArchiveStoreService(framework,
+                this.rasDirectory.toUri());
+
+        drass.writeLog("Last message");
+        drass.shutdown();
+
+        final List<String> readMessages = Files.readAllLines(this.rasDirectory.resolve(runname).resolve("run.log"));
+        Assert.assertEquals("run log should have been written at shutdown", "Last message", readMessages.get(0));
+    }
+
 }
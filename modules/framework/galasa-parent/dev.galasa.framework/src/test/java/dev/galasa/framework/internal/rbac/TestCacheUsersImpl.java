@@ -17,6 +17,7 @@ import dev.galasa.framework.mocks.MockIDynamicStatusStoreService;
 import dev.galasa.framework.mocks.MockRBACService;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.mocks.MockUser;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
 import dev.galasa.framework.spi.rbac.Action;
 
 import static org.assertj.core.api.Assertions.*;
@@ -243,4 +244,130 @@ public class TestCacheUsersImpl {
         // Then...
         assertThat(priorityGotBack).isEqualTo(0);
     }
+
+    @Test
+    public void testIsActionPermittedReadsFromMemoryWhenUserIsCached() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        String loginId = "bob";
+        Map<String, String> dssData = mockDssService.data;
+        dssData.put("user." + loginId + ".actions", "GENERAL_API_ACCESS,CPS_PROPERTIES_SET");
+
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        CacheUsers cache = new CacheUsersImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        assertThat(cache.isActionPermitted(loginId, GENERAL_API_ACCESS.getAction().getId())).isTrue();
+
+        // When...
+        // *** The DSS entry goes without a watch event, so only memory has the user
+        dssData.clear();
+
+        // Then...
+        assertThat(cache.isActionPermitted(loginId, CPS_PROPERTIES_SET.getAction().getId())).isTrue();
+        assertThat(cache.isActionPermitted(loginId, SECRETS_SET.getAction().getId())).isFalse();
+    }
+
+    @Test
+    public void testUserInvalidatedByAnotherPodIsDroppedFromMemory() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        String loginId = "bob";
+        String actionsKey = "user." + loginId + ".actions";
+        Map<String, String> dssData = mockDssService.data;
+        dssData.put(actionsKey, "GENERAL_API_ACCESS");
+
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        CacheUsers cache = new CacheUsersImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        assertThat(cache.isActionPermitted(loginId, GENERAL_API_ACCESS.getAction().getId())).isTrue();
+
+        // When...
+        // *** Another pod invalidates the user, then caches their new role
+        dssData.remove(actionsKey);
+        mockDssService.notifyPrefixWatchers(actionsKey, IDynamicStatusStoreWatcher.Event.DELETE, "GENERAL_API_ACCESS", null);
+        dssData.put(actionsKey, "SECRETS_SET");
+
+        // Then...
+        assertThat(cache.isActionPermitted(loginId, GENERAL_API_ACCESS.getAction().getId())).isFalse();
+        assertThat(cache.isActionPermitted(loginId, SECRETS_SET.getAction().getId())).isTrue();
+    }
+
+    @Test
+    public void testUserIsReadAgainWhenHeldInMemoryTooLong() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        String loginId = "bob";
+        Map<String, String> dssData = mockDssService.data;
+        dssData.put("user." + loginId + ".priority", "100");
+
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        CacheUsers cache = new CacheUsersImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        assertThat(cache.getUserPriority(loginId)).isEqualTo(100);
+
+        // When...
+        dssData.put("user." + loginId + ".priority", "200");
+        int priorityBeforeExpiry = cache.getUserPriority(loginId);
+        timeService.sleepMillis(11 * 60 * 1000);
+        int priorityAfterExpiry = cache.getUserPriority(loginId);
+
+        // Then...
+        assertThat(priorityBeforeExpiry).isEqualTo(100);
+        assertThat(priorityAfterExpiry).isEqualTo(200);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedUserIsDroppedFromMemoryWhenTooManyAreHeld() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+        Map<String, String> dssData = mockDssService.data;
+
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        CacheUsersImpl cache = new CacheUsersImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+
+        for (int i = 0; i < CacheUsersImpl.MAX_IN_MEMORY_USERS; i++) {
+            dssData.put("user.user" + i + ".priority", "100");
+            cache.getUserPriority("user" + i);
+        }
+
+        // When...
+        // *** user0 is used again, so user1 becomes the least recently used
+        cache.getUserPriority("user0");
+        dssData.put("user.newUser.priority", "100");
+        cache.getUserPriority("newUser");
+
+        dssData.put("user.user0.priority", "200");
+        dssData.put("user.user1.priority", "200");
+
+        // Then...
+        assertThat(cache.getInMemoryUserCount()).isEqualTo(CacheUsersImpl.MAX_IN_MEMORY_USERS);
+        assertThat(cache.getUserPriority("user0")).isEqualTo(100);
+        assertThat(cache.getUserPriority("user1")).isEqualTo(200);
+    }
+
+    @Test
+    public void testShutdownStopsWatchingForInvalidatedUsers() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        CacheUsers cache = new CacheUsersImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        assertThat(mockDssService.prefixWatchers).containsOnlyKeys("user.");
+
+        // When...
+        cache.shutdown();
+
+        // Then...
+        assertThat(mockDssService.prefixWatchers).isEmpty();
+    }
 }
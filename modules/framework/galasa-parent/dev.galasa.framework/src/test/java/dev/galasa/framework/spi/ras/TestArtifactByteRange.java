@@ -0,0 +1,50 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.ras;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class TestArtifactByteRange {
+
+    @Test
+    public void testBoundedRangeIsParsed() {
+        // When...
+        ArtifactByteRange range = ArtifactByteRange.parse("bytes=100-199");
+
+        // Then...
+        assertThat(range.getFirstBytePosition()).isEqualTo(100);
+        assertThat(range.getLastBytePosition()).isEqualTo(199);
+        assertThat(range.toHeaderValue()).isEqualTo("bytes=100-199");
+    }
+
+    @Test
+    public void testOpenEndedAndSuffixRangesAreParsed() {
+        // When...
+        ArtifactByteRange openEnded = ArtifactByteRange.parse("bytes=1024-");
+        ArtifactByteRange suffix = ArtifactByteRange.parse("bytes=-500");
+
+        // Then...
+        assertThat(openEnded.getFirstBytePosition()).isEqualTo(1024);
+        assertThat(openEnded.getLastBytePosition()).isNull();
+        assertThat(openEnded.toHeaderValue()).isEqualTo("bytes=1024-");
+
+        assertThat(suffix.getFirstBytePosition()).isNull();
+        assertThat(suffix.getLastBytePosition()).isEqualTo(500);
+        assertThat(suffix.toHeaderValue()).isEqualTo("bytes=-500");
+    }
+
+    @Test
+    public void testRangesWhichCannotBeHonouredAreIgnored() {
+        assertThat(ArtifactByteRange.parse(null)).isNull();
+        assertThat(ArtifactByteRange.parse("bytes=-")).isNull();
+        assertThat(ArtifactByteRange.parse("bytes=10-5")).isNull();
+        assertThat(ArtifactByteRange.parse("bytes=0-1,4-5")).isNull();
+        assertThat(ArtifactByteRange.parse("lines=0-10")).isNull();
+        assertThat(ArtifactByteRange.parse("bytes=99999999999999999999-")).isNull();
+    }
+}
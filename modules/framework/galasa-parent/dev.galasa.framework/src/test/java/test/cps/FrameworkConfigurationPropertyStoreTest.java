@@ -11,6 +11,10 @@ import static org.assertj.core.api.Assertions.*;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.junit.After;
@@ -19,6 +23,8 @@ import org.junit.Test;
 
 import dev.galasa.framework.internal.cps.FpfConfigurationPropertyStore;
 import dev.galasa.framework.internal.cps.FrameworkConfigurationPropertyService;
+import dev.galasa.framework.internal.cps.PropertyResolutionCache;
+import dev.galasa.framework.mocks.MockCPSStore;
 import dev.galasa.framework.mocks.MockFramework;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 
@@ -241,4 +247,91 @@ public class FrameworkConfigurationPropertyStoreTest {
 
         assertThat(record).hasSize(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testResolutionCacheGivesTheSameValuesAndRecordWithFewerStoreLookups() throws Exception {
+        // Given...
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("zos.image.PLEXMA.credentialid", "Waddup");
+        cpsProperties.put("zos.image.credentialid", "tab!=space");
+        List<String> keysLookedUp = new ArrayList<>();
+        MockCPSStore cpsStore = new CountingCPSStore(cpsProperties, keysLookedUp);
+
+        Properties uncachedRecord = new Properties();
+        FrameworkConfigurationPropertyService uncached = new FrameworkConfigurationPropertyService(new MockFramework(),
+                cpsStore, new Properties(), uncachedRecord, "zos");
+        Properties cachedRecord = new Properties();
+        FrameworkConfigurationPropertyService cached = new FrameworkConfigurationPropertyService(new MockFramework(),
+                cpsStore, new Properties(), cachedRecord, "zos", new PropertyResolutionCache());
+
+        String uncachedCredentials = uncached.getProperty("image", "credentialid", "PLEXMA", "MVMA");
+        String uncachedMissing = uncached.getProperty("image", "missing", "PLEXMA", "MVMA");
+        keysLookedUp.clear();
+
+        // When...
+        cached.getProperty("image", "credentialid", "PLEXMA", "MVMA");
+        cached.getProperty("image", "missing", "PLEXMA", "MVMA");
+        keysLookedUp.clear();
+        cachedRecord.clear();
+        String cachedCredentials = cached.getProperty("image", "credentialid", "PLEXMA", "MVMA");
+        String cachedMissing = cached.getProperty("image", "missing", "PLEXMA", "MVMA");
+
+        // Then...
+        assertThat(cachedCredentials).isEqualTo(uncachedCredentials).isEqualTo("Waddup");
+        assertThat(cachedMissing).isEqualTo(uncachedMissing).isNull();
+        assertThat(cachedRecord).isEqualTo(uncachedRecord);
+        assertThat(keysLookedUp).containsExactly("zos.image.PLEXMA.credentialid");
+    }
+
+    @Test
+    public void testResolutionCacheStillSeesOverridesAddedLater() throws Exception {
+        // Given...
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("zos.image.credentialid", "fromcps");
+        Properties overrides = new Properties();
+        Properties record = new Properties();
+        FrameworkConfigurationPropertyService test = new FrameworkConfigurationPropertyService(new MockFramework(),
+                new MockCPSStore(cpsProperties), overrides, record, "zos", new PropertyResolutionCache());
+        assertThat(test.getProperty("image", "credentialid", "PLEXMA")).isEqualTo("fromcps");
+
+        // When...
+        overrides.setProperty("zos.image.PLEXMA.credentialid", "fromoverrides");
+
+        // Then...
+        assertThat(test.getProperty("image", "credentialid", "PLEXMA")).isEqualTo("fromoverrides");
+        assertThat(record.getProperty("zos.image.PLEXMA.credentialid._source")).isEqualTo("overrides");
+    }
+
+    @Test
+    public void testResolutionCacheSeesPropertiesSetThroughTheFramework() throws Exception {
+        // Given...
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("zos.image.credentialid", "general");
+        PropertyResolutionCache resolutionCache = new PropertyResolutionCache();
+        FrameworkConfigurationPropertyService test = new FrameworkConfigurationPropertyService(new MockFramework(),
+                new MockCPSStore(cpsProperties), new Properties(), new Properties(), "zos", resolutionCache);
+        assertThat(test.getProperty("image", "credentialid", "PLEXMA")).isEqualTo("general");
+
+        // When...
+        test.setProperty("image.PLEXMA.credentialid", "specific");
+
+        // Then...
+        assertThat(test.getProperty("image", "credentialid", "PLEXMA")).isEqualTo("specific");
+        assertThat(resolutionCache.size()).isEqualTo(1);
+    }
+
+    private static class CountingCPSStore extends MockCPSStore {
+        private final List<String> keysLookedUp;
+
+        public CountingCPSStore(Map<String, String> properties, List<String> keysLookedUp) {
+            super(properties);
+            this.keysLookedUp = keysLookedUp;
+        }
+
+        @Override
+        public String getProperty(String key) throws ConfigurationPropertyStoreException {
+            keysLookedUp.add(key);
+            return super.getProperty(key);
+        }
+    }
+}
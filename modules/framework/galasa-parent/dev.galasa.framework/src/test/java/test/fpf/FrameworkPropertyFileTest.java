@@ -13,16 +13,20 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -278,6 +282,128 @@ public class FrameworkPropertyFileTest {
         fpf.destroy();
     }
 
+    /**
+     * <p>
+     * This tests that only the keys starting with a prefix are returned, and that
+     * the namespaces are found from the keys.
+     * </p>
+     */
+    @Test
+    public void testGetPrefixAndNamespaces() throws FrameworkPropertyFileException, IOException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        fpf.set("prefix.infiy.suffix", "before");
+        fpf.set("prefix.infix", "exact");
+        fpf.set("prefix.infix\uffff", "last");
+        fpf.set("prefix.infiy", "after");
+
+        Map<String, String> values = fpf.getPrefix("prefix.infix");
+
+        assertEquals("Prefix values were not as expected", 4, values.size());
+        assertEquals("Prefix value was not as expected", "exact", values.get("prefix.infix"));
+        assertEquals("Prefix value was not as expected", "SomeString1", values.get("prefix.infix.suffix1"));
+        assertTrue("Prefix keys were not as expected", fpf.getPrefixKeysOnly("prefix.infix").containsAll(values.keySet()));
+        assertEquals("Prefix keys were not as expected", 6, fpf.getPrefixKeysOnly("prefix.").size());
+
+        fpf.delete(Set.of("Test1", "Test2", "RootPasswordForEverySystemEver", "anotherString"));
+        fpf.set("zzz.key", "value");
+        fpf.set("prefiw.key", "value");
+        fpf.set("prefix-other.key", "value");
+
+        assertEquals("Namespaces were not as expected", List.of("prefiw", "prefix-other", "prefix", "zzz"),
+                fpf.getNamespaces());
+        fpf.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that sets are appended to the properties file, which still reads as a
+     * normal properties file, and that a delete writes the file again without the
+     * earlier values.
+     * </p>
+     */
+    @Test
+    public void testSetsAreAppendedAndDeletesCompactTheFile() throws FrameworkPropertyFileException, IOException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        String original = new String(Files.readAllBytes(testProp.toPath()), StandardCharsets.ISO_8859_1);
+
+        fpf.set("Test1", "first");
+        fpf.set("Test1", "second = \u00e9");
+
+        String appended = new String(Files.readAllBytes(testProp.toPath()), StandardCharsets.ISO_8859_1);
+        assertTrue("The set was not appended to the file", appended.startsWith(original));
+        assertEquals("The file did not read as expected", "second = \u00e9", readFile().getProperty("Test1"));
+
+        fpf.delete("Test2");
+
+        String compacted = new String(Files.readAllBytes(testProp.toPath()), StandardCharsets.ISO_8859_1);
+        assertFalse("The file was not compacted", compacted.contains("first"));
+        assertEquals("The file did not read as expected", "second = \u00e9", readFile().getProperty("Test1"));
+        assertNull("The file did not read as expected", readFile().getProperty("Test2"));
+        assertEquals("The file did not read as expected", "admin", readFile().getProperty("RootPasswordForEverySystemEver"));
+        fpf.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that a change made by one FPF is not lost when another FPF,
+     * which has not seen the change, makes a change of its own.
+     * </p>
+     */
+    @Test
+    public void testChangesFromAnotherFpfAreNotLost() throws FrameworkPropertyFileException, IOException {
+        FrameworkPropertyFile fpf1 = new FrameworkPropertyFile(testPropUri);
+        FrameworkPropertyFile fpf2 = new FrameworkPropertyFile(testPropUri);
+
+        fpf1.set("fromFpf1", "one");
+        fpf2.set("fromFpf2", "two");
+        fpf1.deletePrefix("prefix.");
+        assertTrue("Atomic set did not see the other FPF's value", fpf2.setAtomic("fromFpf1", "one", "three"));
+
+        Properties file = readFile();
+        assertEquals("Change was lost", "three", file.getProperty("fromFpf1"));
+        assertEquals("Change was lost", "two", file.getProperty("fromFpf2"));
+        assertNull("Delete was lost", file.getProperty("prefix.infix.suffix1"));
+        assertEquals("Change was not read", "two", fpf1.get("fromFpf2"));
+        assertNull("Delete was not read", fpf2.get("prefix.infix.suffix1"));
+        fpf1.destroy();
+        fpf2.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that the properties are read again in full when the file is
+     * written by something else.
+     * </p>
+     */
+    @Test
+    public void testFileWrittenByAnotherProcessIsReadInFull() throws FrameworkPropertyFileException, IOException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        fpf.set("appended", "value");
+
+        Properties replacement = new Properties();
+        replacement.setProperty("replaced", "all of it");
+        try (FileOutputStream out = new FileOutputStream(testProp)) {
+            replacement.store(out, null);
+        }
+
+        fpf.set("another", "value");
+
+        assertNull("Old property was not removed", fpf.get("Test1"));
+        assertNull("Old property was not removed", fpf.get("appended"));
+        assertEquals("New property was not read", "all of it", fpf.get("replaced"));
+        assertEquals("Property was not set", "value", readFile().getProperty("another"));
+        assertNull("Old property was written back", readFile().getProperty("Test1"));
+        fpf.destroy();
+    }
+
+    private Properties readFile() throws IOException {
+        Properties properties = new Properties();
+        try (FileInputStream in = new FileInputStream(testProp)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
     /**
      * <p>
      * This tests to see if a watch can be created and that it detects changes to
@@ -0,0 +1,121 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.mocks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
+import dev.galasa.framework.spi.ras.IArtifactReadChannel;
+
+/**
+ * A channel which honours byte ranges and entity tags in the way a result archive
+ * store which supports them would.
+ */
+public class MockArtifactReadChannel implements SeekableByteChannel, IArtifactReadChannel {
+
+    private final byte[] contents;
+    private final String eTag;
+    private final boolean isNotModified;
+    private String contentRange;
+    private int start = 0;
+    private int end;
+    private int position = 0;
+
+    public MockArtifactReadChannel(byte[] contents, ArtifactByteRange range, ArtifactIfNoneMatch ifNoneMatch) {
+        this.contents = contents;
+        this.eTag = getETag(contents);
+        this.isNotModified = ifNoneMatch != null && ifNoneMatch.getEntityTags().contains(eTag);
+        this.end = contents.length;
+
+        if (range != null && !isNotModified) {
+            if (range.getFirstBytePosition() == null) {
+                start = (int) Math.max(0, contents.length - range.getLastBytePosition());
+            } else {
+                start = (int) Math.min(contents.length, range.getFirstBytePosition());
+                if (range.getLastBytePosition() != null) {
+                    end = (int) Math.min(contents.length, range.getLastBytePosition() + 1);
+                }
+            }
+            contentRange = "bytes " + start + "-" + (end - 1) + "/" + contents.length;
+        }
+    }
+
+    public static String getETag(byte[] contents) {
+        return "\"" + Arrays.hashCode(contents) + "\"";
+    }
+
+    @Override
+    public boolean isNotModified() {
+        return isNotModified;
+    }
+
+    @Override
+    public String getContentRange() {
+        return contentRange;
+    }
+
+    @Override
+    public long getContentLength() {
+        return isNotModified ? 0 : end - start;
+    }
+
+    @Override
+    public String getETag() {
+        return eTag;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int bytesRemaining = isNotModified ? 0 : end - start - position;
+        int bytesToRead = Math.min(dst.remaining(), bytesRemaining);
+
+        if (bytesToRead <= 0) {
+            return -1;
+        }
+
+        dst.put(contents, start + position, bytesToRead);
+        position += bytesToRead;
+        return bytesToRead;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        throw new UnsupportedOperationException("Unimplemented method 'write'");
+    }
+
+    @Override
+    public long position() throws IOException {
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        throw new UnsupportedOperationException("Unimplemented method 'position'");
+    }
+
+    @Override
+    public long size() throws IOException {
+        return getContentLength();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) throws IOException {
+        throw new UnsupportedOperationException("Unimplemented method 'truncate'");
+    }
+}
@@ -42,6 +42,11 @@ public class MockCacheUsers implements CacheUsers {
         cachedUsers.removeIf(user -> loginId.equals(user.getLoginId()));
     }
 
+    @Override
+    public void shutdown() {
+        // Nothing is watched
+    }
+
     @Override
     public void addUser(IUser user) throws RBACException {
         this.cachedUsers.add(user);
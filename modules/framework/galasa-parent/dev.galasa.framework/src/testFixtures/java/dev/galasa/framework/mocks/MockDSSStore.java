@@ -19,6 +19,10 @@ import javax.validation.constraints.Null;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.framework.spi.DssAdd;
+import dev.galasa.framework.spi.DssDelete;
+import dev.galasa.framework.spi.DssSwap;
+import dev.galasa.framework.spi.DssUpdate;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.IDssAction;
@@ -33,6 +37,7 @@ public class MockDSSStore implements IDynamicStatusStore, IDynamicStatusStoreSer
     private Map<String,String> valueMap ;
     private Log logger = LogFactory.getLog(MockDSSStore.class.getName());
     private boolean isSwapSetToFail = false;
+    private int performActionsCallCount = 0;
 
     public MockDSSStore(Map<String,String> valueMap) {
         this.valueMap = valueMap;
@@ -119,13 +124,46 @@ public class MockDSSStore implements IDynamicStatusStore, IDynamicStatusStoreSer
 
     @Override
     public void deletePrefix(@NotNull String keyPrefix) throws DynamicStatusStoreException {
-        throw new UnsupportedOperationException("Unimplemented method 'deletePrefix'");
+        this.valueMap.keySet().removeIf(key -> key.startsWith(keyPrefix));
     }
 
     @Override
     public void performActions(IDssAction... actions)
             throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
-        throw new UnsupportedOperationException("Unimplemented method 'performActions'");
+        performActionsCallCount++;
+
+        // Check all the conditions first, so that nothing changes if any of them fail
+        for (IDssAction action : actions) {
+            boolean isMatched = true;
+            if (action instanceof DssAdd) {
+                isMatched = !valueMap.containsKey(((DssAdd) action).getKey());
+            } else if (action instanceof DssSwap) {
+                DssSwap swap = (DssSwap) action;
+                isMatched = swap.getOldValue().equals(valueMap.get(swap.getKey()));
+            } else if (!(action instanceof DssUpdate) && !(action instanceof DssDelete)) {
+                throw new UnsupportedOperationException("Unimplemented DSS action " + action.getClass().getName());
+            }
+
+            if (!isMatched) {
+                throw new DynamicStatusStoreMatchException("DSS transaction failed - matches failed");
+            }
+        }
+
+        for (IDssAction action : actions) {
+            if (action instanceof DssAdd) {
+                valueMap.put(((DssAdd) action).getKey(), ((DssAdd) action).getValue());
+            } else if (action instanceof DssUpdate) {
+                valueMap.put(((DssUpdate) action).getKey(), ((DssUpdate) action).getValue());
+            } else if (action instanceof DssSwap) {
+                valueMap.put(((DssSwap) action).getKey(), ((DssSwap) action).getNewValue());
+            } else if (action instanceof DssDelete) {
+                valueMap.remove(((DssDelete) action).getKey());
+            }
+        }
+    }
+
+    public int getPerformActionsCallCount() {
+        return performActionsCallCount;
     }
 
     @Override
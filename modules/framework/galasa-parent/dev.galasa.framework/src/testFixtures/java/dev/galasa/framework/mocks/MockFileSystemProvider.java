@@ -27,6 +27,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import dev.galasa.framework.spi.ras.ArtifactByteRange;
+import dev.galasa.framework.spi.ras.ArtifactIfNoneMatch;
+
 public class MockFileSystemProvider extends FileSystemProvider {
 
     private String scheme = "file";
@@ -86,6 +89,20 @@ public class MockFileSystemProvider extends FileSystemProvider {
         }
 
         byte[] contents = mockFS.getContentsAsBytes(path);
+
+        ArtifactByteRange range = null;
+        ArtifactIfNoneMatch ifNoneMatch = null;
+        for (OpenOption option : options) {
+            if (option instanceof ArtifactByteRange) {
+                range = (ArtifactByteRange) option;
+            } else if (option instanceof ArtifactIfNoneMatch) {
+                ifNoneMatch = (ArtifactIfNoneMatch) option;
+            }
+        }
+        if (range != null || ifNoneMatch != null) {
+            return new MockArtifactReadChannel(contents, range, ifNoneMatch);
+        }
+
         return new SeekableByteChannel() {
             private int position = 0;
 
@@ -14,6 +14,7 @@ import java.util.Set;
 import javax.validation.constraints.NotNull;
 
 import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFrameworkRuns;
@@ -62,14 +63,19 @@ public class MockFrameworkRuns implements IFrameworkRuns {
 
     @Override
     public @NotNull List<IRun> getQueuedRuns() throws FrameworkException {
-        List<IRun> queuedRuns = new ArrayList<>();
+        return getRunsWithStatus(TestRunLifecycleStatus.QUEUED);
+    }
+
+    @Override
+    public @NotNull List<IRun> getRunsWithStatus(@NotNull TestRunLifecycleStatus status) throws FrameworkException {
+        List<IRun> matchingRuns = new ArrayList<>();
         for (IRun run : this.runs) {
             String runStatus = run.getStatus();
-            if (runStatus != null && runStatus.equals(TestRunLifecycleStatus.QUEUED.toString())) {
-                queuedRuns.add(run);
+            if (runStatus != null && runStatus.equals(status.toString())) {
+                matchingRuns.add(run);
             }
         }
-        return queuedRuns;
+        return matchingRuns;
     }
 
     @Override
@@ -100,6 +106,11 @@ public class MockFrameworkRuns implements IFrameworkRuns {
         throw new FrameworkException("Method not implemented in mock class.");
     }
 
+    @Override
+    public @NotNull List<IRun> submitRuns(@NotNull List<SubmitRunRequest> runRequests) throws FrameworkException {
+        throw new FrameworkException("Method not implemented in mock class.");
+    }
+
     @Override
     public boolean delete(String runname) throws DynamicStatusStoreException {
         deletedRunNames.add(runname);
@@ -11,7 +11,10 @@ import java.util.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Null;
 
+import dev.galasa.framework.spi.DssAdd;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DssSwap;
+import dev.galasa.framework.spi.DssUpdate;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.IDssAction;
@@ -46,6 +49,12 @@ public class MockIDynamicStatusStoreService implements IDynamicStatusStoreServic
 
     public Map<String,String> data = new HashMap<>();
 
+    public Map<String,IDynamicStatusStoreWatcher> prefixWatchers = new HashMap<>();
+
+    public Map<String,IDynamicStatusStoreWatcher> keyWatchers = new HashMap<>();
+
+    private Map<UUID,String> watchedKeysAndPrefixes = new HashMap<>();
+
     @Override
     public boolean putSwap(@NotNull String key, String oldValue, @NotNull String newValue) {
         // Don't record heartbeat events in the history. They are random how many there would be 
@@ -119,13 +128,52 @@ public class MockIDynamicStatusStoreService implements IDynamicStatusStoreServic
         }
     }
 
-    // ------------------- un-implemented methods follow --------------------
+    @Override
+    public void performActions(IDssAction... actions)
+            throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
+        // Check all the conditions first, so that nothing changes if any of them fail
+        for (IDssAction action : actions) {
+            if (action instanceof DssSwap) {
+                DssSwap swap = (DssSwap) action;
+                if (!swap.getOldValue().equals(data.get(swap.getKey()))) {
+                    throw new DynamicStatusStoreMatchException("DSS transaction failed - matches failed");
+                }
+            } else if (action instanceof DssAdd) {
+                if (data.containsKey(((DssAdd) action).getKey())) {
+                    throw new DynamicStatusStoreMatchException("DSS transaction failed - matches failed");
+                }
+            } else if (!(action instanceof DssUpdate)) {
+                throw new UnsupportedOperationException("Unimplemented DSS action " + action.getClass().getName());
+            }
+        }
+
+        for (IDssAction action : actions) {
+            if (action instanceof DssSwap) {
+                DssSwap swap = (DssSwap) action;
+                putSwap(swap.getKey(), swap.getOldValue(), swap.getNewValue());
+            } else if (action instanceof DssAdd) {
+                DssAdd add = (DssAdd) action;
+                put(add.getKey(), add.getValue());
+            } else if (action instanceof DssUpdate) {
+                DssUpdate update = (DssUpdate) action;
+                put(update.getKey(), update.getValue());
+            }
+        }
+    }
 
     @Override
     public @NotNull Map<String, String> getPrefix(@NotNull String keyPrefix) throws DynamicStatusStoreException {
-               throw new UnsupportedOperationException("Unimplemented method 'getPrefix'");
+        Map<String, String> results = new HashMap<>();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (entry.getKey().startsWith(keyPrefix)) {
+                results.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return results;
     }
 
+    // ------------------- un-implemented methods follow --------------------
+
     @Override
     public Collection<String> getPrefixKeysOnly(@NotNull String keyPrefix) throws DynamicStatusStoreException {
                 throw new UnsupportedOperationException("Unimplemented method 'getPrefixKeysOnly'");
@@ -136,25 +184,56 @@ public class MockIDynamicStatusStoreService implements IDynamicStatusStoreServic
                throw new UnsupportedOperationException("Unimplemented method 'delete'");
     }
 
+
     @Override
-    public void performActions(IDssAction... actions)
-            throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
-               throw new UnsupportedOperationException("Unimplemented method 'performActions'");
+    public synchronized UUID watch(IDynamicStatusStoreWatcher watcher, String key) throws DynamicStatusStoreException {
+        keyWatchers.put(key, watcher);
+        UUID watchId = UUID.randomUUID();
+        watchedKeysAndPrefixes.put(watchId, key);
+        return watchId;
     }
 
     @Override
-    public UUID watch(IDynamicStatusStoreWatcher watcher, String key) throws DynamicStatusStoreException {
-               throw new UnsupportedOperationException("Unimplemented method 'watch'");
+    public synchronized UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
+        prefixWatchers.put(keyPrefix, watcher);
+        UUID watchId = UUID.randomUUID();
+        watchedKeysAndPrefixes.put(watchId, keyPrefix);
+        return watchId;
     }
 
-    @Override
-    public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
-               throw new UnsupportedOperationException("Unimplemented method 'watchPrefix'");
+    /**
+     * Tell the watcher of a key that it has changed, as another process would have done
+     */
+    public void notifyKeyWatcher(String key, IDynamicStatusStoreWatcher.Event event, String oldValue, String newValue) {
+        IDynamicStatusStoreWatcher watcher;
+        synchronized (this) {
+            watcher = keyWatchers.get(key);
+        }
+        if (watcher != null) {
+            watcher.propertyModified(key, event, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Tell the watchers of any matching prefix that a property has changed, as
+     * another process would have done
+     */
+    public void notifyPrefixWatchers(String key, IDynamicStatusStoreWatcher.Event event, String oldValue, String newValue) {
+        for (Map.Entry<String,IDynamicStatusStoreWatcher> entry : prefixWatchers.entrySet()) {
+            if (key.startsWith(entry.getKey())) {
+                entry.getValue().propertyModified(key, event, oldValue, newValue);
+            }
+        }
     }
 
     @Override
-    public void unwatch(UUID watchId) throws DynamicStatusStoreException {
-               throw new UnsupportedOperationException("Unimplemented method 'unwatch'");
+    public synchronized void unwatch(UUID watchId) throws DynamicStatusStoreException {
+        String keyOrPrefix = watchedKeysAndPrefixes.remove(watchId);
+        if (keyOrPrefix == null) {
+            throw new DynamicStatusStoreException("Unknown watch " + watchId);
+        }
+        keyWatchers.remove(keyOrPrefix);
+        prefixWatchers.remove(keyOrPrefix);
     }
 
     @Override
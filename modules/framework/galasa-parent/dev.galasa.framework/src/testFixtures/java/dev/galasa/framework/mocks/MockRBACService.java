@@ -125,4 +125,9 @@ public class MockRBACService implements RBACService {
     public int getUserPriority(String loginId) throws RBACException {
         return usersCache.getUserPriority(loginId);
     }
+
+    @Override
+    public void shutdown() {
+        usersCache.shutdown();
+    }
 }
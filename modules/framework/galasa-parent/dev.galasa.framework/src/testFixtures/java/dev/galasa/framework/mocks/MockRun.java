@@ -42,6 +42,7 @@ public class MockRun implements IRun {
     private Set<String> tags = new HashSet<String>();
     private List<String> requestedTestMethods = new ArrayList<>();
     private Instant finishedTime;
+    private boolean isTrace = true;
 
     public MockRun(
         String testBundleName,
@@ -279,7 +280,11 @@ public class MockRun implements IRun {
 
     @Override
     public boolean isTrace() {
-        return true;
+        return isTrace;
+    }
+
+    public void setTrace(boolean isTrace) {
+        this.isTrace = isTrace;
     }
 
     @Override
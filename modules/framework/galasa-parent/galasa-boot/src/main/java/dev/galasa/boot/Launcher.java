@@ -71,6 +71,7 @@ public class Launcher {
     private static final String     METRICSERVER_OPTION       = "metricserver";
     private static final String     TEST_OPTION               = "test";
     private static final String     RUN_OPTION                = "run";
+    private static final String     WARM_OPTION               = "warm";
     private static final String     GHERKIN_OPTION            = "gherkin";
     private static final String     BUNDLE_OPTION             = "bundle";
     private static final String     METRICS_OPTION            = "metrics";
@@ -103,6 +104,7 @@ public class Launcher {
     private Properties              overridesProperties;
 
     private boolean                 isTestRun;
+    private boolean                 isWarmEngine;
     private boolean                 isResourceManagement;
     private boolean                 isK8sController;
     private boolean                 isMetricsServer;
@@ -196,6 +198,15 @@ public class Launcher {
                 } else if (runName != null) {
                     logger.debug("Test Run: " + runName);
                     overridesProperties.setProperty("framework.run.name", this.runName);
+                } else if (isWarmEngine) {
+                    logger.debug("Warm engine, waiting to be handed a run");
+                    String handedRunName = felixFramework.waitForRun(bootstrapProperties, overridesProperties);
+                    if (handedRunName == null) {
+                        logger.info("Warm engine retired without being handed a run");
+                        return;
+                    }
+                    logger.debug("Test Run: " + handedRunName);
+                    overridesProperties.setProperty("framework.run.name", handedRunName);
                 } else {
                     logger.debug("Gherkin Run: " + gherkinName.toString());
                     overridesProperties.setProperty("framework.run.gherkintest", this.gherkinName);
@@ -289,6 +300,7 @@ public class Launcher {
         options.addOption(null, METRICSERVER_OPTION, false, "A Metrics server");
         options.addOption(null, TEST_OPTION, true, "The test to run");
         options.addOption(null, RUN_OPTION, true, "The run name");
+        options.addOption(null, WARM_OPTION, false, "Start a warm engine, which waits for the k8s Controller to hand it a run");
         options.addOption(null, GHERKIN_OPTION, true, "The gherkin test to run");
         options.addOption(null, BUNDLE_OPTION, true, "Extra bundles to load");
         options.addOption(null, METRICS_OPTION, true, "The port the metrics server will open, 0 to disable");
@@ -367,7 +379,8 @@ public class Launcher {
         checkForResourceMonitorIncludesAndExcludes(commandLine);
         checkForTestMethods(commandLine);
 
-        isTestRun = commandLine.hasOption(TEST_OPTION) || commandLine.hasOption(RUN_OPTION) || commandLine.hasOption(GHERKIN_OPTION);
+        isWarmEngine = commandLine.hasOption(WARM_OPTION);
+        isTestRun = commandLine.hasOption(TEST_OPTION) || commandLine.hasOption(RUN_OPTION) || commandLine.hasOption(GHERKIN_OPTION) || isWarmEngine;
         isResourceManagement = commandLine.hasOption(RESOURCEMANAGEMENT_OPTION);
         isK8sController = commandLine.hasOption(K8SCONTROLLER_OPTION);
         isMetricsServer = commandLine.hasOption(METRICSERVER_OPTION);
@@ -398,6 +411,8 @@ public class Launcher {
                 }
             } else if (gherkinName != null) {
                 return;
+            } else if (isWarmEngine) {
+                return;
             } else {
                 commandLineError("Error: A valid run, java test or gherkin test must be supplied");
             }
@@ -435,6 +450,7 @@ public class Launcher {
         commandLineError(
                 "Error: Must select either --" + TEST_OPTION
                 		+ ", --" + RUN_OPTION
+                		+ ", --" + WARM_OPTION
                 		+ ", --" + GHERKIN_OPTION
                 		+ ", --" + K8SCONTROLLER_OPTION
                 		+ ", --" + METRICSERVER_OPTION
@@ -55,6 +55,9 @@ public class FelixFramework {
 
     private static final String UBER_OBR_ARTIFACT_ID = "dev.galasa.uber.obr";
 
+    private static final String RESOLUTION_PLAN_CACHE_ENABLED_PROP   = "framework.resolution.plan.cache.enabled";
+    private static final String RESOLUTION_PLAN_CACHE_DIRECTORY_PROP = "framework.resolution.plan.cache.directory";
+
     protected Framework framework;
 
     protected RepositoryAdmin repositoryAdmin;
@@ -69,6 +72,8 @@ public class FelixFramework {
         
     private File felixCache;
 
+    protected ResolutionPlanCache resolutionPlans;
+
     /**
      * Initialise and start the Felix framework. Install required bundles and the
      * OBRs. Install the Galasa framework bundle
@@ -132,6 +137,7 @@ public class FelixFramework {
 
             // Load the OSGi Bundle Repositories
             loadBundleRepositories(bundleRepositories);
+            createResolutionPlanCache(boostrapProperties, cacheParent);
 
             // Install and start the Felix OSGi console if required
             loadConsole = Boolean.parseBoolean(boostrapProperties.getProperty("dev.galasa.core.load.console", "false"));
@@ -284,6 +290,54 @@ public class FelixFramework {
         }
     }
 
+    /**
+     * Wait for the k8s Controller to hand this warm engine a run
+     * 
+     * @param boostrapProperties  the bootstrap properties
+     * @param overridesProperties the override properties
+     * @return the name of the run, or null if the engine was retired without one
+     * @throws LauncherException
+     */
+    public String waitForRun(Properties boostrapProperties, Properties overridesProperties) throws LauncherException {
+
+        // Get the framework bundle
+        Bundle frameWorkBundle = getBundle("dev.galasa.framework");
+
+        // Get the dev.galasa.framework.WarmEngine class service
+        String classString = "dev.galasa.framework.WarmEngine";
+        String filterString = "(" + Constants.OBJECTCLASS + "=" + classString + ")";
+        ServiceReference<?>[] serviceReferences;
+        try {
+            serviceReferences = frameWorkBundle.getBundleContext().getServiceReferences(classString, filterString);
+        } catch (InvalidSyntaxException e) {
+            throw new LauncherException("Unable to get framework service reference", e);
+        }
+        if (serviceReferences == null || serviceReferences.length != 1) {
+            throw new LauncherException("Unable to get single reference to WarmEngine service: "
+                    + ((serviceReferences == null) ? 0 : serviceReferences.length) + " service(s) returned");
+        }
+        Object service = frameWorkBundle.getBundleContext().getService(serviceReferences[0]);
+        if (service == null) {
+            throw new LauncherException("Unable to get WarmEngine service");
+        }
+
+        // Get the dev.galasa.framework.WarmEngine#waitForRun(Properties, Properties) method
+        Method waitForRunMethod;
+        try {
+            waitForRunMethod = service.getClass().getMethod("waitForRun", Properties.class, Properties.class);
+        } catch (NoSuchMethodException | SecurityException e) {
+            throw new LauncherException("Unable to get Framework warm engine method", e);
+        }
+
+        // Invoke the waitForRun method
+        logger.debug("Invoking waitForRun()");
+        try {
+            return (String) waitForRunMethod.invoke(service, boostrapProperties, overridesProperties);
+        } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
+            throw new LauncherException(e.getCause());
+        }
+    }
+
     /**
      * Run the Resource Management Server
      * 
@@ -921,6 +975,32 @@ public class FelixFramework {
         }
     }
 
+    /**
+     * Set up the cache of OBR resolution plans, unless it has been disabled in
+     * the bootstrap. The plans are kept in the Galasa home cache directory
+     * unless another directory, such as a volume shared between engines, is
+     * given.
+     * 
+     * @param boostrapProperties
+     * @param defaultDirectory
+     */
+    private void createResolutionPlanCache(Properties boostrapProperties, File defaultDirectory) {
+        if (!Boolean.parseBoolean(boostrapProperties.getProperty(RESOLUTION_PLAN_CACHE_ENABLED_PROP, "true"))) {
+            logger.debug("OBR resolution plan cache is disabled");
+            return;
+        }
+
+        File directory = defaultDirectory;
+        String configuredDirectory = boostrapProperties.getProperty(RESOLUTION_PLAN_CACHE_DIRECTORY_PROP);
+        if (configuredDirectory != null && !configuredDirectory.trim().isEmpty()) {
+            directory = new File(configuredDirectory.trim());
+        }
+
+        String launcherVersion = getClass().getPackage().getImplementationVersion();
+        resolutionPlans = new ResolutionPlanCache(directory, repositoryAdmin.listRepositories(), launcherVersion);
+        logger.debug("Using OBR resolution plans in " + directory);
+    }
+
     /**
      * Load a bundle from the OSGi Bundle Repository
      * 
@@ -930,6 +1010,22 @@ public class FelixFramework {
     private void loadBundle(String bundleSymbolicName) throws LauncherException {
 
         logger.trace("Installing bundle " + bundleSymbolicName);
+        long startTime = System.currentTimeMillis();
+
+        String planKey = null;
+        if (resolutionPlans != null) {
+            planKey = resolutionPlans.getKey(bundleSymbolicName, framework.getBundleContext().getBundles());
+            List<String> plan = resolutionPlans.getPlan(planKey);
+            if (plan != null) {
+                if (installFromPlan(bundleSymbolicName, plan)) {
+                    logger.debug("Installed bundle " + bundleSymbolicName + " from its resolution plan in "
+                            + (System.currentTimeMillis() - startTime) + "ms");
+                    return;
+                }
+                resolutionPlans.removePlan(planKey);
+            }
+        }
+
         Resolver resolver = repositoryAdmin.resolver();
         String filterString = "(symbolicname=" + bundleSymbolicName + ")";
         Resource[] resources = null;
@@ -942,11 +1038,55 @@ public class FelixFramework {
             if (resources.length == 0) {
                 throw new LauncherException("Unable to locate bundle \"" + bundleSymbolicName + "\" in OBR repository");
             }
-            addResource(bundleSymbolicName, resolver, resources[0]); // *** get first resource
+            List<String> installedLocations = addResource(bundleSymbolicName, resolver, resources[0]); // *** get first resource
+            if (planKey != null) {
+                resolutionPlans.putPlan(planKey, installedLocations);
+            }
         } catch (LauncherException e) {
             throw new LauncherException("Unable to install bundle \"" + bundleSymbolicName + "\" from OBR repository",
                     e);
         }
+        logger.debug("Resolved and installed bundle " + bundleSymbolicName + " in "
+                + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * Install and start the bundles of a resolution plan, as the resolver did
+     * when the plan was made
+     * 
+     * @param bundleSymbolicName
+     * @param bundleLocations
+     * @return true if the bundle was installed and is active, false if the plan
+     *         could not be used and the bundle must be resolved
+     */
+    private boolean installFromPlan(String bundleSymbolicName, List<String> bundleLocations) {
+        try {
+            ArrayList<Bundle> bundlesToStart = new ArrayList<>();
+            for (String location : bundleLocations) {
+                Bundle bundle = this.framework.getBundleContext().getBundle(location);
+                if (bundle == null) {
+                    bundle = this.framework.getBundleContext().installBundle(location);
+                }
+                bundlesToStart.add(bundle);
+            }
+            for (Bundle bundle : bundlesToStart) {
+                if (bundle.getHeaders().get(Constants.FRAGMENT_HOST) == null) {
+                    bundle.start();
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Unable to install bundle " + bundleSymbolicName + " from its resolution plan, "
+                    + e.getMessage());
+            return false;
+        }
+
+        if (!isBundleActive(bundleSymbolicName)) {
+            logger.debug("Bundle " + bundleSymbolicName + " is not active after installing its resolution plan");
+            return false;
+        }
+
+        printBundles();
+        return true;
     }
 
     /**
@@ -955,9 +1095,10 @@ public class FelixFramework {
      * @param bundleSymbolicName
      * @param resolver
      * @param resource
+     * @return the locations of the bundles installed, in the order they were installed
      * @throws LauncherException
      */
-    private void addResource(String bundleSymbolicName, Resolver resolver, Resource resource) throws LauncherException {
+    private List<String> addResource(String bundleSymbolicName, Resolver resolver, Resource resource) throws LauncherException {
         logger.trace("Resource: " + resource);
         resolver.add(resource);
 
@@ -986,6 +1127,15 @@ public class FelixFramework {
                 }
             }
 
+            List<String> installedLocations = new ArrayList<>();
+            for (Resource requiredResource : requiredResources) {
+                addLocation(installedLocations, requiredResource);
+            }
+            for (Resource optionalResource : optionalResources) {
+                addLocation(installedLocations, optionalResource);
+            }
+            addLocation(installedLocations, resource);
+
             if (!resourceHasReferenceUrl) {
                 resolver.deploy(Resolver.START);
             } else {
@@ -1020,6 +1170,7 @@ public class FelixFramework {
             }
 
             printBundles();
+            return installedLocations;
         } else {
             logger.error("Unable to resolve " + resource.toString());
             Reason[] unsatisfiedRequirements = resolver.getUnsatisfiedRequirements();
@@ -1030,6 +1181,13 @@ public class FelixFramework {
         }
     }
 
+    private void addLocation(List<String> locations, Resource resource) {
+        String location = resource.getURI();
+        if (!locations.contains(location)) {
+            locations.add(location);
+        }
+    }
+
     /**
      * Return the installed Bundle object for the bundle symbolic name
      * 
@@ -0,0 +1,211 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.boot.felix;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.felix.bundlerepository.Repository;
+import org.apache.felix.bundlerepository.Resource;
+import org.osgi.framework.Bundle;
+
+import dev.galasa.boot.BootLogger;
+
+/**
+ * Remembers which bundles the OBR resolver chose to install for each bundle
+ * the launcher loads, so that when the same OBRs are used again the bundles
+ * can be installed straight away without resolving them again.
+ *
+ * A plan is keyed on a fingerprint of the contents of the OBRs, the version of
+ * the launcher, the bundles already installed and the bundle being loaded, so
+ * a plan is only used when the resolver would have come to the same answer.
+ * The plans are kept in a properties file, which can be on a volume shared by
+ * many engines.
+ */
+public class ResolutionPlanCache {
+
+    static final String PLAN_FILE_NAME = "obr-resolution-plans.properties";
+
+    private static final String FORMAT_KEY     = "format";
+    private static final String FORMAT_VERSION = "1";
+
+    private final BootLogger logger = new BootLogger();
+
+    private final File       planFile;
+    private final String     fingerprint;
+    private final Properties plans;
+
+    /**
+     * @param directory        - the directory the plans are kept in
+     * @param repositories     - the OBRs that have been loaded
+     * @param launcherVersion  - the version of the launcher, or null if it is not known
+     */
+    public ResolutionPlanCache(File directory, Repository[] repositories, String launcherVersion) {
+        this.planFile = new File(directory, PLAN_FILE_NAME);
+        this.fingerprint = fingerprint(repositories, launcherVersion);
+        this.plans = readPlans(planFile);
+    }
+
+    /**
+     * @param bundleSymbolicName - the bundle about to be loaded
+     * @param installedBundles   - the bundles already installed in the framework
+     * @return the key of the plan for loading the bundle
+     */
+    public String getKey(String bundleSymbolicName, Bundle[] installedBundles) {
+        String[] installed = new String[installedBundles.length];
+        for (int i = 0; i < installedBundles.length; i++) {
+            installed[i] = installedBundles[i].getSymbolicName();
+        }
+        Arrays.sort(installed);
+
+        MessageDigest digest = newDigest();
+        update(digest, fingerprint);
+        update(digest, bundleSymbolicName);
+        for (String name : installed) {
+            update(digest, name);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return the locations of the bundles to install and start, in order, or
+     *         null if there is no plan for the key
+     */
+    public synchronized List<String> getPlan(String key) {
+        String plan = plans.getProperty(key);
+        if (plan == null || plan.isEmpty()) {
+            return null;
+        }
+        return Arrays.asList(plan.split("\n"));
+    }
+
+    /**
+     * Record a plan and save it, merging with any plans other engines have saved
+     * since the file was read
+     */
+    public synchronized void putPlan(String key, List<String> bundleLocations) {
+        plans.setProperty(key, String.join("\n", bundleLocations));
+        save(key, plans.getProperty(key));
+    }
+
+    /**
+     * Forget a plan that could not be used
+     */
+    public synchronized void removePlan(String key) {
+        plans.remove(key);
+        save(key, null);
+    }
+
+    private void save(String key, String plan) {
+        Properties saved = readPlans(planFile);
+        if (plan == null) {
+            saved.remove(key);
+        } else {
+            saved.setProperty(key, plan);
+        }
+        saved.setProperty(FORMAT_KEY, FORMAT_VERSION);
+
+        // Write alongside and move into place, so that a reader never sees half a file
+        Path target = planFile.toPath();
+        Path temporary = target.resolveSibling(PLAN_FILE_NAME + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                saved.store(out, "Galasa OBR resolution plans");
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.debug("Unable to save the OBR resolution plans to " + planFile + ", " + e.getMessage());
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private Properties readPlans(File file) {
+        Properties read = new Properties();
+        if (!file.exists()) {
+            return read;
+        }
+
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            read.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Ignoring unreadable OBR resolution plans in " + file + ", " + e.getMessage());
+            return new Properties();
+        }
+
+        if (!FORMAT_VERSION.equals(read.getProperty(FORMAT_KEY))) {
+            logger.debug("Ignoring OBR resolution plans in " + file + " as they are in an unknown format");
+            return new Properties();
+        }
+        read.remove(FORMAT_KEY);
+        return read;
+    }
+
+    /**
+     * Fingerprint the OBRs from what has already been read of them, so that
+     * nothing has to be fetched again to check whether the plans still apply
+     */
+    private static String fingerprint(Repository[] repositories, String launcherVersion) {
+        MessageDigest digest = newDigest();
+        update(digest, String.valueOf(launcherVersion));
+        for (Repository repository : repositories) {
+            update(digest, String.valueOf(repository.getURI()));
+            update(digest, Long.toString(repository.getLastModified()));
+
+            List<String> resources = new ArrayList<>();
+            for (Resource resource : repository.getResources()) {
+                resources.add(resource.getId() + " " + resource.getURI());
+            }
+            resources.sort(null);
+            for (String resource : resources) {
+                update(digest, resource);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -7,6 +7,8 @@ package dev.galasa.boot.felix;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -14,6 +16,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.felix.bundlerepository.Repository;
 import org.apache.felix.bundlerepository.Resource;
 import org.junit.Test;
@@ -224,6 +227,98 @@ public class TestFelixFramework {
         assertThat(addedResourceIds).doesNotContain(extraBundleName);
     }
 
+    @Test
+    public void testLoadBundleRecordsResolutionPlanAndUsesItNextTime() throws Exception {
+        // Given...
+        String extraBundleName = "my.api.bundle";
+        Path planDirectory = Files.createTempDirectory("galasa_junit_resolution_plans_");
+        try {
+            Map<String, MockServiceReference<?>> services = new HashMap<>();
+            services.put("dev.galasa.framework.api.internal.ApiStartup", new MockServiceReference<>(new MockRunnableService(), null));
+            MockBundle mockFrameworkBundle = new MockBundle("dev.galasa.framework", new MockBundleContext(services));
+
+            Bundle[] availableBundles = new Bundle[] {
+                mockFrameworkBundle,
+                new MockBundle("org.apache.felix.http.servlet-api"),
+                new MockBundle("org.apache.felix.http.jetty"),
+                new MockBundle("org.apache.felix.fileinstall"),
+                new MockBundle("dev.galasa.framework.api"),
+                new MockBundle(extraBundleName),
+            };
+
+            Properties bootstrapProperties = new Properties();
+            bootstrapProperties.put("api.extra.bundles", extraBundleName);
+
+            MockResolver coldResolver = new MockResolver();
+            MockBundleContext coldBundleContext = new MockBundleContext(availableBundles);
+            FelixFramework coldEngine = new MockFelixFramework(new MockOsgiFramework(coldBundleContext),
+                new MockRepositoryAdmin(coldResolver), new ResolutionPlanCache(planDirectory.toFile(), new Repository[0], "0.1.0"));
+            coldEngine.runWebApiServer(bootstrapProperties, new Properties(), new ArrayList<>(), 0, 0);
+
+            MockResolver warmResolver = new MockResolver();
+            MockBundleContext warmBundleContext = new MockBundleContext(availableBundles);
+            FelixFramework warmEngine = new MockFelixFramework(new MockOsgiFramework(warmBundleContext),
+                new MockRepositoryAdmin(warmResolver), new ResolutionPlanCache(planDirectory.toFile(), new Repository[0], "0.1.0"));
+
+            // When...
+            warmEngine.runWebApiServer(bootstrapProperties, new Properties(), new ArrayList<>(), 0, 0);
+
+            // Then...
+            assertThat(coldResolver.getResolveCount()).isGreaterThan(0);
+            assertThat(warmResolver.getResolveCount()).isZero();
+            assertThat(warmResolver.getAllResources()).isEmpty();
+            assertThat(warmBundleContext.getInstalledBundleLocations()).contains("uri");
+        } finally {
+            FileUtils.deleteDirectory(planDirectory.toFile());
+        }
+    }
+
+    @Test
+    public void testLoadBundleResolvesWhenResolutionPlanDoesNotActivateTheBundle() throws Exception {
+        // Given...
+        String extraBundleName = "my.api.bundle";
+        Path planDirectory = Files.createTempDirectory("galasa_junit_resolution_plans_");
+        try {
+            Map<String, MockServiceReference<?>> services = new HashMap<>();
+            services.put("dev.galasa.framework.api.internal.ApiStartup", new MockServiceReference<>(new MockRunnableService(), null));
+            MockBundle mockFrameworkBundle = new MockBundle("dev.galasa.framework", new MockBundleContext(services));
+
+            MockBundle inactiveBundle = new MockBundle(extraBundleName);
+            inactiveBundle.setState(Bundle.INSTALLED);
+            Bundle[] availableBundles = new Bundle[] {
+                mockFrameworkBundle,
+                new MockBundle("org.apache.felix.http.servlet-api"),
+                new MockBundle("org.apache.felix.http.jetty"),
+                new MockBundle("org.apache.felix.fileinstall"),
+                new MockBundle("dev.galasa.framework.api"),
+                inactiveBundle,
+            };
+
+            ResolutionPlanCache resolutionPlans = new ResolutionPlanCache(planDirectory.toFile(), new Repository[0], "0.1.0");
+            String key = resolutionPlans.getKey(extraBundleName, availableBundles);
+            resolutionPlans.putPlan(key, List.of("mvn:stale/bundle/0.1.0/jar"));
+
+            MockResolver mockResolver = new MockResolver();
+            FelixFramework felixFramework = new MockFelixFramework(new MockOsgiFramework(new MockBundleContext(availableBundles)),
+                new MockRepositoryAdmin(mockResolver), resolutionPlans);
+
+            Properties bootstrapProperties = new Properties();
+            bootstrapProperties.put("api.extra.bundles", extraBundleName);
+
+            // When...
+            LauncherException err = catchThrowableOfType(LauncherException.class, () -> {
+                felixFramework.runWebApiServer(bootstrapProperties, new Properties(), new ArrayList<>(), 0, 0);
+            });
+
+            // Then...
+            assertThat(err).isNotNull();
+            assertThat(mockResolver.getAllResources()).extracting(Resource::getId).contains(extraBundleName);
+            assertThat(resolutionPlans.getPlan(key)).isNull();
+        } finally {
+            FileUtils.deleteDirectory(planDirectory.toFile());
+        }
+    }
+
     @Test
     public void testRunLocalResourceManagementLoadsCorrectBundles() throws Exception {
         // Given...
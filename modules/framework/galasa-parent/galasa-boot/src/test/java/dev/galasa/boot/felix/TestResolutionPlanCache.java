@@ -0,0 +1,131 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.boot.felix;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.felix.bundlerepository.Repository;
+import org.apache.felix.bundlerepository.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+
+import dev.galasa.boot.mocks.MockBundle;
+import dev.galasa.boot.mocks.MockRepository;
+import dev.galasa.boot.mocks.MockResource;
+
+public class TestResolutionPlanCache {
+
+    private Path planDirectory;
+
+    @Before
+    public void before() throws IOException {
+        this.planDirectory = Files.createTempDirectory("galasa_junit_resolution_plans_");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteDirectory(this.planDirectory.toFile());
+    }
+
+    private Repository[] createRepositories(String frameworkUri) {
+        return new Repository[] {
+            new MockRepository(new Resource[] {
+                new MockResource("dev.galasa.framework", "dev.galasa.framework", frameworkUri),
+                new MockResource("dev.galasa", "dev.galasa", "mvn:dev.galasa/dev.galasa/0.1.0/jar"),
+            })
+        };
+    }
+
+    @Test
+    public void testPlanIsReadBackByAnotherEngineUsingTheSameRepositories() throws Exception {
+        // Given...
+        Bundle[] installed = new Bundle[] { new MockBundle("org.apache.felix.bundlerepository") };
+        Repository[] repositories = createRepositories("mvn:dev.galasa/dev.galasa.framework/0.1.0/jar");
+
+        ResolutionPlanCache firstEngine = new ResolutionPlanCache(planDirectory.toFile(), repositories, "0.1.0");
+        String key = firstEngine.getKey("dev.galasa.framework", installed);
+        firstEngine.putPlan(key, List.of("mvn:dev.galasa/dev.galasa/0.1.0/jar", "mvn:dev.galasa/dev.galasa.framework/0.1.0/jar"));
+
+        // When...
+        ResolutionPlanCache secondEngine = new ResolutionPlanCache(planDirectory.toFile(), repositories, "0.1.0");
+        List<String> plan = secondEngine.getPlan(secondEngine.getKey("dev.galasa.framework", installed));
+
+        // Then...
+        assertThat(plan).containsExactly("mvn:dev.galasa/dev.galasa/0.1.0/jar", "mvn:dev.galasa/dev.galasa.framework/0.1.0/jar");
+    }
+
+    @Test
+    public void testPlanIsNotUsedWhenTheRepositoryContentsChange() throws Exception {
+        // Given...
+        Bundle[] installed = new Bundle[0];
+        ResolutionPlanCache oldEngine = new ResolutionPlanCache(planDirectory.toFile(),
+            createRepositories("mvn:dev.galasa/dev.galasa.framework/0.1.0/jar"), "0.1.0");
+        oldEngine.putPlan(oldEngine.getKey("dev.galasa.framework", installed), List.of("mvn:dev.galasa/dev.galasa.framework/0.1.0/jar"));
+
+        // When...
+        ResolutionPlanCache newEngine = new ResolutionPlanCache(planDirectory.toFile(),
+            createRepositories("mvn:dev.galasa/dev.galasa.framework/0.2.0/jar"), "0.1.0");
+
+        // Then...
+        assertThat(newEngine.getPlan(newEngine.getKey("dev.galasa.framework", installed))).isNull();
+    }
+
+    @Test
+    public void testPlanDependsOnTheBundlesAlreadyInstalled() throws Exception {
+        // Given...
+        ResolutionPlanCache cache = new ResolutionPlanCache(planDirectory.toFile(),
+            createRepositories("mvn:dev.galasa/dev.galasa.framework/0.1.0/jar"), "0.1.0");
+
+        // When...
+        String keyBefore = cache.getKey("my.bundle", new Bundle[] { new MockBundle("a"), new MockBundle("b") });
+        String keyInAnotherOrder = cache.getKey("my.bundle", new Bundle[] { new MockBundle("b"), new MockBundle("a") });
+        String keyWithMoreInstalled = cache.getKey("my.bundle", new Bundle[] { new MockBundle("a"), new MockBundle("b"), new MockBundle("c") });
+
+        // Then...
+        assertThat(keyInAnotherOrder).isEqualTo(keyBefore);
+        assertThat(keyWithMoreInstalled).isNotEqualTo(keyBefore);
+    }
+
+    @Test
+    public void testPlanFileInAnUnknownFormatIsIgnored() throws Exception {
+        // Given...
+        File planFile = new File(planDirectory.toFile(), ResolutionPlanCache.PLAN_FILE_NAME);
+        Files.write(planFile.toPath(), "not=a plan\n".getBytes(StandardCharsets.UTF_8));
+
+        // When...
+        ResolutionPlanCache cache = new ResolutionPlanCache(planDirectory.toFile(),
+            createRepositories("mvn:dev.galasa/dev.galasa.framework/0.1.0/jar"), "0.1.0");
+
+        // Then...
+        assertThat(cache.getPlan("not")).isNull();
+    }
+
+    @Test
+    public void testRemovedPlanIsNotReadBack() throws Exception {
+        // Given...
+        Repository[] repositories = createRepositories("mvn:dev.galasa/dev.galasa.framework/0.1.0/jar");
+        ResolutionPlanCache cache = new ResolutionPlanCache(planDirectory.toFile(), repositories, "0.1.0");
+        String key = cache.getKey("dev.galasa.framework", new Bundle[0]);
+        cache.putPlan(key, List.of("mvn:dev.galasa/dev.galasa.framework/0.1.0/jar"));
+
+        // When...
+        cache.removePlan(key);
+
+        // Then...
+        assertThat(cache.getPlan(key)).isNull();
+        assertThat(new ResolutionPlanCache(planDirectory.toFile(), repositories, "0.1.0").getPlan(key)).isNull();
+    }
+}
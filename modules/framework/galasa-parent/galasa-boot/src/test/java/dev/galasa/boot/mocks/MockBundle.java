@@ -12,6 +12,7 @@ import java.net.URL;
 import java.security.cert.X509Certificate;
 import java.util.Dictionary;
 import java.util.Enumeration;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 
@@ -67,7 +68,7 @@ public class MockBundle implements Bundle {
 
     @Override
     public void start() throws BundleException {
-        throw new UnsupportedOperationException("Unimplemented method 'start'");
+        this.bundleState = Bundle.ACTIVE;
     }
 
     @Override
@@ -97,7 +98,7 @@ public class MockBundle implements Bundle {
 
     @Override
     public Dictionary<String, String> getHeaders() {
-        throw new UnsupportedOperationException("Unimplemented method 'getHeaders'");
+        return new Hashtable<>();
     }
 
     @Override
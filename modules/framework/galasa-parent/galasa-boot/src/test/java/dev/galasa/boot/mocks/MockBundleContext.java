@@ -216,6 +216,7 @@ public class MockBundleContext implements BundleContext{
 
     @Override
     public Bundle getBundle(String location) {
-        throw new UnsupportedOperationException("Unimplemented method 'getBundle'");
+        // No bundles are installed at a location before the test installs them
+        return null;
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.apache.felix.bundlerepository.RepositoryAdmin;
 import org.osgi.framework.launch.Framework;
 
 import dev.galasa.boot.felix.FelixFramework;
+import dev.galasa.boot.felix.ResolutionPlanCache;
 
 public class MockFelixFramework extends FelixFramework {
 
@@ -16,4 +17,9 @@ public class MockFelixFramework extends FelixFramework {
         super.framework = framework;
         super.repositoryAdmin = repositoryAdmin;
     }
+
+    public MockFelixFramework(Framework framework, RepositoryAdmin repositoryAdmin, ResolutionPlanCache resolutionPlans) {
+        this(framework, repositoryAdmin);
+        super.resolutionPlans = resolutionPlans;
+    }
 }
@@ -18,6 +18,7 @@ import org.apache.felix.bundlerepository.Resource;
 public class MockResolver implements Resolver {
 
     private List<Resource> resources = new ArrayList<>();
+    private int resolveCount = 0;
 
     @Override
     public void add(Resource resource) {
@@ -26,9 +27,14 @@ public class MockResolver implements Resolver {
 
     @Override
     public boolean resolve() throws InterruptedResolutionException {
+        resolveCount++;
         return true;
     }
 
+    public int getResolveCount() {
+        return resolveCount;
+    }
+
     @Override
     public Resource[] getRequiredResources() {
         return resources.toArray(new Resource[0]);
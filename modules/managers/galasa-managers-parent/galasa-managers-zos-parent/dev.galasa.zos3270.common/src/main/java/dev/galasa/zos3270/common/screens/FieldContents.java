@@ -65,4 +65,22 @@ public class FieldContents {
         return this.chars;
     }
 
+    /**
+     * Get the field characters without boxing them
+     * 
+     * @return the chars, with a (char) 0 where the field has a null
+     */
+    public char[] toCharArray() {
+        if (chars == null) {
+            return text == null ? new char[0] : text.toCharArray();
+        }
+        char[] ca = new char[chars.length];
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] != null) {
+                ca[i] = chars[i];
+            }
+        }
+        return ca;
+    }
+
 }
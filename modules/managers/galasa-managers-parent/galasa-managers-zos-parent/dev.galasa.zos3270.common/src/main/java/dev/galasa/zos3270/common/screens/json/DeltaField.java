@@ -0,0 +1,239 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.common.screens.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.TerminalField;
+
+/**
+ * A field of a terminal image held in primitive form, so that one image can be
+ * compared with the next without boxing every character of the screen.
+ *
+ * A colour or highlight of 0, and a character of 0 in the text, mean null.
+ */
+class DeltaField {
+
+    private static final int UNFORMATTED     = 0x01;
+    private static final int PROTECTED       = 0x02;
+    private static final int NUMERIC         = 0x04;
+    private static final int DISPLAY         = 0x08;
+    private static final int INTENSE_DISPLAY = 0x10;
+    private static final int SELECTOR_PEN    = 0x20;
+    private static final int MODIFIED        = 0x40;
+
+    private final int        row;
+    private final int        column;
+    private final int        attributes;
+    private final char       foregroundColour;
+    private final char       backgroundColour;
+    private final char       highlight;
+    private final char[]     text;
+
+    private DeltaField(int row, int column, int attributes, char foregroundColour, char backgroundColour,
+            char highlight, char[] text) {
+        this.row = row;
+        this.column = column;
+        this.attributes = attributes;
+        this.foregroundColour = foregroundColour;
+        this.backgroundColour = backgroundColour;
+        this.highlight = highlight;
+        this.text = text;
+    }
+
+    static DeltaField fromTerminalField(TerminalField field) {
+        int attributes = 0;
+        attributes |= field.isUnformatted() ? UNFORMATTED : 0;
+        attributes |= field.isFieldProtected() ? PROTECTED : 0;
+        attributes |= field.isFieldNumeric() ? NUMERIC : 0;
+        attributes |= field.isFieldDisplay() ? DISPLAY : 0;
+        attributes |= field.isFieldIntenseDisplay() ? INTENSE_DISPLAY : 0;
+        attributes |= field.isFieldSelectorPen() ? SELECTOR_PEN : 0;
+        attributes |= field.isFieldModifed() ? MODIFIED : 0;
+
+        char[] text;
+        if (field.getContents().size() == 1) {
+            text = field.getContents().get(0).toCharArray();
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (FieldContents contents : field.getContents()) {
+                sb.append(contents.toCharArray());
+            }
+            text = sb.toString().toCharArray();
+        }
+
+        return new DeltaField(field.getRow(), field.getColumn(), attributes, toChar(field.getForegroundColour()),
+                toChar(field.getBackgroundColour()), toChar(field.getHighlight()), text);
+    }
+
+    TerminalField toTerminalField() {
+        TerminalField field = new TerminalField(row, column, isSet(UNFORMATTED), isSet(PROTECTED), isSet(NUMERIC),
+                isSet(DISPLAY), isSet(INTENSE_DISPLAY), isSet(SELECTOR_PEN), isSet(MODIFIED),
+                toCharacter(foregroundColour), toCharacter(backgroundColour), toCharacter(highlight));
+
+        Character[] chars = new Character[text.length];
+        for (int i = 0; i < text.length; i++) {
+            chars[i] = toCharacter(text[i]);
+        }
+        field.getContents().add(new FieldContents(chars));
+        return field;
+    }
+
+    boolean hasSameAttributes(DeltaField other) {
+        return this.row == other.row && this.column == other.column && this.attributes == other.attributes
+                && this.foregroundColour == other.foregroundColour
+                && this.backgroundColour == other.backgroundColour && this.highlight == other.highlight;
+    }
+
+    int length() {
+        return this.text.length;
+    }
+
+    /**
+     * Write the whole field
+     *
+     * @param index - the position of the field in the image, or -1 if the whole
+     *              image is being written
+     */
+    void write(JsonWriter json, int index) throws IOException {
+        json.beginObject();
+        if (index >= 0) {
+            json.name("index").value(index);
+        }
+        json.name("row").value(row);
+        json.name("column").value(column);
+        writeFlag(json, "unformatted", UNFORMATTED);
+        writeFlag(json, "fieldProtected", PROTECTED);
+        writeFlag(json, "fieldNumeric", NUMERIC);
+        writeFlag(json, "fieldDisplay", DISPLAY);
+        writeFlag(json, "fieldIntenseDisplay", INTENSE_DISPLAY);
+        writeFlag(json, "fieldSelectorPen", SELECTOR_PEN);
+        writeFlag(json, "fieldModifed", MODIFIED);
+        writeChar(json, "foregroundColour", foregroundColour);
+        writeChar(json, "backgroundColour", backgroundColour);
+        writeChar(json, "highlight", highlight);
+        json.name("text").value(new String(text));
+        json.endObject();
+    }
+
+    /**
+     * Write only the runs of characters that differ from the same field in the
+     * previous image, which must have the same attributes and length. Runs
+     * separated by a few unchanged characters are written as one, as that is
+     * smaller than starting another run. Nothing is written if the text is the
+     * same.
+     */
+    void writeChanges(JsonWriter json, int index, DeltaField previous) throws IOException {
+        int position = mismatch(previous, 0);
+        if (position < 0) {
+            return;
+        }
+
+        json.beginObject();
+        json.name("index").value(index);
+        json.name("cells").beginArray();
+        while (position >= 0) {
+            int end = position + 1;
+            int unchanged = 0;
+            for (int i = end; i < text.length && unchanged < 8; i++) {
+                if (text[i] == previous.text[i]) {
+                    unchanged++;
+                } else {
+                    end = i + 1;
+                    unchanged = 0;
+                }
+            }
+
+            json.beginArray();
+            json.value(position);
+            json.value(new String(text, position, end - position));
+            json.endArray();
+
+            position = mismatch(previous, end);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private int mismatch(DeltaField previous, int from) {
+        for (int i = from; i < text.length; i++) {
+            if (text[i] != previous.text[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static DeltaField read(JsonObject json) {
+        int attributes = 0;
+        attributes |= readFlag(json, "unformatted", UNFORMATTED);
+        attributes |= readFlag(json, "fieldProtected", PROTECTED);
+        attributes |= readFlag(json, "fieldNumeric", NUMERIC);
+        attributes |= readFlag(json, "fieldDisplay", DISPLAY);
+        attributes |= readFlag(json, "fieldIntenseDisplay", INTENSE_DISPLAY);
+        attributes |= readFlag(json, "fieldSelectorPen", SELECTOR_PEN);
+        attributes |= readFlag(json, "fieldModifed", MODIFIED);
+
+        return new DeltaField(json.get("row").getAsInt(), json.get("column").getAsInt(), attributes,
+                readChar(json, "foregroundColour"), readChar(json, "backgroundColour"), readChar(json, "highlight"),
+                json.get("text").getAsString().toCharArray());
+    }
+
+    /**
+     * @return a copy of this field with runs of characters replaced, as written
+     *         by {@link #writeChanges(JsonWriter, int, DeltaField)}
+     */
+    DeltaField withChanges(Iterable<JsonElement> cells) {
+        char[] newText = Arrays.copyOf(text, text.length);
+        for (JsonElement cell : cells) {
+            int position = cell.getAsJsonArray().get(0).getAsInt();
+            String changed = cell.getAsJsonArray().get(1).getAsString();
+            changed.getChars(0, changed.length(), newText, position);
+        }
+        return new DeltaField(row, column, attributes, foregroundColour, backgroundColour, highlight, newText);
+    }
+
+    private boolean isSet(int flag) {
+        return (attributes & flag) != 0;
+    }
+
+    private void writeFlag(JsonWriter json, String name, int flag) throws IOException {
+        if (isSet(flag)) {
+            json.name(name).value(true);
+        }
+    }
+
+    private static int readFlag(JsonObject json, String name, int flag) {
+        JsonElement element = json.get(name);
+        return element != null && element.getAsBoolean() ? flag : 0;
+    }
+
+    private static void writeChar(JsonWriter json, String name, char c) throws IOException {
+        if (c != 0) {
+            json.name(name).value(String.valueOf(c));
+        }
+    }
+
+    private static char readChar(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element == null ? 0 : element.getAsString().charAt(0);
+    }
+
+    private static char toChar(Character c) {
+        return c == null ? 0 : c;
+    }
+
+    private static Character toCharacter(char c) {
+        return c == 0 ? null : c;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.common.screens.json;
+
+import java.io.Reader;
+import java.util.Arrays;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import dev.galasa.framework.spi.utils.GalasaGsonBuilder;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+
+/**
+ * Reads a terminal written by {@link TerminalDeltaJsonWriter}, rebuilding every
+ * image in full so it can be displayed in the same way as a terminal written by
+ * {@link TerminalJsonTransform}. Terminals written by
+ * {@link TerminalJsonTransform} are read as they are.
+ */
+public class TerminalDeltaJsonReader {
+
+    private final Gson gson = new GalasaGsonBuilder(false).getGson();
+
+    public Terminal toTerminal(String json) {
+        return toTerminal(JsonParser.parseString(json).getAsJsonObject());
+    }
+
+    public Terminal toTerminal(Reader reader) {
+        return toTerminal(JsonParser.parseReader(reader).getAsJsonObject());
+    }
+
+    private Terminal toTerminal(JsonObject json) {
+        JsonElement format = json.get("format");
+        if (format == null || !TerminalDeltaJsonWriter.FORMAT.equals(format.getAsString())) {
+            return gson.fromJson(json, Terminal.class);
+        }
+
+        Terminal terminal = new Terminal(json.get("id").getAsString(), getString(json, "runId"),
+                json.get("sequence").getAsInt(), toSize(json.get("defaultSize")));
+
+        DeltaField[] fields = new DeltaField[0];
+        for (JsonElement element : json.getAsJsonArray("images")) {
+            JsonObject image = element.getAsJsonObject();
+            fields = applyImageFields(image, fields);
+
+            TerminalImage terminalImage = new TerminalImage(image.get("sequence").getAsInt(),
+                    image.get("id").getAsString(), image.has("inbound") && image.get("inbound").getAsBoolean(),
+                    getString(image, "type"), getString(image, "aid"), toSize(image.get("imageSize")),
+                    image.get("cursorColumn").getAsInt(), image.get("cursorRow").getAsInt());
+            for (DeltaField field : fields) {
+                terminalImage.getFields().add(field.toTerminalField());
+            }
+            terminal.addImage(terminalImage);
+        }
+
+        return terminal;
+    }
+
+    private DeltaField[] applyImageFields(JsonObject image, DeltaField[] previousFields) {
+        JsonArray allFields = image.getAsJsonArray("fields");
+        if (allFields != null) {
+            DeltaField[] fields = new DeltaField[allFields.size()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = DeltaField.read(allFields.get(i).getAsJsonObject());
+            }
+            return fields;
+        }
+
+        DeltaField[] fields = Arrays.copyOf(previousFields, image.get("fieldCount").getAsInt());
+        for (JsonElement element : image.getAsJsonArray("changes")) {
+            JsonObject change = element.getAsJsonObject();
+            int index = change.get("index").getAsInt();
+            JsonArray cells = change.getAsJsonArray("cells");
+            if (cells != null) {
+                fields[index] = fields[index].withChanges(cells);
+            } else {
+                fields[index] = DeltaField.read(change);
+            }
+        }
+        return fields;
+    }
+
+    private static String getString(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    private static TerminalSize toSize(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        JsonObject size = element.getAsJsonObject();
+        return new TerminalSize(size.get("columns").getAsInt(), size.get("rows").getAsInt());
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.common.screens.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import com.google.gson.stream.JsonWriter;
+
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+
+/**
+ * Streams the images of a terminal to a writer as json, in a compact form
+ * where only what has changed from one image to the next is written.
+ * </p>
+ * <p>
+ * The first image is written in full, with its fields in a "fields" array.
+ * Each image after it has a "fieldCount" and a "changes" array, holding the
+ * fields that are new or whose attributes or length have changed, identified
+ * by their "index" in the image, and for the rest of the fields, the runs of
+ * "cells" that have changed. Field text is written as a string rather than an
+ * array of characters, with a (char) 0 where the screen has a null.
+ * </p>
+ * <p>
+ * Use {@link TerminalDeltaJsonReader} to read the full images back.
+ * </p>
+ */
+public class TerminalDeltaJsonWriter implements Closeable, Flushable {
+
+    public static final String FORMAT = "delta";
+
+    private final JsonWriter json;
+
+    private DeltaField[]     previousFields;
+
+    /**
+     * Start writing a terminal, ready for its images to be written
+     *
+     * @param writer      where the json is written, which is closed by
+     *                    {@link #close()}
+     * @param id          Terminal ID
+     * @param runId       The run the terminal belongs to
+     * @param sequence    Sequence number of this set of images for this terminal
+     * @param defaultSize Default size of the terminal
+     */
+    public TerminalDeltaJsonWriter(Writer writer, String id, String runId, int sequence, TerminalSize defaultSize)
+            throws IOException {
+        this.json = new JsonWriter(writer);
+        this.json.setSerializeNulls(false);
+
+        this.json.beginObject();
+        this.json.name("id").value(id);
+        this.json.name("runId").value(runId);
+        this.json.name("sequence").value(sequence);
+        this.json.name("format").value(FORMAT);
+        writeSize("defaultSize", defaultSize);
+        this.json.name("images").beginArray();
+    }
+
+    /**
+     * Write the next image of the terminal. Only the field attributes and the
+     * text of the image are kept, to compare with the next image.
+     *
+     * @param image the image to write
+     */
+    public void writeImage(TerminalImage image) throws IOException {
+        List<TerminalField> imageFields = image.getFields();
+        DeltaField[] fields = new DeltaField[imageFields.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = DeltaField.fromTerminalField(imageFields.get(i));
+        }
+
+        json.beginObject();
+        json.name("sequence").value(image.getSequence());
+        json.name("id").value(image.getId());
+        if (image.isInbound()) {
+            json.name("inbound").value(true);
+        }
+        json.name("type").value(image.getType());
+        json.name("aid").value(image.getAid());
+        writeSize("imageSize", image.getImageSize());
+        json.name("cursorColumn").value(image.getCursorColumn());
+        json.name("cursorRow").value(image.getCursorRow());
+
+        if (this.previousFields == null) {
+            json.name("fields").beginArray();
+            for (DeltaField field : fields) {
+                field.write(json, -1);
+            }
+            json.endArray();
+        } else {
+            json.name("fieldCount").value(fields.length);
+            json.name("changes").beginArray();
+            for (int i = 0; i < fields.length; i++) {
+                DeltaField previous = i < this.previousFields.length ? this.previousFields[i] : null;
+                if (previous == null || !fields[i].hasSameAttributes(previous)
+                        || fields[i].length() != previous.length()) {
+                    fields[i].write(json, i);
+                } else {
+                    fields[i].writeChanges(json, i, previous);
+                }
+            }
+            json.endArray();
+        }
+        json.endObject();
+
+        this.previousFields = fields;
+    }
+
+    /**
+     * Flush the json written so far to the writer
+     */
+    @Override
+    public void flush() throws IOException {
+        json.flush();
+    }
+
+    /**
+     * Finish the json and close the writer
+     */
+    @Override
+    public void close() throws IOException {
+        json.endArray();
+        json.endObject();
+        json.close();
+    }
+
+    private void writeSize(String name, TerminalSize size) throws IOException {
+        if (size == null) {
+            return;
+        }
+        json.name(name).beginObject();
+        json.name("columns").value(size.getColumns());
+        json.name("rows").value(size.getRows());
+        json.endObject();
+    }
+
+}
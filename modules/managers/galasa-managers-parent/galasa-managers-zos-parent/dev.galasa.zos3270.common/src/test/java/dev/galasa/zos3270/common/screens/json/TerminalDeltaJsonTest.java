@@ -0,0 +1,132 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.common.screens.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+
+public class TerminalDeltaJsonTest {
+
+    private static final TerminalSize SIZE = new TerminalSize(80, 24);
+
+    private final TerminalJsonTransform transform = new TerminalJsonTransform(false);
+
+    @Test
+    public void testDeltaImagesAreReadBackInFull() throws Exception {
+        // Given...
+        Terminal terminal = new Terminal("term1", "U123", 7, SIZE);
+
+        TerminalImage first = image(1, true, null);
+        first.getFields().add(field(0, 0, true, 'r', "READY       12:00:01"));
+        first.getFields().add(field(1, 0, false, null, new Character[] { 'a', null, 'c', null }));
+        terminal.addImage(first);
+
+        // *** A few cells changed
+        TerminalImage second = image(2, true, null);
+        second.getFields().add(field(0, 0, true, 'r', "READY       12:00:02"));
+        second.getFields().add(field(1, 0, false, null, new Character[] { 'a', null, 'c', null }));
+        terminal.addImage(second);
+
+        // *** A field's attributes and length changed, and a field added
+        TerminalImage third = image(3, false, "ENTER");
+        third.getFields().add(field(0, 0, true, 'r', "READY       12:00:02"));
+        third.getFields().add(field(1, 0, true, 'b', new Character[] { 'a', 'b', 'c', 'd', 'e' }));
+        third.getFields().add(field(2, 0, false, null, "NEW"));
+        terminal.addImage(third);
+
+        // *** A field removed
+        TerminalImage fourth = image(4, true, null);
+        fourth.getFields().add(field(0, 0, true, 'r', "DONE        12:00:03"));
+        terminal.addImage(fourth);
+
+        // When...
+        String json = writeDelta(terminal);
+        Terminal readTerminal = new TerminalDeltaJsonReader().toTerminal(json);
+
+        // Then...
+        assertThat(transform.toJsonString(readTerminal)).isEqualTo(transform.toJsonString(terminal));
+        assertThat(json).contains("\"cells\":[[19,\"2\"]]");
+        assertThat(json).doesNotContain("\"chars\"");
+    }
+
+    @Test
+    public void testTerminalsInTheFullFormatAreReadAsTheyAre() {
+        // Given...
+        Terminal terminal = new Terminal("term1", "U123", 7, SIZE);
+        TerminalImage image = image(1, true, null);
+        image.getFields().add(field(0, 0, true, 'r', new Character[] { 'a', null }));
+        terminal.addImage(image);
+
+        // When...
+        Terminal readTerminal = new TerminalDeltaJsonReader().toTerminal(transform.toJsonString(terminal));
+
+        // Then...
+        assertThat(transform.toJsonString(readTerminal)).isEqualTo(transform.toJsonString(terminal));
+    }
+
+    @Test
+    public void testDeltaImagesAreSmallerThanFullImages() throws Exception {
+        // Given...
+        // *** A full screen of fields where only a clock changes each time
+        Terminal terminal = new Terminal("term1", "U123", 1, SIZE);
+        for (int sequence = 1; sequence <= 10; sequence++) {
+            TerminalImage image = image(sequence, true, null);
+            for (int row = 0; row < 23; row++) {
+                image.getFields().add(field(row, 0, true, 'g', String.format("%-79s", "Panel line " + row)));
+            }
+            image.getFields().add(field(23, 0, false, 'w', String.format("%-79s", "Time 12:00:" + sequence)));
+            terminal.addImage(image);
+        }
+
+        // When...
+        String delta = writeDelta(terminal);
+        String full = transform.toJsonString(terminal);
+
+        // Then...
+        assertThat(delta.length()).isLessThan(full.length() / 5);
+    }
+
+    private String writeDelta(Terminal terminal) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (TerminalDeltaJsonWriter deltaWriter = new TerminalDeltaJsonWriter(writer, terminal.getId(),
+                terminal.getRunId(), terminal.getSequence(), terminal.getDefaultSize())) {
+            for (TerminalImage image : terminal.getImages()) {
+                deltaWriter.writeImage(image);
+            }
+        }
+        return writer.toString();
+    }
+
+    private TerminalImage image(int sequence, boolean inbound, String aid) {
+        return new TerminalImage(sequence, "term1-" + sequence, inbound, null, aid, SIZE, 0, 0);
+    }
+
+    private TerminalField field(int row, int column, boolean fieldProtected, Character colour, String text) {
+        Character[] chars = new Character[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return field(row, column, fieldProtected, colour, chars);
+    }
+
+    private TerminalField field(int row, int column, boolean fieldProtected, Character colour, Character[] chars) {
+        TerminalField field = new TerminalField(row, column, false, fieldProtected, false, true, false, false, false,
+                colour, null, null);
+        field.getContents().add(new FieldContents(chars));
+        return field;
+    }
+
+}
@@ -40,8 +40,10 @@ import dev.galasa.zos3270.TerminalInterruptedException;
 import dev.galasa.zos3270.Zos3270ManagerException;
 import dev.galasa.zos3270.Zos3270Terminal;
 import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.internal.comms.NetworkSelector;
 import dev.galasa.zos3270.internal.gherkin.Gherkin3270Coordinator;
 import dev.galasa.zos3270.internal.properties.ExtraBundles;
+import dev.galasa.zos3270.internal.properties.NetworkIoThreads;
 import dev.galasa.zos3270.internal.properties.Zos3270PropertiesSingleton;
 import dev.galasa.zos3270.spi.IZos3270ManagerSpi;
 import dev.galasa.zos3270.spi.NetworkException;
@@ -61,6 +63,8 @@ public class Zos3270ManagerImpl extends AbstractGherkinManager implements IZos32
     private ArrayList<Zos3270TerminalImpl>              terminals     = new ArrayList<>();
 
     private int                                         terminalCount = 0;
+
+    private NetworkSelector                             networkSelector;
     
     private Gherkin3270Coordinator                      gherkinCoordinator;
 
@@ -195,6 +199,11 @@ public class Zos3270ManagerImpl extends AbstractGherkinManager implements IZos32
 
             Zos3270TerminalImpl terminal = new Zos3270TerminalImpl(terminaId, host.getHostname(), host.getTelnetPort(),
                     host.isTelnetPortTls(), host.shouldVerifyTelnetServer(), getFramework(), autoConnect, image, primarySize, alternateSize, textScannerManager);
+
+            NetworkSelector selector = getNetworkSelector();
+            if (selector != null) {
+                terminal.setNetworkSelector(selector);
+            }
             
             this.terminals.add(terminal);
             logger.info("Generated a terminal for zOS Image tagged " + imageTag);
@@ -205,6 +214,21 @@ public class Zos3270ManagerImpl extends AbstractGherkinManager implements IZos32
         }
     }
     
+    /**
+     * @return the selector shared by all the terminals of the run, or null if
+     *         each terminal is to read its network on a thread of its own
+     */
+    private NetworkSelector getNetworkSelector() throws Zos3270ManagerException, NetworkException {
+        if (this.networkSelector == null) {
+            int ioThreads = NetworkIoThreads.get();
+            if (ioThreads > 0) {
+                logger.info("zOS 3270 terminals will share " + ioThreads + " network I/O threads");
+                this.networkSelector = new NetworkSelector(ioThreads);
+            }
+        }
+        return this.networkSelector;
+    }
+
     @Override
     public void provisionStart() throws ManagerException, ResourceUnavailableException {
         if (terminals.isEmpty()) {
@@ -233,6 +257,11 @@ public class Zos3270ManagerImpl extends AbstractGherkinManager implements IZos32
         for (Zos3270TerminalImpl terminal : terminals) {
             disconnectTerminal(terminal);
         }
+
+        if (this.networkSelector != null) {
+            this.networkSelector.shutdown();
+            this.networkSelector = null;
+        }
     }
 
     private void disconnectTerminal(Zos3270TerminalImpl terminal) {
@@ -18,8 +18,10 @@ import java.security.NoSuchProviderException;
 import java.security.cert.X509Certificate;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ScheduledFuture;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
@@ -48,6 +50,12 @@ public class Network {
     private OutputStream        outputStream;
     private InputStream         inputStream;
 
+    // When set, the connection is read by one of the selector's I/O threads
+    // rather than by the terminal's own NetworkThread
+    private NetworkSelector     selector;
+    private SelectorConnection  connection;
+    private ScheduledFuture<?>  selectorKeepAlive;
+
     private KeepAlive           keepAlive;
     private Instant             lastSend        = Instant.now();
 
@@ -80,6 +88,10 @@ public class Network {
             close();
         }
 
+        if (selector != null) {
+            return connectSelectorClient();
+        }
+
         Socket newSocket = null;
         try {
             newSocket = createSocket();
@@ -112,6 +124,58 @@ public class Network {
         }
     }
     
+    private boolean connectSelectorClient() throws NetworkException {
+        if (connection != null) {
+            if (connection.isOpen()) {
+                logger.trace("connectClient() exiting, connection is already open to the server");
+                return true;
+            }
+
+            close();
+        }
+
+        try {
+            SSLEngine sslEngine = null;
+            if (ssl) {
+                sslEngine = createSslEngine(createSslContext(verifyServer));
+            }
+
+            logger.trace("Connecting to remote host " + String.valueOf(this.getHostPort()) + " through the network selector");
+            this.connection = selector.connect(this.host, this.port, sslEngine, this.terminalId);
+            this.outputStream = this.connection.getOutputStream();
+
+            this.selectorKeepAlive = selector.scheduleKeepAlive(this::sendKeepAlive);
+
+            logger.trace("connectClient() exiting, client connected OK");
+            return true;
+        } catch (Exception e) {
+            throw new NetworkException("Unable to connect to Telnet server", e);
+        }
+    }
+
+    /**
+     * Read this network's connection on one of the selector's I/O threads,
+     * rather than on a NetworkThread of its own. Set before connecting.
+     */
+    public void setSelector(NetworkSelector selector) {
+        this.selector = selector;
+    }
+
+    public boolean isMultiplexed() {
+        return (this.selector != null);
+    }
+
+    /**
+     * Start giving what is received on the selector's connection to the
+     * NetworkThread to process
+     */
+    public void startReading(NetworkThread networkThread) throws NetworkException {
+        if (connection == null) {
+            throw new NetworkException("Attempt to read from a disconnected terminal " + this.terminalId);
+        }
+        connection.start(networkThread);
+    }
+
     public void setDoStartTls(boolean doStartTls) {
         this.doStartTls = doStartTls;
     }
@@ -121,7 +185,7 @@ public class Network {
     }
 
     public boolean isConnected() {
-        return (this.socket != null);
+        return (this.socket != null || this.connection != null);
     }
 
     public Socket createSocket() throws IOException, NoSuchAlgorithmException, KeyManagementException, KeyStoreException, NoSuchProviderException {
@@ -131,21 +195,7 @@ public class Network {
             logger.trace("Creating non-SSL socket");
             newSocket = new Socket(this.host, this.port);
         } else {
-            String contextName = nameSelector.getSelectedSSLContextName();
-            logger.trace("Initializing SSL context: " + String.valueOf(contextName));
-
-            SSLContext sslContext = SSLContext.getInstance(contextName);
-            TrustManager[] trustManagers;
-            if (verifyServer) {
-                TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
-                factory.init((KeyStore) null);
-                trustManagers = factory.getTrustManagers();
-            } else {
-                trustManagers = new TrustManager[] { new TrustAllCerts() };
-            }
-            sslContext.init(null, trustManagers, new java.security.SecureRandom());
-
-            logger.trace("Initialized SSL context OK");
+            SSLContext sslContext = createSslContext(verifyServer);
 
             logger.trace("Creating socket with remote host: " + String.valueOf(this.getHostPort()));
             newSocket = sslContext.getSocketFactory().createSocket(this.host, this.port);
@@ -162,8 +212,41 @@ public class Network {
         return newSocket;
     }
 
+    private SSLContext createSslContext(boolean verify) throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        String contextName = nameSelector.getSelectedSSLContextName();
+        logger.trace("Initializing SSL context: " + String.valueOf(contextName));
+
+        SSLContext sslContext = SSLContext.getInstance(contextName);
+        TrustManager[] trustManagers;
+        if (verify) {
+            TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            factory.init((KeyStore) null);
+            trustManagers = factory.getTrustManagers();
+        } else {
+            trustManagers = new TrustManager[] { new TrustAllCerts() };
+        }
+        sslContext.init(null, trustManagers, new java.security.SecureRandom());
+
+        logger.trace("Initialized SSL context OK");
+        return sslContext;
+    }
+
+    private SSLEngine createSslEngine(SSLContext sslContext) {
+        SSLEngine sslEngine = sslContext.createSSLEngine(this.host, this.port);
+        sslEngine.setUseClientMode(true);
+        return sslEngine;
+    }
+
     public void close() {
         logger.trace("close() entered");
+        if (connection != null) {
+            logger.trace("Closing selector connection...");
+            connection.close();
+            connection = null;
+            outputStream = null;
+
+            selectorKeepAlive.cancel(false);
+        }
         if (socket != null) {
             try {
                 logger.trace("Closing socket...");
@@ -194,13 +277,7 @@ public class Network {
     public Socket startTls() throws NetworkException {
         logger.trace("startTls() entered");
         try {
-            String contextName = nameSelector.getSelectedSSLContextName();
-            logger.trace("Initializing SSL context: " + String.valueOf(contextName));
-
-            SSLContext sslContext = SSLContext.getInstance(contextName);
-            sslContext.init(null, new TrustManager[] { new TrustAllCerts() }, new java.security.SecureRandom());
-
-            logger.trace("Initialized SSL context OK");
+            SSLContext sslContext = createSslContext(false);
 
             logger.trace("Creating socket with remote host: " + String.valueOf(this.getHostPort()));
             Socket tlsSocket = sslContext.getSocketFactory().createSocket(socket, this.host, this.port, false);
@@ -224,6 +301,21 @@ public class Network {
         }
     }
 
+    /**
+     * Switch the selector's connection to TLS, after the host has agreed to
+     * START_TLS. Called by the NetworkThread while it is processing on the
+     * selector's I/O thread.
+     */
+    public void startSelectorTls() throws NetworkException {
+        logger.trace("startSelectorTls() entered");
+        try {
+            this.connection.startTls(createSslEngine(createSslContext(false)));
+            logger.trace("startSelectorTls() exiting");
+        } catch(Exception e) {
+            throw new NetworkException("Problem negotiating TLS on plain socket", e);
+        }
+    }
+
     public void sendDatastream(byte[] outboundDatastream) throws NetworkException {
         if (this.errorException != null) {
             throw new NetworkException("Terminal network connection has gone into error state",this.errorException);
@@ -0,0 +1,240 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLEngine;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zos3270.spi.NetworkException;
+
+/**
+ * Reads the network connections of many terminals on a small number of I/O
+ * threads, rather than each terminal having a thread of its own blocked in a
+ * socket read.
+ *
+ * Each connection is given to one of the I/O threads, which reads whatever the
+ * host has sent, decrypts it if the connection is using TLS, and passes each
+ * complete telnet command or 3270 message to the terminal's NetworkThread, to
+ * be processed in the same way as if the NetworkThread had read it itself.
+ */
+public class NetworkSelector {
+
+    private static final long              MAX_MILLISECS_TO_WAIT_FOR_IO_THREAD_TO_FINISH = 20 * 1000;
+
+    private final Log                      logger       = LogFactory.getLog(getClass());
+
+    private final IoThread[]               ioThreads;
+    private final AtomicInteger            nextIoThread = new AtomicInteger();
+
+    // Terminals are told the network has closed on a thread of their own, as
+    // they may reconnect, which needs the I/O threads to be free
+    private final ExecutorService          closedNotifier;
+
+    // One thread sends the keep-alives of all the connections
+    private final ScheduledExecutorService keepAlives;
+
+    private volatile boolean               shutdown     = false;
+
+    public NetworkSelector(int ioThreadCount) throws NetworkException {
+        if (ioThreadCount < 1) {
+            throw new NetworkException("The number of 3270 network I/O threads must be at least 1, not " + ioThreadCount);
+        }
+
+        this.closedNotifier = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "3270 network closed");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.keepAlives = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "3270 keep alive");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.ioThreads = new IoThread[ioThreadCount];
+        try {
+            for (int i = 0; i < ioThreadCount; i++) {
+                this.ioThreads[i] = new IoThread(i + 1);
+            }
+        } catch (IOException e) {
+            shutdown();
+            throw new NetworkException("Unable to open the 3270 network selector", e);
+        }
+
+        for (IoThread ioThread : this.ioThreads) {
+            ioThread.start();
+        }
+        logger.trace("Started " + ioThreadCount + " 3270 network I/O threads");
+    }
+
+    public int getIoThreadCount() {
+        return this.ioThreads.length;
+    }
+
+    /**
+     * Connect to a host and start reading from it on one of the I/O threads.
+     * Nothing received is processed until a NetworkThread is given to the
+     * connection with {@link SelectorConnection#start(NetworkThread)}.
+     *
+     * @param sslEngine - the client engine to encrypt the connection with, or
+     *                  null if the connection is not TLS. The TLS handshake is
+     *                  complete by the time this returns.
+     */
+    SelectorConnection connect(String host, int port, SSLEngine sslEngine, String terminalId) throws IOException {
+        if (this.shutdown) {
+            throw new IOException("The 3270 network selector has been shutdown");
+        }
+
+        IoThread ioThread = this.ioThreads[Math.floorMod(this.nextIoThread.getAndIncrement(), this.ioThreads.length)];
+
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            channel.connect(new InetSocketAddress(host, port));
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        SelectorConnection connection = new SelectorConnection(channel, ioThread, this.closedNotifier, terminalId, sslEngine);
+        ioThread.execute(() -> connection.register(ioThread.selector));
+
+        if (sslEngine != null) {
+            connection.waitForHandshake();
+        }
+        return connection;
+    }
+
+    ScheduledFuture<?> scheduleKeepAlive(Runnable keepAlive) {
+        return this.keepAlives.scheduleWithFixedDelay(keepAlive, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the I/O threads, closing any connections that are still open
+     */
+    public void shutdown() {
+        this.shutdown = true;
+        this.keepAlives.shutdownNow();
+        for (IoThread ioThread : this.ioThreads) {
+            if (ioThread != null) {
+                ioThread.shutdown();
+            }
+        }
+
+        // *** The I/O threads tell the terminals they have closed on the way out
+        for (IoThread ioThread : this.ioThreads) {
+            if (ioThread != null) {
+                try {
+                    ioThread.join(MAX_MILLISECS_TO_WAIT_FOR_IO_THREAD_TO_FINISH);
+                } catch (InterruptedException e) {
+                    logger.warn("Interrupted while waiting for the 3270 network I/O threads to end");
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        this.closedNotifier.shutdown();
+    }
+
+    private class IoThread extends Thread implements Executor {
+
+        private final Selector                        selector;
+        private final ConcurrentLinkedQueue<Runnable> tasks    = new ConcurrentLinkedQueue<>();
+        private volatile boolean                      shutdown = false;
+
+        public IoThread(int number) throws IOException {
+            this.selector = Selector.open();
+            setName("3270 network io " + number);
+            setDaemon(true);
+        }
+
+        /**
+         * Run a task on this thread, which is the only thread that touches the
+         * selector and the receive side of its connections
+         */
+        @Override
+        public void execute(Runnable task) {
+            this.tasks.add(task);
+            this.selector.wakeup();
+        }
+
+        public void shutdown() {
+            this.shutdown = true;
+            this.selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            logger.trace("Started 3270 network I/O thread " + getName());
+            while (!this.shutdown) {
+                try {
+                    this.selector.select();
+                } catch (IOException e) {
+                    logger.error("Problem selecting 3270 network connections", e);
+                    break;
+                }
+
+                runTasks();
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        ((SelectorConnection) key.attachment()).readable();
+                    }
+                }
+            }
+
+            // *** Close whatever is still connected, and let the terminals know
+            for (SelectionKey key : new ArrayList<>(this.selector.keys())) {
+                ((SelectorConnection) key.attachment()).close();
+            }
+            runTasks();
+
+            try {
+                this.selector.close();
+            } catch (IOException e) {
+                logger.error("Failed to close the 3270 network selector", e);
+            }
+            logger.trace("Ended 3270 network I/O thread " + getName());
+        }
+
+        private void runTasks() {
+            Runnable task;
+            while ((task = this.tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.error("Problem running a 3270 network task", e);
+                }
+            }
+        }
+    }
+
+}
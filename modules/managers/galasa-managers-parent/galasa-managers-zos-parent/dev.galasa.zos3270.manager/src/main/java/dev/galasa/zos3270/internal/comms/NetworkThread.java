@@ -13,6 +13,8 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.logging.Log;
@@ -119,6 +121,8 @@ public class NetworkThread extends Thread {
 
     private SSCPLUDataTransform sscpLuDataTransform;
 
+    private final CountDownLatch     ended           = new CountDownLatch(1);
+
     public NetworkThread(Terminal terminal, Screen screen, Network network, InputStream inputStream) {
         this(terminal, screen, network, inputStream, null);
     }
@@ -160,6 +164,14 @@ public class NetworkThread extends Thread {
                 break;
             }
         }
+        networkClosed();
+    }
+
+    /**
+     * The network has closed, either found by this thread reading it, or by the
+     * NetworkSelector that has been reading it instead
+     */
+    void networkClosed() {
         try {
             screen.networkClosed();
         } catch (TerminalInterruptedException e) {
@@ -168,6 +180,19 @@ public class NetworkThread extends Thread {
 
         logger.trace("Ending network thread on terminal " + terminal.getId());
         terminal.networkClosed();
+        ended.countDown();
+    }
+
+    /**
+     * Wait for the terminal to have been told the network has closed. When a
+     * NetworkSelector is reading the network, this thread is never started.
+     */
+    public void waitForEnd(long millis) throws InterruptedException {
+        if (getState() == State.NEW) {
+            ended.await(millis, TimeUnit.MILLISECONDS);
+        } else {
+            join(millis);
+        }
     }
 
     public void processMessage(InputStream messageStream) throws IOException, NetworkException {
@@ -358,8 +383,12 @@ public class NetworkThread extends Thread {
     private void doIacSbStartTlsFollows(ByteBuffer remainingSb) throws NetworkException, IOException {
         logger.trace("TN3270E switching to TLS");
 
-        Socket newSocket = this.network.startTls();
-        this.inputStream = newSocket.getInputStream();
+        if (this.network.isMultiplexed()) {
+            this.network.startSelectorTls();
+        } else {
+            Socket newSocket = this.network.startTls();
+            this.inputStream = newSocket.getInputStream();
+        }
         this.network.switchedSSL(true);
 
 
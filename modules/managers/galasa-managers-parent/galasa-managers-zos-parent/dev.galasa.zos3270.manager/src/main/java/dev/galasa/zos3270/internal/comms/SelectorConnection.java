@@ -0,0 +1,464 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLEngineResult.Status;
+import javax.net.ssl.SSLException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zos3270.spi.NetworkException;
+
+/**
+ * A terminal's connection to a host, read by one of the I/O threads of a
+ * {@link NetworkSelector}.
+ *
+ * Everything on the receive side, including the TLS handshake, happens on the
+ * I/O thread. Sending happens on whichever thread is sending, as it does for a
+ * socket.
+ *
+ * The NetworkThread processes the received bytes as if it were reading them
+ * from a socket itself. When it runs out part way through a telnet command or
+ * 3270 message, the command is processed again from the start once the rest
+ * of it has arrived. NetworkThread does not act on a command until it has read
+ * all of it, so nothing is done twice.
+ */
+class SelectorConnection {
+
+    private static final int        READ_BUFFER_SIZE                    = 16 * 1024;
+    private static final long       MAX_MILLISECS_TO_WAIT_FOR_HANDSHAKE = 60 * 1000;
+    private static final long       WRITE_RETRY_NANOS                   = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final ByteBuffer NOTHING                             = ByteBuffer.allocate(0);
+
+    private final Log               logger                              = LogFactory.getLog(getClass());
+
+    private final SocketChannel     channel;
+    private final Executor          ioThread;
+    private final Executor          closedNotifier;
+    private final String            terminalId;
+    private final SSLEngine         initialSslEngine;
+    private final OutputStream      outputStream                        = new ConnectionOutputStream();
+    private final AtomicBoolean     closed                              = new AtomicBoolean();
+
+    // *** Only used on the I/O thread
+    private NetworkThread           networkThread;
+    private boolean                 closedNotified                      = false;
+    private boolean                 endOfStream                         = false;
+    // The decrypted bytes that have not been processed yet, in write mode
+    private ByteBuffer              received                            = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    // The encrypted bytes that have not been decrypted yet, in write mode
+    private ByteBuffer              networkIn;
+
+    // *** Changed on the I/O thread, used by the sending threads too
+    private volatile SSLEngine      sslEngine;
+    private volatile CountDownLatch handshaken;
+    private volatile Exception      handshakeError;
+
+    // *** Only used while holding the write lock
+    private final Object            writeLock                           = new Object();
+    private ByteBuffer              networkOut;
+
+    SelectorConnection(SocketChannel channel, Executor ioThread, Executor closedNotifier, String terminalId, SSLEngine sslEngine) {
+        this.channel = channel;
+        this.ioThread = ioThread;
+        this.closedNotifier = closedNotifier;
+        this.terminalId = terminalId;
+        this.initialSslEngine = sslEngine;
+        this.handshaken = new CountDownLatch((sslEngine == null) ? 0 : 1);
+    }
+
+    /**
+     * Register with the I/O thread's selector, and start the TLS handshake if
+     * the connection is TLS from the start. Runs on the I/O thread.
+     */
+    void register(Selector selector) {
+        try {
+            this.channel.register(selector, SelectionKey.OP_READ, this);
+            if (this.initialSslEngine != null) {
+                startTls(this.initialSslEngine);
+                decrypt();
+            }
+        } catch (Exception e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * Start giving what is received to the NetworkThread, including anything
+     * that has arrived since the connection was made
+     */
+    void start(NetworkThread networkThread) {
+        this.ioThread.execute(() -> {
+            this.networkThread = networkThread;
+            try {
+                process();
+            } catch (Exception e) {
+                failed(e);
+            }
+            notifyClosed();
+        });
+    }
+
+    /**
+     * Switch the connection to TLS. Runs on the I/O thread, either when the
+     * connection is registered, or while the NetworkThread is processing the
+     * host's START_TLS FOLLOWS.
+     */
+    void startTls(SSLEngine engine) throws SSLException {
+        logger.trace("Starting TLS handshake on terminal " + this.terminalId);
+        if (this.handshaken.getCount() == 0) {
+            this.handshaken = new CountDownLatch(1);
+        }
+        this.networkIn = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        this.sslEngine = engine;
+        engine.beginHandshake();
+    }
+
+    void waitForHandshake() throws IOException {
+        try {
+            if (!this.handshaken.await(MAX_MILLISECS_TO_WAIT_FOR_HANDSHAKE, TimeUnit.MILLISECONDS)) {
+                close();
+                throw new IOException("TLS handshake with the host did not complete in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new InterruptedIOException("Wait for the TLS handshake was interrupted");
+        }
+
+        if (this.closed.get()) {
+            throw new IOException("Connection closed during the TLS handshake", this.handshakeError);
+        }
+    }
+
+    /**
+     * The selector says there is something to read. Runs on the I/O thread.
+     */
+    void readable() {
+        try {
+            int length;
+            if (this.sslEngine == null) {
+                this.received = ensureRoom(this.received);
+                length = this.channel.read(this.received);
+            } else {
+                this.networkIn = ensureRoom(this.networkIn);
+                length = this.channel.read(this.networkIn);
+            }
+
+            if (length < 0) {
+                logger.trace("Terminal has been disconnected");
+                this.endOfStream = true;
+            }
+
+            process();
+
+            if (this.endOfStream) {
+                close();
+            }
+        } catch (Exception e) {
+            failed(e);
+        }
+    }
+
+    private void process() throws IOException, NetworkException {
+        while (true) {
+            boolean tls = (this.sslEngine != null);
+            if (tls) {
+                decrypt();
+            }
+
+            dispatch();
+
+            if (tls || this.sslEngine == null) {
+                return;
+            }
+            // *** The host agreed to START_TLS part way through what was received, so
+            // go round again to carry on with the handshake
+        }
+    }
+
+    private void dispatch() throws IOException, NetworkException {
+        if (this.networkThread == null) {
+            return;
+        }
+
+        SSLEngine engine = this.sslEngine;
+        this.received.flip();
+        try {
+            while (this.received.hasRemaining() && !this.closed.get()) {
+                int start = this.received.position();
+                try {
+                    this.networkThread.processMessage(new ReceivedInputStream(this.received));
+                } catch (IncompleteMessageException e) {
+                    this.received.position(start);
+                    break;
+                }
+
+                if (this.sslEngine != engine) {
+                    // *** Everything after START_TLS FOLLOWS is part of the TLS handshake
+                    if (this.networkIn.remaining() < this.received.remaining()) {
+                        this.networkIn = enlarge(this.networkIn, this.received.remaining());
+                    }
+                    this.networkIn.put(this.received);
+                    break;
+                }
+            }
+        } finally {
+            this.received.compact();
+        }
+    }
+
+    private void decrypt() throws IOException {
+        while (!this.endOfStream) {
+            HandshakeStatus status = this.sslEngine.getHandshakeStatus();
+            if (status == HandshakeStatus.NEED_TASK) {
+                Runnable task;
+                while ((task = this.sslEngine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+            } else if (status == HandshakeStatus.NEED_WRAP) {
+                synchronized (this.writeLock) {
+                    wrapAndWrite(NOTHING);
+                }
+            } else if (!unwrap()) {
+                break;
+            }
+
+            if (this.handshaken.getCount() > 0 && this.sslEngine.getHandshakeStatus() == HandshakeStatus.NOT_HANDSHAKING) {
+                logger.trace("TLS handshake OK on terminal " + this.terminalId);
+                this.handshaken.countDown();
+            }
+        }
+    }
+
+    /**
+     * @return false if more has to be read from the network before anything else
+     *         can be decrypted
+     */
+    private boolean unwrap() throws IOException {
+        this.networkIn.flip();
+        SSLEngineResult result;
+        try {
+            result = this.sslEngine.unwrap(this.networkIn, this.received);
+        } finally {
+            this.networkIn.compact();
+        }
+
+        switch (result.getStatus()) {
+            case BUFFER_OVERFLOW:
+                this.received = enlarge(this.received, this.sslEngine.getSession().getApplicationBufferSize());
+                return true;
+            case BUFFER_UNDERFLOW:
+                if (!this.networkIn.hasRemaining()) {
+                    this.networkIn = enlarge(this.networkIn, this.sslEngine.getSession().getPacketBufferSize());
+                }
+                return false;
+            case CLOSED:
+                logger.trace("Host closed the TLS session on terminal " + this.terminalId);
+                this.endOfStream = true;
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private void send(ByteBuffer data) throws IOException {
+        SSLEngine engine = this.sslEngine;
+        if (engine != null && this.handshaken.getCount() > 0) {
+            if (Thread.currentThread() == this.ioThread) {
+                throw new IOException("Unable to send on terminal " + this.terminalId + " during the TLS handshake");
+            }
+            waitForHandshake();
+        }
+
+        synchronized (this.writeLock) {
+            if (this.closed.get()) {
+                throw new IOException("Socket closed");
+            }
+
+            if (engine == null) {
+                writeFully(data);
+            } else {
+                while (data.hasRemaining()) {
+                    wrapAndWrite(data);
+                }
+            }
+        }
+    }
+
+    private void wrapAndWrite(ByteBuffer data) throws IOException {
+        int packetSize = this.sslEngine.getSession().getPacketBufferSize();
+        if (this.networkOut == null || this.networkOut.capacity() < packetSize) {
+            this.networkOut = ByteBuffer.allocate(packetSize);
+        }
+
+        SSLEngineResult result;
+        while (true) {
+            this.networkOut.clear();
+            result = this.sslEngine.wrap(data, this.networkOut);
+            if (result.getStatus() != Status.BUFFER_OVERFLOW) {
+                break;
+            }
+            this.networkOut = ByteBuffer.allocate(this.networkOut.capacity() * 2);
+        }
+
+        this.networkOut.flip();
+        writeFully(this.networkOut);
+
+        if (result.getStatus() == Status.CLOSED) {
+            throw new SSLException("TLS session has closed on terminal " + this.terminalId);
+        }
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            if (this.channel.write(data) == 0) {
+                // *** The socket's send buffer is full, give the host a moment to read it
+                LockSupport.parkNanos(WRITE_RETRY_NANOS);
+            }
+        }
+    }
+
+    private void failed(Exception e) {
+        if (!this.closed.get()) {
+            logger.error("Problem with the network connection of terminal " + this.terminalId, e);
+        }
+        this.handshakeError = e;
+        close();
+    }
+
+    boolean isOpen() {
+        return !this.closed.get();
+    }
+
+    OutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            logger.error("Failed to close the socket", e);
+        }
+
+        // *** Nobody should wait for a handshake that is never going to finish
+        this.handshaken.countDown();
+        this.ioThread.execute(this::notifyClosed);
+    }
+
+    /**
+     * Tell the NetworkThread the network has closed, as it would find out for
+     * itself if it were reading the socket. Runs on the I/O thread.
+     */
+    private void notifyClosed() {
+        if (!this.closed.get() || this.networkThread == null || this.closedNotified) {
+            return;
+        }
+        this.closedNotified = true;
+        this.closedNotifier.execute(this.networkThread::networkClosed);
+    }
+
+    private static ByteBuffer ensureRoom(ByteBuffer buffer) {
+        if (buffer.remaining() >= READ_BUFFER_SIZE / 4) {
+            return buffer;
+        }
+        return enlarge(buffer, READ_BUFFER_SIZE);
+    }
+
+    private static ByteBuffer enlarge(ByteBuffer buffer, int extra) {
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() + extra);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private class ConnectionOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            send(ByteBuffer.wrap(new byte[] { (byte) b }));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            send(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    /**
+     * The received bytes, as a stream that throws an
+     * {@link IncompleteMessageException} rather than blocking when it runs out
+     */
+    private static class ReceivedInputStream extends InputStream {
+
+        private final ByteBuffer received;
+
+        public ReceivedInputStream(ByteBuffer received) {
+            this.received = received;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!this.received.hasRemaining()) {
+                throw IncompleteMessageException.INSTANCE;
+            }
+            return this.received.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!this.received.hasRemaining()) {
+                throw IncompleteMessageException.INSTANCE;
+            }
+            int length = Math.min(len, this.received.remaining());
+            this.received.get(b, off, length);
+            return length;
+        }
+    }
+
+    private static class IncompleteMessageException extends IOException {
+        private static final long                       serialVersionUID = 1L;
+
+        private static final IncompleteMessageException INSTANCE         = new IncompleteMessageException();
+
+        public IncompleteMessageException() {
+            super("The rest of the message has not been received yet");
+        }
+
+        // *** Thrown whenever a message arrives in more than one read, so skip the stack trace
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+}
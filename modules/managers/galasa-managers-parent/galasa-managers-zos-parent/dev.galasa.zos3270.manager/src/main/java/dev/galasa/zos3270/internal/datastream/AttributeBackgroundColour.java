@@ -22,6 +22,10 @@ public class AttributeBackgroundColour implements IAttribute {
         this.colour = Colour.getColour(code);
     }
 
+    public AttributeBackgroundColour(Colour colour) {
+        this.colour = colour;
+    }
+
     public Colour getColour() {
         return colour;
     }
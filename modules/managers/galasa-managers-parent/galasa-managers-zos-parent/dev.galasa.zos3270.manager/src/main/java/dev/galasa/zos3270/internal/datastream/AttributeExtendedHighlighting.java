@@ -22,6 +22,10 @@ public class AttributeExtendedHighlighting implements IAttribute {
         this.highlight = Highlight.getHighlight(code);
     }
 
+    public AttributeExtendedHighlighting(Highlight highlight) {
+        this.highlight = highlight;
+    }
+
     public Highlight getHighlight() {
         return this.highlight;
     }
@@ -22,6 +22,10 @@ public class AttributeForegroundColour implements IAttribute {
         this.colour = Colour.getColour(code);
     }
 
+    public AttributeForegroundColour(Colour colour) {
+        this.colour = colour;
+    }
+
     public Colour getColour() {
         return colour;
     }
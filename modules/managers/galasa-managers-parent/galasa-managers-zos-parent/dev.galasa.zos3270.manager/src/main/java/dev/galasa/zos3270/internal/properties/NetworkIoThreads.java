@@ -0,0 +1,32 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The number of threads that read the networks of all the terminals in a run
+ * </p>
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.network.io.threads=2
+ * </p>
+ * <p>
+ * default is 0, where each terminal reads its network on a thread of its own
+ * </p>
+ * 
+ *  
+ *
+ */
+public class NetworkIoThreads extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        return getIntWithDefault(Zos3270PropertiesSingleton.cps(), 0, "network", "io.threads");
+    }
+
+}
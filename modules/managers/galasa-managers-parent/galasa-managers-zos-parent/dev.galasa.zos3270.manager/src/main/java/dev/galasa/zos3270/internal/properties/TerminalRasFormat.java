@@ -0,0 +1,40 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The format the terminal images are stored in the RAS with
+ * </p>
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.terminal.ras.format=delta
+ * </p>
+ * <p>
+ * default is full, where every image is stored in full. delta stores only what
+ * has changed from one image to the next
+ * </p>
+ * 
+ *  
+ *
+ */
+public class TerminalRasFormat extends CpsProperties {
+
+    public static final String FULL  = "full";
+    public static final String DELTA = "delta";
+
+    public static String get() throws Zos3270ManagerException {
+        String format = getStringWithDefault(Zos3270PropertiesSingleton.cps(), FULL, "terminal", "ras.format").trim().toLowerCase();
+        if (!FULL.equals(format) && !DELTA.equals(format)) {
+            throw new Zos3270ManagerException("Invalid value '" + format + "' for zos3270.terminal.ras.format, must be " + FULL + " or " + DELTA);
+        }
+        return format;
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import dev.galasa.framework.spi.IConfidentialTextService;
+
+/**
+ * A writer that removes confidential text from what is written to it before
+ * passing it on.
+ *
+ * The text is held until the writer is flushed or closed, and then filtered as
+ * a whole, so confidential text is found even when it was written in several
+ * pieces. Text is only found if it is wholly inside one flush, so callers
+ * should flush at natural boundaries, such as the end of each terminal image.
+ */
+public class ConfidentialTextFilteringWriter extends Writer {
+
+    private final Writer target;
+    private final IConfidentialTextService cts;
+    private final StringBuilder pending = new StringBuilder();
+
+    public ConfidentialTextFilteringWriter(Writer target, IConfidentialTextService cts) {
+        this.target = target;
+        this.cts = cts;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        pending.append(cbuf, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (pending.length() > 0) {
+            target.write(cts.removeConfidentialText(pending.toString()));
+            pending.setLength(0);
+        }
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            target.close();
+        }
+    }
+}
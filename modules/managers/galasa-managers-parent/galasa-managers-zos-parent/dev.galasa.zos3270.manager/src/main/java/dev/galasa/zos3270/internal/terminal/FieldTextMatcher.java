@@ -0,0 +1,226 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeMap;
+
+import dev.galasa.zos3270.ErrorTextFoundException;
+import dev.galasa.zos3270.TextNotFoundException;
+
+/**
+ * Looks for a set of ok and error texts in the fields of a screen, in a single
+ * pass over the text of all the fields.
+ *
+ * The texts are built into an Aho-Corasick automaton, so the cost of a search
+ * depends on the size of the screen rather than the size of the screen times
+ * the number of texts. A text only matches if it is wholly inside one field.
+ *
+ * A matcher does not change once it is built, so it can be used for many
+ * searches, and by more than one thread.
+ */
+public class FieldTextMatcher {
+
+    private final String[] okText;
+    private final String[] errorText;
+
+    // All the texts, error texts first, so a text's id is its index in here
+    private final String[] patterns;
+
+    // The automaton. Each state's transitions are held as a sorted array of
+    // characters with the matching array of target states.
+    private final char[][] transitionChars;
+    private final int[][] transitionStates;
+    private final int[] failureStates;
+    private final int[][] matchedPatterns;
+
+    public FieldTextMatcher(String okText) {
+        this(new String[] { okText }, null);
+    }
+
+    public FieldTextMatcher(String[] okText, String[] errorText) {
+        this.okText = okText;
+        this.errorText = (errorText == null) ? new String[0] : errorText;
+
+        this.patterns = new String[this.errorText.length + okText.length];
+        System.arraycopy(this.errorText, 0, this.patterns, 0, this.errorText.length);
+        System.arraycopy(okText, 0, this.patterns, this.errorText.length, okText.length);
+
+        // *** Build the trie of all the texts
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(new ArrayList<>());
+
+        for (int patternId = 0; patternId < this.patterns.length; patternId++) {
+            int state = 0;
+            for (char c : this.patterns[patternId].toCharArray()) {
+                Integer nextState = trie.get(state).get(c);
+                if (nextState == null) {
+                    nextState = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(new ArrayList<>());
+                    trie.get(state).put(c, nextState);
+                }
+                state = nextState;
+            }
+            outputs.get(state).add(patternId);
+        }
+
+        int stateCount = trie.size();
+        this.transitionChars = new char[stateCount][];
+        this.transitionStates = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            TreeMap<Character, Integer> transitions = trie.get(state);
+            char[] chars = new char[transitions.size()];
+            int[] states = new int[transitions.size()];
+            int i = 0;
+            for (Character c : transitions.keySet()) {
+                chars[i] = c;
+                states[i] = transitions.get(c);
+                i++;
+            }
+            this.transitionChars[state] = chars;
+            this.transitionStates[state] = states;
+        }
+
+        // *** Work out the failure links breadth first, so a state's failure state is
+        // always finished before the state itself
+        this.failureStates = new int[stateCount];
+        LinkedList<Integer> queue = new LinkedList<>();
+        for (int child : this.transitionStates[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.removeFirst();
+            for (int i = 0; i < this.transitionChars[state].length; i++) {
+                char c = this.transitionChars[state][i];
+                int child = this.transitionStates[state][i];
+
+                int failure = this.failureStates[state];
+                while (failure != 0 && nextState(failure, c) < 0) {
+                    failure = this.failureStates[failure];
+                }
+                int failureTarget = nextState(failure, c);
+                this.failureStates[child] = (failureTarget < 0) ? 0 : failureTarget;
+
+                outputs.get(child).addAll(outputs.get(this.failureStates[child]));
+                queue.add(child);
+            }
+        }
+
+        this.matchedPatterns = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            List<Integer> output = outputs.get(state);
+            this.matchedPatterns[state] = new int[output.size()];
+            for (int i = 0; i < output.size(); i++) {
+                this.matchedPatterns[state][i] = output.get(i);
+            }
+        }
+    }
+
+    private int nextState(int state, char c) {
+        int i = Arrays.binarySearch(this.transitionChars[state], c);
+        if (i < 0) {
+            return -1;
+        }
+        return this.transitionStates[state][i];
+    }
+
+    /**
+     * Find the first field each text appears in
+     *
+     * @param fieldText - the text of all the fields, one after the other
+     * @param fieldEnds - the index in fieldText just after the end of each field
+     * @return the index of the first field containing each text, error texts
+     *         first, -1 where a text is not on the screen
+     */
+    public int[] findFirstFields(char[] fieldText, int[] fieldEnds) {
+        int[] firstFields = new int[this.patterns.length];
+        Arrays.fill(firstFields, -1);
+
+        // *** An empty text is in every field
+        for (int patternId = 0; patternId < this.patterns.length; patternId++) {
+            if (this.patterns[patternId].isEmpty() && fieldEnds.length > 0) {
+                firstFields[patternId] = 0;
+            }
+        }
+
+        int field = 0;
+        int state = 0;
+        for (int i = 0; i < fieldText.length; i++) {
+            // *** Texts can't span fields, so start again at each new field
+            while (field < fieldEnds.length && i >= fieldEnds[field]) {
+                field++;
+                state = 0;
+            }
+
+            char c = fieldText[i];
+            int next = nextState(state, c);
+            while (next < 0 && state != 0) {
+                state = this.failureStates[state];
+                next = nextState(state, c);
+            }
+            state = (next < 0) ? 0 : next;
+
+            for (int patternId : this.matchedPatterns[state]) {
+                if (firstFields[patternId] < 0) {
+                    firstFields[patternId] = field;
+                }
+            }
+        }
+
+        return firstFields;
+    }
+
+    /**
+     * Find the first field containing any of the ok texts
+     *
+     * @return the index of the field, or -1 if none of the ok texts are on the
+     *         screen
+     */
+    public int findFirstField(char[] fieldText, int[] fieldEnds) {
+        int[] firstFields = findFirstFields(fieldText, fieldEnds);
+
+        int firstField = -1;
+        for (int i = this.errorText.length; i < firstFields.length; i++) {
+            if (firstFields[i] >= 0 && (firstField < 0 || firstFields[i] < firstField)) {
+                firstField = firstFields[i];
+            }
+        }
+        return firstField;
+    }
+
+    /**
+     * Search the fields for the error texts and then the ok texts. The first
+     * error text found takes priority over any ok text.
+     *
+     * @return the index of the first ok text found
+     * @throws ErrorTextFoundException if any of the error texts are on the screen
+     * @throws TextNotFoundException   if none of the texts are on the screen
+     */
+    public int search(char[] fieldText, int[] fieldEnds) throws TextNotFoundException, ErrorTextFoundException {
+        int[] firstFields = findFirstFields(fieldText, fieldEnds);
+
+        for (int i = 0; i < this.errorText.length; i++) {
+            if (firstFields[i] >= 0) {
+                throw new ErrorTextFoundException("Found error text '" + this.errorText[i] + "' on screen", i);
+            }
+        }
+
+        for (int i = 0; i < this.okText.length; i++) {
+            if (firstFields[this.errorText.length + i] >= 0) {
+                return i;
+            }
+        }
+
+        throw new TextNotFoundException("Unable to locate text on sreen");
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dev.galasa.zos3270.AttentionIdentification;
+import dev.galasa.zos3270.IScreenUpdateListener;
+import dev.galasa.zos3270.Zos3270Exception;
+import dev.galasa.zos3270.spi.Screen;
+
+/**
+ * Waits for a number of occurrences of some text to appear anywhere on the
+ * screen. The screen is only counted again when it has changed, and the
+ * waiting thread is woken as soon as enough occurrences are found.
+ */
+public class ScreenUpdateOccurrenceListener implements IScreenUpdateListener {
+
+    private final Screen screen;
+    private final String text;
+    private final int occurrences;
+    private long countedVersion = -1;
+    private volatile int foundOccurrences = 0;
+
+    // Never cleared, as the screen may still be updating this listener while the wait ends
+    private final Semaphore     textFound = new Semaphore(1, true);
+    private final AtomicBoolean isUsed    = new AtomicBoolean(false);
+
+    public ScreenUpdateOccurrenceListener(Screen screen, String text, int occurrences) throws InterruptedException {
+        this.screen = screen;
+        this.text = text;
+        this.occurrences = occurrences;
+        this.textFound.acquire();
+
+        synchronized (this.screen) {
+            screenUpdated(Direction.RECEIVED, null);
+            if (this.textFound.availablePermits() > 0) {
+                return;
+            }
+            this.screen.registerScreenUpdateListener(this);
+        }
+    }
+
+    @Override
+    public void screenUpdated(Direction direction, AttentionIdentification aid) {
+        // *** Nothing to do if the screen hasn't changed since the last count
+        long version = screen.getUpdateVersion();
+        if (version == this.countedVersion) {
+            return;
+        }
+        this.countedVersion = version;
+
+        int found = screen.countTextOccurrences(text, occurrences);
+        this.foundOccurrences = found;
+        if (found >= occurrences) {
+            this.textFound.release();
+        }
+    }
+
+    /**
+     * @return the number of occurrences found on the last version of the screen
+     *         that was counted, which stops at the number asked for
+     */
+    public int getFoundOccurrences() {
+        return this.foundOccurrences;
+    }
+
+    public boolean waitForOccurrences(long maxWait) throws InterruptedException, Zos3270Exception {
+        if (!this.isUsed.compareAndSet(false, true)) {
+            throw new Zos3270Exception("Not allowed to use this listener more than once");
+        }
+        boolean found;
+        try {
+            found = this.textFound.tryAcquire(1, maxWait, TimeUnit.MILLISECONDS);
+        } finally {
+            screen.unregisterScreenUpdateListener(this);
+        }
+
+        return found;
+    }
+
+    public static boolean waitForOccurrences(Screen screen, String text, int occurrences, long maxWait)
+            throws InterruptedException, Zos3270Exception {
+        return new ScreenUpdateOccurrenceListener(screen, text, occurrences).waitForOccurrences(maxWait);
+    }
+
+}
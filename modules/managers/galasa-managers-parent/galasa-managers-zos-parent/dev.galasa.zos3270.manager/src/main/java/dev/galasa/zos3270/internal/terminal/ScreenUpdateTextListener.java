@@ -7,6 +7,7 @@ package dev.galasa.zos3270.internal.terminal;
 
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import dev.galasa.zos3270.AttentionIdentification;
 import dev.galasa.zos3270.ErrorTextFoundException;
@@ -18,16 +19,18 @@ import dev.galasa.zos3270.spi.Screen;
 public class ScreenUpdateTextListener implements IScreenUpdateListener {
 
     private final Screen screen;
-    private final String[] okText;
-    private final String[] errorText;
-    private int foundItem = -1;
-    private ErrorTextFoundException errorFound = null;
-    private Semaphore    textFound = new Semaphore(1, true);
+    private final FieldTextMatcher matcher;
+    private long searchedVersion = -1;
+    private volatile int foundItem = -1;
+    private volatile ErrorTextFoundException errorFound = null;
+
+    // Never cleared, as the screen may still be updating this listener while the wait ends
+    private final Semaphore     textFound = new Semaphore(1, true);
+    private final AtomicBoolean isUsed    = new AtomicBoolean(false);
 
     public ScreenUpdateTextListener(Screen screen, String ok[], String error[]) throws InterruptedException {
         this.screen = screen;
-        this.okText = ok;
-        this.errorText = error;
+        this.matcher = new FieldTextMatcher(ok, error);
         this.textFound.acquire();
 
         synchronized (this.screen) {
@@ -41,8 +44,15 @@ public class ScreenUpdateTextListener implements IScreenUpdateListener {
 
     @Override
     public void screenUpdated(Direction direction, AttentionIdentification aid) {
+        // *** Nothing to do if the screen hasn't changed since the last search
+        long version = screen.getUpdateVersion();
+        if (version == this.searchedVersion) {
+            return;
+        }
+        this.searchedVersion = version;
+
         try {
-            this.foundItem = screen.searchFieldContaining(okText, errorText);
+            this.foundItem = screen.searchFieldContaining(matcher);
             this.textFound.release();
         } catch (TextNotFoundException e) {
             // IGNORE
@@ -54,15 +64,24 @@ public class ScreenUpdateTextListener implements IScreenUpdateListener {
     }
 
     public int waitForText(long maxWait) throws InterruptedException, ErrorTextFoundException, Zos3270Exception {
-        if (this.textFound == null) {
+        if (!this.isUsed.compareAndSet(false, true)) {
             throw new Zos3270Exception("Not allowed to use this listener more than once");
         }
-        this.textFound.tryAcquire(1, maxWait, TimeUnit.MILLISECONDS);
-        this.textFound = null;
-        screen.unregisterScreenUpdateListener(this);
-        
-        if (errorFound != null) {
-            throw errorFound;
+        boolean found;
+        try {
+            found = this.textFound.tryAcquire(1, maxWait, TimeUnit.MILLISECONDS);
+        } finally {
+            screen.unregisterScreenUpdateListener(this);
+        }
+
+        if (!found) {
+            // Anything found after the wait timed out is too late
+            return -1;
+        }
+
+        ErrorTextFoundException error = this.errorFound;
+        if (error != null) {
+            throw error;
         }
 
         return foundItem;
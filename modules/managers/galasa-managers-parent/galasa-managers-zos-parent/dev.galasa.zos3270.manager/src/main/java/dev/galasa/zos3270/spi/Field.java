@@ -42,6 +42,21 @@ public class Field {
         this.highlight        = sf.getHighlight();
     }
 
+    protected Field(int start, ScreenBuffer buffer, int fieldStart) {
+        this.start = start;
+        this.fieldProtected = buffer.isProtected(fieldStart);
+        this.fieldNumeric = buffer.isNumeric(fieldStart);
+        this.fieldDisplay = buffer.isDisplay(fieldStart);
+        this.fieldIntenseDisplay = buffer.isIntenseDisplay(fieldStart);
+        this.fieldSelectorPen = buffer.isSelectorPen(fieldStart);
+        this.fieldModifed = buffer.isFieldModified(fieldStart);
+        this.text = new char[0];
+
+        this.foregroundColour = buffer.getForegroundColour(fieldStart);
+        this.backgroundColour = buffer.getBackgroundColour(fieldStart);
+        this.highlight        = buffer.getHighlight(fieldStart);
+    }
+
     public Field() {
         this.start = -1;
         this.fieldProtected = false;
@@ -62,6 +77,12 @@ public class Field {
         this.text = newText;
     }
 
+    protected void appendChars(char[] newChars) {
+        char[] newText = Arrays.copyOf(this.text, this.text.length + newChars.length);
+        System.arraycopy(newChars, 0, newText, this.text.length, newChars.length);
+        this.text = newText;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -85,6 +106,10 @@ public class Field {
         return sb.toString();
     }
 
+    char[] getText() {
+        return this.text;
+    }
+
     public int length() {
         return text.length + 1;
     }
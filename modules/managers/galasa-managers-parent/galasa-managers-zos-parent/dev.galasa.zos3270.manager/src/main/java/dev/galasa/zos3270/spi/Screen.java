@@ -74,6 +74,7 @@ import dev.galasa.zos3270.internal.datastream.StructuredField;
 import dev.galasa.zos3270.internal.datastream.StructuredField3270DS;
 import dev.galasa.zos3270.internal.datastream.StructuredFieldReadPartition;
 import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.internal.terminal.FieldTextMatcher;
 import dev.galasa.zos3270.internal.terminal.ScreenUpdateTextListener;
 
 /**
@@ -93,7 +94,7 @@ public class Screen {
     private final Network network;
 
     private boolean usingAlternate;
-    private IBufferHolder[] buffer;
+    private ScreenBuffer buffer;
     private int screenSize;
     private int columns;
     private int rows;
@@ -130,6 +131,44 @@ public class Screen {
 
     private boolean detectedSetAttribute = false;
 
+    // Bumped whenever the contents of the buffer change, so the fields only
+    // need to be calculated again when the screen has actually changed
+    private long updateVersion = 0;
+    private FieldTable fieldTable;
+    private String printedScreen;
+    private long printedScreenVersion = -1;
+
+    /**
+     * The fields of a version of the screen, with the text of all the fields
+     * joined up so that it can be searched in one pass
+     */
+    private static class FieldTable {
+        private final long version;
+        private final Field[] fields;
+        private final char[] text;
+        private final int[] fieldEnds;
+
+        private FieldTable(long version, Field[] fields) {
+            this.version = version;
+            this.fields = fields;
+            this.fieldEnds = new int[fields.length];
+
+            int length = 0;
+            for (int i = 0; i < fields.length; i++) {
+                length += fields[i].getText().length;
+                this.fieldEnds[i] = length;
+            }
+
+            this.text = new char[length];
+            int pos = 0;
+            for (Field field : fields) {
+                char[] fieldText = field.getText();
+                System.arraycopy(fieldText, 0, this.text, pos, fieldText.length);
+                pos += fieldText.length;
+            }
+        }
+    }
+
     /**
      * @deprecated use the
      *             {@link #Screen(TerminalSize primarySize, TerminalSize alternateSize, Network network, Charset codePage)}
@@ -262,13 +301,19 @@ public class Screen {
     }
 
     private void resetMdt() {
-        for (int i = 0; i < this.screenSize; i++) {
-            IBufferHolder bh = this.buffer[i];
-            if (bh instanceof BufferStartOfField) {
-                BufferStartOfField sof = (BufferStartOfField) bh;
-                sof.clearFieldModified();
-            }
-        }
+        this.buffer.clearAllFieldsModified();
+        bufferUpdated();
+    }
+
+    private void bufferUpdated() {
+        this.updateVersion++;
+    }
+
+    /**
+     * @return a number which changes every time the contents of the screen change
+     */
+    public synchronized long getUpdateVersion() {
+        return this.updateVersion;
     }
 
     private synchronized void processReadBuffer() throws DatastreamException {
@@ -280,23 +325,24 @@ public class Screen {
             BufferAddress cursor = new BufferAddress(this.screenCursor);
             outboundBuffer.write(cursor.getCharRepresentation());
 
-            for (IBufferHolder bh : this.buffer) {
-                if (bh == null) {
-                    outboundBuffer.write(0);
-                } else if (bh instanceof BufferGraphicsEscape) {
-                    BufferGraphicsEscape bc = (BufferGraphicsEscape) bh;
-                    outboundBuffer.write(OrderGraphicsEscape.ID);
-                    outboundBuffer.write(bc.getFieldEbcdic(this.codePage));
-                } else if (bh instanceof BufferChar) {
-                    BufferChar bc = (BufferChar) bh;
-                    outboundBuffer.write(bc.getFieldEbcdic(this.codePage));
-                } else if (bh instanceof BufferStartOfField) {
-                    BufferStartOfField sf = (BufferStartOfField) bh;
-                    OrderStartField osf = new OrderStartField(sf.isProtected(), sf.isNumeric(), sf.isDisplay(),
-                            sf.isIntenseDisplay(), sf.isSelectorPen(), sf.isFieldModifed());
-                    outboundBuffer.write(osf.getBytes());
-                } else {
-                    throw new DatastreamException("Unrecognised Buffer Holder - " + bh.getClass().getName());
+            for (int i = 0; i < this.screenSize; i++) {
+                switch (this.buffer.getType(i)) {
+                    case ScreenBuffer.TYPE_EMPTY:
+                        outboundBuffer.write(0);
+                        break;
+                    case ScreenBuffer.TYPE_GRAPHICS_ESCAPE:
+                        outboundBuffer.write(OrderGraphicsEscape.ID);
+                        outboundBuffer.write(this.buffer.getEbcdic(i, this.codePage));
+                        break;
+                    case ScreenBuffer.TYPE_FIELD_START:
+                        OrderStartField osf = new OrderStartField(this.buffer.isProtected(i),
+                                this.buffer.isNumeric(i), this.buffer.isDisplay(i), this.buffer.isIntenseDisplay(i),
+                                this.buffer.isSelectorPen(i), this.buffer.isFieldModified(i));
+                        outboundBuffer.write(osf.getBytes());
+                        break;
+                    default:
+                        outboundBuffer.write(this.buffer.getEbcdic(i, this.codePage));
+                        break;
                 }
             }
             String outboundHex = new String(Hex.encodeHex(outboundBuffer.toByteArray()));
@@ -353,17 +399,12 @@ public class Screen {
         // *** Locate the first StartOfField in the buffer, if absent, then unformatted,
         // send everything back.
 
-        int start = 0;
+        int start = this.buffer.getNextFieldStart(0);
         int end = 0;
-        for (; start < buffer.length; start++) {
-            if (buffer[start] instanceof BufferStartOfField) {
-                break;
-            }
-        }
 
-        if (start >= buffer.length) { // indicates unfromatted, send it all
+        if (start < 0) { // indicates unfromatted, send it all
             start = 0;
-            end = buffer.length - 1;
+            end = this.screenSize - 1;
 
             // OrderSetBufferAddress sba = new OrderSetBufferAddress(new BufferAddress(0));
             // outboundBuffer.write(sba.getCharRepresentation());
@@ -371,32 +412,29 @@ public class Screen {
         } else { // formatted
             end = start - 1;
             if (end < 0) {
-                end = buffer.length - 1;
+                end = this.screenSize - 1;
             }
         }
 
         int pos = start;
         while (true) {
-            IBufferHolder bh = buffer[pos];
-            if (bh instanceof BufferStartOfField) {
-                BufferStartOfField bsf = (BufferStartOfField) bh;
-                fieldModified = bsf.isFieldModifed();
+            int type = this.buffer.getType(pos);
+            if (type == ScreenBuffer.TYPE_FIELD_START) {
+                fieldModified = this.buffer.isFieldModified(pos);
 
                 if (fieldModified) { // Send whether unprotected or not
                     OrderSetBufferAddress sba = new OrderSetBufferAddress(new BufferAddress(pos + 1));
                     outboundBuffer.write(sba.getCharRepresentation());
                 }
-            } else if (bh instanceof BufferGraphicsEscape) {
-                BufferGraphicsEscape bc = (BufferGraphicsEscape) bh;
+            } else if (type == ScreenBuffer.TYPE_GRAPHICS_ESCAPE) {
                 if (fieldModified) {
                     outboundBuffer.write(OrderGraphicsEscape.ID);
-                    byte value = bc.getFieldEbcdic(this.codePage);
+                    byte value = this.buffer.getEbcdic(pos, this.codePage);
                     outboundBuffer.write(value);
                 }
-            } else if (bh instanceof BufferChar) {
-                BufferChar bc = (BufferChar) bh;
+            } else if (type != ScreenBuffer.TYPE_EMPTY) {
                 if (fieldModified) {
-                    byte value = bc.getFieldEbcdic(this.codePage);
+                    byte value = this.buffer.getEbcdic(pos, this.codePage);
                     if (value != 0) {
                         outboundBuffer.write(value);
                     }
@@ -408,7 +446,7 @@ public class Screen {
             }
 
             pos++;
-            if (pos >= buffer.length) {
+            if (pos >= this.screenSize) {
                 pos = 0;
             }
         }
@@ -560,6 +598,8 @@ public class Screen {
             }
         }
 
+        bufferUpdated();
+
         if (writeControlCharacter.isKeyboardReset()) {
             this.lastAid = AttentionIdentification.NONE;
             unlockKeyboard();
@@ -583,9 +623,8 @@ public class Screen {
             this.usingAlternate = false;
         }
 
-        for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
-        }
+        this.buffer.clear();
+        bufferUpdated();
 
         this.screenCursor = 0;
         this.workingCursor = 0;
@@ -606,9 +645,8 @@ public class Screen {
             this.usingAlternate = true;
         }
 
-        for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
-        }
+        this.buffer.clear();
+        bufferUpdated();
 
         this.screenCursor = 0;
         this.workingCursor = 0;
@@ -616,7 +654,7 @@ public class Screen {
 
     private void allocateBuffer() {
         this.screenSize = this.columns * this.rows;
-        this.buffer = new IBufferHolder[this.screenSize];
+        this.buffer = new ScreenBuffer(this.screenSize);
     }
 
     /**
@@ -647,7 +685,7 @@ public class Screen {
 
         boolean firstPosition = true;
         while (firstPosition || this.workingCursor != endOfRepeat) {
-            this.buffer[this.workingCursor] = new BufferChar(order.getChar());
+            this.buffer.setChar(this.workingCursor, order.getChar());
             if (endOfRepeat == this.screenSize && this.workingCursor == (this.screenSize - 1)) {
                 endOfRepeat = 0;
                 break;
@@ -667,79 +705,50 @@ public class Screen {
     }
 
     private void processSF(OrderStartField order) {
-        this.buffer[this.workingCursor] = new BufferStartOfField(this.workingCursor, order.isFieldProtected(),
-                order.isFieldNumeric(), order.isFieldDisplay(), order.isFieldIntenseDisplay(),
-                order.isFieldSelectorPen(), order.isFieldModifed());
+        this.buffer.setFieldStart(this.workingCursor, order.isFieldProtected(), order.isFieldNumeric(),
+                order.isFieldDisplay(), order.isFieldIntenseDisplay(), order.isFieldSelectorPen(),
+                order.isFieldModifed(), null, null, null);
         incrementWorkingCursor();
     }
 
     private void processSFE(OrderStartFieldExtended order) {
-        OrderStartField sf = order.getOrderStartField();
-        BufferStartOfField bsf = null;
-
-        if (sf != null) {
-            bsf = new BufferStartOfField(this.workingCursor, sf.isFieldProtected(), sf.isFieldNumeric(),
-                    sf.isFieldDisplay(), sf.isFieldIntenseDisplay(), sf.isFieldSelectorPen(), sf.isFieldModifed(),
-                    order.getHighlight(), order.getForegroundColour(), order.getBackgroundColor());
-        }
-
-        if (bsf == null) {
-            bsf = new BufferStartOfField(this.workingCursor, false, false, true, false, false, false);
-        }
-
-        this.buffer[this.workingCursor] = bsf;
+        setExtendedFieldStart(order.getOrderStartField(), order.getHighlight(), order.getForegroundColour(),
+                order.getBackgroundColor());
         incrementWorkingCursor();
     }
 
     private void processMF(OrderModifyField order) {
-        OrderStartField sf = order.getOrderStartField();
-        BufferStartOfField bsf = null;
+        setExtendedFieldStart(order.getOrderStartField(), order.getHighlight(), order.getForegroundColour(),
+                order.getBackgroundColor());
+        incrementWorkingCursor();
+    }
 
-        if (sf != null) {
-            bsf = new BufferStartOfField(this.workingCursor, sf.isFieldProtected(), sf.isFieldNumeric(),
+    private void setExtendedFieldStart(OrderStartField sf, AttributeExtendedHighlighting highlight,
+            AttributeForegroundColour foregroundColour, AttributeBackgroundColour backgroundColour) {
+        if (sf == null) {
+            this.buffer.setFieldStart(this.workingCursor, false, false, true, false, false, false, null, null, null);
+        } else {
+            this.buffer.setFieldStart(this.workingCursor, sf.isFieldProtected(), sf.isFieldNumeric(),
                     sf.isFieldDisplay(), sf.isFieldIntenseDisplay(), sf.isFieldSelectorPen(), sf.isFieldModifed(),
-                    order.getHighlight(), order.getForegroundColour(), order.getBackgroundColor());
+                    highlight == null ? null : highlight.getHighlight(),
+                    foregroundColour == null ? null : foregroundColour.getColour(),
+                    backgroundColour == null ? null : backgroundColour.getColour());
         }
-
-        if (bsf == null) {
-            bsf = new BufferStartOfField(this.workingCursor, false, false, true, false, false, false);
-        }
-
-        this.buffer[this.workingCursor] = bsf;
-        incrementWorkingCursor();
     }
 
     private void processEUA(OrderEraseUnprotectedToAddress order) {
         boolean charProtected = true;
-        IBufferHolder bh = this.buffer[this.workingCursor];
         // are we on a SF, if so take the protected setting
-        if (bh instanceof BufferStartOfField) {
-            charProtected = ((BufferStartOfField) bh).isProtected();
+        if (this.buffer.isFieldStart(this.workingCursor)) {
+            charProtected = this.buffer.isProtected(this.workingCursor);
         } else {
             // we have to go looking backwards for it
-            int searchCursor = this.workingCursor - 1;
-            if (searchCursor < 0) {
-                searchCursor = this.screenSize - 1;
-            }
-            boolean found = false;
-            while (searchCursor != this.workingCursor) {
-                bh = this.buffer[searchCursor];
-
-                if (bh instanceof BufferStartOfField) {
-                    charProtected = ((BufferStartOfField) bh).isProtected();
-                    found = true;
-                    break;
-                }
-
-                searchCursor--;
-                if (searchCursor < 0) {
-                    searchCursor = this.screenSize - 1;
-                }
-            }
-
-            if (!found) {
+            int fieldStart = this.buffer.getOwningFieldStart(this.workingCursor);
+            if (fieldStart < 0) {
                 // assume no fields, so unprotected;
                 charProtected = false;
+            } else {
+                charProtected = this.buffer.isProtected(fieldStart);
             }
         }
 
@@ -753,12 +762,11 @@ public class Screen {
 
         int eraseCursor = this.workingCursor;
         while (true) {
-            bh = this.buffer[eraseCursor];
-            if (bh instanceof BufferStartOfField) {
-                charProtected = ((BufferStartOfField) bh).isProtected();
+            if (this.buffer.isFieldStart(eraseCursor)) {
+                charProtected = this.buffer.isProtected(eraseCursor);
             } else {
                 if (!charProtected) {
-                    this.buffer[eraseCursor] = null;
+                    this.buffer.clear(eraseCursor);
                 }
             }
 
@@ -783,64 +791,83 @@ public class Screen {
     }
 
     private void processNewLine() {
-        this.buffer[this.workingCursor] = new BufferNewLine();
+        this.buffer.setControl(this.workingCursor, ScreenBuffer.TYPE_NEW_LINE, (byte) 0x15);
         incrementWorkingCursor();
     }
 
     private void processFormFeed() {
-        this.buffer[this.workingCursor] = new BufferFormFeed();
+        this.buffer.setControl(this.workingCursor, ScreenBuffer.TYPE_FORM_FEED, (byte) 0x0c);
         incrementWorkingCursor();
     }
 
     private void processCarrageReturn() {
-        this.buffer[this.workingCursor] = new BufferCarrageReturn();
+        this.buffer.setControl(this.workingCursor, ScreenBuffer.TYPE_CARRAGE_RETURN, (byte) 0x0d);
         incrementWorkingCursor();
     }
 
     private void processEndOfMedium() {
-        this.buffer[this.workingCursor] = new BufferEndOfMedium();
+        this.buffer.setControl(this.workingCursor, ScreenBuffer.TYPE_END_OF_MEDIUM, (byte) 0x19);
         incrementWorkingCursor();
     }
 
     private void processGraphicsEscape(OrderGraphicsEscape order) {
-        this.buffer[this.workingCursor] = new BufferGraphicsEscape(order.getByte());
+        this.buffer.setGraphicsEscape(this.workingCursor, order.getByte());
         incrementWorkingCursor();
     }
 
     private void processText(OrderText order) {
         String text = order.getText();
         for (int i = 0; i < text.length(); i++) {
-            this.buffer[this.workingCursor] = new BufferChar(text.charAt(i));
+            this.buffer.setChar(this.workingCursor, text.charAt(i));
             incrementWorkingCursor();
         }
 
     }
 
     private String buildRawScreenStringFromBuffer() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < this.buffer.length; i++) {
-            IBufferHolder currentBufferHolder = this.buffer[i];
-            String currentBufferStr = null;
-            if (currentBufferHolder == null) {
-                currentBufferStr = " ";
-            } else {
-                currentBufferStr = currentBufferHolder.getStringWithoutNulls();
-            }
-
-            sb.append(currentBufferStr);
+        char[] screenChars = new char[this.screenSize];
+        for (int i = 0; i < this.screenSize; i++) {
+            screenChars[i] = this.buffer.getDisplayChar(i);
         }
 
-        return sb.toString();
+        return new String(screenChars);
     }
 
-    public String printScreen() {
-        StringBuilder screenSB = new StringBuilder();
-        String screenString = buildRawScreenStringFromBuffer();
-        for (int i = 0; i < this.screenSize; i += this.columns) {
-            screenSB.append(screenString.substring(i, i + this.columns));
-            screenSB.append('\n');
+    public synchronized String printScreen() {
+        if (this.printedScreen == null || this.printedScreenVersion != this.updateVersion) {
+            StringBuilder screenSB = new StringBuilder();
+            String screenString = buildRawScreenStringFromBuffer();
+            for (int i = 0; i < this.screenSize; i += this.columns) {
+                screenSB.append(screenString.substring(i, i + this.columns));
+                screenSB.append('\n');
+            }
+            this.printedScreen = screenSB.toString();
+            this.printedScreenVersion = this.updateVersion;
         }
-        return screenSB.toString();
+        return this.printedScreen;
+    }
+
+    /**
+     * Count how many times some text appears on the printed screen, without
+     * counting overlapping occurrences
+     * 
+     * @param text  - the text to look for
+     * @param limit - stop counting once this many occurrences have been found
+     * @return the number of occurrences, up to the limit
+     */
+    public synchronized int countTextOccurrences(String text, int limit) {
+        String screenText = printScreen();
+        if (text.isEmpty()) {
+            return Math.min(limit, screenText.length() + 1);
+        }
+
+        int count = 0;
+        int pos = screenText.indexOf(text);
+        while (pos >= 0 && count < limit) {
+            count++;
+            pos = screenText.indexOf(text, pos + text.length());
+        }
+        return count;
     }
 
     public String printScreenTextWithCursor() {
@@ -892,20 +919,14 @@ public class Screen {
         int row = 0;
         int col = 0;
 
-        // *** Check to see if the screen is wrapped or unformatted
-        BufferStartOfField currentBufferStartOfField = new BufferStartOfField(0, false, false, true, false, false,
-                false);
-        if (!(this.buffer[0] instanceof BufferStartOfField)) {
-            for (int i = this.buffer.length - 1; i >= 0; i--) {
-                IBufferHolder bh = this.buffer[i];
-                if (bh instanceof BufferStartOfField) {
-                    currentBufferStartOfField = (BufferStartOfField) bh;
-                    break;
-                }
-            }
+        // *** Check to see if the screen is wrapped or unformatted, -1 means an
+        // unprotected field with no extended attributes
+        int currentFieldStart = -1;
+        if (!this.buffer.isFieldStart(0)) {
+            currentFieldStart = this.buffer.getLastFieldStart();
         } // no need for else as it will be picked up in the loop
 
-        for (int i = 0; i < this.buffer.length; i++) {
+        for (int i = 0; i < this.screenSize; i++) {
             // print row header
             if (col == 0) {
                 screenBuffer.append("=");
@@ -914,18 +935,12 @@ public class Screen {
             }
 
             // Print actual text
-            IBufferHolder bufferHolder = this.buffer[i];
-            if (bufferHolder == null) {
-                screenBuffer.append(" ");
-            } else {
-                screenBuffer.append(bufferHolder.getStringWithoutNulls());
-
-                if (bufferHolder instanceof BufferStartOfField) {
-                    currentBufferStartOfField = (BufferStartOfField) bufferHolder;
-                }
+            screenBuffer.append(this.buffer.getDisplayChar(i));
+            if (this.buffer.isFieldStart(i)) {
+                currentFieldStart = i;
             }
 
-            if (bufferHolder == null || bufferHolder == currentBufferStartOfField) {
+            if (this.buffer.isEmpty(i) || i == currentFieldStart) {
                 foregroundLine.append(" ");
                 backgroundLine.append(" ");
                 highlightLine.append(" ");
@@ -934,27 +949,28 @@ public class Screen {
                 numericLine.append(" ");
                 modifiedLine.append(" ");
             } else {
-                AttributeForegroundColour foregroundColour = currentBufferStartOfField.getAttributeForegroundColour();
+                boolean hasField = currentFieldStart >= 0;
+
+                Colour foregroundColour = hasField ? this.buffer.getForegroundColour(currentFieldStart) : null;
                 if (foregroundColour == null) {
                     foregroundLine.append(" ");
                 } else {
-                    foregroundLine.append(foregroundColour.getColour().getLetter());
+                    foregroundLine.append(foregroundColour.getLetter());
                 }
 
-                AttributeBackgroundColour backgroundColour = currentBufferStartOfField.getAttributeBackgroundColour();
+                Colour backgroundColour = hasField ? this.buffer.getBackgroundColour(currentFieldStart) : null;
                 if (backgroundColour == null) {
                     backgroundLine.append(" ");
                 } else {
-                    backgroundLine.append(backgroundColour.getColour().getLetter());
+                    backgroundLine.append(backgroundColour.getLetter());
                 }
 
                 // Calculate Highlight
-                AttributeExtendedHighlighting extendedHighlighting = currentBufferStartOfField
-                        .getAttributeExtendedHighlighting();
+                Highlight extendedHighlighting = hasField ? this.buffer.getHighlight(currentFieldStart) : null;
                 if (extendedHighlighting == null) {
                     highlightLine.append(" ");
                 } else {
-                    switch (extendedHighlighting.getHighlight()) {
+                    switch (extendedHighlighting) {
                         case BLINK:
                             highlightLine.append("b");
                             break;
@@ -977,28 +993,28 @@ public class Screen {
                 }
 
                 // Calculate intensity
-                if (currentBufferStartOfField.isIntenseDisplay()) {
+                if (hasField && this.buffer.isIntenseDisplay(currentFieldStart)) {
                     intensityLine.append("i");
                 } else {
                     intensityLine.append(" ");
                 }
 
                 // Calculate Protected
-                if (currentBufferStartOfField.isProtected()) {
+                if (hasField && this.buffer.isProtected(currentFieldStart)) {
                     protectedLine.append("p");
                 } else {
                     protectedLine.append("u");
                 }
 
                 // Calculate Numeric
-                if (currentBufferStartOfField.isNumeric()) {
+                if (hasField && this.buffer.isNumeric(currentFieldStart)) {
                     numericLine.append("n");
                 } else {
                     numericLine.append(" ");
                 }
 
                 // Calculate Modified
-                if (currentBufferStartOfField.isFieldModifed()) {
+                if (hasField && this.buffer.isFieldModified(currentFieldStart)) {
                     modifiedLine.append("m");
                 } else {
                     modifiedLine.append(" ");
@@ -1113,56 +1129,51 @@ public class Screen {
     }
 
     public String retrieveFlatScreen() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < this.buffer.length; i++) {
-            if (this.buffer[i] == null) {
-                sb.append(" ");
-            } else {
-                sb.append(this.buffer[i].getStringWithoutNulls());
-            }
-        }
-        return sb.toString();
+        return buildRawScreenStringFromBuffer();
     }
 
     public synchronized @NotNull Field[] calculateFields() {
+        return getFieldTable().fields.clone();
+    }
+
+    private synchronized FieldTable getFieldTable() {
+        if (this.fieldTable == null || this.fieldTable.version != this.updateVersion) {
+            this.fieldTable = new FieldTable(this.updateVersion, buildFields());
+        }
+        return this.fieldTable;
+    }
+
+    private Field[] buildFields() {
         ArrayList<Field> fields = new ArrayList<>();
 
         Field currentField = null;
 
         // *** Check to see if the screen is wrapped or unformatted
-        if (!(this.buffer[0] instanceof BufferStartOfField)) {
-            BufferStartOfField wrapSoField = null;
-            for (int i = this.buffer.length - 1; i >= 0; i--) {
-                IBufferHolder bh = this.buffer[i];
-                if (bh instanceof BufferStartOfField) {
-                    wrapSoField = (BufferStartOfField) bh;
-                    break;
-                }
-            }
+        if (!this.buffer.isFieldStart(0)) {
+            int wrapFieldStart = this.buffer.getLastFieldStart();
 
-            if (wrapSoField == null) {
+            if (wrapFieldStart < 0) {
                 currentField = new Field();
             } else {
-                currentField = new Field(-1, wrapSoField);
+                currentField = new Field(-1, this.buffer, wrapFieldStart);
             }
         }
 
-        for (int i = 0; i < this.buffer.length; i++) {
-            IBufferHolder bh = this.buffer[i];
-            if (bh == null) {
-                currentField.appendChar((char) 0x00); // NOSONAR, can't be null
-            } else if (bh instanceof BufferStartOfField) {
-                if (currentField != null) {
-                    fields.add(currentField);
-                }
-                currentField = new Field(i, (BufferStartOfField) bh);
-            } else if (bh instanceof BufferChar) {
-                currentField.appendChar(((BufferChar) bh).getChar());// NOSONAR, can't be null
-            } else {
-                throw new UnsupportedOperationException("Unrecognised buffer type " + bh.getClass().getName());
+        // *** Copy the text between each start of field in one go
+        int textStart = 0;
+        int fieldStart = this.buffer.getNextFieldStart(0);
+        while (fieldStart >= 0) {
+            if (currentField != null) {
+                currentField.appendChars(this.buffer.getFieldChars(textStart, fieldStart));
+                fields.add(currentField);
             }
+            currentField = new Field(fieldStart, this.buffer, fieldStart);
+
+            textStart = fieldStart + 1;
+            fieldStart = this.buffer.getNextFieldStart(textStart);
         }
         if (currentField != null) {
+            currentField.appendChars(this.buffer.getFieldChars(textStart, this.screenSize));
             fields.add(currentField);
         }
 
@@ -1178,46 +1189,29 @@ public class Screen {
     }
 
     public void searchFieldContaining(String text) throws TextNotFoundException {
-        for (Field field : calculateFields()) {
-            if (field.containsText(text)) {
-                return;
-            }
+        if (!isTextInField(text)) {
+            throw new TextNotFoundException(CANT_FIND_TEXT + text + "'");
         }
-
-        throw new TextNotFoundException(CANT_FIND_TEXT + text + "'");
     }
 
     public int searchFieldContaining(@NotNull String[] okText, String[] errorText)
             throws TextNotFoundException, ErrorTextFoundException {
-        if (errorText != null) {
-            for (int i = 0; i < errorText.length; i++) {
-                for (Field field : calculateFields()) {
-                    if (field.containsText(errorText[i])) {
-                        throw new ErrorTextFoundException("Found error text '" + errorText[i] + "' on screen", i);
-                    }
-                }
-            }
-        }
-
-        for (int i = 0; i < okText.length; i++) {
-            for (Field field : calculateFields()) {
-                if (field.containsText(okText[i])) {
-                    return i;
-                }
-            }
-        }
-
-        throw new TextNotFoundException("Unable to locate text on sreen");
+        return searchFieldContaining(new FieldTextMatcher(okText, errorText));
     }
 
-    public boolean isTextInField(String text) {
-        for (Field field : calculateFields()) {
-            if (field.containsText(text)) {
-                return true;
-            }
-        }
+    /**
+     * Search the fields for the error texts and then the ok texts of a matcher,
+     * so a matcher used for repeated searches only needs to be built once.
+     */
+    public synchronized int searchFieldContaining(@NotNull FieldTextMatcher matcher)
+            throws TextNotFoundException, ErrorTextFoundException {
+        FieldTable table = getFieldTable();
+        return matcher.search(table.text, table.fieldEnds);
+    }
 
-        return false;
+    public synchronized boolean isTextInField(String text) {
+        FieldTable table = getFieldTable();
+        return new FieldTextMatcher(text).findFirstField(table.text, table.fieldEnds) >= 0;
     }
 
     /**
@@ -1266,11 +1260,11 @@ public class Screen {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        for (Field field : calculateFields()) {
-            if (field.containsText(text)) {
-                this.screenCursor = field.getStart();
-                return;
-            }
+        FieldTable table = getFieldTable();
+        int fieldIndex = new FieldTextMatcher(text).findFirstField(table.text, table.fieldEnds);
+        if (fieldIndex >= 0) {
+            this.screenCursor = table.fields[fieldIndex].getStart();
+            return;
         }
 
         throw new TextNotFoundException(CANT_FIND_TEXT + text + "'");
@@ -1281,40 +1275,26 @@ public class Screen {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        if (buffer[screenCursor] != null && !(buffer[screenCursor] instanceof BufferChar)) {
+        // *** Any cell other than an empty one or a character is a start of field
+        if (!this.buffer.isEmpty(screenCursor) && !this.buffer.isCharacter(screenCursor)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + this.screenCursor);
         }
 
-        BufferStartOfField sf = null;
-        int sfPos = screenCursor - 1;
-        if (sfPos < 0) {
-            sfPos = buffer.length - 1;
-        }
-        while (sfPos != screenCursor) {
-            if (buffer[sfPos] instanceof BufferStartOfField) {
-                sf = (BufferStartOfField) buffer[sfPos];
-                break;
-            }
-
-            sfPos--;
-            if (sfPos < 0) {
-                sfPos = buffer.length - 1;
-            }
-        }
+        int sfPos = this.buffer.getOwningFieldStart(screenCursor);
 
         // *** if no field found, assume unprotected
-        if (sf != null && sf.isProtected()) {
+        if (sfPos >= 0 && this.buffer.isProtected(sfPos)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + screenCursor);
         }
 
         // *** Set this and following characters to null
         int pos = this.screenCursor;
         while (true) {
-            if (!(buffer[pos] instanceof BufferChar)) {
+            if (!this.buffer.isCharacter(pos)) {
                 break;
             }
 
-            buffer[pos] = new BufferChar((char) 0);
+            this.buffer.setChar(pos, (char) 0);
             pos++;
             if (pos >= this.screenSize) {
                 pos = 0;
@@ -1325,9 +1305,10 @@ public class Screen {
             }
         }
 
-        if (sf != null) {
-            sf.setFieldModified();
+        if (sfPos >= 0) {
+            this.buffer.setFieldModified(sfPos);
         }
+        bufferUpdated();
     }
 
     public synchronized void eraseInput() throws KeyboardLockedException, FieldNotFoundException {
@@ -1336,47 +1317,38 @@ public class Screen {
         }
 
         boolean unprotected = false;
-        BufferStartOfField startOfFieldUnprotected = null;
+        int startOfFieldUnprotected = -1;
 
         // *** Check to see if the screen is wrapped or unformatted
-        if (!(this.buffer[0] instanceof BufferStartOfField)) {
-            BufferStartOfField wrapSoField = null;
-            for (int i = this.buffer.length - 1; i >= 0; i--) {
-                IBufferHolder bh = this.buffer[i];
-                if (bh instanceof BufferStartOfField) {
-                    wrapSoField = (BufferStartOfField) bh;
-                    break;
-                }
-            }
+        if (!this.buffer.isFieldStart(0)) {
+            int wrapFieldStart = this.buffer.getLastFieldStart();
 
-            if (wrapSoField == null) {
+            if (wrapFieldStart < 0) {
                 unprotected = true; // unformatted, screen, so all unprotected
             } else {
-                unprotected = !wrapSoField.isProtected();
-                startOfFieldUnprotected = wrapSoField;
+                unprotected = !this.buffer.isProtected(wrapFieldStart);
+                startOfFieldUnprotected = wrapFieldStart;
             }
         }
 
         for (int i = 0; i < this.screenSize; i++) {
-            IBufferHolder bh = this.buffer[i];
-
-            if (bh instanceof BufferStartOfField) {
-                BufferStartOfField sof = (BufferStartOfField) bh;
-                unprotected = !sof.isProtected();
+            if (this.buffer.isFieldStart(i)) {
+                unprotected = !this.buffer.isProtected(i);
                 if (unprotected) {
-                    startOfFieldUnprotected = sof;
+                    startOfFieldUnprotected = i;
                 } else {
-                    startOfFieldUnprotected = null;
+                    startOfFieldUnprotected = -1;
                 }
             } else {
                 if (unprotected) {
-                    this.buffer[i] = null;
-                    if (startOfFieldUnprotected != null) {
-                        startOfFieldUnprotected.setFieldModified();
+                    this.buffer.clear(i);
+                    if (startOfFieldUnprotected >= 0) {
+                        this.buffer.setFieldModified(startOfFieldUnprotected);
                     }
                 }
             }
         }
+        bufferUpdated();
 
     }
 
@@ -1388,9 +1360,8 @@ public class Screen {
         int startPosition = this.screenCursor;
         boolean foundUnprotectedField = false;
 
-        IBufferHolder sfCheck = this.buffer[this.screenCursor];
-        if (sfCheck instanceof BufferStartOfField) {
-            foundUnprotectedField = !((BufferStartOfField) sfCheck).isProtected();
+        if (this.buffer.isFieldStart(this.screenCursor)) {
+            foundUnprotectedField = !this.buffer.isProtected(this.screenCursor);
         }
         while (true) {
             // advance the cursor
@@ -1400,19 +1371,14 @@ public class Screen {
             }
 
             // Get the entry at this position
-            IBufferHolder previousBuffer = this.buffer[this.screenCursor];
-            if (previousBuffer == null || previousBuffer instanceof BufferChar) {
+            if (!this.buffer.isFieldStart(this.screenCursor)) {
                 // if this is a character and we are in an unprotected field, use it
                 if (foundUnprotectedField) {
                     return;
                 }
-            } else if (previousBuffer instanceof BufferStartOfField) {
-                // we have a start of field
-                BufferStartOfField sof = (BufferStartOfField) previousBuffer;
-                // record if it is unprotected or not
-                foundUnprotectedField = !sof.isProtected();
             } else {
-                throw new FieldNotFoundException("Unrecognised buffer type at pos " + this.screenCursor);
+                // we have a start of field, record if it is unprotected or not
+                foundUnprotectedField = !this.buffer.isProtected(this.screenCursor);
             }
 
             if (this.screenCursor == startPosition) {
@@ -1440,16 +1406,14 @@ public class Screen {
             }
 
             // Get the entry in the previous position
-            IBufferHolder previousBuffer = this.buffer[previousPositionInBuffer];
-            if (previousBuffer == null || previousBuffer instanceof BufferChar) {
+            if (!this.buffer.isFieldStart(previousPositionInBuffer)) {
                 // if it is null or a character, mark position as the last valid position
                 // whether unprotected or not
                 lastCharField = previousPositionInBuffer;
-            } else if (previousBuffer instanceof BufferStartOfField) {
+            } else {
                 // we have a start of field
-                BufferStartOfField sof = (BufferStartOfField) previousBuffer;
                 // if it is protected, invalidate the last valid char position
-                if (sof.isProtected()) {
+                if (this.buffer.isProtected(previousPositionInBuffer)) {
                     lastCharField = -1;
                 } else {
                     // as unprotected field, indicate that there is atleast one on the screen
@@ -1460,8 +1424,6 @@ public class Screen {
                         return;
                     }
                 }
-            } else {
-                throw new FieldNotFoundException("Unrecognised buffer type at pos " + previousPositionInBuffer);
             }
 
             this.screenCursor = previousPositionInBuffer;
@@ -1527,7 +1489,7 @@ public class Screen {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        Field[] fields = calculateFields();
+        Field[] fields = getFieldTable().fields;
 
         if (fields == null || fields.length == 0) {
             this.screenCursor = 0;
@@ -1555,7 +1517,7 @@ public class Screen {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        Field[] fields = calculateFields();
+        Field[] fields = getFieldTable().fields;
 
         int newCursor = ((this.screenCursor / this.columns) + 1) * this.columns;
         if (newCursor >= this.screenSize) {
@@ -1619,29 +1581,14 @@ public class Screen {
 
         int position = this.screenCursor;
 
-        if (buffer[position] != null && !(buffer[position] instanceof BufferChar)) {
+        if (this.buffer.isFieldStart(position)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + this.screenCursor);
         }
 
-        BufferStartOfField sf = null;
-        int sfPos = position - 1;
-        if (sfPos < 0) {
-            sfPos = buffer.length - 1;
-        }
-        while (sfPos != position) {
-            if (buffer[sfPos] instanceof BufferStartOfField) {
-                sf = (BufferStartOfField) buffer[sfPos];
-                break;
-            }
-
-            sfPos--;
-            if (sfPos < 0) {
-                sfPos = buffer.length - 1;
-            }
-        }
+        int sfPos = this.buffer.getOwningFieldStart(position);
 
         // *** if no field found, assume unprotected
-        if (sf != null && sf.isProtected()) {
+        if (sfPos >= 0 && this.buffer.isProtected(sfPos)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + position);
         }
 
@@ -1655,18 +1602,18 @@ public class Screen {
         }
 
         while (true) {
-            this.buffer[position - 1] = this.buffer[position];
-            this.buffer[position] = null;
+            this.buffer.move(position, position - 1);
 
             position++;
             if (position >= this.screenSize) {
                 break;
             }
 
-            if (buffer[position] != null && !(buffer[position] instanceof BufferChar)) {
+            if (this.buffer.isFieldStart(position)) {
                 break;
             }
         }
+        bufferUpdated();
 
         this.screenCursor--;
 
@@ -1723,7 +1670,7 @@ public class Screen {
     }
 
     public Field locateFieldAt(int cursorPos) {
-        Field[] fields = calculateFields();
+        Field[] fields = getFieldTable().fields;
 
         int fieldPosition = 0;
         for (; fieldPosition < fields.length; fieldPosition++) {
@@ -1737,7 +1684,7 @@ public class Screen {
 
     public String getValueFromFieldContaining(String text) throws TextNotFoundException {
         Boolean foundHeader = false;
-        for (Field field : calculateFields()) {
+        for (Field field : getFieldTable().fields) {
             if (!foundHeader) {
                 if (field.containsText(text)) {
                     foundHeader = true;
@@ -1769,29 +1716,14 @@ public class Screen {
             throw new KeyboardLockedException("Unable to type as keyboard is locked");
         }
 
-        if (buffer[position] != null && !(buffer[position] instanceof BufferChar)) {
+        if (this.buffer.isFieldStart(position)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + position);
         }
 
-        BufferStartOfField sf = null;
-        int sfPos = position - 1;
-        if (sfPos < 0) {
-            sfPos = buffer.length - 1;
-        }
-        while (sfPos != position) {
-            if (buffer[sfPos] instanceof BufferStartOfField) {
-                sf = (BufferStartOfField) buffer[sfPos];
-                break;
-            }
-
-            sfPos--;
-            if (sfPos < 0) {
-                sfPos = buffer.length - 1;
-            }
-        }
+        int sfPos = this.buffer.getOwningFieldStart(position);
 
         // *** if no field found, assume unprotected
-        if (sf != null && sf.isProtected()) {
+        if (sfPos >= 0 && this.buffer.isProtected(sfPos)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + position);
         }
 
@@ -1800,17 +1732,17 @@ public class Screen {
         }
 
         for (int i = 0; i < text.length(); i++) {
-            IBufferHolder bh = buffer[position];
-            if (bh != null && !(bh instanceof BufferChar)) {
+            if (this.buffer.isFieldStart(position)) {
                 throw new FieldNotFoundException(
                         "Unable to type where the cursor is pointing to - " + position);
             }
 
-            buffer[position] = new BufferChar(text.charAt(i));
+            this.buffer.setChar(position, text.charAt(i));
 
-            if (sf != null) {
-                sf.setFieldModified();
+            if (sfPos >= 0) {
+                this.buffer.setFieldModified(sfPos);
             }
+            bufferUpdated();
 
             // We have successfully typed a character, so make sure the cursor is positioned
             // at the next unprotected char, even if it is the position we were just at
@@ -1823,17 +1755,16 @@ public class Screen {
                 }
 
                 this.screenCursor = position;
-                bh = buffer[position];
+                boolean isFieldStart = this.buffer.isFieldStart(position);
 
-                if (unprotected && (bh == null || (bh instanceof BufferChar))) {
+                if (unprotected && !isFieldStart) {
                     break;
                 }
 
-                if (bh != null && (bh instanceof BufferStartOfField)) {
-                    BufferStartOfField sof = (BufferStartOfField) bh;
-                    unprotected = !sof.isProtected();
+                if (isFieldStart) {
+                    unprotected = !this.buffer.isProtected(position);
                     if (unprotected) {
-                        sf = sof;
+                        sfPos = position;
                     }
                 }
             }
@@ -1851,15 +1782,13 @@ public class Screen {
         // position on the screen.
         int start = this.initialCursorPosition;
         int end = start + 255;
-        if (end >= buffer.length) {
-            end = buffer.length - 1;
+        if (end >= this.screenSize) {
+            end = this.screenSize - 1;
         }
 
         for (int currentPosition = start; currentPosition <= end; currentPosition++) {
-            IBufferHolder bufferHolder = buffer[currentPosition];
-            if (bufferHolder instanceof BufferChar) {
-                BufferChar bufferChar = (BufferChar) bufferHolder;
-                byte ebcdicCharAsByte = bufferChar.getFieldEbcdic(this.codePage);
+            if (this.buffer.isCharacter(currentPosition)) {
+                byte ebcdicCharAsByte = this.buffer.getEbcdic(currentPosition, this.codePage);
                 if (ebcdicCharAsByte != 0) {
                     outboundBuffer.write(ebcdicCharAsByte);
                 }
@@ -1912,7 +1841,7 @@ public class Screen {
     }
 
     public String printFields() {
-        Field[] fields = calculateFields();
+        Field[] fields = getFieldTable().fields;
 
         StringBuilder sb = new StringBuilder();
         for (Field field : fields) {
@@ -1923,32 +1852,49 @@ public class Screen {
         return sb.toString();
     }
 
+    /**
+     * Get a copy of the screen buffer as buffer holder objects. Changing the
+     * returned objects does not change the screen.
+     * 
+     * @return a buffer holder for each position, null where the position is empty
+     */
+    public synchronized IBufferHolder[] getBuffer() {
+        IBufferHolder[] bufferHolders = new IBufferHolder[this.screenSize];
+        for (int i = 0; i < this.screenSize; i++) {
+            bufferHolders[i] = this.buffer.getBufferHolder(i);
+        }
+        return bufferHolders;
+    }
+
     public void setBuffer(IBufferHolder[] newBuffer) {
-        for (int i = 0; i < this.buffer.length && i < newBuffer.length; i++) {
-            this.buffer[i] = newBuffer[i];
+        for (int i = 0; i < this.screenSize && i < newBuffer.length; i++) {
+            this.buffer.setBufferHolder(i, newBuffer[i]);
         }
+        bufferUpdated();
     }
 
     public void setBuffer(int col, int row, String text) {
         int pos = (row * columns) + col;
         for (int i = 0; i < text.length(); i++) {
-            buffer[pos] = new BufferChar(text.charAt(i));
+            this.buffer.setChar(pos, text.charAt(i));
             pos++;
         }
+        bufferUpdated();
     }
 
     public void nullify(int col, int row, int len) {
         int pos = (row * columns) + col;
         for (int i = 0; i < len; i++) {
-            buffer[pos] = null;
+            this.buffer.clear(pos);
             pos++;
         }
+        bufferUpdated();
     }
 
     public Field getFieldAt(int col, int row) {
         int pos = (row * columns) + col;
 
-        Field[] fields = calculateFields();
+        Field[] fields = getFieldTable().fields;
         Field currentField = fields[0];
         for (int i = 1; i < fields.length; i++) {
             if (fields[i].getStart() > pos) {
@@ -2007,8 +1953,8 @@ public class Screen {
     }
 
     public synchronized boolean isClearScreen() {
-        for (IBufferHolder bh : buffer) {
-            if (bh != null) {
+        for (int i = 0; i < this.screenSize; i++) {
+            if (!this.buffer.isEmpty(i)) {
                 return false;
             }
         }
@@ -2018,7 +1964,7 @@ public class Screen {
 
     public Colour getColourAtPosition(int pos) {
 
-        Field[] fields = calculateFields();
+        Field[] fields = getFieldTable().fields;
         Field currentField = fields[0];
         for (int i = 1; i < fields.length; i++) {
             if (fields[i].getStart() > pos) {
@@ -2031,7 +1977,7 @@ public class Screen {
     }
 
     public Highlight getHighlightAtPosition(int pos) {
-        Field[] fields = calculateFields();
+        Field[] fields = getFieldTable().fields;
         Field currentField = fields[0];
         for (int i = 1; i < fields.length; i++) {
             if (fields[i].getStart() > pos) {
@@ -0,0 +1,411 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.spi;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import dev.galasa.zos3270.internal.datastream.AttributeBackgroundColour;
+import dev.galasa.zos3270.internal.datastream.AttributeExtendedHighlighting;
+import dev.galasa.zos3270.internal.datastream.AttributeForegroundColour;
+
+/**
+ * The cells of a 3270 screen, held in parallel primitive arrays rather than
+ * an object per cell.
+ *
+ * Each cell has a character in the text array and a packed set of flags in
+ * the cells array, which say what kind of cell it is and, for a start of
+ * field, what the field attributes are. The start of field positions are
+ * also kept in a bitmap so the field owning a position can be found without
+ * walking the screen a cell at a time.
+ *
+ * The {@link IBufferHolder} classes are still available as a view over the
+ * cells, see {@link #getBufferHolder(int)}, but they are copies, so changing
+ * one does not change the screen.
+ */
+class ScreenBuffer {
+
+    static final int TYPE_EMPTY           = 0;
+    static final int TYPE_CHAR            = 1;
+    static final int TYPE_FIELD_START     = 2;
+    static final int TYPE_GRAPHICS_ESCAPE = 3;
+    static final int TYPE_NEW_LINE        = 4;
+    static final int TYPE_FORM_FEED       = 5;
+    static final int TYPE_CARRAGE_RETURN  = 6;
+    static final int TYPE_END_OF_MEDIUM   = 7;
+
+    // Layout of the packed cell values
+    private static final long TYPE_MASK            = 0x0fL;
+    private static final long FLAG_PROTECTED       = 1L << 4;
+    private static final long FLAG_NUMERIC         = 1L << 5;
+    private static final long FLAG_DISPLAY         = 1L << 6;
+    private static final long FLAG_INTENSE_DISPLAY = 1L << 7;
+    private static final long FLAG_SELECTOR_PEN    = 1L << 8;
+    private static final long FLAG_MODIFIED        = 1L << 9;
+    private static final int  HIGHLIGHT_SHIFT     = 10;
+    private static final int  FOREGROUND_SHIFT    = 14;
+    private static final int  BACKGROUND_SHIFT    = 18;
+    private static final long ENUM_MASK           = 0x0fL;
+
+    private static final Highlight[] HIGHLIGHTS = Highlight.values();
+    private static final Colour[]    COLOURS    = Colour.values();
+
+    private final int    size;
+    private final char[] text;
+    private final long[] cells;
+    private final BitSet fieldStarts;
+
+    ScreenBuffer(int size) {
+        this.size = size;
+        this.text = new char[size];
+        this.cells = new long[size];
+        this.fieldStarts = new BitSet(size);
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    void clear() {
+        Arrays.fill(this.text, (char) 0);
+        Arrays.fill(this.cells, 0L);
+        this.fieldStarts.clear();
+    }
+
+    void clear(int position) {
+        this.text[position] = 0;
+        this.cells[position] = TYPE_EMPTY;
+        this.fieldStarts.clear(position);
+    }
+
+    void setChar(int position, char character) {
+        this.text[position] = character;
+        this.cells[position] = TYPE_CHAR;
+        this.fieldStarts.clear(position);
+    }
+
+    void setGraphicsEscape(int position, byte data) {
+        this.text[position] = (char) (data & 0xff);
+        this.cells[position] = TYPE_GRAPHICS_ESCAPE;
+        this.fieldStarts.clear(position);
+    }
+
+    /**
+     * Set a cell to one of the format control orders, new line, form feed,
+     * carrage return or end of medium
+     */
+    void setControl(int position, int type, byte ebcdic) {
+        this.text[position] = (char) (ebcdic & 0xff);
+        this.cells[position] = type;
+        this.fieldStarts.clear(position);
+    }
+
+    void setFieldStart(int position, boolean fieldProtected, boolean fieldNumeric, boolean fieldDisplay,
+            boolean fieldIntenseDisplay, boolean fieldSelectorPen, boolean fieldModified, Highlight highlight,
+            Colour foregroundColour, Colour backgroundColour) {
+        long cell = TYPE_FIELD_START;
+        if (fieldProtected) {
+            cell |= FLAG_PROTECTED;
+        }
+        if (fieldNumeric) {
+            cell |= FLAG_NUMERIC;
+        }
+        if (fieldDisplay) {
+            cell |= FLAG_DISPLAY;
+        }
+        if (fieldIntenseDisplay) {
+            cell |= FLAG_INTENSE_DISPLAY;
+        }
+        if (fieldSelectorPen) {
+            cell |= FLAG_SELECTOR_PEN;
+        }
+        if (fieldModified) {
+            cell |= FLAG_MODIFIED;
+        }
+        cell |= packEnum(highlight, HIGHLIGHT_SHIFT);
+        cell |= packEnum(foregroundColour, FOREGROUND_SHIFT);
+        cell |= packEnum(backgroundColour, BACKGROUND_SHIFT);
+
+        this.text[position] = 0;
+        this.cells[position] = cell;
+        this.fieldStarts.set(position);
+    }
+
+    /**
+     * Move a cell, leaving the source position empty
+     */
+    void move(int fromPosition, int toPosition) {
+        this.text[toPosition] = this.text[fromPosition];
+        this.cells[toPosition] = this.cells[fromPosition];
+        this.fieldStarts.set(toPosition, this.fieldStarts.get(fromPosition));
+        clear(fromPosition);
+    }
+
+    int getType(int position) {
+        return (int) (this.cells[position] & TYPE_MASK);
+    }
+
+    boolean isEmpty(int position) {
+        return getType(position) == TYPE_EMPTY;
+    }
+
+    boolean isFieldStart(int position) {
+        return this.fieldStarts.get(position);
+    }
+
+    /**
+     * @return true if the cell holds a character of any kind, which is what
+     *         the {@link BufferChar} class and its subclasses represent
+     */
+    boolean isCharacter(int position) {
+        int type = getType(position);
+        return type != TYPE_EMPTY && type != TYPE_FIELD_START;
+    }
+
+    /**
+     * Graphics escapes and the NL, FF, CR and EM orders are read as a space, the
+     * same as {@link BufferGraphicsEscape#getChar()}, {@link BufferNewLine#getChar()},
+     * {@link BufferFormFeed#getChar()}, {@link BufferCarrageReturn#getChar()} and
+     * {@link BufferEndOfMedium#getChar()}, so field text is unchanged from when
+     * the screen was held as buffer holders. Their EBCDIC values are still sent
+     * outbound, see {@link #getEbcdic(int, Charset)}.
+     *
+     * @return the character in the cell as seen by a field, null for an empty
+     *         cell and a space for anything that is not a plain character
+     */
+    char getFieldChar(int position) {
+        switch (getType(position)) {
+            case TYPE_EMPTY:
+                return 0;
+            case TYPE_CHAR:
+                return this.text[position];
+            default:
+                return ' ';
+        }
+    }
+
+    /**
+     * @return the character in the cell as it appears on the screen, with nulls
+     *         shown as spaces
+     */
+    char getDisplayChar(int position) {
+        if (getType(position) == TYPE_CHAR) {
+            char character = this.text[position];
+            if (character != 0) {
+                return character;
+            }
+        }
+        return ' ';
+    }
+
+    /**
+     * Copy the field view of a range of cells
+     *
+     * @param start - the first position to copy
+     * @param end   - the position after the last one to copy
+     */
+    char[] getFieldChars(int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = getFieldChar(i);
+        }
+        return chars;
+    }
+
+    /**
+     * @return the outbound byte for a character cell, 0 for an empty cell or a
+     *         null character
+     */
+    byte getEbcdic(int position, Charset codePage) {
+        switch (getType(position)) {
+            case TYPE_CHAR:
+                char character = this.text[position];
+                if (character == 0) {
+                    return 0;
+                }
+                return String.valueOf(character).getBytes(codePage)[0];
+            case TYPE_GRAPHICS_ESCAPE:
+            case TYPE_NEW_LINE:
+            case TYPE_FORM_FEED:
+            case TYPE_CARRAGE_RETURN:
+            case TYPE_END_OF_MEDIUM:
+                return (byte) this.text[position];
+            default:
+                return 0;
+        }
+    }
+
+    boolean isProtected(int fieldStart) {
+        return (this.cells[fieldStart] & FLAG_PROTECTED) != 0;
+    }
+
+    boolean isNumeric(int fieldStart) {
+        return (this.cells[fieldStart] & FLAG_NUMERIC) != 0;
+    }
+
+    boolean isDisplay(int fieldStart) {
+        return (this.cells[fieldStart] & FLAG_DISPLAY) != 0;
+    }
+
+    boolean isIntenseDisplay(int fieldStart) {
+        return (this.cells[fieldStart] & FLAG_INTENSE_DISPLAY) != 0;
+    }
+
+    boolean isSelectorPen(int fieldStart) {
+        return (this.cells[fieldStart] & FLAG_SELECTOR_PEN) != 0;
+    }
+
+    boolean isFieldModified(int fieldStart) {
+        return (this.cells[fieldStart] & FLAG_MODIFIED) != 0;
+    }
+
+    void setFieldModified(int fieldStart) {
+        this.cells[fieldStart] |= FLAG_MODIFIED;
+    }
+
+    void clearFieldModified(int fieldStart) {
+        this.cells[fieldStart] &= ~FLAG_MODIFIED;
+    }
+
+    /**
+     * Clear the modified flag on every field on the screen
+     */
+    void clearAllFieldsModified() {
+        for (int i = this.fieldStarts.nextSetBit(0); i >= 0; i = this.fieldStarts.nextSetBit(i + 1)) {
+            clearFieldModified(i);
+        }
+    }
+
+    Highlight getHighlight(int fieldStart) {
+        return unpackEnum(HIGHLIGHTS, fieldStart, HIGHLIGHT_SHIFT);
+    }
+
+    Colour getForegroundColour(int fieldStart) {
+        return unpackEnum(COLOURS, fieldStart, FOREGROUND_SHIFT);
+    }
+
+    Colour getBackgroundColour(int fieldStart) {
+        return unpackEnum(COLOURS, fieldStart, BACKGROUND_SHIFT);
+    }
+
+    boolean hasFields() {
+        return !this.fieldStarts.isEmpty();
+    }
+
+    /**
+     * @return the first start of field at or after the position, or -1 if there
+     *         is not one
+     */
+    int getNextFieldStart(int position) {
+        return this.fieldStarts.nextSetBit(position);
+    }
+
+    /**
+     * @return the last start of field on the screen, or -1 if the screen is
+     *         unformatted
+     */
+    int getLastFieldStart() {
+        return this.fieldStarts.previousSetBit(this.size - 1);
+    }
+
+    /**
+     * Find the start of the field which owns a position, searching backwards
+     * and wrapping round the end of the screen. The position itself is not
+     * checked.
+     *
+     * @return the position of the start of field, or -1 if there is not one
+     */
+    int getOwningFieldStart(int position) {
+        int fieldStart = -1;
+        if (position > 0) {
+            fieldStart = this.fieldStarts.previousSetBit(position - 1);
+        }
+        if (fieldStart < 0) {
+            fieldStart = this.fieldStarts.previousSetBit(this.size - 1);
+            if (fieldStart == position) {
+                fieldStart = -1;
+            }
+        }
+        return fieldStart;
+    }
+
+    /**
+     * @return a copy of the cell as one of the {@link IBufferHolder} classes, or
+     *         null if the cell is empty
+     */
+    IBufferHolder getBufferHolder(int position) {
+        switch (getType(position)) {
+            case TYPE_CHAR:
+                return new BufferChar(this.text[position]);
+            case TYPE_FIELD_START:
+                Highlight highlight = getHighlight(position);
+                Colour foregroundColour = getForegroundColour(position);
+                Colour backgroundColour = getBackgroundColour(position);
+                return new BufferStartOfField(position, isProtected(position), isNumeric(position),
+                        isDisplay(position), isIntenseDisplay(position), isSelectorPen(position),
+                        isFieldModified(position),
+                        highlight == null ? null : new AttributeExtendedHighlighting(highlight),
+                        foregroundColour == null ? null : new AttributeForegroundColour(foregroundColour),
+                        backgroundColour == null ? null : new AttributeBackgroundColour(backgroundColour));
+            case TYPE_GRAPHICS_ESCAPE:
+                return new BufferGraphicsEscape((byte) this.text[position]);
+            case TYPE_NEW_LINE:
+                return new BufferNewLine();
+            case TYPE_FORM_FEED:
+                return new BufferFormFeed();
+            case TYPE_CARRAGE_RETURN:
+                return new BufferCarrageReturn();
+            case TYPE_END_OF_MEDIUM:
+                return new BufferEndOfMedium();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Set a cell from one of the {@link IBufferHolder} classes, a null clears
+     * the cell
+     */
+    void setBufferHolder(int position, IBufferHolder bufferHolder) {
+        if (bufferHolder == null) {
+            clear(position);
+        } else if (bufferHolder instanceof BufferStartOfField) {
+            BufferStartOfField sf = (BufferStartOfField) bufferHolder;
+            setFieldStart(position, sf.isProtected(), sf.isNumeric(), sf.isDisplay(), sf.isIntenseDisplay(),
+                    sf.isSelectorPen(), sf.isFieldModifed(), sf.getHighlight(), sf.getForegroundColour(),
+                    sf.getBackgroundColour());
+        } else if (bufferHolder instanceof BufferGraphicsEscape) {
+            setGraphicsEscape(position, ((BufferGraphicsEscape) bufferHolder).getFieldEbcdic(null));
+        } else if (bufferHolder instanceof BufferNewLine) {
+            setControl(position, TYPE_NEW_LINE, (byte) 0x15);
+        } else if (bufferHolder instanceof BufferFormFeed) {
+            setControl(position, TYPE_FORM_FEED, (byte) 0x0c);
+        } else if (bufferHolder instanceof BufferCarrageReturn) {
+            setControl(position, TYPE_CARRAGE_RETURN, (byte) 0x0d);
+        } else if (bufferHolder instanceof BufferEndOfMedium) {
+            setControl(position, TYPE_END_OF_MEDIUM, (byte) 0x19);
+        } else {
+            setChar(position, bufferHolder.getChar());
+        }
+    }
+
+    private static long packEnum(Enum<?> value, int shift) {
+        if (value == null) {
+            return 0;
+        }
+        return ((long) value.ordinal() + 1) << shift;
+    }
+
+    private <E extends Enum<E>> E unpackEnum(E[] values, int fieldStart, int shift) {
+        int packed = (int) ((this.cells[fieldStart] >>> shift) & ENUM_MASK);
+        if (packed == 0) {
+            return null;
+        }
+        return values[packed - 1];
+    }
+
+}
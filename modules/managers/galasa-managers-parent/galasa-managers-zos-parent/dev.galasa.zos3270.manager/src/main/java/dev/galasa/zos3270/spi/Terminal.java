@@ -17,7 +17,6 @@ import javax.validation.constraints.NotNull;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import dev.galasa.textscan.TextScanManagerException;
 import dev.galasa.textscan.spi.ITextScannerManagerSpi;
 import dev.galasa.zos3270.AttentionIdentification;
 import dev.galasa.zos3270.ErrorTextFoundException;
@@ -32,7 +31,10 @@ import dev.galasa.zos3270.Zos3270Exception;
 import dev.galasa.zos3270.common.screens.TerminalSize;
 import dev.galasa.zos3270.common.screens.json.TerminalJsonTransform;
 import dev.galasa.zos3270.internal.comms.Network;
+import dev.galasa.zos3270.internal.comms.NetworkSelector;
 import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.terminal.ScreenUpdateOccurrenceListener;
+import dev.galasa.zos3270.internal.terminal.ScreenUpdateTextListener;
 
 public class Terminal implements ITerminal {
 
@@ -109,6 +111,14 @@ public class Terminal implements ITerminal {
         this.textScan = textScan;
     }
     
+    /**
+     * Read this terminal's network on the selector's I/O threads, shared with
+     * other terminals, rather than on a thread of its own. Set before connecting.
+     */
+    public void setNetworkSelector(NetworkSelector selector) {
+        this.network.setSelector(selector);
+    }
+
     public void setAutoReconnect(boolean newAutoReconnect) {
         this.autoReconnect = newAutoReconnect;
     }
@@ -135,7 +145,11 @@ public class Terminal implements ITerminal {
         
         logger.trace("Creating network thread");
         networkThread = new NetworkThread(this, screen, network, network.getInputStream(), this.deviceTypes);
-        networkThread.start();
+        if (network.isMultiplexed()) {
+            network.startReading(networkThread);
+        } else {
+            networkThread.start();
+        }
         
         Instant expire = Instant.now().plus(60, ChronoUnit.SECONDS);
         boolean started = false;
@@ -181,7 +195,7 @@ public class Terminal implements ITerminal {
         if (networkThread != null) {
             try {
                 logger.trace("Waiting for network thread to end...");
-                networkThread.join(MAX_MILLISECS_TO_WAIT_FOR_NETWORK_THREAD_TO_FINISH);
+                networkThread.waitForEnd(MAX_MILLISECS_TO_WAIT_FOR_NETWORK_THREAD_TO_FINISH);
                 logger.trace("Network thread ended OK");
             } catch (InterruptedException e) {
                 logger.warn("Interrupted while waiting for network thread to end. Network thread might still be active.");
@@ -273,25 +287,15 @@ public class Terminal implements ITerminal {
     
     @Override
     public boolean isTextInField(String text, long timeoutInMilliseconds) throws TerminalInterruptedException {
-        if (isTextInField(text)) {
-            return true;
-        }
-        
-        Instant expire = Instant.now().plus(timeoutInMilliseconds, ChronoUnit.MILLIS);
-        while(expire.isAfter(Instant.now())) {
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new TerminalInterruptedException("Wait for text was interrupted",e);
-            }
-            
-            if (isTextInField(text)) {
-                return true;
-            }
+        try {
+            return ScreenUpdateTextListener.waitForText(screen, new String[] { text }, null, timeoutInMilliseconds) >= 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TerminalInterruptedException("Wait for text was interrupted",e);
+        } catch (Zos3270Exception e) {
+            // Only an error text can cause this, and there are none
+            return false;
         }
-        
-        return false;
     }
 
     @Override
@@ -312,34 +316,30 @@ public class Terminal implements ITerminal {
     @Override
     public boolean searchText(String text, int occurrences, long milliTimeout) {
     	    	
-    	long startTime = System.currentTimeMillis();
-    	
     	logger.info("Searching for " + occurrences + " counts of '" + text + "' on terminal screen over " + milliTimeout + "ms");
     	
-    	do {
+    	boolean found = false;
+    	if (occurrences < 1) {
+    		logger.info("The number of occurrences to search for must be at least 1");
+    	} else {
     		try {
-    			// Scan the terminal screen
-    			textScan.getTextScanner().scan(retrieveScreen(), text, null, occurrences);
-    			
-    		} catch (TextScanManagerException e) {
-    			    			
-    			try {
-        			Thread.sleep(2000);
-    			} catch (InterruptedException interEx) {}
-    			
-       			// Exception has occurred so text was not found    
-    			continue;
+    			// Wakes as soon as a screen update shows enough occurrences of the text
+    			found = ScreenUpdateOccurrenceListener.waitForOccurrences(screen, text, occurrences, milliTimeout);
+    		} catch (InterruptedException e) {
+    			Thread.currentThread().interrupt();
+    			logger.info("Search for '" + text + "' on terminal screen was interrupted");
+    		} catch (Zos3270Exception e) {
+    			logger.info("Search for '" + text + "' on terminal screen failed", e);
     		}
-    		
-    		// At this point, the text must have been found as an exception wasn't thrown
-    		logger.info("Found " + occurrences + " counts of '" + text + "' on terminal screen");
-    		return true;
-    		
-		} while ((System.currentTimeMillis() - startTime) <= milliTimeout);
+    	}
     	
-    	logger.info("Did not find " + occurrences + " counts of '" + text + "' on terminal screen");
+    	if (found) {
+    		logger.info("Found " + occurrences + " counts of '" + text + "' on terminal screen");
+    	} else {
+    		logger.info("Did not find " + occurrences + " counts of '" + text + "' on terminal screen");
+    	}
     	
-    	return false;
+    	return found;
     }
     
     @Override
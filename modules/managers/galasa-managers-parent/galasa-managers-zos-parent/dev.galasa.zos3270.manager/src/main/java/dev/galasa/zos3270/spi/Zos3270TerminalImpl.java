@@ -5,8 +5,11 @@
  */
 package dev.galasa.zos3270.spi;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
@@ -36,12 +39,15 @@ import dev.galasa.zos3270.common.screens.FieldContents;
 import dev.galasa.zos3270.common.screens.TerminalField;
 import dev.galasa.zos3270.common.screens.TerminalImage;
 import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.common.screens.json.TerminalDeltaJsonWriter;
 import dev.galasa.zos3270.common.screens.json.TerminalJsonTransform;
 import dev.galasa.zos3270.internal.properties.ApplyConfidentialTextFiltering;
 import dev.galasa.zos3270.internal.properties.LiveTerminalUrl;
 import dev.galasa.zos3270.internal.properties.LogConsoleTerminals;
 import dev.galasa.zos3270.internal.properties.TerminalDeviceName;
 import dev.galasa.zos3270.internal.properties.TerminalDeviceTypes;
+import dev.galasa.zos3270.internal.properties.TerminalRasFormat;
+import dev.galasa.zos3270.internal.terminal.ConfidentialTextFilteringWriter;
 
 public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListener {
 
@@ -57,6 +63,11 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
 
     private final ArrayList<TerminalImage> cachedImages = new ArrayList<>();
 
+    // *** In the delta format, images are streamed into the RAS as they arrive
+    private final boolean deltaRasFormat;
+    private TerminalDeltaJsonWriter rasWriter;
+    private int rasWriterImages;
+
     private Path storedArtifactsRoot;
     private final Path terminalRasDirectory;
     private int rasTerminalSequence;
@@ -92,6 +103,7 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         this.autoConnect = autoConnect;
         this.cts = framework.getConfidentialTextService();
         this.applyCtf = ApplyConfidentialTextFiltering.get();
+        this.deltaRasFormat = TerminalRasFormat.DELTA.equals(TerminalRasFormat.get());
         this.textScan = textScanner;
 
         getScreen().registerScreenUpdateListener(this);
@@ -139,6 +151,7 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         this.autoConnect = autoConnect;
         this.cts = framework.getConfidentialTextService();
         this.applyCtf = ApplyConfidentialTextFiltering.get();
+        this.deltaRasFormat = TerminalRasFormat.DELTA.equals(TerminalRasFormat.get());
         this.textScan = textScanner;
 
         getScreen().registerScreenUpdateListener(this);
@@ -207,11 +220,17 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         TerminalImage terminalImage = new TerminalImage(updateId, update, direction == Direction.RECEIVED, null,
                 aidText, terminalSize, cursorCol, cursorRow);
         terminalImage.getFields().addAll(buildTerminalFields(getScreen()));
-        cachedImages.add(terminalImage);
-        updateCurrentTerminal(terminalImage, terminalSize);
-        if (cachedImages.size() >= 10) {
-            writeRasOutput();
-            flushTerminalCache();
+        TerminalImage sanitizedImage = updateCurrentTerminal(terminalImage, terminalSize);
+        if (deltaRasFormat) {
+            writeRasImage(sanitizedImage, terminalSize);
+        } else {
+            // *** Confidential text is removed from the cached images again when they are written,
+            // *** along with a pass over the whole json, so the original image is cached
+            cachedImages.add(terminalImage);
+            if (cachedImages.size() >= 10) {
+                writeRasOutput();
+                flushTerminalCache();
+            }
         }
 
         if (liveTerminalUrl != null) {
@@ -219,8 +238,7 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
                 liveTerminalSequence++;
                 dev.galasa.zos3270.common.screens.Terminal liveTerminal = new dev.galasa.zos3270.common.screens.Terminal(
                         this.terminalId, this.runId, liveTerminalSequence, terminalSize);
-                TerminalImage newTerminalImage = removeConfidentialTextFromTerminalImage(terminalImage);
-                liveTerminal.getImages().add(newTerminalImage);
+                liveTerminal.getImages().add(sanitizedImage);
 
                 String tempJson = terminalJsonTransform.toJsonString(liveTerminal);
 
@@ -257,7 +275,7 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         }
     }
 
-    private void updateCurrentTerminal(TerminalImage terminalImage, TerminalSize terminalSize) {
+    private TerminalImage updateCurrentTerminal(TerminalImage terminalImage, TerminalSize terminalSize) {
         dev.galasa.zos3270.common.screens.Terminal rasTerminal = new dev.galasa.zos3270.common.screens.Terminal(
             this.terminalId, this.runId, rasTerminalSequence, terminalSize);
 
@@ -265,9 +283,15 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         rasTerminal.addImage(sanitizedImage);
 
         super.setCurrentTerminal(rasTerminal);
+        return sanitizedImage;
     }
 
     public synchronized void writeRasOutput() {
+        if (deltaRasFormat) {
+            closeRasWriter();
+            return;
+        }
+
         rasTerminalSequence++;
 
         try {
@@ -304,18 +328,76 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
             tempJson = cts.removeConfidentialText(tempJson);
         }
 
-        String terminalFilename = this.terminalId + "-" + String.format("%05d", rasTerminalSequence) + ".gz";
-        Path terminalPath = terminalRasDirectory.resolve(terminalFilename);
-
-        try (GZIPOutputStream gos = new GZIPOutputStream(Files.newOutputStream(terminalPath,
-                new SetContentType(ResultArchiveStoreContentType.GZIP),
-                StandardOpenOption.CREATE))) {
+        try (GZIPOutputStream gos = newRasTerminalFile()) {
             IOUtils.write(tempJson, gos, "utf-8");
             gos.flush();
             gos.close();
         }
     }
 
+    /**
+     * Streams an image, which has already had confidential text removed from its
+     * fields, straight into the current RAS file in the delta format. A new file
+     * is started every 10 images, and each file starts with a full image so it can
+     * be read on its own.
+     *
+     * As in the full format, the json is also passed through the confidential text
+     * service as a whole when filtering is on. This is done an image at a time, as
+     * each image is flushed, so text split over fields or json values is found.
+     */
+    private void writeRasImage(TerminalImage sanitizedImage, TerminalSize terminalSize) {
+        try {
+            if (this.rasWriter == null) {
+                rasTerminalSequence++;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(newRasTerminalFile(), StandardCharsets.UTF_8));
+                if (applyCtf) {
+                    writer = new ConfidentialTextFilteringWriter(writer, cts);
+                }
+                try {
+                    this.rasWriter = new TerminalDeltaJsonWriter(writer, this.terminalId, this.runId,
+                            rasTerminalSequence, terminalSize);
+                } catch (IOException e) {
+                    writer.close();
+                    throw e;
+                }
+            }
+            this.rasWriter.writeImage(sanitizedImage);
+            this.rasWriter.flush();
+            this.rasWriterImages++;
+        } catch (Exception e) {
+            logger.error("Unable to write terminal image to the RAS", e);
+            closeRasWriter();
+            return;
+        }
+
+        if (this.rasWriterImages >= 10) {
+            closeRasWriter();
+        }
+    }
+
+    private void closeRasWriter() {
+        if (this.rasWriter == null) {
+            return;
+        }
+
+        try {
+            this.rasWriter.close();
+        } catch (Exception e) {
+            logger.error("Unable to write terminal images to the RAS", e);
+        }
+        this.rasWriter = null;
+        this.rasWriterImages = 0;
+    }
+
+    private GZIPOutputStream newRasTerminalFile() throws IOException {
+        String terminalFilename = this.terminalId + "-" + String.format("%05d", rasTerminalSequence) + ".gz";
+        Path terminalPath = terminalRasDirectory.resolve(terminalFilename);
+
+        return new GZIPOutputStream(Files.newOutputStream(terminalPath,
+                new SetContentType(ResultArchiveStoreContentType.GZIP),
+                StandardOpenOption.CREATE));
+    }
+
     /**
      * Creates a copy of the original TerminalImage, iterates through it's TerminalFields and FieldContents,
      * and creates a new TerminalImage with confidential text removed.
@@ -0,0 +1,84 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import dev.galasa.framework.spi.IConfidentialTextService;
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.common.screens.json.TerminalDeltaJsonWriter;
+
+public class ConfidentialTextFilteringWriterTest {
+
+    private static final String SECRET = "PASSW0RD";
+
+    private IConfidentialTextService createConfidentialTextService() {
+        return new IConfidentialTextService() {
+            @Override
+            public void registerText(String confidentialString, String comment) {
+            }
+
+            @Override
+            public String removeConfidentialText(String text) {
+                return text.replace(SECRET, "**1**");
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+    }
+
+    @Test
+    public void testTextWrittenInPiecesIsFilteredWhenFlushed() throws Exception {
+        StringWriter target = new StringWriter();
+        ConfidentialTextFilteringWriter writer = new ConfidentialTextFilteringWriter(target, createConfidentialTextService());
+
+        writer.write("user PASS");
+        writer.write("W0RD entered");
+        assertThat(target.toString()).as("nothing should be passed on before a flush").isEmpty();
+
+        writer.flush();
+        assertThat(target.toString()).isEqualTo("user **1** entered");
+
+        writer.write(" again " + SECRET);
+        writer.close();
+        assertThat(target.toString()).isEqualTo("user **1** entered again **1**");
+    }
+
+    @Test
+    public void testDeltaJsonIsFilteredAnImageAtATime() throws Exception {
+        StringWriter target = new StringWriter();
+        ConfidentialTextFilteringWriter writer = new ConfidentialTextFilteringWriter(target, createConfidentialTextService());
+
+        TerminalSize size = new TerminalSize(20, 1);
+        TerminalDeltaJsonWriter deltaWriter = new TerminalDeltaJsonWriter(writer, "term1", "run1", 1, size);
+
+        TerminalImage image = new TerminalImage(1, "update", true, null, null, size, 0, 0);
+        TerminalField field = new TerminalField(0, 0, false, false, false, true, false, false, false, null, null, null);
+        String fieldText = "logon " + SECRET;
+        Character[] fieldChars = new Character[fieldText.length()];
+        for (int i = 0; i < fieldChars.length; i++) {
+            fieldChars[i] = fieldText.charAt(i);
+        }
+        field.getContents().add(new FieldContents(fieldChars));
+        image.getFields().add(field);
+
+        deltaWriter.writeImage(image);
+        deltaWriter.flush();
+        assertThat(target.toString()).contains("logon **1**").doesNotContain(SECRET);
+
+        deltaWriter.close();
+        assertThat(target.toString()).doesNotContain(SECRET).endsWith("]}");
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+import dev.galasa.zos3270.ErrorTextFoundException;
+import dev.galasa.zos3270.TextNotFoundException;
+
+public class FieldTextMatcherTest {
+
+    // Three fields, "SIGN ON", "USERID" and "PASSWORD"
+    private static final char[] FIELD_TEXT = "SIGN ONUSERIDPASSWORD".toCharArray();
+    private static final int[] FIELD_ENDS = new int[] { 7, 13, 21 };
+
+    @Test
+    public void testFindsTheFirstFieldOfOverlappingTexts() {
+        // Given...
+        FieldTextMatcher matcher = new FieldTextMatcher(new String[] { "WORD", "PASSWORD", "USER", "SIGN" }, null);
+
+        // When...
+        int[] firstFields = matcher.findFirstFields(FIELD_TEXT, FIELD_ENDS);
+
+        // Then...
+        assertThat(firstFields).containsExactly(2, 2, 1, 0);
+    }
+
+    @Test
+    public void testTextsSpanningTwoFieldsAreNotFound() {
+        // Given...
+        FieldTextMatcher matcher = new FieldTextMatcher(new String[] { "ONUSER", "IDPASS", "" }, null);
+
+        // When...
+        int[] firstFields = matcher.findFirstFields(FIELD_TEXT, FIELD_ENDS);
+
+        // Then...
+        assertThat(firstFields).containsExactly(-1, -1, 0);
+    }
+
+    @Test
+    public void testErrorTextTakesPriorityOverOkText() {
+        // Given...
+        FieldTextMatcher matcher = new FieldTextMatcher(new String[] { "SIGN ON" }, new String[] { "LOCKED", "PASSWORD" });
+
+        // When...
+        Throwable thrown = catchThrowable(() -> matcher.search(FIELD_TEXT, FIELD_ENDS));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ErrorTextFoundException.class).hasMessageContaining("PASSWORD");
+        assertThat(((ErrorTextFoundException) thrown).getErrorId()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSearchReturnsTheFirstOkTextInTheListThatIsFound() throws Exception {
+        // Given...
+        FieldTextMatcher matcher = new FieldTextMatcher(new String[] { "MISSING", "USERID", "SIGN" }, new String[] { "LOCKED" });
+
+        // When...
+        int found = matcher.search(FIELD_TEXT, FIELD_ENDS);
+
+        // Then...
+        assertThat(found).isEqualTo(1);
+        assertThatThrownBy(() -> new FieldTextMatcher("LOCKED").search(FIELD_TEXT, FIELD_ENDS))
+                .isInstanceOf(TextNotFoundException.class);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.internal.comms.NetworkSelector;
+import dev.galasa.zos3270.internal.comms.NetworkServer;
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.datastream.AbstractCommandCode;
+import dev.galasa.zos3270.spi.Terminal;
+import dev.galasa.zos3270.util.Zos3270TestBase;
+
+public class NetworkSelectorTest extends Zos3270TestBase {
+
+    private NetworkSelector selector;
+    private ServerSocket    stubHost;
+
+    @Before
+    public void setUp() throws Exception {
+        selector = new NetworkSelector(2);
+        stubHost = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        selector.shutdown();
+        stubHost.close();
+    }
+
+    @Test
+    public void testManyTerminalsShareTheSelectorThreads() throws Exception {
+        // Given...
+        int terminalCount = 20;
+        CompletableFuture<List<NetworkServer>> hosts = CompletableFuture.supplyAsync(() -> {
+            List<NetworkServer> servers = new ArrayList<>();
+            try {
+                for (int i = 0; i < terminalCount; i++) {
+                    NetworkServer server = new NetworkServer(stubHost.accept());
+                    server.sendDatastream(screen("READY " + i));
+                    servers.add(server);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return servers;
+        });
+
+        long networkThreadsBefore = countNetworkThreads();
+
+        // When...
+        List<Terminal> terminals = new ArrayList<>();
+        for (int i = 0; i < terminalCount; i++) {
+            Terminal terminal = createTerminal("term" + i);
+            terminal.connect();
+            terminals.add(terminal);
+        }
+
+        // Then...
+        for (int i = 0; i < terminalCount; i++) {
+            assertThat(terminals.get(i).searchText("READY " + i, 10_000L)).isTrue();
+        }
+        assertThat(Thread.getAllStackTraces().keySet()).filteredOn(thread -> thread.getName().startsWith("3270 network io")).hasSize(2);
+        assertThat(countNetworkThreads()).isEqualTo(networkThreadsBefore);
+
+        for (Terminal terminal : terminals) {
+            terminal.disconnect();
+            assertThat(terminal.isConnected()).isFalse();
+        }
+        for (NetworkServer server : hosts.get(10, TimeUnit.SECONDS)) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testMessagesSplitAcrossReadsAreProcessedWhenComplete() throws Exception {
+        // Given...
+        CompletableFuture<Socket> host = CompletableFuture.supplyAsync(() -> {
+            try {
+                Socket socket = stubHost.accept();
+                new NetworkServer(socket);
+                return socket;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Terminal terminal = createTerminal("term1");
+        terminal.connect();
+        OutputStream toTerminal = host.get(10, TimeUnit.SECONDS).getOutputStream();
+
+        // When...
+        // The first screen arrives without the last byte of its IAC EOR, then the
+        // rest of it arrives with the whole of the next screen
+        byte[] first = message(screen("FIRST"));
+        byte[] second = message(screen("SECOND"));
+        toTerminal.write(first, 0, first.length - 1);
+        toTerminal.flush();
+
+        // Then...
+        assertThat(terminal.searchText("FIRST", 500L)).isFalse();
+
+        toTerminal.write(first, first.length - 1, 1);
+        toTerminal.write(second);
+        toTerminal.flush();
+
+        assertThat(terminal.searchText("SECOND", 10_000L)).isTrue();
+        assertThat(terminal.isConnected()).isTrue();
+
+        terminal.disconnect();
+        host.get().close();
+    }
+
+    private long countNetworkThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(thread -> thread instanceof NetworkThread).count();
+    }
+
+    private Terminal createTerminal(String id) throws Exception {
+        Terminal terminal = new Terminal(id, "localhost", stubHost.getLocalPort(), false, false, new TerminalSize(80, 24),
+                new TerminalSize(0, 0), null, ebcdic);
+        terminal.setNetworkSelector(selector);
+        return terminal;
+    }
+
+    private byte[] screen(String text) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(AbstractCommandCode.ERASE_WRITE);
+        baos.write(0xc3);
+        baos.write(text.getBytes(ebcdic));
+        return baos.toByteArray();
+    }
+
+    private byte[] message(byte[] datastream) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(new byte[] { 0, 0, 0, 0, 0 });
+        baos.write(datastream);
+        baos.write(NetworkThread.IAC);
+        baos.write(NetworkThread.EOR);
+        return baos.toByteArray();
+    }
+
+}
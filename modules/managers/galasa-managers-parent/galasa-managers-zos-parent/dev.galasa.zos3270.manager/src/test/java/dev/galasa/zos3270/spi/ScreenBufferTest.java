@@ -0,0 +1,157 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+
+public class ScreenBufferTest {
+
+    @Test
+    public void testFieldStartAttributesArePackedAndUnpacked() {
+        // Given...
+        ScreenBuffer buffer = new ScreenBuffer(80);
+
+        // When...
+        buffer.setFieldStart(10, true, false, true, true, false, false, Highlight.UNDERSCORE, Colour.NEUTRAL,
+                Colour.BLUE);
+        buffer.setFieldStart(20, false, true, false, false, true, true, null, null, null);
+
+        // Then...
+        assertThat(buffer.isFieldStart(10)).isTrue();
+        assertThat(buffer.isProtected(10)).isTrue();
+        assertThat(buffer.isNumeric(10)).isFalse();
+        assertThat(buffer.isDisplay(10)).isTrue();
+        assertThat(buffer.isIntenseDisplay(10)).isTrue();
+        assertThat(buffer.isSelectorPen(10)).isFalse();
+        assertThat(buffer.isFieldModified(10)).isFalse();
+        assertThat(buffer.getHighlight(10)).isEqualTo(Highlight.UNDERSCORE);
+        assertThat(buffer.getForegroundColour(10)).isEqualTo(Colour.NEUTRAL);
+        assertThat(buffer.getBackgroundColour(10)).isEqualTo(Colour.BLUE);
+
+        assertThat(buffer.isProtected(20)).isFalse();
+        assertThat(buffer.isNumeric(20)).isTrue();
+        assertThat(buffer.isSelectorPen(20)).isTrue();
+        assertThat(buffer.isFieldModified(20)).isTrue();
+        assertThat(buffer.getHighlight(20)).isNull();
+        assertThat(buffer.getForegroundColour(20)).isNull();
+        assertThat(buffer.getBackgroundColour(20)).isNull();
+
+        buffer.clearAllFieldsModified();
+        assertThat(buffer.isFieldModified(20)).isFalse();
+        assertThat(buffer.isNumeric(20)).isTrue();
+    }
+
+    @Test
+    public void testOwningFieldStartWrapsRoundTheEndOfTheScreen() {
+        // Given...
+        ScreenBuffer buffer = new ScreenBuffer(80);
+        buffer.setFieldStart(30, false, false, true, false, false, false, null, null, null);
+        buffer.setFieldStart(60, true, false, true, false, false, false, null, null, null);
+
+        // When...
+        // Then...
+        assertThat(buffer.getOwningFieldStart(45)).isEqualTo(30);
+        assertThat(buffer.getOwningFieldStart(61)).isEqualTo(60);
+        assertThat(buffer.getOwningFieldStart(5)).isEqualTo(60);
+        assertThat(buffer.getOwningFieldStart(30)).isEqualTo(60);
+        assertThat(buffer.getLastFieldStart()).isEqualTo(60);
+        assertThat(buffer.getNextFieldStart(31)).isEqualTo(60);
+
+        // Overwriting a start of field removes it from the bitmap
+        buffer.setChar(60, 'A');
+        assertThat(buffer.getOwningFieldStart(5)).isEqualTo(30);
+        assertThat(buffer.getOwningFieldStart(30)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testCharactersAreReadForFieldsDisplayAndOutbound() {
+        // Given...
+        Charset codePage = Charset.forName("Cp037");
+        ScreenBuffer buffer = new ScreenBuffer(5);
+
+        // When...
+        buffer.setChar(0, 'A');
+        buffer.setChar(1, (char) 0);
+        buffer.setGraphicsEscape(2, (byte) 0xad);
+        buffer.setControl(3, ScreenBuffer.TYPE_NEW_LINE, (byte) 0x15);
+
+        // Then...
+        assertThat(buffer.getFieldChars(0, 5)).containsExactly('A', (char) 0, ' ', ' ', (char) 0);
+        assertThat(buffer.getDisplayChar(0)).isEqualTo('A');
+        assertThat(buffer.getDisplayChar(1)).isEqualTo(' ');
+        assertThat(buffer.getDisplayChar(4)).isEqualTo(' ');
+
+        assertThat(buffer.getEbcdic(0, codePage)).isEqualTo((byte) 0xc1);
+        assertThat(buffer.getEbcdic(1, codePage)).isEqualTo((byte) 0);
+        assertThat(buffer.getEbcdic(2, codePage)).isEqualTo((byte) 0xad);
+        assertThat(buffer.getEbcdic(3, codePage)).isEqualTo((byte) 0x15);
+
+        assertThat(buffer.isCharacter(3)).isTrue();
+        assertThat(buffer.isEmpty(4)).isTrue();
+    }
+
+    @Test
+    public void testControlCharactersAreReadAsSpacesLikeTheirBufferHolders() {
+        // Given...
+        ScreenBuffer buffer = new ScreenBuffer(5);
+
+        // When...
+        buffer.setGraphicsEscape(0, (byte) 0xad);
+        buffer.setControl(1, ScreenBuffer.TYPE_NEW_LINE, (byte) 0x15);
+        buffer.setControl(2, ScreenBuffer.TYPE_FORM_FEED, (byte) 0x0c);
+        buffer.setControl(3, ScreenBuffer.TYPE_CARRAGE_RETURN, (byte) 0x0d);
+        buffer.setControl(4, ScreenBuffer.TYPE_END_OF_MEDIUM, (byte) 0x19);
+
+        // Then...
+        for (int i = 0; i < 5; i++) {
+            BufferChar bufferHolder = (BufferChar) buffer.getBufferHolder(i);
+            assertThat(buffer.getFieldChar(i)).isEqualTo(' ').isEqualTo(bufferHolder.getChar());
+            assertThat(buffer.getDisplayChar(i)).isEqualTo(' ');
+            assertThat(buffer.getEbcdic(i, null)).isEqualTo(bufferHolder.getFieldEbcdic(null));
+        }
+        assertThat(buffer.getEbcdic(1, null)).isEqualTo((byte) 0x15);
+    }
+
+    @Test
+    public void testBufferHolderViewRoundTrips() {
+        // Given...
+        ScreenBuffer buffer = new ScreenBuffer(4);
+        buffer.setFieldStart(0, true, false, true, false, false, true, Highlight.REVERSE, Colour.RED, null);
+        buffer.setChar(1, 'X');
+        buffer.setGraphicsEscape(2, (byte) 0xc5);
+
+        // When...
+        ScreenBuffer copy = new ScreenBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            copy.setBufferHolder(i, buffer.getBufferHolder(i));
+        }
+
+        // Then...
+        assertThat(buffer.getBufferHolder(0)).isInstanceOf(BufferStartOfField.class);
+        BufferStartOfField sf = (BufferStartOfField) buffer.getBufferHolder(0);
+        assertThat(sf.isProtected()).isTrue();
+        assertThat(sf.isFieldModifed()).isTrue();
+        assertThat(sf.getHighlight()).isEqualTo(Highlight.REVERSE);
+        assertThat(sf.getForegroundColour()).isEqualTo(Colour.RED);
+        assertThat(sf.getBackgroundColour()).isNull();
+
+        assertThat(buffer.getBufferHolder(1)).isInstanceOf(BufferChar.class);
+        assertThat(buffer.getBufferHolder(2)).isInstanceOf(BufferGraphicsEscape.class);
+        assertThat(buffer.getBufferHolder(3)).isNull();
+
+        assertThat(copy.isFieldStart(0)).isTrue();
+        assertThat(copy.getHighlight(0)).isEqualTo(Highlight.REVERSE);
+        assertThat(copy.getForegroundColour(0)).isEqualTo(Colour.RED);
+        assertThat(copy.getFieldChar(1)).isEqualTo('X');
+        assertThat(copy.getType(2)).isEqualTo(ScreenBuffer.TYPE_GRAPHICS_ESCAPE);
+        assertThat(copy.getEbcdic(2, null)).isEqualTo((byte) 0xc5);
+        assertThat(copy.isEmpty(3)).isTrue();
+    }
+}
@@ -85,4 +85,27 @@ public class TestScreen {
         assertThat(row).isEqualTo(0);
     }
 
+    @Test
+    public void testFieldsAreRecalculatedOnlyWhenTheScreenChanges() throws Exception {
+        // Given...
+        TerminalSize primarySize = new TerminalSize(10, 2);
+        Screen testScreen = new Screen(primarySize, new TerminalSize(0, 0), null, Charset.forName("Cp037"));
+        testScreen.setBuffer(0, 0, "USERID");
+        long firstVersion = testScreen.getUpdateVersion();
+
+        Field[] firstFields = testScreen.calculateFields();
+
+        // When...
+        Field[] unchangedFields = testScreen.calculateFields();
+        testScreen.setBuffer(0, 1, "PASSWORD");
+        Field[] changedFields = testScreen.calculateFields();
+
+        // Then...
+        assertThat(unchangedFields[0]).isSameAs(firstFields[0]);
+        assertThat(changedFields[0]).isNotSameAs(firstFields[0]);
+        assertThat(testScreen.getUpdateVersion()).isGreaterThan(firstVersion);
+        assertThat(testScreen.searchFieldContaining(new String[] { "MISSING", "PASSWORD" }, null)).isEqualTo(1);
+        assertThat(testScreen.isTextInField("USERID")).isTrue();
+    }
+
 }
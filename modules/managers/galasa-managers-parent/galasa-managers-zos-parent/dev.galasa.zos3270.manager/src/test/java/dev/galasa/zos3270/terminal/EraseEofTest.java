@@ -0,0 +1,85 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.terminal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import dev.galasa.zos3270.FieldNotFoundException;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.OrderEndOfMedium;
+import dev.galasa.zos3270.internal.datastream.OrderNewLine;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderStartField;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.spi.Field;
+import dev.galasa.zos3270.spi.Screen;
+import dev.galasa.zos3270.util.Zos3270TestBase;
+
+public class EraseEofTest extends Zos3270TestBase {
+
+    private Screen createScreenWithControlOrdersInAField() throws Exception {
+        Screen screen = CreateTestScreen(10, 1, null);
+        screen.erase();
+
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(false, false, true, false, false, false));
+        orders.add(new OrderText("A", ebcdic));
+        orders.add(new OrderNewLine());
+        orders.add(new OrderText("B", ebcdic));
+        orders.add(new OrderEndOfMedium());
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText("CDEF", ebcdic));
+
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+        return screen;
+    }
+
+    /**
+     * The new line and end of medium orders are read as spaces in a field, and
+     * are erased along with the characters around them
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testControlOrdersAreErasedUpToTheNextField() throws Exception {
+        Screen screen = createScreenWithControlOrdersInAField();
+        assertThat(screen.getFieldAt(1, 0).getFieldWithoutNulls()).as("control orders should read as spaces before test").isEqualTo("A B ");
+
+        screen.setCursorPosition(2);
+        screen.eraseEof();
+
+        Field field = screen.getFieldAt(1, 0);
+        assertThat(field.getFieldCharsWithNulls()).as("cursor onwards should be nulls after test").containsExactly('A', null, null, null);
+        assertThat(field.isFieldModifed()).isTrue();
+        assertThat(screen.getFieldAt(6, 0).getFieldWithoutNulls()).as("CDEF should be in the protected field after test").isEqualTo("CDEF");
+    }
+
+    /**
+     * Erase EOF with the cursor on a start of field is rejected
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCursorOnStartOfFieldIsRejected() throws Exception {
+        Screen screen = createScreenWithControlOrdersInAField();
+
+        screen.setCursorPosition(0);
+        Throwable thrown = catchThrowable(() -> screen.eraseEof());
+
+        assertThat(thrown).isInstanceOf(FieldNotFoundException.class);
+    }
+}
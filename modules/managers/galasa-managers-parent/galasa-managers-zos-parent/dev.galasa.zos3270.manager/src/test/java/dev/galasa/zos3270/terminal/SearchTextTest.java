@@ -0,0 +1,106 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.terminal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import dev.galasa.zos3270.IScreenUpdateListener.Direction;
+import dev.galasa.zos3270.Zos3270Exception;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderStartField;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.internal.terminal.ScreenUpdateOccurrenceListener;
+import dev.galasa.zos3270.spi.DatastreamException;
+import dev.galasa.zos3270.spi.Screen;
+import dev.galasa.zos3270.spi.Terminal;
+import dev.galasa.zos3270.util.Zos3270TestBase;
+
+public class SearchTextTest extends Zos3270TestBase {
+
+    @Test
+    public void testSearchCountsTheOccurrencesOnTheScreen() throws Exception {
+        // Given...
+        Terminal terminal = CreateTestTerminal();
+        setScreen(terminal.getScreen(), "abab", "ab");
+
+        // When...
+        // Then...
+        assertThat(terminal.getScreen().countTextOccurrences("ab", 10)).isEqualTo(3);
+        assertThat(terminal.getScreen().countTextOccurrences("ab", 2)).isEqualTo(2);
+        assertThat(terminal.searchText("ab", 3, 0L)).isTrue();
+        assertThat(terminal.searchText("ab", 4, 0L)).isFalse();
+        assertThat(terminal.searchText("ab", 0, 0L)).isFalse();
+    }
+
+    @Test
+    public void testSearchWakesAsSoonAsTheScreenIsUpdated() throws Exception {
+        // Given...
+        Terminal terminal = CreateTestTerminal();
+        Screen screen = terminal.getScreen();
+        setScreen(screen, "abcd", "1234");
+
+        CompletableFuture<Boolean> search = CompletableFuture.supplyAsync(() -> terminal.searchText("READY", 60_000L));
+
+        // When...
+        Thread.sleep(100);
+        assertThat(search).isNotDone();
+        long updated = System.currentTimeMillis();
+        setScreen(screen, "READY", "1234");
+
+        // Then...
+        assertThat(search.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.currentTimeMillis() - updated).isLessThan(2000);
+        assertThat(terminal.isTextInField("READY", 0)).isTrue();
+    }
+
+    @Test
+    public void testAnUpdateArrivingAfterTheWaitHasEndedIsIgnored() throws Exception {
+        // Given...
+        Terminal terminal = CreateTestTerminal();
+        Screen screen = terminal.getScreen();
+        setScreen(screen, "abcd", "1234");
+
+        ScreenUpdateOccurrenceListener listener = new ScreenUpdateOccurrenceListener(screen, "READY", 1);
+        assertThat(listener.waitForOccurrences(10L)).isFalse();
+
+        // When...
+        // The screen changes while it is notifying the listener, just as the wait ends
+        setScreen(screen, "READY", "1234");
+        Throwable lateUpdateFailure = catchThrowable(() -> listener.screenUpdated(Direction.RECEIVED, null));
+        Throwable reuseFailure = catchThrowable(() -> listener.waitForOccurrences(10L));
+
+        // Then...
+        assertThat(lateUpdateFailure).isNull();
+        assertThat(listener.getFoundOccurrences()).isEqualTo(1);
+        assertThat(reuseFailure).isInstanceOf(Zos3270Exception.class).hasMessageContaining("more than once");
+    }
+
+    private void setScreen(Screen screen, String firstField, String secondField) throws DatastreamException {
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(false, false, false, false, false, false));
+        orders.add(new OrderText(firstField, ebcdic));
+        orders.add(new OrderSetBufferAddress(new BufferAddress(10)));
+        orders.add(new OrderStartField(false, false, false, false, false, false));
+        orders.add(new OrderText(secondField, ebcdic));
+
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+    }
+
+}